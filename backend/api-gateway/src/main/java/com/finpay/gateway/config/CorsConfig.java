@@ -26,7 +26,7 @@ public class CorsConfig {
         config.setAllowedOrigins(List.of("http://localhost:5173", "http://localhost:3000"));
         config.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS"));
         config.setAllowedHeaders(List.of("*"));
-        config.setExposedHeaders(List.of("Set-Cookie", "Authorization"));
+        config.setExposedHeaders(List.of("Set-Cookie", "Authorization", "ETag"));
         config.setAllowCredentials(true);
         config.setMaxAge(3600L);
 
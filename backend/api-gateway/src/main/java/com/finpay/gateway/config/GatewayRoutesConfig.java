@@ -97,6 +97,14 @@ public class GatewayRoutesConfig {
                 .build();
     }
 
+    @Bean
+    public RouterFunction<ServerResponse> adminBillerRoute() {
+        return route("admin-billers")
+                .route(path("/api/v1/admin/billers/**"), HandlerFunctions.http())
+                .filter(lb("payment-service"))
+                .build();
+    }
+
     @Bean
     public RouterFunction<ServerResponse> adminWalletRoute() {
         return route("admin-wallets")
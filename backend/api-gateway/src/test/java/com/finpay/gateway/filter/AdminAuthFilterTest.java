@@ -0,0 +1,76 @@
+package com.finpay.gateway.filter;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("AdminAuthFilter Unit Tests")
+class AdminAuthFilterTest {
+
+    private static final String SECRET = "test-secret-key-for-admin-auth-filter-tests-0123456789";
+    private static final String DISBURSEMENTS = "/api/v1/admin/wallets/disbursements";
+
+    private final AdminAuthFilter filter = new AdminAuthFilter(SECRET);
+
+    @Test
+    @DisplayName("should reject a non-admin caller on the disbursement endpoint")
+    void shouldRejectNonAdminDisbursement() throws Exception {
+        MockHttpServletRequest request = request(token(UUID.randomUUID(), "USER"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(403);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    @DisplayName("should reject an unauthenticated caller on the disbursement endpoint")
+    void shouldRejectAnonymousDisbursement() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("POST", DISBURSEMENTS), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    @DisplayName("should pass an admin through with their ID forwarded")
+    void shouldForwardAdminId() throws Exception {
+        UUID adminId = UUID.randomUUID();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request(token(adminId, "ADMIN")), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(((HttpServletRequest) chain.getRequest()).getHeader("X-User-Id")).isEqualTo(adminId.toString());
+    }
+
+    private static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", DISBURSEMENTS);
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    private static String token(UUID userId, String role) {
+        return Jwts.builder()
+                .subject(userId.toString())
+                .claim("role", role)
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+}
@@ -1,5 +1,6 @@
 package com.finpay.auth.entity;
 
+import com.finpay.id.hibernate.TimeOrderedId;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -23,7 +24,7 @@ import java.util.UUID;
 public class UserCredential {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     private UUID id;
 
     @Column(nullable = false, unique = true)
@@ -0,0 +1,112 @@
+package com.finpay.id;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+/**
+ * Snowflake-style references such as {@code TRF-0B4ZK3M9Q0001}: a prefix
+ * followed by a 64-bit ID in 13 Crockford base32 characters.
+ *
+ * The ID packs 41 bits of milliseconds since {@link #EPOCH}, the 10-bit node
+ * ID and a 12-bit sequence, so two generators with different node IDs never
+ * collide, and references from one generator sort in the order they were
+ * issued. When the sequence overflows or the clock steps back, the
+ * generator runs ahead of the clock instead of waiting for it.
+ *
+ * The node ID can come from a supplier, such as a lease that may be lost and
+ * replaced; it is read for every ID, and an exception from it fails the call.
+ */
+public final class ReferenceGenerator {
+
+    /** Largest node ID; each running instance needs its own. */
+    public static final int MAX_NODE_ID = 1023;
+
+    /** Start of the 41-bit timestamp, which lasts until 2093. */
+    public static final Instant EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+
+    /** Length of the encoded ID after the prefix. */
+    public static final int ENCODED_LENGTH = 13;
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final int NODE_BITS = 10;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private final IntSupplier node;
+
+    /** Timestamp and sequence of the last ID, as {@code millis << 12 | sequence}. */
+    private final AtomicLong last = new AtomicLong();
+
+    public ReferenceGenerator(int nodeId) {
+        checkNodeId(nodeId);
+        this.node = () -> nodeId;
+    }
+
+    public ReferenceGenerator(IntSupplier nodeId) {
+        this.node = nodeId;
+    }
+
+    public int nodeId() {
+        return checkNodeId(node.getAsInt());
+    }
+
+    /** A new reference: {@code prefix} followed by the encoded {@link #nextId()}. */
+    public String next(String prefix) {
+        return prefix + encode(nextId());
+    }
+
+    public long nextId() {
+        return nextId(System.currentTimeMillis());
+    }
+
+    long nextId(long nowMillis) {
+        long nodeId = nodeId();
+        long floor = (nowMillis - EPOCH.toEpochMilli()) << SEQUENCE_BITS;
+        long tick = last.updateAndGet(previous -> Math.max(floor, previous + 1));
+        long millis = tick >>> SEQUENCE_BITS;
+        long sequence = tick & ((1L << SEQUENCE_BITS) - 1);
+        return millis << (NODE_BITS + SEQUENCE_BITS) | nodeId << SEQUENCE_BITS | sequence;
+    }
+
+    /** The fixed-width base32 form; sorts like the ID itself. */
+    public static String encode(long id) {
+        char[] chars = new char[ENCODED_LENGTH];
+        for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    /** When the ID in a reference with a prefix of {@code prefixLength} characters was issued. */
+    public static Instant issuedAt(String reference, int prefixLength) {
+        if (reference.length() - prefixLength != ENCODED_LENGTH) {
+            throw new IllegalArgumentException("Not a generated reference: " + reference);
+        }
+        long id = 0;
+        for (int i = prefixLength; i < reference.length(); i++) {
+            int digit = indexOf(reference.charAt(i));
+            if (digit < 0) {
+                throw new IllegalArgumentException("Not a generated reference: " + reference);
+            }
+            id = id << 5 | digit;
+        }
+        return EPOCH.plusMillis(id >>> (NODE_BITS + SEQUENCE_BITS));
+    }
+
+    private static int checkNodeId(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        return nodeId;
+    }
+
+    private static int indexOf(char c) {
+        for (int i = 0; i < ALPHABET.length; i++) {
+            if (ALPHABET[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
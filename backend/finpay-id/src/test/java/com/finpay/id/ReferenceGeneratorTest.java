@@ -0,0 +1,126 @@
+package com.finpay.id;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("ReferenceGenerator Unit Tests")
+class ReferenceGeneratorTest {
+
+    private static final long NOW = Instant.parse("2026-03-01T12:00:00Z").toEpochMilli();
+
+    @Nested
+    @DisplayName("IDs")
+    class Ids {
+
+        @Test
+        @DisplayName("should increase within a millisecond, past sequence overflow and when the clock steps back")
+        void shouldBeMonotonic() {
+            ReferenceGenerator generator = new ReferenceGenerator(7);
+            long previous = generator.nextId(NOW);
+            for (int i = 0; i < 5_000; i++) {
+                long id = generator.nextId(NOW);
+                assertThat(id).isGreaterThan(previous);
+                previous = id;
+            }
+
+            assertThat(generator.nextId(NOW - 1_000)).isGreaterThan(previous);
+        }
+
+        @Test
+        @DisplayName("should not collide between nodes in the same millisecond")
+        void shouldNotCollideBetweenNodes() {
+            assertThat(new ReferenceGenerator(1).nextId(NOW)).isNotEqualTo(new ReferenceGenerator(2).nextId(NOW));
+        }
+
+        @Test
+        @DisplayName("should not repeat across threads")
+        void shouldBeUniqueAcrossThreads() {
+            ReferenceGenerator generator = new ReferenceGenerator(0);
+            Set<Long> ids = ConcurrentHashMap.newKeySet();
+            IntStream.range(0, 50_000).parallel().forEach(i -> ids.add(generator.nextId()));
+
+            assertThat(ids).hasSize(50_000);
+        }
+
+        @Test
+        @DisplayName("should reject node IDs outside 10 bits")
+        void shouldRejectNodeIdOutOfRange() {
+            assertThatThrownBy(() -> new ReferenceGenerator(ReferenceGenerator.MAX_NODE_ID + 1))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> new ReferenceGenerator(-1))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("should read a supplied node ID for every ID and fail while it is unavailable")
+        void shouldFollowSuppliedNodeId() {
+            AtomicInteger nodeId = new AtomicInteger(1);
+            ReferenceGenerator generator = new ReferenceGenerator(() -> {
+                if (nodeId.get() < 0) {
+                    throw new IllegalStateException("No node ID");
+                }
+                return nodeId.get();
+            });
+            long first = generator.nextId(NOW);
+
+            nodeId.set(-1);
+            assertThatThrownBy(() -> generator.nextId(NOW)).isInstanceOf(IllegalStateException.class);
+
+            nodeId.set(2);
+            long second = generator.nextId(NOW);
+            assertThat(second).isGreaterThan(first);
+            assertThat(generator.nodeId()).isEqualTo(2);
+            assertThat(second >>> 12 & ReferenceGenerator.MAX_NODE_ID).isEqualTo(2);
+        }
+    }
+
+    @Nested
+    @DisplayName("References")
+    class References {
+
+        @Test
+        @DisplayName("should append a fixed-width base32 ID to the prefix")
+        void shouldFormatReference() {
+            String reference = new ReferenceGenerator(3).next("TRF-");
+
+            assertThat(reference).matches("TRF-[0-9A-HJKMNP-TV-Z]{13}");
+        }
+
+        @Test
+        @DisplayName("should sort in issue order")
+        void shouldSortInIssueOrder() {
+            ReferenceGenerator generator = new ReferenceGenerator(3);
+            String first = ReferenceGenerator.encode(generator.nextId(NOW));
+            String second = ReferenceGenerator.encode(generator.nextId(NOW));
+            String later = ReferenceGenerator.encode(generator.nextId(NOW + 1));
+
+            assertThat(first).isLessThan(second);
+            assertThat(second).isLessThan(later);
+        }
+
+        @Test
+        @DisplayName("should recover the issue time from a reference")
+        void shouldDecodeIssueTime() {
+            String reference = "REQ-" + ReferenceGenerator.encode(new ReferenceGenerator(9).nextId(NOW));
+
+            assertThat(ReferenceGenerator.issuedAt(reference, 4)).isEqualTo(Instant.ofEpochMilli(NOW));
+        }
+
+        @Test
+        @DisplayName("should reject references it did not generate")
+        void shouldRejectForeignReference() {
+            assertThatThrownBy(() -> ReferenceGenerator.issuedAt("TRF-1700000000000-AB12CD34", 4))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.finpay.id;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("UuidV7 Unit Tests")
+class UuidV7Test {
+
+    @Test
+    @DisplayName("should produce RFC 9562 version 7 UUIDs carrying the timestamp")
+    void shouldCarryVersionAndTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID uuid = UuidV7.generate();
+
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+        assertThat(UuidV7.timestampOf(uuid)).isGreaterThanOrEqualTo(before);
+    }
+
+    @Test
+    @DisplayName("should keep increasing within a millisecond, past counter overflow and when the clock steps back")
+    void shouldBeMonotonic() {
+        long now = System.currentTimeMillis() + 60_000;
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            ids.add(UuidV7.generate(now));
+        }
+        ids.add(UuidV7.generate(now - 1_000));
+
+        for (int i = 1; i < ids.size(); i++) {
+            assertThat(ids.get(i)).isGreaterThan(ids.get(i - 1));
+            assertThat(ids.get(i).toString()).isGreaterThan(ids.get(i - 1).toString());
+        }
+        assertThat(UuidV7.timestampOf(ids.getLast())).isEqualTo(now + 1);
+    }
+
+    @Test
+    @DisplayName("should not repeat across threads")
+    void shouldBeUniqueAcrossThreads() {
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        IntStream.range(0, 50_000).parallel().forEach(i -> ids.add(UuidV7.generate()));
+
+        assertThat(ids).hasSize(50_000);
+    }
+
+    @Test
+    @DisplayName("should reject timestamp of other UUID versions")
+    void shouldRejectOtherVersions() {
+        assertThatThrownBy(() -> UuidV7.timestampOf(UUID.randomUUID()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
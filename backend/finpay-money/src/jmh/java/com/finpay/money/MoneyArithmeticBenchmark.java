@@ -0,0 +1,70 @@
+package com.finpay.money;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the reserve-and-fee path on BigDecimal with the same path on long
+ * minor units. Run with {@code -prof gc} to see bytes allocated per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoneyArithmeticBenchmark {
+
+    private static final BigDecimal FEE_RATE = new BigDecimal("0.015");
+    private static final BigDecimal MIN_FEE = new BigDecimal("0.50");
+    private static final FeeSchedule FEE = FeeSchedule.percentage(FEE_RATE, MIN_FEE, RoundingMode.HALF_UP);
+
+    private BigDecimal balance;
+    private BigDecimal reserved;
+    private BigDecimal amount;
+
+    private long balanceMinor;
+    private long reservedMinor;
+    private long amountMinor;
+
+    @Setup
+    public void setUp() {
+        balance = new BigDecimal("10000.0000");
+        reserved = new BigDecimal("250.0000");
+        amount = new BigDecimal("123.4500");
+        balanceMinor = MinorUnits.of(balance);
+        reservedMinor = MinorUnits.of(reserved);
+        amountMinor = MinorUnits.of(amount);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        BigDecimal fee = amount.multiply(FEE_RATE).setScale(4, RoundingMode.HALF_UP).max(MIN_FEE);
+        BigDecimal total = amount.add(fee);
+        if (balance.subtract(reserved).compareTo(total) < 0) {
+            return BigDecimal.ZERO;
+        }
+        return reserved.add(total);
+    }
+
+    @Benchmark
+    public long minorUnits() {
+        long total = Math.addExact(amountMinor, FEE.feeMinor(amountMinor));
+        if (balanceMinor - reservedMinor < total) {
+            return 0;
+        }
+        return Math.addExact(reservedMinor, total);
+    }
+}
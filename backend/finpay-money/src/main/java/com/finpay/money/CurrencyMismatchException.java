@@ -0,0 +1,7 @@
+package com.finpay.money;
+
+public class CurrencyMismatchException extends IllegalArgumentException {
+    public CurrencyMismatchException(String expected, String actual) {
+        super("Currency mismatch: " + expected + " vs " + actual);
+    }
+}
@@ -0,0 +1,54 @@
+package com.finpay.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Percentage fee with a minimum, computed exactly in minor units.
+ *
+ * The rate is captured once as an integer fraction, so computing a fee is a
+ * single {@link MinorUnits#multiplyDivide} with no intermediate BigDecimals.
+ */
+public final class FeeSchedule {
+
+    private final long rateNumerator;
+    private final long rateDenominator;
+    private final long minimumMinor;
+    private final RoundingMode rounding;
+
+    private FeeSchedule(long rateNumerator, long rateDenominator, long minimumMinor, RoundingMode rounding) {
+        this.rateNumerator = rateNumerator;
+        this.rateDenominator = rateDenominator;
+        this.minimumMinor = minimumMinor;
+        this.rounding = rounding;
+    }
+
+    /**
+     * @param rate     fee as a fraction of the amount, e.g. {@code 0.015} for 1.5%
+     * @param minimum  smallest fee charged, in major units
+     * @param rounding applied when the fee falls between two minor units
+     */
+    public static FeeSchedule percentage(BigDecimal rate, BigDecimal minimum, RoundingMode rounding) {
+        BigDecimal exact = rate.stripTrailingZeros();
+        int scale = Math.max(0, exact.scale());
+        long numerator = exact.movePointRight(scale).longValueExact();
+        long denominator = BigDecimal.TEN.pow(scale).longValueExact();
+        return new FeeSchedule(numerator, denominator, MinorUnits.of(minimum), rounding);
+    }
+
+    public long feeMinor(long amountMinor) {
+        return Math.max(MinorUnits.multiplyDivide(amountMinor, rateNumerator, rateDenominator, rounding),
+                minimumMinor);
+    }
+
+    public Money fee(Money amount) {
+        return Money.ofMinor(feeMinor(amount.minor()), amount.currency());
+    }
+
+    /**
+     * Convenience for callers still holding decimals; the result has scale {@value MinorUnits#SCALE}.
+     */
+    public BigDecimal fee(BigDecimal amount) {
+        return MinorUnits.toDecimal(feeMinor(MinorUnits.of(amount, rounding)));
+    }
+}
@@ -0,0 +1,87 @@
+package com.finpay.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Static arithmetic on amounts held as {@code long} minor units.
+ *
+ * FinPay stores every amount as {@code DECIMAL(19,4)}, so one minor unit is
+ * one ten-thousandth of the currency's major unit regardless of the
+ * currency's customary decimals. Conversions to and from that scale are
+ * lossless, and all arithmetic here works on primitives without allocating.
+ */
+public final class MinorUnits {
+
+    /** Decimal places represented by one minor unit. */
+    public static final int SCALE = 4;
+
+    /** Minor units per major unit. */
+    public static final long ONE = 10_000L;
+
+    private MinorUnits() {
+    }
+
+    /**
+     * Converts a decimal amount to minor units, failing if it has more than
+     * {@value #SCALE} significant decimal places.
+     */
+    public static long of(BigDecimal amount) {
+        return of(amount, RoundingMode.UNNECESSARY);
+    }
+
+    public static long of(BigDecimal amount, RoundingMode rounding) {
+        return amount.setScale(SCALE, rounding).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toDecimal(long minor) {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+
+    /**
+     * Computes {@code amount * numerator / denominator} rounded with
+     * {@code rounding}. Uses 64-bit arithmetic unless the intermediate
+     * product overflows.
+     */
+    public static long multiplyDivide(long amount, long numerator, long denominator, RoundingMode rounding) {
+        if (denominator <= 0) {
+            throw new IllegalArgumentException("Denominator must be positive");
+        }
+        long high = Math.multiplyHigh(amount, numerator);
+        long low = amount * numerator;
+        if ((high == 0 && low >= 0) || (high == -1 && low < 0)) {
+            return divide(low, denominator, rounding);
+        }
+        return BigDecimal.valueOf(amount)
+                .multiply(BigDecimal.valueOf(numerator))
+                .divide(BigDecimal.valueOf(denominator), 0, rounding)
+                .longValueExact();
+    }
+
+    /**
+     * Divides with the semantics of {@link BigDecimal#divide(BigDecimal, int, RoundingMode)} at scale 0.
+     */
+    public static long divide(long numerator, long denominator, RoundingMode rounding) {
+        long quotient = numerator / denominator;
+        long remainder = numerator % denominator;
+        if (remainder == 0) {
+            return quotient;
+        }
+        int sign = (numerator < 0) == (denominator < 0) ? 1 : -1;
+        boolean increment = switch (rounding) {
+            case UNNECESSARY -> throw new ArithmeticException("Rounding necessary");
+            case DOWN -> false;
+            case UP -> true;
+            case FLOOR -> sign < 0;
+            case CEILING -> sign > 0;
+            case HALF_UP, HALF_DOWN, HALF_EVEN -> {
+                long absRemainder = Math.abs(remainder);
+                long halfway = Math.abs(denominator) - absRemainder;
+                int half = Long.compare(absRemainder, halfway);
+                yield half > 0 || (half == 0 && (rounding == RoundingMode.HALF_UP
+                        || (rounding == RoundingMode.HALF_EVEN && (quotient & 1) != 0)));
+            }
+        };
+        return increment ? quotient + sign : quotient;
+    }
+}
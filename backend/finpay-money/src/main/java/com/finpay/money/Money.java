@@ -0,0 +1,149 @@
+package com.finpay.money;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Objects;
+
+/**
+ * Immutable amount of money: {@code long} minor units (see {@link MinorUnits})
+ * plus an ISO-4217 currency code.
+ *
+ * Arithmetic is exact and overflow-checked, and never allocates beyond the
+ * result instance. Operations on two amounts require the same currency.
+ */
+public final class Money implements Comparable<Money>, Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final long minor;
+    private final String currency;
+
+    private Money(long minor, String currency) {
+        this.minor = minor;
+        this.currency = currency;
+    }
+
+    public static Money ofMinor(long minor, String currency) {
+        return new Money(minor, normalize(currency));
+    }
+
+    /**
+     * Exact conversion; fails if {@code amount} has more than
+     * {@value MinorUnits#SCALE} significant decimal places.
+     */
+    public static Money of(BigDecimal amount, String currency) {
+        return new Money(MinorUnits.of(amount), normalize(currency));
+    }
+
+    public static Money of(BigDecimal amount, String currency, RoundingMode rounding) {
+        return new Money(MinorUnits.of(amount, rounding), normalize(currency));
+    }
+
+    public static Money zero(String currency) {
+        return new Money(0, normalize(currency));
+    }
+
+    public long minor() {
+        return minor;
+    }
+
+    public String currency() {
+        return currency;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return MinorUnits.toDecimal(minor);
+    }
+
+    // Arithmetic
+
+    public Money plus(Money other) {
+        requireSameCurrency(other);
+        return other.minor == 0 ? this : new Money(Math.addExact(minor, other.minor), currency);
+    }
+
+    public Money minus(Money other) {
+        requireSameCurrency(other);
+        return other.minor == 0 ? this : new Money(Math.subtractExact(minor, other.minor), currency);
+    }
+
+    public Money negate() {
+        return minor == 0 ? this : new Money(Math.negateExact(minor), currency);
+    }
+
+    /**
+     * Multiplies by {@code numerator / denominator}, rounding the result to a minor unit.
+     */
+    public Money multiply(long numerator, long denominator, RoundingMode rounding) {
+        return new Money(MinorUnits.multiplyDivide(minor, numerator, denominator, rounding), currency);
+    }
+
+    public Money max(Money other) {
+        return compareTo(other) >= 0 ? this : other;
+    }
+
+    public Money min(Money other) {
+        return compareTo(other) <= 0 ? this : other;
+    }
+
+    // Comparison
+
+    public int signum() {
+        return Long.signum(minor);
+    }
+
+    public boolean isZero() {
+        return minor == 0;
+    }
+
+    public boolean isNegative() {
+        return minor < 0;
+    }
+
+    public boolean isGreaterThan(Money other) {
+        return compareTo(other) > 0;
+    }
+
+    public boolean isLessThan(Money other) {
+        return compareTo(other) < 0;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        requireSameCurrency(other);
+        return Long.compare(minor, other.minor);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof Money other && minor == other.minor && currency.equals(other.currency));
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minor) * 31 + currency.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString() + " " + currency;
+    }
+
+    private void requireSameCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new CurrencyMismatchException(currency, other.currency);
+        }
+    }
+
+    private static String normalize(String currency) {
+        Objects.requireNonNull(currency, "currency");
+        if (currency.length() != 3) {
+            throw new IllegalArgumentException("Invalid currency code: " + currency);
+        }
+        // Interned so equal codes share one instance and compare by reference first
+        return currency.toUpperCase().intern();
+    }
+}
@@ -0,0 +1,56 @@
+package com.finpay.money.jackson;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.finpay.money.Money;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Jackson support for {@link Money}. Amounts are written as
+ * {@code {"amount": 12.3400, "currency": "USD"}} with the amount as a JSON
+ * decimal, so consumers that read plain BigDecimal amounts keep working.
+ */
+public class MoneyModule extends SimpleModule {
+
+    public MoneyModule() {
+        super("FinPayMoneyModule");
+        addSerializer(Money.class, new MoneySerializer());
+        addDeserializer(Money.class, new MoneyDeserializer());
+    }
+
+    static final class MoneySerializer extends JsonSerializer<Money> {
+        @Override
+        public void serialize(Money value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeStartObject();
+            gen.writeNumberField("amount", value.toBigDecimal());
+            gen.writeStringField("currency", value.currency());
+            gen.writeEndObject();
+        }
+    }
+
+    static final class MoneyDeserializer extends JsonDeserializer<Money> {
+        @Override
+        public Money deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.currentToken() != JsonToken.START_OBJECT) {
+                return (Money) context.handleUnexpectedToken(Money.class, parser);
+            }
+            JsonNode node = parser.readValueAsTree();
+            JsonNode amount = node.get("amount");
+            JsonNode currency = node.get("currency");
+            if (amount == null || currency == null) {
+                return (Money) context.handleWeirdStringValue(Money.class, node.toString(),
+                        "Money requires 'amount' and 'currency'");
+            }
+            return Money.of(new BigDecimal(amount.asText()), currency.asText());
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.finpay.money.jpa;
+
+import com.finpay.money.MinorUnits;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+/**
+ * Maps a {@code long} minor-unit attribute to a {@code DECIMAL(19,4)}
+ * column, so entities can do primitive arithmetic without a schema change.
+ * Like {@link MinorUnits#of(BigDecimal)}, a value finer than the scale is
+ * rejected rather than rounded.
+ */
+@Converter
+public class MinorUnitsConverter implements AttributeConverter<Long, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Long minor) {
+        return minor == null ? null : MinorUnits.toDecimal(minor);
+    }
+
+    @Override
+    public Long convertToEntityAttribute(BigDecimal amount) {
+        return amount == null ? null : MinorUnits.of(amount);
+    }
+}
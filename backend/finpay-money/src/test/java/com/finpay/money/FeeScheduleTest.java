@@ -0,0 +1,44 @@
+package com.finpay.money;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("FeeSchedule Unit Tests")
+class FeeScheduleTest {
+
+    private final FeeSchedule schedule = FeeSchedule.percentage(
+            new BigDecimal("0.015"), new BigDecimal("0.50"), RoundingMode.HALF_UP);
+
+    @Test
+    @DisplayName("should match BigDecimal multiply-then-round for every amount")
+    void shouldMatchBigDecimalCalculation() {
+        for (long cents = 1; cents <= 100_000; cents += 37) {
+            BigDecimal amount = BigDecimal.valueOf(cents, 2);
+            BigDecimal expected = amount.multiply(new BigDecimal("0.015")).setScale(4, RoundingMode.HALF_UP)
+                    .max(new BigDecimal("0.50"));
+
+            assertThat(schedule.fee(amount)).as("fee for %s", amount).isEqualByComparingTo(expected);
+        }
+    }
+
+    @Test
+    @DisplayName("should apply the minimum fee to small amounts")
+    void shouldApplyMinimum() {
+        assertThat(schedule.fee(Money.of(new BigDecimal("10.00"), "EUR")))
+                .isEqualTo(Money.of(new BigDecimal("0.50"), "EUR"));
+    }
+
+    @Test
+    @DisplayName("should round half-way fees up")
+    void shouldRoundHalfUp() {
+        FeeSchedule bill = FeeSchedule.percentage(new BigDecimal("0.005"), BigDecimal.ZERO, RoundingMode.HALF_UP);
+
+        // 0.01 * 0.005 = 0.00005 -> 0.0001
+        assertThat(bill.feeMinor(100)).isEqualTo(1);
+    }
+}
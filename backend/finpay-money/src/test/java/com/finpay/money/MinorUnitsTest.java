@@ -0,0 +1,67 @@
+package com.finpay.money;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("MinorUnits Unit Tests")
+class MinorUnitsTest {
+
+    @Nested
+    @DisplayName("Conversion")
+    class ConversionTests {
+
+        @Test
+        @DisplayName("should convert decimals to minor units and back without loss")
+        void shouldRoundTrip() {
+            assertThat(MinorUnits.of(new BigDecimal("12.34"))).isEqualTo(123_400L);
+            assertThat(MinorUnits.of(new BigDecimal("-0.0001"))).isEqualTo(-1L);
+            assertThat(MinorUnits.toDecimal(123_400L)).isEqualTo(new BigDecimal("12.3400"));
+        }
+
+        @Test
+        @DisplayName("should reject amounts finer than one minor unit unless a rounding mode is given")
+        void shouldRejectExcessPrecision() {
+            assertThatThrownBy(() -> MinorUnits.of(new BigDecimal("0.00005")))
+                    .isInstanceOf(ArithmeticException.class);
+            assertThat(MinorUnits.of(new BigDecimal("0.00005"), RoundingMode.HALF_UP)).isEqualTo(1L);
+        }
+    }
+
+    @Nested
+    @DisplayName("Division")
+    class DivisionTests {
+
+        @ParameterizedTest
+        @EnumSource(value = RoundingMode.class, names = "UNNECESSARY", mode = EnumSource.Mode.EXCLUDE)
+        @DisplayName("should round exactly like BigDecimal")
+        void shouldMatchBigDecimal(RoundingMode mode) {
+            long[] numerators = {-26, -25, -24, -15, -5, -1, 0, 1, 5, 14, 15, 16, 25, 35};
+            for (long numerator : numerators) {
+                long expected = BigDecimal.valueOf(numerator)
+                        .divide(BigDecimal.TEN, 0, mode).longValueExact();
+                assertThat(MinorUnits.divide(numerator, 10, mode))
+                        .as("%d / 10 %s", numerator, mode)
+                        .isEqualTo(expected);
+            }
+        }
+
+        @Test
+        @DisplayName("should fall back to wide arithmetic when the product overflows")
+        void shouldHandleOverflow() {
+            long amount = Long.MAX_VALUE / 2;
+
+            long result = MinorUnits.multiplyDivide(amount, 6, 3, RoundingMode.HALF_UP);
+
+            assertThat(result).isEqualTo(amount * 2);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.finpay.money;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Money Unit Tests")
+class MoneyTest {
+
+    @Nested
+    @DisplayName("Arithmetic")
+    class ArithmeticTests {
+
+        @Test
+        @DisplayName("should add and subtract amounts in the same currency")
+        void shouldAddAndSubtract() {
+            Money a = Money.of(new BigDecimal("10.25"), "usd");
+            Money b = Money.of(new BigDecimal("0.75"), "USD");
+
+            assertThat(a.plus(b)).isEqualTo(Money.of(new BigDecimal("11.00"), "USD"));
+            assertThat(b.minus(a).toBigDecimal()).isEqualByComparingTo("-9.50");
+            assertThat(a.plus(Money.zero("USD"))).isSameAs(a);
+        }
+
+        @Test
+        @DisplayName("should refuse to combine different currencies")
+        void shouldRejectCurrencyMismatch() {
+            Money usd = Money.ofMinor(100, "USD");
+            Money eur = Money.ofMinor(100, "EUR");
+
+            assertThatThrownBy(() -> usd.plus(eur)).isInstanceOf(CurrencyMismatchException.class);
+            assertThatThrownBy(() -> usd.compareTo(eur)).isInstanceOf(CurrencyMismatchException.class);
+        }
+
+        @Test
+        @DisplayName("should fail instead of wrapping on overflow")
+        void shouldDetectOverflow() {
+            Money max = Money.ofMinor(Long.MAX_VALUE, "USD");
+
+            assertThatThrownBy(() -> max.plus(Money.ofMinor(1, "USD"))).isInstanceOf(ArithmeticException.class);
+        }
+
+        @Test
+        @DisplayName("should multiply by a fraction and round to a minor unit")
+        void shouldMultiplyByFraction() {
+            Money amount = Money.of(new BigDecimal("10.00"), "USD");
+
+            assertThat(amount.multiply(1, 3, RoundingMode.HALF_UP).toBigDecimal()).isEqualByComparingTo("3.3333");
+            assertThat(amount.multiply(2, 3, RoundingMode.HALF_UP).toBigDecimal()).isEqualByComparingTo("6.6667");
+        }
+    }
+
+    @Nested
+    @DisplayName("Equality")
+    class EqualityTests {
+
+        @Test
+        @DisplayName("should treat numerically equal amounts as equal regardless of decimal scale")
+        void shouldIgnoreScale() {
+            Money a = Money.of(new BigDecimal("5"), "USD");
+            Money b = Money.of(new BigDecimal("5.0000"), "USD");
+
+            assertThat(a).isEqualTo(b).hasSameHashCodeAs(b);
+            assertThat(a.toString()).isEqualTo("5.0000 USD");
+        }
+
+        @Test
+        @DisplayName("should reject malformed currency codes")
+        void shouldValidateCurrency() {
+            assertThatThrownBy(() -> Money.zero("US")).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> Money.zero(null)).isInstanceOf(NullPointerException.class);
+        }
+    }
+}
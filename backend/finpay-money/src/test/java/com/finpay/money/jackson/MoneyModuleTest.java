@@ -0,0 +1,36 @@
+package com.finpay.money.jackson;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finpay.money.Money;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("MoneyModule Unit Tests")
+class MoneyModuleTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new MoneyModule());
+
+    @Test
+    @DisplayName("should write amount as a JSON decimal and read it back")
+    void shouldRoundTripJson() throws Exception {
+        Money money = Money.of(new BigDecimal("12.34"), "EUR");
+
+        String json = objectMapper.writeValueAsString(money);
+
+        assertThat(json).isEqualTo("{\"amount\":12.3400,\"currency\":\"EUR\"}");
+        assertThat(objectMapper.readValue(json, Money.class)).isEqualTo(money);
+    }
+
+    @Test
+    @DisplayName("should reject JSON without a currency")
+    void shouldRejectMissingCurrency() {
+        assertThatThrownBy(() -> objectMapper.readValue("{\"amount\":1}", Money.class))
+                .isInstanceOf(JsonMappingException.class);
+    }
+}
@@ -0,0 +1,36 @@
+package com.finpay.money.jpa;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("MinorUnitsConverter Unit Tests")
+class MinorUnitsConverterTest {
+
+    private final MinorUnitsConverter converter = new MinorUnitsConverter();
+
+    @Test
+    @DisplayName("should map minor units to DECIMAL(19,4) columns and back")
+    void shouldConvertColumns() {
+        assertThat(converter.convertToDatabaseColumn(123_400L)).isEqualTo(new BigDecimal("12.3400"));
+        assertThat(converter.convertToEntityAttribute(new BigDecimal("12.34"))).isEqualTo(123_400L);
+    }
+
+    @Test
+    @DisplayName("should reject amounts finer than the column scale instead of rounding")
+    void shouldRejectExcessScale() {
+        assertThatThrownBy(() -> converter.convertToEntityAttribute(new BigDecimal("12.34565")))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    @DisplayName("should pass nulls through")
+    void shouldPassNullsThrough() {
+        assertThat(converter.convertToDatabaseColumn(null)).isNull();
+        assertThat(converter.convertToEntityAttribute(null)).isNull();
+    }
+}
@@ -0,0 +1,41 @@
+package com.finpay.outbox.datasource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Read-only connection source handed to {@code LazyConnectionDataSourceProxy}.
+ *
+ * Returns a replica connection when {@link ReplicaLagMonitor} says the replica
+ * can serve the read, otherwise a primary connection. The choice is made per
+ * connection, i.e. once per read-only transaction.
+ */
+public class LagAwareReplicaDataSource extends AbstractDataSource {
+
+    private final DataSource replica;
+    private final DataSource primary;
+    private final ReplicaLagMonitor lagMonitor;
+
+    public LagAwareReplicaDataSource(DataSource replica, DataSource primary, ReplicaLagMonitor lagMonitor) {
+        this.replica = replica;
+        this.primary = primary;
+        this.lagMonitor = lagMonitor;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return resolve().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return resolve().getConnection(username, password);
+    }
+
+    private DataSource resolve() {
+        return lagMonitor.canServeRead() ? replica : primary;
+    }
+}
@@ -0,0 +1,103 @@
+package com.finpay.outbox.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceAutoConfiguration;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Read/write datasource routing, enabled with {@code finpay.datasource.replica.enabled=true}.
+ *
+ * Replaces the auto-configured {@code DataSource} with a
+ * {@link LazyConnectionDataSourceProxy} over the primary pool whose read-only
+ * variant is a {@link LagAwareReplicaDataSource}. Because the proxy only
+ * fetches a physical connection on the first statement, the read-only flag
+ * set by {@code @Transactional(readOnly = true)} is known by then and the
+ * connection comes from the replica. Read-write transactions, and reads that
+ * join them, always use the primary.
+ *
+ * In servlet applications {@link ReadYourWritesFilter} keeps a client's reads
+ * on the primary right after its own writes, across requests.
+ *
+ * The primary pool is configured from {@code spring.datasource.*} and
+ * {@code spring.datasource.hikari.*} as usual; the replica from {@link ReadReplicaProperties}.
+ */
+@AutoConfiguration(before = DataSourceAutoConfiguration.class)
+@ConditionalOnClass(HikariDataSource.class)
+@ConditionalOnProperty(prefix = "finpay.datasource.replica", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties({ReadReplicaProperties.class, DataSourceProperties.class})
+public class ReadReplicaAutoConfiguration {
+
+    @Bean(destroyMethod = "close", defaultCandidate = false)
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties, Environment environment) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        if (dataSource.getPoolName() == null) {
+            dataSource.setPoolName("primary");
+        }
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close", defaultCandidate = false)
+    public HikariDataSource replicaDataSource(ReadReplicaProperties replica, DataSourceProperties primary) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setJdbcUrl(replica.getUrl());
+        dataSource.setUsername(replica.getUsername() != null ? replica.getUsername() : primary.determineUsername());
+        dataSource.setPassword(replica.getPassword() != null ? replica.getPassword() : primary.determinePassword());
+        if (primary.getDriverClassName() != null) {
+            dataSource.setDriverClassName(primary.getDriverClassName());
+        }
+        dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") HikariDataSource replicaDataSource,
+                                               ReadReplicaProperties properties) {
+        return new ReplicaLagMonitor(replicaDataSource, properties);
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker() {
+        return new ReadYourWritesTracker();
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    static class ReadYourWritesWebConfiguration {
+
+        @Bean
+        public ReadYourWritesFilter readYourWritesFilter(ReadReplicaProperties properties) {
+            return new ReadYourWritesFilter(properties);
+        }
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") HikariDataSource replicaDataSource,
+                                 ReplicaLagMonitor replicaLagMonitor) {
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primaryDataSource);
+        routing.setReadOnlyDataSource(
+                new LagAwareReplicaDataSource(replicaDataSource, primaryDataSource, replicaLagMonitor));
+        return routing;
+    }
+}
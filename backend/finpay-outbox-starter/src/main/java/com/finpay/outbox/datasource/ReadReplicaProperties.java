@@ -0,0 +1,58 @@
+package com.finpay.outbox.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for read/write datasource routing.
+ *
+ * When enabled, transactions marked {@code @Transactional(readOnly = true)}
+ * are served from the replica pool while it is healthy and within the
+ * allowed replication lag. Everything else keeps using {@code spring.datasource.*}.
+ *
+ * Example {@code application.yml}:
+ *
+ * finpay:
+ *   datasource:
+ *     replica:
+ *       enabled: true
+ *       url: jdbc:mysql://replica:3306/finpay_wallets
+ *       max-lag-ms: 2000
+ *       read-your-writes-window-ms: 2000
+ */
+@ConfigurationProperties(prefix = "finpay.datasource.replica")
+@Getter
+@Setter
+public class ReadReplicaProperties {
+
+    /** Enables read/write routing. Disabled by default. */
+    private boolean enabled = false;
+
+    /** JDBC URL of the replica. */
+    private String url;
+
+    /** Replica username; falls back to {@code spring.datasource.username}. */
+    private String username;
+
+    /** Replica password; falls back to {@code spring.datasource.password}. */
+    private String password;
+
+    /** Maximum size of the replica connection pool. */
+    private int maximumPoolSize = 10;
+
+    /** Replicas lagging further behind than this are bypassed (ms). */
+    private long maxLagMs = 2_000;
+
+    /** Delay between replication-lag checks (ms). */
+    private long lagCheckIntervalMs = 1_000;
+
+    /**
+     * Minimum time after a client commits a write during which its
+     * read-only transactions stay on the primary (ms).
+     */
+    private long readYourWritesWindowMs = 2_000;
+
+    /** Query used to read replication status from the replica. */
+    private String lagQuery = "SHOW REPLICA STATUS";
+}
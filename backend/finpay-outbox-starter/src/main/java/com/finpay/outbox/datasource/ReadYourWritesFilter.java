@@ -0,0 +1,75 @@
+package com.finpay.outbox.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Carries the read-your-writes token between a client's requests.
+ *
+ * After a request commits a write, the response sets the
+ * {@value #COOKIE_NAME} cookie to the commit time. Browsers echo it back, so
+ * the client's next request - on whichever thread or instance serves it - reads
+ * from the primary until the replica has caught up with that write. The cookie
+ * expires once the replica can no longer be behind it.
+ *
+ * The token only decides between primary and replica, so a forged value can
+ * at most send the sender's own reads to the primary; times in the future are
+ * capped at the current time.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE_NAME = "finpay_last_write";
+
+    private final ReadReplicaProperties properties;
+
+    public ReadYourWritesFilter(ReadReplicaProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ReadYourWritesTracker.begin(echoedToken(request), writeAt -> issueToken(response, writeAt));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadYourWritesTracker.clear();
+        }
+    }
+
+    private long echoedToken(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0L;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Math.min(Long.parseLong(cookie.getValue()), System.currentTimeMillis());
+                } catch (NumberFormatException e) {
+                    return 0L;
+                }
+            }
+        }
+        return 0L;
+    }
+
+    private void issueToken(HttpServletResponse response, long writeAt) {
+        if (response.isCommitted()) {
+            return;
+        }
+        // Reads stay on the primary for at most max(window, max lag + 1s), see ReplicaLagMonitor
+        long lifetimeMs = Math.max(properties.getReadYourWritesWindowMs(), properties.getMaxLagMs() + 1000);
+        Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(writeAt));
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge((int) Math.ceil(lifetimeMs / 1000.0));
+        response.addCookie(cookie);
+    }
+}
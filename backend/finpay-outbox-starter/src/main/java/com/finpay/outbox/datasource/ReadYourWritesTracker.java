@@ -0,0 +1,80 @@
+package com.finpay.outbox.datasource;
+
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Remembers when the current unit of work last committed a read-write transaction.
+ *
+ * Registered as a {@link TransactionExecutionListener}, so Spring Boot attaches
+ * it to the transaction manager automatically. {@link LagAwareReplicaDataSource}
+ * uses the timestamp to keep follow-up reads on the primary until the replica
+ * has had time to apply the write.
+ *
+ * Pooled threads serve many clients, so state only lives for one unit of
+ * work. {@link ReadYourWritesFilter} opens a scope per HTTP request, seeded
+ * from the token the client echoed back, and hands every new write to the
+ * response; code running outside a scope is tracked per thread.
+ */
+public class ReadYourWritesTracker implements TransactionExecutionListener {
+
+    private static final ThreadLocal<Scope> SCOPE = new ThreadLocal<>();
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (commitFailure == null && !transaction.isReadOnly()) {
+            markWrite();
+        }
+    }
+
+    /**
+     * Starts a scope on the current thread. {@code lastWriteAt} is the last
+     * write the caller has seen (epoch millis, {@code 0} if none) and
+     * {@code onWrite} receives the time of each write committed in the scope.
+     */
+    public static void begin(long lastWriteAt, LongConsumer onWrite) {
+        SCOPE.set(new Scope(lastWriteAt, onWrite));
+    }
+
+    /**
+     * Records a write for the current scope. Exposed for code paths that
+     * write outside a Spring-managed transaction.
+     */
+    public static void markWrite() {
+        long now = System.currentTimeMillis();
+        Scope scope = SCOPE.get();
+        if (scope == null) {
+            SCOPE.set(new Scope(now, null));
+            return;
+        }
+        scope.lastWriteAt = now;
+        if (scope.onWrite != null) {
+            scope.onWrite.accept(now);
+        }
+    }
+
+    /**
+     * Returns the time of the last write seen in this scope, or {@code 0} if none.
+     */
+    public static long lastWriteAt() {
+        Scope scope = SCOPE.get();
+        return scope != null ? scope.lastWriteAt : 0L;
+    }
+
+    public static void clear() {
+        SCOPE.remove();
+    }
+
+    private static final class Scope {
+
+        private long lastWriteAt;
+        private final LongConsumer onWrite;
+
+        private Scope(long lastWriteAt, LongConsumer onWrite) {
+            this.lastWriteAt = lastWriteAt;
+            this.onWrite = onWrite;
+        }
+    }
+}
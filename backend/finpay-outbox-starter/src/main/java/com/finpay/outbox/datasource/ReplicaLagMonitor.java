@@ -0,0 +1,108 @@
+package com.finpay.outbox.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Periodically measures how far the replica lags behind the primary.
+ *
+ * Reads {@code Seconds_Behind_Source} (or {@code Seconds_Behind_Master} on
+ * older MySQL versions) from the replica. A replica that cannot be queried,
+ * is not configured as a replica (empty status), or whose replication
+ * threads are stopped, is marked unavailable so reads fall back to the
+ * primary until the next successful check.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private final DataSource replicaDataSource;
+    private final ReadReplicaProperties properties;
+
+    private volatile boolean available = false;
+    private volatile long lagMs = Long.MAX_VALUE;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, ReadReplicaProperties properties) {
+        this.replicaDataSource = replicaDataSource;
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelayString = "${finpay.datasource.replica.lag-check-interval-ms:1000}")
+    public void refresh() {
+        boolean wasAvailable = available;
+        try (Connection connection = replicaDataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(properties.getLagQuery())) {
+            if (!rs.next()) {
+                markUnavailable("replication is not configured");
+                return;
+            }
+            Long lagSeconds = readLagSeconds(rs);
+            if (lagSeconds == null) {
+                markUnavailable("replication is not running");
+            } else {
+                lagMs = lagSeconds * 1000;
+                available = lagMs <= properties.getMaxLagMs();
+                if (!available) {
+                    log.warn("Replica lag {} ms exceeds limit of {} ms, routing reads to primary",
+                            lagMs, properties.getMaxLagMs());
+                }
+            }
+        } catch (SQLException e) {
+            markUnavailable(e.getMessage());
+        }
+        if (available && !wasAvailable) {
+            log.info("Replica available for reads (lag {} ms)", lagMs);
+        }
+    }
+
+    /**
+     * Whether the current read-only transaction may use the replica. Reads
+     * that closely follow a write the caller has seen, in this request or an
+     * earlier one, stay on the primary until the replica has had enough time
+     * to apply that write.
+     */
+    public boolean canServeRead() {
+        if (!available) {
+            return false;
+        }
+        long lastWrite = ReadYourWritesTracker.lastWriteAt();
+        if (lastWrite == 0L) {
+            return true;
+        }
+        // Lag is reported in whole seconds, so allow for an extra second of staleness
+        long window = Math.max(properties.getReadYourWritesWindowMs(), lagMs + 1000);
+        return System.currentTimeMillis() - lastWrite >= window;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public long getLagMs() {
+        return lagMs;
+    }
+
+    private Long readLagSeconds(ResultSet rs) throws SQLException {
+        long seconds;
+        try {
+            seconds = rs.getLong("Seconds_Behind_Source");
+        } catch (SQLException e) {
+            seconds = rs.getLong("Seconds_Behind_Master");
+        }
+        return rs.wasNull() ? null : seconds;
+    }
+
+    private void markUnavailable(String reason) {
+        if (available) {
+            log.warn("Replica unavailable, routing reads to primary: {}", reason);
+        }
+        available = false;
+        lagMs = Long.MAX_VALUE;
+    }
+}
@@ -1,5 +1,6 @@
 package com.finpay.outbox.entity;
 
+import com.finpay.id.hibernate.TimeOrderedId;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -27,7 +28,7 @@ import java.util.UUID;
 public class OutboxEvent {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     private UUID id;
 
     @Column(nullable = false)
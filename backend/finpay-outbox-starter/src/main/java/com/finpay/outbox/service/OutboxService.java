@@ -9,6 +9,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Saves {@link OutboxEvent} entries inside the current database transaction.
  *
@@ -39,6 +43,35 @@ public class OutboxService {
         }
     }
 
+    /**
+     * Serialise and persist one event per entry of {@code payloadsByAggregateId},
+     * keyed by aggregate ID, in a single {@code saveAll}. With
+     * {@code hibernate.jdbc.batch_size} set this is one batched INSERT.
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public void saveEvents(String aggregateType, String eventType, String topic,
+                           Map<String, ?> payloadsByAggregateId) {
+        List<OutboxEvent> events = new ArrayList<>(payloadsByAggregateId.size());
+        payloadsByAggregateId.forEach((aggregateId, payload) -> {
+            try {
+                events.add(OutboxEvent.builder()
+                        .aggregateType(aggregateType)
+                        .aggregateId(aggregateId)
+                        .eventType(eventType)
+                        .topic(topic)
+                        .eventKey(aggregateId)
+                        .payload(kafkaObjectMapper.writeValueAsString(payload))
+                        .build());
+            } catch (JsonProcessingException e) {
+                log.error("Failed to serialise outbox payload for {}: {}", eventType, e.getMessage(), e);
+                throw new RuntimeException("Outbox serialisation failed", e);
+            }
+        });
+
+        outboxEventRepository.saveAll(events);
+        log.debug("Outbox events saved: type={}, count={}, topic={}", eventType, events.size(), topic);
+    }
+
     /**
      * Persist an outbox event with a pre-serialised JSON payload.
      */
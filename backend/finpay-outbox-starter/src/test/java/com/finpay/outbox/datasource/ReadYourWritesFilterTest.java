@@ -0,0 +1,110 @@
+package com.finpay.outbox.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.TransactionExecution;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReadYourWritesFilter Unit Tests")
+class ReadYourWritesFilterTest {
+
+    @Mock private DataSource replicaDataSource;
+    @Mock private Connection connection;
+    @Mock private Statement statement;
+    @Mock private ResultSet resultSet;
+    @Mock private TransactionExecution writeTransaction;
+
+    private ReplicaLagMonitor monitor;
+    private ReadYourWritesFilter filter;
+    private final ReadYourWritesTracker tracker = new ReadYourWritesTracker();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ReadReplicaProperties properties = new ReadReplicaProperties();
+        monitor = new ReplicaLagMonitor(replicaDataSource, properties);
+        filter = new ReadYourWritesFilter(properties);
+
+        // Replica in sync, so only the read-your-writes token keeps reads on the primary
+        when(replicaDataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(properties.getLagQuery())).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getLong("Seconds_Behind_Source")).thenReturn(0L);
+        monitor.refresh();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWritesTracker.clear();
+    }
+
+    private MockHttpServletResponse write(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> tracker.afterCommit(writeTransaction, null));
+        return response;
+    }
+
+    /** Runs a request on another thread and reports whether its read could use the replica. */
+    private boolean readOnOtherThread(MockHttpServletRequest request) {
+        return CompletableFuture.supplyAsync(() -> {
+            AtomicBoolean replica = new AtomicBoolean();
+            FilterChain read = (req, res) -> replica.set(monitor.canServeRead());
+            try {
+                filter.doFilter(request, new MockHttpServletResponse(), read);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            return replica.get();
+        }).join();
+    }
+
+    @Test
+    @DisplayName("should keep the next request's reads on the primary when it echoes the write token")
+    void shouldCarryWriteAcrossRequests() throws Exception {
+        MockHttpServletResponse written = write(new MockHttpServletRequest("POST", "/api/v1/wallets/deposit"));
+        Cookie token = written.getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        assertThat(token).isNotNull();
+
+        MockHttpServletRequest next = new MockHttpServletRequest("GET", "/api/v1/wallets/me");
+        next.setCookies(token);
+
+        assertThat(readOnOtherThread(next)).isFalse();
+    }
+
+    @Test
+    @DisplayName("should read from the replica when the request carries no write token")
+    void shouldUseReplicaWithoutToken() {
+        assertThat(readOnOtherThread(new MockHttpServletRequest("GET", "/api/v1/wallets/me"))).isTrue();
+    }
+
+    @Test
+    @DisplayName("should not leak a write to the next request served by the same thread")
+    void shouldNotLeakAcrossRequestsOnThread() throws Exception {
+        write(new MockHttpServletRequest("POST", "/api/v1/wallets/deposit"));
+
+        AtomicBoolean replica = new AtomicBoolean();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/wallets/me"), new MockHttpServletResponse(),
+                (req, res) -> replica.set(monitor.canServeRead()));
+
+        assertThat(replica).isTrue();
+    }
+}
@@ -0,0 +1,156 @@
+package com.finpay.outbox.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReplicaLagMonitor Unit Tests")
+class ReplicaLagMonitorTest {
+
+    @Mock private DataSource replicaDataSource;
+    @Mock private DataSource primaryDataSource;
+    @Mock private Connection connection;
+    @Mock private Statement statement;
+    @Mock private ResultSet resultSet;
+
+    private ReadReplicaProperties properties;
+    private ReplicaLagMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ReadReplicaProperties();
+        properties.setMaxLagMs(2_000);
+        properties.setReadYourWritesWindowMs(2_000);
+        monitor = new ReplicaLagMonitor(replicaDataSource, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWritesTracker.clear();
+    }
+
+    private void replicaReportsLag(Long seconds) throws SQLException {
+        when(replicaDataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(properties.getLagQuery())).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getLong("Seconds_Behind_Source")).thenReturn(seconds != null ? seconds : 0L);
+        when(resultSet.wasNull()).thenReturn(seconds == null);
+    }
+
+    @Nested
+    @DisplayName("refresh")
+    class RefreshTests {
+
+        @Test
+        @DisplayName("should be unavailable before the first check")
+        void shouldStartUnavailable() {
+            assertThat(monitor.isAvailable()).isFalse();
+            assertThat(monitor.canServeRead()).isFalse();
+        }
+
+        @Test
+        @DisplayName("should serve reads when lag is within the limit")
+        void shouldServeReadsWithinLag() throws SQLException {
+            replicaReportsLag(1L);
+
+            monitor.refresh();
+
+            assertThat(monitor.isAvailable()).isTrue();
+            assertThat(monitor.getLagMs()).isEqualTo(1_000);
+            assertThat(monitor.canServeRead()).isTrue();
+        }
+
+        @Test
+        @DisplayName("should bypass a replica that lags too far behind")
+        void shouldBypassLaggingReplica() throws SQLException {
+            replicaReportsLag(5L);
+
+            monitor.refresh();
+
+            assertThat(monitor.canServeRead()).isFalse();
+        }
+
+        @Test
+        @DisplayName("should bypass a replica whose replication is stopped")
+        void shouldBypassStoppedReplication() throws SQLException {
+            replicaReportsLag(null);
+
+            monitor.refresh();
+
+            assertThat(monitor.isAvailable()).isFalse();
+        }
+
+        @Test
+        @DisplayName("should bypass a server that reports no replication status")
+        void shouldBypassServerWithoutReplicaStatus() throws SQLException {
+            replicaReportsLag(0L);
+            monitor.refresh();
+            when(resultSet.next()).thenReturn(false);
+
+            monitor.refresh();
+
+            assertThat(monitor.isAvailable()).isFalse();
+            assertThat(monitor.canServeRead()).isFalse();
+        }
+
+        @Test
+        @DisplayName("should bypass an unreachable replica")
+        void shouldBypassUnreachableReplica() throws SQLException {
+            when(replicaDataSource.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+            monitor.refresh();
+
+            assertThat(monitor.isAvailable()).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("Read-your-writes")
+    class ReadYourWritesTests {
+
+        @Test
+        @DisplayName("should keep reads on the primary right after a write on the same thread")
+        void shouldUsePrimaryAfterWrite() throws SQLException {
+            replicaReportsLag(0L);
+            monitor.refresh();
+
+            ReadYourWritesTracker.markWrite();
+
+            assertThat(monitor.canServeRead()).isFalse();
+        }
+
+        @Test
+        @DisplayName("should route the read-only connection through the monitor")
+        void shouldRouteConnections() throws SQLException {
+            Connection replicaConnection = mock(Connection.class);
+            Connection primaryConnection = mock(Connection.class);
+            replicaReportsLag(0L);
+            monitor.refresh();
+            when(replicaDataSource.getConnection()).thenReturn(replicaConnection);
+            when(primaryDataSource.getConnection()).thenReturn(primaryConnection);
+            LagAwareReplicaDataSource readOnly =
+                    new LagAwareReplicaDataSource(replicaDataSource, primaryDataSource, monitor);
+
+            assertThat(readOnly.getConnection()).isSameAs(replicaConnection);
+
+            ReadYourWritesTracker.markWrite();
+            assertThat(readOnly.getConnection()).isSameAs(primaryConnection);
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.finpay.saga;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Declarative step table of a saga and the pure transition functions over it.
+ *
+ * A saga is persisted as a state enum plus a step bitmask (see {@link SagaSteps}).
+ * Steps run in the order of their enum constants; each forward step names the
+ * state the saga is in once it completed, and the last step's state is the
+ * completed state. Compensation undoes completed steps newest first.
+ *
+ * <pre>{@code
+ * SagaDefinition.builder(Step.class, SagaStatus.STARTED)
+ *         .step(Step.RESERVE_FUNDS, SagaStatus.FUNDS_RESERVED)
+ *         .step(Step.DEDUCT_FUNDS, SagaStatus.FUNDS_DEDUCTED).undoAlsoSettles(Step.RESERVE_FUNDS)
+ *         .step(Step.CREDIT_FUNDS, SagaStatus.COMPLETED)
+ *         .compensation(SagaStatus.COMPENSATING, SagaStatus.COMPENSATED)
+ *         .build();
+ * }</pre>
+ *
+ * The transition methods never mutate anything: they take the stored state and
+ * mask and return a {@link SagaTransition}, which callers persist with one
+ * conditional UPDATE. Repeated and out-of-order events are therefore safe -
+ * a duplicate yields {@link SagaTransition.Outcome#IGNORE}, a forward step that
+ * completes after the saga failed is compensated, and a late compensation
+ * response after the rollback finished is ignored.
+ */
+public final class SagaDefinition<E extends Enum<E>, S extends Enum<S>> {
+
+    private final E[] steps;
+    private final List<S> reachedStates;
+    private final int[] settledByUndo;
+    private final S initialState;
+    private final S compensatingState;
+    private final S compensatedState;
+
+    private SagaDefinition(E[] steps, List<S> reachedStates, int[] settledByUndo,
+                           S initialState, S compensatingState, S compensatedState) {
+        this.steps = steps;
+        this.reachedStates = reachedStates;
+        this.settledByUndo = settledByUndo;
+        this.initialState = initialState;
+        this.compensatingState = compensatingState;
+        this.compensatedState = compensatedState;
+    }
+
+    public static <E extends Enum<E>, S extends Enum<S>> Builder<E, S> builder(Class<E> stepType, S initialState) {
+        return new Builder<>(stepType, initialState);
+    }
+
+    // Transitions
+
+    /** The first command of a new saga; nothing is persisted yet. */
+    public SagaTransition<E, S> start() {
+        return new SagaTransition<>(SagaTransition.Outcome.ADVANCE, initialState, 0, initialState, 0, steps[0]);
+    }
+
+    /**
+     * A forward step reported success. Advances to the next pending step,
+     * completes the saga, or - when the saga already failed - compensates the
+     * step that has just been applied.
+     */
+    public SagaTransition<E, S> onStepCompleted(S state, int stepMask, E step) {
+        if (SagaSteps.isDone(stepMask, step) || state == completedState()) {
+            return ignore(state, stepMask);
+        }
+        int next = stepMask | SagaSteps.doneBit(step);
+        if (!isRunning(state)) {
+            return compensate(state, stepMask, next);
+        }
+        E pending = firstPending(next);
+        if (pending == null) {
+            return new SagaTransition<>(SagaTransition.Outcome.COMPLETE, state, stepMask,
+                    completedState(), next, null);
+        }
+        return new SagaTransition<>(SagaTransition.Outcome.ADVANCE, state, stepMask,
+                stateBefore(pending), next, pending);
+    }
+
+    /** A forward step failed or the saga was aborted: start compensating. */
+    public SagaTransition<E, S> onStepFailed(S state, int stepMask) {
+        if (!isRunning(state)) {
+            return ignore(state, stepMask);
+        }
+        return compensate(state, stepMask, stepMask);
+    }
+
+    /** A compensating command was confirmed: undo the next step or finish. */
+    public SagaTransition<E, S> onCompensated(S state, int stepMask, E step) {
+        if (state != compensatingState || SagaSteps.isCompensated(stepMask, step)) {
+            return ignore(state, stepMask);
+        }
+        return compensate(state, stepMask, stepMask | settledByUndo[step.ordinal()]);
+    }
+
+    /**
+     * The command the saga is currently waiting on, for re-sending after a
+     * timeout. The state is unchanged unless compensation has nothing left
+     * to undo, in which case the rollback is finished.
+     */
+    public SagaTransition<E, S> pending(S state, int stepMask) {
+        if (state == compensatingState) {
+            return compensate(state, stepMask, stepMask);
+        }
+        E pending = isRunning(state) ? firstPending(stepMask) : null;
+        if (pending == null) {
+            return ignore(state, stepMask);
+        }
+        return new SagaTransition<>(SagaTransition.Outcome.ADVANCE, state, stepMask, state, stepMask, pending);
+    }
+
+    // State queries
+
+    /** Whether the saga is still moving forward. */
+    public boolean isRunning(S state) {
+        if (state == initialState) {
+            return true;
+        }
+        int index = reachedStates.indexOf(state);
+        return index >= 0 && index < steps.length - 1;
+    }
+
+    public boolean isCompensating(S state) {
+        return state == compensatingState || state == compensatedState;
+    }
+
+    public S initialState() {
+        return initialState;
+    }
+
+    public S completedState() {
+        return reachedStates.getLast();
+    }
+
+    public S compensatingState() {
+        return compensatingState;
+    }
+
+    public S compensatedState() {
+        return compensatedState;
+    }
+
+    // Internals
+
+    private SagaTransition<E, S> compensate(S state, int stepMask, int next) {
+        E undo = nextToUndo(next);
+        if (undo == null) {
+            return new SagaTransition<>(SagaTransition.Outcome.COMPENSATED, state, stepMask,
+                    compensatedState, next, null);
+        }
+        return new SagaTransition<>(SagaTransition.Outcome.COMPENSATE, state, stepMask,
+                compensatingState, next, undo);
+    }
+
+    private SagaTransition<E, S> ignore(S state, int stepMask) {
+        return new SagaTransition<>(SagaTransition.Outcome.IGNORE, state, stepMask, state, stepMask, null);
+    }
+
+    private E firstPending(int stepMask) {
+        for (E step : steps) {
+            if (!SagaSteps.isDone(stepMask, step)) {
+                return step;
+            }
+        }
+        return null;
+    }
+
+    /** Newest completed step that is not yet compensated. */
+    private E nextToUndo(int stepMask) {
+        for (int i = steps.length - 1; i >= 0; i--) {
+            if (SagaSteps.isDone(stepMask, steps[i]) && !SagaSteps.isCompensated(stepMask, steps[i])) {
+                return steps[i];
+            }
+        }
+        return null;
+    }
+
+    private S stateBefore(E step) {
+        return step.ordinal() == 0 ? initialState : reachedStates.get(step.ordinal() - 1);
+    }
+
+    // Builder
+
+    public static final class Builder<E extends Enum<E>, S extends Enum<S>> {
+
+        private final Class<E> stepType;
+        private final S initialState;
+        private final Map<E, S> reached;
+        private final Map<E, Integer> settled;
+        private E current;
+        private S compensatingState;
+        private S compensatedState;
+
+        private Builder(Class<E> stepType, S initialState) {
+            this.stepType = Objects.requireNonNull(stepType);
+            this.initialState = Objects.requireNonNull(initialState);
+            this.reached = new EnumMap<>(stepType);
+            this.settled = new EnumMap<>(stepType);
+        }
+
+        /** Declares the next forward step and the state the saga is in once it completed. */
+        public Builder<E, S> step(E step, S reachedState) {
+            int expected = reached.size();
+            if (step.ordinal() != expected) {
+                throw new IllegalArgumentException("Steps must be declared in enum order, expected "
+                        + stepType.getEnumConstants()[expected] + " but got " + step);
+            }
+            reached.put(step, Objects.requireNonNull(reachedState));
+            settled.put(step, SagaSteps.compensatedBit(step));
+            current = step;
+            return this;
+        }
+
+        /**
+         * Undoing the current step also settles the given earlier steps, e.g.
+         * reversing a deduction returns the funds a reservation held, so no
+         * separate release is needed.
+         */
+        @SafeVarargs
+        public final Builder<E, S> undoAlsoSettles(E... earlier) {
+            if (current == null) {
+                throw new IllegalStateException("undoAlsoSettles() must follow step()");
+            }
+            int mask = settled.get(current);
+            for (E step : earlier) {
+                if (step.ordinal() >= current.ordinal()) {
+                    throw new IllegalArgumentException(step + " is not before " + current);
+                }
+                mask |= SagaSteps.compensatedBit(step);
+            }
+            settled.put(current, mask);
+            return this;
+        }
+
+        public Builder<E, S> compensation(S compensatingState, S compensatedState) {
+            this.compensatingState = Objects.requireNonNull(compensatingState);
+            this.compensatedState = Objects.requireNonNull(compensatedState);
+            return this;
+        }
+
+        public SagaDefinition<E, S> build() {
+            E[] steps = stepType.getEnumConstants();
+            if (steps.length == 0 || steps.length > SagaSteps.MAX_STEPS) {
+                throw new IllegalStateException("A saga needs 1 to " + SagaSteps.MAX_STEPS + " steps");
+            }
+            if (reached.size() != steps.length) {
+                throw new IllegalStateException("Missing steps: every " + stepType.getSimpleName()
+                        + " constant needs a step()");
+            }
+            if (compensatingState == null) {
+                throw new IllegalStateException("compensation() states are required");
+            }
+            List<S> reachedStates = new ArrayList<>(steps.length);
+            int[] settledByUndo = new int[steps.length];
+            for (E step : steps) {
+                reachedStates.add(reached.get(step));
+                settledByUndo[step.ordinal()] = settled.get(step);
+            }
+            return new SagaDefinition<>(steps, List.copyOf(reachedStates), settledByUndo,
+                    initialState, compensatingState, compensatedState);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.finpay.saga;
+
+/**
+ * Static helpers for the step bitmask persisted next to a saga's state.
+ *
+ * Bit {@code n} is set once the step with ordinal {@code n} completed; bit
+ * {@code n + 16} is set once that step was compensated. A saga can therefore
+ * have at most {@value #MAX_STEPS} steps, and the whole mask fits in an
+ * {@code INT} column.
+ */
+public final class SagaSteps {
+
+    /** Largest number of steps one saga can declare. */
+    public static final int MAX_STEPS = 15;
+
+    static final int COMPENSATED_SHIFT = 16;
+
+    private SagaSteps() {
+    }
+
+    public static boolean isDone(int steps, Enum<?> step) {
+        return (steps & doneBit(step)) != 0;
+    }
+
+    public static boolean isCompensated(int steps, Enum<?> step) {
+        return (steps & compensatedBit(step)) != 0;
+    }
+
+    /**
+     * Returns {@code steps} with the step marked done or not done. Meant for
+     * entity setters and tests; saga handlers move through
+     * {@link SagaDefinition} instead.
+     */
+    public static int withDone(int steps, Enum<?> step, boolean done) {
+        return done ? steps | doneBit(step) : steps & ~doneBit(step);
+    }
+
+    static int doneBit(Enum<?> step) {
+        return 1 << step.ordinal();
+    }
+
+    static int compensatedBit(Enum<?> step) {
+        return 1 << (step.ordinal() + COMPENSATED_SHIFT);
+    }
+}
@@ -0,0 +1,41 @@
+package com.finpay.saga;
+
+/**
+ * Result of feeding one event into a {@link SagaDefinition}.
+ *
+ * {@code fromState}/{@code fromSteps} are the values the transition was
+ * computed from and belong in the {@code WHERE} clause of the UPDATE that
+ * persists it, so a concurrent writer makes the update match no rows instead
+ * of being silently overwritten. {@code step} is the command to send next,
+ * if any.
+ */
+public record SagaTransition<E extends Enum<E>, S extends Enum<S>>(
+        Outcome outcome,
+        S fromState,
+        int fromSteps,
+        S toState,
+        int toSteps,
+        E step
+) {
+
+    public enum Outcome {
+        ADVANCE,      // Send the forward command for step
+        COMPLETE,     // Every step done - saga finished
+        COMPENSATE,   // Send the compensating command for step
+        COMPENSATED,  // Nothing left to undo - rollback finished
+        IGNORE        // Duplicate or stale event, nothing to write
+    }
+
+    public boolean ignored() {
+        return outcome == Outcome.IGNORE;
+    }
+
+    /** Whether persisting this transition changes the stored row. */
+    public boolean changesState() {
+        return fromState != toState || fromSteps != toSteps;
+    }
+
+    public boolean isDone(E candidate) {
+        return SagaSteps.isDone(toSteps, candidate);
+    }
+}
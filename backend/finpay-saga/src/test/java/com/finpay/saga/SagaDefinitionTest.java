@@ -0,0 +1,199 @@
+package com.finpay.saga;
+
+import com.finpay.saga.SagaTransition.Outcome;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("SagaDefinition Unit Tests")
+class SagaDefinitionTest {
+
+    enum Step { RESERVE, DEDUCT, CREDIT }
+
+    enum State { STARTED, RESERVED, DEDUCTED, COMPLETED, COMPENSATING, COMPENSATED }
+
+    private final SagaDefinition<Step, State> saga = SagaDefinition.builder(Step.class, State.STARTED)
+            .step(Step.RESERVE, State.RESERVED)
+            .step(Step.DEDUCT, State.DEDUCTED).undoAlsoSettles(Step.RESERVE)
+            .step(Step.CREDIT, State.COMPLETED)
+            .compensation(State.COMPENSATING, State.COMPENSATED)
+            .build();
+
+    private static int done(Step... steps) {
+        int mask = 0;
+        for (Step step : steps) {
+            mask = SagaSteps.withDone(mask, step, true);
+        }
+        return mask;
+    }
+
+    @Nested
+    @DisplayName("Forward steps")
+    class ForwardSteps {
+
+        @Test
+        @DisplayName("should start with the first step")
+        void shouldStartWithFirstStep() {
+            SagaTransition<Step, State> start = saga.start();
+
+            assertThat(start.outcome()).isEqualTo(Outcome.ADVANCE);
+            assertThat(start.step()).isEqualTo(Step.RESERVE);
+            assertThat(start.toState()).isEqualTo(State.STARTED);
+        }
+
+        @Test
+        @DisplayName("should advance to the next step and record the completed one")
+        void shouldAdvance() {
+            SagaTransition<Step, State> t = saga.onStepCompleted(State.STARTED, 0, Step.RESERVE);
+
+            assertThat(t.outcome()).isEqualTo(Outcome.ADVANCE);
+            assertThat(t.step()).isEqualTo(Step.DEDUCT);
+            assertThat(t.toState()).isEqualTo(State.RESERVED);
+            assertThat(t.isDone(Step.RESERVE)).isTrue();
+            assertThat(t.fromState()).isEqualTo(State.STARTED);
+            assertThat(t.fromSteps()).isZero();
+        }
+
+        @Test
+        @DisplayName("should complete after the last step")
+        void shouldComplete() {
+            SagaTransition<Step, State> t = saga.onStepCompleted(
+                    State.DEDUCTED, done(Step.RESERVE, Step.DEDUCT), Step.CREDIT);
+
+            assertThat(t.outcome()).isEqualTo(Outcome.COMPLETE);
+            assertThat(t.toState()).isEqualTo(State.COMPLETED);
+            assertThat(t.toSteps()).isEqualTo(done(Step.RESERVE, Step.DEDUCT, Step.CREDIT));
+        }
+
+        @Test
+        @DisplayName("should ignore a duplicate step response")
+        void shouldIgnoreDuplicate() {
+            SagaTransition<Step, State> t = saga.onStepCompleted(State.RESERVED, done(Step.RESERVE), Step.RESERVE);
+
+            assertThat(t.ignored()).isTrue();
+            assertThat(t.changesState()).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("Compensation")
+    class Compensation {
+
+        @Test
+        @DisplayName("should finish immediately when nothing was done")
+        void shouldFinishWhenNothingToUndo() {
+            SagaTransition<Step, State> t = saga.onStepFailed(State.STARTED, 0);
+
+            assertThat(t.outcome()).isEqualTo(Outcome.COMPENSATED);
+            assertThat(t.toState()).isEqualTo(State.COMPENSATED);
+        }
+
+        @Test
+        @DisplayName("should undo the newest completed step first")
+        void shouldUndoNewestFirst() {
+            SagaTransition<Step, State> t = saga.onStepFailed(State.DEDUCTED, done(Step.RESERVE, Step.DEDUCT));
+
+            assertThat(t.outcome()).isEqualTo(Outcome.COMPENSATE);
+            assertThat(t.step()).isEqualTo(Step.DEDUCT);
+            assertThat(t.toState()).isEqualTo(State.COMPENSATING);
+        }
+
+        @Test
+        @DisplayName("should treat steps settled by an undo as compensated")
+        void shouldHonourSettledSteps() {
+            int mask = done(Step.RESERVE, Step.DEDUCT);
+
+            SagaTransition<Step, State> t = saga.onCompensated(State.COMPENSATING, mask, Step.DEDUCT);
+
+            assertThat(t.outcome()).isEqualTo(Outcome.COMPENSATED);
+            assertThat(SagaSteps.isCompensated(t.toSteps(), Step.RESERVE)).isTrue();
+        }
+
+        @Test
+        @DisplayName("should continue with the next step when the undo settles only itself")
+        void shouldContinueCompensation() {
+            int mask = done(Step.RESERVE, Step.DEDUCT, Step.CREDIT);
+
+            SagaTransition<Step, State> t = saga.onCompensated(State.COMPENSATING, mask, Step.CREDIT);
+
+            assertThat(t.outcome()).isEqualTo(Outcome.COMPENSATE);
+            assertThat(t.step()).isEqualTo(Step.DEDUCT);
+        }
+
+        @Test
+        @DisplayName("should ignore failures once compensation started")
+        void shouldIgnoreLateFailure() {
+            assertThat(saga.onStepFailed(State.COMPENSATING, done(Step.RESERVE)).ignored()).isTrue();
+            assertThat(saga.onStepFailed(State.COMPLETED, done(Step.values())).ignored()).isTrue();
+        }
+
+        @Test
+        @DisplayName("should ignore a compensation response after the rollback finished")
+        void shouldIgnoreLateCompensation() {
+            SagaTransition<Step, State> t = saga.onCompensated(State.COMPENSATED, done(Step.RESERVE), Step.RESERVE);
+
+            assertThat(t.ignored()).isTrue();
+        }
+
+        @Test
+        @DisplayName("should compensate a forward step that completes after the saga failed")
+        void shouldCompensateLateStep() {
+            SagaTransition<Step, State> t = saga.onStepCompleted(State.COMPENSATED, 0, Step.RESERVE);
+
+            assertThat(t.outcome()).isEqualTo(Outcome.COMPENSATE);
+            assertThat(t.step()).isEqualTo(Step.RESERVE);
+            assertThat(t.toState()).isEqualTo(State.COMPENSATING);
+        }
+    }
+
+    @Nested
+    @DisplayName("Pending command")
+    class Pending {
+
+        @Test
+        @DisplayName("should re-send the outstanding forward step without changing state")
+        void shouldResendForwardStep() {
+            SagaTransition<Step, State> t = saga.pending(State.RESERVED, done(Step.RESERVE));
+
+            assertThat(t.outcome()).isEqualTo(Outcome.ADVANCE);
+            assertThat(t.step()).isEqualTo(Step.DEDUCT);
+            assertThat(t.changesState()).isFalse();
+        }
+
+        @Test
+        @DisplayName("should re-send the outstanding compensation")
+        void shouldResendCompensation() {
+            SagaTransition<Step, State> t = saga.pending(State.COMPENSATING, done(Step.RESERVE));
+
+            assertThat(t.outcome()).isEqualTo(Outcome.COMPENSATE);
+            assertThat(t.step()).isEqualTo(Step.RESERVE);
+        }
+
+        @Test
+        @DisplayName("should have nothing pending for a finished saga")
+        void shouldHaveNothingPendingWhenFinished() {
+            assertThat(saga.pending(State.COMPLETED, done(Step.values())).ignored()).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("should reject steps declared out of order")
+    void shouldRejectOutOfOrderSteps() {
+        assertThatThrownBy(() -> SagaDefinition.builder(Step.class, State.STARTED)
+                .step(Step.DEDUCT, State.DEDUCTED))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("should reject a definition missing steps")
+    void shouldRejectMissingSteps() {
+        assertThatThrownBy(() -> SagaDefinition.builder(Step.class, State.STARTED)
+                .step(Step.RESERVE, State.RESERVED)
+                .compensation(State.COMPENSATING, State.COMPENSATED)
+                .build())
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
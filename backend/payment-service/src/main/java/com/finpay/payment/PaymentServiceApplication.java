@@ -2,6 +2,7 @@ package com.finpay.payment;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.data.web.config.EnableSpringDataWebSupport;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -13,6 +14,7 @@ import static org.springframework.data.web.config.EnableSpringDataWebSupport.Pag
 @EnableDiscoveryClient
 @EnableAsync
 @EnableScheduling
+@ConfigurationPropertiesScan
 @EnableSpringDataWebSupport(pageSerializationMode = VIA_DTO)
 public class PaymentServiceApplication {
 
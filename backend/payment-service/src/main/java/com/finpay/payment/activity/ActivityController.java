@@ -0,0 +1,33 @@
+package com.finpay.payment.activity;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+/**
+ * REST controller for the unified recent-activity feed.
+ *
+ * Endpoints:
+ *   GET    /api/v1/payments/activity?cursor=&limit=  – transfers, bills and requests, newest first
+ */
+@RestController
+@RequestMapping("/api/v1/payments/activity")
+@RequiredArgsConstructor
+public class ActivityController {
+
+    private final ActivityService activityService;
+
+    /**
+     * Get one page of the authenticated user's activity. Pass the previous
+     * page's {@code nextCursor} to continue.
+     */
+    @GetMapping
+    public ResponseEntity<ActivityPage> getActivity(
+            @RequestHeader("X-User-Id") UUID userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(activityService.getActivity(userId, cursor, limit));
+    }
+}
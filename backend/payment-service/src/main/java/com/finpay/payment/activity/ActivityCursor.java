@@ -0,0 +1,58 @@
+package com.finpay.payment.activity;
+
+import com.finpay.payment.shared.exception.PaymentException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * Keyset position in the activity feed: the {@code (createdAt, id)} of the
+ * last item a page returned. The next page holds the items strictly before it.
+ *
+ * Clients receive it as an opaque URL-safe token.
+ */
+public record ActivityCursor(LocalDateTime createdAt, UUID id) {
+
+    /** Sorts before every stored row, i.e. the first page. */
+    public static final ActivityCursor START =
+            new ActivityCursor(LocalDateTime.of(9999, 12, 31, 0, 0), new UUID(-1L, -1L));
+
+    /**
+     * Feed order: newest first, ties broken by id descending. UUIDs are stored
+     * as {@code BINARY(16)}, so ids compare as unsigned bytes like MySQL does.
+     */
+    public static final Comparator<ActivityCursor> FEED_ORDER = Comparator
+            .comparing(ActivityCursor::createdAt)
+            .thenComparing(ActivityCursor::id, ActivityCursor::compareUnsigned)
+            .reversed();
+
+    private static final char SEPARATOR = '~';
+
+    public static ActivityCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int split = raw.indexOf(SEPARATOR);
+            return new ActivityCursor(LocalDateTime.parse(raw.substring(0, split)),
+                    UUID.fromString(raw.substring(split + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new PaymentException("Invalid activity cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = createdAt + String.valueOf(SEPARATOR) + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int compareUnsigned(UUID a, UUID b) {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
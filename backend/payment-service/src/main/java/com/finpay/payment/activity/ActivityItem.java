@@ -0,0 +1,35 @@
+package com.finpay.payment.activity;
+
+import com.finpay.payment.detail.dto.TransactionDetailResponse.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One entry of a user's activity feed. {@code type} and {@code id} address the
+ * matching {@code /api/v1/transactions} detail view.
+ */
+public record ActivityItem(
+        UUID id,
+        TransactionType type,
+        Direction direction,
+        String reference,
+        UUID counterpartyUserId,   // null for bill payments
+        BigDecimal amount,
+        String currency,
+        String status,
+        String title,
+        LocalDateTime createdAt
+) {
+
+    /** Whether money leaves or reaches the user once the transaction completes. */
+    public enum Direction {
+        INCOMING,
+        OUTGOING
+    }
+
+    ActivityCursor cursor() {
+        return new ActivityCursor(createdAt, id);
+    }
+}
@@ -0,0 +1,13 @@
+package com.finpay.payment.activity;
+
+import java.util.List;
+
+/**
+ * A page of the activity feed. {@code nextCursor} is null on the last page.
+ */
+public record ActivityPage(
+        List<ActivityItem> items,
+        String nextCursor,
+        boolean hasMore
+) {
+}
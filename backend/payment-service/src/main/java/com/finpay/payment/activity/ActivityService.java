@@ -0,0 +1,139 @@
+package com.finpay.payment.activity;
+
+import com.finpay.payment.activity.ActivityItem.Direction;
+import com.finpay.payment.billpayment.BillPayment;
+import com.finpay.payment.billpayment.BillPaymentRepository;
+import com.finpay.payment.detail.dto.TransactionDetailResponse.TransactionType;
+import com.finpay.payment.request.MoneyRequest;
+import com.finpay.payment.request.MoneyRequestRepository;
+import com.finpay.payment.transfer.MoneyTransfer;
+import com.finpay.payment.transfer.MoneyTransferRepository;
+import io.micrometer.observation.annotation.Observed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+/**
+ * Builds a user's activity feed from transfers, bill payments and money requests.
+ *
+ * Each source is read as a keyset page of {@code limit + 1} rows strictly before
+ * the cursor, served by a {@code (participant, createdAt)} index; transfers and
+ * requests are read once per side so neither query needs an {@code OR}. The
+ * sorted pages are then k-way merged, so a page costs the same at any depth
+ * and needs no {@code COUNT}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class ActivityService {
+
+    static final int DEFAULT_LIMIT = 20;
+    static final int MAX_LIMIT = 100;
+
+    private static final Comparator<Source> HEAD_ORDER =
+            Comparator.comparing(source -> source.head.cursor(), ActivityCursor.FEED_ORDER);
+
+    private final MoneyTransferRepository transferRepository;
+    private final BillPaymentRepository billPaymentRepository;
+    private final MoneyRequestRepository requestRepository;
+
+    @Observed(name = "activity.page", contextualName = "get-activity-page")
+    public ActivityPage getActivity(UUID userId, String cursorToken, int limit) {
+        int size = limit <= 0 ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+        ActivityCursor cursor = ActivityCursor.decode(cursorToken);
+        Pageable probe = PageRequest.of(0, size + 1);
+
+        List<List<ActivityItem>> sources = List.of(
+                transferRepository.findSentBefore(userId, cursor.createdAt(), cursor.id(), probe).stream()
+                        .map(t -> fromTransfer(t, Direction.OUTGOING, t.getRecipientUserId())).toList(),
+                transferRepository.findReceivedBefore(userId, cursor.createdAt(), cursor.id(), probe).stream()
+                        .map(t -> fromTransfer(t, Direction.INCOMING, t.getSenderUserId())).toList(),
+                billPaymentRepository.findByUserBefore(userId, cursor.createdAt(), cursor.id(), probe).stream()
+                        .map(ActivityService::fromBillPayment).toList(),
+                requestRepository.findRequestedBefore(userId, cursor.createdAt(), cursor.id(), probe).stream()
+                        .map(r -> fromMoneyRequest(r, Direction.INCOMING, r.getPayerUserId())).toList(),
+                requestRepository.findIncomingBefore(userId, cursor.createdAt(), cursor.id(), probe).stream()
+                        .map(r -> fromMoneyRequest(r, Direction.OUTGOING, r.getRequesterUserId())).toList());
+
+        return merge(sources, size);
+    }
+
+    // K-way merge
+
+    /**
+     * Merges pages that are each sorted in feed order into one page of at most
+     * {@code limit} items. Any row left over in a source means the feed
+     * continues after the last returned item.
+     */
+    static ActivityPage merge(List<List<ActivityItem>> sources, int limit) {
+        PriorityQueue<Source> heads = new PriorityQueue<>(Math.max(1, sources.size()), HEAD_ORDER);
+        for (List<ActivityItem> items : sources) {
+            Source source = new Source(items.iterator());
+            if (source.advance()) {
+                heads.add(source);
+            }
+        }
+
+        List<ActivityItem> page = new ArrayList<>(limit);
+        while (page.size() < limit && !heads.isEmpty()) {
+            Source source = heads.poll();
+            ActivityItem item = source.head;
+            // A self-addressed transaction shows up on both sides; keep one
+            if (page.isEmpty() || !page.getLast().id().equals(item.id())) {
+                page.add(item);
+            }
+            if (source.advance()) {
+                heads.add(source);
+            }
+        }
+
+        boolean hasMore = !heads.isEmpty();
+        String nextCursor = hasMore && !page.isEmpty() ? page.getLast().cursor().encode() : null;
+        return new ActivityPage(List.copyOf(page), nextCursor, hasMore);
+    }
+
+    private static final class Source {
+        private final Iterator<ActivityItem> rest;
+        private ActivityItem head;
+
+        private Source(Iterator<ActivityItem> rest) {
+            this.rest = rest;
+        }
+
+        private boolean advance() {
+            head = rest.hasNext() ? rest.next() : null;
+            return head != null;
+        }
+    }
+
+    // Mapping
+
+    private static ActivityItem fromTransfer(MoneyTransfer t, Direction direction, UUID counterparty) {
+        return new ActivityItem(t.getId(), TransactionType.TRANSFER, direction, t.getTransactionReference(),
+                counterparty, t.getAmount(), t.getCurrency(), t.getStatus().name(), t.getDescription(),
+                t.getCreatedAt());
+    }
+
+    private static ActivityItem fromBillPayment(BillPayment b) {
+        return new ActivityItem(b.getId(), TransactionType.BILL_PAYMENT, Direction.OUTGOING,
+                b.getTransactionReference(), null, b.getAmount(), b.getCurrency(), b.getStatus().name(),
+                b.getBillerName(), b.getCreatedAt());
+    }
+
+    private static ActivityItem fromMoneyRequest(MoneyRequest r, Direction direction, UUID counterparty) {
+        return new ActivityItem(r.getId(), TransactionType.MONEY_REQUEST, direction, r.getRequestReference(),
+                counterparty, r.getAmount(), r.getCurrency(), r.getStatus().name(), r.getDescription(),
+                r.getCreatedAt());
+    }
+}
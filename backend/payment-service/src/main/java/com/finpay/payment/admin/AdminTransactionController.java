@@ -1,11 +1,18 @@
 package com.finpay.payment.admin;
 
+import com.finpay.payment.detail.dto.TransactionDetailResponse.TransactionType;
+import com.finpay.payment.rollup.RollupGranularity;
+import com.finpay.payment.rollup.RollupPoint;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 /**
  * Admin endpoints for transaction monitoring across the platform.
  * Security enforced at API Gateway level (AdminAuthFilter).
@@ -44,4 +51,17 @@ public class AdminTransactionController {
         AdminTransactionMetrics metrics = adminTransactionService.getTransactionMetrics();
         return ResponseEntity.ok(metrics);
     }
+
+    /**
+     * Get counts and volumes of finished transactions per time bucket for dashboard charts.
+     * Range is [from, to); type is optional (TRANSFER, BILL_PAYMENT, MONEY_REQUEST).
+     */
+    @GetMapping("/metrics/series")
+    public ResponseEntity<List<RollupPoint>> getTransactionSeries(
+            @RequestParam(defaultValue = "HOUR") RollupGranularity granularity,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) TransactionType type) {
+        return ResponseEntity.ok(adminTransactionService.getTransactionSeries(granularity, from, to, type));
+    }
 }
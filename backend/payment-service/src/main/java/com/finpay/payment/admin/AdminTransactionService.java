@@ -2,8 +2,12 @@ package com.finpay.payment.admin;
 
 import com.finpay.payment.billpayment.BillPayment;
 import com.finpay.payment.billpayment.BillPaymentRepository;
+import com.finpay.payment.detail.dto.TransactionDetailResponse.TransactionType;
 import com.finpay.payment.request.MoneyRequest;
 import com.finpay.payment.request.MoneyRequestRepository;
+import com.finpay.payment.rollup.RollupGranularity;
+import com.finpay.payment.rollup.RollupPoint;
+import com.finpay.payment.rollup.TransactionRollupService;
 import com.finpay.payment.transfer.MoneyTransfer;
 import com.finpay.payment.transfer.MoneyTransferRepository;
 import lombok.RequiredArgsConstructor;
@@ -17,6 +21,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
@@ -31,6 +36,7 @@ public class AdminTransactionService {
     private final MoneyTransferRepository transferRepository;
     private final BillPaymentRepository billPaymentRepository;
     private final MoneyRequestRepository moneyRequestRepository;
+    private final TransactionRollupService rollupService;
 
     /**
      * Get all transactions across the platform with type filter.
@@ -144,26 +150,20 @@ public class AdminTransactionService {
 
     /**
      * Get transaction metrics for the admin dashboard.
+     * Current totals per status, each answered by one aggregate query.
      */
     public AdminTransactionMetrics getTransactionMetrics() {
         long totalTransfers = transferRepository.count();
-        long completedTransfers = transferRepository.findByStatus(MoneyTransfer.TransferStatus.COMPLETED).size();
-        long failedTransfers = transferRepository.findByStatus(MoneyTransfer.TransferStatus.FAILED).size();
-        long pendingTransfers = transferRepository.findByStatus(MoneyTransfer.TransferStatus.PENDING).size();
-
-        BigDecimal totalTransferVolume = transferRepository.findAll().stream()
-                .filter(t -> t.getStatus() == MoneyTransfer.TransferStatus.COMPLETED)
-                .map(MoneyTransfer::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        long completedTransfers = transferRepository.countByStatus(MoneyTransfer.TransferStatus.COMPLETED);
+        long failedTransfers = transferRepository.countByStatus(MoneyTransfer.TransferStatus.FAILED);
+        long pendingTransfers = transferRepository.countByStatus(MoneyTransfer.TransferStatus.PENDING);
+        BigDecimal totalTransferVolume = transferRepository.sumAmountByStatus(MoneyTransfer.TransferStatus.COMPLETED);
 
         long totalBillPayments = billPaymentRepository.count();
         long completedBillPayments = billPaymentRepository.countByStatus(BillPayment.BillPaymentStatus.COMPLETED);
         long failedBillPayments = billPaymentRepository.countByStatus(BillPayment.BillPaymentStatus.FAILED);
-
-        BigDecimal totalBillPaymentVolume = billPaymentRepository.findAll().stream()
-                .filter(b -> b.getStatus() == BillPayment.BillPaymentStatus.COMPLETED)
-                .map(BillPayment::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal totalBillPaymentVolume =
+                billPaymentRepository.sumAmountByStatus(BillPayment.BillPaymentStatus.COMPLETED);
 
         long totalMoneyRequests = moneyRequestRepository.count();
         long pendingMoneyRequests = moneyRequestRepository.countByStatus(MoneyRequest.RequestStatus.PENDING_APPROVAL);
@@ -178,6 +178,15 @@ public class AdminTransactionService {
         );
     }
 
+    /**
+     * Counts and volumes of finished transactions per time bucket, read from
+     * the rollup table for dashboard charts.
+     */
+    public List<RollupPoint> getTransactionSeries(RollupGranularity granularity, LocalDateTime from,
+                                                  LocalDateTime to, TransactionType type) {
+        return rollupService.getSeries(granularity, from, to, type);
+    }
+
     private String mapSortField(String sortBy) {
         if (sortBy == null) return "createdAt";
         return switch (sortBy) {
@@ -1,8 +1,11 @@
 package com.finpay.payment.billpayment;
 
+import com.finpay.id.hibernate.TimeOrderedId;
+import com.finpay.saga.SagaSteps;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
@@ -13,14 +16,19 @@ import java.util.UUID;
  * Represents a bill payment (utilities, internet, phone, etc.).
  * Follows the event-driven pattern: payment is initiated, then processed
  * via Kafka events through the wallet-service for fund deduction.
+ *
+ * Saga progress is stored as {@code sagaStatus} plus the {@code sagaSteps}
+ * bitmask of completed and compensated {@link SagaStep}s.
  */
 @Entity
 @Table(name = "bill_payments", indexes = {
-        @Index(name = "idx_bill_user", columnList = "userId"),
+        @Index(name = "idx_bill_user_created", columnList = "userId, createdAt"),
         @Index(name = "idx_bill_status", columnList = "status"),
         @Index(name = "idx_bill_reference", columnList = "transactionReference", unique = true),
-        @Index(name = "idx_bill_category", columnList = "category")
+        @Index(name = "idx_bill_category", columnList = "category"),
+        @Index(name = "idx_bill_next_deadline", columnList = "nextDeadlineAt")
 })
+@DynamicUpdate
 @Getter
 @Setter
 @NoArgsConstructor
@@ -29,7 +37,7 @@ import java.util.UUID;
 public class BillPayment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     private UUID id;
 
     @Column(nullable = false)
@@ -78,25 +86,18 @@ public class BillPayment {
     // Wallet integration - saga tracking
     private UUID walletId;
 
-    @Builder.Default
-    private boolean fundsReserved = false;
-
-    @Builder.Default
-    private boolean fundsDeducted = false;
-
-    @Builder.Default
-    private boolean billerConfirmed = false;
-
     @Column(nullable = false, columnDefinition = "VARCHAR(20)")
     @Enumerated(EnumType.STRING)
     @Builder.Default
     private SagaStatus sagaStatus = SagaStatus.INITIATED;
 
-    @Builder.Default
-    private boolean compensationRequired = false;
+    // Completed and compensated saga steps, see SagaSteps
+    @Column(nullable = false)
+    private int sagaSteps;
 
-    @Builder.Default
-    private boolean compensationCompleted = false;
+    // Stuck-saga recovery: when the pending wallet response is due, and how often it was re-sent
+    private LocalDateTime nextDeadlineAt;
+    private int recoveryAttempts;
 
     // External biller response
     private String billerReference;
@@ -113,8 +114,46 @@ public class BillPayment {
     @Column(nullable = false)
     private LocalDateTime updatedAt;
 
+    // Derived step flags
+
+    public boolean isFundsReserved() {
+        return SagaSteps.isDone(sagaSteps, SagaStep.RESERVE_FUNDS);
+    }
+
+    public void setFundsReserved(boolean done) {
+        sagaSteps = SagaSteps.withDone(sagaSteps, SagaStep.RESERVE_FUNDS, done);
+    }
+
+    public boolean isFundsDeducted() {
+        return SagaSteps.isDone(sagaSteps, SagaStep.DEDUCT_FUNDS);
+    }
+
+    public void setFundsDeducted(boolean done) {
+        sagaSteps = SagaSteps.withDone(sagaSteps, SagaStep.DEDUCT_FUNDS, done);
+    }
+
+    /** Biller confirmation is part of the transition that completes the saga. */
+    public boolean isBillerConfirmed() {
+        return sagaStatus == SagaStatus.COMPLETED;
+    }
+
+    public boolean isCompensationRequired() {
+        return sagaStatus == SagaStatus.FAILED || sagaStatus == SagaStatus.COMPENSATING
+                || sagaStatus == SagaStatus.COMPENSATED;
+    }
+
+    public boolean isCompensationCompleted() {
+        return sagaStatus == SagaStatus.COMPENSATED;
+    }
+
     // Enums
 
+    /** Wallet commands of the bill-payment saga, in execution order. */
+    public enum SagaStep {
+        RESERVE_FUNDS,
+        DEDUCT_FUNDS
+    }
+
     public enum BillCategory {
         ELECTRICITY,
         WATER,
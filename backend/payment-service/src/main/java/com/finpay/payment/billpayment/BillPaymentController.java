@@ -2,6 +2,7 @@ package com.finpay.payment.billpayment;
 
 import com.finpay.payment.billpayment.dto.BillPaymentRequest;
 import com.finpay.payment.billpayment.dto.BillPaymentResponse;
+import com.finpay.payment.shared.idempotency.IdempotencyService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -18,14 +19,17 @@ import java.util.UUID;
 public class BillPaymentController {
 
     private final BillPaymentService billPaymentService;
+    private final IdempotencyService idempotencyService;
 
     /**
      * Initiate a new bill payment. Starts the saga workflow.
+     * Retries carrying the same {@code Idempotency-Key} get the original response.
      */
     @PostMapping
     public ResponseEntity<BillPaymentResponse> payBill(
             @Valid @RequestBody BillPaymentRequest request,
-            @RequestHeader(value = "X-User-Id", required = false) String headerUserId) {
+            @RequestHeader(value = "X-User-Id", required = false) String headerUserId,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
         // Prefer the header user-id set by the gateway / auth filter
         BillPaymentRequest effective = request;
         if (headerUserId != null && request.userId() == null) {
@@ -35,8 +39,11 @@ public class BillPaymentController {
                     request.accountNumber(), request.accountHolderName(),
                     request.amount(), request.currency(), request.description());
         }
-        return ResponseEntity.status(HttpStatus.CREATED)
-                .body(billPaymentService.initiateBillPayment(effective));
+        BillPaymentRequest billRequest = effective;
+        return idempotencyService.execute("bill", billRequest.userId(), idempotencyKey, billRequest,
+                BillPaymentResponse.class,
+                () -> ResponseEntity.status(HttpStatus.CREATED)
+                        .body(billPaymentService.initiateBillPayment(billRequest)));
     }
 
     @GetMapping("/{id}")
@@ -3,10 +3,17 @@ package com.finpay.payment.billpayment;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -16,6 +23,12 @@ public interface BillPaymentRepository extends JpaRepository<BillPayment, UUID>
 
     Optional<BillPayment> findByTransactionReference(String transactionReference);
 
+    @Query("SELECT b.id FROM BillPayment b WHERE b.transactionReference = :reference")
+    Optional<UUID> findIdByTransactionReference(@Param("reference") String reference);
+
+    @Query("SELECT COUNT(b) > 0 FROM BillPayment b WHERE b.id = :id AND b.userId = :userId")
+    boolean isParty(@Param("id") UUID id, @Param("userId") UUID userId);
+
     List<BillPayment> findByUserId(UUID userId);
 
     Page<BillPayment> findByUserId(UUID userId, Pageable pageable);
@@ -26,10 +39,77 @@ public interface BillPaymentRepository extends JpaRepository<BillPayment, UUID>
 
     Page<BillPayment> findByUserIdOrderByCreatedAtDesc(UUID userId, Pageable pageable);
 
+    /** Activity feed keyset page: newest first, strictly before the (createdAt, id) cursor. */
+    @Query("SELECT b FROM BillPayment b WHERE b.userId = :userId "
+            + "AND (b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id)) "
+            + "ORDER BY b.createdAt DESC, b.id DESC")
+    List<BillPayment> findByUserBefore(@Param("userId") UUID userId,
+                                       @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("id") UUID id,
+                                       Pageable pageable);
+
+    // Saga transitions
+
+    /**
+     * Persists one saga transition, guarded on the state it was computed from
+     * so a concurrent handler makes this return 0. Null wallet, failure and
+     * biller fields keep their stored value.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BillPayment b SET b.sagaStatus = :toState, b.sagaSteps = :toSteps, b.status = :status, "
+            + "b.walletId = COALESCE(:walletId, b.walletId), "
+            + "b.failureReason = COALESCE(:failureReason, b.failureReason), "
+            + "b.failedAt = COALESCE(:failedAt, b.failedAt), "
+            + "b.billerReference = COALESCE(:billerReference, b.billerReference), "
+            + "b.billerResponse = COALESCE(:billerResponse, b.billerResponse), "
+            + "b.processedAt = COALESCE(:processedAt, b.processedAt), "
+            + "b.nextDeadlineAt = :nextDeadlineAt, b.recoveryAttempts = 0, b.updatedAt = :now "
+            + "WHERE b.id = :id AND b.sagaStatus = :fromState AND b.sagaSteps = :fromSteps")
+    int applyTransition(@Param("id") UUID id,
+                        @Param("fromState") BillPayment.SagaStatus fromState,
+                        @Param("fromSteps") int fromSteps,
+                        @Param("toState") BillPayment.SagaStatus toState,
+                        @Param("toSteps") int toSteps,
+                        @Param("status") BillPayment.BillPaymentStatus status,
+                        @Param("walletId") UUID walletId,
+                        @Param("failureReason") String failureReason,
+                        @Param("failedAt") LocalDateTime failedAt,
+                        @Param("billerReference") String billerReference,
+                        @Param("billerResponse") String billerResponse,
+                        @Param("processedAt") LocalDateTime processedAt,
+                        @Param("nextDeadlineAt") LocalDateTime nextDeadlineAt,
+                        @Param("now") LocalDateTime now);
+
+    // Stuck-saga recovery
+
+    /**
+     * Locks sagas whose response deadline has passed, oldest deadline first.
+     * Rows already locked by another instance are skipped (SKIP LOCKED).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT b FROM BillPayment b WHERE b.nextDeadlineAt <= :now ORDER BY b.nextDeadlineAt")
+    List<BillPayment> findOverdueForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Query("SELECT COUNT(b) FROM BillPayment b WHERE b.nextDeadlineAt IS NOT NULL "
+            + "AND (b.recoveryAttempts > 0 OR b.nextDeadlineAt <= :now)")
+    long countStuck(@Param("now") LocalDateTime now);
+
+    /** Re-arms the response timer after the watchdog re-sent a command. */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BillPayment b SET b.nextDeadlineAt = :nextDeadlineAt, b.recoveryAttempts = :recoveryAttempts "
+            + "WHERE b.id = :id")
+    int updateRecovery(@Param("id") UUID id,
+                       @Param("nextDeadlineAt") LocalDateTime nextDeadlineAt,
+                       @Param("recoveryAttempts") int recoveryAttempts);
+
     // Admin query methods
 
     @Query("SELECT b FROM BillPayment b WHERE b.status = :status")
     Page<BillPayment> findByStatusPaged(@Param("status") BillPayment.BillPaymentStatus status, Pageable pageable);
 
     long countByStatus(BillPayment.BillPaymentStatus status);
+
+    @Query("SELECT COALESCE(SUM(b.amount), 0) FROM BillPayment b WHERE b.status = :status")
+    BigDecimal sumAmountByStatus(@Param("status") BillPayment.BillPaymentStatus status);
 }
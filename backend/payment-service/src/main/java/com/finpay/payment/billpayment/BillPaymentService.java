@@ -1,15 +1,28 @@
 package com.finpay.payment.billpayment;
 
+import com.finpay.id.ReferenceGenerator;
+import com.finpay.money.FeeSchedule;
+import com.finpay.payment.billpayment.biller.BillerCatalog;
+import com.finpay.payment.billpayment.biller.dto.BillerResponse;
 import com.finpay.payment.billpayment.dto.BillPaymentRequest;
 import com.finpay.payment.billpayment.dto.BillPaymentResponse;
 import com.finpay.payment.billpayment.event.BillPaymentEvent;
+import com.finpay.payment.detail.dto.TransactionDetailResponse.TransactionType;
+import com.finpay.payment.reference.ReferenceResolver;
+import com.finpay.payment.rollup.TransactionRollupService;
 import com.finpay.payment.shared.exception.PaymentException;
 import com.finpay.payment.shared.exception.ResourceNotFoundException;
 import com.finpay.payment.shared.kafka.WalletCommandProducer;
+import com.finpay.payment.shared.saga.SagaRecovery;
+import com.finpay.payment.shared.saga.SagaWatchdogProperties;
+import com.finpay.saga.SagaDefinition;
+import com.finpay.saga.SagaTransition;
 import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,6 +30,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -31,6 +45,12 @@ import java.util.UUID;
  * 6. On any failure → compensation (release / reverse) triggered automatically
  *
  * All state transitions publish events to Kafka for the notification-service.
+ *
+ * The steps are declared in {@link #SAGA}; every response is persisted as one
+ * UPDATE guarded on the previous saga state and step mask. Each wallet command
+ * sets {@code nextDeadlineAt} so the saga watchdog can re-send it if the
+ * response never arrives. Duplicate responses are ignored, and a step that
+ * completes after the bill already failed or was cancelled is compensated.
  */
 @Service
 @RequiredArgsConstructor
@@ -41,9 +61,23 @@ public class BillPaymentService {
     private final BillPaymentRepository billPaymentRepository;
     private final BillPaymentEventProducer eventProducer;
     private final WalletCommandProducer walletCommandProducer;
-
-    private static final BigDecimal BILL_FEE_RATE = new BigDecimal("0.005"); // 0.5 %
-    private static final BigDecimal MIN_BILL_FEE = new BigDecimal("0.25");
+    private final SagaWatchdogProperties sagaProperties;
+    private final TransactionRollupService rollupService;
+    private final BillerCatalog billerCatalog;
+    private final ReferenceGenerator referenceGenerator;
+    private final ReferenceResolver referenceResolver;
+
+    private static final FeeSchedule BILL_FEE = FeeSchedule.percentage(
+            new BigDecimal("0.005"), new BigDecimal("0.25"), RoundingMode.HALF_UP); // 0.5 %, min 0.25
+
+    /** Biller confirmation is part of the deduction step; reversing the deduction also returns the reservation. */
+    static final SagaDefinition<BillPayment.SagaStep, BillPayment.SagaStatus> SAGA =
+            SagaDefinition.builder(BillPayment.SagaStep.class, BillPayment.SagaStatus.INITIATED)
+                    .step(BillPayment.SagaStep.RESERVE_FUNDS, BillPayment.SagaStatus.FUNDS_RESERVED)
+                    .step(BillPayment.SagaStep.DEDUCT_FUNDS, BillPayment.SagaStatus.COMPLETED)
+                    .undoAlsoSettles(BillPayment.SagaStep.RESERVE_FUNDS)
+                    .compensation(BillPayment.SagaStatus.COMPENSATING, BillPayment.SagaStatus.COMPENSATED)
+                    .build();
 
     // Initiate
 
@@ -52,6 +86,9 @@ public class BillPaymentService {
         log.info("Initiating bill payment for user: {} biller: {} amount: {}",
                 request.userId(), request.billerCode(), request.amount());
 
+        // The catalogue is authoritative for the biller's code and name
+        BillerResponse biller = billerCatalog.requireBiller(request.billerCode(), request.category());
+
         String txRef = generateTransactionReference();
         BigDecimal fee = calculateFee(request.amount());
         BigDecimal total = request.amount().add(fee);
@@ -60,8 +97,8 @@ public class BillPaymentService {
                 .userId(request.userId())
                 .transactionReference(txRef)
                 .category(request.category())
-                .billerName(request.billerName())
-                .billerCode(request.billerCode())
+                .billerName(biller.name())
+                .billerCode(biller.code())
                 .accountNumber(request.accountNumber())
                 .accountHolderName(request.accountHolderName())
                 .amount(request.amount())
@@ -72,8 +109,10 @@ public class BillPaymentService {
                 .sagaStatus(BillPayment.SagaStatus.INITIATED)
                 .description(request.description())
                 .build();
+        awaitResponse(bill);
 
         BillPayment saved = billPaymentRepository.save(bill);
+        referenceResolver.register(txRef, TransactionType.BILL_PAYMENT, saved.getId());
         log.info("Bill payment created: {} ref: {}", saved.getId(), txRef);
 
         // Publish initiated event
@@ -81,13 +120,7 @@ public class BillPaymentService {
                 BillPaymentEvent.of(saved, BillPaymentEvent.EventType.BILL_PAYMENT_INITIATED));
 
         // Saga step 1 → reserve funds from user wallet
-        walletCommandProducer.reserveFunds(
-                saved.getId(),
-                saved.getUserId(),
-                saved.getTotalAmount(),
-                saved.getCurrency(),
-                "Bill payment reserve: " + saved.getBillerName() + " (" + txRef + ")"
-        );
+        dispatch(saved, SAGA.start());
 
         return BillPaymentResponse.fromEntity(saved);
     }
@@ -98,66 +131,36 @@ public class BillPaymentService {
      * Saga step 1 completed: funds reserved → deduct funds.
      */
     public void handleFundsReserved(UUID billId, UUID walletId) {
-        BillPayment bill = findBillOrThrow(billId);
-        bill.setFundsReserved(true);
-        bill.setWalletId(walletId);
-        bill.setSagaStatus(BillPayment.SagaStatus.FUNDS_RESERVED);
-        bill.setStatus(BillPayment.BillPaymentStatus.PROCESSING);
-        billPaymentRepository.save(bill);
-
-        eventProducer.sendBillPaymentEvent(
-                BillPaymentEvent.of(bill, BillPaymentEvent.EventType.BILL_PAYMENT_PROCESSING));
-
-        // Saga step 2 → deduct funds
-        walletCommandProducer.deductFunds(
-                bill.getId(),
-                bill.getUserId(),
-                bill.getTotalAmount(),
-                bill.getCurrency(),
-                "Bill payment deduction: " + bill.getBillerName()
-        );
+        onStepCompleted(findBillOrThrow(billId), BillPayment.SagaStep.RESERVE_FUNDS, walletId);
     }
 
     /**
      * Saga step 2 completed: funds deducted → confirm with biller.
      */
     public void handleFundsDeducted(UUID billId) {
-        BillPayment bill = findBillOrThrow(billId);
-        bill.setFundsDeducted(true);
-        bill.setSagaStatus(BillPayment.SagaStatus.FUNDS_DEDUCTED);
-        billPaymentRepository.save(bill);
-
-        // Saga step 3 → simulate biller confirmation
-        confirmWithBiller(bill);
+        onStepCompleted(findBillOrThrow(billId), BillPayment.SagaStep.DEDUCT_FUNDS, null);
     }
 
     /**
      * Handle wallet operation failure → trigger compensation.
+     * Failures reported once compensation is under way are only logged.
      */
     public void handleFailure(UUID billId, String reason) {
-        BillPayment bill = findBillOrThrow(billId);
-        bill.setStatus(BillPayment.BillPaymentStatus.FAILED);
-        bill.setSagaStatus(BillPayment.SagaStatus.FAILED);
-        bill.setFailureReason(reason);
-        bill.setFailedAt(LocalDateTime.now());
-        bill.setCompensationRequired(true);
-        billPaymentRepository.save(bill);
-
-        eventProducer.sendBillPaymentEvent(
-                BillPaymentEvent.of(bill, BillPaymentEvent.EventType.BILL_PAYMENT_FAILED));
+        fail(findBillOrThrow(billId), reason);
+    }
 
-        startCompensation(bill);
+    /**
+     * Compensation: reservation released.
+     */
+    public void handleFundsReleased(UUID billId) {
+        onCompensated(findBillOrThrow(billId), BillPayment.SagaStep.RESERVE_FUNDS);
     }
 
     /**
-     * Compensation: funds released after rollback.
+     * Compensation: deduction reversed, which also settles the reservation.
      */
-    public void handleCompensated(UUID billId) {
-        BillPayment bill = findBillOrThrow(billId);
-        bill.setCompensationCompleted(true);
-        bill.setSagaStatus(BillPayment.SagaStatus.COMPENSATED);
-        bill.setStatus(BillPayment.BillPaymentStatus.COMPENSATED);
-        billPaymentRepository.save(bill);
+    public void handleDeductionReversed(UUID billId) {
+        onCompensated(findBillOrThrow(billId), BillPayment.SagaStep.DEDUCT_FUNDS);
     }
 
     // Queries
@@ -189,13 +192,19 @@ public class BillPaymentService {
 
     // Cancel
 
+    /**
+     * Cancels a bill whose reservation is still outstanding. The saga ends as
+     * compensated, so a reservation that arrives afterwards is released.
+     */
     public BillPaymentResponse cancelBillPayment(UUID id) {
         BillPayment bill = findBillOrThrow(id);
-        if (bill.getStatus() != BillPayment.BillPaymentStatus.PENDING) {
+        SagaTransition<BillPayment.SagaStep, BillPayment.SagaStatus> transition =
+                SAGA.onStepFailed(bill.getSagaStatus(), bill.getSagaSteps());
+        if (bill.getStatus() != BillPayment.BillPaymentStatus.PENDING || transition.ignored()) {
             throw new PaymentException("Only pending bill payments can be cancelled");
         }
-        bill.setStatus(BillPayment.BillPaymentStatus.CANCELLED);
-        billPaymentRepository.save(bill);
+        apply(bill, transition, BillPayment.BillPaymentStatus.CANCELLED, null, null, null);
+        dispatch(bill, transition);
 
         eventProducer.sendBillPaymentEvent(
                 BillPaymentEvent.of(bill, BillPaymentEvent.EventType.BILL_PAYMENT_CANCELLED));
@@ -215,48 +224,183 @@ public class BillPaymentService {
 
     // Internal helpers
 
-    private void confirmWithBiller(BillPayment bill) {
-        // In production this would call an external biller API.
-        // For now, simulate instant confirmation.
-        log.info("Confirming payment with biller {} for bill {}", bill.getBillerCode(), bill.getId());
+    private void onStepCompleted(BillPayment bill, BillPayment.SagaStep step, UUID walletId) {
+        SagaTransition<BillPayment.SagaStep, BillPayment.SagaStatus> transition =
+                SAGA.onStepCompleted(bill.getSagaStatus(), bill.getSagaSteps(), step);
+        if (transition.ignored()) {
+            log.info("Ignoring duplicate {} response for bill {}", step, bill.getId());
+            return;
+        }
+        if (!SAGA.isRunning(transition.fromState())) {
+            // Completed after the bill failed or was cancelled - undo it as well
+            log.warn("Late {} response for bill {} in {}, compensating", step, bill.getId(), transition.fromState());
+        }
 
-        bill.setBillerConfirmed(true);
-        bill.setBillerReference("BILLER-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
-        bill.setBillerResponse("SUCCESS");
-        bill.setSagaStatus(BillPayment.SagaStatus.COMPLETED);
-        bill.setStatus(BillPayment.BillPaymentStatus.COMPLETED);
-        bill.setProcessedAt(LocalDateTime.now());
-        billPaymentRepository.save(bill);
+        String billerReference = null;
+        if (transition.outcome() == SagaTransition.Outcome.COMPLETE) {
+            // In production this would call an external biller API.
+            // For now, simulate instant confirmation.
+            log.info("Confirming payment with biller {} for bill {}", bill.getBillerCode(), bill.getId());
+            billerReference = "BILLER-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        }
+        apply(bill, transition, walletId, null, billerReference);
+        dispatch(bill, transition);
+    }
+
+    private void fail(BillPayment bill, String reason) {
+        SagaTransition<BillPayment.SagaStep, BillPayment.SagaStatus> transition =
+                SAGA.onStepFailed(bill.getSagaStatus(), bill.getSagaSteps());
+        if (transition.ignored()) {
+            log.warn("Ignoring failure for bill {} already in {}: {}", bill.getId(), bill.getSagaStatus(), reason);
+            return;
+        }
+
+        log.warn("Starting compensation for failed bill payment {}", bill.getId());
+        apply(bill, transition, null, reason, null);
 
         eventProducer.sendBillPaymentEvent(
-                BillPaymentEvent.of(bill, BillPaymentEvent.EventType.BILL_PAYMENT_COMPLETED));
+                BillPaymentEvent.of(bill, BillPaymentEvent.EventType.BILL_PAYMENT_FAILED));
 
-        log.info("Bill payment completed: {} ref: {}", bill.getId(), bill.getTransactionReference());
+        dispatch(bill, transition);
     }
 
-    private void startCompensation(BillPayment bill) {
-        log.warn("Starting compensation for failed bill payment {}", bill.getId());
+    private void onCompensated(BillPayment bill, BillPayment.SagaStep step) {
+        SagaTransition<BillPayment.SagaStep, BillPayment.SagaStatus> transition =
+                SAGA.onCompensated(bill.getSagaStatus(), bill.getSagaSteps(), step);
+        if (transition.ignored()) {
+            log.info("Ignoring {} compensation response for bill {} in {}", step, bill.getId(), bill.getSagaStatus());
+            return;
+        }
+        apply(bill, transition, null, null, null);
+        dispatch(bill, transition);
+    }
+
+    /** A cancelled bill keeps its status while late steps are compensated. */
+    private void apply(BillPayment bill, SagaTransition<BillPayment.SagaStep, BillPayment.SagaStatus> transition,
+                       UUID walletId, String failureReason, String billerReference) {
+        BillPayment.BillPaymentStatus status = bill.getStatus() == BillPayment.BillPaymentStatus.CANCELLED
+                ? BillPayment.BillPaymentStatus.CANCELLED : statusOf(transition.toState());
+        apply(bill, transition, status, walletId, failureReason, billerReference);
+    }
+
+    /**
+     * Writes a transition with one UPDATE guarded on the state it was computed
+     * from and mirrors it onto {@code bill}. A guard miss means another handler
+     * moved the saga first; the exception lets Kafka redeliver the response.
+     */
+    private void apply(BillPayment bill, SagaTransition<BillPayment.SagaStep, BillPayment.SagaStatus> transition,
+                       BillPayment.BillPaymentStatus status,
+                       UUID walletId, String failureReason, String billerReference) {
+        LocalDateTime now = LocalDateTime.now();
+        boolean awaitsResponse = transition.outcome() == SagaTransition.Outcome.ADVANCE
+                || transition.outcome() == SagaTransition.Outcome.COMPENSATE;
+        LocalDateTime deadline = awaitsResponse ? now.plus(sagaProperties.getStepTimeout()) : null;
+        LocalDateTime failedAt = failureReason != null ? now : null;
+        String billerResponse = billerReference != null ? "SUCCESS" : null;
+        LocalDateTime processedAt = transition.outcome() == SagaTransition.Outcome.COMPLETE ? now : null;
+
+        int updated = billPaymentRepository.applyTransition(bill.getId(),
+                transition.fromState(), transition.fromSteps(), transition.toState(), transition.toSteps(),
+                status, walletId, failureReason, failedAt, billerReference, billerResponse, processedAt,
+                deadline, now);
+        if (updated == 0) {
+            throw new OptimisticLockingFailureException("Bill payment " + bill.getId()
+                    + " is no longer in " + transition.fromState());
+        }
 
-        bill.setStatus(BillPayment.BillPaymentStatus.COMPENSATING);
-        bill.setSagaStatus(BillPayment.SagaStatus.COMPENSATING);
-        billPaymentRepository.save(bill);
+        bill.setSagaStatus(transition.toState());
+        bill.setSagaSteps(transition.toSteps());
+        bill.setStatus(status);
+        if (walletId != null) {
+            bill.setWalletId(walletId);
+        }
+        if (failureReason != null) {
+            bill.setFailureReason(failureReason);
+            bill.setFailedAt(failedAt);
+        }
+        if (billerReference != null) {
+            bill.setBillerReference(billerReference);
+            bill.setBillerResponse(billerResponse);
+        }
+        if (processedAt != null) {
+            bill.setProcessedAt(processedAt);
+        }
+        bill.setNextDeadlineAt(deadline);
+        bill.setRecoveryAttempts(0);
+        bill.setUpdatedAt(now);
+
+        if (transition.outcome() == SagaTransition.Outcome.COMPLETE
+                || transition.outcome() == SagaTransition.Outcome.COMPENSATED) {
+            rollupService.record(TransactionType.BILL_PAYMENT, status.name(), bill.getCurrency(),
+                    bill.getAmount(), now);
+        }
+    }
+
+    /** Sends the command or event the transition asks for. */
+    private void dispatch(BillPayment bill, SagaTransition<BillPayment.SagaStep, BillPayment.SagaStatus> transition) {
+        switch (transition.outcome()) {
+            case ADVANCE -> {
+                if (transition.step() == BillPayment.SagaStep.DEDUCT_FUNDS) {
+                    eventProducer.sendBillPaymentEvent(
+                            BillPaymentEvent.of(bill, BillPaymentEvent.EventType.BILL_PAYMENT_PROCESSING));
+                }
+                sendStep(bill, transition.step());
+            }
+            case COMPENSATE -> sendCompensation(bill, transition.step());
+            case COMPLETE -> {
+                eventProducer.sendBillPaymentEvent(
+                        BillPaymentEvent.of(bill, BillPaymentEvent.EventType.BILL_PAYMENT_COMPLETED));
+                log.info("Bill payment completed: {} ref: {}", bill.getId(), bill.getTransactionReference());
+            }
+            case COMPENSATED -> {
+                if (transition.toSteps() != 0) {
+                    eventProducer.sendBillPaymentEvent(
+                            BillPaymentEvent.of(bill, BillPaymentEvent.EventType.BILL_PAYMENT_REFUNDED));
+                }
+            }
+            default -> {
+            }
+        }
+    }
 
-        if (bill.isFundsDeducted()) {
-            // Reverse the deduction
-            walletCommandProducer.reverseDeduction(
+    private static BillPayment.BillPaymentStatus statusOf(BillPayment.SagaStatus sagaStatus) {
+        return switch (sagaStatus) {
+            case INITIATED -> BillPayment.BillPaymentStatus.PENDING;
+            case COMPLETED -> BillPayment.BillPaymentStatus.COMPLETED;
+            case FAILED -> BillPayment.BillPaymentStatus.FAILED;
+            case COMPENSATING -> BillPayment.BillPaymentStatus.COMPENSATING;
+            case COMPENSATED -> BillPayment.BillPaymentStatus.COMPENSATED;
+            default -> BillPayment.BillPaymentStatus.PROCESSING;
+        };
+    }
+
+    private void sendStep(BillPayment bill, BillPayment.SagaStep step) {
+        switch (step) {
+            case RESERVE_FUNDS -> walletCommandProducer.reserveFunds(
+                    bill.getId(),
+                    bill.getUserId(),
+                    bill.getTotalAmount(),
+                    bill.getCurrency(),
+                    "Bill payment reserve: " + bill.getBillerName() + " (" + bill.getTransactionReference() + ")"
+            );
+            case DEDUCT_FUNDS -> walletCommandProducer.deductFunds(
+                    bill.getId(),
+                    bill.getUserId(),
+                    bill.getTotalAmount(),
+                    bill.getCurrency(),
+                    "Bill payment deduction: " + bill.getBillerName()
+            );
+        }
+    }
+
+    private void sendCompensation(BillPayment bill, BillPayment.SagaStep step) {
+        switch (step) {
+            case DEDUCT_FUNDS -> walletCommandProducer.reverseDeduction(
                     bill.getId(), bill.getUserId(), bill.getTotalAmount(),
                     bill.getCurrency(), "Reversal for failed bill: " + bill.getTransactionReference());
-        } else if (bill.isFundsReserved()) {
-            // Just release the reservation
-            walletCommandProducer.releaseFunds(
+            case RESERVE_FUNDS -> walletCommandProducer.releaseFunds(
                     bill.getId(), bill.getUserId(), bill.getTotalAmount(),
                     bill.getCurrency(), "Release for failed bill: " + bill.getTransactionReference());
-        } else {
-            // Nothing to compensate
-            bill.setCompensationCompleted(true);
-            bill.setSagaStatus(BillPayment.SagaStatus.COMPENSATED);
-            bill.setStatus(BillPayment.BillPaymentStatus.COMPENSATED);
-            billPaymentRepository.save(bill);
         }
     }
 
@@ -266,9 +410,7 @@ public class BillPaymentService {
     }
 
     private String generateTransactionReference() {
-        String ts = String.valueOf(System.currentTimeMillis());
-        String uuid = UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-        return "BILL" + ts.substring(ts.length() - 8) + uuid;
+        return referenceGenerator.next("BILL");
     }
 
     /**
@@ -287,8 +429,80 @@ public class BillPaymentService {
         return billPaymentRepository.existsById(id);
     }
 
+    // Stuck-saga recovery (driven by the saga watchdog)
+
+    /**
+     * Locks up to {@code limit} bills whose response deadline has passed,
+     * skipping rows another instance is recovering.
+     */
+    public List<BillPayment> lockOverdueBills(LocalDateTime now, int limit) {
+        return billPaymentRepository.findOverdueForUpdate(now, PageRequest.of(0, limit));
+    }
+
+    @Transactional(readOnly = true)
+    public long countStuckBills(LocalDateTime now) {
+        return billPaymentRepository.countStuck(now);
+    }
+
+    /**
+     * Recovers a bill whose wallet response is overdue: the pending step is
+     * re-sent with backoff until {@code max-retries}, then the bill is failed
+     * and compensated. Compensation is re-sent until it is confirmed.
+     */
+    public SagaRecovery.Action recoverStuckBill(BillPayment bill, LocalDateTime now) {
+        int attempts = bill.getRecoveryAttempts();
+        SagaTransition<BillPayment.SagaStep, BillPayment.SagaStatus> pending =
+                SAGA.pending(bill.getSagaStatus(), bill.getSagaSteps());
+
+        switch (pending.outcome()) {
+            case COMPENSATE -> {
+                if (attempts >= sagaProperties.getMaxRetries()) {
+                    log.error("Compensation for bill {} still unconfirmed after {} re-sends", bill.getId(), attempts);
+                }
+                retryLater(bill, now);
+                sendCompensation(bill, pending.step());
+                return SagaRecovery.Action.COMPENSATION_RETRIED;
+            }
+            case ADVANCE -> {
+                if (attempts >= sagaProperties.getMaxRetries()) {
+                    fail(bill, "Timed out waiting for wallet-service at step " + pending.step());
+                    return SagaRecovery.Action.COMPENSATION_STARTED;
+                }
+                log.warn("Bill {} stuck at {}, re-sending {} (attempt {}/{})", bill.getId(),
+                        bill.getSagaStatus(), pending.step(), attempts + 1, sagaProperties.getMaxRetries());
+                retryLater(bill, now);
+                sendStep(bill, pending.step());
+                return SagaRecovery.Action.RETRIED;
+            }
+            case COMPENSATED -> {
+                apply(bill, pending, null, null, null);
+                return SagaRecovery.Action.CLEARED;
+            }
+            default -> {
+                updateRecovery(bill, null, 0);
+                return SagaRecovery.Action.CLEARED;
+            }
+        }
+    }
+
+    /** Starts the response timer for the first command of a new bill. */
+    private void awaitResponse(BillPayment bill) {
+        bill.setNextDeadlineAt(LocalDateTime.now().plus(sagaProperties.getStepTimeout()));
+        bill.setRecoveryAttempts(0);
+    }
+
+    private void retryLater(BillPayment bill, LocalDateTime now) {
+        int attempts = bill.getRecoveryAttempts() + 1;
+        updateRecovery(bill, now.plus(sagaProperties.retryDelay(attempts)), attempts);
+    }
+
+    private void updateRecovery(BillPayment bill, LocalDateTime nextDeadlineAt, int attempts) {
+        billPaymentRepository.updateRecovery(bill.getId(), nextDeadlineAt, attempts);
+        bill.setNextDeadlineAt(nextDeadlineAt);
+        bill.setRecoveryAttempts(attempts);
+    }
+
     private BigDecimal calculateFee(BigDecimal amount) {
-        BigDecimal fee = amount.multiply(BILL_FEE_RATE).setScale(4, RoundingMode.HALF_UP);
-        return fee.compareTo(MIN_BILL_FEE) < 0 ? MIN_BILL_FEE : fee;
+        return BILL_FEE.fee(amount);
     }
 }
@@ -0,0 +1,37 @@
+package com.finpay.payment.billpayment.biller;
+
+import com.finpay.payment.billpayment.biller.dto.BillerRequest;
+import com.finpay.payment.billpayment.biller.dto.BillerResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Admin maintenance of the biller catalogue, including inactive billers.
+ * Security enforced at API Gateway level (AdminAuthFilter).
+ */
+@RestController
+@RequestMapping("/api/v1/admin/billers")
+@RequiredArgsConstructor
+public class AdminBillerController {
+
+    private final BillerCatalog billerCatalog;
+
+    @GetMapping
+    public ResponseEntity<List<BillerResponse>> listBillers() {
+        return ResponseEntity.ok(billerCatalog.listAll());
+    }
+
+    /**
+     * Create or update a biller. Deactivate instead of deleting; the search
+     * index is rebuilt once the change commits.
+     */
+    @PutMapping("/{code}")
+    public ResponseEntity<BillerResponse> saveBiller(@PathVariable String code,
+                                                     @Valid @RequestBody BillerRequest request) {
+        return ResponseEntity.ok(billerCatalog.upsert(code, request));
+    }
+}
@@ -0,0 +1,53 @@
+package com.finpay.payment.billpayment.biller;
+
+import com.finpay.id.hibernate.TimeOrderedId;
+import com.finpay.payment.billpayment.BillPayment;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A payee bill payments can be made to. Billers are deactivated rather than
+ * deleted, so bills and schedules that reference a code keep resolving.
+ */
+@Entity
+@Table(name = "billers", indexes = {
+        @Index(name = "idx_biller_code", columnList = "code", unique = true)
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Biller {
+
+    @Id
+    @TimeOrderedId
+    private UUID id;
+
+    @Column(nullable = false, unique = true, length = 40)
+    private String code;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false, columnDefinition = "VARCHAR(20)")
+    @Enumerated(EnumType.STRING)
+    private BillPayment.BillCategory category;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private boolean active = true;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,130 @@
+package com.finpay.payment.billpayment.biller;
+
+import com.finpay.payment.billpayment.BillPayment;
+import com.finpay.payment.billpayment.biller.dto.BillerRequest;
+import com.finpay.payment.billpayment.biller.dto.BillerResponse;
+import com.finpay.payment.shared.exception.PaymentException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Biller catalogue. Lookups and autocomplete are served from an immutable
+ * {@link BillerIndex} held in memory and never touch MySQL.
+ *
+ * The index is built at startup and rebuilt whole, then swapped in, after
+ * every catalogue edit on this instance. Other instances notice the edit on
+ * their next refresh, which compares the catalogue's row count and latest
+ * update time with those the current index was built from.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BillerCatalog {
+
+    static final int MAX_RESULTS = 50;
+
+    private final BillerRepository billerRepository;
+
+    private volatile BillerIndex index = BillerIndex.EMPTY;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void load() {
+        if (billerRepository.count() == 0) {
+            billerRepository.saveAll(DefaultBillers.all());
+            log.info("Seeded empty biller catalogue with {} default billers", DefaultBillers.all().size());
+        }
+        reload();
+    }
+
+    /** Rebuilds the index from the database and swaps it in. */
+    public void reload() {
+        BillerRepository.CatalogStamp stamp = billerRepository.findCatalogStamp();
+        List<BillerResponse> active = billerRepository.findByActiveTrue().stream()
+                .map(BillerResponse::fromEntity)
+                .toList();
+        index = new BillerIndex(active, stamp);
+        log.info("Biller index rebuilt with {} active billers", active.size());
+    }
+
+    @Scheduled(fixedDelayString = "${finpay.payment.billers.refresh-interval-ms:60000}")
+    public void refreshIfChanged() {
+        BillerRepository.CatalogStamp current = billerRepository.findCatalogStamp();
+        BillerRepository.CatalogStamp indexed = index.stamp();
+        if (indexed == null || current.getBillers() != indexed.getBillers()
+                || !Objects.equals(current.getLastUpdatedAt(), indexed.getLastUpdatedAt())) {
+            reload();
+        }
+    }
+
+    // Queries
+
+    public List<BillerResponse> search(String query, BillPayment.BillCategory category, int limit) {
+        return index.search(query, category, Math.clamp(limit, 1, MAX_RESULTS));
+    }
+
+    /** Active biller with this code, matched case-insensitively. */
+    public Optional<BillerResponse> findBiller(String code) {
+        return index.findByCode(code);
+    }
+
+    /** The active biller for a new bill, which must belong to {@code category}. */
+    public BillerResponse requireBiller(String code, BillPayment.BillCategory category) {
+        BillerResponse biller = findBiller(code)
+                .orElseThrow(() -> new PaymentException("Unknown biller: " + code));
+        if (category != null && biller.category() != category) {
+            throw new PaymentException("Biller " + biller.code() + " does not accept "
+                    + category.name().toLowerCase() + " bills");
+        }
+        return biller;
+    }
+
+    // Administration
+
+    @Transactional(readOnly = true)
+    public List<BillerResponse> listAll() {
+        return billerRepository.findAllByOrderByCategoryAscNameAsc().stream()
+                .map(BillerResponse::fromEntity)
+                .toList();
+    }
+
+    @Transactional
+    public BillerResponse upsert(String code, BillerRequest request) {
+        String normalized = code.trim().toUpperCase();
+        Biller biller = billerRepository.findByCode(normalized)
+                .orElseGet(() -> Biller.builder().code(normalized).build());
+        biller.setName(request.name().trim());
+        biller.setCategory(request.category());
+        biller.setActive(request.active());
+        Biller saved = billerRepository.save(biller);
+        log.info("Biller {} saved: {} ({}, active={})", normalized, saved.getName(), saved.getCategory(),
+                saved.isActive());
+
+        afterCommit(this::reload);
+        return BillerResponse.fromEntity(saved);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
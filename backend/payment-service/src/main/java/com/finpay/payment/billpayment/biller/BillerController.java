@@ -0,0 +1,36 @@
+package com.finpay.payment.billpayment.biller;
+
+import com.finpay.payment.billpayment.BillPayment;
+import com.finpay.payment.billpayment.biller.dto.BillerResponse;
+import com.finpay.payment.shared.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/payments/bills/billers")
+@RequiredArgsConstructor
+public class BillerController {
+
+    private final BillerCatalog billerCatalog;
+
+    /**
+     * Typo-tolerant autocomplete over biller names and codes, served from memory.
+     * A blank query lists the billers of the category.
+     */
+    @GetMapping
+    public ResponseEntity<List<BillerResponse>> searchBillers(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(required = false) BillPayment.BillCategory category,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(billerCatalog.search(q, category, limit));
+    }
+
+    @GetMapping("/{code}")
+    public ResponseEntity<BillerResponse> getBiller(@PathVariable String code) {
+        return ResponseEntity.ok(billerCatalog.findBiller(code)
+                .orElseThrow(() -> new ResourceNotFoundException("Biller not found: " + code)));
+    }
+}
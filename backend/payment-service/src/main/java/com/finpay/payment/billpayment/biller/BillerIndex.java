@@ -0,0 +1,215 @@
+package com.finpay.payment.billpayment.biller;
+
+import com.finpay.payment.billpayment.BillPayment.BillCategory;
+import com.finpay.payment.billpayment.biller.dto.BillerResponse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Immutable search index over the active billers.
+ *
+ * Each biller is indexed under its name words, its whole name and its code,
+ * lower-cased with punctuation and spaces removed ("City Power Co." gives
+ * {@code city}, {@code power}, {@code co}, {@code citypowerco}). Tokens are
+ * kept sorted, so prefix matches are one binary search and a scan.
+ *
+ * Typos are matched through a trigram index: tokens sharing a trigram with the
+ * query are checked for a prefix within one edit (queries of 3-5 characters)
+ * or two edits (longer), counting an adjacent transposition as one edit.
+ * Exact prefix matches rank above fuzzy ones, then billers sort by name.
+ */
+final class BillerIndex {
+
+    static final BillerIndex EMPTY = new BillerIndex(List.of(), null);
+    private static final int[] NO_TOKENS = new int[0];
+
+    private final BillerResponse[] billers;
+    private final Map<String, BillerResponse> byCode;
+    private final String[] tokens;
+    private final int[] owners;
+    private final Map<String, int[]> trigrams;
+    private final BillerRepository.CatalogStamp stamp;
+
+    BillerIndex(List<BillerResponse> active, BillerRepository.CatalogStamp stamp) {
+        this.stamp = stamp;
+        this.billers = active.stream()
+                .sorted(Comparator.comparing(BillerResponse::name, String.CASE_INSENSITIVE_ORDER))
+                .toArray(BillerResponse[]::new);
+
+        Map<String, BillerResponse> codes = new HashMap<>();
+        List<Posting> postings = new ArrayList<>();
+        for (int owner = 0; owner < billers.length; owner++) {
+            BillerResponse biller = billers[owner];
+            codes.put(biller.code().toUpperCase(Locale.ROOT), biller);
+            for (String token : tokensOf(biller)) {
+                postings.add(new Posting(token, owner));
+            }
+        }
+        postings.sort(Comparator.comparing(Posting::token).thenComparingInt(Posting::owner));
+        this.byCode = Map.copyOf(codes);
+        this.tokens = postings.stream().map(Posting::token).toArray(String[]::new);
+        this.owners = postings.stream().mapToInt(Posting::owner).toArray();
+
+        Map<String, List<Integer>> grams = new HashMap<>();
+        for (int t = 0; t < tokens.length; t++) {
+            for (String gram : trigramsOf(tokens[t])) {
+                grams.computeIfAbsent(gram, g -> new ArrayList<>()).add(t);
+            }
+        }
+        Map<String, int[]> frozen = new HashMap<>(grams.size() * 2);
+        grams.forEach((gram, list) -> frozen.put(gram, list.stream().mapToInt(Integer::intValue).toArray()));
+        this.trigrams = frozen;
+    }
+
+    BillerRepository.CatalogStamp stamp() {
+        return stamp;
+    }
+
+    int size() {
+        return billers.length;
+    }
+
+    Optional<BillerResponse> findByCode(String code) {
+        return code == null ? Optional.empty() : Optional.ofNullable(byCode.get(code.trim().toUpperCase(Locale.ROOT)));
+    }
+
+    /** Best matches for {@code query}, optionally within one category; a blank query lists the category. */
+    List<BillerResponse> search(String query, BillCategory category, int limit) {
+        String q = compact(query);
+        if (q.isEmpty()) {
+            return Arrays.stream(billers)
+                    .filter(b -> category == null || b.category() == category)
+                    .limit(limit)
+                    .toList();
+        }
+
+        int maxTypos = q.length() < 3 ? 0 : q.length() < 6 ? 1 : 2;
+        int[] distance = new int[billers.length];
+        Arrays.fill(distance, Integer.MAX_VALUE);
+
+        for (int t = lowerBound(q); t < tokens.length && tokens[t].startsWith(q); t++) {
+            distance[owners[t]] = 0;
+        }
+
+        if (maxTypos > 0) {
+            boolean[] checked = new boolean[tokens.length];
+            for (String gram : trigramsOf(q)) {
+                for (int t : trigrams.getOrDefault(gram, NO_TOKENS)) {
+                    if (checked[t] || distance[owners[t]] == 0) {
+                        continue;
+                    }
+                    checked[t] = true;
+                    int d = prefixDistance(q, tokens[t], maxTypos);
+                    if (d < distance[owners[t]]) {
+                        distance[owners[t]] = d;
+                    }
+                }
+            }
+        }
+
+        List<Integer> matches = new ArrayList<>();
+        for (int owner = 0; owner < billers.length; owner++) {
+            if (distance[owner] <= maxTypos && (category == null || billers[owner].category() == category)) {
+                matches.add(owner);
+            }
+        }
+        // Owners are in name order already; the sort is stable
+        matches.sort(Comparator.comparingInt(owner -> distance[owner]));
+        return matches.stream().limit(limit).map(owner -> billers[owner]).toList();
+    }
+
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = tokens.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (tokens[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Smallest edit distance between {@code query} and any prefix of
+     * {@code token} (optimal string alignment), or {@code max + 1} once it
+     * cannot be within {@code max}.
+     */
+    static int prefixDistance(String query, String token, int max) {
+        int m = query.length();
+        int n = Math.min(token.length(), m + max);
+        int[] twoBack = new int[n + 1];
+        int[] previous = new int[n + 1];
+        int[] current = new int[n + 1];
+        for (int j = 0; j <= n; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= m; i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= n; j++) {
+                int cost = query.charAt(i - 1) == token.charAt(j - 1) ? 0 : 1;
+                int d = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && query.charAt(i - 1) == token.charAt(j - 2)
+                        && query.charAt(i - 2) == token.charAt(j - 1)) {
+                    d = Math.min(d, twoBack[j - 2] + 1);
+                }
+                current[j] = d;
+                rowMin = Math.min(rowMin, d);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = twoBack;
+            twoBack = previous;
+            previous = current;
+            current = recycled;
+        }
+        int best = max + 1;
+        for (int j = 0; j <= n; j++) {
+            best = Math.min(best, previous[j]);
+        }
+        return best;
+    }
+
+    private static Set<String> tokensOf(BillerResponse biller) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String word : biller.name().toLowerCase(Locale.ROOT).split("[^\\p{Alnum}]+")) {
+            if (!word.isEmpty()) {
+                tokens.add(word);
+            }
+        }
+        tokens.add(compact(biller.name()));
+        tokens.add(compact(biller.code()));
+        tokens.remove("");
+        return tokens;
+    }
+
+    /** Leading-padded trigrams, so the first letters of a word carry weight. */
+    private static Set<String> trigramsOf(String token) {
+        String padded = "^^" + token;
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    static String compact(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT).replaceAll("[^\\p{Alnum}]", "");
+    }
+
+    private record Posting(String token, int owner) {
+    }
+}
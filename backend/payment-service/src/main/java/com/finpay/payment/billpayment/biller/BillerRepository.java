@@ -0,0 +1,30 @@
+package com.finpay.payment.billpayment.biller;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface BillerRepository extends JpaRepository<Biller, UUID> {
+
+    Optional<Biller> findByCode(String code);
+
+    List<Biller> findByActiveTrue();
+
+    List<Biller> findAllByOrderByCategoryAscNameAsc();
+
+    /** Changes whenever a biller is added or updated; used to detect catalogue edits made by other instances. */
+    @Query("SELECT COUNT(b) AS billers, MAX(b.updatedAt) AS lastUpdatedAt FROM Biller b")
+    CatalogStamp findCatalogStamp();
+
+    interface CatalogStamp {
+        long getBillers();
+
+        LocalDateTime getLastUpdatedAt();
+    }
+}
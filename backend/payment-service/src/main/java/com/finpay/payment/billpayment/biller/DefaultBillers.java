@@ -0,0 +1,39 @@
+package com.finpay.payment.billpayment.biller;
+
+import com.finpay.payment.billpayment.BillPayment.BillCategory;
+
+import java.util.List;
+
+/**
+ * Starter catalogue written to an empty {@code billers} table; matches the
+ * billers the web client offered before the catalogue existed.
+ */
+final class DefaultBillers {
+
+    private DefaultBillers() {
+    }
+
+    static List<Biller> all() {
+        return List.of(
+                biller("ELEC-001", "City Power Co.", BillCategory.ELECTRICITY),
+                biller("ELEC-002", "National Grid Energy", BillCategory.ELECTRICITY),
+                biller("WATER-001", "Metro Water Supply", BillCategory.WATER),
+                biller("WATER-002", "AquaPure Utilities", BillCategory.WATER),
+                biller("NET-001", "FiberNet ISP", BillCategory.INTERNET),
+                biller("NET-002", "SpeedLink Broadband", BillCategory.INTERNET),
+                biller("PHONE-001", "TeleCom Mobile", BillCategory.PHONE),
+                biller("PHONE-002", "ConnectCell Wireless", BillCategory.PHONE),
+                biller("GAS-001", "PipeGas Energy", BillCategory.GAS),
+                biller("INS-001", "SafeGuard Insurance", BillCategory.INSURANCE),
+                biller("INS-002", "TrustLife Coverage", BillCategory.INSURANCE),
+                biller("RENT-001", "HomeSpace Properties", BillCategory.RENT),
+                biller("SUB-001", "StreamMax Plus", BillCategory.SUBSCRIPTION),
+                biller("SUB-002", "CloudStore Premium", BillCategory.SUBSCRIPTION),
+                biller("GOV-001", "Municipal Tax Office", BillCategory.GOVERNMENT),
+                biller("EDU-001", "State University Fees", BillCategory.EDUCATION));
+    }
+
+    private static Biller biller(String code, String name, BillCategory category) {
+        return Biller.builder().code(code).name(name).category(category).build();
+    }
+}
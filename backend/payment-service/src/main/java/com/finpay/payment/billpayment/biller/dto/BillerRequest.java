@@ -0,0 +1,19 @@
+package com.finpay.payment.billpayment.biller.dto;
+
+import com.finpay.payment.billpayment.BillPayment;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+public record BillerRequest(
+
+        @NotBlank(message = "Biller name is required")
+        @Size(max = 255, message = "Biller name is too long")
+        String name,
+
+        @NotNull(message = "Bill category is required")
+        BillPayment.BillCategory category,
+
+        boolean active
+) {
+}
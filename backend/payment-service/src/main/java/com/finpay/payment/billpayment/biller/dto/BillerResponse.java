@@ -0,0 +1,16 @@
+package com.finpay.payment.billpayment.biller.dto;
+
+import com.finpay.payment.billpayment.BillPayment;
+import com.finpay.payment.billpayment.biller.Biller;
+
+public record BillerResponse(
+        String code,
+        String name,
+        BillPayment.BillCategory category,
+        boolean active
+) {
+
+    public static BillerResponse fromEntity(Biller biller) {
+        return new BillerResponse(biller.getCode(), biller.getName(), biller.getCategory(), biller.isActive());
+    }
+}
@@ -8,7 +8,7 @@ import java.util.UUID;
 
 /**
  * Kafka event emitted for every bill payment state change.
- * Consumed by notification-service and any analytics/audit pipeline.
+ * Consumed by notification-service and the transaction-history projection.
  */
 public record BillPaymentEvent(
         UUID billPaymentId,
@@ -18,8 +18,13 @@ public record BillPaymentEvent(
         String billerName,
         String billerCode,
         String accountNumber,
+        String accountHolderName,
         BigDecimal amount,
+        BigDecimal processingFee,
+        BigDecimal totalAmount,
         String currency,
+        String description,
+        String billerReference,
         BillPayment.BillPaymentStatus status,
         EventType eventType,
         String failureReason,
@@ -44,8 +49,13 @@ public record BillPaymentEvent(
                 bp.getBillerName(),
                 bp.getBillerCode(),
                 bp.getAccountNumber(),
+                bp.getAccountHolderName(),
                 bp.getAmount(),
+                bp.getProcessingFee(),
+                bp.getTotalAmount(),
                 bp.getCurrency(),
+                bp.getDescription(),
+                bp.getBillerReference(),
                 bp.getStatus(),
                 eventType,
                 bp.getFailureReason(),
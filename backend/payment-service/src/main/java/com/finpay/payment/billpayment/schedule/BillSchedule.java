@@ -0,0 +1,172 @@
+package com.finpay.payment.billpayment.schedule;
+
+import com.finpay.id.hibernate.TimeOrderedId;
+import com.finpay.payment.billpayment.BillPayment;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A bill payment to be made at {@code nextRunAt}, once or on a recurring
+ * frequency. Each run initiates an ordinary {@link BillPayment}.
+ *
+ * An instance that picks a due schedule up sets {@code claimedUntil}; other
+ * instances leave the schedule alone until that lease lapses. Every claim
+ * bumps {@code claimCount}, which fences off a run whose lease lapsed and was
+ * claimed again elsewhere before it started.
+ */
+@Entity
+@Table(name = "bill_schedules", indexes = {
+        @Index(name = "idx_schedule_status_next_run", columnList = "status, nextRunAt"),
+        @Index(name = "idx_schedule_user", columnList = "userId, createdAt")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BillSchedule {
+
+    @Id
+    @TimeOrderedId
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID userId;
+
+    @Column(nullable = false, columnDefinition = "VARCHAR(20)")
+    @Enumerated(EnumType.STRING)
+    private BillPayment.BillCategory category;
+
+    @Column(nullable = false)
+    private String billerName;
+
+    @Column(nullable = false)
+    private String billerCode;
+
+    @Column(nullable = false)
+    private String accountNumber;
+
+    private String accountHolderName;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal amount;
+
+    @Column(nullable = false, length = 3)
+    @Builder.Default
+    private String currency = "USD";
+
+    private String description;
+
+    @Column(nullable = false, columnDefinition = "VARCHAR(20)")
+    @Enumerated(EnumType.STRING)
+    private Frequency frequency;
+
+    /** Day of month monthly runs are pinned to; shorter months run on their last day. */
+    private int anchorDay;
+
+    @Column(nullable = false, columnDefinition = "VARCHAR(20)")
+    @Enumerated(EnumType.STRING)
+    @Builder.Default
+    private ScheduleStatus status = ScheduleStatus.ACTIVE;
+
+    @Column(nullable = false)
+    private LocalDateTime nextRunAt;
+
+    private LocalDateTime claimedUntil;
+
+    private long claimCount;
+
+    /** Consecutive runs that failed to initiate a bill payment. */
+    private int failureCount;
+
+    private int runCount;
+
+    private LocalDateTime lastRunAt;
+
+    private UUID lastBillPaymentId;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    /**
+     * Records a run that initiated {@code billPaymentId} and moves to the next
+     * due time after {@code ranAt}; occurrences missed while the service was
+     * down are skipped rather than paid in a burst.
+     */
+    public void recordRun(UUID billPaymentId, LocalDateTime ranAt) {
+        runCount++;
+        lastRunAt = ranAt;
+        lastBillPaymentId = billPaymentId;
+        claimedUntil = null;
+        failureCount = 0;
+        if (frequency == Frequency.ONCE) {
+            status = ScheduleStatus.COMPLETED;
+            return;
+        }
+        do {
+            nextRunAt = frequency.next(nextRunAt, anchorDay);
+        } while (!nextRunAt.isAfter(ranAt));
+    }
+
+    /**
+     * Records a run that failed. The schedule is held back for {@code backoff},
+     * doubled for each earlier consecutive failure, and paused once
+     * {@code maxFailures} runs in a row have failed. Returns whether it was paused.
+     */
+    public boolean recordFailure(LocalDateTime now, int maxFailures, Duration backoff) {
+        failureCount++;
+        if (failureCount >= maxFailures) {
+            status = ScheduleStatus.PAUSED;
+            claimedUntil = null;
+            return true;
+        }
+        claimedUntil = now.plus(backoff.multipliedBy(1L << Math.min(failureCount - 1, 16)));
+        return false;
+    }
+
+    /** Reactivates a paused schedule from its next occurrence after {@code now}. */
+    public void resume(LocalDateTime now) {
+        status = ScheduleStatus.ACTIVE;
+        claimedUntil = null;
+        failureCount = 0;
+        while (frequency != Frequency.ONCE && !nextRunAt.isAfter(now)) {
+            nextRunAt = frequency.next(nextRunAt, anchorDay);
+        }
+    }
+
+    public enum Frequency {
+        ONCE,
+        WEEKLY,
+        MONTHLY;
+
+        LocalDateTime next(LocalDateTime previous, int anchorDay) {
+            return switch (this) {
+                case ONCE -> previous;
+                case WEEKLY -> previous.plusWeeks(1);
+                case MONTHLY -> {
+                    LocalDateTime nextMonth = previous.plusMonths(1);
+                    yield nextMonth.withDayOfMonth(Math.min(anchorDay, nextMonth.toLocalDate().lengthOfMonth()));
+                }
+            };
+        }
+    }
+
+    public enum ScheduleStatus {
+        ACTIVE,
+        PAUSED,
+        COMPLETED,
+        CANCELLED
+    }
+}
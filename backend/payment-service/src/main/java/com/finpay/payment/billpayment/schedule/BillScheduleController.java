@@ -0,0 +1,50 @@
+package com.finpay.payment.billpayment.schedule;
+
+import com.finpay.payment.billpayment.schedule.dto.BillScheduleRequest;
+import com.finpay.payment.billpayment.schedule.dto.BillScheduleResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/payments/bills/schedules")
+@RequiredArgsConstructor
+public class BillScheduleController {
+
+    private final BillScheduleService scheduleService;
+
+    /**
+     * Schedule a one-off or recurring bill payment. Each run starts a regular bill payment saga.
+     */
+    @PostMapping
+    public ResponseEntity<BillScheduleResponse> createSchedule(@Valid @RequestBody BillScheduleRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(scheduleService.createSchedule(request));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<BillScheduleResponse> getSchedule(@PathVariable UUID id) {
+        return ResponseEntity.ok(scheduleService.getSchedule(id));
+    }
+
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<Page<BillScheduleResponse>> getUserSchedules(
+            @PathVariable UUID userId, Pageable pageable) {
+        return ResponseEntity.ok(scheduleService.getSchedulesByUser(userId, pageable));
+    }
+
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<BillScheduleResponse> resumeSchedule(@PathVariable UUID id) {
+        return ResponseEntity.ok(scheduleService.resumeSchedule(id));
+    }
+
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<BillScheduleResponse> cancelSchedule(@PathVariable UUID id) {
+        return ResponseEntity.ok(scheduleService.cancelSchedule(id));
+    }
+}
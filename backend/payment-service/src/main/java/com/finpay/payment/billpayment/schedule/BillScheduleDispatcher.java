@@ -0,0 +1,171 @@
+package com.finpay.payment.billpayment.schedule;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Turns due bill schedules into bill payments without stampeding
+ * wallet-service.
+ *
+ * Every {@code claim-interval-ms}, schedules due within the lookahead window
+ * are claimed in SKIP LOCKED chunks - so instances share a backlog - and
+ * parked in a timing wheel until their due second. Due runs then queue per
+ * biller and are released round-robin, at most {@code per-biller-rate} per
+ * biller and {@code global-rate} in total each second. A month-start spike
+ * therefore drains at a fixed rate, and one large biller cannot starve the
+ * others. Claims stop while {@code max-pending} runs are held locally.
+ *
+ * A run can wait here past its lease: at the default rates one biller's
+ * month-start queue takes longer to drain than the lease lasts. Such a run
+ * may be claimed again by any instance, so it is dropped when it reaches the
+ * front of its queue instead of taking a rate slot; the fresh claim runs it.
+ * The claim count each run carries makes any other copy that is no longer
+ * current a no-op.
+ */
+@Component
+@Slf4j
+public class BillScheduleDispatcher {
+
+    private static final long TICK_MILLIS = 1000;
+
+    private final BillScheduleService scheduleService;
+    private final BillScheduleProperties properties;
+    private final TaskExecutor taskExecutor;
+    private final TimingWheel<DueRun> wheel;
+    private final AtomicInteger pending = new AtomicInteger();
+
+    // Released in rotation order; both guarded by this
+    private final Map<String, Deque<DueRun>> ready = new HashMap<>();
+    private final Deque<String> rotation = new ArrayDeque<>();
+
+    public BillScheduleDispatcher(BillScheduleService scheduleService,
+                                  BillScheduleProperties properties,
+                                  @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor) {
+        this.scheduleService = scheduleService;
+        this.properties = properties;
+        this.taskExecutor = taskExecutor;
+        int slots = (int) (properties.getLookahead().toMillis() / TICK_MILLIS) + 1;
+        this.wheel = new TimingWheel<>(TICK_MILLIS, slots, System.currentTimeMillis());
+    }
+
+    @Scheduled(fixedDelayString = "${finpay.payment.bill.schedule.claim-interval-ms:30000}")
+    public void claimDueSchedules() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime horizon = now.plus(properties.getLookahead());
+        int batchSize = properties.getBatchSize();
+        int claimed = 0;
+        while (true) {
+            int room = properties.getMaxPending() - pending.get();
+            if (room <= 0) {
+                log.debug("Bill schedule backlog full, deferring claims");
+                break;
+            }
+            int limit = Math.min(room, batchSize);
+            List<DueRun> runs = scheduleService.claimDue(now, horizon, properties.getLease(), limit);
+            pending.addAndGet(runs.size());
+            runs.forEach(run -> wheel.add(run, toMillis(run.runAt())));
+            claimed += runs.size();
+            if (runs.size() < limit) {
+                break;
+            }
+        }
+
+        if (claimed > 0) {
+            log.info("Claimed {} due bill schedules", claimed);
+        }
+    }
+
+    @Scheduled(fixedRate = TICK_MILLIS)
+    public void releaseDueRuns() {
+        List<DueRun> starts = release(wheel.advance(System.currentTimeMillis()), LocalDateTime.now());
+        starts.forEach(run -> taskExecutor.execute(() -> start(run)));
+    }
+
+    /**
+     * Queues newly due runs and takes the next runs allowed this second,
+     * dropping runs whose lease lapsed while they waited.
+     */
+    synchronized List<DueRun> release(List<DueRun> due, LocalDateTime now) {
+        for (DueRun run : due) {
+            ready.computeIfAbsent(run.billerCode(), biller -> {
+                rotation.addLast(biller);
+                return new ArrayDeque<>();
+            }).addLast(run);
+        }
+
+        List<DueRun> starts = new ArrayList<>();
+        Map<String, Integer> startedPerBiller = new HashMap<>();
+        int atLimit = 0;
+        int lapsed = 0;
+        while (starts.size() < properties.getGlobalRate() && atLimit < rotation.size()) {
+            String biller = rotation.pollFirst();
+            Deque<DueRun> queue = ready.get(biller);
+            int started = startedPerBiller.getOrDefault(biller, 0);
+            if (started < properties.getPerBillerRate()) {
+                while (!queue.isEmpty() && !queue.peekFirst().leasedUntil().isAfter(now)) {
+                    queue.pollFirst();
+                    pending.decrementAndGet();
+                    lapsed++;
+                }
+                if (!queue.isEmpty()) {
+                    starts.add(queue.pollFirst());
+                    startedPerBiller.put(biller, started + 1);
+                    atLimit = 0;
+                }
+            } else {
+                atLimit++;
+            }
+            if (queue.isEmpty()) {
+                ready.remove(biller);
+            } else {
+                rotation.addLast(biller);
+            }
+        }
+        if (lapsed > 0) {
+            log.info("Dropped {} bill schedule runs whose lease lapsed while queued", lapsed);
+        }
+        return starts;
+    }
+
+    int pending() {
+        return pending.get();
+    }
+
+    private void start(DueRun run) {
+        try {
+            scheduleService.run(run);
+        } catch (Exception e) {
+            log.error("Bill schedule {} run due {} failed: {}", run.scheduleId(), run.runAt(), e.getMessage());
+            recordFailure(run);
+        } finally {
+            pending.decrementAndGet();
+        }
+    }
+
+    private void recordFailure(DueRun run) {
+        try {
+            scheduleService.recordFailure(run, LocalDateTime.now(),
+                    properties.getMaxFailures(), properties.getFailureBackoff());
+        } catch (Exception e) {
+            // The lease lapses and the schedule is claimed again
+            log.warn("Failed to record failed run of bill schedule {}: {}", run.scheduleId(), e.getMessage());
+        }
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
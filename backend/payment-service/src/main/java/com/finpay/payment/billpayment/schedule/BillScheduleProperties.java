@@ -0,0 +1,40 @@
+package com.finpay.payment.billpayment.schedule;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "finpay.payment.bill.schedule")
+public class BillScheduleProperties {
+
+    /** How far ahead due schedules are claimed into the in-memory timer wheel. */
+    private Duration lookahead = Duration.ofMinutes(5);
+
+    /** How long other instances leave a claimed schedule alone; must exceed the lookahead. */
+    private Duration lease = Duration.ofMinutes(10);
+
+    /** Maximum number of schedules locked and claimed per transaction. */
+    private int batchSize = 1000;
+
+    /** Upper bound on schedules claimed but not yet run on this instance. */
+    private int maxPending = 20_000;
+
+    /** Bill payments started per second for any one biller. */
+    private int perBillerRate = 20;
+
+    /** Bill payments started per second in total, which bounds wallet-commands traffic. */
+    private int globalRate = 200;
+
+    /** Interval between claim runs. */
+    private long claimIntervalMs = 30_000;
+
+    /** Consecutive failed runs after which a schedule is paused. */
+    private int maxFailures = 5;
+
+    /** Delay before a failed run is retried; doubles with each further failure. */
+    private Duration failureBackoff = Duration.ofMinutes(1);
+}
@@ -0,0 +1,46 @@
+package com.finpay.payment.billpayment.schedule;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface BillScheduleRepository extends JpaRepository<BillSchedule, UUID> {
+
+    Page<BillSchedule> findByUserIdOrderByCreatedAtDesc(UUID userId, Pageable pageable);
+
+    /**
+     * Locks a chunk of active schedules due by {@code horizon} whose lease is
+     * free, earliest first. Rows already locked by another instance are
+     * skipped (SKIP LOCKED).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT s FROM BillSchedule s WHERE s.status = 'ACTIVE' AND s.nextRunAt <= :horizon "
+            + "AND (s.claimedUntil IS NULL OR s.claimedUntil < :now) ORDER BY s.nextRunAt")
+    List<BillSchedule> findDueForUpdate(@Param("horizon") LocalDateTime horizon,
+                                        @Param("now") LocalDateTime now,
+                                        Pageable pageable);
+
+    /** Leases a locked chunk in one statement, bumping each claim count. */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BillSchedule s SET s.claimedUntil = :until, s.claimCount = s.claimCount + 1 WHERE s.id IN :ids")
+    int claimAll(@Param("ids") List<UUID> ids, @Param("until") LocalDateTime until);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM BillSchedule s WHERE s.id = :id")
+    Optional<BillSchedule> findByIdForUpdate(@Param("id") UUID id);
+}
@@ -0,0 +1,184 @@
+package com.finpay.payment.billpayment.schedule;
+
+import com.finpay.payment.billpayment.BillPaymentService;
+import com.finpay.payment.billpayment.biller.BillerCatalog;
+import com.finpay.payment.billpayment.biller.dto.BillerResponse;
+import com.finpay.payment.billpayment.dto.BillPaymentRequest;
+import com.finpay.payment.billpayment.dto.BillPaymentResponse;
+import com.finpay.payment.billpayment.schedule.dto.BillScheduleRequest;
+import com.finpay.payment.billpayment.schedule.dto.BillScheduleResponse;
+import com.finpay.payment.shared.exception.PaymentException;
+import com.finpay.payment.shared.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Scheduled and recurring bill payments.
+ *
+ * Due schedules are claimed in chunks by {@link BillScheduleDispatcher}; a run
+ * locks its schedule, initiates the bill payment and advances
+ * {@code nextRunAt} in one transaction. A run whose due time or claim no
+ * longer matches the schedule - because another instance already ran or
+ * re-claimed it, or the schedule was cancelled - does nothing. A run that
+ * fails is recorded separately, backing the schedule off and eventually
+ * pausing it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class BillScheduleService {
+
+    private final BillScheduleRepository scheduleRepository;
+    private final BillPaymentService billPaymentService;
+    private final BillerCatalog billerCatalog;
+
+    public BillScheduleResponse createSchedule(BillScheduleRequest request) {
+        BillerResponse biller = billerCatalog.requireBiller(request.billerCode(), request.category());
+
+        BillSchedule schedule = BillSchedule.builder()
+                .userId(request.userId())
+                .category(request.category())
+                .billerName(biller.name())
+                .billerCode(biller.code())
+                .accountNumber(request.accountNumber())
+                .accountHolderName(request.accountHolderName())
+                .amount(request.amount())
+                .currency(request.effectiveCurrency())
+                .description(request.description())
+                .frequency(request.frequency())
+                .anchorDay(request.startAt().getDayOfMonth())
+                .nextRunAt(request.startAt())
+                .build();
+
+        BillSchedule saved = scheduleRepository.save(schedule);
+        log.info("Bill schedule created: {} {} for biller {} first run {}",
+                saved.getId(), saved.getFrequency(), saved.getBillerCode(), saved.getNextRunAt());
+        return BillScheduleResponse.fromEntity(saved);
+    }
+
+    @Transactional(readOnly = true)
+    public BillScheduleResponse getSchedule(UUID id) {
+        return BillScheduleResponse.fromEntity(findScheduleOrThrow(id));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<BillScheduleResponse> getSchedulesByUser(UUID userId, Pageable pageable) {
+        return scheduleRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable)
+                .map(BillScheduleResponse::fromEntity);
+    }
+
+    /** Stops future runs; a bill payment already initiated is unaffected. */
+    public BillScheduleResponse cancelSchedule(UUID id) {
+        BillSchedule schedule = scheduleRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Bill schedule not found: " + id));
+        if (schedule.getStatus() != BillSchedule.ScheduleStatus.ACTIVE
+                && schedule.getStatus() != BillSchedule.ScheduleStatus.PAUSED) {
+            throw new PaymentException("Only active or paused bill schedules can be cancelled");
+        }
+        schedule.setStatus(BillSchedule.ScheduleStatus.CANCELLED);
+        log.info("Bill schedule cancelled: {}", id);
+        return BillScheduleResponse.fromEntity(schedule);
+    }
+
+    /** Reactivates a schedule paused because its biller was deactivated. */
+    public BillScheduleResponse resumeSchedule(UUID id) {
+        BillSchedule schedule = scheduleRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Bill schedule not found: " + id));
+        if (schedule.getStatus() != BillSchedule.ScheduleStatus.PAUSED) {
+            throw new PaymentException("Only paused bill schedules can be resumed");
+        }
+        billerCatalog.requireBiller(schedule.getBillerCode(), schedule.getCategory());
+        schedule.resume(LocalDateTime.now());
+        log.info("Bill schedule resumed: {} next run {}", id, schedule.getNextRunAt());
+        return BillScheduleResponse.fromEntity(schedule);
+    }
+
+    // Dispatch
+
+    /**
+     * Locks and leases up to {@code limit} active schedules due by
+     * {@code horizon}. Rows locked by another instance are skipped.
+     */
+    public List<DueRun> claimDue(LocalDateTime now, LocalDateTime horizon, Duration lease, int limit) {
+        List<BillSchedule> due = scheduleRepository.findDueForUpdate(horizon, now, PageRequest.of(0, limit));
+        if (due.isEmpty()) {
+            return List.of();
+        }
+        LocalDateTime leasedUntil = now.plus(lease);
+        List<DueRun> runs = due.stream()
+                .map(s -> new DueRun(s.getId(), s.getBillerCode(), s.getNextRunAt(), s.getClaimCount() + 1,
+                        leasedUntil))
+                .toList();
+        scheduleRepository.claimAll(runs.stream().map(DueRun::scheduleId).toList(), leasedUntil);
+        return runs;
+    }
+
+    /** Initiates the bill payment for a claimed run; returns false when the run is stale. */
+    public boolean run(DueRun run) {
+        BillSchedule schedule = scheduleRepository.findByIdForUpdate(run.scheduleId()).orElse(null);
+        if (isStale(schedule, run)) {
+            log.debug("Skipping stale run of bill schedule {} due {}", run.scheduleId(), run.runAt());
+            return false;
+        }
+        if (billerCatalog.findBiller(schedule.getBillerCode()).isEmpty()) {
+            // Initiating would fail on every lease until the biller returns
+            schedule.setStatus(BillSchedule.ScheduleStatus.PAUSED);
+            schedule.setClaimedUntil(null);
+            log.warn("Paused bill schedule {}: biller {} is no longer active",
+                    schedule.getId(), schedule.getBillerCode());
+            return false;
+        }
+
+        BillPaymentResponse bill = billPaymentService.initiateBillPayment(new BillPaymentRequest(
+                schedule.getUserId(), schedule.getCategory(), schedule.getBillerName(), schedule.getBillerCode(),
+                schedule.getAccountNumber(), schedule.getAccountHolderName(), schedule.getAmount(),
+                schedule.getCurrency(), schedule.getDescription()));
+        schedule.recordRun(bill.id(), LocalDateTime.now());
+
+        log.info("Bill schedule {} initiated bill payment {}; next run {}",
+                schedule.getId(), bill.id(), schedule.getStatus() == BillSchedule.ScheduleStatus.ACTIVE
+                        ? schedule.getNextRunAt() : "none");
+        return true;
+    }
+
+    /**
+     * Records that {@code run} threw before the bill payment was initiated, so
+     * the schedule is not claimed again straight away, and pauses it after
+     * {@code maxFailures} consecutive failures.
+     */
+    public void recordFailure(DueRun run, LocalDateTime now, int maxFailures, Duration backoff) {
+        BillSchedule schedule = scheduleRepository.findByIdForUpdate(run.scheduleId()).orElse(null);
+        if (isStale(schedule, run)) {
+            return;
+        }
+        if (schedule.recordFailure(now, maxFailures, backoff)) {
+            log.warn("Paused bill schedule {} after {} consecutive failed runs",
+                    schedule.getId(), schedule.getFailureCount());
+        } else {
+            log.info("Bill schedule {} run failed ({} in a row); retrying after {}",
+                    schedule.getId(), schedule.getFailureCount(), schedule.getClaimedUntil());
+        }
+    }
+
+    private static boolean isStale(BillSchedule schedule, DueRun run) {
+        return schedule == null || schedule.getStatus() != BillSchedule.ScheduleStatus.ACTIVE
+                || !run.runAt().equals(schedule.getNextRunAt())
+                || schedule.getClaimCount() != run.claim();
+    }
+
+    private BillSchedule findScheduleOrThrow(UUID id) {
+        return scheduleRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Bill schedule not found: " + id));
+    }
+}
@@ -0,0 +1,13 @@
+package com.finpay.payment.billpayment.schedule;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One claimed occurrence of a schedule, due at {@code runAt}. {@code claim}
+ * is the schedule's claim count after this claim, and {@code leasedUntil}
+ * when other instances may claim it again.
+ */
+public record DueRun(UUID scheduleId, String billerCode, LocalDateTime runAt, long claim,
+                     LocalDateTime leasedUntil) {
+}
@@ -0,0 +1,67 @@
+package com.finpay.payment.billpayment.schedule;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Hashed timing wheel: {@code slots} buckets of one tick each. Adding and
+ * expiring an entry are O(1) amortised regardless of how many are waiting;
+ * an entry more than one revolution away stays in its bucket until its tick
+ * comes round. Entries already due land in the current tick.
+ */
+class TimingWheel<T> {
+
+    private final long tickMillis;
+    private final List<List<Entry<T>>> wheel;
+    private long currentTick;
+    private int size;
+
+    TimingWheel(long tickMillis, int slots, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.wheel = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) {
+            wheel.add(new ArrayList<>());
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    synchronized void add(T item, long dueMillis) {
+        // Rounded up, so an entry is never released before it is due
+        long tick = Math.max(currentTick, Math.floorDiv(dueMillis + tickMillis - 1, tickMillis));
+        wheel.get(slot(tick)).add(new Entry<>(item, tick));
+        size++;
+    }
+
+    /** Removes and returns every entry due at or before {@code nowMillis}. */
+    synchronized List<T> advance(long nowMillis) {
+        List<T> due = new ArrayList<>();
+        long target = nowMillis / tickMillis;
+        // A long pause only needs one pass over the wheel
+        long from = Math.max(currentTick, target - wheel.size() + 1);
+        for (long tick = from; tick <= target; tick++) {
+            Iterator<Entry<T>> entries = wheel.get(slot(tick)).iterator();
+            while (entries.hasNext()) {
+                Entry<T> entry = entries.next();
+                if (entry.tick() <= target) {
+                    due.add(entry.item());
+                    entries.remove();
+                }
+            }
+        }
+        currentTick = Math.max(currentTick, target + 1);
+        size -= due.size();
+        return due;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    private int slot(long tick) {
+        return (int) Math.floorMod(tick, (long) wheel.size());
+    }
+
+    private record Entry<T>(T item, long tick) {
+    }
+}
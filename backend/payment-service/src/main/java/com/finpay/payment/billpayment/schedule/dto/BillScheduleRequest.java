@@ -0,0 +1,54 @@
+package com.finpay.payment.billpayment.schedule.dto;
+
+import com.finpay.payment.billpayment.BillPayment;
+import com.finpay.payment.billpayment.dto.BillPaymentRequest;
+import com.finpay.payment.billpayment.schedule.BillSchedule;
+import jakarta.validation.constraints.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record BillScheduleRequest(
+
+        @NotNull(message = "User ID is required")
+        UUID userId,
+
+        @NotNull(message = "Bill category is required")
+        BillPayment.BillCategory category,
+
+        @NotBlank(message = "Biller name is required")
+        String billerName,
+
+        @NotBlank(message = "Biller code is required")
+        String billerCode,
+
+        @NotBlank(message = "Account number is required")
+        String accountNumber,
+
+        String accountHolderName,
+
+        @NotNull(message = "Amount is required")
+        @DecimalMin(value = "0.01", message = "Amount must be greater than 0")
+        @Digits(integer = 15, fraction = 4, message = "Invalid amount format")
+        BigDecimal amount,
+
+        @Size(min = 3, max = 3, message = "Currency must be a 3-letter ISO code")
+        String currency,
+
+        String description,
+
+        @NotNull(message = "Frequency is required")
+        BillSchedule.Frequency frequency,
+
+        @NotNull(message = "First run time is required")
+        @Future(message = "First run time must be in the future")
+        LocalDateTime startAt
+) {
+    /**
+     * Same normalisation as {@link BillPaymentRequest#effectiveCurrency()}.
+     */
+    public String effectiveCurrency() {
+        return currency != null && !currency.isBlank() ? currency.toUpperCase() : "USD";
+    }
+}
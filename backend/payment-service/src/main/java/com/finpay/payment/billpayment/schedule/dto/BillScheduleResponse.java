@@ -0,0 +1,53 @@
+package com.finpay.payment.billpayment.schedule.dto;
+
+import com.finpay.payment.billpayment.BillPayment;
+import com.finpay.payment.billpayment.schedule.BillSchedule;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record BillScheduleResponse(
+        UUID id,
+        UUID userId,
+        BillPayment.BillCategory category,
+        String billerName,
+        String billerCode,
+        String accountNumber,
+        String accountHolderName,
+        BigDecimal amount,
+        String currency,
+        String description,
+        BillSchedule.Frequency frequency,
+        BillSchedule.ScheduleStatus status,
+        LocalDateTime nextRunAt,
+        int runCount,
+        LocalDateTime lastRunAt,
+        UUID lastBillPaymentId,
+        int failureCount,
+        LocalDateTime createdAt
+) {
+
+    public static BillScheduleResponse fromEntity(BillSchedule s) {
+        return new BillScheduleResponse(
+                s.getId(),
+                s.getUserId(),
+                s.getCategory(),
+                s.getBillerName(),
+                s.getBillerCode(),
+                s.getAccountNumber(),
+                s.getAccountHolderName(),
+                s.getAmount(),
+                s.getCurrency(),
+                s.getDescription(),
+                s.getFrequency(),
+                s.getStatus(),
+                s.getNextRunAt(),
+                s.getRunCount(),
+                s.getLastRunAt(),
+                s.getLastBillPaymentId(),
+                s.getFailureCount(),
+                s.getCreatedAt()
+        );
+    }
+}
@@ -0,0 +1,48 @@
+package com.finpay.payment.detail;
+
+import com.finpay.payment.detail.TransactionDetailService.TaggedDetail;
+import com.finpay.payment.detail.dto.TransactionDetailResponse;
+import com.finpay.payment.detail.dto.TransactionDetailResponse.TransactionType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Answers detail requests conditionally: a matching {@code If-None-Match}
+ * gets 304 before the detail is loaded, anything else the view with its
+ * strong ETag.
+ */
+@Component
+@RequiredArgsConstructor
+public class DetailResponder {
+
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private final TransactionDetailService detailService;
+
+    public ResponseEntity<TransactionDetailResponse> respond(UUID transactionId, TransactionType type,
+                                                             WebRequest request) {
+        return respond(transactionId, type, request, () -> detailService.getDetail(transactionId, type));
+    }
+
+    public ResponseEntity<TransactionDetailResponse> respond(UUID transactionId, TransactionType type,
+                                                             WebRequest request, Supplier<TaggedDetail> load) {
+        Optional<String> current = detailService.findETag(transactionId, type);
+        if (current.isPresent() && request.checkNotModified(current.get())) {
+            // 304 and the ETag header are already written
+            return null;
+        }
+        TaggedDetail tagged = load.get();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(REVALIDATE);
+        if (tagged.etag() != null) {
+            response.eTag(tagged.etag());
+        }
+        return response.body(tagged.detail());
+    }
+}
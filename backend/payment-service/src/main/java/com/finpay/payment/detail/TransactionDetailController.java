@@ -1,9 +1,11 @@
 package com.finpay.payment.detail;
 
 import com.finpay.payment.detail.dto.TransactionDetailResponse;
+import com.finpay.payment.detail.dto.TransactionDetailResponse.TransactionType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.UUID;
 
@@ -11,6 +13,9 @@ import java.util.UUID;
  * REST controller for unified transaction detail views.
  * Provides a single consistent endpoint pattern for fetching
  * detailed transaction data including status timelines and available actions.
+ *
+ * Responses carry a strong ETag; a matching {@code If-None-Match} is answered
+ * with 304 before the detail is loaded.
  */
 @RestController
 @RequestMapping("/api/v1/transactions")
@@ -18,14 +23,16 @@ import java.util.UUID;
 public class TransactionDetailController {
 
     private final TransactionDetailService detailService;
+    private final DetailResponder responder;
 
     /**
      * Get detailed view of a money transfer including status timeline.
      */
     @GetMapping("/transfers/{transferId}")
     public ResponseEntity<TransactionDetailResponse> getTransferDetail(
-            @PathVariable UUID transferId) {
-        return ResponseEntity.ok(detailService.getTransferDetail(transferId));
+            @PathVariable UUID transferId, WebRequest request) {
+        return responder.respond(transferId, TransactionType.TRANSFER, request,
+                () -> detailService.getTransferDetail(transferId));
     }
 
     /**
@@ -33,8 +40,9 @@ public class TransactionDetailController {
      */
     @GetMapping("/bills/{billPaymentId}")
     public ResponseEntity<TransactionDetailResponse> getBillPaymentDetail(
-            @PathVariable UUID billPaymentId) {
-        return ResponseEntity.ok(detailService.getBillPaymentDetail(billPaymentId));
+            @PathVariable UUID billPaymentId, WebRequest request) {
+        return responder.respond(billPaymentId, TransactionType.BILL_PAYMENT, request,
+                () -> detailService.getBillPaymentDetail(billPaymentId));
     }
 
     /**
@@ -42,7 +50,8 @@ public class TransactionDetailController {
      */
     @GetMapping("/requests/{requestId}")
     public ResponseEntity<TransactionDetailResponse> getMoneyRequestDetail(
-            @PathVariable UUID requestId) {
-        return ResponseEntity.ok(detailService.getMoneyRequestDetail(requestId));
+            @PathVariable UUID requestId, WebRequest request) {
+        return responder.respond(requestId, TransactionType.MONEY_REQUEST, request,
+                () -> detailService.getMoneyRequestDetail(requestId));
     }
 }
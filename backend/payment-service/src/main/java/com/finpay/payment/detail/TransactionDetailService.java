@@ -5,6 +5,8 @@ import com.finpay.payment.detail.dto.TransactionDetailResponse;
 import com.finpay.payment.detail.dto.TransactionDetailResponse.TransactionType;
 import com.finpay.payment.billpayment.BillPayment;
 import com.finpay.payment.billpayment.BillPaymentService;
+import com.finpay.payment.history.HistoryDocument;
+import com.finpay.payment.history.TransactionHistoryReader;
 import com.finpay.payment.request.MoneyRequest;
 import com.finpay.payment.request.MoneyRequestService;
 import com.finpay.payment.transfer.MoneyTransfer;
@@ -20,6 +22,13 @@ import java.util.*;
  * Service to build unified transaction detail views across all payment types.
  * Constructs receipt data, status timelines, and available actions for the
  * transaction detail sheet.
+ *
+ * Views come from the transaction-history read model, whose timelines carry
+ * the real time of every step. Until a transaction's first event has been
+ * projected, the view is assembled from the saga tables instead.
+ *
+ * Projected views carry a strong ETag of the view version, so a client
+ * polling an in-flight transaction can be answered from that one column.
  */
 @Service
 @RequiredArgsConstructor
@@ -29,20 +38,59 @@ public class TransactionDetailService {
     private final MoneyTransferService moneyTransferService;
     private final BillPaymentService billPaymentService;
     private final MoneyRequestService moneyRequestService;
+    private final TransactionHistoryReader historyReader;
+
+    /**
+     * Strong ETag of the current projected view, read without loading the
+     * document. Empty while the transaction is served from the saga tables.
+     */
+    public Optional<String> findETag(UUID transactionId, TransactionType type) {
+        return historyReader.findVersion(transactionId, type).map(TransactionDetailService::etagOf);
+    }
+
+    public TaggedDetail getTransferDetail(UUID transferId) {
+        return historyReader.findDetail(transferId, TransactionType.TRANSFER)
+                .map(TaggedDetail::of)
+                .orElseGet(() -> TaggedDetail.untagged(
+                        buildTransferDetail(moneyTransferService.getTransferEntity(transferId))));
+    }
 
-    public TransactionDetailResponse getTransferDetail(UUID transferId) {
-        MoneyTransfer t = moneyTransferService.getTransferEntity(transferId);
-        return buildTransferDetail(t);
+    public TaggedDetail getBillPaymentDetail(UUID billPaymentId) {
+        return historyReader.findDetail(billPaymentId, TransactionType.BILL_PAYMENT)
+                .map(TaggedDetail::of)
+                .orElseGet(() -> TaggedDetail.untagged(
+                        buildBillPaymentDetail(billPaymentService.getBillPaymentEntity(billPaymentId))));
     }
 
-    public TransactionDetailResponse getBillPaymentDetail(UUID billPaymentId) {
-        BillPayment bp = billPaymentService.getBillPaymentEntity(billPaymentId);
-        return buildBillPaymentDetail(bp);
+    public TaggedDetail getMoneyRequestDetail(UUID requestId) {
+        return historyReader.findDetail(requestId, TransactionType.MONEY_REQUEST)
+                .map(TaggedDetail::of)
+                .orElseGet(() -> TaggedDetail.untagged(
+                        buildMoneyRequestDetail(moneyRequestService.getMoneyRequestEntity(requestId))));
     }
 
-    public TransactionDetailResponse getMoneyRequestDetail(UUID requestId) {
-        MoneyRequest mr = moneyRequestService.getMoneyRequestEntity(requestId);
-        return buildMoneyRequestDetail(mr);
+    public TaggedDetail getDetail(UUID transactionId, TransactionType type) {
+        return switch (type) {
+            case TRANSFER -> getTransferDetail(transactionId);
+            case BILL_PAYMENT -> getBillPaymentDetail(transactionId);
+            case MONEY_REQUEST -> getMoneyRequestDetail(transactionId);
+        };
+    }
+
+    private static String etagOf(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /** A detail view with the ETag of the version it was read at; {@code etag} is null for saga-table fallbacks. */
+    public record TaggedDetail(TransactionDetailResponse detail, String etag) {
+
+        static TaggedDetail of(HistoryDocument document) {
+            return new TaggedDetail(document.detail(), etagOf(document.version()));
+        }
+
+        static TaggedDetail untagged(TransactionDetailResponse detail) {
+            return new TaggedDetail(detail, null);
+        }
     }
 
     // -- Transfer detail builder --
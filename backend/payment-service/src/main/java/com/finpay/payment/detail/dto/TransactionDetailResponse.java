@@ -1,5 +1,7 @@
 package com.finpay.payment.detail.dto;
 
+import lombok.Builder;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -12,6 +14,7 @@ import java.util.UUID;
  * for the frontend detail sheet including receipt data, status timeline,
  * and available actions (dispute, cancel, etc.).
  */
+@Builder(toBuilder = true)
 public record TransactionDetailResponse(
         UUID id,
         String transactionReference,
@@ -0,0 +1,10 @@
+package com.finpay.payment.history;
+
+import com.finpay.payment.detail.dto.TransactionDetailResponse;
+
+/**
+ * A projected detail document together with the view version it was read at.
+ * The version moves on every saga transition that changes the document.
+ */
+public record HistoryDocument(TransactionDetailResponse detail, long version) {
+}
@@ -0,0 +1,169 @@
+package com.finpay.payment.history;
+
+import com.finpay.payment.detail.dto.StatusTimelineEntry;
+import com.finpay.payment.detail.dto.TransactionDetailResponse.TransactionType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Timeline layout of each transaction type, rendered from the recorded
+ * {@link TransactionHistoryEntry} rows so every step carries the time it
+ * actually happened.
+ *
+ * Forward steps are shown in order: reached steps as completed, a failure in
+ * place of the first step that was not reached, and - while the transaction
+ * is in progress - the next step as current and the rest as pending.
+ */
+public enum HistoryTimeline {
+
+    TRANSFER(TransactionType.TRANSFER,
+            List.of(
+                    new Step("CREATED", "Transfer Initiated", "Transfer initiated",
+                            "Initiate Transfer", "Transfer to be initiated", "Transfer Initiation"),
+                    new Step("FUNDS_RESERVED", "Funds Reserved", "Funds held from sender wallet",
+                            "Reserving Funds", "Holding funds from sender wallet", "Funds Reservation"),
+                    new Step("FUNDS_DEDUCTED", "Funds Deducted", "Funds deducted from sender wallet",
+                            "Deducting Funds", "Deducting funds from sender", "Funds Deduction"),
+                    new Step("FUNDS_CREDITED", "Funds Credited", "Funds received in recipient wallet",
+                            "Crediting Funds", "Sending to recipient wallet", "Funds Credit"),
+                    new Step("COMPLETED", "Transfer Complete", "Transfer completed successfully",
+                            "Complete", "Transfer will be completed", "Completion")),
+            new Step("COMPENSATED", "Rolled Back", "Transaction fully reversed",
+                    "Rolling Back", "Reversing transaction due to failure", "Rollback"),
+            Set.of("PENDING", "PROCESSING")),
+
+    BILL_PAYMENT(TransactionType.BILL_PAYMENT,
+            List.of(
+                    new Step("CREATED", "Payment Initiated", "Bill payment initiated",
+                            "Initiate Payment", "Bill payment to be initiated", "Payment Initiation"),
+                    new Step("FUNDS_RESERVED", "Funds Reserved", "Payment amount held in wallet",
+                            "Reserving Funds", "Holding payment amount", "Funds Reservation"),
+                    new Step("FUNDS_DEDUCTED", "Funds Deducted", "Payment amount deducted from wallet",
+                            "Processing Payment", "Deducting from wallet", "Funds Deduction"),
+                    new Step("BILLER_CONFIRMED", "Biller Confirmed", "Payment confirmed by biller",
+                            "Awaiting Confirmation", "Waiting for biller response", "Biller Confirmation"),
+                    new Step("COMPLETED", "Payment Complete", "Bill payment completed successfully",
+                            "Complete", "Payment will be completed", "Completion")),
+            new Step("COMPENSATED", "Refunded", "Payment fully reversed",
+                    "Refunding", "Payment is being reversed", "Refund"),
+            Set.of("PENDING", "PROCESSING")),
+
+    MONEY_REQUEST(TransactionType.MONEY_REQUEST,
+            List.of(
+                    new Step("CREATED", "Request Created", "Money request sent",
+                            "Create Request", "Request to be sent", "Request Creation"),
+                    new Step("APPROVED", "Request Approved", "Payer approved the request",
+                            "Awaiting Approval", "Waiting for payer to approve or decline", "Approval"),
+                    new Step("PROCESSING", "Payment Processed", "Transfer completed",
+                            "Processing Payment", "Transfer is being processed", "Payment Failed"),
+                    new Step("COMPLETED", "Request Fulfilled", "Money received successfully",
+                            "Complete", "Request will be fulfilled", "Completion")),
+            null,
+            Set.of("PENDING_APPROVAL", "APPROVED", "PROCESSING"));
+
+    /** Status code the compensation step is shown with while it runs. */
+    static final String COMPENSATING = "COMPENSATING";
+
+    private final TransactionType type;
+    private final List<Step> steps;
+    private final Step compensation;
+    private final Set<String> inProgressStatuses;
+
+    HistoryTimeline(TransactionType type, List<Step> steps, Step compensation, Set<String> inProgressStatuses) {
+        this.type = type;
+        this.steps = steps;
+        this.compensation = compensation;
+        this.inProgressStatuses = inProgressStatuses;
+    }
+
+    public static HistoryTimeline of(TransactionType type) {
+        for (HistoryTimeline timeline : values()) {
+            if (timeline.type == type) {
+                return timeline;
+            }
+        }
+        throw new IllegalArgumentException("No timeline for " + type);
+    }
+
+    public List<StatusTimelineEntry> render(List<TransactionHistoryEntry> entries, String status) {
+        Map<String, TransactionHistoryEntry> reached = new HashMap<>();
+        TransactionHistoryEntry failure = null;
+        for (TransactionHistoryEntry entry : entries) {
+            if (entry.getOutcome() == TransactionHistoryEntry.Outcome.REACHED) {
+                reached.putIfAbsent(entry.getStep(), entry);
+            } else if (failure == null) {
+                failure = entry;
+            }
+        }
+
+        List<StatusTimelineEntry> timeline = new ArrayList<>();
+        boolean inProgress = inProgressStatuses.contains(status);
+        boolean open = false;
+        for (Step step : steps) {
+            TransactionHistoryEntry entry = reached.get(step.status());
+            if (entry != null) {
+                timeline.add(StatusTimelineEntry.completed(step.status(), step.doneLabel(),
+                        entry.getNote() != null ? entry.getNote() : step.doneDescription(), entry.getOccurredAt()));
+            } else if (failure != null) {
+                timeline.add(failed(step, failure));
+                break;
+            } else if (inProgress && !open) {
+                timeline.add(StatusTimelineEntry.current(step.status(), step.activeLabel(),
+                        step.activeDescription(), null));
+                open = true;
+            } else {
+                timeline.add(StatusTimelineEntry.pending(step.status(), step.activeLabel(),
+                        step.activeDescription()));
+            }
+        }
+
+        if (compensation != null) {
+            TransactionHistoryEntry done = reached.get(compensation.status());
+            TransactionHistoryEntry started = reached.get(COMPENSATING);
+            if (done != null) {
+                timeline.add(StatusTimelineEntry.completed(compensation.status(), compensation.doneLabel(),
+                        compensation.doneDescription(), done.getOccurredAt()));
+            } else if (started != null) {
+                timeline.add(StatusTimelineEntry.current(COMPENSATING, compensation.activeLabel(),
+                        compensation.activeDescription(), started.getOccurredAt()));
+            }
+        }
+        return timeline;
+    }
+
+    public List<String> actions(String status) {
+        return switch (this) {
+            case TRANSFER, BILL_PAYMENT -> switch (status) {
+                case "PENDING" -> List.of("CANCEL");
+                case "COMPLETED" -> List.of("DISPUTE");
+                case "FAILED", "COMPENSATED" -> List.of("RETRY");
+                default -> List.of();
+            };
+            case MONEY_REQUEST -> switch (status) {
+                case "PENDING_APPROVAL" -> List.of("CANCEL", "APPROVE", "DECLINE");
+                case "COMPLETED" -> List.of("DISPUTE");
+                case "FAILED" -> List.of("RETRY");
+                default -> List.of();
+            };
+        };
+    }
+
+    /** A failure recorded with its own label (e.g. a declined request) keeps its own status code. */
+    private static StatusTimelineEntry failed(Step step, TransactionHistoryEntry failure) {
+        if (failure.getLabel() != null) {
+            return StatusTimelineEntry.failed(failure.getStep(), failure.getLabel(),
+                    failure.getNote(), failure.getOccurredAt());
+        }
+        return StatusTimelineEntry.failed(step.status(), step.failedLabel(),
+                failure.getNote() != null ? failure.getNote() : step.failedLabel() + " failed",
+                failure.getOccurredAt());
+    }
+
+    record Step(String status, String doneLabel, String doneDescription,
+                String activeLabel, String activeDescription, String failedLabel) {
+    }
+}
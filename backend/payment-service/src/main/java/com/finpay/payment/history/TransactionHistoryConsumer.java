@@ -0,0 +1,85 @@
+package com.finpay.payment.history;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finpay.payment.billpayment.event.BillPaymentEvent;
+import com.finpay.payment.request.event.MoneyRequestEvent;
+import com.finpay.payment.transfer.event.TransferSagaEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.BackOff;
+import org.springframework.kafka.annotation.DltHandler;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.retrytopic.DltStrategy;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds the transaction-history projection from the events payment-service
+ * itself publishes through the outbox. Runs in its own consumer group, so
+ * notification-service and other readers of these topics are unaffected.
+ * Retry and DLT topics carry their own suffixes for the same reason: the
+ * default names are already used by notification-service's listeners.
+ *
+ * Messages are keyed by transaction ID, so one transaction's events arrive
+ * in order on one partition.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionHistoryConsumer {
+
+    static final String GROUP_ID = "payment-service-history-projection";
+
+    private final TransactionHistoryProjector projector;
+    private final ObjectMapper kafkaObjectMapper;
+
+    @RetryableTopic(
+            attempts = "4",
+            backOff = @BackOff(delay = 1000, multiplier = 2, maxDelay = 10000),
+            dltStrategy = DltStrategy.FAIL_ON_ERROR,
+            include = {Exception.class},
+            retryTopicSuffix = "-history-retry",
+            dltTopicSuffix = "-history-dlt"
+    )
+    @KafkaListener(topics = "transfer-saga", groupId = GROUP_ID)
+    public void onTransferSagaEvent(String message) throws Exception {
+        projector.project(kafkaObjectMapper.readValue(message, TransferSagaEvent.class));
+    }
+
+    @RetryableTopic(
+            attempts = "4",
+            backOff = @BackOff(delay = 1000, multiplier = 2, maxDelay = 10000),
+            dltStrategy = DltStrategy.FAIL_ON_ERROR,
+            include = {Exception.class},
+            retryTopicSuffix = "-history-retry",
+            dltTopicSuffix = "-history-dlt"
+    )
+    @KafkaListener(topics = "bill-payment-events", groupId = GROUP_ID)
+    public void onBillPaymentEvent(String message) throws Exception {
+        projector.project(kafkaObjectMapper.readValue(message, BillPaymentEvent.class));
+    }
+
+    @RetryableTopic(
+            attempts = "4",
+            backOff = @BackOff(delay = 1000, multiplier = 2, maxDelay = 10000),
+            dltStrategy = DltStrategy.FAIL_ON_ERROR,
+            include = {Exception.class},
+            retryTopicSuffix = "-history-retry",
+            dltTopicSuffix = "-history-dlt"
+    )
+    @KafkaListener(topics = "money-request-events", groupId = GROUP_ID)
+    public void onMoneyRequestEvent(String message) throws Exception {
+        projector.project(kafkaObjectMapper.readValue(message, MoneyRequestEvent.class));
+    }
+
+    @DltHandler
+    public void handleDlt(ConsumerRecord<String, String> record,
+                          @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+                          @Header(value = KafkaHeaders.EXCEPTION_MESSAGE, required = false) String errorMessage) {
+        log.error("DLT: Failed to project transaction history after all retries. Topic: {}, Key: {}, Value: {}, Error: {}",
+                topic, record.key(), record.value(), errorMessage);
+    }
+}
@@ -0,0 +1,56 @@
+package com.finpay.payment.history;
+
+import com.finpay.id.hibernate.TimeOrderedId;
+import com.finpay.payment.detail.dto.TransactionDetailResponse.TransactionType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One step a transaction reached or failed at, with the time the owning
+ * service recorded it. Rows are only ever inserted; a step is recorded at
+ * most once per outcome, which also makes replayed events harmless.
+ */
+@Entity
+@Table(name = "transaction_history_entries", indexes = {
+        @Index(name = "idx_history_entry_transaction", columnList = "transactionId, occurredAt")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_history_entry_step", columnNames = {"transactionId", "step", "outcome"})
+})
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class TransactionHistoryEntry {
+
+    @Id
+    @TimeOrderedId
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID transactionId;
+
+    @Column(nullable = false, columnDefinition = "VARCHAR(20)") @Enumerated(EnumType.STRING)
+    private TransactionType transactionType;
+
+    /** Timeline status code, e.g. {@code FUNDS_RESERVED}. */
+    @Column(nullable = false, length = 30)
+    private String step;
+
+    @Column(nullable = false, columnDefinition = "VARCHAR(20)") @Enumerated(EnumType.STRING)
+    private Outcome outcome;
+
+    /** Label overriding the timeline default, e.g. "Request Declined". */
+    private String label;
+
+    /** Failure reason or other detail shown under the step. */
+    private String note;
+
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+
+    @CreationTimestamp @Column(nullable = false, updatable = false)
+    private LocalDateTime recordedAt;
+
+    public enum Outcome { REACHED, FAILED }
+}
@@ -0,0 +1,14 @@
+package com.finpay.payment.history;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface TransactionHistoryEntryRepository extends JpaRepository<TransactionHistoryEntry, UUID> {
+
+    List<TransactionHistoryEntry> findByTransactionIdOrderByOccurredAtAsc(UUID transactionId);
+
+    boolean existsByTransactionIdAndStepAndOutcome(UUID transactionId, String step,
+                                                   TransactionHistoryEntry.Outcome outcome);
+}
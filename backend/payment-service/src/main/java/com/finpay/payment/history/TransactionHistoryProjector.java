@@ -0,0 +1,337 @@
+package com.finpay.payment.history;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finpay.payment.billpayment.BillPayment;
+import com.finpay.payment.billpayment.event.BillPaymentEvent;
+import com.finpay.payment.detail.dto.TransactionDetailResponse;
+import com.finpay.payment.detail.dto.TransactionDetailResponse.TransactionType;
+import com.finpay.payment.history.TransactionHistoryEntry.Outcome;
+import com.finpay.payment.request.event.MoneyRequestEvent;
+import com.finpay.payment.transfer.MoneyTransfer;
+import com.finpay.payment.transfer.event.TransferSagaEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Projects transfer, bill-payment and money-request events into the
+ * transaction-history read model: append-only step entries plus one
+ * precomputed detail document per transaction.
+ *
+ * Replays are harmless - a step is recorded once per outcome, and only the
+ * newest event moves the document's status - so no consumer-side
+ * de-duplication is needed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class TransactionHistoryProjector {
+
+    private final TransactionHistoryEntryRepository entryRepository;
+    private final TransactionHistoryViewRepository viewRepository;
+    private final ObjectMapper kafkaObjectMapper;
+
+    // Transfers
+
+    public void project(TransferSagaEvent event) {
+        LocalDateTime at = event.timestamp();
+        List<TransactionHistoryEntry> entries = new ArrayList<>();
+        switch (event.action()) {
+            case EXECUTE -> {
+                if (event.sagaStep() == TransferSagaEvent.SagaStep.INITIATE) {
+                    entries.add(reached("CREATED", "Transfer of " + event.amount() + " " + event.currency()
+                            + " initiated", at));
+                }
+            }
+            case CONFIRM -> {
+                switch (event.sagaStep()) {
+                    case RESERVE_FUNDS -> entries.add(reached("FUNDS_RESERVED", null, at));
+                    case DEDUCT_FUNDS -> entries.add(reached("FUNDS_DEDUCTED", null, at));
+                    case CREDIT_FUNDS -> entries.add(reached("FUNDS_CREDITED", null, at));
+                    case COMPLETE -> entries.add(reached("COMPLETED", null, at));
+                    case COMPENSATE -> entries.add(reached("COMPENSATED", null, at));
+                    default -> {
+                    }
+                }
+            }
+            case FAIL -> entries.add(failed(event.sagaStep().name(), null, event.failureReason(), at));
+            case COMPENSATE -> entries.add(reached(HistoryTimeline.COMPENSATING, null, at));
+        }
+
+        boolean requestPayment = event.transferType() == MoneyTransfer.TransferType.REQUEST_PAYMENT;
+        project(event.transferId(), TransactionType.TRANSFER, at, entries,
+                () -> {
+                    Map<String, Object> metadata = new LinkedHashMap<>();
+                    if (event.transferType() != null) {
+                        metadata.put("transferType", event.transferType().name());
+                    }
+                    return TransactionDetailResponse.builder()
+                            .id(event.transferId())
+                            .transactionReference(event.transactionReference())
+                            .type(TransactionType.TRANSFER)
+                            .senderUserId(event.senderUserId())
+                            .recipientUserId(event.recipientUserId())
+                            .amount(event.amount())
+                            .currency(event.currency())
+                            .processingFee(BigDecimal.ZERO)
+                            .totalAmount(event.amount())
+                            .status(MoneyTransfer.TransferStatus.PROCESSING.name())
+                            .title(requestPayment ? "Request Payment" : "Money Transfer")
+                            .subtitle(event.transactionReference())
+                            .description(event.description())
+                            .metadata(metadata)
+                            .createdAt(at)
+                            .build();
+                },
+                doc -> {
+                    if (event.status() != null) {
+                        doc.status(event.status().name());
+                    }
+                    if (event.failureReason() != null) {
+                        doc.failureReason(event.failureReason());
+                    }
+                    if (event.sagaStep() == TransferSagaEvent.SagaStep.COMPLETE) {
+                        doc.completedAt(at);
+                    }
+                    return doc;
+                });
+    }
+
+    // Bill payments
+
+    public void project(BillPaymentEvent event) {
+        LocalDateTime at = event.timestamp();
+        List<TransactionHistoryEntry> entries = new ArrayList<>();
+        switch (event.eventType()) {
+            case BILL_PAYMENT_INITIATED -> entries.add(reached("CREATED", "Bill payment of " + event.amount()
+                    + " " + event.currency() + " to " + event.billerName(), at));
+            case BILL_PAYMENT_PROCESSING -> entries.add(reached("FUNDS_RESERVED", null, at));
+            case BILL_PAYMENT_COMPLETED -> {
+                entries.add(reached("FUNDS_DEDUCTED", null, at));
+                entries.add(reached("BILLER_CONFIRMED", "Payment confirmed by " + event.billerName()
+                        + (event.billerReference() != null ? " (Ref: " + event.billerReference() + ")" : ""), at));
+                entries.add(reached("COMPLETED", null, at));
+            }
+            case BILL_PAYMENT_FAILED -> {
+                entries.add(failed("FAILED", null, event.failureReason(), at));
+                if (event.status() == BillPayment.BillPaymentStatus.COMPENSATING) {
+                    entries.add(reached(HistoryTimeline.COMPENSATING, null, at));
+                }
+            }
+            case BILL_PAYMENT_CANCELLED -> entries.add(failed("CANCELLED", "Payment Cancelled",
+                    "This bill payment was cancelled", at));
+            case BILL_PAYMENT_REFUNDED -> entries.add(reached("COMPENSATED", null, at));
+        }
+
+        project(event.billPaymentId(), TransactionType.BILL_PAYMENT, at, entries,
+                () -> {
+                    Map<String, Object> metadata = new LinkedHashMap<>();
+                    metadata.put("category", event.category() != null ? event.category().name() : null);
+                    metadata.put("billerName", event.billerName());
+                    metadata.put("billerCode", event.billerCode());
+                    metadata.put("accountNumber", event.accountNumber());
+                    if (event.accountHolderName() != null) {
+                        metadata.put("accountHolderName", event.accountHolderName());
+                    }
+                    return TransactionDetailResponse.builder()
+                            .id(event.billPaymentId())
+                            .transactionReference(event.transactionReference())
+                            .type(TransactionType.BILL_PAYMENT)
+                            .senderUserId(event.userId())
+                            .amount(event.amount())
+                            .currency(event.currency())
+                            .processingFee(event.processingFee())
+                            .totalAmount(event.totalAmount())
+                            .status(event.status().name())
+                            .title("Bill Payment - " + event.billerName())
+                            .subtitle((event.category() != null ? event.category().name() : "") + " • "
+                                    + event.accountNumber())
+                            .description(event.description())
+                            .metadata(metadata)
+                            .createdAt(at)
+                            .build();
+                },
+                doc -> {
+                    doc.status(event.status().name());
+                    if (event.failureReason() != null) {
+                        doc.failureReason(event.failureReason());
+                    }
+                    if (event.eventType() == BillPaymentEvent.EventType.BILL_PAYMENT_COMPLETED) {
+                        doc.completedAt(at);
+                        if (event.billerReference() != null) {
+                            Map<String, Object> metadata = new LinkedHashMap<>(doc.build().metadata());
+                            metadata.put("billerReference", event.billerReference());
+                            doc.metadata(metadata);
+                        }
+                    }
+                    return doc;
+                });
+    }
+
+    // Money requests
+
+    public void project(MoneyRequestEvent event) {
+        LocalDateTime at = event.timestamp();
+        List<TransactionHistoryEntry> entries = new ArrayList<>();
+        String status = switch (event.eventType()) {
+            case REQUEST_CREATED -> {
+                entries.add(reached("CREATED", "Money request of " + event.amount() + " " + event.currency()
+                        + " sent", at));
+                yield "PENDING_APPROVAL";
+            }
+            case REQUEST_APPROVED -> {
+                entries.add(reached("APPROVED", null, at));
+                yield "PROCESSING";
+            }
+            case REQUEST_DECLINED -> {
+                entries.add(failed("DECLINED", "Request Declined", "The payer declined this request", at));
+                yield "DECLINED";
+            }
+            case REQUEST_CANCELLED -> {
+                entries.add(failed("CANCELLED", "Request Cancelled", "This request was cancelled", at));
+                yield "CANCELLED";
+            }
+            case REQUEST_EXPIRED -> {
+                entries.add(failed("EXPIRED", "Request Expired", "This request has expired", at));
+                yield "EXPIRED";
+            }
+            case REQUEST_COMPLETED -> {
+                entries.add(reached("PROCESSING", null, at));
+                entries.add(reached("COMPLETED", null, at));
+                yield "COMPLETED";
+            }
+            case REQUEST_FAILED -> {
+                entries.add(failed("PROCESSING", null, event.failureReason(), at));
+                yield "FAILED";
+            }
+        };
+
+        project(event.requestId(), TransactionType.MONEY_REQUEST, at, entries,
+                () -> TransactionDetailResponse.builder()
+                        .id(event.requestId())
+                        .transactionReference(event.requestReference())
+                        .type(TransactionType.MONEY_REQUEST)
+                        .senderUserId(event.requesterUserId())
+                        .recipientUserId(event.payerUserId())
+                        .amount(event.amount())
+                        .currency(event.currency())
+                        .processingFee(BigDecimal.ZERO)
+                        .totalAmount(event.amount())
+                        .status(status)
+                        .title("Money Request")
+                        .subtitle(event.requestReference())
+                        .description(event.description())
+                        .metadata(new LinkedHashMap<>())
+                        .createdAt(at)
+                        .build(),
+                doc -> {
+                    doc.status(status);
+                    if (event.failureReason() != null) {
+                        doc.failureReason(event.failureReason());
+                    }
+                    String stamp = switch (event.eventType()) {
+                        case REQUEST_APPROVED -> "approvedAt";
+                        case REQUEST_DECLINED -> "declinedAt";
+                        default -> null;
+                    };
+                    if (stamp != null) {
+                        Map<String, Object> metadata = new LinkedHashMap<>(doc.build().metadata());
+                        metadata.put(stamp, at.toString());
+                        doc.metadata(metadata);
+                    }
+                    if (event.eventType() == MoneyRequestEvent.EventType.REQUEST_COMPLETED) {
+                        doc.completedAt(at);
+                    }
+                    return doc;
+                });
+    }
+
+    // Shared
+
+    /**
+     * Records the new entries, then re-renders the document. Only an event at
+     * least as new as the last one applied changes the document's fields, so a
+     * redelivered older event cannot roll the status back.
+     */
+    private void project(UUID transactionId, TransactionType type, LocalDateTime at,
+                         List<TransactionHistoryEntry> entries,
+                         Supplier<TransactionDetailResponse> initial,
+                         UnaryOperator<TransactionDetailResponse.TransactionDetailResponseBuilder> patch) {
+        for (TransactionHistoryEntry entry : entries) {
+            if (!entryRepository.existsByTransactionIdAndStepAndOutcome(transactionId, entry.getStep(),
+                    entry.getOutcome())) {
+                entry.setTransactionId(transactionId);
+                entry.setTransactionType(type);
+                entryRepository.save(entry);
+            }
+        }
+
+        TransactionHistoryView view = viewRepository.findById(transactionId).orElse(null);
+        TransactionDetailResponse document = view != null ? read(view.getDocument()) : initial.get();
+        boolean newest = view == null || !at.isBefore(view.getLastEventAt());
+        if (newest) {
+            document = patch.apply(document.toBuilder()).updatedAt(at).build();
+        }
+
+        HistoryTimeline timeline = HistoryTimeline.of(type);
+        document = document.toBuilder()
+                .timeline(timeline.render(entryRepository.findByTransactionIdOrderByOccurredAtAsc(transactionId),
+                        document.status()))
+                .availableActions(timeline.actions(document.status()))
+                .build();
+
+        if (view == null) {
+            view = TransactionHistoryView.builder()
+                    .transactionId(transactionId)
+                    .type(type)
+                    .reference(document.transactionReference())
+                    .build();
+        }
+        view.setStatus(document.status());
+        view.setLastEventAt(newest ? at : view.getLastEventAt());
+        view.setDocument(write(document));
+        viewRepository.save(view);
+        log.debug("Projected {} {} to status {}", type, transactionId, document.status());
+    }
+
+    private static TransactionHistoryEntry reached(String step, String note, LocalDateTime at) {
+        return TransactionHistoryEntry.builder()
+                .step(step).outcome(Outcome.REACHED).note(note).occurredAt(at)
+                .build();
+    }
+
+    private static TransactionHistoryEntry failed(String step, String label, String note, LocalDateTime at) {
+        return TransactionHistoryEntry.builder()
+                .step(step).outcome(Outcome.FAILED).label(label).note(note).occurredAt(at)
+                .build();
+    }
+
+    private TransactionDetailResponse read(String document) {
+        try {
+            return kafkaObjectMapper.readValue(document, TransactionDetailResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable transaction history document", e);
+        }
+    }
+
+    private String write(TransactionDetailResponse document) {
+        try {
+            return kafkaObjectMapper.writeValueAsString(document);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unwritable transaction history document", e);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.finpay.payment.history;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finpay.payment.detail.dto.TransactionDetailResponse;
+import com.finpay.payment.detail.dto.TransactionDetailResponse.TransactionType;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Query side of the transaction-history read model: a detail view is one
+ * primary-key lookup of a precomputed document.
+ *
+ * Parsed documents are cached per (transaction, view version). A saga
+ * transition bumps the version, so a stale entry is never served and simply
+ * ages out; a version probe reads one column and never touches the document.
+ */
+@Service
+@Slf4j
+@Transactional(readOnly = true)
+public class TransactionHistoryReader {
+
+    private static final int CACHE_SIZE = 10_000;
+    private static final Duration CACHE_IDLE = Duration.ofMinutes(10);
+
+    private final TransactionHistoryViewRepository viewRepository;
+    private final ObjectMapper kafkaObjectMapper;
+    private final Cache<DocumentKey, TransactionDetailResponse> documents = Caffeine.newBuilder()
+            .maximumSize(CACHE_SIZE)
+            .expireAfterAccess(CACHE_IDLE)
+            .build();
+
+    public TransactionHistoryReader(TransactionHistoryViewRepository viewRepository,
+                                    ObjectMapper kafkaObjectMapper) {
+        this.viewRepository = viewRepository;
+        this.kafkaObjectMapper = kafkaObjectMapper;
+    }
+
+    /** Current view version, or empty until the transaction's first event has been projected. */
+    public Optional<Long> findVersion(UUID transactionId, TransactionType type) {
+        return viewRepository.findVersion(transactionId, type);
+    }
+
+    /** Empty until the transaction's first event has been projected. */
+    public Optional<HistoryDocument> findDetail(UUID transactionId, TransactionType type) {
+        Optional<Long> version = findVersion(transactionId, type);
+        if (version.isEmpty()) {
+            return Optional.empty();
+        }
+        TransactionDetailResponse cached = documents.getIfPresent(new DocumentKey(transactionId, version.get()));
+        if (cached != null) {
+            return Optional.of(new HistoryDocument(cached, version.get()));
+        }
+        // Cache under the version actually read, which may be newer than the probe
+        return viewRepository.findById(transactionId)
+                .filter(view -> view.getType() == type)
+                .flatMap(view -> read(view).map(detail -> {
+                    documents.put(new DocumentKey(transactionId, view.getVersion()), detail);
+                    return new HistoryDocument(detail, view.getVersion());
+                }));
+    }
+
+    private Optional<TransactionDetailResponse> read(TransactionHistoryView view) {
+        try {
+            return Optional.of(kafkaObjectMapper.readValue(view.getDocument(), TransactionDetailResponse.class));
+        } catch (JsonProcessingException e) {
+            log.error("Unreadable history document for {} {}", view.getType(), view.getTransactionId(), e);
+            return Optional.empty();
+        }
+    }
+
+    private record DocumentKey(UUID transactionId, long version) {
+    }
+}
@@ -0,0 +1,49 @@
+package com.finpay.payment.history;
+
+import com.finpay.payment.detail.dto.TransactionDetailResponse.TransactionType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Read model of one transaction: the precomputed detail document served by
+ * {@code /api/v1/transactions}, keyed by the transaction's own ID. Maintained
+ * only by {@link TransactionHistoryProjector}.
+ */
+@Entity
+@Table(name = "transaction_history_views", indexes = {
+        @Index(name = "idx_history_view_reference", columnList = "reference")
+})
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class TransactionHistoryView {
+
+    @Id
+    private UUID transactionId;
+
+    @Column(nullable = false, columnDefinition = "VARCHAR(20)") @Enumerated(EnumType.STRING)
+    private TransactionType type;
+
+    @Column(nullable = false)
+    private String reference;
+
+    @Column(nullable = false, length = 20)
+    private String status;
+
+    /** Timestamp of the newest event applied; older events only add timeline entries. */
+    @Column(nullable = false)
+    private LocalDateTime lastEventAt;
+
+    /** {@code TransactionDetailResponse} as JSON. */
+    @Lob @Column(nullable = false, columnDefinition = "TEXT")
+    private String document;
+
+    /** Null until first persisted, so two first events for one transaction cannot both insert. */
+    @Version
+    private Long version;
+
+    @UpdateTimestamp @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
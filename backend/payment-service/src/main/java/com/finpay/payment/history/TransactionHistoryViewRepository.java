@@ -0,0 +1,16 @@
+package com.finpay.payment.history;
+
+import com.finpay.payment.detail.dto.TransactionDetailResponse.TransactionType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface TransactionHistoryViewRepository extends JpaRepository<TransactionHistoryView, UUID> {
+
+    /** Current version of a view without loading its document. */
+    @Query("SELECT v.version FROM TransactionHistoryView v WHERE v.transactionId = :id AND v.type = :type")
+    Optional<Long> findVersion(@Param("id") UUID transactionId, @Param("type") TransactionType type);
+}
@@ -19,6 +19,7 @@ import java.util.UUID;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final PaymentProcessor paymentProcessor;
 
     @PostMapping
     public ResponseEntity<PaymentResponse> initiatePayment(@Valid @RequestBody PaymentRequest request) {
@@ -54,7 +55,7 @@ public class PaymentController {
 
     @PostMapping("/{id}/process")
     public ResponseEntity<PaymentResponse> processPayment(@PathVariable UUID id) {
-        PaymentResponse response = paymentService.processPayment(id);
+        PaymentResponse response = paymentProcessor.process(id);
         return ResponseEntity.ok(response);
     }
 
@@ -0,0 +1,70 @@
+package com.finpay.payment.payment;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finpay.payment.payment.event.PaymentEvent;
+import com.finpay.payment.shared.exception.PaymentException;
+import com.finpay.payment.shared.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.BackOff;
+import org.springframework.kafka.annotation.DltHandler;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.retrytopic.DltStrategy;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+/**
+ * Starts the gateway charge for each PAYMENT_INITIATED event payment-service
+ * published through the outbox. Runs in its own consumer group, so
+ * notification-service and other readers of payment-events are unaffected.
+ *
+ * A payment that is no longer pending - a redelivery, or a cancellation that
+ * won the race - is skipped. A saturated gateway throws, and the event is
+ * retried with backoff.
+ *
+ * notification-service also consumes payment-events with the default retry
+ * and DLT topics, so this listener uses its own suffixes; otherwise each
+ * consumer would pick up the other's retries.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentProcessingConsumer {
+
+    static final String GROUP_ID = "payment-service-card-processing";
+
+    private final PaymentProcessor paymentProcessor;
+    private final ObjectMapper kafkaObjectMapper;
+
+    @RetryableTopic(
+            attempts = "4",
+            backOff = @BackOff(delay = 1000, multiplier = 2, maxDelay = 10000),
+            dltStrategy = DltStrategy.FAIL_ON_ERROR,
+            include = {Exception.class},
+            retryTopicSuffix = "-card-processing-retry",
+            dltTopicSuffix = "-card-processing-dlt"
+    )
+    @KafkaListener(topics = "payment-events", groupId = GROUP_ID)
+    public void onPaymentEvent(String message) throws Exception {
+        PaymentEvent event = kafkaObjectMapper.readValue(message, PaymentEvent.class);
+        if (event.eventType() != PaymentEvent.EventType.PAYMENT_INITIATED) {
+            return;
+        }
+        try {
+            paymentProcessor.process(event.paymentId());
+        } catch (PaymentException | ResourceNotFoundException e) {
+            log.debug("Skipping payment {}: {}", event.paymentId(), e.getMessage());
+        }
+    }
+
+    @DltHandler
+    public void handleDlt(ConsumerRecord<String, String> record,
+                          @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+                          @Header(value = KafkaHeaders.EXCEPTION_MESSAGE, required = false) String errorMessage) {
+        log.error("DLT: Failed to start payment processing after all retries. Topic: {}, Key: {}, Value: {}, Error: {}",
+                topic, record.key(), record.value(), errorMessage);
+    }
+}
@@ -0,0 +1,174 @@
+package com.finpay.payment.payment;
+
+import com.finpay.payment.payment.dto.PaymentResponse;
+import com.finpay.payment.payment.gateway.GatewayCharge;
+import com.finpay.payment.payment.gateway.GatewayResult;
+import com.finpay.payment.payment.gateway.PaymentGatewayClient;
+import com.finpay.payment.payment.gateway.PaymentGatewayProperties;
+import com.finpay.payment.shared.exception.GatewayUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Drives card payments through the gateway without holding a thread while
+ * the gateway works: a payment is claimed, its charge is handed to the
+ * {@link PaymentGatewayClient}, and the answer is recorded - and published
+ * through the outbox - when the returned future completes.
+ *
+ * In-flight charges are bounded by a semaphore bulkhead. A caller waits up
+ * to the acquire timeout for a slot, which backs the initiation consumer off
+ * while the gateway is saturated.
+ *
+ * A charge that got no answer - a timeout or a transport error - may still
+ * settle at the gateway, so the payment is left in PROCESSING. A periodic
+ * status inquiry then records the gateway's answer, or fails the payment
+ * once the gateway reports it never received the charge.
+ */
+@Component
+@Slf4j
+public class PaymentProcessor {
+
+    private final PaymentService paymentService;
+    private final PaymentGatewayClient gatewayClient;
+    private final PaymentGatewayProperties properties;
+    private final TaskExecutor taskExecutor;
+    private final Semaphore bulkhead;
+
+    public PaymentProcessor(PaymentService paymentService,
+                            PaymentGatewayClient gatewayClient,
+                            PaymentGatewayProperties properties,
+                            @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor) {
+        this.paymentService = paymentService;
+        this.gatewayClient = gatewayClient;
+        this.properties = properties;
+        this.taskExecutor = taskExecutor;
+        this.bulkhead = new Semaphore(properties.getMaxConcurrent());
+    }
+
+    /** Claims a pending payment and sends its charge; returns the payment as claimed. */
+    public PaymentResponse process(UUID paymentId) {
+        acquire(paymentId);
+        GatewayCharge charge;
+        try {
+            charge = paymentService.startProcessing(paymentId);
+        } catch (RuntimeException e) {
+            bulkhead.release();
+            throw e;
+        }
+        dispatch(charge);
+        return paymentService.getPaymentById(paymentId);
+    }
+
+    /**
+     * Asks the gateway about charges that have been unanswered for longer than
+     * the request timeout. Inquiries that fail or time out are retried on the
+     * next scan.
+     */
+    @Scheduled(fixedDelayString = "${finpay.payment.gateway.inquiry-interval-ms:30000}")
+    public void inquireUnanswered() {
+        List<GatewayCharge> charges = paymentService.chargesAwaitingAnswer(
+                LocalDateTime.now().minus(properties.getRequestTimeout()));
+        if (!charges.isEmpty()) {
+            log.info("Sending status inquiries for {} unanswered charges", charges.size());
+        }
+        charges.forEach(this::inquire);
+    }
+
+    int availableSlots() {
+        return bulkhead.availablePermits();
+    }
+
+    private void acquire(UUID paymentId) {
+        boolean acquired;
+        try {
+            acquired = bulkhead.tryAcquire(properties.getAcquireTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            throw new GatewayUnavailableException("Payment gateway is at capacity, payment " + paymentId
+                    + " was not submitted");
+        }
+    }
+
+    private void dispatch(GatewayCharge charge) {
+        CompletableFuture<GatewayResult> answer;
+        try {
+            answer = gatewayClient.charge(charge);
+        } catch (RuntimeException e) {
+            answer = CompletableFuture.failedFuture(e);
+        }
+        // Recorded on the task executor: the gateway's own threads only complete futures
+        answer.orTimeout(properties.getRequestTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .whenCompleteAsync((result, error) -> {
+                    try {
+                        record(charge, result, error);
+                    } finally {
+                        bulkhead.release();
+                    }
+                }, taskExecutor);
+    }
+
+    private void record(GatewayCharge charge, GatewayResult result, Throwable error) {
+        if (error != null) {
+            log.warn("No answer for payment {} ({}), leaving it PROCESSING for a status inquiry",
+                    charge.paymentId(), describe(error));
+            return;
+        }
+        try {
+            paymentService.completeProcessing(charge.paymentId(), result);
+        } catch (RuntimeException e) {
+            log.error("Failed to record gateway answer for payment {}", charge.paymentId(), e);
+        }
+    }
+
+    private void inquire(GatewayCharge charge) {
+        CompletableFuture<Optional<GatewayResult>> answer;
+        try {
+            answer = gatewayClient.inquire(charge.transactionReference());
+        } catch (RuntimeException e) {
+            answer = CompletableFuture.failedFuture(e);
+        }
+        answer.orTimeout(properties.getRequestTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .whenCompleteAsync((result, error) -> {
+                    if (error != null) {
+                        log.warn("Status inquiry for payment {} failed ({}), retrying on next scan",
+                                charge.paymentId(), describe(error));
+                        return;
+                    }
+                    try {
+                        if (result.isPresent()) {
+                            paymentService.completeProcessing(charge.paymentId(), result.get());
+                        } else {
+                            paymentService.failProcessing(charge.paymentId(),
+                                    "Payment gateway has no record of the charge");
+                        }
+                    } catch (RuntimeException e) {
+                        log.error("Failed to record inquiry answer for payment {}", charge.paymentId(), e);
+                    }
+                }, taskExecutor);
+    }
+
+    private static String describe(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause() : error;
+        if (cause instanceof TimeoutException) {
+            return "Payment gateway timed out";
+        }
+        return "Payment gateway error: " + cause.getMessage();
+    }
+}
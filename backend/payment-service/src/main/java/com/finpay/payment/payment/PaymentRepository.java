@@ -3,6 +3,9 @@ package com.finpay.payment.payment;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -28,4 +31,35 @@ public interface PaymentRepository extends JpaRepository<Payment, UUID> {
     List<Payment> findByUserIdAndCreatedAtBetween(UUID userId, LocalDateTime start, LocalDateTime end);
 
     boolean existsByTransactionReference(String transactionReference);
+
+    List<Payment> findTop100ByStatusAndUpdatedAtBeforeOrderByUpdatedAtAsc(Payment.PaymentStatus status,
+                                                                          LocalDateTime updatedBefore);
+
+    /**
+     * Moves a payment from {@code from} to {@code to} only if it is still in
+     * {@code from}; returns 0 when another writer got there first.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Payment p SET p.status = :to, p.updatedAt = :now WHERE p.id = :id AND p.status = :from")
+    int transition(@Param("id") UUID id,
+                   @Param("from") Payment.PaymentStatus from,
+                   @Param("to") Payment.PaymentStatus to,
+                   @Param("now") LocalDateTime now);
+
+    /**
+     * Records the gateway outcome of a payment still in PROCESSING, writing
+     * only the outcome columns; returns 0 for a stale answer.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Payment p SET p.status = :outcome, p.gatewayReference = :gatewayReference, "
+            + "p.gatewayResponse = :gatewayResponse, p.failureReason = :failureReason, "
+            + "p.processedAt = :processedAt, p.updatedAt = :now "
+            + "WHERE p.id = :id AND p.status = 'PROCESSING'")
+    int finishProcessing(@Param("id") UUID id,
+                         @Param("outcome") Payment.PaymentStatus outcome,
+                         @Param("gatewayReference") String gatewayReference,
+                         @Param("gatewayResponse") String gatewayResponse,
+                         @Param("failureReason") String failureReason,
+                         @Param("processedAt") LocalDateTime processedAt,
+                         @Param("now") LocalDateTime now);
 }
@@ -1,14 +1,17 @@
 package com.finpay.payment.payment;
 
+import com.finpay.id.ReferenceGenerator;
+import com.finpay.money.FeeSchedule;
 import com.finpay.payment.payment.dto.PaymentRequest;
 import com.finpay.payment.payment.dto.PaymentResponse;
 import com.finpay.payment.payment.event.PaymentEvent;
+import com.finpay.payment.payment.gateway.GatewayCharge;
+import com.finpay.payment.payment.gateway.GatewayResult;
 import com.finpay.payment.shared.exception.PaymentException;
 import com.finpay.payment.shared.exception.ResourceNotFoundException;
 import io.micrometer.observation.annotation.Observed;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.core.task.TaskExecutor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -21,6 +24,7 @@ import java.util.List;
 import java.util.UUID;
 
 @Service
+@RequiredArgsConstructor
 @Slf4j
 @Transactional
 public class PaymentService {
@@ -28,20 +32,10 @@ public class PaymentService {
     private final PaymentRepository paymentRepository;
     private final PaymentEventProducer paymentEventProducer;
     private final PaymentMapper paymentMapper;
-    private final TaskExecutor taskExecutor;
+    private final ReferenceGenerator referenceGenerator;
 
-    public PaymentService(PaymentRepository paymentRepository,
-                          PaymentEventProducer paymentEventProducer,
-                          PaymentMapper paymentMapper,
-                          @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor) {
-        this.paymentRepository = paymentRepository;
-        this.paymentEventProducer = paymentEventProducer;
-        this.paymentMapper = paymentMapper;
-        this.taskExecutor = taskExecutor;
-    }
-
-    private static final BigDecimal PROCESSING_FEE_RATE = new BigDecimal("0.015"); // 1.5%
-    private static final BigDecimal MIN_PROCESSING_FEE = new BigDecimal("0.50");
+    private static final FeeSchedule PROCESSING_FEE = FeeSchedule.percentage(
+            new BigDecimal("0.015"), new BigDecimal("0.50"), RoundingMode.HALF_UP); // 1.5%, min 0.50
 
     @Observed(name = "payment.initiate", contextualName = "initiate-payment")
     public PaymentResponse initiatePayment(PaymentRequest request) {
@@ -72,78 +66,89 @@ public class PaymentService {
         Payment savedPayment = paymentRepository.save(payment);
         log.info("Payment initiated with ID: {} and reference: {}", savedPayment.getId(), transactionReference);
 
-        // Publish payment initiated event
+        // Publish payment initiated event; PaymentProcessingConsumer picks it up for the gateway charge
         publishPaymentEvent(savedPayment, PaymentEvent.EventType.PAYMENT_INITIATED);
 
-        // Start async processing
-        processPaymentAsync(savedPayment.getId());
-
         return paymentMapper.toResponse(savedPayment);
     }
 
-    private void processPaymentAsync(UUID paymentId) {
-        // In production, this should be fully event-driven via Kafka (like transfers/bill-payments).
-        // Uses Spring's managed TaskExecutor instead of raw threads for proper lifecycle management.
-        taskExecutor.execute(() -> {
-            try {
-                Thread.sleep(2000); // Simulate processing delay
-                processPayment(paymentId);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                log.error("Payment processing interrupted for ID: {}", paymentId);
-            }
-        });
-    }
-
+    /**
+     * Claims a pending payment for a gateway charge. The claim is a guarded
+     * status change, so a payment is charged at most once even when its
+     * initiation event is redelivered or it is cancelled concurrently.
+     */
     @Observed(name = "payment.process", contextualName = "process-payment")
-    public PaymentResponse processPayment(UUID paymentId) {
+    public GatewayCharge startProcessing(UUID paymentId) {
         log.info("Processing payment with ID: {}", paymentId);
 
         Payment payment = paymentRepository.findById(paymentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Payment not found with ID: " + paymentId));
 
-        if (payment.getStatus() != Payment.PaymentStatus.PENDING) {
+        if (payment.getStatus() != Payment.PaymentStatus.PENDING
+                || paymentRepository.transition(paymentId, Payment.PaymentStatus.PENDING,
+                Payment.PaymentStatus.PROCESSING, LocalDateTime.now()) == 0) {
             throw new PaymentException("Payment is not in PENDING status");
         }
 
         payment.setStatus(Payment.PaymentStatus.PROCESSING);
-        paymentRepository.save(payment);
         publishPaymentEvent(payment, PaymentEvent.EventType.PAYMENT_PROCESSING);
 
-        try {
-            // Simulate payment gateway integration
-            boolean success = simulatePaymentGateway(payment);
-
-            if (success) {
-                payment.setStatus(Payment.PaymentStatus.COMPLETED);
-                payment.setProcessedAt(LocalDateTime.now());
-                payment.setGatewayReference("GW-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
-                payment.setGatewayResponse("SUCCESS");
-                
-                Payment completedPayment = paymentRepository.save(payment);
-                log.info("Payment completed successfully: {}", paymentId);
-                publishPaymentEvent(completedPayment, PaymentEvent.EventType.PAYMENT_COMPLETED);
-                
-                return paymentMapper.toResponse(completedPayment);
-            } else {
-                throw new PaymentException("Payment gateway declined the transaction");
-            }
-        } catch (Exception e) {
-            payment.setStatus(Payment.PaymentStatus.FAILED);
-            payment.setFailureReason(e.getMessage());
-            payment.setGatewayResponse("FAILED");
-            
-            Payment failedPayment = paymentRepository.save(payment);
-            log.error("Payment failed: {} - {}", paymentId, e.getMessage());
-            publishPaymentEvent(failedPayment, PaymentEvent.EventType.PAYMENT_FAILED);
-            
-            return paymentMapper.toResponse(failedPayment);
-        }
+        return toCharge(payment);
+    }
+
+    /**
+     * Charges claimed before {@code claimedBefore} that still have no recorded
+     * answer, oldest first, for a gateway status inquiry.
+     */
+    @Transactional(readOnly = true)
+    public List<GatewayCharge> chargesAwaitingAnswer(LocalDateTime claimedBefore) {
+        return paymentRepository.findTop100ByStatusAndUpdatedAtBeforeOrderByUpdatedAtAsc(
+                        Payment.PaymentStatus.PROCESSING, claimedBefore).stream()
+                .map(this::toCharge)
+                .toList();
+    }
+
+    /** Records the gateway's answer for a payment claimed by {@link #startProcessing}. */
+    @Observed(name = "payment.complete", contextualName = "complete-payment")
+    public void completeProcessing(UUID paymentId, GatewayResult result) {
+        Payment.PaymentStatus outcome = result.approved()
+                ? Payment.PaymentStatus.COMPLETED : Payment.PaymentStatus.FAILED;
+        finishProcessing(paymentId, outcome, result.gatewayReference(), result.responseCode(),
+                result.declineReason());
+    }
+
+    /** Fails a claimed payment the gateway has no record of. */
+    public void failProcessing(UUID paymentId, String reason) {
+        finishProcessing(paymentId, Payment.PaymentStatus.FAILED, null, "FAILED", reason);
     }
 
-    private boolean simulatePaymentGateway(Payment payment) {
-        // Simulate 95% success rate
-        return Math.random() < 0.95;
+    private void finishProcessing(UUID paymentId, Payment.PaymentStatus outcome, String gatewayReference,
+                                  String gatewayResponse, String failureReason) {
+        Payment payment = paymentRepository.findById(paymentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Payment not found with ID: " + paymentId));
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime processedAt = outcome == Payment.PaymentStatus.COMPLETED ? now : null;
+        String reason = outcome == Payment.PaymentStatus.COMPLETED ? null : failureReason;
+        if (paymentRepository.finishProcessing(paymentId, outcome, gatewayReference, gatewayResponse, reason,
+                processedAt, now) == 0) {
+            log.warn("Ignoring gateway answer for payment {} in status {}", paymentId, payment.getStatus());
+            return;
+        }
+
+        payment.setStatus(outcome);
+        payment.setGatewayReference(gatewayReference);
+        payment.setGatewayResponse(gatewayResponse);
+        payment.setFailureReason(reason);
+        payment.setProcessedAt(processedAt);
+        payment.setUpdatedAt(now);
+        if (outcome == Payment.PaymentStatus.COMPLETED) {
+            log.info("Payment completed successfully: {}", paymentId);
+            publishPaymentEvent(payment, PaymentEvent.EventType.PAYMENT_COMPLETED);
+        } else {
+            log.error("Payment failed: {} - {}", paymentId, failureReason);
+            publishPaymentEvent(payment, PaymentEvent.EventType.PAYMENT_FAILED);
+        }
     }
 
     @Transactional(readOnly = true)
@@ -184,16 +189,16 @@ public class PaymentService {
         Payment payment = paymentRepository.findById(paymentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Payment not found with ID: " + paymentId));
 
-        if (payment.getStatus() != Payment.PaymentStatus.PENDING) {
+        if (payment.getStatus() != Payment.PaymentStatus.PENDING
+                || paymentRepository.transition(paymentId, Payment.PaymentStatus.PENDING,
+                Payment.PaymentStatus.CANCELLED, LocalDateTime.now()) == 0) {
             throw new PaymentException("Only pending payments can be cancelled");
         }
 
         payment.setStatus(Payment.PaymentStatus.CANCELLED);
-        Payment cancelledPayment = paymentRepository.save(payment);
-        
-        publishPaymentEvent(cancelledPayment, PaymentEvent.EventType.PAYMENT_CANCELLED);
-        
-        return paymentMapper.toResponse(cancelledPayment);
+        publishPaymentEvent(payment, PaymentEvent.EventType.PAYMENT_CANCELLED);
+
+        return paymentMapper.toResponse(payment);
     }
 
     @Observed(name = "payment.refund", contextualName = "refund-payment")
@@ -203,27 +208,29 @@ public class PaymentService {
         Payment payment = paymentRepository.findById(paymentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Payment not found with ID: " + paymentId));
 
-        if (payment.getStatus() != Payment.PaymentStatus.COMPLETED) {
+        if (payment.getStatus() != Payment.PaymentStatus.COMPLETED
+                || paymentRepository.transition(paymentId, Payment.PaymentStatus.COMPLETED,
+                Payment.PaymentStatus.REFUNDED, LocalDateTime.now()) == 0) {
             throw new PaymentException("Only completed payments can be refunded");
         }
 
         payment.setStatus(Payment.PaymentStatus.REFUNDED);
-        Payment refundedPayment = paymentRepository.save(payment);
-        
-        publishPaymentEvent(refundedPayment, PaymentEvent.EventType.PAYMENT_REFUNDED);
-        
-        return paymentMapper.toResponse(refundedPayment);
+        publishPaymentEvent(payment, PaymentEvent.EventType.PAYMENT_REFUNDED);
+
+        return paymentMapper.toResponse(payment);
     }
 
     private String generateTransactionReference() {
-        String timestamp = String.valueOf(System.currentTimeMillis());
-        String uuid = UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-        return "FP" + timestamp.substring(timestamp.length() - 8) + uuid;
+        return referenceGenerator.next("FP");
+    }
+
+    private GatewayCharge toCharge(Payment payment) {
+        return new GatewayCharge(payment.getId(), payment.getTransactionReference(), payment.getTotalAmount(),
+                payment.getCurrency(), payment.getCardType(), payment.getCardLastFourDigits());
     }
 
     private BigDecimal calculateProcessingFee(BigDecimal amount) {
-        BigDecimal fee = amount.multiply(PROCESSING_FEE_RATE).setScale(4, RoundingMode.HALF_UP);
-        return fee.compareTo(MIN_PROCESSING_FEE) < 0 ? MIN_PROCESSING_FEE : fee;
+        return PROCESSING_FEE.fee(amount);
     }
 
     private String detectCardType(String cardNumber) {
@@ -0,0 +1,18 @@
+package com.finpay.payment.payment.gateway;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Charge request sent to the gateway. The transaction reference doubles as
+ * the gateway idempotency key.
+ */
+public record GatewayCharge(
+        UUID paymentId,
+        String transactionReference,
+        BigDecimal amount,
+        String currency,
+        String cardType,
+        String cardLastFourDigits
+) {
+}
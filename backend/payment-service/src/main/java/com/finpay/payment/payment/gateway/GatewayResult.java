@@ -0,0 +1,16 @@
+package com.finpay.payment.payment.gateway;
+
+public record GatewayResult(
+        boolean approved,
+        String gatewayReference,
+        String responseCode,
+        String declineReason
+) {
+    public static GatewayResult approved(String gatewayReference) {
+        return new GatewayResult(true, gatewayReference, "SUCCESS", null);
+    }
+
+    public static GatewayResult declined(String gatewayReference, String responseCode, String declineReason) {
+        return new GatewayResult(false, gatewayReference, responseCode, declineReason);
+    }
+}
@@ -0,0 +1,23 @@
+package com.finpay.payment.payment.gateway;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Card gateway integration. Implementations must not block the calling
+ * thread: the returned future completes when the gateway answers.
+ *
+ * A decline completes normally with a declined {@link GatewayResult};
+ * the future completes exceptionally only when no answer was obtained.
+ */
+public interface PaymentGatewayClient {
+
+    CompletableFuture<GatewayResult> charge(GatewayCharge charge);
+
+    /**
+     * Asks the gateway for the outcome of an earlier charge, keyed by its
+     * transaction reference. Completes with the answer once the gateway has
+     * one, or empty when the gateway never received the charge.
+     */
+    CompletableFuture<Optional<GatewayResult>> inquire(String transactionReference);
+}
@@ -0,0 +1,38 @@
+package com.finpay.payment.payment.gateway;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "finpay.payment.gateway")
+public class PaymentGatewayProperties {
+
+    /** Bulkhead size: maximum number of charges awaiting a gateway answer. */
+    private int maxConcurrent = 256;
+
+    /** How long a new charge waits for a free bulkhead slot before it is rejected. */
+    private Duration acquireTimeout = Duration.ofSeconds(5);
+
+    /** How long to wait for a gateway answer before the payment is left to a status inquiry. */
+    private Duration requestTimeout = Duration.ofSeconds(10);
+
+    private Simulated simulated = new Simulated();
+
+    @Getter
+    @Setter
+    public static class Simulated {
+
+        /** Lower bound of the simulated gateway latency. */
+        private Duration minLatency = Duration.ofMillis(200);
+
+        /** Upper bound of the simulated gateway latency. */
+        private Duration maxLatency = Duration.ofSeconds(2);
+
+        /** Share of charges declined at random, between 0 and 1. */
+        private double declineRate = 0.05;
+    }
+}
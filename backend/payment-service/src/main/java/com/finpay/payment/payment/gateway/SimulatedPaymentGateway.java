@@ -0,0 +1,104 @@
+package com.finpay.payment.payment.gateway;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local stand-in for a card gateway. Answers after a random latency within
+ * the configured bounds and declines a configured share of charges.
+ *
+ * Answers are scheduled on a single timer thread, so waiting charges hold no
+ * thread at all. Test cards ending in these digits behave deterministically:
+ * <ul>
+ *   <li>{@code 0002} - declined, {@code card_declined}</li>
+ *   <li>{@code 9995} - declined, {@code insufficient_funds}</li>
+ *   <li>{@code 0119} - never answers, exercising the request timeout; the
+ *       charge is dropped, so a status inquiry reports it as unknown</li>
+ * </ul>
+ * Answers stay available to status inquiries for an hour.
+ */
+@Component
+@ConditionalOnProperty(prefix = "finpay.payment.gateway", name = "provider",
+        havingValue = "simulated", matchIfMissing = true)
+@Slf4j
+public class SimulatedPaymentGateway implements PaymentGatewayClient {
+
+    private static final Duration RETENTION = Duration.ofHours(1);
+
+    private final PaymentGatewayProperties.Simulated profile;
+    private final Map<String, CompletableFuture<GatewayResult>> received = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "simulated-gateway");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SimulatedPaymentGateway(PaymentGatewayProperties properties) {
+        this.profile = properties.getSimulated();
+    }
+
+    @Override
+    public CompletableFuture<GatewayResult> charge(GatewayCharge charge) {
+        CompletableFuture<GatewayResult> answer = new CompletableFuture<>();
+        String lastFour = charge.cardLastFourDigits();
+        if ("0119".equals(lastFour)) {
+            log.debug("Simulated gateway dropping charge {}", charge.transactionReference());
+            return answer;
+        }
+        String reference = charge.transactionReference();
+        CompletableFuture<GatewayResult> existing = received.putIfAbsent(reference, answer);
+        if (existing != null) {
+            return existing;
+        }
+        GatewayResult result = decide(lastFour);
+        timer.schedule(() -> answer.complete(result), latency().toMillis(), TimeUnit.MILLISECONDS);
+        timer.schedule(() -> received.remove(reference), RETENTION.toMillis(), TimeUnit.MILLISECONDS);
+        return answer;
+    }
+
+    @Override
+    public CompletableFuture<Optional<GatewayResult>> inquire(String transactionReference) {
+        CompletableFuture<GatewayResult> answer = received.get(transactionReference);
+        return answer == null
+                ? CompletableFuture.completedFuture(Optional.empty())
+                : answer.thenApply(Optional::of);
+    }
+
+    private GatewayResult decide(String lastFour) {
+        String reference = "GW-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        if ("0002".equals(lastFour)) {
+            return GatewayResult.declined(reference, "card_declined", "Card declined by issuer");
+        }
+        if ("9995".equals(lastFour)) {
+            return GatewayResult.declined(reference, "insufficient_funds", "Insufficient funds on card");
+        }
+        if (ThreadLocalRandom.current().nextDouble() < profile.getDeclineRate()) {
+            return GatewayResult.declined(reference, "card_declined", "Payment gateway declined the transaction");
+        }
+        return GatewayResult.approved(reference);
+    }
+
+    private Duration latency() {
+        long min = profile.getMinLatency().toMillis();
+        long max = Math.max(min, profile.getMaxLatency().toMillis());
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(min, max + 1));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        timer.shutdownNow();
+    }
+}
@@ -0,0 +1,35 @@
+package com.finpay.payment.reference;
+
+import com.finpay.payment.detail.DetailResponder;
+import com.finpay.payment.detail.dto.TransactionDetailResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.UUID;
+
+/**
+ * Looks up a transfer, bill payment or money request by its reference
+ * without the caller knowing which of the three it is. Answers with the same
+ * detail view and ETag as the per-type detail endpoints.
+ *
+ * References are time-ordered and therefore guessable, so only a party to
+ * the transaction gets an answer; anyone else gets 404.
+ */
+@RestController
+@RequestMapping("/api/v1/payments/ref")
+@RequiredArgsConstructor
+public class ReferenceController {
+
+    private final ReferenceResolver referenceResolver;
+    private final DetailResponder responder;
+
+    @GetMapping("/{reference}")
+    public ResponseEntity<TransactionDetailResponse> getByReference(@PathVariable String reference,
+                                                                    @RequestHeader("X-User-Id") UUID userId,
+                                                                    WebRequest request) {
+        ResolvedReference resolved = referenceResolver.resolveFor(reference, userId);
+        return responder.respond(resolved.transactionId(), resolved.type(), request);
+    }
+}
@@ -0,0 +1,126 @@
+package com.finpay.payment.reference;
+
+import com.finpay.payment.billpayment.BillPaymentRepository;
+import com.finpay.payment.detail.dto.TransactionDetailResponse.TransactionType;
+import com.finpay.payment.request.MoneyRequestRepository;
+import com.finpay.payment.shared.exception.ResourceNotFoundException;
+import com.finpay.payment.transfer.MoneyTransferRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Maps a transfer, bill payment or money request reference to the
+ * transaction it names.
+ *
+ * Every new transaction registers its reference in the same transaction that
+ * creates it. References never move, so resolved entries are cached without
+ * invalidation. Transactions created before the index existed are found in
+ * their own table on first lookup and indexed then.
+ *
+ * Transfer batch references ({@code TRB-...}) are not indexed: a batch has
+ * no single counterparty and no detail view of its own. Batch items carry no
+ * reference of their own either; a batch and its items are read only through
+ * {@code /api/v1/payments/transfers/batches/{id}} and
+ * {@code /api/v1/payments/transfers/batches/{id}/items}.
+ */
+@Service
+@Slf4j
+public class ReferenceResolver {
+
+    private static final int CACHE_SIZE = 50_000;
+    private static final Duration CACHE_IDLE = Duration.ofHours(1);
+
+    private final TransactionReferenceRepository referenceRepository;
+    private final MoneyTransferRepository transferRepository;
+    private final BillPaymentRepository billPaymentRepository;
+    private final MoneyRequestRepository requestRepository;
+    private final Cache<String, ResolvedReference> recent = Caffeine.newBuilder()
+            .maximumSize(CACHE_SIZE)
+            .expireAfterAccess(CACHE_IDLE)
+            .build();
+
+    public ReferenceResolver(TransactionReferenceRepository referenceRepository,
+                             MoneyTransferRepository transferRepository,
+                             BillPaymentRepository billPaymentRepository,
+                             MoneyRequestRepository requestRepository) {
+        this.referenceRepository = referenceRepository;
+        this.transferRepository = transferRepository;
+        this.billPaymentRepository = billPaymentRepository;
+        this.requestRepository = requestRepository;
+    }
+
+    /** Must run inside the transaction that creates the transaction. */
+    public void register(String reference, TransactionType type, UUID transactionId) {
+        referenceRepository.save(TransactionReference.builder()
+                .reference(reference)
+                .transactionType(type)
+                .transactionId(transactionId)
+                .build());
+    }
+
+    /**
+     * Resolves the reference for a caller, who must be a party to the
+     * transaction. Anyone else gets the same not-found answer as for an
+     * unknown reference, so references cannot be probed for existence.
+     */
+    public ResolvedReference resolveFor(String reference, UUID userId) {
+        ResolvedReference resolved = resolve(reference);
+        boolean party = switch (resolved.type()) {
+            case TRANSFER -> transferRepository.isParty(resolved.transactionId(), userId);
+            case BILL_PAYMENT -> billPaymentRepository.isParty(resolved.transactionId(), userId);
+            case MONEY_REQUEST -> requestRepository.isParty(resolved.transactionId(), userId);
+        };
+        if (!party) {
+            throw notFound(reference);
+        }
+        return resolved;
+    }
+
+    public ResolvedReference resolve(String reference) {
+        ResolvedReference cached = recent.getIfPresent(reference);
+        if (cached != null) {
+            return cached;
+        }
+        ResolvedReference resolved = referenceRepository.findById(reference)
+                .map(r -> new ResolvedReference(r.getTransactionType(), r.getTransactionId()))
+                .or(() -> findUnindexed(reference))
+                .orElseThrow(() -> notFound(reference));
+        recent.put(reference, resolved);
+        return resolved;
+    }
+
+    private Optional<ResolvedReference> findUnindexed(String reference) {
+        Optional<ResolvedReference> found = transferRepository.findIdByTransactionReference(reference)
+                .map(id -> new ResolvedReference(TransactionType.TRANSFER, id))
+                .or(() -> billPaymentRepository.findIdByTransactionReference(reference)
+                        .map(id -> new ResolvedReference(TransactionType.BILL_PAYMENT, id)))
+                .or(() -> requestRepository.findIdByRequestReference(reference)
+                        .map(id -> new ResolvedReference(TransactionType.MONEY_REQUEST, id)));
+        found.ifPresent(r -> backfill(reference, r));
+        return found;
+    }
+
+    private static ResourceNotFoundException notFound(String reference) {
+        return new ResourceNotFoundException("No transaction with reference: " + reference);
+    }
+
+    private void backfill(String reference, ResolvedReference resolved) {
+        try {
+            referenceRepository.saveAndFlush(TransactionReference.builder()
+                    .reference(reference)
+                    .transactionType(resolved.type())
+                    .transactionId(resolved.transactionId())
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent lookup indexed it first
+            log.debug("Reference {} already indexed", reference);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.finpay.payment.reference;
+
+import com.finpay.payment.detail.dto.TransactionDetailResponse.TransactionType;
+
+import java.util.UUID;
+
+public record ResolvedReference(TransactionType type, UUID transactionId) {
+}
@@ -0,0 +1,31 @@
+package com.finpay.payment.reference;
+
+import com.finpay.payment.detail.dto.TransactionDetailResponse.TransactionType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.UUID;
+
+/**
+ * One row per transaction reference, naming the table and row it belongs to,
+ * so a reference of any transaction type resolves with one primary-key lookup.
+ */
+@Entity
+@Table(name = "transaction_references")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class TransactionReference {
+
+    @Id
+    @Column(length = 40)
+    private String reference;
+
+    @Column(nullable = false, columnDefinition = "VARCHAR(20)") @Enumerated(EnumType.STRING)
+    private TransactionType transactionType;
+
+    @Column(nullable = false)
+    private UUID transactionId;
+
+    /** Null until first persisted, so registering is a plain insert instead of a merge. */
+    @Version
+    private Long version;
+}
@@ -0,0 +1,6 @@
+package com.finpay.payment.reference;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface TransactionReferenceRepository extends JpaRepository<TransactionReference, String> {
+}
@@ -1,8 +1,12 @@
 package com.finpay.payment.request;
 
+import com.finpay.id.hibernate.TimeOrderedId;
+import com.finpay.payment.transfer.MoneyTransfer;
+import com.finpay.saga.SagaSteps;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
@@ -20,9 +24,19 @@ import java.util.UUID;
  * 3b. Payer declines → DECLINED
  * 4. Requester can cancel → CANCELLED
  * 5. Expiration → EXPIRED (handled by scheduled job)
+ *
+ * The request mirrors the outcome of its linked transfer saga: once that
+ * finishes, {@code sagaSteps} holds the transfer's completed
+ * {@link MoneyTransfer.SagaStep}s.
  */
 @Entity
-@Table(name = "money_requests")
+@Table(name = "money_requests", indexes = {
+        @Index(name = "idx_request_requester_created", columnList = "requesterUserId, createdAt"),
+        @Index(name = "idx_request_payer_created", columnList = "payerUserId, createdAt"),
+        @Index(name = "idx_request_payer_status", columnList = "payerUserId, status"),
+        @Index(name = "idx_request_status_expires", columnList = "status, expiresAt")
+})
+@DynamicUpdate
 @Getter
 @Setter
 @NoArgsConstructor
@@ -31,7 +45,7 @@ import java.util.UUID;
 public class MoneyRequest {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     private UUID id;
 
     @Column(nullable = false, unique = true)
@@ -68,15 +82,9 @@ public class MoneyRequest {
 
     private String failureReason;
 
-    // SAGA step tracking (only used after approval)
-    private boolean fundsReserved;
-    private boolean fundsDeducted;
-    private boolean fundsCredited;
-    private boolean notificationSent;
-
-    // Compensation tracking
-    private boolean compensationRequired;
-    private boolean compensationCompleted;
+    // SAGA step tracking (only used after approval), see SagaSteps
+    @Column(nullable = false)
+    private int sagaSteps;
 
     private LocalDateTime approvedAt;
     private LocalDateTime declinedAt;
@@ -92,6 +100,34 @@ public class MoneyRequest {
     @Column(nullable = false)
     private LocalDateTime updatedAt;
 
+    // Derived step flags
+
+    public boolean isFundsReserved() {
+        return SagaSteps.isDone(sagaSteps, MoneyTransfer.SagaStep.RESERVE_FUNDS);
+    }
+
+    public boolean isFundsDeducted() {
+        return SagaSteps.isDone(sagaSteps, MoneyTransfer.SagaStep.DEDUCT_FUNDS);
+    }
+
+    public boolean isFundsCredited() {
+        return SagaSteps.isDone(sagaSteps, MoneyTransfer.SagaStep.CREDIT_FUNDS);
+    }
+
+    public boolean isNotificationSent() {
+        return sagaStatus == SagaStatus.COMPLETED;
+    }
+
+    /** Compensation itself runs on the linked transfer. */
+    public boolean isCompensationRequired() {
+        return sagaStatus == SagaStatus.FAILED || sagaStatus == SagaStatus.COMPENSATING
+                || sagaStatus == SagaStatus.COMPENSATED;
+    }
+
+    public boolean isCompensationCompleted() {
+        return sagaStatus == SagaStatus.COMPENSATED;
+    }
+
     public enum RequestStatus {
         PENDING_APPROVAL, // Waiting for payer to approve or decline
         APPROVED,         // Payer approved, SAGA starting
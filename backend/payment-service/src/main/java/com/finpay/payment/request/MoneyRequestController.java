@@ -2,6 +2,7 @@ package com.finpay.payment.request;
 
 import com.finpay.payment.request.dto.MoneyRequestCreateDto;
 import com.finpay.payment.request.dto.MoneyRequestResponse;
+import com.finpay.payment.shared.idempotency.IdempotencyService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -32,16 +33,20 @@ import java.util.UUID;
 public class MoneyRequestController {
 
     private final MoneyRequestService requestService;
+    private final IdempotencyService idempotencyService;
 
     /**
      * Create a new money request (authenticated user = requester).
+     * Retries carrying the same {@code Idempotency-Key} get the original response.
      */
     @PostMapping
     public ResponseEntity<MoneyRequestResponse> createRequest(
             @RequestHeader("X-User-Id") UUID requesterUserId,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody MoneyRequestCreateDto dto) {
-        MoneyRequestResponse response = requestService.createRequest(requesterUserId, dto);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        return idempotencyService.execute("money-request", requesterUserId, idempotencyKey, dto,
+                MoneyRequestResponse.class,
+                () -> ResponseEntity.status(HttpStatus.CREATED).body(requestService.createRequest(requesterUserId, dto)));
     }
 
     /**
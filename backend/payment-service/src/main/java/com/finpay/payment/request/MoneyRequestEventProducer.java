@@ -7,6 +7,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Publishes money request lifecycle events via the Transactional Outbox Pattern.
  */
@@ -30,4 +34,23 @@ public class MoneyRequestEventProducer {
                 event
         );
     }
+
+    /** Writes all events of one type in a single batched outbox insert. */
+    public void publishRequestEvents(MoneyRequestEvent.EventType eventType, List<MoneyRequestEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        log.info("Saving {} money request events to outbox: {}", events.size(), eventType);
+
+        Map<String, MoneyRequestEvent> byRequestId = new LinkedHashMap<>();
+        for (MoneyRequestEvent event : events) {
+            byRequestId.put(event.requestId().toString(), event);
+        }
+        outboxService.saveEvents(
+                "MoneyRequest",
+                eventType.name(),
+                KafkaConfig.MONEY_REQUEST_EVENTS_TOPIC,
+                byRequestId
+        );
+    }
 }
@@ -1,49 +1,42 @@
 package com.finpay.payment.request;
 
-import com.finpay.payment.request.event.MoneyRequestEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 /**
  * Scheduled job that marks expired money requests and notifies both parties.
- * Runs every 5 minutes.
+ *
+ * Requests are expired in chunks of {@code batch-size}, each in its own short
+ * transaction, until a chunk comes back short. Chunks are claimed with SKIP
+ * LOCKED, so every payment-service instance can run the job at once and a
+ * large backlog is shared between them instead of being locked by one.
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class MoneyRequestExpirationJob {
 
-    private final MoneyRequestRepository requestRepository;
-    private final MoneyRequestEventProducer requestEventProducer;
+    private final MoneyRequestService requestService;
+    private final MoneyRequestExpirationProperties properties;
 
-    @Scheduled(fixedRate = 300_000) // every 5 minutes
-    @Transactional
+    @Scheduled(fixedDelayString = "${finpay.payment.request.expiration.interval-ms:300000}")
     public void expirePendingRequests() {
-        List<MoneyRequest> expired = requestRepository.findExpiredRequests(LocalDateTime.now());
-
-        if (expired.isEmpty()) return;
-
-        log.info("Expiring {} pending money requests", expired.size());
-
-        for (MoneyRequest request : expired) {
-            request.setStatus(MoneyRequest.RequestStatus.EXPIRED);
-            requestRepository.save(request);
-
-            requestEventProducer.publishRequestEvent(
-                    MoneyRequestEvent.create(
-                            request.getId(), request.getRequestReference(),
-                            request.getRequesterUserId(), request.getPayerUserId(),
-                            request.getAmount(), request.getCurrency(),
-                            request.getDescription(),
-                            MoneyRequestEvent.EventType.REQUEST_EXPIRED
-                    )
-            );
+        LocalDateTime now = LocalDateTime.now();
+        int batchSize = properties.getBatchSize();
+        long expired = 0;
+        int claimed;
+        do {
+            // Each chunk leaves PENDING_APPROVAL, so the due set shrinks every round
+            claimed = requestService.expireDue(now, batchSize);
+            expired += claimed;
+        } while (claimed >= batchSize);
+
+        if (expired > 0) {
+            log.info("Expired {} pending money requests", expired);
         }
     }
 }
@@ -0,0 +1,17 @@
+package com.finpay.payment.request;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "finpay.payment.request.expiration")
+public class MoneyRequestExpirationProperties {
+
+    /** Maximum number of expired requests locked and expired per transaction. */
+    private int batchSize = 500;
+
+    /** Interval between expiration runs. */
+    private long intervalMs = 300_000;
+}
@@ -3,11 +3,17 @@ package com.finpay.payment.request;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -17,10 +23,35 @@ public interface MoneyRequestRepository extends JpaRepository<MoneyRequest, UUID
 
     Optional<MoneyRequest> findByRequestReference(String requestReference);
 
+    @Query("SELECT r.id FROM MoneyRequest r WHERE r.requestReference = :reference")
+    Optional<UUID> findIdByRequestReference(@Param("reference") String reference);
+
+    @Query("SELECT COUNT(r) > 0 FROM MoneyRequest r WHERE r.id = :id "
+            + "AND (r.requesterUserId = :userId OR r.payerUserId = :userId)")
+    boolean isParty(@Param("id") UUID id, @Param("userId") UUID userId);
+
     /** All requests where the user is either the requester or the payer. */
     @Query("SELECT r FROM MoneyRequest r WHERE r.requesterUserId = :userId OR r.payerUserId = :userId ORDER BY r.createdAt DESC")
     Page<MoneyRequest> findByUserIdAsParticipant(@Param("userId") UUID userId, Pageable pageable);
 
+    // Activity feed keyset pages: newest first, strictly before the (createdAt, id) cursor
+
+    @Query("SELECT r FROM MoneyRequest r WHERE r.requesterUserId = :userId "
+            + "AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)) "
+            + "ORDER BY r.createdAt DESC, r.id DESC")
+    List<MoneyRequest> findRequestedBefore(@Param("userId") UUID userId,
+                                           @Param("createdAt") LocalDateTime createdAt,
+                                           @Param("id") UUID id,
+                                           Pageable pageable);
+
+    @Query("SELECT r FROM MoneyRequest r WHERE r.payerUserId = :userId "
+            + "AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)) "
+            + "ORDER BY r.createdAt DESC, r.id DESC")
+    List<MoneyRequest> findIncomingBefore(@Param("userId") UUID userId,
+                                          @Param("createdAt") LocalDateTime createdAt,
+                                          @Param("id") UUID id,
+                                          Pageable pageable);
+
     /** Pending requests where this user is the payer (incoming requests to approve/decline). */
     @Query("SELECT r FROM MoneyRequest r WHERE r.payerUserId = :userId AND r.status = 'PENDING_APPROVAL' ORDER BY r.createdAt DESC")
     Page<MoneyRequest> findPendingForPayer(@Param("userId") UUID userId, Pageable pageable);
@@ -33,13 +64,76 @@ public interface MoneyRequestRepository extends JpaRepository<MoneyRequest, UUID
     @Query("SELECT COUNT(r) FROM MoneyRequest r WHERE r.payerUserId = :userId AND r.status = 'PENDING_APPROVAL'")
     long countPendingForPayer(@Param("userId") UUID userId);
 
-    /** Find expired requests that should be marked as EXPIRED. */
-    @Query("SELECT r FROM MoneyRequest r WHERE r.status = 'PENDING_APPROVAL' AND r.expiresAt < :now")
-    List<MoneyRequest> findExpiredRequests(@Param("now") LocalDateTime now);
+    /** Pending incoming counts for several payers; payers with none are left out. */
+    @Query("SELECT r.payerUserId AS payerUserId, COUNT(r) AS pending FROM MoneyRequest r "
+            + "WHERE r.payerUserId IN :payerIds AND r.status = 'PENDING_APPROVAL' GROUP BY r.payerUserId")
+    List<PendingCount> countPendingForPayers(@Param("payerIds") Collection<UUID> payerIds);
+
+    interface PendingCount {
+        UUID getPayerUserId();
+
+        long getPending();
+    }
+
+    /**
+     * Locks a chunk of pending requests past their expiry, oldest first.
+     * Rows already locked by another instance are skipped (SKIP LOCKED).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT r FROM MoneyRequest r WHERE r.status = 'PENDING_APPROVAL' AND r.expiresAt < :now "
+            + "ORDER BY r.expiresAt")
+    List<MoneyRequest> findExpiredForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /** Marks a locked chunk EXPIRED in one statement; rows that left PENDING_APPROVAL are kept. */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE MoneyRequest r SET r.status = 'EXPIRED', r.updatedAt = :now "
+            + "WHERE r.id IN :ids AND r.status = 'PENDING_APPROVAL'")
+    int expireAll(@Param("ids") List<UUID> ids, @Param("now") LocalDateTime now);
+
+    /** Find requests whose linked transfer failed and is being compensated. */
+    @Query("SELECT r FROM MoneyRequest r WHERE r.sagaStatus = 'FAILED'")
+    List<MoneyRequest> findPendingCompensations();
+
+    /**
+     * Moves a request out of PENDING_APPROVAL, writing only the changed
+     * columns. Matches nothing once the request was approved, declined,
+     * cancelled or expired by someone else.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE MoneyRequest r SET r.status = :status, r.sagaStatus = COALESCE(:sagaStatus, r.sagaStatus), "
+            + "r.approvedAt = COALESCE(:approvedAt, r.approvedAt), "
+            + "r.declinedAt = COALESCE(:declinedAt, r.declinedAt), r.updatedAt = :now "
+            + "WHERE r.id = :id AND r.status = 'PENDING_APPROVAL'")
+    int leavePending(@Param("id") UUID id,
+                     @Param("status") MoneyRequest.RequestStatus status,
+                     @Param("sagaStatus") MoneyRequest.SagaStatus sagaStatus,
+                     @Param("approvedAt") LocalDateTime approvedAt,
+                     @Param("declinedAt") LocalDateTime declinedAt,
+                     @Param("now") LocalDateTime now);
 
-    /** Find requests needing compensation. */
-    @Query("SELECT r FROM MoneyRequest r WHERE r.sagaStatus = :sagaStatus AND r.compensationRequired = true AND r.compensationCompleted = false")
-    List<MoneyRequest> findPendingCompensations(@Param("sagaStatus") MoneyRequest.SagaStatus sagaStatus);
+    /**
+     * Records the outcome of the linked transfer saga. Matches only while the
+     * saga is still running, so a repeated outcome updates nothing.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE MoneyRequest r SET r.status = :status, r.sagaStatus = :sagaStatus, r.sagaSteps = :sagaSteps, "
+            + "r.payerWalletId = COALESCE(:payerWalletId, r.payerWalletId), "
+            + "r.requesterWalletId = COALESCE(:requesterWalletId, r.requesterWalletId), "
+            + "r.failureReason = COALESCE(:failureReason, r.failureReason), "
+            + "r.failedAt = COALESCE(:failedAt, r.failedAt), "
+            + "r.completedAt = COALESCE(:completedAt, r.completedAt), r.updatedAt = :now "
+            + "WHERE r.id = :id AND r.sagaStatus = 'STARTED'")
+    int finishSaga(@Param("id") UUID id,
+                   @Param("status") MoneyRequest.RequestStatus status,
+                   @Param("sagaStatus") MoneyRequest.SagaStatus sagaStatus,
+                   @Param("sagaSteps") int sagaSteps,
+                   @Param("payerWalletId") UUID payerWalletId,
+                   @Param("requesterWalletId") UUID requesterWalletId,
+                   @Param("failureReason") String failureReason,
+                   @Param("failedAt") LocalDateTime failedAt,
+                   @Param("completedAt") LocalDateTime completedAt,
+                   @Param("now") LocalDateTime now);
 
     // Admin query methods
 
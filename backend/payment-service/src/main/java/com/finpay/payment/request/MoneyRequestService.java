@@ -1,22 +1,30 @@
 package com.finpay.payment.request;
 
+import com.finpay.id.ReferenceGenerator;
+import com.finpay.payment.detail.dto.TransactionDetailResponse.TransactionType;
+import com.finpay.payment.reference.ReferenceResolver;
 import com.finpay.payment.request.dto.MoneyRequestCreateDto;
 import com.finpay.payment.request.dto.MoneyRequestResponse;
 import com.finpay.payment.request.event.MoneyRequestEvent;
+import com.finpay.payment.rollup.TransactionRollupService;
 import com.finpay.payment.shared.exception.ResourceNotFoundException;
 import com.finpay.payment.shared.exception.TransferException;
 import com.finpay.payment.transfer.MoneyTransfer;
 import com.finpay.payment.transfer.MoneyTransferService;
+import com.finpay.saga.SagaSteps;
 import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * Money Request Service implementing the request-money flow.
@@ -38,9 +46,16 @@ public class MoneyRequestService {
 
     private static final int REQUEST_EXPIRY_DAYS = 7;
 
+    /** Step mask of a linked transfer that ran to completion. */
+    private static final int ALL_TRANSFER_STEPS = allSteps();
+
     private final MoneyRequestRepository requestRepository;
     private final MoneyTransferService moneyTransferService;
     private final MoneyRequestEventProducer requestEventProducer;
+    private final TransactionRollupService rollupService;
+    private final PendingRequestCounter pendingCounter;
+    private final ReferenceGenerator referenceGenerator;
+    private final ReferenceResolver referenceResolver;
 
     // Create Request
 
@@ -70,16 +85,12 @@ public class MoneyRequestService {
                 .description(dto.description())
                 .status(MoneyRequest.RequestStatus.PENDING_APPROVAL)
                 .sagaStatus(MoneyRequest.SagaStatus.NOT_STARTED)
-                .fundsReserved(false)
-                .fundsDeducted(false)
-                .fundsCredited(false)
-                .notificationSent(false)
-                .compensationRequired(false)
-                .compensationCompleted(false)
                 .expiresAt(LocalDateTime.now().plusDays(REQUEST_EXPIRY_DAYS))
                 .build();
 
         MoneyRequest saved = requestRepository.save(request);
+        referenceResolver.register(requestReference, TransactionType.MONEY_REQUEST, saved.getId());
+        pendingCounter.adjust(saved.getPayerUserId(), 1);
         log.info("Money request created: id={} ref={}", saved.getId(), requestReference);
 
         // Notify the payer about the incoming request via Kafka
@@ -108,6 +119,10 @@ public class MoneyRequestService {
 
         log.info("Payer {} approving request {}", payerUserId, requestId);
 
+        LocalDateTime now = LocalDateTime.now();
+        leavePending(request, MoneyRequest.RequestStatus.PROCESSING, MoneyRequest.SagaStatus.STARTED,
+                now, null, now);
+
         // 1. Delegate transfer creation + SAGA initiation to MoneyTransferService
         String description = request.getDescription() != null
                 ? request.getDescription()
@@ -123,13 +138,9 @@ public class MoneyRequestService {
         );
         log.info("Created MoneyTransfer {} for request {}", transfer.getId(), request.getId());
 
-        // 2. Update the request status
-        request.setStatus(MoneyRequest.RequestStatus.PROCESSING);
-        request.setSagaStatus(MoneyRequest.SagaStatus.STARTED);
-        request.setApprovedAt(LocalDateTime.now());
-        requestRepository.save(request);
+        pendingCounter.adjust(request.getPayerUserId(), -1);
 
-        // 3. Notify requester that their request was approved
+        // 2. Notify requester that their request was approved
         requestEventProducer.publishRequestEvent(
                 MoneyRequestEvent.create(
                         request.getId(), request.getRequestReference(),
@@ -154,9 +165,9 @@ public class MoneyRequestService {
 
         log.info("Payer {} declining request {}", payerUserId, requestId);
 
-        request.setStatus(MoneyRequest.RequestStatus.DECLINED);
-        request.setDeclinedAt(LocalDateTime.now());
-        requestRepository.save(request);
+        LocalDateTime now = LocalDateTime.now();
+        leavePending(request, MoneyRequest.RequestStatus.DECLINED, null, null, now, now);
+        pendingCounter.adjust(request.getPayerUserId(), -1);
 
         // Notify requester about decline
         requestEventProducer.publishRequestEvent(
@@ -190,8 +201,8 @@ public class MoneyRequestService {
 
         log.info("Requester {} cancelling request {}", requesterUserId, requestId);
 
-        request.setStatus(MoneyRequest.RequestStatus.CANCELLED);
-        requestRepository.save(request);
+        leavePending(request, MoneyRequest.RequestStatus.CANCELLED, null, null, null, LocalDateTime.now());
+        pendingCounter.adjust(request.getPayerUserId(), -1);
 
         // Notify payer that the request was cancelled
         requestEventProducer.publishRequestEvent(
@@ -207,6 +218,36 @@ public class MoneyRequestService {
         return MoneyRequestResponse.fromEntity(request);
     }
 
+    // Expiration
+
+    /**
+     * Expires one chunk of overdue pending requests in the caller's
+     * transaction: the chunk is locked with SKIP LOCKED, so instances running
+     * at the same time take disjoint chunks, then flipped with one UPDATE and
+     * announced with one batched outbox insert.
+     *
+     * @return number of requests claimed; fewer than {@code limit} means none are left
+     */
+    public int expireDue(LocalDateTime now, int limit) {
+        List<MoneyRequest> due = requestRepository.findExpiredForUpdate(now, PageRequest.of(0, limit));
+        if (due.isEmpty()) {
+            return 0;
+        }
+        requestRepository.expireAll(due.stream().map(MoneyRequest::getId).toList(), now);
+        pendingCounter.adjustAll(due.stream().collect(
+                Collectors.groupingBy(MoneyRequest::getPayerUserId, Collectors.summingLong(request -> -1L))));
+        requestEventProducer.publishRequestEvents(MoneyRequestEvent.EventType.REQUEST_EXPIRED,
+                due.stream()
+                        .map(request -> MoneyRequestEvent.create(
+                                request.getId(), request.getRequestReference(),
+                                request.getRequesterUserId(), request.getPayerUserId(),
+                                request.getAmount(), request.getCurrency(),
+                                request.getDescription(),
+                                MoneyRequestEvent.EventType.REQUEST_EXPIRED))
+                        .toList());
+        return due.size();
+    }
+
     // Query methods
 
     @Transactional(readOnly = true)
@@ -236,7 +277,7 @@ public class MoneyRequestService {
 
     @Transactional(readOnly = true)
     public long countPendingForPayer(UUID payerUserId) {
-        return requestRepository.countPendingForPayer(payerUserId);
+        return pendingCounter.get(payerUserId);
     }
 
     // Helpers
@@ -256,14 +297,36 @@ public class MoneyRequestService {
 
         // Check expiry
         if (request.getExpiresAt() != null && request.getExpiresAt().isBefore(LocalDateTime.now())) {
-            request.setStatus(MoneyRequest.RequestStatus.EXPIRED);
-            requestRepository.save(request);
             throw new TransferException("This money request has expired");
         }
 
         return request;
     }
 
+    /**
+     * Writes a transition out of PENDING_APPROVAL with one guarded UPDATE and
+     * mirrors it onto {@code request}. A concurrent approve, decline, cancel
+     * or expiry that got there first makes it fail.
+     */
+    private void leavePending(MoneyRequest request, MoneyRequest.RequestStatus status,
+                              MoneyRequest.SagaStatus sagaStatus, LocalDateTime approvedAt,
+                              LocalDateTime declinedAt, LocalDateTime now) {
+        if (requestRepository.leavePending(request.getId(), status, sagaStatus, approvedAt, declinedAt, now) == 0) {
+            throw new TransferException("Request is no longer pending");
+        }
+        request.setStatus(status);
+        if (sagaStatus != null) {
+            request.setSagaStatus(sagaStatus);
+        }
+        if (approvedAt != null) {
+            request.setApprovedAt(approvedAt);
+        }
+        if (declinedAt != null) {
+            request.setDeclinedAt(declinedAt);
+        }
+        request.setUpdatedAt(now);
+    }
+
     /**
      * Return the raw entity for cross-feature read access (e.g. transaction-detail view).
      */
@@ -278,17 +341,19 @@ public class MoneyRequestService {
     /**
      * Fail a money request whose linked transfer SAGA failed.
      * Called by the SAGA consumer - keeps request state management inside this service.
+     * Compensation itself runs on the transfer; a repeated failure is ignored.
      */
     public void failRequest(UUID requestId, String failureReason) {
         MoneyRequest request = requestRepository.findById(requestId)
                 .orElseThrow(() -> new ResourceNotFoundException("Money request not found: " + requestId));
 
-        request.setStatus(MoneyRequest.RequestStatus.FAILED);
-        request.setSagaStatus(MoneyRequest.SagaStatus.FAILED);
+        LocalDateTime now = LocalDateTime.now();
+        if (!finishSaga(request, MoneyRequest.RequestStatus.FAILED, MoneyRequest.SagaStatus.FAILED,
+                request.getSagaSteps(), null, null, failureReason, now)) {
+            return;
+        }
         request.setFailureReason(failureReason);
-        request.setFailedAt(LocalDateTime.now());
-        request.setCompensationRequired(true);
-        requestRepository.save(request);
+        request.setFailedAt(now);
 
         requestEventProducer.publishRequestEvent(
                 MoneyRequestEvent.withFailure(
@@ -310,16 +375,18 @@ public class MoneyRequestService {
         MoneyRequest request = requestRepository.findById(requestId)
                 .orElseThrow(() -> new ResourceNotFoundException("Money request not found: " + requestId));
 
-        request.setStatus(MoneyRequest.RequestStatus.COMPLETED);
-        request.setSagaStatus(MoneyRequest.SagaStatus.COMPLETED);
-        request.setCompletedAt(LocalDateTime.now());
-        request.setNotificationSent(true);
-        request.setFundsReserved(true);
-        request.setFundsDeducted(true);
-        request.setFundsCredited(true);
-        request.setPayerWalletId(payerWalletId);
-        request.setRequesterWalletId(requesterWalletId);
-        requestRepository.save(request);
+        LocalDateTime now = LocalDateTime.now();
+        if (!finishSaga(request, MoneyRequest.RequestStatus.COMPLETED, MoneyRequest.SagaStatus.COMPLETED,
+                ALL_TRANSFER_STEPS, payerWalletId, requesterWalletId, null, now)) {
+            return;
+        }
+        request.setCompletedAt(now);
+        if (payerWalletId != null) {
+            request.setPayerWalletId(payerWalletId);
+        }
+        if (requesterWalletId != null) {
+            request.setRequesterWalletId(requesterWalletId);
+        }
 
         requestEventProducer.publishRequestEvent(
                 MoneyRequestEvent.create(
@@ -334,8 +401,43 @@ public class MoneyRequestService {
         log.info("MoneyRequest {} completed via linked transfer", request.getId());
     }
 
+    /**
+     * Records the saga outcome with one UPDATE that only matches while the
+     * request is still STARTED, then mirrors status and steps onto the entity.
+     *
+     * @return false when the outcome was already recorded
+     */
+    private boolean finishSaga(MoneyRequest request, MoneyRequest.RequestStatus status,
+                               MoneyRequest.SagaStatus sagaStatus, int sagaSteps,
+                               UUID payerWalletId, UUID requesterWalletId, String failureReason,
+                               LocalDateTime now) {
+        int updated = requestRepository.finishSaga(request.getId(), status, sagaStatus, sagaSteps,
+                payerWalletId, requesterWalletId, failureReason,
+                failureReason != null ? now : null,
+                status == MoneyRequest.RequestStatus.COMPLETED ? now : null,
+                now);
+        if (updated == 0) {
+            log.info("Ignoring {} for money request {} already in {}", status, request.getId(), request.getSagaStatus());
+            return false;
+        }
+        request.setStatus(status);
+        request.setSagaStatus(sagaStatus);
+        request.setSagaSteps(sagaSteps);
+        request.setUpdatedAt(now);
+        rollupService.record(TransactionType.MONEY_REQUEST, status.name(), request.getCurrency(),
+                request.getAmount(), now);
+        return true;
+    }
+
+    private static int allSteps() {
+        int steps = 0;
+        for (MoneyTransfer.SagaStep step : MoneyTransfer.SagaStep.values()) {
+            steps = SagaSteps.withDone(steps, step, true);
+        }
+        return steps;
+    }
+
     private String generateRequestReference() {
-        return "REQ-" + System.currentTimeMillis() + "-"
-                + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        return referenceGenerator.next("REQ-");
     }
 }
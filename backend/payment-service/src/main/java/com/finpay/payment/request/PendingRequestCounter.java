@@ -0,0 +1,192 @@
+package com.finpay.payment.request;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per-payer count of incoming requests awaiting approval, kept in Redis so
+ * the badge is a single round trip instead of a COUNT query.
+ *
+ * Each counter is a hash of the count {@code n} and a version {@code v}.
+ * Counters are adjusted after the transaction that changed a request commits,
+ * and every adjustment bumps the version. A missing counter is seeded from the
+ * database on its next read, and seeded counters are periodically reconciled
+ * against the database to undo drift from lost updates. Both write the
+ * database count only if the version read before the query is unchanged, so
+ * an adjustment that lands in between is never overwritten. Counters expire a
+ * day after they were created and are seeded again on the next read. If Redis
+ * is unavailable the count is read from the database.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PendingRequestCounter {
+
+    /** Hash layout; the old string counters under payment:pending-requests: just expire. */
+    private static final String PREFIX = "payment:pending-request-counts:";
+    private static final Duration TTL = Duration.ofDays(1);
+    private static final int RECONCILE_BATCH = 500;
+
+    /** Returns {1, count} for a seeded counter, else creates the placeholder and returns {0, version}. */
+    @SuppressWarnings("rawtypes")
+    private static final DefaultRedisScript<List> READ = new DefaultRedisScript<>("""
+            local n = redis.call('HGET', KEYS[1], 'n')
+            if n then return {1, tonumber(n)} end
+            if redis.call('HSETNX', KEYS[1], 'v', 0) == 1 then
+              redis.call('PEXPIRE', KEYS[1], ARGV[1])
+            end
+            return {0, tonumber(redis.call('HGET', KEYS[1], 'v'))}
+            """, List.class);
+
+    private static final DefaultRedisScript<Long> ADJUST = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then return nil end
+            redis.call('HINCRBY', KEYS[1], 'v', 1)
+            if redis.call('HEXISTS', KEYS[1], 'n') == 0 then return nil end
+            return redis.call('HINCRBY', KEYS[1], 'n', ARGV[1])
+            """, Long.class);
+
+    /** Writes the count if the version still matches; the key's TTL is left as is. */
+    private static final DefaultRedisScript<Long> WRITE_IF_UNCHANGED = new DefaultRedisScript<>("""
+            local v = redis.call('HGET', KEYS[1], 'v')
+            if not v or v ~= ARGV[1] then return 0 end
+            redis.call('HSET', KEYS[1], 'n', ARGV[2])
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final MoneyRequestRepository requestRepository;
+
+    @SuppressWarnings("unchecked")
+    public long get(UUID payerUserId) {
+        String key = PREFIX + payerUserId;
+        List<Long> cached;
+        try {
+            cached = redisTemplate.execute(READ, List.of(key), Long.toString(TTL.toMillis()));
+        } catch (Exception e) {
+            log.debug("Pending-request counter read failed for {}, using DB: {}", payerUserId, e.getMessage());
+            return requestRepository.countPendingForPayer(payerUserId);
+        }
+        if (cached.get(0) == 1) {
+            return Math.max(0, cached.get(1));
+        }
+
+        long pending = requestRepository.countPendingForPayer(payerUserId);
+        try {
+            redisTemplate.execute(WRITE_IF_UNCHANGED, List.of(key), Long.toString(cached.get(1)), Long.toString(pending));
+        } catch (Exception e) {
+            log.debug("Failed to seed pending-request counter for {}: {}", payerUserId, e.getMessage());
+        }
+        return pending;
+    }
+
+    /** Applies {@code delta} once the current transaction commits. */
+    public void adjust(UUID payerUserId, long delta) {
+        adjustAll(Map.of(payerUserId, delta));
+    }
+
+    public void adjustAll(Map<UUID, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> deltas.forEach((payerUserId, delta) -> {
+            String key = PREFIX + payerUserId;
+            try {
+                redisTemplate.execute(ADJUST, List.of(key), Long.toString(delta));
+            } catch (Exception e) {
+                log.debug("Failed to adjust pending-request counter for {}: {}", payerUserId, e.getMessage());
+                evict(key);
+            }
+        }));
+    }
+
+    /**
+     * Overwrites seeded counters with the database count. A counter adjusted
+     * while its batch was being counted is skipped until the next run.
+     */
+    @Scheduled(fixedDelayString = "${finpay.payment.request.pending-counter.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        int reconciled = 0;
+        List<UUID> batch = new ArrayList<>(RECONCILE_BATCH);
+        ScanOptions options = ScanOptions.scanOptions().match(PREFIX + "*").count(RECONCILE_BATCH).build();
+        try (Cursor<String> keys = redisTemplate.scan(options)) {
+            while (keys.hasNext()) {
+                batch.add(UUID.fromString(keys.next().substring(PREFIX.length())));
+                if (batch.size() == RECONCILE_BATCH) {
+                    reconciled += reconcile(batch);
+                    batch.clear();
+                }
+            }
+            reconciled += reconcile(batch);
+        } catch (Exception e) {
+            log.warn("Pending-request counter reconciliation stopped: {}", e.getMessage());
+        }
+        if (reconciled > 0) {
+            log.debug("Reconciled {} pending-request counters", reconciled);
+        }
+    }
+
+    private int reconcile(List<UUID> payerUserIds) {
+        if (payerUserIds.isEmpty()) {
+            return 0;
+        }
+        Map<UUID, Object> versions = new HashMap<>();
+        for (UUID payerUserId : payerUserIds) {
+            Object version = redisTemplate.opsForHash().get(PREFIX + payerUserId, "v");
+            if (version != null) {
+                versions.put(payerUserId, version);
+            }
+        }
+        if (versions.isEmpty()) {
+            return 0;
+        }
+        Map<UUID, Long> pending = new HashMap<>();
+        for (MoneyRequestRepository.PendingCount count : requestRepository.countPendingForPayers(versions.keySet())) {
+            pending.put(count.getPayerUserId(), count.getPending());
+        }
+        int written = 0;
+        for (Map.Entry<UUID, Object> version : versions.entrySet()) {
+            Long result = redisTemplate.execute(WRITE_IF_UNCHANGED, List.of(PREFIX + version.getKey()),
+                    version.getValue().toString(), Long.toString(pending.getOrDefault(version.getKey(), 0L)));
+            if (result != null && result == 1) {
+                written++;
+            }
+        }
+        return written;
+    }
+
+    private void evict(String key) {
+        try {
+            redisTemplate.delete(key);
+        } catch (Exception e) {
+            log.debug("Failed to evict pending-request counter {}: {}", key, e.getMessage());
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.finpay.payment.rollup;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Bucket sizes kept in {@code transaction_rollups}. Finer buckets are only
+ * kept for as long as charts zoom in that far.
+ */
+public enum RollupGranularity {
+
+    MINUTE(ChronoUnit.MINUTES, Duration.ofDays(7)),
+    HOUR(ChronoUnit.HOURS, Duration.ofDays(180)),
+    DAY(ChronoUnit.DAYS, null);
+
+    /** Most buckets one series request may span. */
+    static final long MAX_BUCKETS = 2_000;
+
+    private final ChronoUnit unit;
+    private final Duration retention;
+
+    RollupGranularity(ChronoUnit unit, Duration retention) {
+        this.unit = unit;
+        this.retention = retention;
+    }
+
+    public LocalDateTime bucketOf(LocalDateTime at) {
+        return at.truncatedTo(unit);
+    }
+
+    public long bucketsBetween(LocalDateTime from, LocalDateTime to) {
+        return unit.between(bucketOf(from), to);
+    }
+
+    /** Null when buckets are kept forever. */
+    public Duration retention() {
+        return retention;
+    }
+}
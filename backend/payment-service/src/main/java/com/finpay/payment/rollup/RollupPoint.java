@@ -0,0 +1,16 @@
+package com.finpay.payment.rollup;
+
+import com.finpay.payment.detail.dto.TransactionDetailResponse.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record RollupPoint(
+        LocalDateTime bucketStart,
+        TransactionType type,
+        String status,
+        String currency,
+        long count,
+        BigDecimal volume
+) {
+}
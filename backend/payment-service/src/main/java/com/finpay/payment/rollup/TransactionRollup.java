@@ -0,0 +1,47 @@
+package com.finpay.payment.rollup;
+
+import com.finpay.payment.detail.dto.TransactionDetailResponse.TransactionType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Count and volume of transactions that reached a final status within one
+ * time bucket, per type, status and currency. Rows are only ever incremented,
+ * in the transaction that records the saga outcome.
+ */
+@Entity
+@Table(name = "transaction_rollups", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_rollup_bucket",
+                columnNames = {"granularity", "bucketStart", "transactionType", "status", "currency"})
+})
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class TransactionRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, columnDefinition = "VARCHAR(10)") @Enumerated(EnumType.STRING)
+    private RollupGranularity granularity;
+
+    @Column(nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(nullable = false, columnDefinition = "VARCHAR(20)") @Enumerated(EnumType.STRING)
+    private TransactionType transactionType;
+
+    @Column(nullable = false, length = 20)
+    private String status;
+
+    @Column(nullable = false, length = 3)
+    private String currency;
+
+    @Column(nullable = false)
+    private long transactionCount;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal volume;
+}
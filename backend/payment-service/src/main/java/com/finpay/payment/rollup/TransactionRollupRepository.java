@@ -0,0 +1,42 @@
+package com.finpay.payment.rollup;
+
+import com.finpay.payment.detail.dto.TransactionDetailResponse.TransactionType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TransactionRollupRepository extends JpaRepository<TransactionRollup, Long> {
+
+    /** Adds one transaction to its bucket, creating the bucket on first use. */
+    @Modifying
+    @Query(value = "INSERT INTO transaction_rollups "
+            + "(granularity, bucket_start, transaction_type, status, currency, transaction_count, volume) "
+            + "VALUES (:granularity, :bucketStart, :type, :status, :currency, 1, :amount) "
+            + "ON DUPLICATE KEY UPDATE transaction_count = transaction_count + 1, volume = volume + :amount",
+            nativeQuery = true)
+    int increment(@Param("granularity") String granularity,
+                  @Param("bucketStart") LocalDateTime bucketStart,
+                  @Param("type") String type,
+                  @Param("status") String status,
+                  @Param("currency") String currency,
+                  @Param("amount") BigDecimal amount);
+
+    @Query("SELECT r FROM TransactionRollup r WHERE r.granularity = :granularity "
+            + "AND r.bucketStart >= :from AND r.bucketStart < :to "
+            + "AND (:type IS NULL OR r.transactionType = :type) "
+            + "ORDER BY r.bucketStart")
+    List<TransactionRollup> findSeries(@Param("granularity") RollupGranularity granularity,
+                                       @Param("from") LocalDateTime from,
+                                       @Param("to") LocalDateTime to,
+                                       @Param("type") TransactionType type);
+
+    @Modifying
+    @Query("DELETE FROM TransactionRollup r WHERE r.granularity = :granularity AND r.bucketStart < :before")
+    int deleteOlderThan(@Param("granularity") RollupGranularity granularity,
+                        @Param("before") LocalDateTime before);
+}
@@ -0,0 +1,71 @@
+package com.finpay.payment.rollup;
+
+import com.finpay.payment.detail.dto.TransactionDetailResponse.TransactionType;
+import com.finpay.payment.shared.exception.PaymentException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Per-minute, hour and day rollups of finished transactions.
+ *
+ * Each saga outcome adds itself to one bucket per granularity with an upsert
+ * in the same transaction as the guarded status change, so every outcome is
+ * counted exactly once. Charts then read a handful of rollup rows instead of
+ * the transactions themselves.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionRollupService {
+
+    private final TransactionRollupRepository rollupRepository;
+
+    /** Must run inside the transaction that records the outcome. */
+    @Transactional
+    public void record(TransactionType type, String status, String currency, BigDecimal amount,
+                       LocalDateTime at) {
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            rollupRepository.increment(granularity.name(), granularity.bucketOf(at), type.name(), status,
+                    currency, amount);
+        }
+    }
+
+    /** Buckets in {@code [from, to)}, oldest first; {@code type} null for all types. */
+    @Transactional(readOnly = true)
+    public List<RollupPoint> getSeries(RollupGranularity granularity, LocalDateTime from, LocalDateTime to,
+                                       TransactionType type) {
+        if (!from.isBefore(to)) {
+            throw new PaymentException("Range start must be before its end");
+        }
+        if (granularity.bucketsBetween(from, to) > RollupGranularity.MAX_BUCKETS) {
+            throw new PaymentException("Range spans more than " + RollupGranularity.MAX_BUCKETS + " "
+                    + granularity.name().toLowerCase() + " buckets");
+        }
+        return rollupRepository.findSeries(granularity, granularity.bucketOf(from), to, type).stream()
+                .map(r -> new RollupPoint(r.getBucketStart(), r.getTransactionType(), r.getStatus(),
+                        r.getCurrency(), r.getTransactionCount(), r.getVolume()))
+                .toList();
+    }
+
+    @Scheduled(cron = "0 15 3 * * *") // daily at 03:15
+    @Transactional
+    public void purgeExpiredBuckets() {
+        LocalDateTime now = LocalDateTime.now();
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            if (granularity.retention() == null) {
+                continue;
+            }
+            int deleted = rollupRepository.deleteOlderThan(granularity, now.minus(granularity.retention()));
+            if (deleted > 0) {
+                log.info("Purged {} {} rollup buckets", deleted, granularity);
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.finpay.payment.shared.event;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -15,7 +16,8 @@ public record WalletCommandEvent(
         BigDecimal amount,
         String currency,
         String description,
-        LocalDateTime timestamp
+        LocalDateTime timestamp,
+        Duration holdFor         // RESERVE_FUNDS only: how long the funds stay held; null = wallet default
 ) {
     public enum CommandType {
         RESERVE_FUNDS,
@@ -28,6 +30,12 @@ public record WalletCommandEvent(
 
     public static WalletCommandEvent create(UUID correlationId, UUID userId, CommandType command,
                                              BigDecimal amount, String currency, String description) {
+        return create(correlationId, userId, command, amount, currency, description, null);
+    }
+
+    public static WalletCommandEvent create(UUID correlationId, UUID userId, CommandType command,
+                                             BigDecimal amount, String currency, String description,
+                                             Duration holdFor) {
         return new WalletCommandEvent(
                 UUID.randomUUID(),
                 correlationId,
@@ -36,7 +44,8 @@ public record WalletCommandEvent(
                 amount,
                 currency,
                 description,
-                LocalDateTime.now()
+                LocalDateTime.now(),
+                holdFor
         );
     }
 }
@@ -0,0 +1,12 @@
+package com.finpay.payment.shared.exception;
+
+/**
+ * Thrown when a payment cannot be handed to the card gateway because every
+ * bulkhead slot is taken; the caller should retry later.
+ */
+public class GatewayUnavailableException extends RuntimeException {
+
+    public GatewayUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package com.finpay.payment.shared.exception;
+
+/**
+ * Thrown when an {@code Idempotency-Key} is still being processed by an
+ * earlier request, or was already used for a different request body.
+ */
+public class IdempotencyConflictException extends RuntimeException {
+
+    private final boolean keyReused;
+
+    public IdempotencyConflictException(String message, boolean keyReused) {
+        super(message);
+        this.keyReused = keyReused;
+    }
+
+    public boolean isKeyReused() {
+        return keyReused;
+    }
+}
@@ -0,0 +1,22 @@
+package com.finpay.payment.shared.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a transfer would break a velocity rule; the caller may retry
+ * once older transfers have left the rule's window.
+ */
+@Getter
+public class VelocityLimitExceededException extends RuntimeException {
+
+    private final String rule;
+    private final Duration retryAfter;
+
+    public VelocityLimitExceededException(String rule, Duration retryAfter) {
+        super("Transfer rejected by velocity rule '" + rule + "'");
+        this.rule = rule;
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,15 @@
+package com.finpay.payment.shared.id;
+
+import com.finpay.id.ReferenceGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IdConfig {
+
+    @Bean
+    public ReferenceGenerator referenceGenerator(NodeIdLease nodeIdLease) {
+        nodeIdLease.acquire();
+        return new ReferenceGenerator(nodeIdLease::nodeId);
+    }
+}
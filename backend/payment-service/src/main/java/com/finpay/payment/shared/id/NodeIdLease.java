@@ -0,0 +1,144 @@
+package com.finpay.payment.shared.id;
+
+import com.finpay.id.ReferenceGenerator;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Gives this instance a node ID no other running instance holds, so the
+ * references it generates cannot collide with theirs.
+ *
+ * A configured ID ({@code PAYMENT_NODE_ID}) is used as is. Otherwise a free ID
+ * is claimed in Redis with SET NX and kept alive by renewal; a crashed
+ * instance's ID only frees up after the lease TTL. If no ID can be leased at
+ * startup, startup fails.
+ *
+ * {@link #nodeId()} only answers while the lease is known to be held: once it
+ * is taken over or goes unrenewed past its TTL, references are refused until
+ * renewal leases a new ID.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NodeIdLease {
+
+    private static final String PREFIX = "payment:node-id:";
+
+    private static final DefaultRedisScript<Long> RENEW = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) ~= ARGV[1] then return 0 end
+            return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            """, Long.class);
+
+    private static final DefaultRedisScript<Long> RELEASE = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) ~= ARGV[1] then return 0 end
+            return redis.call('DEL', KEYS[1])
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final NodeIdProperties properties;
+    private final String owner = UUID.randomUUID().toString();
+
+    private volatile String leasedKey;
+    private volatile int leasedId = -1;
+
+    /** When the lease lapses unless renewed, in {@link System#nanoTime()} terms. */
+    private volatile long validUntilNanos;
+
+    /** Leases a node ID, failing if none can be leased and none is configured. */
+    public synchronized int acquire() {
+        if (properties.getId() != null) {
+            log.info("Using configured node ID {}", properties.getId());
+            return properties.getId();
+        }
+        boolean leased;
+        try {
+            leased = lease();
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not lease a node ID from Redis; set PAYMENT_NODE_ID to run without it", e);
+        }
+        if (!leased) {
+            throw new IllegalStateException("All " + (ReferenceGenerator.MAX_NODE_ID + 1) + " node IDs are leased");
+        }
+        return leasedId;
+    }
+
+    /** The node ID to generate references with; throws while no lease is held. */
+    public int nodeId() {
+        if (properties.getId() != null) {
+            return properties.getId();
+        }
+        int nodeId = leasedId;
+        if (nodeId < 0 || System.nanoTime() - validUntilNanos > 0) {
+            throw new IllegalStateException("No node ID lease held; references are unavailable until it is renewed");
+        }
+        return nodeId;
+    }
+
+    @Scheduled(fixedDelayString = "${finpay.payment.node-id.renew-interval-ms:20000}")
+    public synchronized void renew() {
+        if (properties.getId() != null) {
+            return;
+        }
+        String key = leasedKey;
+        try {
+            if (key != null) {
+                long started = System.nanoTime();
+                Long renewed = redisTemplate.execute(RENEW, List.of(key), owner,
+                        Long.toString(properties.getLeaseTtl().toMillis()));
+                if (!Long.valueOf(0).equals(renewed)
+                        || Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, owner, properties.getLeaseTtl()))) {
+                    validUntilNanos = started + properties.getLeaseTtl().toNanos();
+                    return;
+                }
+                log.error("Lease on {} was taken over by another instance; refusing references until a new node ID is leased", key);
+                leasedKey = null;
+                leasedId = -1;
+            }
+            if (!lease()) {
+                log.error("No free node ID to lease; references stay unavailable");
+            }
+        } catch (Exception e) {
+            log.warn("Failed to renew node ID lease on {}: {}", key, e.getMessage());
+        }
+    }
+
+    /** Claims the first free node ID from a random start; false if all are taken. */
+    private boolean lease() {
+        int start = ThreadLocalRandom.current().nextInt(ReferenceGenerator.MAX_NODE_ID + 1);
+        for (int i = 0; i <= ReferenceGenerator.MAX_NODE_ID; i++) {
+            int nodeId = (start + i) % (ReferenceGenerator.MAX_NODE_ID + 1);
+            String key = PREFIX + nodeId;
+            long started = System.nanoTime();
+            if (Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, owner, properties.getLeaseTtl()))) {
+                validUntilNanos = started + properties.getLeaseTtl().toNanos();
+                leasedKey = key;
+                leasedId = nodeId;
+                log.info("Leased node ID {}", nodeId);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @PreDestroy
+    public void release() {
+        String key = leasedKey;
+        if (key == null) {
+            return;
+        }
+        try {
+            redisTemplate.execute(RELEASE, List.of(key), owner);
+        } catch (Exception e) {
+            log.debug("Failed to release lease on {}: {}", key, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.finpay.payment.shared.id;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "finpay.payment.node-id")
+public class NodeIdProperties {
+
+    /** Fixed node ID for reference generation; leased from Redis when unset. */
+    private Integer id;
+
+    /** How long a leased node ID stays reserved without renewal. */
+    private Duration leaseTtl = Duration.ofSeconds(60);
+
+    /** How often the lease is renewed; well below the TTL. */
+    private long renewIntervalMs = 20_000;
+}
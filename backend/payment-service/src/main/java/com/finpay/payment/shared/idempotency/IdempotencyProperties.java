@@ -0,0 +1,30 @@
+package com.finpay.payment.shared.idempotency;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "finpay.payment.idempotency")
+public class IdempotencyProperties {
+
+    /** How long a stored response is replayed for the same key. */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * After this long an unfinished claim is considered abandoned and may be
+     * taken over. Well above the slowest create path, including a full InnoDB
+     * lock wait; a request that still finishes after a takeover cannot store
+     * its response over the new claim.
+     */
+    private Duration claimTimeout = Duration.ofMinutes(5);
+
+    /** How long a duplicate request waits for the original to finish before getting 409. */
+    private Duration waitTimeout = Duration.ofSeconds(5);
+
+    /** Polling interval while waiting on a request handled by another instance. */
+    private long pollIntervalMs = 100;
+}
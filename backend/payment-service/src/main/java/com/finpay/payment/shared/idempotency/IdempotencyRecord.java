@@ -0,0 +1,53 @@
+package com.finpay.payment.shared.idempotency;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Durable copy of a client {@code Idempotency-Key} and the response it
+ * produced. Redis holds the same data for fast replays; this row is the
+ * source of truth and doubles as the cross-instance claim on the key.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_expires_at", columnList = "expiresAt")
+})
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class IdempotencyRecord {
+
+    /** {@code scope:userId:key} */
+    @Id
+    @Column(length = 200)
+    private String id;
+
+    /** SHA-256 of the request body, to reject a key reused for a different request. */
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(nullable = false, columnDefinition = "VARCHAR(20)") @Enumerated(EnumType.STRING)
+    private Status status;
+
+    private Integer responseStatus;
+
+    @Lob @Column(columnDefinition = "TEXT")
+    private String responseBody;
+
+    /** Fencing token of the request holding the claim; only it may complete or release the row. */
+    @Column(length = 36)
+    private String claimToken;
+
+    /** Null until first persisted, so a second claim on the same key fails on insert instead of merging. */
+    @Version
+    private Long version;
+
+    @CreationTimestamp @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    public enum Status { IN_PROGRESS, COMPLETED }
+}
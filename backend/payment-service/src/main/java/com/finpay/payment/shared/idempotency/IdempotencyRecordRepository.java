@@ -0,0 +1,43 @@
+package com.finpay.payment.shared.idempotency;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+
+    /** Stores the response, if the claim is still held by {@code token}. */
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.status = "
+            + "com.finpay.payment.shared.idempotency.IdempotencyRecord.Status.COMPLETED, "
+            + "r.responseStatus = :responseStatus, r.responseBody = :responseBody, r.expiresAt = :expiresAt, "
+            + "r.version = r.version + 1 WHERE r.id = :id AND r.claimToken = :token AND r.status = "
+            + "com.finpay.payment.shared.idempotency.IdempotencyRecord.Status.IN_PROGRESS")
+    int completeClaim(@Param("id") String id, @Param("token") String token,
+                      @Param("responseStatus") int responseStatus, @Param("responseBody") String responseBody,
+                      @Param("expiresAt") LocalDateTime expiresAt);
+
+    /** Drops the claim so the client can retry, if it is still held by {@code token}. */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.id = :id AND r.claimToken = :token AND r.status = "
+            + "com.finpay.payment.shared.idempotency.IdempotencyRecord.Status.IN_PROGRESS")
+    int releaseClaim(@Param("id") String id, @Param("token") String token);
+
+    /** Drops a stale claim so an abandoned key can be taken over. */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.id = :id AND r.status = "
+            + "com.finpay.payment.shared.idempotency.IdempotencyRecord.Status.IN_PROGRESS AND r.createdAt < :before")
+    int deleteStaleClaim(@Param("id") String id, @Param("before") LocalDateTime before);
+}
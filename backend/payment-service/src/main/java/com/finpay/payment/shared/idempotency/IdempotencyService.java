@@ -0,0 +1,296 @@
+package com.finpay.payment.shared.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finpay.payment.shared.exception.IdempotencyConflictException;
+import com.finpay.payment.shared.exception.PaymentException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Makes create endpoints safe to retry with a client {@code Idempotency-Key}.
+ *
+ * The first request for a key claims it with an {@code IN_PROGRESS} row,
+ * runs the action and stores the response in the database and Redis. Later
+ * requests with the same key get the stored response back instead of
+ * starting another saga:
+ * <ul>
+ *   <li>duplicates arriving on the same instance while the original is still
+ *       running wait on its in-memory future;</li>
+ *   <li>duplicates on other instances lose the insert race on the row and
+ *       poll Redis / the database until the response is stored.</li>
+ * </ul>
+ * If the action throws, the claim is removed so the client can retry.
+ *
+ * A claim unfinished after the claim timeout may be taken over. Each claim
+ * carries a fencing token, and a request only completes or releases the row
+ * while it still holds the token, so one that finishes after a takeover
+ * cannot overwrite the new owner's claim.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final String CACHE_PREFIX = "payment:idempotency:";
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyRecordRepository recordRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyProperties properties;
+
+    private final ConcurrentMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyRecordRepository recordRepository,
+                              StringRedisTemplate redisTemplate,
+                              ObjectMapper kafkaObjectMapper,
+                              IdempotencyProperties properties) {
+        this.recordRepository = recordRepository;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = kafkaObjectMapper;
+        this.properties = properties;
+    }
+
+    /**
+     * Runs {@code action} at most once per {@code (scope, userId, key)} and
+     * replays its response for repeated requests. Without a key the action
+     * simply runs.
+     */
+    public <T> ResponseEntity<T> execute(String scope, UUID userId, String key, Object request,
+                                         Class<T> responseType, Supplier<ResponseEntity<T>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new PaymentException(HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        String id = scope + ":" + userId + ":" + key;
+        String requestHash = hash(request);
+
+        StoredResponse cached = readCache(id);
+        if (cached != null) {
+            return replay(cached, requestHash, responseType);
+        }
+
+        CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> original = inFlight.putIfAbsent(id, mine);
+        if (original != null) {
+            log.debug("Coalescing duplicate request for idempotency key {}", id);
+            return replay(await(original), requestHash, responseType);
+        }
+        try {
+            Outcome<T> outcome = claimAndRun(id, requestHash, responseType, action);
+            mine.complete(outcome.stored());
+            return outcome.response();
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, mine);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${finpay.payment.idempotency.cleanup-interval-ms:3600000}")
+    @Transactional
+    public void cleanup() {
+        int deleted = recordRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("Removed {} expired idempotency keys", deleted);
+        }
+    }
+
+    // Claim / run / store
+
+    private <T> Outcome<T> claimAndRun(String id, String requestHash, Class<T> responseType,
+                                       Supplier<ResponseEntity<T>> action) {
+        long deadline = System.nanoTime() + properties.getWaitTimeout().toNanos();
+        String token;
+        while ((token = claim(id, requestHash)) == null) {
+            StoredResponse stored = awaitOtherInstance(id, deadline);
+            if (stored != null) {
+                return new Outcome<>(replay(stored, requestHash, responseType), stored);
+            }
+            // The other attempt failed and released its claim; take over
+        }
+
+        ResponseEntity<T> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            recordRepository.releaseClaim(id, token);
+            throw e;
+        }
+        return new Outcome<>(response, store(id, requestHash, token, response));
+    }
+
+    /** Inserts the claim row and returns its fencing token, or {@code null} if the key is taken. */
+    private String claim(String id, String requestHash) {
+        String token = UUID.randomUUID().toString();
+        IdempotencyRecord claim = IdempotencyRecord.builder()
+                .id(id)
+                .requestHash(requestHash)
+                .claimToken(token)
+                .status(IdempotencyRecord.Status.IN_PROGRESS)
+                .expiresAt(LocalDateTime.now().plus(properties.getTtl()))
+                .build();
+        try {
+            recordRepository.saveAndFlush(claim);
+            return token;
+        } catch (DataIntegrityViolationException e) {
+            LocalDateTime staleBefore = LocalDateTime.now().minus(properties.getClaimTimeout());
+            if (recordRepository.deleteStaleClaim(id, staleBefore) > 0) {
+                log.warn("Taking over abandoned idempotency claim {}", id);
+                return claim(id, requestHash);
+            }
+            return null;
+        }
+    }
+
+    private StoredResponse store(String id, String requestHash, String token, ResponseEntity<?> response) {
+        StoredResponse stored = new StoredResponse(requestHash, response.getStatusCode().value(),
+                toJson(response.getBody()));
+        if (recordRepository.completeClaim(id, token, stored.status(), stored.body(),
+                LocalDateTime.now().plus(properties.getTtl())) == 0) {
+            log.warn("Idempotency claim {} was taken over while the request ran; its response is not stored", id);
+            return stored;
+        }
+        writeCache(id, stored);
+        return stored;
+    }
+
+    // Waiting on duplicates
+
+    private StoredResponse await(CompletableFuture<StoredResponse> original) {
+        try {
+            return original.get(properties.getWaitTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw stillProcessing();
+        } catch (ExecutionException e) {
+            // The duplicate sees the same outcome as the original request
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw stillProcessing();
+        }
+    }
+
+    /**
+     * Polls until the request owning the claim stores its response. Returns
+     * {@code null} if the claim disappears because that request failed.
+     */
+    private StoredResponse awaitOtherInstance(String id, long deadline) {
+        while (System.nanoTime() < deadline) {
+            StoredResponse cached = readCache(id);
+            if (cached != null) {
+                return cached;
+            }
+            IdempotencyRecord record = recordRepository.findById(id).orElse(null);
+            if (record == null) {
+                return null;
+            }
+            if (record.getStatus() == IdempotencyRecord.Status.COMPLETED) {
+                StoredResponse stored = new StoredResponse(record.getRequestHash(),
+                        record.getResponseStatus(), record.getResponseBody());
+                writeCache(id, stored);
+                return stored;
+            }
+            try {
+                Thread.sleep(properties.getPollIntervalMs());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        throw stillProcessing();
+    }
+
+    private static IdempotencyConflictException stillProcessing() {
+        return new IdempotencyConflictException(
+                "A request with this " + HEADER + " is still being processed", false);
+    }
+
+    // Replay
+
+    private <T> ResponseEntity<T> replay(StoredResponse stored, String requestHash, Class<T> responseType) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IdempotencyConflictException(
+                    HEADER + " was already used for a different request", true);
+        }
+        try {
+            T body = stored.body() != null ? objectMapper.readValue(stored.body(), responseType) : null;
+            return ResponseEntity.status(stored.status()).header(REPLAYED_HEADER, "true").body(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored idempotent response cannot be read", e);
+        }
+    }
+
+    // Redis
+
+    private StoredResponse readCache(String id) {
+        try {
+            String json = redisTemplate.opsForValue().get(CACHE_PREFIX + id);
+            return json != null ? objectMapper.readValue(json, StoredResponse.class) : null;
+        } catch (Exception e) {
+            log.debug("Idempotency cache read failed for {}, falling back to DB: {}", id, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeCache(String id, StoredResponse stored) {
+        try {
+            redisTemplate.opsForValue().set(CACHE_PREFIX + id, objectMapper.writeValueAsString(stored),
+                    properties.getTtl());
+        } catch (Exception e) {
+            log.debug("Failed to cache idempotent response for {}: {}", id, e.getMessage());
+        }
+    }
+
+    // Helpers
+
+    private String hash(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(toJson(request).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return value != null ? objectMapper.writeValueAsString(value) : null;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + value.getClass().getSimpleName(), e);
+        }
+    }
+
+    record StoredResponse(String requestHash, int status, String body) {}
+
+    private record Outcome<T>(ResponseEntity<T> response, StoredResponse stored) {}
+}
@@ -1,12 +1,16 @@
 package com.finpay.payment.shared.kafka;
 
 import com.finpay.payment.shared.event.WalletCommandEvent;
+import com.finpay.payment.shared.saga.SagaWatchdogProperties;
 import com.finpay.outbox.service.OutboxService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -16,6 +20,9 @@ import java.util.UUID;
  * Uses the Transactional Outbox Pattern: commands are persisted to the
  * {@code outbox_events} table within the caller's database transaction
  * instead of being sent directly to Kafka.
+ *
+ * Reservations ask wallet-service to hold the funds for as long as the saga
+ * may still capture them, see {@link SagaWatchdogProperties#holdDuration()}.
  */
 @Component
 @RequiredArgsConstructor
@@ -25,6 +32,7 @@ public class WalletCommandProducer {
     private static final String WALLET_COMMANDS_TOPIC = "wallet-commands";
 
     private final OutboxService outboxService;
+    private final SagaWatchdogProperties sagaProperties;
 
     public void sendCommand(WalletCommandEvent event) {
         log.info("Saving wallet command to outbox: {} for correlationId: {}, userId: {}, amount: {}",
@@ -40,10 +48,26 @@ public class WalletCommandProducer {
         );
     }
 
+    /**
+     * Saves many commands of one type, keyed by their correlation IDs, with a
+     * single batched outbox insert.
+     */
+    public void sendCommands(WalletCommandEvent.CommandType command, List<WalletCommandEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        Map<String, WalletCommandEvent> byCorrelationId = new LinkedHashMap<>();
+        for (WalletCommandEvent event : events) {
+            byCorrelationId.put(event.correlationId().toString(), event);
+        }
+        log.info("Saving {} {} wallet commands to outbox", events.size(), command);
+        outboxService.saveEvents("WalletCommand", command.name(), WALLET_COMMANDS_TOPIC, byCorrelationId);
+    }
+
     public void reserveFunds(UUID transferId, UUID userId, BigDecimal amount, String currency, String description) {
         WalletCommandEvent event = WalletCommandEvent.create(
                 transferId, userId, WalletCommandEvent.CommandType.RESERVE_FUNDS,
-                amount, currency, description
+                amount, currency, description, sagaProperties.holdDuration()
         );
         sendCommand(event);
     }
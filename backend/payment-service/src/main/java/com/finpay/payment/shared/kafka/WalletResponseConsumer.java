@@ -7,6 +7,7 @@ import com.finpay.payment.billpayment.BillPaymentService;
 import com.finpay.payment.request.MoneyRequestService;
 import com.finpay.payment.transfer.MoneyTransferService;
 import com.finpay.payment.transfer.TransferSagaStepResult;
+import com.finpay.payment.transfer.batch.TransferBatchService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
@@ -41,6 +42,7 @@ public class WalletResponseConsumer {
     private final MoneyTransferService transferService;
     private final MoneyRequestService requestService;
     private final BillPaymentService billPaymentService;
+    private final TransferBatchService transferBatchService;
     private final ObjectMapper kafkaObjectMapper;
     private final IdempotentConsumerService idempotentConsumer;
 
@@ -90,7 +92,7 @@ public class WalletResponseConsumer {
 
         // Route to transfer saga
         if (transferService.findOptionalById(correlationId).isEmpty()) {
-            log.warn("No transfer or bill payment found for correlationId: {}", correlationId);
+            routeToTransferBatch(correlationId, event);
             return;
         }
 
@@ -152,12 +154,71 @@ public class WalletResponseConsumer {
             case FUNDS_RESERVED -> billPaymentService.handleFundsReserved(
                     correlationId, event.walletId());
             case FUNDS_DEDUCTED -> billPaymentService.handleFundsDeducted(correlationId);
-            case FUNDS_RELEASED, DEDUCTION_REVERSED ->
-                    billPaymentService.handleCompensated(correlationId);
+            case FUNDS_RELEASED -> billPaymentService.handleFundsReleased(correlationId);
+            case DEDUCTION_REVERSED -> billPaymentService.handleDeductionReversed(correlationId);
             case OPERATION_FAILED ->
                     billPaymentService.handleFailure(correlationId, event.failureReason());
             default -> log.warn("Unhandled response type {} for bill payment {}",
                     event.responseType(), correlationId);
         }
     }
+
+    // Transfer batches: the funding saga is correlated by batch ID, item credits by item ID
+    // and the refund of a failed credit by the item's refund ID
+
+    private void routeToTransferBatch(UUID correlationId, WalletResponseEvent event) {
+        if (transferBatchService.isBatch(correlationId)) {
+            routeToBatchFunding(correlationId, event);
+        } else if (transferBatchService.isBatchItem(correlationId)) {
+            routeToBatchItem(correlationId, event);
+        } else if (transferBatchService.isBatchItemRefund(correlationId)) {
+            routeToBatchItemRefund(correlationId, event);
+        } else {
+            log.warn("No transfer, bill payment or transfer batch found for correlationId: {}", correlationId);
+        }
+    }
+
+    private void routeToBatchFunding(UUID batchId, WalletResponseEvent event) {
+        if (!event.success()) {
+            transferBatchService.handleFundingFailure(batchId, event.failureReason());
+            return;
+        }
+
+        switch (event.responseType()) {
+            case FUNDS_RESERVED -> transferBatchService.handleFundsReserved(batchId);
+            case FUNDS_DEDUCTED -> transferBatchService.handleFundsDeducted(batchId);
+            case FUNDS_RELEASED -> transferBatchService.handleFundsReleased(batchId);
+            case DEDUCTION_REVERSED -> transferBatchService.handleDeductionReversed(batchId);
+            case OPERATION_FAILED -> transferBatchService.handleFundingFailure(batchId, event.failureReason());
+            default -> log.warn("Unhandled response type {} for transfer batch {}", event.responseType(), batchId);
+        }
+    }
+
+    private void routeToBatchItem(UUID itemId, WalletResponseEvent event) {
+        if (!event.success()) {
+            transferBatchService.handleItemFailed(itemId, event.failureReason());
+            return;
+        }
+
+        switch (event.responseType()) {
+            case FUNDS_CREDITED -> transferBatchService.handleItemCredited(itemId);
+            case OPERATION_FAILED -> transferBatchService.handleItemFailed(itemId, event.failureReason());
+            default -> log.warn("Unhandled response type {} for transfer batch item {}",
+                    event.responseType(), itemId);
+        }
+    }
+
+    private void routeToBatchItemRefund(UUID refundId, WalletResponseEvent event) {
+        if (!event.success()) {
+            transferBatchService.handleRefundFailed(refundId, event.failureReason());
+            return;
+        }
+
+        switch (event.responseType()) {
+            case DEDUCTION_REVERSED -> transferBatchService.handleItemRefunded(refundId);
+            case OPERATION_FAILED -> transferBatchService.handleRefundFailed(refundId, event.failureReason());
+            default -> log.warn("Unhandled response type {} for transfer batch refund {}",
+                    event.responseType(), refundId);
+        }
+    }
 }
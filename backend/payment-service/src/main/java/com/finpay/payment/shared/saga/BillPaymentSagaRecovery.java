@@ -0,0 +1,42 @@
+package com.finpay.payment.shared.saga;
+
+import com.finpay.payment.billpayment.BillPayment;
+import com.finpay.payment.billpayment.BillPaymentService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recovers stuck bill-payment sagas.
+ */
+@Component
+@RequiredArgsConstructor
+public class BillPaymentSagaRecovery implements RecoverableSaga {
+
+    private final BillPaymentService billPaymentService;
+
+    @Override
+    public String sagaType() {
+        return "bill-payment";
+    }
+
+    @Override
+    @Transactional
+    public List<SagaRecovery> recoverDue(LocalDateTime now, int limit) {
+        List<SagaRecovery> recovered = new ArrayList<>();
+        for (BillPayment bill : billPaymentService.lockOverdueBills(now, limit)) {
+            SagaRecovery.Action action = billPaymentService.recoverStuckBill(bill, now);
+            recovered.add(SagaRecovery.of(bill.getId(), action, bill.getCreatedAt(), now));
+        }
+        return recovered;
+    }
+
+    @Override
+    public long countStuck(LocalDateTime now) {
+        return billPaymentService.countStuckBills(now);
+    }
+}
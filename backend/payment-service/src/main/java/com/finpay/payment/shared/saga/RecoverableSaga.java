@@ -0,0 +1,25 @@
+package com.finpay.payment.shared.saga;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A saga type the {@link SagaWatchdog} can recover.
+ *
+ * Implementations keep a {@code nextDeadlineAt} per saga that is set whenever a
+ * wallet command is sent and cleared when the saga finishes.
+ */
+public interface RecoverableSaga {
+
+    /** Tag used for this saga type in metrics and logs. */
+    String sagaType();
+
+    /**
+     * Locks up to {@code limit} sagas whose deadline has passed and recovers
+     * them in one transaction. Rows locked by another instance are skipped.
+     */
+    List<SagaRecovery> recoverDue(LocalDateTime now, int limit);
+
+    /** Number of unfinished sagas that have missed at least one deadline. */
+    long countStuck(LocalDateTime now);
+}
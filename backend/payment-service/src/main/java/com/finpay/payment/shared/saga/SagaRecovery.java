@@ -0,0 +1,24 @@
+package com.finpay.payment.shared.saga;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Outcome of recovering one overdue saga.
+ *
+ * @param age time since the saga was created
+ */
+public record SagaRecovery(UUID sagaId, Action action, Duration age) {
+
+    public enum Action {
+        RETRIED,               // Pending forward command sent again
+        COMPENSATION_STARTED,  // Retries exhausted - saga failed and compensating
+        COMPENSATION_RETRIED,  // Pending compensation command sent again
+        CLEARED                // Saga already finished - stale deadline removed
+    }
+
+    public static SagaRecovery of(UUID sagaId, Action action, LocalDateTime createdAt, LocalDateTime now) {
+        return new SagaRecovery(sagaId, action, createdAt != null ? Duration.between(createdAt, now) : Duration.ZERO);
+    }
+}
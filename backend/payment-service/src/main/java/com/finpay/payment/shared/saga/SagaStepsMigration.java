@@ -0,0 +1,89 @@
+package com.finpay.payment.shared.saga;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Folds the per-step boolean columns that saga tables used to have into the
+ * {@code saga_steps} bitmask.
+ *
+ * {@code ddl-auto: update} adds {@code saga_steps} but never drops columns.
+ * The legacy flags stay for one release so the previous one can still be
+ * rolled back to; they get a default so inserts that no longer set them
+ * succeed. The flags are OR-ed into {@code saga_steps} on every start, which
+ * also picks up steps an older instance recorded during a rolling deploy.
+ *
+ * Dropping the legacy columns is a separate step, enabled with
+ * {@code finpay.payment.saga.drop-legacy-step-columns} once no instance of
+ * the previous release is left. Failures stop startup rather than leaving a
+ * table half migrated.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@Slf4j
+public class SagaStepsMigration {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean dropLegacyColumns;
+
+    public SagaStepsMigration(JdbcTemplate jdbcTemplate,
+                              @Value("${finpay.payment.saga.drop-legacy-step-columns:false}") boolean dropLegacyColumns) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dropLegacyColumns = dropLegacyColumns;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        // Step columns in SagaStep order, then flags that are now derived from saga_status
+        migrate("money_transfers", List.of("funds_reserved", "funds_deducted", "funds_credit"),
+                List.of("notification_sent", "compensation_required", "compensation_completed"));
+        migrate("bill_payments", List.of("funds_reserved", "funds_deducted"),
+                List.of("biller_confirmed", "compensation_required", "compensation_completed"));
+        migrate("money_requests", List.of("funds_reserved", "funds_deducted", "funds_credited"),
+                List.of("notification_sent", "compensation_required", "compensation_completed"));
+    }
+
+    private void migrate(String table, List<String> stepColumns, List<String> derivedColumns) {
+        if (!hasColumn(table, stepColumns.getFirst())) {
+            return;
+        }
+        StringBuilder done = new StringBuilder("0");
+        for (int bit = 0; bit < stepColumns.size(); bit++) {
+            done.append(" | ((").append(stepColumns.get(bit)).append(" <> 0) << ").append(bit).append(')');
+        }
+        // A finished rollback undid every step that was done
+        int updated = jdbcTemplate.update("UPDATE " + table + " SET saga_steps = saga_steps | (" + done + ") "
+                + "| IF(saga_status = 'COMPENSATED', (" + done + ") << 16, 0) WHERE (" + done + ") <> 0");
+        log.info("Backfilled saga_steps for {} rows of {}", updated, table);
+
+        List<String> legacy = Stream.concat(stepColumns.stream(), derivedColumns.stream())
+                .filter(column -> hasColumn(table, column))
+                .toList();
+        StringBuilder alter = new StringBuilder("ALTER TABLE ").append(table);
+        String separator = " ";
+        for (String column : legacy) {
+            alter.append(separator).append(dropLegacyColumns
+                    ? "DROP COLUMN " + column
+                    : "ALTER COLUMN " + column + " SET DEFAULT 0");
+            separator = ", ";
+        }
+        jdbcTemplate.execute(alter.toString());
+        if (dropLegacyColumns) {
+            log.info("Dropped legacy saga step columns {} of {}", legacy, table);
+        }
+    }
+    private boolean hasColumn(String table, String column) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.COLUMNS "
+                        + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = ?",
+                Integer.class, table, column);
+        return count != null && count > 0;
+    }
+}
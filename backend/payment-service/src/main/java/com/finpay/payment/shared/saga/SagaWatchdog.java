@@ -0,0 +1,100 @@
+package com.finpay.payment.shared.saga;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Finds sagas that have waited too long for a wallet-service response and
+ * recovers them: the pending command is sent again with backoff, and once
+ * retries run out the saga is failed and compensated.
+ *
+ * Only sagas whose {@code nextDeadlineAt} has passed are read, in batches of
+ * {@code batch-size}. Each batch is locked with SKIP LOCKED, so several
+ * payment-service instances can scan at the same time without recovering the
+ * same saga twice.
+ *
+ * Metrics:
+ * - {@code saga.stuck} gauge: unfinished sagas that missed a deadline, by type
+ * - {@code saga.stuck.age} timer: age of each recovered saga, with histogram
+ * - {@code saga.recovery} counter: recoveries by type and action
+ */
+@Component
+@Slf4j
+public class SagaWatchdog {
+
+    private final List<RecoverableSaga> sagas;
+    private final SagaWatchdogProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AtomicLong> stuckCounts = new ConcurrentHashMap<>();
+
+    public SagaWatchdog(List<RecoverableSaga> sagas, SagaWatchdogProperties properties,
+                        MeterRegistry meterRegistry) {
+        this.sagas = sagas;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        for (RecoverableSaga saga : sagas) {
+            AtomicLong stuck = stuckCounts.computeIfAbsent(saga.sagaType(), type -> new AtomicLong());
+            Gauge.builder("saga.stuck", stuck, AtomicLong::get)
+                    .description("Unfinished sagas that missed a response deadline")
+                    .tag("type", saga.sagaType())
+                    .register(meterRegistry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${finpay.payment.saga.watchdog.scan-interval-ms:15000}")
+    public void scan() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (RecoverableSaga saga : sagas) {
+            try {
+                recover(saga, now);
+            } catch (Exception e) {
+                log.error("Stuck-saga recovery failed for {}", saga.sagaType(), e);
+            }
+        }
+    }
+
+    void recover(RecoverableSaga saga, LocalDateTime now) {
+        int batchSize = properties.getBatchSize();
+        List<SagaRecovery> batch;
+        do {
+            // Recovered sagas get a later deadline or none, so every batch shrinks the due set
+            batch = saga.recoverDue(now, batchSize);
+            for (SagaRecovery recovery : batch) {
+                record(saga.sagaType(), recovery);
+            }
+        } while (batch.size() >= batchSize);
+
+        stuckCounts.get(saga.sagaType()).set(saga.countStuck(now));
+    }
+
+    private void record(String type, SagaRecovery recovery) {
+        Counter.builder("saga.recovery")
+                .description("Stuck sagas recovered by the watchdog")
+                .tag("type", type)
+                .tag("action", recovery.action().name())
+                .register(meterRegistry)
+                .increment();
+        if (recovery.action() != SagaRecovery.Action.CLEARED) {
+            Timer.builder("saga.stuck.age")
+                    .description("Age of sagas found stuck")
+                    .tag("type", type)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(recovery.age());
+        }
+    }
+}
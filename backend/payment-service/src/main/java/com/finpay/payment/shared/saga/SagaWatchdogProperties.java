@@ -0,0 +1,62 @@
+package com.finpay.payment.shared.saga;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "finpay.payment.saga.watchdog")
+public class SagaWatchdogProperties {
+
+    /** Whether overdue sagas are recovered automatically. */
+    private boolean enabled = true;
+
+    /** How long a saga waits for a wallet-service response before it counts as stuck. */
+    private Duration stepTimeout = Duration.ofSeconds(60);
+
+    /** Times a forward step is re-sent before the saga is failed and compensated. */
+    private int maxRetries = 3;
+
+    /** Upper bound for the exponential backoff between re-sends. */
+    private Duration maxBackoff = Duration.ofMinutes(10);
+
+    /** Maximum number of overdue sagas locked and recovered per transaction. */
+    private int batchSize = 50;
+
+    /** Interval between scans for overdue sagas. */
+    private long scanIntervalMs = 15_000;
+
+    /**
+     * Delay before the next deadline after the given number of re-sends:
+     * the step timeout doubled per attempt, capped at {@link #maxBackoff}.
+     */
+    public Duration retryDelay(int attempts) {
+        Duration delay = stepTimeout.multipliedBy(1L << Math.min(attempts, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    /**
+     * Longest a forward step can wait for its response before the saga is
+     * failed: the first deadline, every re-send's backoff, and up to one scan
+     * interval of lateness per deadline.
+     */
+    public Duration stepBudget() {
+        Duration budget = stepTimeout;
+        for (int attempt = 1; attempt <= maxRetries; attempt++) {
+            budget = budget.plus(retryDelay(attempt));
+        }
+        return budget.plusMillis(scanIntervalMs * (maxRetries + 1L));
+    }
+
+    /**
+     * How long wallet-service must hold reserved funds: the reservation and
+     * the step that captures it may each use their whole budget before the
+     * saga gives up and releases the funds itself.
+     */
+    public Duration holdDuration() {
+        return stepBudget().multipliedBy(2);
+    }
+}
@@ -0,0 +1,49 @@
+package com.finpay.payment.shared.saga;
+
+import com.finpay.payment.request.MoneyRequestService;
+import com.finpay.payment.transfer.MoneyTransfer;
+import com.finpay.payment.transfer.MoneyTransferService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recovers stuck transfer sagas. When a request-payment transfer is failed
+ * after its retries run out, the linked money request is failed too, as
+ * {@code WalletResponseConsumer} does for failures reported by wallet-service.
+ */
+@Component
+@RequiredArgsConstructor
+public class TransferSagaRecovery implements RecoverableSaga {
+
+    private final MoneyTransferService transferService;
+    private final MoneyRequestService requestService;
+
+    @Override
+    public String sagaType() {
+        return "transfer";
+    }
+
+    @Override
+    @Transactional
+    public List<SagaRecovery> recoverDue(LocalDateTime now, int limit) {
+        List<SagaRecovery> recovered = new ArrayList<>();
+        for (MoneyTransfer transfer : transferService.lockOverdueTransfers(now, limit)) {
+            SagaRecovery.Action action = transferService.recoverStuckTransfer(transfer, now);
+            if (action == SagaRecovery.Action.COMPENSATION_STARTED && transfer.getSourceRequestId() != null) {
+                requestService.failRequest(transfer.getSourceRequestId(), transfer.getFailureReason());
+            }
+            recovered.add(SagaRecovery.of(transfer.getId(), action, transfer.getCreatedAt(), now));
+        }
+        return recovered;
+    }
+
+    @Override
+    public long countStuck(LocalDateTime now) {
+        return transferService.countStuckTransfers(now);
+    }
+}
@@ -1,8 +1,11 @@
 package com.finpay.payment.transfer;
 
+import com.finpay.id.hibernate.TimeOrderedId;
+import com.finpay.saga.SagaSteps;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
@@ -12,9 +15,18 @@ import java.util.UUID;
 /**
  * Money Transfer entity tracking P2P transfers between users.
  * Uses SAGA pattern for distributed transaction management.
+ *
+ * Saga progress is stored as {@code sagaStatus} plus the {@code sagaSteps}
+ * bitmask of completed and compensated {@link SagaStep}s; the step flags
+ * below are derived from the two.
  */
 @Entity
-@Table(name = "money_transfers")
+@Table(name = "money_transfers", indexes = {
+        @Index(name = "idx_transfer_next_deadline", columnList = "nextDeadlineAt"),
+        @Index(name = "idx_transfer_sender_created", columnList = "senderUserId, createdAt"),
+        @Index(name = "idx_transfer_recipient_created", columnList = "recipientUserId, createdAt")
+})
+@DynamicUpdate
 @Getter
 @Setter
 @NoArgsConstructor
@@ -23,7 +35,7 @@ import java.util.UUID;
 public class MoneyTransfer {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     private UUID id;
 
     @Column(nullable = false, unique = true)
@@ -68,15 +80,13 @@ public class MoneyTransfer {
 
     private String failureReason;
 
-    // SAGA step tracking
-    private boolean fundsReserved;
-    private boolean fundsDeducted;
-    private boolean fundsCredit;
-    private boolean notificationSent;
+    // SAGA step tracking: completed and compensated steps, see SagaSteps
+    @Column(nullable = false)
+    private int sagaSteps;
 
-    // Compensation tracking
-    private boolean compensationRequired;
-    private boolean compensationCompleted;
+    // Stuck-saga recovery: when the pending wallet response is due, and how often it was re-sent
+    private LocalDateTime nextDeadlineAt;
+    private int recoveryAttempts;
 
     private LocalDateTime completedAt;
     private LocalDateTime failedAt;
@@ -89,6 +99,61 @@ public class MoneyTransfer {
     @Column(nullable = false)
     private LocalDateTime updatedAt;
 
+    // Derived step flags
+
+    public boolean isFundsReserved() {
+        return SagaSteps.isDone(sagaSteps, SagaStep.RESERVE_FUNDS);
+    }
+
+    public void setFundsReserved(boolean done) {
+        sagaSteps = SagaSteps.withDone(sagaSteps, SagaStep.RESERVE_FUNDS, done);
+    }
+
+    public boolean isFundsDeducted() {
+        return SagaSteps.isDone(sagaSteps, SagaStep.DEDUCT_FUNDS);
+    }
+
+    public void setFundsDeducted(boolean done) {
+        sagaSteps = SagaSteps.withDone(sagaSteps, SagaStep.DEDUCT_FUNDS, done);
+    }
+
+    public boolean isFundsCredit() {
+        return SagaSteps.isDone(sagaSteps, SagaStep.CREDIT_FUNDS);
+    }
+
+    public void setFundsCredit(boolean done) {
+        sagaSteps = SagaSteps.withDone(sagaSteps, SagaStep.CREDIT_FUNDS, done);
+    }
+
+    /** The completion notification is published in the same transaction that completes the saga. */
+    public boolean isNotificationSent() {
+        return sagaStatus == SagaStatus.COMPLETED;
+    }
+
+    public boolean isCompensationRequired() {
+        return sagaStatus == SagaStatus.FAILED || sagaStatus == SagaStatus.COMPENSATING
+                || sagaStatus == SagaStatus.COMPENSATED;
+    }
+
+    public boolean isCompensationCompleted() {
+        return sagaStatus == SagaStatus.COMPENSATED;
+    }
+
+    public static class MoneyTransferBuilder {
+
+        public MoneyTransferBuilder fundsReserved(boolean done) {
+            return sagaSteps(SagaSteps.withDone(sagaSteps, SagaStep.RESERVE_FUNDS, done));
+        }
+
+        public MoneyTransferBuilder fundsDeducted(boolean done) {
+            return sagaSteps(SagaSteps.withDone(sagaSteps, SagaStep.DEDUCT_FUNDS, done));
+        }
+
+        public MoneyTransferBuilder fundsCredit(boolean done) {
+            return sagaSteps(SagaSteps.withDone(sagaSteps, SagaStep.CREDIT_FUNDS, done));
+        }
+    }
+
     public enum TransferType {
         SEND,              // Direct P2P send
         REQUEST_PAYMENT    // Payment triggered by an approved money request
@@ -104,6 +169,13 @@ public class MoneyTransfer {
         COMPENSATED       // Rollback completed
     }
 
+    /** Wallet commands of the transfer saga, in execution order. */
+    public enum SagaStep {
+        RESERVE_FUNDS,
+        DEDUCT_FUNDS,
+        CREDIT_FUNDS
+    }
+
     public enum SagaStatus {
         STARTED,
         FUNDS_RESERVED,
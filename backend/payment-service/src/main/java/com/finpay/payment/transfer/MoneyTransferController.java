@@ -1,7 +1,9 @@
 package com.finpay.payment.transfer;
 
+import com.finpay.payment.shared.idempotency.IdempotencyService;
 import com.finpay.payment.transfer.dto.MoneyTransferRequest;
 import com.finpay.payment.transfer.dto.MoneyTransferResponse;
+import com.finpay.payment.velocity.VelocityGuard;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -18,17 +20,28 @@ import java.util.UUID;
 public class MoneyTransferController {
 
     private final MoneyTransferService transferService;
+    private final IdempotencyService idempotencyService;
+    private final VelocityGuard velocityGuard;
 
     /**
      * Initiate a money transfer from the sender to a recipient.
      * Uses SAGA pattern for distributed transaction management.
+     * Retries carrying the same {@code Idempotency-Key} get the original response.
+     * Velocity rules are checked only when the request actually runs, so
+     * replays are not counted again; a rejection releases the key for a retry.
      */
     @PostMapping
     public ResponseEntity<MoneyTransferResponse> initiateTransfer(
             @RequestHeader("X-User-Id") UUID senderUserId,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody MoneyTransferRequest request) {
-        MoneyTransferResponse response = transferService.initiateTransfer(senderUserId, request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        return idempotencyService.execute("transfer", senderUserId, idempotencyKey, request,
+                MoneyTransferResponse.class, () -> {
+                    velocityGuard.admit(senderUserId, request.recipientUserId(), request.amount(),
+                            request.currency());
+                    return ResponseEntity.status(HttpStatus.CREATED)
+                            .body(transferService.initiateTransfer(senderUserId, request));
+                });
     }
 
     /**
@@ -3,10 +3,17 @@ package com.finpay.payment.transfer;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -16,6 +23,13 @@ public interface MoneyTransferRepository extends JpaRepository<MoneyTransfer, UU
 
     Optional<MoneyTransfer> findByTransactionReference(String transactionReference);
 
+    @Query("SELECT t.id FROM MoneyTransfer t WHERE t.transactionReference = :reference")
+    Optional<UUID> findIdByTransactionReference(@Param("reference") String reference);
+
+    @Query("SELECT COUNT(t) > 0 FROM MoneyTransfer t WHERE t.id = :id "
+            + "AND (t.senderUserId = :userId OR t.recipientUserId = :userId)")
+    boolean isParty(@Param("id") UUID id, @Param("userId") UUID userId);
+
     @Query("SELECT t FROM MoneyTransfer t WHERE t.senderUserId = :userId OR t.recipientUserId = :userId ORDER BY t.createdAt DESC")
     Page<MoneyTransfer> findByUserIdAsParticipant(@Param("userId") UUID userId, Pageable pageable);
 
@@ -23,11 +37,83 @@ public interface MoneyTransferRepository extends JpaRepository<MoneyTransfer, UU
 
     List<MoneyTransfer> findByRecipientUserId(UUID recipientUserId);
 
+    // Activity feed keyset pages: newest first, strictly before the (createdAt, id) cursor
+
+    @Query("SELECT t FROM MoneyTransfer t WHERE t.senderUserId = :userId "
+            + "AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)) "
+            + "ORDER BY t.createdAt DESC, t.id DESC")
+    List<MoneyTransfer> findSentBefore(@Param("userId") UUID userId,
+                                       @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("id") UUID id,
+                                       Pageable pageable);
+
+    @Query("SELECT t FROM MoneyTransfer t WHERE t.recipientUserId = :userId "
+            + "AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)) "
+            + "ORDER BY t.createdAt DESC, t.id DESC")
+    List<MoneyTransfer> findReceivedBefore(@Param("userId") UUID userId,
+                                           @Param("createdAt") LocalDateTime createdAt,
+                                           @Param("id") UUID id,
+                                           Pageable pageable);
+
     @Query("SELECT t FROM MoneyTransfer t WHERE t.status = :status")
     List<MoneyTransfer> findByStatus(@Param("status") MoneyTransfer.TransferStatus status);
 
-    @Query("SELECT t FROM MoneyTransfer t WHERE t.sagaStatus = :sagaStatus AND t.compensationRequired = true AND t.compensationCompleted = false")
-    List<MoneyTransfer> findPendingCompensations(@Param("sagaStatus") MoneyTransfer.SagaStatus sagaStatus);
+    @Query("SELECT t FROM MoneyTransfer t WHERE t.sagaStatus = 'COMPENSATING'")
+    List<MoneyTransfer> findPendingCompensations();
+
+    // Saga transitions
+
+    /**
+     * Persists one saga transition. Only matches while the row still holds the
+     * state the transition was computed from, so a concurrent handler makes
+     * this return 0 instead of being overwritten. Null wallet IDs, failure
+     * details and completion time keep their stored value.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE MoneyTransfer t SET t.sagaStatus = :toState, t.sagaSteps = :toSteps, t.status = :status, "
+            + "t.senderWalletId = COALESCE(:senderWalletId, t.senderWalletId), "
+            + "t.recipientWalletId = COALESCE(:recipientWalletId, t.recipientWalletId), "
+            + "t.failureReason = COALESCE(:failureReason, t.failureReason), "
+            + "t.failedAt = COALESCE(:failedAt, t.failedAt), "
+            + "t.completedAt = COALESCE(:completedAt, t.completedAt), "
+            + "t.nextDeadlineAt = :nextDeadlineAt, t.recoveryAttempts = 0, t.updatedAt = :now "
+            + "WHERE t.id = :id AND t.sagaStatus = :fromState AND t.sagaSteps = :fromSteps")
+    int applyTransition(@Param("id") UUID id,
+                        @Param("fromState") MoneyTransfer.SagaStatus fromState,
+                        @Param("fromSteps") int fromSteps,
+                        @Param("toState") MoneyTransfer.SagaStatus toState,
+                        @Param("toSteps") int toSteps,
+                        @Param("status") MoneyTransfer.TransferStatus status,
+                        @Param("senderWalletId") UUID senderWalletId,
+                        @Param("recipientWalletId") UUID recipientWalletId,
+                        @Param("failureReason") String failureReason,
+                        @Param("failedAt") LocalDateTime failedAt,
+                        @Param("completedAt") LocalDateTime completedAt,
+                        @Param("nextDeadlineAt") LocalDateTime nextDeadlineAt,
+                        @Param("now") LocalDateTime now);
+
+    // Stuck-saga recovery
+
+    /**
+     * Locks sagas whose response deadline has passed, oldest deadline first.
+     * Rows already locked by another instance are skipped (SKIP LOCKED).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT t FROM MoneyTransfer t WHERE t.nextDeadlineAt <= :now ORDER BY t.nextDeadlineAt")
+    List<MoneyTransfer> findOverdueForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Query("SELECT COUNT(t) FROM MoneyTransfer t WHERE t.nextDeadlineAt IS NOT NULL "
+            + "AND (t.recoveryAttempts > 0 OR t.nextDeadlineAt <= :now)")
+    long countStuck(@Param("now") LocalDateTime now);
+
+    /** Re-arms the response timer after the watchdog re-sent a command. */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE MoneyTransfer t SET t.nextDeadlineAt = :nextDeadlineAt, t.recoveryAttempts = :recoveryAttempts "
+            + "WHERE t.id = :id")
+    int updateRecovery(@Param("id") UUID id,
+                       @Param("nextDeadlineAt") LocalDateTime nextDeadlineAt,
+                       @Param("recoveryAttempts") int recoveryAttempts);
 
     // Admin query methods
 
@@ -35,4 +121,7 @@ public interface MoneyTransferRepository extends JpaRepository<MoneyTransfer, UU
     Page<MoneyTransfer> findByStatusPaged(@Param("status") MoneyTransfer.TransferStatus status, Pageable pageable);
 
     long countByStatus(MoneyTransfer.TransferStatus status);
+
+    @Query("SELECT COALESCE(SUM(t.amount), 0) FROM MoneyTransfer t WHERE t.status = :status")
+    BigDecimal sumAmountByStatus(@Param("status") MoneyTransfer.TransferStatus status);
 }
@@ -1,21 +1,33 @@
 package com.finpay.payment.transfer;
 
+import com.finpay.id.ReferenceGenerator;
+import com.finpay.payment.detail.dto.TransactionDetailResponse.TransactionType;
+import com.finpay.payment.reference.ReferenceResolver;
+import com.finpay.payment.rollup.TransactionRollupService;
 import com.finpay.payment.transfer.dto.MoneyTransferRequest;
 import com.finpay.payment.transfer.dto.MoneyTransferResponse;
 import com.finpay.payment.transfer.event.TransferSagaEvent;
 import com.finpay.payment.shared.exception.ResourceNotFoundException;
 import com.finpay.payment.shared.exception.TransferException;
 import com.finpay.payment.shared.kafka.WalletCommandProducer;
+import com.finpay.payment.shared.saga.SagaRecovery;
+import com.finpay.payment.shared.saga.SagaWatchdogProperties;
+import com.finpay.saga.SagaDefinition;
+import com.finpay.saga.SagaSteps;
+import com.finpay.saga.SagaTransition;
 import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -35,6 +47,15 @@ import java.util.UUID;
  * 5. COMPLETE - Mark transfer as complete
  * 
  * Compensation (if any step fails) is handled automatically in reverse order.
+ *
+ * The steps and their compensations are declared once in {@link #SAGA}. Each
+ * wallet response becomes one {@link SagaTransition}, persisted with a single
+ * UPDATE guarded on the previous state and step mask, so duplicate and
+ * out-of-order responses cannot overwrite each other.
+ *
+ * Every wallet command sets {@code nextDeadlineAt}; the saga watchdog re-sends
+ * commands whose response is overdue. A forward step that completes after the
+ * saga already failed is compensated as well.
  */
 @Service
 @RequiredArgsConstructor
@@ -45,6 +66,20 @@ public class MoneyTransferService {
     private final MoneyTransferRepository transferRepository;
     private final WalletCommandProducer walletCommandProducer;
     private final TransferSagaEventProducer sagaEventProducer;
+    private final SagaWatchdogProperties sagaProperties;
+    private final TransactionRollupService rollupService;
+    private final ReferenceGenerator referenceGenerator;
+    private final ReferenceResolver referenceResolver;
+
+    /** Reversing the deduction also returns the reserved funds, so no release follows it. */
+    static final SagaDefinition<MoneyTransfer.SagaStep, MoneyTransfer.SagaStatus> SAGA =
+            SagaDefinition.builder(MoneyTransfer.SagaStep.class, MoneyTransfer.SagaStatus.STARTED)
+                    .step(MoneyTransfer.SagaStep.RESERVE_FUNDS, MoneyTransfer.SagaStatus.FUNDS_RESERVED)
+                    .step(MoneyTransfer.SagaStep.DEDUCT_FUNDS, MoneyTransfer.SagaStatus.FUNDS_DEDUCTED)
+                    .undoAlsoSettles(MoneyTransfer.SagaStep.RESERVE_FUNDS)
+                    .step(MoneyTransfer.SagaStep.CREDIT_FUNDS, MoneyTransfer.SagaStatus.COMPLETED)
+                    .compensation(MoneyTransfer.SagaStatus.COMPENSATING, MoneyTransfer.SagaStatus.COMPENSATED)
+                    .build();
 
     /**
      * Initiate a money transfer using the SAGA Choreography pattern.
@@ -83,40 +118,20 @@ public class MoneyTransferService {
                 .transferType(MoneyTransfer.TransferType.SEND)
                 .status(MoneyTransfer.TransferStatus.PROCESSING)
                 .sagaStatus(MoneyTransfer.SagaStatus.STARTED)
-                .fundsReserved(false)
-                .fundsDeducted(false)
-                .fundsCredit(false)
-                .notificationSent(false)
-                .compensationRequired(false)
-                .compensationCompleted(false)
                 .build();
+        awaitResponse(transfer);
 
         MoneyTransfer savedTransfer = transferRepository.save(transfer);
+        referenceResolver.register(transactionReference, TransactionType.TRANSFER, savedTransfer.getId());
         log.info("Transfer created with ID: {} and reference: {}", savedTransfer.getId(), transactionReference);
 
         // Publish saga initiate event for tracking/debugging
-        TransferSagaEvent sagaEvent = TransferSagaEvent.initiate(
-                savedTransfer.getId(),
-                transactionReference,
-                senderUserId,
-                null,  // Wallet IDs not known yet - will be resolved by wallet-service
-                request.recipientUserId(),
-                null,
-                request.amount(),
-                request.currency(),
-                request.description()
-        );
-        sagaEventProducer.sendSagaEvent(sagaEvent);
+        sagaEventProducer.sendSagaEvent(TransferSagaEvent.of(savedTransfer,
+                TransferSagaEvent.SagaStep.INITIATE, TransferSagaEvent.SagaAction.EXECUTE, null));
 
         // Start SAGA Step 1: Reserve funds via Kafka
         log.info("Starting SAGA via Kafka - Step 1: Reserve funds for transfer {}", savedTransfer.getId());
-        walletCommandProducer.reserveFunds(
-                savedTransfer.getId(),  // correlationId for saga tracking
-                senderUserId,
-                request.amount(),
-                request.currency(),
-                "Reserve funds for transfer: " + transactionReference
-        );
+        dispatch(savedTransfer, SAGA.start());
 
         return MoneyTransferResponse.fromEntity(savedTransfer);
     }
@@ -192,39 +207,29 @@ public class MoneyTransferService {
                 .sourceRequestId(sourceRequestId)
                 .status(MoneyTransfer.TransferStatus.PROCESSING)
                 .sagaStatus(MoneyTransfer.SagaStatus.STARTED)
-                .fundsReserved(false)
-                .fundsDeducted(false)
-                .fundsCredit(false)
-                .notificationSent(false)
-                .compensationRequired(false)
-                .compensationCompleted(false)
                 .build();
+        awaitResponse(transfer);
 
         transfer = transferRepository.save(transfer);
+        referenceResolver.register(txRef, TransactionType.TRANSFER, transfer.getId());
         log.info("Created transfer {} (ref={}) for money-request {}", transfer.getId(), txRef, sourceRequestId);
 
         // Publish SAGA trace event
-        sagaEventProducer.sendSagaEvent(TransferSagaEvent.initiate(
-                transfer.getId(), txRef,
-                senderUserId, null,
-                recipientUserId, null,
-                amount, currency, description
-        ));
+        sagaEventProducer.sendSagaEvent(TransferSagaEvent.of(transfer,
+                TransferSagaEvent.SagaStep.INITIATE, TransferSagaEvent.SagaAction.EXECUTE, null));
 
         // SAGA Step 1: Reserve funds from the payer
         log.info("Starting request-payment SAGA – Step 1: Reserve funds from payer {} via transfer {}",
                 senderUserId, transfer.getId());
-        walletCommandProducer.reserveFunds(
-                transfer.getId(), senderUserId,
-                amount, currency,
-                "Reserve funds for payment request: " + txRef
-        );
+        dispatch(transfer, SAGA.start());
 
         return transfer;
     }
 
     // SAGA step handlers
     // Called by WalletResponseConsumer to advance or compensate the transfer SAGA.
+    // Each response is fed into SAGA and the resulting transition is written
+    // with a single conditional UPDATE (see apply).
 
     /**
      * SAGA Step 1 completed - funds reserved → send DEDUCT command.
@@ -232,20 +237,7 @@ public class MoneyTransferService {
     @Observed(name = "transfer.saga.funds-reserved", contextualName = "handle-funds-reserved")
     public void handleFundsReserved(UUID transferId, UUID walletId) {
         log.info("SAGA Step 1 completed: Funds reserved for transfer {}", transferId);
-        MoneyTransfer transfer = getTransferEntity(transferId);
-
-        transfer.setFundsReserved(true);
-        transfer.setSagaStatus(MoneyTransfer.SagaStatus.FUNDS_RESERVED);
-        if (walletId != null) {
-            transfer.setSenderWalletId(walletId);
-        }
-        transferRepository.save(transfer);
-
-        walletCommandProducer.deductFunds(
-                transfer.getId(), transfer.getSenderUserId(),
-                transfer.getAmount(), transfer.getCurrency(),
-                "Transfer deduction: " + transfer.getTransactionReference()
-        );
+        onStepCompleted(getTransferEntity(transferId), MoneyTransfer.SagaStep.RESERVE_FUNDS, walletId, null);
     }
 
     /**
@@ -254,21 +246,11 @@ public class MoneyTransferService {
     @Observed(name = "transfer.saga.funds-deducted", contextualName = "handle-funds-deducted")
     public void handleFundsDeducted(UUID transferId) {
         log.info("SAGA Step 2 completed: Funds deducted for transfer {}", transferId);
-        MoneyTransfer transfer = getTransferEntity(transferId);
-
-        transfer.setFundsDeducted(true);
-        transfer.setSagaStatus(MoneyTransfer.SagaStatus.FUNDS_DEDUCTED);
-        transferRepository.save(transfer);
-
-        walletCommandProducer.creditFunds(
-                transfer.getId(), transfer.getRecipientUserId(),
-                transfer.getAmount(), transfer.getCurrency(),
-                "Transfer credit from user " + transfer.getSenderUserId()
-        );
+        onStepCompleted(getTransferEntity(transferId), MoneyTransfer.SagaStep.DEDUCT_FUNDS, null, null);
     }
 
     /**
-     * SAGA Step 3 completed - funds credited → send notification and complete.
+     * SAGA Step 3 completed - funds credited → complete and send notification.
      *
      * @return result containing linked-request info for cross-feature coordination
      */
@@ -276,57 +258,27 @@ public class MoneyTransferService {
     public TransferSagaStepResult handleFundsCredited(UUID transferId, UUID walletId) {
         log.info("SAGA Step 3 completed: Funds credited for transfer {}", transferId);
         MoneyTransfer transfer = getTransferEntity(transferId);
-
-        transfer.setFundsCredit(true);
-        transfer.setSagaStatus(MoneyTransfer.SagaStatus.FUNDS_CREDITED);
-        if (walletId != null) {
-            transfer.setRecipientWalletId(walletId);
+        SagaTransition<MoneyTransfer.SagaStep, MoneyTransfer.SagaStatus> transition =
+                onStepCompleted(transfer, MoneyTransfer.SagaStep.CREDIT_FUNDS, null, walletId);
+        if (transition.outcome() != SagaTransition.Outcome.COMPLETE) {
+            return TransferSagaStepResult.none();
         }
-        transferRepository.save(transfer);
-
-        // Send completion notification via Kafka (transfer-notifications topic).
-        // This is the single notification path for all completed transfers,
-        // including request-payments - no duplicate from money-request-events.
-        TransferSagaEvent notificationEvent = new TransferSagaEvent(
-                transfer.getId(), transfer.getTransactionReference(),
-                transfer.getSenderUserId(), transfer.getSenderWalletId(),
-                transfer.getRecipientUserId(), transfer.getRecipientWalletId(),
-                transfer.getAmount(), transfer.getCurrency(), transfer.getDescription(),
-                TransferSagaEvent.SagaStep.SEND_NOTIFICATION, TransferSagaEvent.SagaAction.EXECUTE,
-                null, LocalDateTime.now()
-        );
-        sagaEventProducer.sendNotificationEvent(notificationEvent);
-
-        // Mark transfer as complete
-        transfer.setNotificationSent(true);
-        transfer.setStatus(MoneyTransfer.TransferStatus.COMPLETED);
-        transfer.setSagaStatus(MoneyTransfer.SagaStatus.COMPLETED);
-        transfer.setCompletedAt(LocalDateTime.now());
-        transferRepository.save(transfer);
 
         log.info("SAGA completed successfully for transfer {}", transfer.getId());
         return TransferSagaStepResult.of(transfer);
     }
 
     /**
-     * Handle SAGA failure - marks the transfer as FAILED and starts compensation.
+     * Handle SAGA failure - records the failure and starts compensation.
+     * Failures reported once the saga is already compensating or finished are
+     * only logged; a stuck compensation is re-sent by the saga watchdog.
      *
      * @return result containing linked-request info for cross-feature coordination
      */
     @Observed(name = "transfer.saga.failure", contextualName = "handle-saga-failure")
     public TransferSagaStepResult handleSagaFailure(UUID transferId, String failureReason) {
         log.error("Wallet operation failed for transfer {}: {}", transferId, failureReason);
-        MoneyTransfer transfer = getTransferEntity(transferId);
-
-        transfer.setFailureReason(failureReason);
-        transfer.setStatus(MoneyTransfer.TransferStatus.FAILED);
-        transfer.setSagaStatus(MoneyTransfer.SagaStatus.FAILED);
-        transfer.setCompensationRequired(true);
-        transfer.setFailedAt(LocalDateTime.now());
-        transferRepository.save(transfer);
-
-        startCompensation(transfer);
-        return TransferSagaStepResult.of(transfer);
+        return fail(getTransferEntity(transferId), failureReason);
     }
 
     // Compensation handlers
@@ -334,92 +286,320 @@ public class MoneyTransferService {
     /** Compensation: funds released after failed saga. */
     public void handleFundsReleased(UUID transferId) {
         log.info("Compensation: Funds released for transfer {}", transferId);
-        MoneyTransfer transfer = getTransferEntity(transferId);
-        transfer.setCompensationCompleted(true);
-        transfer.setSagaStatus(MoneyTransfer.SagaStatus.COMPENSATED);
-        transfer.setStatus(MoneyTransfer.TransferStatus.COMPENSATED);
-        transferRepository.save(transfer);
+        onCompensated(getTransferEntity(transferId), MoneyTransfer.SagaStep.RESERVE_FUNDS);
     }
 
-    /** Compensation: credit reversed → continue chain (reverse deduction or release). */
+    /** Compensation: credit reversed → continue with the deduction. */
     public void handleCreditReversed(UUID transferId) {
         log.info("Compensation: Credit reversed for transfer {}", transferId);
-        MoneyTransfer transfer = getTransferEntity(transferId);
-
-        if (transfer.isFundsDeducted()) {
-            walletCommandProducer.reverseDeduction(
-                    transfer.getId(), transfer.getSenderUserId(),
-                    transfer.getAmount(), transfer.getCurrency(),
-                    "Reversal of deduction for failed transfer: " + transfer.getTransactionReference()
-            );
-        } else if (transfer.isFundsReserved()) {
-            walletCommandProducer.releaseFunds(
-                    transfer.getId(), transfer.getSenderUserId(),
-                    transfer.getAmount(), transfer.getCurrency(),
-                    "Release funds for failed transfer: " + transfer.getTransactionReference()
-            );
-        } else {
-            transfer.setCompensationCompleted(true);
-            transfer.setSagaStatus(MoneyTransfer.SagaStatus.COMPENSATED);
-            transfer.setStatus(MoneyTransfer.TransferStatus.COMPENSATED);
-            transferRepository.save(transfer);
-        }
+        onCompensated(getTransferEntity(transferId), MoneyTransfer.SagaStep.CREDIT_FUNDS);
     }
 
-    /** Compensation: deduction reversed → release reservation. */
+    /** Compensation: deduction reversed → the reservation is settled with it. */
     public void handleDeductionReversed(UUID transferId) {
         log.info("Compensation: Deduction reversed for transfer {}", transferId);
-        MoneyTransfer transfer = getTransferEntity(transferId);
+        onCompensated(getTransferEntity(transferId), MoneyTransfer.SagaStep.DEDUCT_FUNDS);
+    }
 
-        if (transfer.isFundsReserved()) {
-            walletCommandProducer.releaseFunds(
-                    transfer.getId(), transfer.getSenderUserId(),
-                    transfer.getAmount(), transfer.getCurrency(),
-                    "Release funds after rollback: " + transfer.getTransactionReference()
-            );
-        } else {
-            transfer.setCompensationCompleted(true);
-            transfer.setSagaStatus(MoneyTransfer.SagaStatus.COMPENSATED);
-            transfer.setStatus(MoneyTransfer.TransferStatus.COMPENSATED);
-            transferRepository.save(transfer);
+    private SagaTransition<MoneyTransfer.SagaStep, MoneyTransfer.SagaStatus> onStepCompleted(
+            MoneyTransfer transfer, MoneyTransfer.SagaStep step, UUID senderWalletId, UUID recipientWalletId) {
+        SagaTransition<MoneyTransfer.SagaStep, MoneyTransfer.SagaStatus> transition =
+                SAGA.onStepCompleted(transfer.getSagaStatus(), transfer.getSagaSteps(), step);
+        if (transition.ignored()) {
+            log.info("Ignoring duplicate {} response for transfer {}", step, transfer.getId());
+            return transition;
+        }
+        if (!SAGA.isRunning(transition.fromState())) {
+            // Completed after the watchdog failed the saga - undo it as well
+            log.warn("Late {} response for transfer {} in {}, compensating",
+                    step, transfer.getId(), transition.fromState());
         }
+
+        apply(transfer, transition, senderWalletId, recipientWalletId, null);
+        dispatch(transfer, transition);
+        return transition;
     }
 
-    private void startCompensation(MoneyTransfer transfer) {
+    private TransferSagaStepResult fail(MoneyTransfer transfer, String failureReason) {
+        SagaTransition<MoneyTransfer.SagaStep, MoneyTransfer.SagaStatus> transition =
+                SAGA.onStepFailed(transfer.getSagaStatus(), transfer.getSagaSteps());
+        if (transition.ignored()) {
+            log.warn("Ignoring failure for transfer {} already in {}", transfer.getId(), transfer.getSagaStatus());
+            return TransferSagaStepResult.none();
+        }
+
         log.warn("Starting compensation for failed transfer {}", transfer.getId());
+        apply(transfer, transition, null, null, failureReason);
+        dispatch(transfer, transition);
+        return TransferSagaStepResult.of(transfer);
+    }
+
+    private void onCompensated(MoneyTransfer transfer, MoneyTransfer.SagaStep step) {
+        SagaTransition<MoneyTransfer.SagaStep, MoneyTransfer.SagaStatus> transition =
+                SAGA.onCompensated(transfer.getSagaStatus(), transfer.getSagaSteps(), step);
+        if (transition.ignored()) {
+            log.info("Ignoring {} compensation response for transfer {} in {}",
+                    step, transfer.getId(), transfer.getSagaStatus());
+            return;
+        }
+        apply(transfer, transition, null, null, null);
+        dispatch(transfer, transition);
+    }
+
+    /**
+     * Writes a transition with one UPDATE guarded on the state it was computed
+     * from, then mirrors it onto {@code transfer}. If another handler moved the
+     * saga first the guard matches nothing; the exception lets Kafka redeliver
+     * the response, which is then evaluated against the new state.
+     */
+    private void apply(MoneyTransfer transfer,
+                       SagaTransition<MoneyTransfer.SagaStep, MoneyTransfer.SagaStatus> transition,
+                       UUID senderWalletId, UUID recipientWalletId, String failureReason) {
+        LocalDateTime now = LocalDateTime.now();
+        MoneyTransfer.TransferStatus status = statusOf(transition.toState());
+        LocalDateTime deadline = awaitsResponse(transition) ? now.plus(sagaProperties.getStepTimeout()) : null;
+        LocalDateTime failedAt = failureReason != null ? now : null;
+        LocalDateTime completedAt = transition.outcome() == SagaTransition.Outcome.COMPLETE ? now : null;
+
+        int updated = transferRepository.applyTransition(transfer.getId(),
+                transition.fromState(), transition.fromSteps(), transition.toState(), transition.toSteps(),
+                status, senderWalletId, recipientWalletId, failureReason, failedAt, completedAt, deadline, now);
+        if (updated == 0) {
+            throw new OptimisticLockingFailureException("Transfer " + transfer.getId()
+                    + " is no longer in " + transition.fromState());
+        }
+
+        transfer.setSagaStatus(transition.toState());
+        transfer.setSagaSteps(transition.toSteps());
+        transfer.setStatus(status);
+        if (senderWalletId != null) {
+            transfer.setSenderWalletId(senderWalletId);
+        }
+        if (recipientWalletId != null) {
+            transfer.setRecipientWalletId(recipientWalletId);
+        }
+        if (failureReason != null) {
+            transfer.setFailureReason(failureReason);
+            transfer.setFailedAt(failedAt);
+        }
+        if (completedAt != null) {
+            transfer.setCompletedAt(completedAt);
+        }
+        transfer.setNextDeadlineAt(deadline);
+        transfer.setRecoveryAttempts(0);
+        transfer.setUpdatedAt(now);
+
+        if (isFinal(transition)) {
+            rollupService.record(TransactionType.TRANSFER, status.name(), transfer.getCurrency(),
+                    transfer.getAmount(), now);
+        }
+        trace(transfer, transition, failureReason);
+    }
 
-        transfer.setStatus(MoneyTransfer.TransferStatus.COMPENSATING);
-        transfer.setSagaStatus(MoneyTransfer.SagaStatus.COMPENSATING);
-        transferRepository.save(transfer);
+    /**
+     * Publishes what the transition changed - steps confirmed, a failure, the
+     * start and end of the rollback - for the transaction-history projection.
+     */
+    private void trace(MoneyTransfer transfer,
+                       SagaTransition<MoneyTransfer.SagaStep, MoneyTransfer.SagaStatus> transition,
+                       String failureReason) {
+        for (MoneyTransfer.SagaStep step : MoneyTransfer.SagaStep.values()) {
+            if (transition.isDone(step) && !SagaSteps.isDone(transition.fromSteps(), step)) {
+                sagaEventProducer.sendSagaEvent(TransferSagaEvent.of(transfer,
+                        TransferSagaEvent.SagaStep.valueOf(step.name()), TransferSagaEvent.SagaAction.CONFIRM, null));
+            }
+        }
+        if (failureReason != null) {
+            SagaTransition<MoneyTransfer.SagaStep, MoneyTransfer.SagaStatus> pending =
+                    SAGA.pending(transition.fromState(), transition.fromSteps());
+            TransferSagaEvent.SagaStep failedStep = pending.step() != null
+                    ? TransferSagaEvent.SagaStep.valueOf(pending.step().name()) : TransferSagaEvent.SagaStep.COMPENSATE;
+            sagaEventProducer.sendSagaEvent(TransferSagaEvent.of(transfer,
+                    failedStep, TransferSagaEvent.SagaAction.FAIL, failureReason));
+        }
+        switch (transition.outcome()) {
+            case COMPLETE -> sagaEventProducer.sendSagaEvent(TransferSagaEvent.of(transfer,
+                    TransferSagaEvent.SagaStep.COMPLETE, TransferSagaEvent.SagaAction.CONFIRM, null));
+            case COMPENSATE -> {
+                if (!SAGA.isCompensating(transition.fromState())) {
+                    sagaEventProducer.sendSagaEvent(TransferSagaEvent.of(transfer,
+                            TransferSagaEvent.SagaStep.COMPENSATE, TransferSagaEvent.SagaAction.COMPENSATE,
+                            transfer.getFailureReason()));
+                }
+            }
+            case COMPENSATED -> sagaEventProducer.sendSagaEvent(TransferSagaEvent.of(transfer,
+                    TransferSagaEvent.SagaStep.COMPENSATE, TransferSagaEvent.SagaAction.CONFIRM, null));
+            default -> {
+            }
+        }
+    }
+
+    /** Sends whatever the transition asks for. */
+    private void dispatch(MoneyTransfer transfer,
+                          SagaTransition<MoneyTransfer.SagaStep, MoneyTransfer.SagaStatus> transition) {
+        switch (transition.outcome()) {
+            case ADVANCE -> sendStep(transfer, transition.step());
+            case COMPENSATE -> sendCompensation(transfer, transition.step());
+            case COMPLETE -> sendCompletionNotification(transfer);
+            default -> {
+            }
+        }
+    }
+
+    private static boolean isFinal(SagaTransition<MoneyTransfer.SagaStep, MoneyTransfer.SagaStatus> transition) {
+        return transition.outcome() == SagaTransition.Outcome.COMPLETE
+                || transition.outcome() == SagaTransition.Outcome.COMPENSATED;
+    }
+
+    private static MoneyTransfer.TransferStatus statusOf(MoneyTransfer.SagaStatus sagaStatus) {
+        return switch (sagaStatus) {
+            case COMPLETED -> MoneyTransfer.TransferStatus.COMPLETED;
+            case FAILED -> MoneyTransfer.TransferStatus.FAILED;
+            case COMPENSATING -> MoneyTransfer.TransferStatus.COMPENSATING;
+            case COMPENSATED -> MoneyTransfer.TransferStatus.COMPENSATED;
+            default -> MoneyTransfer.TransferStatus.PROCESSING;
+        };
+    }
+
+    private static boolean awaitsResponse(SagaTransition<?, ?> transition) {
+        return transition.outcome() == SagaTransition.Outcome.ADVANCE
+                || transition.outcome() == SagaTransition.Outcome.COMPENSATE;
+    }
+
+    // Wallet commands
+
+    private void sendStep(MoneyTransfer transfer, MoneyTransfer.SagaStep step) {
+        switch (step) {
+            case RESERVE_FUNDS -> {
+                String purpose = transfer.getTransferType() == MoneyTransfer.TransferType.REQUEST_PAYMENT
+                        ? "Reserve funds for payment request: " : "Reserve funds for transfer: ";
+                walletCommandProducer.reserveFunds(
+                        transfer.getId(),  // correlationId for saga tracking
+                        transfer.getSenderUserId(),
+                        transfer.getAmount(), transfer.getCurrency(),
+                        purpose + transfer.getTransactionReference()
+                );
+            }
+            case DEDUCT_FUNDS -> walletCommandProducer.deductFunds(
+                    transfer.getId(), transfer.getSenderUserId(),
+                    transfer.getAmount(), transfer.getCurrency(),
+                    "Transfer deduction: " + transfer.getTransactionReference()
+            );
+            case CREDIT_FUNDS -> walletCommandProducer.creditFunds(
+                    transfer.getId(), transfer.getRecipientUserId(),
+                    transfer.getAmount(), transfer.getCurrency(),
+                    "Transfer credit from user " + transfer.getSenderUserId()
+            );
+        }
+    }
 
-        if (transfer.isFundsCredit()) {
-            walletCommandProducer.reverseCredit(
+    private void sendCompensation(MoneyTransfer transfer, MoneyTransfer.SagaStep step) {
+        switch (step) {
+            case CREDIT_FUNDS -> walletCommandProducer.reverseCredit(
                     transfer.getId(), transfer.getRecipientUserId(),
                     transfer.getAmount(), transfer.getCurrency(),
                     "Reversal for failed transfer: " + transfer.getTransactionReference()
             );
-        } else if (transfer.isFundsDeducted()) {
-            walletCommandProducer.reverseDeduction(
+            case DEDUCT_FUNDS -> walletCommandProducer.reverseDeduction(
                     transfer.getId(), transfer.getSenderUserId(),
                     transfer.getAmount(), transfer.getCurrency(),
                     "Reversal of deduction for failed transfer: " + transfer.getTransactionReference()
             );
-        } else if (transfer.isFundsReserved()) {
-            walletCommandProducer.releaseFunds(
+            case RESERVE_FUNDS -> walletCommandProducer.releaseFunds(
                     transfer.getId(), transfer.getSenderUserId(),
                     transfer.getAmount(), transfer.getCurrency(),
                     "Release funds for failed transfer: " + transfer.getTransactionReference()
             );
-        } else {
-            transfer.setCompensationCompleted(true);
-            transfer.setSagaStatus(MoneyTransfer.SagaStatus.COMPENSATED);
-            transfer.setStatus(MoneyTransfer.TransferStatus.COMPENSATED);
-            transferRepository.save(transfer);
         }
     }
 
+    /**
+     * Completion notification via Kafka (transfer-notifications topic).
+     * This is the single notification path for all completed transfers,
+     * including request-payments - no duplicate from money-request-events.
+     */
+    private void sendCompletionNotification(MoneyTransfer transfer) {
+        TransferSagaEvent notificationEvent = TransferSagaEvent.of(transfer,
+                TransferSagaEvent.SagaStep.SEND_NOTIFICATION, TransferSagaEvent.SagaAction.EXECUTE, null);
+        sagaEventProducer.sendNotificationEvent(notificationEvent);
+    }
+
+    // Stuck-saga recovery (driven by the saga watchdog)
+
+    /**
+     * Locks up to {@code limit} transfers whose response deadline has passed,
+     * skipping rows another instance is recovering.
+     */
+    public List<MoneyTransfer> lockOverdueTransfers(LocalDateTime now, int limit) {
+        return transferRepository.findOverdueForUpdate(now, PageRequest.of(0, limit));
+    }
+
+    @Transactional(readOnly = true)
+    public long countStuckTransfers(LocalDateTime now) {
+        return transferRepository.countStuck(now);
+    }
+
+    /**
+     * Recovers a transfer whose wallet response is overdue. A forward step is
+     * re-sent with exponential backoff until {@code max-retries}, after which
+     * the transfer is failed and compensated. A compensation step is re-sent
+     * indefinitely, since the funds must be returned either way.
+     */
+    public SagaRecovery.Action recoverStuckTransfer(MoneyTransfer transfer, LocalDateTime now) {
+        int attempts = transfer.getRecoveryAttempts();
+        SagaTransition<MoneyTransfer.SagaStep, MoneyTransfer.SagaStatus> pending =
+                SAGA.pending(transfer.getSagaStatus(), transfer.getSagaSteps());
+
+        switch (pending.outcome()) {
+            case COMPENSATE -> {
+                if (attempts >= sagaProperties.getMaxRetries()) {
+                    log.error("Compensation for transfer {} still unconfirmed after {} re-sends",
+                            transfer.getId(), attempts);
+                }
+                retryLater(transfer, now);
+                sendCompensation(transfer, pending.step());
+                return SagaRecovery.Action.COMPENSATION_RETRIED;
+            }
+            case ADVANCE -> {
+                if (attempts >= sagaProperties.getMaxRetries()) {
+                    fail(transfer, "Timed out waiting for wallet-service at step " + pending.step());
+                    return SagaRecovery.Action.COMPENSATION_STARTED;
+                }
+                log.warn("Transfer {} stuck at {}, re-sending {} (attempt {}/{})", transfer.getId(),
+                        transfer.getSagaStatus(), pending.step(), attempts + 1, sagaProperties.getMaxRetries());
+                retryLater(transfer, now);
+                sendStep(transfer, pending.step());
+                return SagaRecovery.Action.RETRIED;
+            }
+            case COMPENSATED -> {
+                apply(transfer, pending, null, null, null);
+                return SagaRecovery.Action.CLEARED;
+            }
+            default -> {
+                updateRecovery(transfer, null, 0);
+                return SagaRecovery.Action.CLEARED;
+            }
+        }
+    }
+
+    private void retryLater(MoneyTransfer transfer, LocalDateTime now) {
+        int attempts = transfer.getRecoveryAttempts() + 1;
+        updateRecovery(transfer, now.plus(sagaProperties.retryDelay(attempts)), attempts);
+    }
+
+    private void updateRecovery(MoneyTransfer transfer, LocalDateTime nextDeadlineAt, int attempts) {
+        transferRepository.updateRecovery(transfer.getId(), nextDeadlineAt, attempts);
+        transfer.setNextDeadlineAt(nextDeadlineAt);
+        transfer.setRecoveryAttempts(attempts);
+    }
+
+    /** Starts the response timer for the first command of a new transfer. */
+    private void awaitResponse(MoneyTransfer transfer) {
+        transfer.setNextDeadlineAt(LocalDateTime.now().plus(sagaProperties.getStepTimeout()));
+        transfer.setRecoveryAttempts(0);
+    }
+
     private String generateTransactionReference() {
-        return "TRF-" + System.currentTimeMillis() + "-" + 
-                UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        return referenceGenerator.next("TRF-");
     }
 }
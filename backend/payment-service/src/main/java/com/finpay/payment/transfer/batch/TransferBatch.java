@@ -0,0 +1,130 @@
+package com.finpay.payment.transfer.batch;
+
+import com.finpay.id.hibernate.TimeOrderedId;
+import com.finpay.saga.SagaSteps;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A bulk transfer (e.g. a payroll run) from one sender to many recipients.
+ *
+ * The batch is funded once: the total is reserved and deducted on the
+ * sender's wallet by a two-step saga ({@code sagaStatus}/{@code sagaSteps}).
+ * Its {@link TransferBatchItem}s are then credited in chunks; the progress
+ * counters are incremented as item outcomes arrive.
+ */
+@Entity
+@Table(name = "transfer_batches", indexes = {
+        @Index(name = "idx_batch_sender_created", columnList = "senderUserId, createdAt"),
+        @Index(name = "idx_batch_status", columnList = "status")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransferBatch {
+
+    @Id
+    @TimeOrderedId
+    private UUID id;
+
+    @Column(nullable = false, unique = true)
+    private String transactionReference;
+
+    @Column(nullable = false)
+    private UUID senderUserId;
+
+    @Column(nullable = false, length = 3)
+    private String currency;
+
+    private String description;
+
+    @Column(nullable = false)
+    private int itemCount;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    @Builder.Default
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+
+    @Column(nullable = false, columnDefinition = "VARCHAR(20)")
+    @Enumerated(EnumType.STRING)
+    @Builder.Default
+    private BatchStatus status = BatchStatus.FUNDING;
+
+    @Column(nullable = false, columnDefinition = "VARCHAR(20)")
+    @Enumerated(EnumType.STRING)
+    @Builder.Default
+    private SagaStatus sagaStatus = SagaStatus.STARTED;
+
+    // Funding saga steps: completed and compensated, see SagaSteps
+    @Column(nullable = false)
+    private int sagaSteps;
+
+    // Progress counters
+    @Column(nullable = false)
+    private int creditedCount;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    @Builder.Default
+    private BigDecimal creditedAmount = BigDecimal.ZERO;
+
+    @Column(nullable = false)
+    private int failedCount;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    @Builder.Default
+    private BigDecimal failedAmount = BigDecimal.ZERO;
+
+    /** Failed items whose refund also failed, included in {@link #failedCount}. */
+    @Column(nullable = false)
+    private int refundFailedCount;
+
+    private String failureReason;
+
+    private LocalDateTime completedAt;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    public boolean isFundsReserved() {
+        return SagaSteps.isDone(sagaSteps, SagaStep.RESERVE_FUNDS);
+    }
+
+    public int getPendingCount() {
+        return itemCount - creditedCount - failedCount;
+    }
+
+    public enum BatchStatus {
+        FUNDING,              // Total being reserved and deducted on the sender
+        DISTRIBUTING,         // Items being credited
+        COMPLETED,            // Every item credited
+        PARTIALLY_COMPLETED,  // Some items failed; see refundFailedCount for refunds that failed too
+        FAILED                // Funding failed, or every item failed
+    }
+
+    /** Wallet commands of the funding saga, in execution order. */
+    public enum SagaStep {
+        RESERVE_FUNDS,
+        DEDUCT_FUNDS
+    }
+
+    public enum SagaStatus {
+        STARTED,
+        FUNDS_RESERVED,
+        FUNDED,
+        COMPENSATING,
+        COMPENSATED
+    }
+}
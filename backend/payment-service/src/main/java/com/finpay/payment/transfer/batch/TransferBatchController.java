@@ -0,0 +1,56 @@
+package com.finpay.payment.transfer.batch;
+
+import com.finpay.payment.transfer.batch.dto.TransferBatchItemResponse;
+import com.finpay.payment.transfer.batch.dto.TransferBatchResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/payments/transfers/batches")
+@RequiredArgsConstructor
+public class TransferBatchController {
+
+    private final TransferBatchService batchService;
+
+    /**
+     * Upload a batch of transfers as CSV ({@code recipientUserId,amount[,description]} per line).
+     * The body is streamed; the batch is funded and distributed asynchronously.
+     */
+    @PostMapping(consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<TransferBatchResponse> createBatch(
+            @RequestHeader("X-User-Id") UUID senderUserId,
+            @RequestParam String currency,
+            @RequestParam(required = false) String description,
+            InputStream file) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(batchService.createBatch(senderUserId, currency, description, file));
+    }
+
+    /** Batch status with aggregated progress counters. */
+    @GetMapping("/{batchId}")
+    public ResponseEntity<TransferBatchResponse> getBatch(@PathVariable UUID batchId) {
+        return ResponseEntity.ok(batchService.getBatch(batchId));
+    }
+
+    @GetMapping("/{batchId}/items")
+    public ResponseEntity<Page<TransferBatchItemResponse>> getItems(
+            @PathVariable UUID batchId,
+            @RequestParam(required = false) TransferBatchItem.ItemStatus status,
+            Pageable pageable) {
+        return ResponseEntity.ok(batchService.getItems(batchId, status, pageable));
+    }
+
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<Page<TransferBatchResponse>> getUserBatches(@PathVariable UUID userId,
+                                                                      Pageable pageable) {
+        return ResponseEntity.ok(batchService.getBatchesForUser(userId, pageable));
+    }
+}
@@ -0,0 +1,79 @@
+package com.finpay.payment.transfer.batch;
+
+import com.finpay.payment.shared.exception.TransferException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Streaming reader for batch uploads: one {@code recipientUserId,amount[,description]}
+ * line per transfer, with an optional header line. Everything after the
+ * second comma is the description.
+ */
+final class TransferBatchCsv {
+
+    private static final BigDecimal MIN_AMOUNT = new BigDecimal("0.01");
+    private static final int MAX_SCALE = 4;
+
+    record Line(int lineNumber, UUID recipientUserId, BigDecimal amount, String description) {
+    }
+
+    private TransferBatchCsv() {
+    }
+
+    /** Hands each line to {@code sink} as it is read; the input is never held in memory. */
+    static void read(InputStream input, Consumer<Line> sink) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String raw;
+            int lineNumber = 0;
+            while ((raw = reader.readLine()) != null) {
+                lineNumber++;
+                String text = raw.strip();
+                if (text.isEmpty() || (lineNumber == 1 && isHeader(text))) {
+                    continue;
+                }
+                sink.accept(parse(lineNumber, text));
+            }
+        } catch (IOException e) {
+            throw new TransferException("Could not read the batch file", e);
+        }
+    }
+
+    static Line parse(int lineNumber, String text) {
+        String[] fields = text.split(",", 3);
+        if (fields.length < 2) {
+            throw invalid(lineNumber, "expected recipientUserId,amount[,description]");
+        }
+        UUID recipient;
+        try {
+            recipient = UUID.fromString(fields[0].strip());
+        } catch (IllegalArgumentException e) {
+            throw invalid(lineNumber, "recipient is not a user ID");
+        }
+        BigDecimal amount;
+        try {
+            amount = new BigDecimal(fields[1].strip());
+        } catch (NumberFormatException e) {
+            throw invalid(lineNumber, "amount is not a number");
+        }
+        if (amount.compareTo(MIN_AMOUNT) < 0 || amount.stripTrailingZeros().scale() > MAX_SCALE) {
+            throw invalid(lineNumber, "amount must be at least 0.01 with at most " + MAX_SCALE + " decimals");
+        }
+        String description = fields.length == 3 && !fields[2].isBlank() ? fields[2].strip() : null;
+        return new Line(lineNumber, recipient, amount, description);
+    }
+
+    static TransferException invalid(int lineNumber, String problem) {
+        return new TransferException("Line " + lineNumber + ": " + problem);
+    }
+
+    private static boolean isHeader(String text) {
+        return text.toLowerCase().startsWith("recipient");
+    }
+}
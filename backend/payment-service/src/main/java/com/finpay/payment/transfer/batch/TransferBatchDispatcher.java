@@ -0,0 +1,33 @@
+package com.finpay.payment.transfer.batch;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Paces the fan-out of funded batches: each tick sends one chunk of credit
+ * commands per distributing batch, each chunk in its own transaction, so
+ * large batches share the outbox with each other and with regular traffic.
+ * Instances running concurrently lock disjoint chunks.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TransferBatchDispatcher {
+
+    private final TransferBatchService batchService;
+
+    @Scheduled(fixedDelayString = "${finpay.payment.transfer.batch.dispatch-interval-ms:500}")
+    public void dispatch() {
+        for (UUID batchId : batchService.findDistributingBatchIds()) {
+            try {
+                batchService.dispatchChunk(batchId);
+            } catch (Exception e) {
+                log.warn("Failed to dispatch a chunk of transfer batch {}: {}", batchId, e.getMessage());
+            }
+        }
+    }
+}
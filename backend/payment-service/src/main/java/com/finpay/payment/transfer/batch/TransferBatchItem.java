@@ -0,0 +1,70 @@
+package com.finpay.payment.transfer.batch;
+
+import com.finpay.id.hibernate.TimeOrderedId;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One line of a {@link TransferBatch}. The item ID is the correlation ID of
+ * its credit and the refund ID that of the refund of a failed credit, so
+ * each is applied at most once per item and their responses cannot be
+ * mistaken for one another.
+ */
+@Entity
+@Table(name = "transfer_batch_items", indexes = {
+        @Index(name = "idx_batch_item_status_line", columnList = "batchId, status, lineNumber"),
+        @Index(name = "idx_batch_item_refund", columnList = "refundId", unique = true)
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransferBatchItem {
+
+    @Id
+    @TimeOrderedId
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID batchId;
+
+    /** Line of the uploaded file, for reporting failures back to the sender. */
+    @Column(nullable = false)
+    private int lineNumber;
+
+    @Column(nullable = false)
+    private UUID recipientUserId;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal amount;
+
+    private String description;
+
+    @Column(nullable = false, columnDefinition = "VARCHAR(20)")
+    @Enumerated(EnumType.STRING)
+    @Builder.Default
+    private ItemStatus status = ItemStatus.PENDING;
+
+    private String failureReason;
+
+    /** Correlation ID of the refund, set when the credit fails. */
+    private UUID refundId;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
+    public enum ItemStatus {
+        PENDING,    // Waiting for the batch to be funded and the item dispatched
+        CREDITING,  // Credit command sent
+        CREDITED,   // Recipient credited
+        REFUNDING,     // Credit failed, item amount being returned to the sender
+        FAILED,        // Refunded, or never dispatched because funding failed
+        REFUND_FAILED  // Credit and refund both failed; the amount needs manual reconciliation
+    }
+}
@@ -0,0 +1,75 @@
+package com.finpay.payment.transfer.batch;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface TransferBatchItemRepository extends JpaRepository<TransferBatchItem, UUID> {
+
+    Optional<TransferBatchItem> findByRefundId(UUID refundId);
+
+    boolean existsByRefundId(UUID refundId);
+
+    Page<TransferBatchItem> findByBatchIdOrderByLineNumber(UUID batchId, Pageable pageable);
+
+    Page<TransferBatchItem> findByBatchIdAndStatusOrderByLineNumber(UUID batchId,
+                                                                   TransferBatchItem.ItemStatus status,
+                                                                   Pageable pageable);
+
+    /**
+     * Locks the next chunk of a batch's undispatched items in file order.
+     * Rows already locked by another instance are skipped (SKIP LOCKED).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT i FROM TransferBatchItem i WHERE i.batchId = :batchId AND i.status = 'PENDING' "
+            + "ORDER BY i.lineNumber")
+    List<TransferBatchItem> findPendingForUpdate(@Param("batchId") UUID batchId, Pageable pageable);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TransferBatchItem i SET i.status = :status, i.updatedAt = :now WHERE i.id IN :ids")
+    int updateStatus(@Param("ids") List<UUID> ids,
+                     @Param("status") TransferBatchItem.ItemStatus status,
+                     @Param("now") LocalDateTime now);
+
+    /** Moves one item on, guarded on its current status so duplicate responses match nothing. */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TransferBatchItem i SET i.status = :to, "
+            + "i.failureReason = COALESCE(:failureReason, i.failureReason), i.updatedAt = :now "
+            + "WHERE i.id = :id AND i.status = :from")
+    int transition(@Param("id") UUID id,
+                   @Param("from") TransferBatchItem.ItemStatus from,
+                   @Param("to") TransferBatchItem.ItemStatus to,
+                   @Param("failureReason") String failureReason,
+                   @Param("now") LocalDateTime now);
+
+    /** Moves a crediting item to {@code REFUNDING} under the given refund ID. */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TransferBatchItem i SET i.status = 'REFUNDING', i.refundId = :refundId, "
+            + "i.failureReason = :failureReason, i.updatedAt = :now WHERE i.id = :id AND i.status = 'CREDITING'")
+    int startRefund(@Param("id") UUID id,
+                    @Param("refundId") UUID refundId,
+                    @Param("failureReason") String failureReason,
+                    @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TransferBatchItem i SET i.status = 'FAILED', i.failureReason = :failureReason, "
+            + "i.updatedAt = :now WHERE i.batchId = :batchId AND i.status = 'PENDING'")
+    int failPending(@Param("batchId") UUID batchId,
+                    @Param("failureReason") String failureReason,
+                    @Param("now") LocalDateTime now);
+}
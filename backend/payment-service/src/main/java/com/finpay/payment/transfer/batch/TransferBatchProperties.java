@@ -0,0 +1,22 @@
+package com.finpay.payment.transfer.batch;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "finpay.payment.transfer.batch")
+public class TransferBatchProperties {
+
+    /** Most lines a single batch may contain. */
+    private int maxItems = 100_000;
+
+    /** Items inserted per flush while an upload is streamed in. */
+    private int insertChunkSize = 1000;
+
+    /** Credit commands sent per batch per dispatcher tick. */
+    private int dispatchChunkSize = 500;
+
+    private long dispatchIntervalMs = 500;
+}
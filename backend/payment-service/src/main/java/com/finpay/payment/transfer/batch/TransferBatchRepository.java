@@ -0,0 +1,65 @@
+package com.finpay.payment.transfer.batch;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface TransferBatchRepository extends JpaRepository<TransferBatch, UUID> {
+
+    Page<TransferBatch> findBySenderUserIdOrderByCreatedAtDesc(UUID senderUserId, Pageable pageable);
+
+    @Query("SELECT b.id FROM TransferBatch b WHERE b.status = 'DISTRIBUTING' ORDER BY b.createdAt")
+    List<UUID> findDistributingIds();
+
+    /** Persists a funding-saga transition, guarded on the state it was computed from. */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TransferBatch b SET b.sagaStatus = :toState, b.sagaSteps = :toSteps, b.status = :status, "
+            + "b.failureReason = COALESCE(:failureReason, b.failureReason), b.updatedAt = :now "
+            + "WHERE b.id = :id AND b.sagaStatus = :fromState AND b.sagaSteps = :fromSteps")
+    int applyTransition(@Param("id") UUID id,
+                        @Param("fromState") TransferBatch.SagaStatus fromState,
+                        @Param("fromSteps") int fromSteps,
+                        @Param("toState") TransferBatch.SagaStatus toState,
+                        @Param("toSteps") int toSteps,
+                        @Param("status") TransferBatch.BatchStatus status,
+                        @Param("failureReason") String failureReason,
+                        @Param("now") LocalDateTime now);
+
+    // Progress counters are incremented in place so concurrent item outcomes cannot lose updates
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TransferBatch b SET b.creditedCount = b.creditedCount + 1, "
+            + "b.creditedAmount = b.creditedAmount + :amount, b.updatedAt = :now WHERE b.id = :id")
+    int recordCredited(@Param("id") UUID id, @Param("amount") BigDecimal amount, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TransferBatch b SET b.failedCount = b.failedCount + 1, "
+            + "b.failedAmount = b.failedAmount + :amount, b.updatedAt = :now WHERE b.id = :id")
+    int recordFailed(@Param("id") UUID id, @Param("amount") BigDecimal amount, @Param("now") LocalDateTime now);
+
+    /** Counts an item as failed whose refund failed as well. */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TransferBatch b SET b.failedCount = b.failedCount + 1, b.refundFailedCount = b.refundFailedCount + 1, "
+            + "b.failedAmount = b.failedAmount + :amount, b.updatedAt = :now WHERE b.id = :id")
+    int recordRefundFailed(@Param("id") UUID id, @Param("amount") BigDecimal amount, @Param("now") LocalDateTime now);
+
+    /** Closes a distributing batch once every item has an outcome; matches nothing before that. */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TransferBatch b SET b.status = CASE "
+            + "WHEN b.failedCount = 0 THEN com.finpay.payment.transfer.batch.TransferBatch.BatchStatus.COMPLETED "
+            + "WHEN b.creditedCount = 0 THEN com.finpay.payment.transfer.batch.TransferBatch.BatchStatus.FAILED "
+            + "ELSE com.finpay.payment.transfer.batch.TransferBatch.BatchStatus.PARTIALLY_COMPLETED END, "
+            + "b.completedAt = :now, b.updatedAt = :now "
+            + "WHERE b.id = :id AND b.status = 'DISTRIBUTING' AND b.creditedCount + b.failedCount = b.itemCount")
+    int finishIfSettled(@Param("id") UUID id, @Param("now") LocalDateTime now);
+}
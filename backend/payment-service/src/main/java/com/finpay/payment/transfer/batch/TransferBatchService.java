@@ -0,0 +1,411 @@
+package com.finpay.payment.transfer.batch;
+
+import com.finpay.id.ReferenceGenerator;
+import com.finpay.id.UuidV7;
+import com.finpay.payment.shared.event.WalletCommandEvent;
+import com.finpay.payment.shared.exception.ResourceNotFoundException;
+import com.finpay.payment.shared.exception.TransferException;
+import com.finpay.payment.shared.kafka.WalletCommandProducer;
+import com.finpay.payment.transfer.batch.dto.TransferBatchItemResponse;
+import com.finpay.payment.transfer.batch.dto.TransferBatchResponse;
+import com.finpay.payment.velocity.VelocityGuard;
+import com.finpay.saga.SagaDefinition;
+import com.finpay.saga.SagaTransition;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bulk transfers from one sender to many recipients.
+ *
+ * An upload is streamed into a {@link TransferBatch} and its items with
+ * batched inserts, then funded by one saga over the sender's wallet:
+ * reserve the total, deduct it. Once funded, {@link TransferBatchDispatcher}
+ * sends the items' credit commands in chunks. An item whose credit fails is
+ * refunded to the sender on its own; the rest of the batch is unaffected.
+ * If that refund fails too, the item ends in {@code REFUND_FAILED} so the
+ * batch still settles, and is counted for manual reconciliation.
+ * If funding fails nothing was paid out and every item fails with the batch.
+ *
+ * Uploads are checked against the sender's velocity rules as one transfer of
+ * the batch total; recipient and fan-out rules do not apply, since paying
+ * many recipients is what a batch is for and {@code max-items} bounds it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class TransferBatchService {
+
+    /** Deducting captures the reservation, so undoing the deduction settles both. */
+    static final SagaDefinition<TransferBatch.SagaStep, TransferBatch.SagaStatus> SAGA =
+            SagaDefinition.builder(TransferBatch.SagaStep.class, TransferBatch.SagaStatus.STARTED)
+                    .step(TransferBatch.SagaStep.RESERVE_FUNDS, TransferBatch.SagaStatus.FUNDS_RESERVED)
+                    .step(TransferBatch.SagaStep.DEDUCT_FUNDS, TransferBatch.SagaStatus.FUNDED)
+                    .undoAlsoSettles(TransferBatch.SagaStep.RESERVE_FUNDS)
+                    .compensation(TransferBatch.SagaStatus.COMPENSATING, TransferBatch.SagaStatus.COMPENSATED)
+                    .build();
+
+    private final TransferBatchRepository batchRepository;
+    private final TransferBatchItemRepository itemRepository;
+    private final WalletCommandProducer walletCommandProducer;
+    private final TransferBatchProperties properties;
+    private final EntityManager entityManager;
+    private final ReferenceGenerator referenceGenerator;
+    private final VelocityGuard velocityGuard;
+
+    /**
+     * Creates a batch from an uploaded file and starts funding it. Items are
+     * flushed and detached every {@code insert-chunk-size} lines, so memory
+     * use does not grow with the file. Any invalid line, or a velocity rule the
+     * total exceeds, rejects the whole upload.
+     */
+    public TransferBatchResponse createBatch(UUID senderUserId, String currency, String description,
+                                             InputStream file) {
+        TransferBatch batch = batchRepository.save(TransferBatch.builder()
+                .transactionReference(generateTransactionReference())
+                .senderUserId(senderUserId)
+                .currency(currency.toUpperCase())
+                .description(description)
+                .build());
+
+        List<TransferBatchItem> chunk = new ArrayList<>(properties.getInsertChunkSize());
+        BigDecimal[] total = {BigDecimal.ZERO};
+        int[] count = {0};
+        TransferBatchCsv.read(file, line -> {
+            if (line.recipientUserId().equals(senderUserId)) {
+                throw TransferBatchCsv.invalid(line.lineNumber(), "cannot transfer money to yourself");
+            }
+            if (++count[0] > properties.getMaxItems()) {
+                throw new TransferException("A batch may contain at most " + properties.getMaxItems() + " transfers");
+            }
+            total[0] = total[0].add(line.amount());
+            chunk.add(TransferBatchItem.builder()
+                    .batchId(batch.getId())
+                    .lineNumber(line.lineNumber())
+                    .recipientUserId(line.recipientUserId())
+                    .amount(line.amount())
+                    .description(line.description())
+                    .build());
+            if (chunk.size() == properties.getInsertChunkSize()) {
+                insert(chunk);
+            }
+        });
+        insert(chunk);
+        if (count[0] == 0) {
+            throw new TransferException("The batch file contains no transfers");
+        }
+        velocityGuard.admitBatch(senderUserId, total[0], batch.getCurrency());
+
+        batch.setItemCount(count[0]);
+        batch.setTotalAmount(total[0]);
+        TransferBatch saved = batchRepository.save(batch);
+        log.info("Transfer batch {} created by {}: {} items, {} {}", saved.getId(), senderUserId,
+                saved.getItemCount(), saved.getTotalAmount(), saved.getCurrency());
+
+        dispatch(saved, SAGA.start());
+        return TransferBatchResponse.fromEntity(saved);
+    }
+
+    private void insert(List<TransferBatchItem> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        itemRepository.saveAll(chunk);
+        itemRepository.flush();
+        chunk.forEach(entityManager::detach);
+        chunk.clear();
+    }
+
+    @Transactional(readOnly = true)
+    public TransferBatchResponse getBatch(UUID batchId) {
+        return TransferBatchResponse.fromEntity(getBatchEntity(batchId));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<TransferBatchResponse> getBatchesForUser(UUID userId, Pageable pageable) {
+        return batchRepository.findBySenderUserIdOrderByCreatedAtDesc(userId, pageable)
+                .map(TransferBatchResponse::fromEntity);
+    }
+
+    /** Items in file order; {@code status} null for all. */
+    @Transactional(readOnly = true)
+    public Page<TransferBatchItemResponse> getItems(UUID batchId, TransferBatchItem.ItemStatus status,
+                                                    Pageable pageable) {
+        getBatchEntity(batchId);
+        Page<TransferBatchItem> items = status == null
+                ? itemRepository.findByBatchIdOrderByLineNumber(batchId, pageable)
+                : itemRepository.findByBatchIdAndStatusOrderByLineNumber(batchId, status, pageable);
+        return items.map(TransferBatchItemResponse::fromEntity);
+    }
+
+    @Transactional(readOnly = true)
+    public boolean isBatch(UUID correlationId) {
+        return batchRepository.existsById(correlationId);
+    }
+
+    @Transactional(readOnly = true)
+    public boolean isBatchItem(UUID correlationId) {
+        return itemRepository.existsById(correlationId);
+    }
+
+    @Transactional(readOnly = true)
+    public boolean isBatchItemRefund(UUID correlationId) {
+        return itemRepository.existsByRefundId(correlationId);
+    }
+
+    // Fan-out (driven by TransferBatchDispatcher)
+
+    @Transactional(readOnly = true)
+    public List<UUID> findDistributingBatchIds() {
+        return batchRepository.findDistributingIds();
+    }
+
+    /**
+     * Sends credit commands for the next chunk of a funded batch's items, with
+     * one batched outbox insert. Returns how many were sent.
+     */
+    public int dispatchChunk(UUID batchId) {
+        TransferBatch batch = getBatchEntity(batchId);
+        if (batch.getStatus() != TransferBatch.BatchStatus.DISTRIBUTING) {
+            return 0;
+        }
+        List<TransferBatchItem> items = itemRepository.findPendingForUpdate(batchId,
+                PageRequest.of(0, properties.getDispatchChunkSize()));
+        if (items.isEmpty()) {
+            return 0;
+        }
+
+        itemRepository.updateStatus(items.stream().map(TransferBatchItem::getId).toList(),
+                TransferBatchItem.ItemStatus.CREDITING, LocalDateTime.now());
+        walletCommandProducer.sendCommands(WalletCommandEvent.CommandType.CREDIT_FUNDS, items.stream()
+                .map(item -> WalletCommandEvent.create(item.getId(), item.getRecipientUserId(),
+                        WalletCommandEvent.CommandType.CREDIT_FUNDS, item.getAmount(), batch.getCurrency(),
+                        "Batch transfer " + batch.getTransactionReference() + " from user " + batch.getSenderUserId()))
+                .toList());
+        log.debug("Dispatched {} credits of transfer batch {}", items.size(), batchId);
+        return items.size();
+    }
+
+    // Item outcomes
+
+    public void handleItemCredited(UUID itemId) {
+        TransferBatchItem item = getItemEntity(itemId);
+        LocalDateTime now = LocalDateTime.now();
+        if (itemRepository.transition(itemId, TransferBatchItem.ItemStatus.CREDITING,
+                TransferBatchItem.ItemStatus.CREDITED, null, now) == 0) {
+            log.info("Ignoring credit for batch item {} in {}", itemId, item.getStatus());
+            return;
+        }
+        batchRepository.recordCredited(item.getBatchId(), item.getAmount(), now);
+        finishIfSettled(item.getBatchId(), now);
+    }
+
+    /**
+     * A credit failed: refund the item's share of the deducted total to the
+     * sender under a fresh refund ID. Only responses to that ID settle the
+     * refund; a redelivered credit failure is ignored.
+     */
+    public void handleItemFailed(UUID itemId, String failureReason) {
+        TransferBatchItem item = getItemEntity(itemId);
+        UUID refundId = UuidV7.generate();
+        if (itemRepository.startRefund(itemId, refundId, failureReason, LocalDateTime.now()) == 0) {
+            log.info("Ignoring failure for batch item {} in {}", itemId, item.getStatus());
+            return;
+        }
+        log.warn("Credit of batch item {} failed, refunding sender: {}", itemId, failureReason);
+        TransferBatch batch = getBatchEntity(item.getBatchId());
+        walletCommandProducer.reverseDeduction(refundId, batch.getSenderUserId(), item.getAmount(),
+                batch.getCurrency(), "Refund of failed batch transfer " + batch.getTransactionReference()
+                        + " line " + item.getLineNumber());
+    }
+
+    public void handleItemRefunded(UUID refundId) {
+        TransferBatchItem item = getItemByRefundId(refundId);
+        LocalDateTime now = LocalDateTime.now();
+        if (itemRepository.transition(item.getId(), TransferBatchItem.ItemStatus.REFUNDING,
+                TransferBatchItem.ItemStatus.FAILED, null, now) == 0) {
+            log.info("Ignoring refund for batch item {} in {}", item.getId(), item.getStatus());
+            return;
+        }
+        batchRepository.recordFailed(item.getBatchId(), item.getAmount(), now);
+        finishIfSettled(item.getBatchId(), now);
+    }
+
+    /**
+     * The refund failed too: close the item as {@code REFUND_FAILED} so the
+     * batch can settle, and leave the amount for manual reconciliation.
+     */
+    public void handleRefundFailed(UUID refundId, String failureReason) {
+        TransferBatchItem item = getItemByRefundId(refundId);
+        LocalDateTime now = LocalDateTime.now();
+        if (itemRepository.transition(item.getId(), TransferBatchItem.ItemStatus.REFUNDING,
+                TransferBatchItem.ItemStatus.REFUND_FAILED, failureReason, now) == 0) {
+            log.info("Ignoring refund failure for batch item {} in {}", item.getId(), item.getStatus());
+            return;
+        }
+        log.error("Refund of batch item {} failed, {} owed to the sender needs reconciliation: {}",
+                item.getId(), item.getAmount(), failureReason);
+        batchRepository.recordRefundFailed(item.getBatchId(), item.getAmount(), now);
+        finishIfSettled(item.getBatchId(), now);
+    }
+
+    private void finishIfSettled(UUID batchId, LocalDateTime now) {
+        if (batchRepository.finishIfSettled(batchId, now) > 0) {
+            log.info("Transfer batch {} finished", batchId);
+        }
+    }
+
+    // Funding saga
+
+    public void handleFundsReserved(UUID batchId) {
+        log.info("Funds reserved for transfer batch {}", batchId);
+        onStepCompleted(getBatchEntity(batchId), TransferBatch.SagaStep.RESERVE_FUNDS);
+    }
+
+    public void handleFundsDeducted(UUID batchId) {
+        log.info("Funds deducted for transfer batch {}", batchId);
+        onStepCompleted(getBatchEntity(batchId), TransferBatch.SagaStep.DEDUCT_FUNDS);
+    }
+
+    public void handleFundingFailure(UUID batchId, String failureReason) {
+        log.error("Funding failed for transfer batch {}: {}", batchId, failureReason);
+        TransferBatch batch = getBatchEntity(batchId);
+        SagaTransition<TransferBatch.SagaStep, TransferBatch.SagaStatus> transition =
+                SAGA.onStepFailed(batch.getSagaStatus(), batch.getSagaSteps());
+        if (transition.ignored()) {
+            log.warn("Ignoring failure for transfer batch {} already in {}", batchId, batch.getSagaStatus());
+            return;
+        }
+        apply(batch, transition, failureReason);
+        itemRepository.failPending(batchId, "Batch funding failed: " + failureReason, LocalDateTime.now());
+        dispatch(batch, transition);
+    }
+
+    public void handleFundsReleased(UUID batchId) {
+        log.info("Compensation: funds released for transfer batch {}", batchId);
+        onCompensated(getBatchEntity(batchId), TransferBatch.SagaStep.RESERVE_FUNDS);
+    }
+
+    public void handleDeductionReversed(UUID batchId) {
+        log.info("Compensation: deduction reversed for transfer batch {}", batchId);
+        onCompensated(getBatchEntity(batchId), TransferBatch.SagaStep.DEDUCT_FUNDS);
+    }
+
+    private void onStepCompleted(TransferBatch batch, TransferBatch.SagaStep step) {
+        SagaTransition<TransferBatch.SagaStep, TransferBatch.SagaStatus> transition =
+                SAGA.onStepCompleted(batch.getSagaStatus(), batch.getSagaSteps(), step);
+        if (transition.ignored()) {
+            log.info("Ignoring duplicate {} response for transfer batch {}", step, batch.getId());
+            return;
+        }
+        apply(batch, transition, null);
+        dispatch(batch, transition);
+    }
+
+    private void onCompensated(TransferBatch batch, TransferBatch.SagaStep step) {
+        SagaTransition<TransferBatch.SagaStep, TransferBatch.SagaStatus> transition =
+                SAGA.onCompensated(batch.getSagaStatus(), batch.getSagaSteps(), step);
+        if (transition.ignored()) {
+            log.info("Ignoring {} compensation response for transfer batch {} in {}",
+                    step, batch.getId(), batch.getSagaStatus());
+            return;
+        }
+        apply(batch, transition, null);
+        dispatch(batch, transition);
+    }
+
+    /** Writes a transition with one UPDATE guarded on the state it was computed from. */
+    private void apply(TransferBatch batch,
+                       SagaTransition<TransferBatch.SagaStep, TransferBatch.SagaStatus> transition,
+                       String failureReason) {
+        TransferBatch.BatchStatus status = statusOf(transition.toState());
+        int updated = batchRepository.applyTransition(batch.getId(), transition.fromState(),
+                transition.fromSteps(), transition.toState(), transition.toSteps(), status, failureReason,
+                LocalDateTime.now());
+        if (updated == 0) {
+            throw new OptimisticLockingFailureException("Transfer batch " + batch.getId()
+                    + " is no longer in " + transition.fromState());
+        }
+        batch.setSagaStatus(transition.toState());
+        batch.setSagaSteps(transition.toSteps());
+        batch.setStatus(status);
+        if (failureReason != null) {
+            batch.setFailureReason(failureReason);
+        }
+    }
+
+    private void dispatch(TransferBatch batch,
+                          SagaTransition<TransferBatch.SagaStep, TransferBatch.SagaStatus> transition) {
+        switch (transition.outcome()) {
+            case ADVANCE -> sendStep(batch, transition.step());
+            case COMPENSATE -> sendCompensation(batch, transition.step());
+            case COMPLETE -> log.info("Transfer batch {} funded, distributing {} items",
+                    batch.getId(), batch.getItemCount());
+            default -> {
+            }
+        }
+    }
+
+    private static TransferBatch.BatchStatus statusOf(TransferBatch.SagaStatus sagaStatus) {
+        return switch (sagaStatus) {
+            case FUNDED -> TransferBatch.BatchStatus.DISTRIBUTING;
+            case COMPENSATING, COMPENSATED -> TransferBatch.BatchStatus.FAILED;
+            default -> TransferBatch.BatchStatus.FUNDING;
+        };
+    }
+
+    private void sendStep(TransferBatch batch, TransferBatch.SagaStep step) {
+        switch (step) {
+            case RESERVE_FUNDS -> walletCommandProducer.reserveFunds(
+                    batch.getId(), batch.getSenderUserId(), batch.getTotalAmount(), batch.getCurrency(),
+                    "Reserve funds for batch transfer: " + batch.getTransactionReference());
+            case DEDUCT_FUNDS -> walletCommandProducer.deductFunds(
+                    batch.getId(), batch.getSenderUserId(), batch.getTotalAmount(), batch.getCurrency(),
+                    "Batch transfer deduction: " + batch.getTransactionReference());
+        }
+    }
+
+    private void sendCompensation(TransferBatch batch, TransferBatch.SagaStep step) {
+        switch (step) {
+            case DEDUCT_FUNDS -> walletCommandProducer.reverseDeduction(
+                    batch.getId(), batch.getSenderUserId(), batch.getTotalAmount(), batch.getCurrency(),
+                    "Reversal of deduction for failed batch transfer: " + batch.getTransactionReference());
+            case RESERVE_FUNDS -> walletCommandProducer.releaseFunds(
+                    batch.getId(), batch.getSenderUserId(), batch.getTotalAmount(), batch.getCurrency(),
+                    "Release funds for failed batch transfer: " + batch.getTransactionReference());
+        }
+    }
+
+    private TransferBatch getBatchEntity(UUID batchId) {
+        return batchRepository.findById(batchId)
+                .orElseThrow(() -> new ResourceNotFoundException("Transfer batch not found: " + batchId));
+    }
+
+    private TransferBatchItem getItemEntity(UUID itemId) {
+        return itemRepository.findById(itemId)
+                .orElseThrow(() -> new ResourceNotFoundException("Transfer batch item not found: " + itemId));
+    }
+
+    private TransferBatchItem getItemByRefundId(UUID refundId) {
+        return itemRepository.findByRefundId(refundId)
+                .orElseThrow(() -> new ResourceNotFoundException("Transfer batch refund not found: " + refundId));
+    }
+
+    private String generateTransactionReference() {
+        return referenceGenerator.next("TRB-");
+    }
+}
@@ -0,0 +1,31 @@
+package com.finpay.payment.transfer.batch.dto;
+
+import com.finpay.payment.transfer.batch.TransferBatchItem;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record TransferBatchItemResponse(
+        UUID id,
+        int lineNumber,
+        UUID recipientUserId,
+        BigDecimal amount,
+        String description,
+        TransferBatchItem.ItemStatus status,
+        String failureReason,
+        LocalDateTime updatedAt
+) {
+    public static TransferBatchItemResponse fromEntity(TransferBatchItem item) {
+        return new TransferBatchItemResponse(
+                item.getId(),
+                item.getLineNumber(),
+                item.getRecipientUserId(),
+                item.getAmount(),
+                item.getDescription(),
+                item.getStatus(),
+                item.getFailureReason(),
+                item.getUpdatedAt()
+        );
+    }
+}
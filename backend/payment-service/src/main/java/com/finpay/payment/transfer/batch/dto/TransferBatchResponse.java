@@ -0,0 +1,49 @@
+package com.finpay.payment.transfer.batch.dto;
+
+import com.finpay.payment.transfer.batch.TransferBatch;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record TransferBatchResponse(
+        UUID id,
+        String transactionReference,
+        UUID senderUserId,
+        String currency,
+        String description,
+        TransferBatch.BatchStatus status,
+        int itemCount,
+        BigDecimal totalAmount,
+        int creditedCount,
+        BigDecimal creditedAmount,
+        int failedCount,
+        BigDecimal failedAmount,
+        int refundFailedCount,
+        int pendingCount,
+        String failureReason,
+        LocalDateTime completedAt,
+        LocalDateTime createdAt
+) {
+    public static TransferBatchResponse fromEntity(TransferBatch batch) {
+        return new TransferBatchResponse(
+                batch.getId(),
+                batch.getTransactionReference(),
+                batch.getSenderUserId(),
+                batch.getCurrency(),
+                batch.getDescription(),
+                batch.getStatus(),
+                batch.getItemCount(),
+                batch.getTotalAmount(),
+                batch.getCreditedCount(),
+                batch.getCreditedAmount(),
+                batch.getFailedCount(),
+                batch.getFailedAmount(),
+                batch.getRefundFailedCount(),
+                batch.getPendingCount(),
+                batch.getFailureReason(),
+                batch.getCompletedAt(),
+                batch.getCreatedAt()
+        );
+    }
+}
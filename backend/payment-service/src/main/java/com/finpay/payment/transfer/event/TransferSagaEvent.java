@@ -1,5 +1,7 @@
 package com.finpay.payment.transfer.event;
 
+import com.finpay.payment.transfer.MoneyTransfer;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -7,6 +9,9 @@ import java.util.UUID;
 /**
  * SAGA event for money transfer operations.
  * Used to coordinate distributed transactions via Kafka.
+ *
+ * One event is published per saga transition, carrying the transfer status
+ * after it, so the transaction-history projection can rebuild the timeline.
  */
 public record TransferSagaEvent(
         UUID transferId,
@@ -18,8 +23,10 @@ public record TransferSagaEvent(
         BigDecimal amount,
         String currency,
         String description,
+        MoneyTransfer.TransferType transferType,
         SagaStep sagaStep,
         SagaAction action,
+        MoneyTransfer.TransferStatus status,
         String failureReason,
         LocalDateTime timestamp
 ) {
@@ -40,14 +47,14 @@ public record TransferSagaEvent(
         FAIL                // Step failed
     }
 
-    public static TransferSagaEvent initiate(UUID transferId, String transactionReference,
-                                              UUID senderUserId, UUID senderWalletId,
-                                              UUID recipientUserId, UUID recipientWalletId,
-                                              BigDecimal amount, String currency, String description) {
+    public static TransferSagaEvent of(MoneyTransfer transfer, SagaStep step, SagaAction action,
+                                       String failureReason) {
         return new TransferSagaEvent(
-                transferId, transactionReference, senderUserId, senderWalletId,
-                recipientUserId, recipientWalletId, amount, currency, description,
-                SagaStep.INITIATE, SagaAction.EXECUTE, null, LocalDateTime.now()
+                transfer.getId(), transfer.getTransactionReference(),
+                transfer.getSenderUserId(), transfer.getSenderWalletId(),
+                transfer.getRecipientUserId(), transfer.getRecipientWalletId(),
+                transfer.getAmount(), transfer.getCurrency(), transfer.getDescription(),
+                transfer.getTransferType(), step, action, transfer.getStatus(), failureReason, LocalDateTime.now()
         );
     }
 
@@ -55,7 +62,7 @@ public record TransferSagaEvent(
         return new TransferSagaEvent(
                 transferId, transactionReference, senderUserId, senderWalletId,
                 recipientUserId, recipientWalletId, amount, currency, description,
-                step, action, null, LocalDateTime.now()
+                transferType, step, action, status, null, LocalDateTime.now()
         );
     }
 
@@ -63,7 +70,7 @@ public record TransferSagaEvent(
         return new TransferSagaEvent(
                 transferId, transactionReference, senderUserId, senderWalletId,
                 recipientUserId, recipientWalletId, amount, currency, description,
-                step, SagaAction.FAIL, reason, LocalDateTime.now()
+                transferType, step, SagaAction.FAIL, status, reason, LocalDateTime.now()
         );
     }
 
@@ -71,7 +78,7 @@ public record TransferSagaEvent(
         return new TransferSagaEvent(
                 transferId, transactionReference, senderUserId, senderWalletId,
                 recipientUserId, recipientWalletId, amount, currency, description,
-                SagaStep.COMPENSATE, SagaAction.COMPENSATE, reason, LocalDateTime.now()
+                transferType, SagaStep.COMPENSATE, SagaAction.COMPENSATE, status, reason, LocalDateTime.now()
         );
     }
 }
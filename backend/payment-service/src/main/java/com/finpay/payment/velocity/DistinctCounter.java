@@ -0,0 +1,68 @@
+package com.finpay.payment.velocity;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Distinct members seen within a sliding window, by last-seen time. Rules
+ * keep the member count small - additions past the limit are undone - so
+ * pruning on read stays cheap.
+ */
+final class DistinctCounter {
+
+    private final long windowMillis;
+    private final ConcurrentHashMap<UUID, Long> lastSeen = new ConcurrentHashMap<>();
+    private final Set<UUID> unsynced = ConcurrentHashMap.newKeySet();
+    private volatile long remote;
+
+    DistinctCounter(Duration window) {
+        this.windowMillis = window.toMillis();
+    }
+
+    long windowMillis() {
+        return windowMillis;
+    }
+
+    /** Records {@code member} and returns its previous last-seen time, or null. */
+    Long touch(UUID member, long nowMillis) {
+        unsynced.add(member);
+        return lastSeen.put(member, nowMillis);
+    }
+
+    /** Undoes a {@link #touch} that pushed the count past a limit. */
+    void restore(UUID member, Long previous) {
+        if (previous == null) {
+            lastSeen.remove(member);
+            unsynced.remove(member);
+        } else {
+            lastSeen.put(member, previous);
+        }
+    }
+
+    /** Distinct members in the window: the larger of the local and the last cluster-wide count. */
+    long count(long nowMillis) {
+        long cutoff = nowMillis - windowMillis;
+        lastSeen.values().removeIf(seen -> seen < cutoff);
+        return Math.max(lastSeen.size(), remote);
+    }
+
+    /** Takes the members touched since the last sync, with their last-seen times. */
+    Map<UUID, Long> drainUnsynced() {
+        Map<UUID, Long> drained = new java.util.HashMap<>();
+        for (UUID member : unsynced) {
+            unsynced.remove(member);
+            Long seen = lastSeen.get(member);
+            if (seen != null) {
+                drained.put(member, seen);
+            }
+        }
+        return drained;
+    }
+
+    void syncedCount(long clusterCount) {
+        remote = clusterCount;
+    }
+}
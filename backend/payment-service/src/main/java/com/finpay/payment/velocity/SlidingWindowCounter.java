@@ -0,0 +1,90 @@
+package com.finpay.payment.velocity;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free sliding-window sum: the window is split into {@link #BUCKETS}
+ * buckets, each tagged with the epoch (bucket number since 1970) it holds.
+ * Writers claim a stale bucket with a CAS on its epoch and reset it, so a
+ * write racing a rollover can be lost - an undercount of at most one write
+ * per bucket boundary.
+ *
+ * Alongside the local sum the counter tracks what has not been pushed to
+ * Redis yet, and the other instances' share of the window as of the last
+ * sync.
+ */
+final class SlidingWindowCounter {
+
+    static final int BUCKETS = 12;
+
+    private final long bucketMillis;
+    private final AtomicLongArray epochs = new AtomicLongArray(BUCKETS);
+    private final AtomicLongArray values = new AtomicLongArray(BUCKETS);
+    private final AtomicLongArray unsynced = new AtomicLongArray(BUCKETS);
+    private volatile long remote;
+
+    SlidingWindowCounter(Duration window) {
+        this.bucketMillis = Math.max(1, window.toMillis() / BUCKETS);
+    }
+
+    long bucketMillis() {
+        return bucketMillis;
+    }
+
+    /** Adds {@code delta} at {@code nowMillis} and returns the window total, other instances included. */
+    long add(long delta, long nowMillis) {
+        long epoch = nowMillis / bucketMillis;
+        int i = (int) (epoch % BUCKETS);
+        long seen = epochs.get(i);
+        if (seen != epoch && epochs.compareAndSet(i, seen, epoch)) {
+            values.set(i, 0);
+            unsynced.set(i, 0);
+        }
+        values.addAndGet(i, delta);
+        unsynced.addAndGet(i, delta);
+        return total(nowMillis);
+    }
+
+    long total(long nowMillis) {
+        return local(nowMillis) + remote;
+    }
+
+    long local(long nowMillis) {
+        long current = nowMillis / bucketMillis;
+        long sum = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            long age = current - epochs.get(i);
+            if (age >= 0 && age < BUCKETS) {
+                sum += values.get(i);
+            }
+        }
+        return sum;
+    }
+
+    /** Takes the per-epoch deltas not yet pushed to Redis. */
+    Map<Long, Long> drainUnsynced(long nowMillis) {
+        long current = nowMillis / bucketMillis;
+        Map<Long, Long> deltas = new HashMap<>();
+        for (int i = 0; i < BUCKETS; i++) {
+            long epoch = epochs.get(i);
+            long delta = unsynced.getAndSet(i, 0);
+            if (delta != 0 && current - epoch >= 0 && current - epoch < BUCKETS) {
+                deltas.merge(epoch, delta, Long::sum);
+            }
+        }
+        return deltas;
+    }
+
+    /** First epoch of the window ending at {@code nowMillis}. */
+    long firstEpoch(long nowMillis) {
+        return nowMillis / bucketMillis - BUCKETS + 1;
+    }
+
+    /** Records the cluster-wide window total read from Redis. */
+    void syncedTotal(long clusterTotal, long nowMillis) {
+        remote = Math.max(0, clusterTotal - local(nowMillis));
+    }
+}
@@ -0,0 +1,313 @@
+package com.finpay.payment.velocity;
+
+import com.finpay.payment.shared.exception.PaymentException;
+import com.finpay.payment.shared.exception.VelocityLimitExceededException;
+import com.finpay.payment.velocity.VelocityProperties.Metric;
+import com.finpay.payment.velocity.VelocityProperties.Rule;
+import com.finpay.payment.velocity.VelocityProperties.Scope;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pre-checks transfer initiation against sliding-window velocity rules - per
+ * sender, per recipient and per sender-recipient pair - before anything is
+ * written, so abusive bursts are shed in memory instead of failing in the
+ * wallet saga.
+ *
+ * A transfer is added to every rule's counter first and rejected, with its
+ * additions undone, if any counter ends up over its limit; concurrent
+ * requests therefore cannot both slip in under the same limit. Counters are
+ * lock-free and live in bounded caches, so a check costs a few map lookups
+ * and atomic adds.
+ *
+ * Each instance counts its own traffic and periodically pushes it to Redis,
+ * pulling back the cluster-wide totals for the keys it has seen. Between
+ * syncs other instances' traffic is only known as of the last sync; if
+ * Redis is unavailable the rules hold per instance.
+ */
+@Component
+@Slf4j
+public class VelocityGuard {
+
+    private static final String PREFIX = "payment:velocity:";
+    private static final int AMOUNT_SCALE = 4;
+
+    private final VelocityProperties properties;
+    private final StringRedisTemplate redisTemplate;
+    private final List<Rule> rules;
+    private final List<Rule> senderRules;
+    private final Cache<MetricKey, SlidingWindowCounter> counters;
+    private final Cache<MetricKey, DistinctCounter> fanouts;
+    private final Set<MetricKey> dirty = ConcurrentHashMap.newKeySet();
+
+    public VelocityGuard(VelocityProperties properties, StringRedisTemplate redisTemplate) {
+        this.properties = properties;
+        this.redisTemplate = redisTemplate;
+        this.rules = List.copyOf(properties.getRules());
+        rules.forEach(VelocityGuard::validate);
+        this.senderRules = rules.stream()
+                .filter(rule -> rule.getScope() == Scope.SENDER && rule.getMetric() != Metric.DISTINCT_RECIPIENTS)
+                .toList();
+        Duration idle = rules.stream().map(Rule::getWindow).max(Comparator.naturalOrder())
+                .orElse(Duration.ofMinutes(1));
+        this.counters = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxTrackedKeys())
+                .expireAfterAccess(idle)
+                .build();
+        this.fanouts = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxTrackedKeys())
+                .expireAfterAccess(idle)
+                .build();
+    }
+
+    /**
+     * Counts the transfer against every rule.
+     *
+     * @throws VelocityLimitExceededException if any rule would be exceeded; nothing is counted then
+     */
+    public void admit(UUID senderUserId, UUID recipientUserId, BigDecimal amount, String currency) {
+        admit(senderUserId, recipientUserId, amount, currency, System.currentTimeMillis());
+    }
+
+    void admit(UUID senderUserId, UUID recipientUserId, BigDecimal amount, String currency, long nowMillis) {
+        admit(senderUserId, recipientUserId, amount, currency, nowMillis, rules);
+    }
+
+    /**
+     * Counts a transfer batch as one transfer of its total against the
+     * sender's count and amount rules. Recipient, pair and fan-out rules are
+     * left out: a batch pays many recipients by design.
+     *
+     * @throws VelocityLimitExceededException if any of those rules would be exceeded; nothing is counted then
+     */
+    public void admitBatch(UUID senderUserId, BigDecimal total, String currency) {
+        admitBatch(senderUserId, total, currency, System.currentTimeMillis());
+    }
+
+    void admitBatch(UUID senderUserId, BigDecimal total, String currency, long nowMillis) {
+        admit(senderUserId, null, total, currency, nowMillis, senderRules);
+    }
+
+    private void admit(UUID senderUserId, UUID recipientUserId, BigDecimal amount, String currency, long nowMillis,
+                       List<Rule> rules) {
+        if (!properties.isEnabled() || rules.isEmpty()) {
+            return;
+        }
+        List<MetricKey> admitted = new ArrayList<>(rules.size());
+        List<Runnable> undo = new ArrayList<>(rules.size());
+        for (Rule rule : rules) {
+            MetricKey key = keyOf(rule, senderUserId, recipientUserId);
+            boolean within = rule.getMetric() == Metric.DISTINCT_RECIPIENTS
+                    ? addRecipient(key, recipientUserId, nowMillis, undo)
+                    : add(key, rule.getMetric() == Metric.AMOUNT ? units(toBase(amount, currency)) : 1,
+                    nowMillis, undo);
+            if (!within) {
+                undo.forEach(Runnable::run);
+                log.info("Transfer from {} to {} rejected by velocity rule '{}'", senderUserId,
+                        recipientUserId != null ? recipientUserId : "batch recipients", rule.getName());
+                throw new VelocityLimitExceededException(rule.getName(),
+                        rule.getWindow().dividedBy(SlidingWindowCounter.BUCKETS));
+            }
+            admitted.add(key);
+        }
+        dirty.addAll(admitted);
+    }
+
+    private boolean add(MetricKey key, long delta, long nowMillis, List<Runnable> undo) {
+        SlidingWindowCounter counter = counters.get(key, k -> new SlidingWindowCounter(k.rule().getWindow()));
+        undo.add(() -> counter.add(-delta, nowMillis));
+        return counter.add(delta, nowMillis) <= units(key.rule());
+    }
+
+    private boolean addRecipient(MetricKey key, UUID recipientUserId, long nowMillis, List<Runnable> undo) {
+        DistinctCounter fanout = fanouts.get(key, k -> new DistinctCounter(k.rule().getWindow()));
+        Long previous = fanout.touch(recipientUserId, nowMillis);
+        undo.add(() -> fanout.restore(recipientUserId, previous));
+        return fanout.count(nowMillis) <= key.rule().getLimit().longValue();
+    }
+
+    // Redis sync
+
+    @Scheduled(fixedDelayString = "${finpay.payment.velocity.sync-interval-ms:1000}")
+    public void sync() {
+        sync(System.currentTimeMillis());
+    }
+
+    void sync(long nowMillis) {
+        List<Synced> batch = new ArrayList<>();
+        for (Iterator<MetricKey> it = dirty.iterator(); it.hasNext(); ) {
+            MetricKey key = it.next();
+            it.remove();
+            Synced synced = synced(key);
+            if (synced != null) {
+                batch.add(synced);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                batch.forEach(s -> s.write(connection, nowMillis));
+                return null;
+            });
+            List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                batch.forEach(s -> s.read(connection, nowMillis));
+                return null;
+            });
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).apply(results.get(i), nowMillis);
+            }
+        } catch (Exception e) {
+            log.debug("Velocity sync of {} keys failed, keeping local counts: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    private Synced synced(MetricKey key) {
+        if (key.rule().getMetric() == Metric.DISTINCT_RECIPIENTS) {
+            DistinctCounter fanout = fanouts.getIfPresent(key);
+            return fanout == null ? null : new SyncedFanout(bytes(PREFIX + key.rule().getName() + ":" + key.subject()),
+                    fanout);
+        }
+        SlidingWindowCounter counter = counters.getIfPresent(key);
+        return counter == null ? null : new SyncedCounter(PREFIX + key.rule().getName() + ":" + key.subject() + ":",
+                counter, ttlSeconds(key.rule().getWindow().plusMillis(counter.bucketMillis())));
+    }
+
+    private interface Synced {
+
+        void write(RedisConnection connection, long nowMillis);
+
+        /** Issues exactly one read command, whose result is handed to {@link #apply}. */
+        void read(RedisConnection connection, long nowMillis);
+
+        void apply(Object result, long nowMillis);
+    }
+
+    /** One Redis key per bucket epoch, holding the cluster-wide sum of that bucket. */
+    private record SyncedCounter(String prefix, SlidingWindowCounter counter, long ttlSeconds) implements Synced {
+
+        @Override
+        public void write(RedisConnection connection, long nowMillis) {
+            for (Map.Entry<Long, Long> delta : counter.drainUnsynced(nowMillis).entrySet()) {
+                byte[] key = bytes(prefix + delta.getKey());
+                connection.stringCommands().incrBy(key, delta.getValue());
+                connection.keyCommands().expire(key, ttlSeconds);
+            }
+        }
+
+        @Override
+        public void read(RedisConnection connection, long nowMillis) {
+            long first = counter.firstEpoch(nowMillis);
+            byte[][] keys = new byte[SlidingWindowCounter.BUCKETS][];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = bytes(prefix + (first + i));
+            }
+            connection.stringCommands().mGet(keys);
+        }
+
+        @Override
+        public void apply(Object result, long nowMillis) {
+            long total = 0;
+            for (Object value : (List<?>) result) {
+                if (value != null) {
+                    total += Long.parseLong(value.toString());
+                }
+            }
+            counter.syncedTotal(total, nowMillis);
+        }
+    }
+
+    /** A sorted set of recipients scored by when the sender last paid them. */
+    private record SyncedFanout(byte[] key, DistinctCounter fanout) implements Synced {
+
+        @Override
+        public void write(RedisConnection connection, long nowMillis) {
+            fanout.drainUnsynced().forEach((recipient, seen) ->
+                    connection.zSetCommands().zAdd(key, seen, bytes(recipient.toString())));
+            connection.zSetCommands().zRemRangeByScore(key, 0, nowMillis - fanout.windowMillis() - 1);
+            connection.keyCommands().expire(key, ttlSeconds(Duration.ofMillis(fanout.windowMillis())));
+        }
+
+        @Override
+        public void read(RedisConnection connection, long nowMillis) {
+            connection.zSetCommands().zCard(key);
+        }
+
+        @Override
+        public void apply(Object result, long nowMillis) {
+            fanout.syncedCount(((Number) result).longValue());
+        }
+    }
+
+    // Keys and units
+
+    record MetricKey(Rule rule, String subject) {
+    }
+
+    private static MetricKey keyOf(Rule rule, UUID senderUserId, UUID recipientUserId) {
+        String subject = switch (rule.getScope()) {
+            case SENDER -> senderUserId.toString();
+            case RECIPIENT -> recipientUserId.toString();
+            case PAIR -> senderUserId + ">" + recipientUserId;
+        };
+        return new MetricKey(rule, subject);
+    }
+
+    /** The amount in the base currency, so one window totals every currency a sender uses. */
+    private BigDecimal toBase(BigDecimal amount, String currency) {
+        if (currency.equalsIgnoreCase(properties.getBaseCurrency())) {
+            return amount;
+        }
+        BigDecimal rate = properties.getRates().get(currency.toUpperCase());
+        if (rate == null) {
+            throw new PaymentException("Unsupported currency: " + currency);
+        }
+        return amount.divide(rate, AMOUNT_SCALE, RoundingMode.HALF_EVEN);
+    }
+
+    private static long units(Rule rule) {
+        return rule.getMetric() == Metric.AMOUNT ? units(rule.getLimit()) : rule.getLimit().longValue();
+    }
+
+    private static long units(BigDecimal amount) {
+        return amount.movePointRight(AMOUNT_SCALE).longValue();
+    }
+
+    private static long ttlSeconds(Duration duration) {
+        return Math.max(1, (duration.toMillis() + 999) / 1000);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void validate(Rule rule) {
+        if (rule.getName() == null || rule.getLimit() == null || rule.getWindow() == null) {
+            throw new IllegalStateException("Velocity rules need a name, a window and a limit");
+        }
+        if (rule.getMetric() == Metric.DISTINCT_RECIPIENTS && rule.getScope() != Scope.SENDER) {
+            throw new IllegalStateException("Velocity rule '" + rule.getName()
+                    + "' counts distinct recipients, which needs the SENDER scope");
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.finpay.payment.velocity;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "finpay.payment.velocity")
+public class VelocityProperties {
+
+    /** Whether transfer initiation is checked against the velocity rules. */
+    private boolean enabled = true;
+
+    /** Interval between pushes of local counts to Redis and pulls of cluster-wide totals. */
+    private long syncIntervalMs = 1000;
+
+    /** Upper bound on in-memory counters per rule; idle counters are evicted first. */
+    private int maxTrackedKeys = 200_000;
+
+    /** Currency that AMOUNT rule limits are expressed in. */
+    private String baseCurrency = "USD";
+
+    /**
+     * Units of each other currency per unit of the base currency, used to total
+     * AMOUNT rules across currencies; mirrors {@code finpay.wallet.fx.rates}.
+     */
+    private Map<String, BigDecimal> rates = new HashMap<>();
+
+    private List<Rule> rules = new ArrayList<>();
+
+    public enum Scope {
+        SENDER,
+        RECIPIENT,
+        PAIR
+    }
+
+    public enum Metric {
+        /** Number of transfers. */
+        COUNT,
+        /** Sum of transfer amounts across currencies, converted to the base currency. */
+        AMOUNT,
+        /** Number of different recipients; sender scope only. */
+        DISTINCT_RECIPIENTS
+    }
+
+    @Getter
+    @Setter
+    public static class Rule {
+
+        /** Reported to the client when the rule rejects a transfer. */
+        private String name;
+
+        private Scope scope = Scope.SENDER;
+
+        private Metric metric = Metric.COUNT;
+
+        private Duration window = Duration.ofMinutes(1);
+
+        /** Highest value allowed within the window, the new transfer included. */
+        private BigDecimal limit;
+    }
+}
@@ -0,0 +1,194 @@
+package com.finpay.payment.activity;
+
+import com.finpay.payment.billpayment.BillPayment;
+import com.finpay.payment.billpayment.BillPaymentRepository;
+import com.finpay.payment.detail.dto.TransactionDetailResponse.TransactionType;
+import com.finpay.payment.request.MoneyRequest;
+import com.finpay.payment.request.MoneyRequestRepository;
+import com.finpay.payment.shared.exception.PaymentException;
+import com.finpay.payment.transfer.MoneyTransfer;
+import com.finpay.payment.transfer.MoneyTransferRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ActivityService Unit Tests")
+class ActivityServiceTest {
+
+    @Mock private MoneyTransferRepository transferRepository;
+    @Mock private BillPaymentRepository billPaymentRepository;
+    @Mock private MoneyRequestRepository requestRepository;
+
+    @InjectMocks
+    private ActivityService activityService;
+
+    private UUID userId;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        now = LocalDateTime.of(2026, 3, 1, 12, 0);
+        lenient().when(transferRepository.findSentBefore(any(), any(), any(), any())).thenReturn(List.of());
+        lenient().when(transferRepository.findReceivedBefore(any(), any(), any(), any())).thenReturn(List.of());
+        lenient().when(billPaymentRepository.findByUserBefore(any(), any(), any(), any())).thenReturn(List.of());
+        lenient().when(requestRepository.findRequestedBefore(any(), any(), any(), any())).thenReturn(List.of());
+        lenient().when(requestRepository.findIncomingBefore(any(), any(), any(), any())).thenReturn(List.of());
+    }
+
+    private MoneyTransfer transfer(int minutesAgo, UUID sender, UUID recipient) {
+        return MoneyTransfer.builder()
+                .id(UUID.randomUUID()).transactionReference("TXN-" + minutesAgo)
+                .senderUserId(sender).recipientUserId(recipient)
+                .amount(new BigDecimal("10.00")).currency("USD")
+                .status(MoneyTransfer.TransferStatus.COMPLETED)
+                .createdAt(now.minusMinutes(minutesAgo))
+                .build();
+    }
+
+    private BillPayment bill(int minutesAgo) {
+        return BillPayment.builder()
+                .id(UUID.randomUUID()).userId(userId).transactionReference("BILL-" + minutesAgo)
+                .billerName("City Power").amount(new BigDecimal("42.00"))
+                .createdAt(now.minusMinutes(minutesAgo))
+                .build();
+    }
+
+    private MoneyRequest request(int minutesAgo) {
+        return MoneyRequest.builder()
+                .id(UUID.randomUUID()).requestReference("REQ-" + minutesAgo)
+                .requesterUserId(userId).payerUserId(UUID.randomUUID())
+                .amount(new BigDecimal("5.00")).currency("USD")
+                .status(MoneyRequest.RequestStatus.PENDING_APPROVAL)
+                .createdAt(now.minusMinutes(minutesAgo))
+                .build();
+    }
+
+    @Nested
+    @DisplayName("Merge")
+    class Merge {
+
+        @Test
+        @DisplayName("should interleave all sources newest first")
+        void shouldMergeNewestFirst() {
+            UUID friend = UUID.randomUUID();
+            when(transferRepository.findSentBefore(any(), any(), any(), any()))
+                    .thenReturn(List.of(transfer(1, userId, friend), transfer(6, userId, friend)));
+            when(transferRepository.findReceivedBefore(any(), any(), any(), any()))
+                    .thenReturn(List.of(transfer(3, friend, userId)));
+            when(billPaymentRepository.findByUserBefore(any(), any(), any(), any()))
+                    .thenReturn(List.of(bill(2), bill(5)));
+            when(requestRepository.findRequestedBefore(any(), any(), any(), any()))
+                    .thenReturn(List.of(request(4)));
+
+            ActivityPage page = activityService.getActivity(userId, null, 10);
+
+            assertThat(page.items()).extracting(ActivityItem::reference)
+                    .containsExactly("TXN-1", "BILL-2", "TXN-3", "REQ-4", "BILL-5", "TXN-6");
+            assertThat(page.items().get(2).direction()).isEqualTo(ActivityItem.Direction.INCOMING);
+            assertThat(page.items().get(2).counterpartyUserId()).isEqualTo(friend);
+            assertThat(page.items().get(1).type()).isEqualTo(TransactionType.BILL_PAYMENT);
+            assertThat(page.hasMore()).isFalse();
+            assertThat(page.nextCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("should stop at the limit and hand out the last item as cursor")
+        void shouldStopAtLimit() {
+            when(billPaymentRepository.findByUserBefore(any(), any(), any(), any()))
+                    .thenReturn(List.of(bill(1), bill(3), bill(5)));
+            when(requestRepository.findRequestedBefore(any(), any(), any(), any()))
+                    .thenReturn(List.of(request(2), request(4)));
+
+            ActivityPage page = activityService.getActivity(userId, null, 2);
+
+            assertThat(page.items()).extracting(ActivityItem::reference).containsExactly("BILL-1", "REQ-2");
+            assertThat(page.hasMore()).isTrue();
+            ActivityCursor next = ActivityCursor.decode(page.nextCursor());
+            assertThat(next.createdAt()).isEqualTo(now.minusMinutes(2));
+            assertThat(next.id()).isEqualTo(page.items().getLast().id());
+        }
+
+        @Test
+        @DisplayName("should list a self-addressed transfer once")
+        void shouldDeduplicateSelfTransfer() {
+            MoneyTransfer self = transfer(1, userId, userId);
+            when(transferRepository.findSentBefore(any(), any(), any(), any())).thenReturn(List.of(self));
+            when(transferRepository.findReceivedBefore(any(), any(), any(), any())).thenReturn(List.of(self));
+
+            ActivityPage page = activityService.getActivity(userId, null, 10);
+
+            assertThat(page.items()).hasSize(1);
+        }
+
+        @Test
+        @DisplayName("should break timestamp ties by id like the database")
+        void shouldBreakTiesById() {
+            ActivityItem low = item(new UUID(0x7fffffffffffffffL, 0), now);
+            ActivityItem high = item(new UUID(0x8000000000000000L, 0), now);
+
+            ActivityPage page = ActivityService.merge(List.of(List.of(low), List.of(high)), 10);
+
+            // 0x80.. sorts after 0x7f.. as unsigned bytes, so it comes first in descending order
+            assertThat(page.items()).containsExactly(high, low);
+        }
+
+        private ActivityItem item(UUID id, LocalDateTime createdAt) {
+            return new ActivityItem(id, TransactionType.TRANSFER, ActivityItem.Direction.OUTGOING, "TXN",
+                    null, BigDecimal.ONE, "USD", "COMPLETED", null, createdAt);
+        }
+    }
+
+    @Nested
+    @DisplayName("Keyset Cursor")
+    class KeysetCursor {
+
+        @Test
+        @DisplayName("should fetch limit + 1 rows per source strictly before the cursor")
+        void shouldQueryBeforeCursor() {
+            ActivityCursor cursor = new ActivityCursor(now, UUID.randomUUID());
+
+            activityService.getActivity(userId, cursor.encode(), 25);
+
+            verify(transferRepository).findSentBefore(eq(userId), eq(now), eq(cursor.id()),
+                    argThat((Pageable p) -> p.getPageNumber() == 0 && p.getPageSize() == 26));
+            verify(requestRepository).findIncomingBefore(eq(userId), eq(now), eq(cursor.id()), any());
+        }
+
+        @Test
+        @DisplayName("should clamp the page size")
+        void shouldClampLimit() {
+            activityService.getActivity(userId, null, 10_000);
+
+            verify(billPaymentRepository).findByUserBefore(eq(userId), eq(ActivityCursor.START.createdAt()),
+                    eq(ActivityCursor.START.id()),
+                    argThat((Pageable p) -> p.getPageSize() == ActivityService.MAX_LIMIT + 1));
+        }
+
+        @Test
+        @DisplayName("should reject a malformed cursor")
+        void shouldRejectMalformedCursor() {
+            assertThatThrownBy(() -> activityService.getActivity(userId, "not-a-cursor", 10))
+                    .isInstanceOf(PaymentException.class);
+        }
+    }
+}
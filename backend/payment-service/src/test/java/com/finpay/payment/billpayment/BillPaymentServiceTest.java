@@ -1,18 +1,27 @@
 package com.finpay.payment.billpayment;
 
+import com.finpay.id.ReferenceGenerator;
+import com.finpay.payment.billpayment.biller.BillerCatalog;
+import com.finpay.payment.billpayment.biller.dto.BillerResponse;
 import com.finpay.payment.billpayment.dto.BillPaymentRequest;
 import com.finpay.payment.billpayment.dto.BillPaymentResponse;
 import com.finpay.payment.billpayment.event.BillPaymentEvent;
+import com.finpay.payment.reference.ReferenceResolver;
+import com.finpay.payment.rollup.TransactionRollupService;
 import com.finpay.payment.shared.exception.PaymentException;
 import com.finpay.payment.shared.exception.ResourceNotFoundException;
 import com.finpay.payment.shared.kafka.WalletCommandProducer;
+import com.finpay.payment.shared.saga.SagaRecovery;
+import com.finpay.payment.shared.saga.SagaWatchdogProperties;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
@@ -33,6 +42,11 @@ class BillPaymentServiceTest {
     @Mock private BillPaymentRepository billPaymentRepository;
     @Mock private BillPaymentEventProducer eventProducer;
     @Mock private WalletCommandProducer walletCommandProducer;
+    @Mock private TransactionRollupService rollupService;
+    @Mock private BillerCatalog billerCatalog;
+    @Spy private SagaWatchdogProperties sagaProperties = new SagaWatchdogProperties();
+    @Spy private ReferenceGenerator referenceGenerator = new ReferenceGenerator(0);
+    @Mock private ReferenceResolver referenceResolver;
 
     @InjectMocks private BillPaymentService billPaymentService;
 
@@ -64,6 +78,11 @@ class BillPaymentServiceTest {
                 .build();
     }
 
+    private void acceptTransitions() {
+        when(billPaymentRepository.applyTransition(any(), any(), anyInt(), any(), anyInt(), any(),
+                any(), any(), any(), any(), any(), any(), any(), any())).thenReturn(1);
+    }
+
     @Nested
     @DisplayName("Initiate Bill Payment")
     class InitiateBillPaymentTests {
@@ -77,6 +96,8 @@ class BillPaymentServiceTest {
                     new BigDecimal("150.00"), "USD", "Monthly electric bill"
             );
 
+            when(billerCatalog.requireBiller("PWR001", BillPayment.BillCategory.ELECTRICITY))
+                    .thenReturn(new BillerResponse("PWR001", "Power Corp", BillPayment.BillCategory.ELECTRICITY, true));
             when(billPaymentRepository.save(any(BillPayment.class))).thenReturn(testBill);
 
             BillPaymentResponse response = billPaymentService.initiateBillPayment(request);
@@ -86,6 +107,43 @@ class BillPaymentServiceTest {
             verify(walletCommandProducer).reserveFunds(eq(billId), eq(userId),
                     any(BigDecimal.class), eq("USD"), anyString());
         }
+
+        @Test
+        @DisplayName("should store the catalogue's biller code and name")
+        void shouldUseCatalogueBiller() {
+            BillPaymentRequest request = new BillPaymentRequest(
+                    userId, BillPayment.BillCategory.ELECTRICITY, "power corp typed by hand",
+                    "pwr001", "ACC-123456", "John Doe",
+                    new BigDecimal("150.00"), "USD", null
+            );
+            when(billerCatalog.requireBiller("pwr001", BillPayment.BillCategory.ELECTRICITY))
+                    .thenReturn(new BillerResponse("PWR001", "Power Corp", BillPayment.BillCategory.ELECTRICITY, true));
+            when(billPaymentRepository.save(any(BillPayment.class))).thenReturn(testBill);
+
+            billPaymentService.initiateBillPayment(request);
+
+            ArgumentCaptor<BillPayment> saved = ArgumentCaptor.forClass(BillPayment.class);
+            verify(billPaymentRepository).save(saved.capture());
+            assertThat(saved.getValue().getBillerCode()).isEqualTo("PWR001");
+            assertThat(saved.getValue().getBillerName()).isEqualTo("Power Corp");
+        }
+
+        @Test
+        @DisplayName("should reject a biller missing from the catalogue")
+        void shouldRejectUnknownBiller() {
+            BillPaymentRequest request = new BillPaymentRequest(
+                    userId, BillPayment.BillCategory.ELECTRICITY, "Nobody",
+                    "NOPE-1", "ACC-123456", "John Doe",
+                    new BigDecimal("150.00"), "USD", null
+            );
+            when(billerCatalog.requireBiller("NOPE-1", BillPayment.BillCategory.ELECTRICITY))
+                    .thenThrow(new PaymentException("Unknown biller: NOPE-1"));
+
+            assertThatThrownBy(() -> billPaymentService.initiateBillPayment(request))
+                    .isInstanceOf(PaymentException.class);
+            verify(billPaymentRepository, never()).save(any());
+            verifyNoInteractions(walletCommandProducer);
+        }
     }
 
     @Nested
@@ -97,7 +155,7 @@ class BillPaymentServiceTest {
         void shouldHandleFundsReserved() {
             UUID walletId = UUID.randomUUID();
             when(billPaymentRepository.findById(billId)).thenReturn(Optional.of(testBill));
-            when(billPaymentRepository.save(any(BillPayment.class))).thenReturn(testBill);
+            acceptTransitions();
 
             billPaymentService.handleFundsReserved(billId, walletId);
 
@@ -113,7 +171,7 @@ class BillPaymentServiceTest {
         void shouldHandleFundsDeducted() {
             testBill.setFundsReserved(true);
             when(billPaymentRepository.findById(billId)).thenReturn(Optional.of(testBill));
-            when(billPaymentRepository.save(any(BillPayment.class))).thenReturn(testBill);
+            acceptTransitions();
 
             billPaymentService.handleFundsDeducted(billId);
 
@@ -133,7 +191,7 @@ class BillPaymentServiceTest {
         void shouldHandleFailureWithReservation() {
             testBill.setFundsReserved(true);
             when(billPaymentRepository.findById(billId)).thenReturn(Optional.of(testBill));
-            when(billPaymentRepository.save(any(BillPayment.class))).thenReturn(testBill);
+            acceptTransitions();
 
             billPaymentService.handleFailure(billId, "Biller rejected");
 
@@ -149,7 +207,7 @@ class BillPaymentServiceTest {
             testBill.setFundsReserved(true);
             testBill.setFundsDeducted(true);
             when(billPaymentRepository.findById(billId)).thenReturn(Optional.of(testBill));
-            when(billPaymentRepository.save(any(BillPayment.class))).thenReturn(testBill);
+            acceptTransitions();
 
             billPaymentService.handleFailure(billId, "Biller error");
 
@@ -161,7 +219,7 @@ class BillPaymentServiceTest {
         @DisplayName("should complete compensation without wallet ops when no funds reserved")
         void shouldCompleteCompensationDirectly() {
             when(billPaymentRepository.findById(billId)).thenReturn(Optional.of(testBill));
-            when(billPaymentRepository.save(any(BillPayment.class))).thenReturn(testBill);
+            acceptTransitions();
 
             billPaymentService.handleFailure(billId, "Early failure");
 
@@ -171,19 +229,69 @@ class BillPaymentServiceTest {
         }
 
         @Test
-        @DisplayName("should handle compensated")
-        void shouldHandleCompensated() {
-            testBill.setCompensationRequired(true);
+        @DisplayName("should release a reservation that arrives after the bill was cancelled")
+        void shouldReleaseLateReservation() {
+            testBill.setStatus(BillPayment.BillPaymentStatus.CANCELLED);
+            testBill.setSagaStatus(BillPayment.SagaStatus.COMPENSATED);
             when(billPaymentRepository.findById(billId)).thenReturn(Optional.of(testBill));
-            when(billPaymentRepository.save(any(BillPayment.class))).thenReturn(testBill);
+            acceptTransitions();
+
+            billPaymentService.handleFundsReserved(billId, UUID.randomUUID());
+
+            assertThat(testBill.getSagaStatus()).isEqualTo(BillPayment.SagaStatus.COMPENSATING);
+            assertThat(testBill.getStatus()).isEqualTo(BillPayment.BillPaymentStatus.CANCELLED);
+            verify(walletCommandProducer).releaseFunds(eq(billId), eq(userId),
+                    any(BigDecimal.class), eq("USD"), anyString());
+            verify(walletCommandProducer, never()).deductFunds(any(), any(), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("should finish compensation once the reservation is released")
+        void shouldHandleFundsReleased() {
+            testBill.setFundsReserved(true);
+            testBill.setSagaStatus(BillPayment.SagaStatus.COMPENSATING);
+            when(billPaymentRepository.findById(billId)).thenReturn(Optional.of(testBill));
+            acceptTransitions();
 
-            billPaymentService.handleCompensated(billId);
+            billPaymentService.handleFundsReleased(billId);
 
             assertThat(testBill.isCompensationCompleted()).isTrue();
             assertThat(testBill.getStatus()).isEqualTo(BillPayment.BillPaymentStatus.COMPENSATED);
         }
     }
 
+    @Nested
+    @DisplayName("Stuck-saga Recovery")
+    class RecoveryTests {
+
+        private final LocalDateTime now = LocalDateTime.now();
+
+        @Test
+        @DisplayName("should re-send the reservation while retries remain")
+        void shouldResendReservation() {
+            SagaRecovery.Action action = billPaymentService.recoverStuckBill(testBill, now);
+
+            assertThat(action).isEqualTo(SagaRecovery.Action.RETRIED);
+            assertThat(testBill.getRecoveryAttempts()).isEqualTo(1);
+            verify(walletCommandProducer).reserveFunds(eq(billId), eq(userId),
+                    any(BigDecimal.class), eq("USD"), anyString());
+        }
+
+        @Test
+        @DisplayName("should fail the bill once retries are exhausted")
+        void shouldFailAfterMaxRetries() {
+            testBill.setRecoveryAttempts(sagaProperties.getMaxRetries());
+            acceptTransitions();
+
+            SagaRecovery.Action action = billPaymentService.recoverStuckBill(testBill, now);
+
+            assertThat(action).isEqualTo(SagaRecovery.Action.COMPENSATION_STARTED);
+            assertThat(testBill.getSagaStatus()).isEqualTo(BillPayment.SagaStatus.COMPENSATED);
+            assertThat(testBill.getNextDeadlineAt()).isNull();
+            verify(eventProducer).sendBillPaymentEvent(any(BillPaymentEvent.class));
+        }
+    }
+
     @Nested
     @DisplayName("Cancel Bill Payment")
     class CancelTests {
@@ -192,14 +300,31 @@ class BillPaymentServiceTest {
         @DisplayName("should cancel pending bill payment")
         void shouldCancelPending() {
             when(billPaymentRepository.findById(billId)).thenReturn(Optional.of(testBill));
-            when(billPaymentRepository.save(any(BillPayment.class))).thenReturn(testBill);
+            acceptTransitions();
 
             billPaymentService.cancelBillPayment(billId);
 
             assertThat(testBill.getStatus()).isEqualTo(BillPayment.BillPaymentStatus.CANCELLED);
+            assertThat(testBill.getSagaStatus()).isEqualTo(BillPayment.SagaStatus.COMPENSATED);
             verify(eventProducer).sendBillPaymentEvent(any(BillPaymentEvent.class));
         }
 
+        @Test
+        @DisplayName("should ignore a duplicate deduction after completion")
+        void shouldIgnoreDuplicateDeduction() {
+            testBill.setFundsReserved(true);
+            testBill.setFundsDeducted(true);
+            testBill.setStatus(BillPayment.BillPaymentStatus.COMPLETED);
+            testBill.setSagaStatus(BillPayment.SagaStatus.COMPLETED);
+            when(billPaymentRepository.findById(billId)).thenReturn(Optional.of(testBill));
+
+            billPaymentService.handleFundsDeducted(billId);
+
+            verifyNoInteractions(eventProducer, walletCommandProducer);
+            verify(billPaymentRepository, never()).applyTransition(any(), any(), anyInt(), any(), anyInt(), any(),
+                    any(), any(), any(), any(), any(), any(), any(), any());
+        }
+
         @Test
         @DisplayName("should throw when cancelling non-pending bill")
         void shouldThrowWhenNotPending() {
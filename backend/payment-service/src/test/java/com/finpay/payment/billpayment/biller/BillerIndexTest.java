@@ -0,0 +1,86 @@
+package com.finpay.payment.billpayment.biller;
+
+import com.finpay.payment.billpayment.BillPayment.BillCategory;
+import com.finpay.payment.billpayment.biller.dto.BillerResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("BillerIndex Unit Tests")
+class BillerIndexTest {
+
+    private BillerIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BillerIndex(List.of(
+                biller("ELEC-001", "City Power Co.", BillCategory.ELECTRICITY),
+                biller("ELEC-002", "National Grid Energy", BillCategory.ELECTRICITY),
+                biller("GAS-001", "PipeGas Energy", BillCategory.GAS),
+                biller("WATER-001", "Metro Water Supply", BillCategory.WATER),
+                biller("NET-001", "FiberNet ISP", BillCategory.INTERNET)), null);
+    }
+
+    @Test
+    @DisplayName("should match name word prefixes, ordered by name")
+    void shouldMatchWordPrefix() {
+        assertThat(codes(index.search("ener", null, 10))).containsExactly("ELEC-002", "GAS-001");
+        assertThat(codes(index.search("wat", null, 10))).containsExactly("WATER-001");
+    }
+
+    @Test
+    @DisplayName("should match across words and by code, ignoring case and punctuation")
+    void shouldMatchWholeNameAndCode() {
+        assertThat(codes(index.search("City Pow", null, 10))).containsExactly("ELEC-001");
+        assertThat(codes(index.search("elec-00", null, 10))).containsExactly("ELEC-001", "ELEC-002");
+    }
+
+    @Test
+    @DisplayName("should tolerate a transposition or substitution, ranking exact prefixes first")
+    void shouldTolerateTypos() {
+        assertThat(codes(index.search("ctiy", null, 10))).containsExactly("ELEC-001");
+        assertThat(codes(index.search("fibernte", null, 10))).containsExactly("NET-001");
+        assertThat(codes(index.search("metrp", null, 10))).containsExactly("WATER-001");
+    }
+
+    @Test
+    @DisplayName("should not fuzz very short queries")
+    void shouldNotFuzzShortQueries() {
+        assertThat(index.search("xi", null, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should filter by category and honour the limit")
+    void shouldFilterByCategory() {
+        assertThat(codes(index.search("energy", BillCategory.GAS, 10))).containsExactly("GAS-001");
+        assertThat(index.search("", BillCategory.ELECTRICITY, 10)).hasSize(2);
+        assertThat(index.search("", null, 3)).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("should resolve codes case-insensitively")
+    void shouldFindByCode() {
+        assertThat(index.findByCode(" elec-001 ")).map(BillerResponse::name).contains("City Power Co.");
+        assertThat(index.findByCode("ELEC-999")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should compute prefix edit distance with transpositions")
+    void shouldComputePrefixDistance() {
+        assertThat(BillerIndex.prefixDistance("pwoer", "power", 2)).isEqualTo(1);
+        assertThat(BillerIndex.prefixDistance("powr", "powerful", 1)).isEqualTo(1);
+        assertThat(BillerIndex.prefixDistance("zzzz", "power", 1)).isEqualTo(2);
+    }
+
+    private static BillerResponse biller(String code, String name, BillCategory category) {
+        return new BillerResponse(code, name, category, true);
+    }
+
+    private static List<String> codes(List<BillerResponse> billers) {
+        return billers.stream().map(BillerResponse::code).toList();
+    }
+}
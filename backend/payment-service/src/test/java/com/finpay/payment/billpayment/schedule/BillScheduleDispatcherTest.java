@@ -0,0 +1,138 @@
+package com.finpay.payment.billpayment.schedule;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BillScheduleDispatcher Unit Tests")
+class BillScheduleDispatcherTest {
+
+    @Mock private BillScheduleService scheduleService;
+
+    private BillScheduleProperties properties;
+    private BillScheduleDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        properties = new BillScheduleProperties();
+        properties.setPerBillerRate(2);
+        properties.setGlobalRate(5);
+        properties.setBatchSize(3);
+        properties.setMaxPending(5);
+        dispatcher = new BillScheduleDispatcher(scheduleService, properties, Runnable::run);
+    }
+
+    @Test
+    @DisplayName("should cap starts per biller and in total, round-robin across billers")
+    void shouldRateLimitPerBillerAndGlobally() {
+        List<DueRun> due = new ArrayList<>();
+        due.addAll(runs("ELEC", 6));
+        due.addAll(runs("WATER", 1));
+        due.addAll(runs("GAS", 3));
+
+        List<DueRun> first = dispatcher.release(due, LocalDateTime.now());
+
+        assertThat(first).hasSize(5);
+        assertThat(first).filteredOn(r -> r.billerCode().equals("ELEC")).hasSize(2);
+        assertThat(first).filteredOn(r -> r.billerCode().equals("WATER")).hasSize(1);
+        assertThat(first).filteredOn(r -> r.billerCode().equals("GAS")).hasSize(2);
+
+        // Remaining backlog drains on later ticks, still within the per-biller cap
+        List<DueRun> second = dispatcher.release(List.of(), LocalDateTime.now());
+        assertThat(second).hasSize(3);
+        assertThat(second).filteredOn(r -> r.billerCode().equals("ELEC")).hasSize(2);
+
+        assertThat(dispatcher.release(List.of(), LocalDateTime.now())).hasSize(2);
+        assertThat(dispatcher.release(List.of(), LocalDateTime.now())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should drop runs whose lease lapsed in the queue without using their biller's slots")
+    void shouldDropLapsedRuns() {
+        List<DueRun> lapsed = runs("ELEC", 3).stream()
+                .map(r -> new DueRun(r.scheduleId(), r.billerCode(), r.runAt(), r.claim(),
+                        LocalDateTime.now().minusSeconds(1)))
+                .toList();
+        List<DueRun> current = runs("ELEC", 2);
+        List<DueRun> claimed = new ArrayList<>(lapsed);
+        claimed.addAll(current);
+        when(scheduleService.claimDue(any(), any(), any(), anyInt())).thenReturn(claimed);
+
+        dispatcher.claimDueSchedules();
+        dispatcher.releaseDueRuns();
+
+        current.forEach(run -> verify(scheduleService).run(run));
+        verify(scheduleService, times(2)).run(any());
+        assertThat(dispatcher.pending()).isZero();
+    }
+
+    @Test
+    @DisplayName("should claim in chunks and stop at the pending limit")
+    void shouldStopClaimingAtPendingLimit() {
+        when(scheduleService.claimDue(any(), any(), eq(properties.getLease()), anyInt()))
+                .thenAnswer(inv -> runs("ELEC", inv.getArgument(3)));
+
+        dispatcher.claimDueSchedules();
+
+        assertThat(dispatcher.pending()).isEqualTo(5);
+        verify(scheduleService).claimDue(any(), any(), any(Duration.class), eq(3));
+        verify(scheduleService).claimDue(any(), any(), any(Duration.class), eq(2));
+
+        dispatcher.claimDueSchedules();
+        verify(scheduleService, times(2)).claimDue(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("should start released runs and free their pending slots")
+    void shouldStartDueRuns() {
+        DueRun run = new DueRun(UUID.randomUUID(), "ELEC", LocalDateTime.now().minusSeconds(1), 1,
+                LocalDateTime.now().plusMinutes(10));
+        when(scheduleService.claimDue(any(), any(), any(), anyInt())).thenReturn(List.of(run));
+
+        dispatcher.claimDueSchedules();
+        dispatcher.releaseDueRuns();
+
+        verify(scheduleService).run(run);
+        assertThat(dispatcher.pending()).isZero();
+    }
+
+    @Test
+    @DisplayName("should record a run that throws so the schedule backs off")
+    void shouldRecordFailedRun() {
+        DueRun run = new DueRun(UUID.randomUUID(), "ELEC", LocalDateTime.now().minusSeconds(1), 1,
+                LocalDateTime.now().plusMinutes(10));
+        when(scheduleService.claimDue(any(), any(), any(), anyInt())).thenReturn(List.of(run));
+        when(scheduleService.run(run)).thenThrow(new IllegalStateException("wallet-service unavailable"));
+
+        dispatcher.claimDueSchedules();
+        dispatcher.releaseDueRuns();
+
+        verify(scheduleService).recordFailure(eq(run), any(LocalDateTime.class),
+                eq(properties.getMaxFailures()), eq(properties.getFailureBackoff()));
+        assertThat(dispatcher.pending()).isZero();
+    }
+
+    private static List<DueRun> runs(String billerCode, int count) {
+        LocalDateTime due = LocalDateTime.now().minusMinutes(1);
+        return IntStream.range(0, count)
+                .mapToObj(i -> new DueRun(UUID.randomUUID(), billerCode, due, 1, due.plusMinutes(10)))
+                .toList();
+    }
+}
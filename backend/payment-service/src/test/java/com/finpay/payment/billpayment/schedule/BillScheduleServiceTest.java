@@ -0,0 +1,250 @@
+package com.finpay.payment.billpayment.schedule;
+
+import com.finpay.payment.billpayment.BillPayment;
+import com.finpay.payment.billpayment.BillPaymentService;
+import com.finpay.payment.billpayment.biller.BillerCatalog;
+import com.finpay.payment.billpayment.biller.dto.BillerResponse;
+import com.finpay.payment.billpayment.dto.BillPaymentRequest;
+import com.finpay.payment.billpayment.dto.BillPaymentResponse;
+import com.finpay.payment.shared.exception.PaymentException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BillScheduleService Unit Tests")
+class BillScheduleServiceTest {
+
+    private static final LocalDateTime LEASED_UNTIL = LocalDateTime.now().plusMinutes(10);
+
+    @Mock private BillScheduleRepository scheduleRepository;
+    @Mock private BillPaymentService billPaymentService;
+    @Mock private BillerCatalog billerCatalog;
+
+    @InjectMocks
+    private BillScheduleService scheduleService;
+
+    private UUID scheduleId;
+    private BillSchedule schedule;
+
+    @BeforeEach
+    void setUp() {
+        scheduleId = UUID.randomUUID();
+        schedule = BillSchedule.builder()
+                .id(scheduleId)
+                .userId(UUID.randomUUID())
+                .category(BillPayment.BillCategory.ELECTRICITY)
+                .billerName("City Power")
+                .billerCode("ELEC-001")
+                .accountNumber("ACC-42")
+                .amount(new BigDecimal("80.00"))
+                .frequency(BillSchedule.Frequency.MONTHLY)
+                .anchorDay(31)
+                .nextRunAt(LocalDateTime.of(2026, 1, 31, 9, 0))
+                .build();
+    }
+
+    @Nested
+    @DisplayName("Run")
+    class RunTests {
+
+        @Test
+        @DisplayName("should initiate the bill and advance a monthly schedule, clamping to month end")
+        void shouldInitiateBillAndAdvance() {
+            DueRun run = new DueRun(scheduleId, "ELEC-001", schedule.getNextRunAt(), 0, LEASED_UNTIL);
+            UUID billId = UUID.randomUUID();
+            BillPaymentResponse bill = mock(BillPaymentResponse.class);
+            when(bill.id()).thenReturn(billId);
+            when(scheduleRepository.findByIdForUpdate(scheduleId)).thenReturn(Optional.of(schedule));
+            when(billerCatalog.findBiller("ELEC-001")).thenReturn(Optional.of(
+                    new BillerResponse("ELEC-001", "City Power", BillPayment.BillCategory.ELECTRICITY, true)));
+            when(billPaymentService.initiateBillPayment(any())).thenReturn(bill);
+
+            boolean ran = scheduleService.run(run);
+
+            assertThat(ran).isTrue();
+            ArgumentCaptor<BillPaymentRequest> request = ArgumentCaptor.forClass(BillPaymentRequest.class);
+            verify(billPaymentService).initiateBillPayment(request.capture());
+            assertThat(request.getValue().billerCode()).isEqualTo("ELEC-001");
+            assertThat(request.getValue().amount()).isEqualByComparingTo("80.00");
+            assertThat(schedule.getRunCount()).isEqualTo(1);
+            assertThat(schedule.getLastBillPaymentId()).isEqualTo(billId);
+            assertThat(schedule.getClaimedUntil()).isNull();
+            assertThat(schedule.getNextRunAt()).isAfter(LocalDateTime.now());
+            assertThat(schedule.getNextRunAt().getDayOfMonth())
+                    .isEqualTo(Math.min(31, schedule.getNextRunAt().toLocalDate().lengthOfMonth()));
+        }
+
+        @Test
+        @DisplayName("should skip a run whose due time the schedule has moved past")
+        void shouldSkipStaleRun() {
+            DueRun run = new DueRun(scheduleId, "ELEC-001", schedule.getNextRunAt().minusMonths(1), 0,
+                    LEASED_UNTIL);
+            when(scheduleRepository.findByIdForUpdate(scheduleId)).thenReturn(Optional.of(schedule));
+
+            assertThat(scheduleService.run(run)).isFalse();
+            verifyNoInteractions(billPaymentService);
+        }
+
+        @Test
+        @DisplayName("should pause a schedule whose biller was deactivated")
+        void shouldPauseWhenBillerInactive() {
+            DueRun run = new DueRun(scheduleId, "ELEC-001", schedule.getNextRunAt(), 0, LEASED_UNTIL);
+            when(scheduleRepository.findByIdForUpdate(scheduleId)).thenReturn(Optional.of(schedule));
+            when(billerCatalog.findBiller("ELEC-001")).thenReturn(Optional.empty());
+
+            assertThat(scheduleService.run(run)).isFalse();
+            assertThat(schedule.getStatus()).isEqualTo(BillSchedule.ScheduleStatus.PAUSED);
+            verifyNoInteractions(billPaymentService);
+        }
+
+        @Test
+        @DisplayName("should skip a run whose lease was claimed again by another instance")
+        void shouldSkipRunClaimedElsewhere() {
+            schedule.setClaimCount(2);
+            DueRun run = new DueRun(scheduleId, "ELEC-001", schedule.getNextRunAt(), 1, LEASED_UNTIL);
+            when(scheduleRepository.findByIdForUpdate(scheduleId)).thenReturn(Optional.of(schedule));
+
+            assertThat(scheduleService.run(run)).isFalse();
+            verifyNoInteractions(billPaymentService);
+        }
+
+        @Test
+        @DisplayName("should skip a cancelled schedule")
+        void shouldSkipCancelledSchedule() {
+            schedule.setStatus(BillSchedule.ScheduleStatus.CANCELLED);
+            DueRun run = new DueRun(scheduleId, "ELEC-001", schedule.getNextRunAt(), 0, LEASED_UNTIL);
+            when(scheduleRepository.findByIdForUpdate(scheduleId)).thenReturn(Optional.of(schedule));
+
+            assertThat(scheduleService.run(run)).isFalse();
+            verifyNoInteractions(billPaymentService);
+        }
+    }
+
+    @Nested
+    @DisplayName("Failed runs")
+    class FailureTests {
+
+        @Test
+        @DisplayName("should back a failing schedule off, doubling the delay each time")
+        void shouldBackOff() {
+            DueRun run = new DueRun(scheduleId, "ELEC-001", schedule.getNextRunAt(), 0, LEASED_UNTIL);
+            LocalDateTime now = LocalDateTime.of(2026, 1, 31, 9, 0);
+            when(scheduleRepository.findByIdForUpdate(scheduleId)).thenReturn(Optional.of(schedule));
+
+            scheduleService.recordFailure(run, now, 5, Duration.ofMinutes(1));
+            assertThat(schedule.getClaimedUntil()).isEqualTo(now.plusMinutes(1));
+            scheduleService.recordFailure(run, now, 5, Duration.ofMinutes(1));
+            assertThat(schedule.getClaimedUntil()).isEqualTo(now.plusMinutes(2));
+
+            assertThat(schedule.getFailureCount()).isEqualTo(2);
+            assertThat(schedule.getStatus()).isEqualTo(BillSchedule.ScheduleStatus.ACTIVE);
+        }
+
+        @Test
+        @DisplayName("should pause a schedule after the maximum consecutive failures")
+        void shouldPauseAfterMaxFailures() {
+            schedule.setFailureCount(4);
+            DueRun run = new DueRun(scheduleId, "ELEC-001", schedule.getNextRunAt(), 0, LEASED_UNTIL);
+            when(scheduleRepository.findByIdForUpdate(scheduleId)).thenReturn(Optional.of(schedule));
+
+            scheduleService.recordFailure(run, LocalDateTime.now(), 5, Duration.ofMinutes(1));
+
+            assertThat(schedule.getStatus()).isEqualTo(BillSchedule.ScheduleStatus.PAUSED);
+            assertThat(schedule.getClaimedUntil()).isNull();
+        }
+
+        @Test
+        @DisplayName("should reset the failure count after a successful run")
+        void shouldResetFailuresOnRun() {
+            schedule.setFailureCount(3);
+
+            schedule.recordRun(UUID.randomUUID(), schedule.getNextRunAt());
+
+            assertThat(schedule.getFailureCount()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Schedule lifecycle")
+    class LifecycleTests {
+
+        @Test
+        @DisplayName("should complete a one-off schedule after its run")
+        void shouldCompleteOneOff() {
+            schedule.setFrequency(BillSchedule.Frequency.ONCE);
+            LocalDateTime due = schedule.getNextRunAt();
+
+            schedule.recordRun(UUID.randomUUID(), due);
+
+            assertThat(schedule.getStatus()).isEqualTo(BillSchedule.ScheduleStatus.COMPLETED);
+            assertThat(schedule.getNextRunAt()).isEqualTo(due);
+        }
+
+        @Test
+        @DisplayName("should keep the anchor day after a short month")
+        void shouldKeepAnchorDay() {
+            schedule.recordRun(UUID.randomUUID(), LocalDateTime.of(2026, 1, 31, 9, 0));
+            assertThat(schedule.getNextRunAt()).isEqualTo(LocalDateTime.of(2026, 2, 28, 9, 0));
+
+            schedule.recordRun(UUID.randomUUID(), LocalDateTime.of(2026, 2, 28, 9, 0));
+            assertThat(schedule.getNextRunAt()).isEqualTo(LocalDateTime.of(2026, 3, 31, 9, 0));
+        }
+
+        @Test
+        @DisplayName("should lease claimed schedules in one update")
+        void shouldLeaseClaimedSchedules() {
+            LocalDateTime now = LocalDateTime.now();
+            when(scheduleRepository.findDueForUpdate(eq(now.plusMinutes(5)), eq(now), any(Pageable.class)))
+                    .thenReturn(List.of(schedule));
+
+            List<DueRun> runs = scheduleService.claimDue(now, now.plusMinutes(5), Duration.ofMinutes(10), 100);
+
+            assertThat(runs).containsExactly(new DueRun(scheduleId, "ELEC-001", schedule.getNextRunAt(), 1,
+                    now.plusMinutes(10)));
+            verify(scheduleRepository).claimAll(List.of(scheduleId), now.plusMinutes(10));
+        }
+
+        @Test
+        @DisplayName("should resume a paused schedule from its next future occurrence")
+        void shouldResumeFromNextOccurrence() {
+            schedule.setStatus(BillSchedule.ScheduleStatus.PAUSED);
+            LocalDateTime now = LocalDateTime.of(2026, 4, 10, 12, 0);
+
+            schedule.resume(now);
+
+            assertThat(schedule.getStatus()).isEqualTo(BillSchedule.ScheduleStatus.ACTIVE);
+            assertThat(schedule.getNextRunAt()).isEqualTo(LocalDateTime.of(2026, 4, 30, 9, 0));
+        }
+
+        @Test
+        @DisplayName("should only cancel active or paused schedules")
+        void shouldRejectCancellingInactiveSchedule() {
+            schedule.setStatus(BillSchedule.ScheduleStatus.COMPLETED);
+            when(scheduleRepository.findByIdForUpdate(scheduleId)).thenReturn(Optional.of(schedule));
+
+            assertThatThrownBy(() -> scheduleService.cancelSchedule(scheduleId))
+                    .isInstanceOf(PaymentException.class);
+        }
+    }
+}
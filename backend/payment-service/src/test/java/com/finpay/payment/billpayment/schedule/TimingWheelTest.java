@@ -0,0 +1,59 @@
+package com.finpay.payment.billpayment.schedule;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("TimingWheel Unit Tests")
+class TimingWheelTest {
+
+    private static final long START = 1_000_000;
+
+    @Test
+    @DisplayName("should release entries once their tick is reached")
+    void shouldReleaseAtDueTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(1000, 10, START);
+        wheel.add("a", START + 2_000);
+        wheel.add("b", START + 5_500);
+
+        assertThat(wheel.advance(START + 1_999)).isEmpty();
+        assertThat(wheel.advance(START + 2_000)).containsExactly("a");
+        assertThat(wheel.advance(START + 5_999)).isEmpty();
+        assertThat(wheel.advance(START + 6_000)).containsExactly("b");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("should keep entries more than one revolution away until their round")
+    void shouldHoldEntriesBeyondOneRevolution() {
+        TimingWheel<String> wheel = new TimingWheel<>(1000, 10, START);
+        wheel.add("near", START + 3_000);
+        wheel.add("far", START + 13_000); // same slot, next revolution
+
+        assertThat(wheel.advance(START + 3_000)).containsExactly("near");
+        assertThat(wheel.advance(START + 12_000)).isEmpty();
+        assertThat(wheel.advance(START + 13_000)).containsExactly("far");
+    }
+
+    @Test
+    @DisplayName("should release overdue entries on the next advance")
+    void shouldReleaseOverdueEntries() {
+        TimingWheel<String> wheel = new TimingWheel<>(1000, 10, START);
+        wheel.advance(START + 4_000);
+        wheel.add("late", START - 60_000);
+
+        assertThat(wheel.advance(START + 5_000)).containsExactly("late");
+    }
+
+    @Test
+    @DisplayName("should release everything due after a pause longer than the wheel")
+    void shouldCatchUpAfterLongPause() {
+        TimingWheel<String> wheel = new TimingWheel<>(1000, 10, START);
+        wheel.add("a", START + 1_000);
+        wheel.add("b", START + 8_000);
+        wheel.add("c", START + 25_000);
+
+        assertThat(wheel.advance(START + 30_000)).containsExactlyInAnyOrder("a", "b", "c");
+    }
+}
@@ -3,6 +3,8 @@ package com.finpay.payment.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.finpay.payment.billpayment.BillPayment;
 import com.finpay.payment.billpayment.BillPaymentRepository;
+import com.finpay.payment.billpayment.biller.BillerCatalog;
+import com.finpay.payment.billpayment.biller.dto.BillerRequest;
 import com.finpay.payment.billpayment.dto.BillPaymentRequest;
 import com.finpay.payment.payment.Payment;
 import com.finpay.payment.payment.PaymentRepository;
@@ -56,6 +58,9 @@ class PaymentControllerIntegrationTest {
     @Autowired
     private MoneyRequestRepository moneyRequestRepository;
 
+    @Autowired
+    private BillerCatalog billerCatalog;
+
     private static final UUID TEST_USER_ID = UUID.randomUUID();
 
     @BeforeEach
@@ -64,6 +69,11 @@ class PaymentControllerIntegrationTest {
         moneyTransferRepository.deleteAll();
         billPaymentRepository.deleteAll();
         paymentRepository.deleteAll();
+
+        // Billers the bill payment tests pay; initiation rejects codes missing from the catalogue
+        billerCatalog.upsert("PWR-001", new BillerRequest("Power Co", BillPayment.BillCategory.ELECTRICITY, true));
+        billerCatalog.upsert("WTR-001", new BillerRequest("Water Corp", BillPayment.BillCategory.WATER, true));
+        billerCatalog.upsert("ISP-001", new BillerRequest("ISP Co", BillPayment.BillCategory.INTERNET, true));
     }
 
     private PaymentRequest validPaymentRequest() {
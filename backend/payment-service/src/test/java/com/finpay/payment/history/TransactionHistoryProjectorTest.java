@@ -0,0 +1,228 @@
+package com.finpay.payment.history;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.finpay.payment.billpayment.BillPayment;
+import com.finpay.payment.billpayment.event.BillPaymentEvent;
+import com.finpay.payment.detail.dto.StatusTimelineEntry;
+import com.finpay.payment.detail.dto.TransactionDetailResponse;
+import com.finpay.payment.request.event.MoneyRequestEvent;
+import com.finpay.payment.transfer.MoneyTransfer;
+import com.finpay.payment.transfer.event.TransferSagaEvent;
+import com.finpay.payment.transfer.event.TransferSagaEvent.SagaAction;
+import com.finpay.payment.transfer.event.TransferSagaEvent.SagaStep;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TransactionHistoryProjector Unit Tests")
+class TransactionHistoryProjectorTest {
+
+    @Mock private TransactionHistoryEntryRepository entryRepository;
+    @Mock private TransactionHistoryViewRepository viewRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final List<TransactionHistoryEntry> entries = new ArrayList<>();
+    private final Map<UUID, TransactionHistoryView> views = new HashMap<>();
+
+    private TransactionHistoryProjector projector;
+    private TransactionHistoryReader reader;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        projector = new TransactionHistoryProjector(entryRepository, viewRepository, objectMapper);
+        reader = new TransactionHistoryReader(viewRepository, objectMapper);
+        start = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+        // In-memory tables behind the repository mocks
+        lenient().when(entryRepository.existsByTransactionIdAndStepAndOutcome(any(), any(), any()))
+                .thenAnswer(inv -> entries.stream().anyMatch(e -> e.getTransactionId().equals(inv.getArgument(0))
+                        && e.getStep().equals(inv.getArgument(1)) && e.getOutcome() == inv.getArgument(2)));
+        lenient().when(entryRepository.save(any(TransactionHistoryEntry.class))).thenAnswer(inv -> {
+            entries.add(inv.getArgument(0));
+            return inv.getArgument(0);
+        });
+        lenient().when(entryRepository.findByTransactionIdOrderByOccurredAtAsc(any()))
+                .thenAnswer(inv -> entries.stream()
+                        .filter(e -> e.getTransactionId().equals(inv.getArgument(0)))
+                        .sorted(Comparator.comparing(TransactionHistoryEntry::getOccurredAt))
+                        .toList());
+        lenient().when(viewRepository.findById(any()))
+                .thenAnswer(inv -> Optional.ofNullable(views.get((UUID) inv.getArgument(0))));
+        lenient().when(viewRepository.findVersion(any(), any()))
+                .thenAnswer(inv -> Optional.ofNullable(views.get((UUID) inv.getArgument(0)))
+                        .filter(view -> view.getType() == inv.getArgument(1))
+                        .map(TransactionHistoryView::getVersion));
+        lenient().when(viewRepository.save(any(TransactionHistoryView.class))).thenAnswer(inv -> {
+            TransactionHistoryView view = inv.getArgument(0);
+            view.setVersion(view.getVersion() == null ? 0L : view.getVersion() + 1);
+            views.put(view.getTransactionId(), view);
+            return view;
+        });
+    }
+
+    private TransferSagaEvent transferEvent(UUID id, SagaStep step, SagaAction action,
+                                            MoneyTransfer.TransferStatus status, String reason, int minute) {
+        return new TransferSagaEvent(id, "TXN-1", UUID.randomUUID(), null, UUID.randomUUID(), null,
+                new BigDecimal("25.00"), "USD", "Dinner", MoneyTransfer.TransferType.SEND,
+                step, action, status, reason, start.plusMinutes(minute));
+    }
+
+    private TransactionDetailResponse detail(UUID id, TransactionDetailResponse.TransactionType type) {
+        return reader.findDetail(id, type).orElseThrow().detail();
+    }
+
+    @Nested
+    @DisplayName("Transfers")
+    class Transfers {
+
+        @Test
+        @DisplayName("should record the real time of every saga step")
+        void shouldRecordStepTimes() {
+            UUID id = UUID.randomUUID();
+            projector.project(transferEvent(id, SagaStep.INITIATE, SagaAction.EXECUTE,
+                    MoneyTransfer.TransferStatus.PROCESSING, null, 0));
+            projector.project(transferEvent(id, SagaStep.RESERVE_FUNDS, SagaAction.CONFIRM,
+                    MoneyTransfer.TransferStatus.PROCESSING, null, 1));
+            projector.project(transferEvent(id, SagaStep.DEDUCT_FUNDS, SagaAction.CONFIRM,
+                    MoneyTransfer.TransferStatus.PROCESSING, null, 2));
+            projector.project(transferEvent(id, SagaStep.CREDIT_FUNDS, SagaAction.CONFIRM,
+                    MoneyTransfer.TransferStatus.COMPLETED, null, 3));
+            projector.project(transferEvent(id, SagaStep.COMPLETE, SagaAction.CONFIRM,
+                    MoneyTransfer.TransferStatus.COMPLETED, null, 3));
+
+            TransactionDetailResponse detail = detail(id, TransactionDetailResponse.TransactionType.TRANSFER);
+
+            assertThat(detail.status()).isEqualTo("COMPLETED");
+            assertThat(detail.completedAt()).isEqualTo(start.plusMinutes(3));
+            assertThat(detail.timeline()).extracting(StatusTimelineEntry::timestamp).containsExactly(
+                    start, start.plusMinutes(1), start.plusMinutes(2), start.plusMinutes(3), start.plusMinutes(3));
+            assertThat(detail.timeline()).allMatch(StatusTimelineEntry::completed);
+            assertThat(detail.availableActions()).containsExactly("DISPUTE");
+        }
+
+        @Test
+        @DisplayName("should show the failure in place of the step that was not reached")
+        void shouldShowFailureAndRollback() {
+            UUID id = UUID.randomUUID();
+            projector.project(transferEvent(id, SagaStep.INITIATE, SagaAction.EXECUTE,
+                    MoneyTransfer.TransferStatus.PROCESSING, null, 0));
+            projector.project(transferEvent(id, SagaStep.RESERVE_FUNDS, SagaAction.CONFIRM,
+                    MoneyTransfer.TransferStatus.PROCESSING, null, 1));
+            projector.project(transferEvent(id, SagaStep.DEDUCT_FUNDS, SagaAction.FAIL,
+                    MoneyTransfer.TransferStatus.COMPENSATING, "Insufficient funds", 2));
+            projector.project(transferEvent(id, SagaStep.COMPENSATE, SagaAction.COMPENSATE,
+                    MoneyTransfer.TransferStatus.COMPENSATING, "Insufficient funds", 2));
+
+            TransactionDetailResponse detail = detail(id, TransactionDetailResponse.TransactionType.TRANSFER);
+
+            assertThat(detail.timeline()).extracting(StatusTimelineEntry::status)
+                    .containsExactly("CREATED", "FUNDS_RESERVED", "FUNDS_DEDUCTED", "COMPENSATING");
+            StatusTimelineEntry failure = detail.timeline().get(2);
+            assertThat(failure.failed()).isTrue();
+            assertThat(failure.description()).isEqualTo("Insufficient funds");
+            assertThat(detail.timeline().getLast().current()).isTrue();
+            assertThat(detail.failureReason()).isEqualTo("Insufficient funds");
+        }
+
+        @Test
+        @DisplayName("should not roll the status back when an older event is redelivered")
+        void shouldIgnoreOlderEventForStatus() {
+            UUID id = UUID.randomUUID();
+            projector.project(transferEvent(id, SagaStep.INITIATE, SagaAction.EXECUTE,
+                    MoneyTransfer.TransferStatus.PROCESSING, null, 0));
+            projector.project(transferEvent(id, SagaStep.COMPLETE, SagaAction.CONFIRM,
+                    MoneyTransfer.TransferStatus.COMPLETED, null, 5));
+            projector.project(transferEvent(id, SagaStep.RESERVE_FUNDS, SagaAction.CONFIRM,
+                    MoneyTransfer.TransferStatus.PROCESSING, null, 1));
+            projector.project(transferEvent(id, SagaStep.RESERVE_FUNDS, SagaAction.CONFIRM,
+                    MoneyTransfer.TransferStatus.PROCESSING, null, 1));
+
+            TransactionDetailResponse detail = detail(id, TransactionDetailResponse.TransactionType.TRANSFER);
+
+            assertThat(detail.status()).isEqualTo("COMPLETED");
+            assertThat(entries).hasSize(3);
+        }
+    }
+
+    @Test
+    @DisplayName("should start the rollback step when a bill payment fails")
+    void shouldProjectFailedBill() {
+        UUID id = UUID.randomUUID();
+        projector.project(billEvent(id, BillPaymentEvent.EventType.BILL_PAYMENT_INITIATED,
+                BillPayment.BillPaymentStatus.PENDING, null, 0));
+        projector.project(billEvent(id, BillPaymentEvent.EventType.BILL_PAYMENT_PROCESSING,
+                BillPayment.BillPaymentStatus.PROCESSING, null, 1));
+        projector.project(billEvent(id, BillPaymentEvent.EventType.BILL_PAYMENT_FAILED,
+                BillPayment.BillPaymentStatus.COMPENSATING, "Wallet frozen", 2));
+
+        TransactionDetailResponse detail = detail(id, TransactionDetailResponse.TransactionType.BILL_PAYMENT);
+
+        assertThat(detail.status()).isEqualTo("COMPENSATING");
+        assertThat(detail.title()).isEqualTo("Bill Payment - City Power");
+        assertThat(detail.timeline()).extracting(StatusTimelineEntry::status)
+                .containsExactly("CREATED", "FUNDS_RESERVED", "FUNDS_DEDUCTED", "COMPENSATING");
+        assertThat(detail.timeline().get(1).timestamp()).isEqualTo(start.plusMinutes(1));
+    }
+
+    @Test
+    @DisplayName("should label a declined money request with its own step")
+    void shouldProjectDeclinedRequest() {
+        UUID id = UUID.randomUUID();
+        projector.project(requestEvent(id, MoneyRequestEvent.EventType.REQUEST_CREATED, 0));
+        projector.project(requestEvent(id, MoneyRequestEvent.EventType.REQUEST_DECLINED, 4));
+
+        TransactionDetailResponse detail = detail(id, TransactionDetailResponse.TransactionType.MONEY_REQUEST);
+
+        assertThat(detail.status()).isEqualTo("DECLINED");
+        assertThat(detail.metadata()).containsEntry("declinedAt", start.plusMinutes(4).toString());
+        assertThat(detail.timeline()).extracting(StatusTimelineEntry::label)
+                .containsExactly("Request Created", "Request Declined");
+        assertThat(detail.availableActions()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should not serve a view under another transaction type")
+    void shouldMatchType() {
+        UUID id = UUID.randomUUID();
+        projector.project(requestEvent(id, MoneyRequestEvent.EventType.REQUEST_CREATED, 0));
+
+        assertThat(reader.findDetail(id, TransactionDetailResponse.TransactionType.TRANSFER)).isEmpty();
+    }
+
+    private BillPaymentEvent billEvent(UUID id, BillPaymentEvent.EventType type,
+                                       BillPayment.BillPaymentStatus status, String reason, int minute) {
+        return new BillPaymentEvent(id, UUID.randomUUID(), "BILL-1", BillPayment.BillCategory.ELECTRICITY,
+                "City Power", "CP01", "ACC-9", null, new BigDecimal("40.00"), new BigDecimal("0.50"),
+                new BigDecimal("40.50"), "USD", null, null, status, type, reason, start.plusMinutes(minute));
+    }
+
+    private MoneyRequestEvent requestEvent(UUID id, MoneyRequestEvent.EventType type, int minute) {
+        return new MoneyRequestEvent(id, "REQ-1", UUID.randomUUID(), UUID.randomUUID(),
+                new BigDecimal("15.00"), "USD", "Lunch", type, null, start.plusMinutes(minute));
+    }
+}
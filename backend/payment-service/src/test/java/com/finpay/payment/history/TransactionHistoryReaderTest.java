@@ -0,0 +1,99 @@
+package com.finpay.payment.history;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.finpay.payment.detail.dto.TransactionDetailResponse;
+import com.finpay.payment.detail.dto.TransactionDetailResponse.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TransactionHistoryReader Unit Tests")
+class TransactionHistoryReaderTest {
+
+    @Mock private TransactionHistoryViewRepository viewRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private TransactionHistoryReader reader;
+    private UUID id;
+
+    @BeforeEach
+    void setUp() {
+        reader = new TransactionHistoryReader(viewRepository, objectMapper);
+        id = UUID.randomUUID();
+    }
+
+    private TransactionHistoryView view(long version, String status) throws Exception {
+        TransactionDetailResponse detail = TransactionDetailResponse.builder()
+                .id(id).type(TransactionType.TRANSFER).status(status).transactionReference("TXN-1")
+                .build();
+        return TransactionHistoryView.builder()
+                .transactionId(id).type(TransactionType.TRANSFER).reference("TXN-1").status(status)
+                .lastEventAt(LocalDateTime.now()).document(objectMapper.writeValueAsString(detail))
+                .version(version)
+                .build();
+    }
+
+    @Test
+    @DisplayName("should serve a known version without loading the document again")
+    void shouldServeCachedVersion() throws Exception {
+        when(viewRepository.findVersion(id, TransactionType.TRANSFER)).thenReturn(Optional.of(3L));
+        when(viewRepository.findById(id)).thenReturn(Optional.of(view(3, "PROCESSING")));
+
+        reader.findDetail(id, TransactionType.TRANSFER);
+        Optional<HistoryDocument> second = reader.findDetail(id, TransactionType.TRANSFER);
+
+        assertThat(second).get().extracting(HistoryDocument::version).isEqualTo(3L);
+        assertThat(second.get().detail().status()).isEqualTo("PROCESSING");
+        verify(viewRepository, times(1)).findById(id);
+    }
+
+    @Test
+    @DisplayName("should reload once a transition has moved the version")
+    void shouldReloadNewVersion() throws Exception {
+        when(viewRepository.findVersion(id, TransactionType.TRANSFER)).thenReturn(Optional.of(3L), Optional.of(4L));
+        when(viewRepository.findById(id)).thenReturn(Optional.of(view(3, "PROCESSING")),
+                Optional.of(view(4, "COMPLETED")));
+
+        reader.findDetail(id, TransactionType.TRANSFER);
+        HistoryDocument latest = reader.findDetail(id, TransactionType.TRANSFER).orElseThrow();
+
+        assertThat(latest.version()).isEqualTo(4L);
+        assertThat(latest.detail().status()).isEqualTo("COMPLETED");
+    }
+
+    @Test
+    @DisplayName("should tag the document with the version actually read")
+    void shouldTagWithReadVersion() throws Exception {
+        when(viewRepository.findVersion(id, TransactionType.TRANSFER)).thenReturn(Optional.of(3L));
+        when(viewRepository.findById(id)).thenReturn(Optional.of(view(5, "COMPLETED")));
+
+        HistoryDocument document = reader.findDetail(id, TransactionType.TRANSFER).orElseThrow();
+
+        assertThat(document.version()).isEqualTo(5L);
+    }
+
+    @Test
+    @DisplayName("should report nothing before the first event is projected")
+    void shouldBeEmptyBeforeProjection() {
+        when(viewRepository.findVersion(id, TransactionType.BILL_PAYMENT)).thenReturn(Optional.empty());
+
+        assertThat(reader.findDetail(id, TransactionType.BILL_PAYMENT)).isEmpty();
+        verify(viewRepository, never()).findById(any());
+    }
+}
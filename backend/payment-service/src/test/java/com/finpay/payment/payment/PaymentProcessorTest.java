@@ -0,0 +1,168 @@
+package com.finpay.payment.payment;
+
+import com.finpay.payment.payment.gateway.GatewayCharge;
+import com.finpay.payment.payment.gateway.GatewayResult;
+import com.finpay.payment.payment.gateway.PaymentGatewayClient;
+import com.finpay.payment.payment.gateway.PaymentGatewayProperties;
+import com.finpay.payment.shared.exception.GatewayUnavailableException;
+import com.finpay.payment.shared.exception.PaymentException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PaymentProcessor Unit Tests")
+class PaymentProcessorTest {
+
+    @Mock private PaymentService paymentService;
+    @Mock private PaymentGatewayClient gatewayClient;
+
+    private PaymentGatewayProperties properties;
+    private PaymentProcessor processor;
+
+    private UUID paymentId;
+    private GatewayCharge charge;
+
+    @BeforeEach
+    void setUp() {
+        properties = new PaymentGatewayProperties();
+        properties.setMaxConcurrent(2);
+        properties.setAcquireTimeout(Duration.ZERO);
+        properties.setRequestTimeout(Duration.ofSeconds(5));
+        // Completions run inline so each test observes them synchronously
+        processor = new PaymentProcessor(paymentService, gatewayClient, properties, Runnable::run);
+
+        paymentId = UUID.randomUUID();
+        charge = new GatewayCharge(paymentId, "FP12345678ABCDEF01", new BigDecimal("101.50"), "USD",
+                "VISA", "1111");
+    }
+
+    @Test
+    @DisplayName("should hold a bulkhead slot until the gateway answers")
+    void shouldHoldSlotUntilAnswered() {
+        CompletableFuture<GatewayResult> answer = new CompletableFuture<>();
+        when(paymentService.startProcessing(paymentId)).thenReturn(charge);
+        when(gatewayClient.charge(charge)).thenReturn(answer);
+
+        processor.process(paymentId);
+
+        assertThat(processor.availableSlots()).isEqualTo(1);
+        verify(paymentService, never()).completeProcessing(any(), any());
+
+        GatewayResult approved = GatewayResult.approved("GW-1");
+        answer.complete(approved);
+
+        verify(paymentService).completeProcessing(paymentId, approved);
+        assertThat(processor.availableSlots()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("should reject payments while the bulkhead is full")
+    void shouldRejectWhenBulkheadFull() {
+        when(paymentService.startProcessing(any())).thenReturn(charge);
+        when(gatewayClient.charge(charge)).thenReturn(new CompletableFuture<>());
+        processor.process(paymentId);
+        processor.process(paymentId);
+
+        assertThatThrownBy(() -> processor.process(UUID.randomUUID()))
+                .isInstanceOf(GatewayUnavailableException.class);
+        verify(paymentService, times(2)).startProcessing(any());
+    }
+
+    @Test
+    @DisplayName("should release the slot when the payment cannot be claimed")
+    void shouldReleaseSlotWhenClaimFails() {
+        when(paymentService.startProcessing(paymentId))
+                .thenThrow(new PaymentException("Payment is not in PENDING status"));
+
+        assertThatThrownBy(() -> processor.process(paymentId)).isInstanceOf(PaymentException.class);
+
+        assertThat(processor.availableSlots()).isEqualTo(2);
+        verifyNoInteractions(gatewayClient);
+    }
+
+    @Test
+    @DisplayName("should leave the payment processing when the gateway does not answer in time")
+    void shouldLeaveProcessingOnTimeout() {
+        properties.setRequestTimeout(Duration.ofMillis(10));
+        when(paymentService.startProcessing(paymentId)).thenReturn(charge);
+        when(gatewayClient.charge(charge)).thenReturn(new CompletableFuture<>());
+
+        processor.process(paymentId);
+
+        verify(paymentService, after(200).never()).failProcessing(any(), any());
+        verify(paymentService, never()).completeProcessing(any(), any());
+        assertThat(processor.availableSlots()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("should leave the payment processing when the gateway call throws")
+    void shouldLeaveProcessingOnGatewayError() {
+        when(paymentService.startProcessing(paymentId)).thenReturn(charge);
+        when(gatewayClient.charge(charge)).thenThrow(new IllegalStateException("connection refused"));
+
+        processor.process(paymentId);
+
+        verify(paymentService, never()).failProcessing(any(), any());
+        assertThat(processor.availableSlots()).isEqualTo(2);
+    }
+
+    @Nested
+    @DisplayName("Status inquiry")
+    class StatusInquiry {
+
+        @Test
+        @DisplayName("should record the answer the gateway reports for an unanswered charge")
+        void shouldRecordInquiryAnswer() {
+            GatewayResult approved = GatewayResult.approved("GW-1");
+            when(paymentService.chargesAwaitingAnswer(any())).thenReturn(List.of(charge));
+            when(gatewayClient.inquire(charge.transactionReference()))
+                    .thenReturn(CompletableFuture.completedFuture(Optional.of(approved)));
+
+            processor.inquireUnanswered();
+
+            verify(paymentService).completeProcessing(paymentId, approved);
+        }
+
+        @Test
+        @DisplayName("should fail the payment when the gateway never received the charge")
+        void shouldFailWhenGatewayHasNoRecord() {
+            when(paymentService.chargesAwaitingAnswer(any())).thenReturn(List.of(charge));
+            when(gatewayClient.inquire(charge.transactionReference()))
+                    .thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+
+            processor.inquireUnanswered();
+
+            verify(paymentService).failProcessing(paymentId, "Payment gateway has no record of the charge");
+        }
+
+        @Test
+        @DisplayName("should leave the payment processing when the inquiry fails")
+        void shouldRetryFailedInquiry() {
+            when(paymentService.chargesAwaitingAnswer(any())).thenReturn(List.of(charge));
+            when(gatewayClient.inquire(charge.transactionReference()))
+                    .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("connection refused")));
+
+            processor.inquireUnanswered();
+
+            verify(paymentService, never()).failProcessing(any(), any());
+            verify(paymentService, never()).completeProcessing(any(), any());
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package com.finpay.payment.payment;
 
+import com.finpay.id.ReferenceGenerator;
 import com.finpay.payment.payment.dto.PaymentRequest;
 import com.finpay.payment.payment.dto.PaymentResponse;
 import com.finpay.payment.payment.event.PaymentEvent;
+import com.finpay.payment.payment.gateway.GatewayCharge;
+import com.finpay.payment.payment.gateway.GatewayResult;
 import com.finpay.payment.shared.exception.PaymentException;
 import com.finpay.payment.shared.exception.ResourceNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,7 +16,6 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.core.task.TaskExecutor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -24,6 +26,7 @@ import java.util.UUID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,7 +36,6 @@ class PaymentServiceTest {
     @Mock private PaymentRepository paymentRepository;
     @Mock private PaymentEventProducer paymentEventProducer;
     @Mock private PaymentMapper paymentMapper;
-    @Mock private TaskExecutor taskExecutor;
 
     private PaymentService paymentService;
 
@@ -44,7 +46,8 @@ class PaymentServiceTest {
 
     @BeforeEach
     void setUp() {
-        paymentService = new PaymentService(paymentRepository, paymentEventProducer, paymentMapper, taskExecutor);
+        paymentService = new PaymentService(paymentRepository, paymentEventProducer, paymentMapper,
+                new ReferenceGenerator(0));
 
         userId = UUID.randomUUID();
         paymentId = UUID.randomUUID();
@@ -167,7 +170,7 @@ class PaymentServiceTest {
         void shouldThrowWhenNotFound() {
             when(paymentRepository.findById(paymentId)).thenReturn(Optional.empty());
 
-            assertThatThrownBy(() -> paymentService.processPayment(paymentId))
+            assertThatThrownBy(() -> paymentService.startProcessing(paymentId))
                     .isInstanceOf(ResourceNotFoundException.class);
         }
 
@@ -177,10 +180,90 @@ class PaymentServiceTest {
             testPayment.setStatus(Payment.PaymentStatus.COMPLETED);
             when(paymentRepository.findById(paymentId)).thenReturn(Optional.of(testPayment));
 
-            assertThatThrownBy(() -> paymentService.processPayment(paymentId))
+            assertThatThrownBy(() -> paymentService.startProcessing(paymentId))
                     .isInstanceOf(PaymentException.class)
                     .hasMessageContaining("not in PENDING status");
         }
+
+        @Test
+        @DisplayName("should claim pending payment and build the gateway charge")
+        void shouldClaimPendingPayment() {
+            testPayment.setCardLastFourDigits("1111");
+            when(paymentRepository.findById(paymentId)).thenReturn(Optional.of(testPayment));
+            when(paymentRepository.transition(eq(paymentId), eq(Payment.PaymentStatus.PENDING),
+                    eq(Payment.PaymentStatus.PROCESSING), any())).thenReturn(1);
+            when(paymentMapper.toEvent(any(), eq(PaymentEvent.EventType.PAYMENT_PROCESSING)))
+                    .thenReturn(mock(PaymentEvent.class));
+
+            GatewayCharge charge = paymentService.startProcessing(paymentId);
+
+            assertThat(testPayment.getStatus()).isEqualTo(Payment.PaymentStatus.PROCESSING);
+            assertThat(charge.amount()).isEqualByComparingTo("101.50");
+            assertThat(charge.cardLastFourDigits()).isEqualTo("1111");
+            verify(paymentEventProducer).sendPaymentEvent(any(PaymentEvent.class));
+        }
+
+        @Test
+        @DisplayName("should not claim payment another writer moved first")
+        void shouldNotClaimWhenTransitionLost() {
+            when(paymentRepository.findById(paymentId)).thenReturn(Optional.of(testPayment));
+            when(paymentRepository.transition(eq(paymentId), eq(Payment.PaymentStatus.PENDING),
+                    eq(Payment.PaymentStatus.PROCESSING), any())).thenReturn(0);
+
+            assertThatThrownBy(() -> paymentService.startProcessing(paymentId))
+                    .isInstanceOf(PaymentException.class);
+            verify(paymentEventProducer, never()).sendPaymentEvent(any());
+        }
+
+        @Test
+        @DisplayName("should complete payment approved by the gateway")
+        void shouldCompleteApprovedPayment() {
+            testPayment.setStatus(Payment.PaymentStatus.PROCESSING);
+            when(paymentRepository.findById(paymentId)).thenReturn(Optional.of(testPayment));
+            when(paymentRepository.finishProcessing(eq(paymentId), eq(Payment.PaymentStatus.COMPLETED),
+                    any(), any(), any(), any(), any())).thenReturn(1);
+            when(paymentMapper.toEvent(any(), eq(PaymentEvent.EventType.PAYMENT_COMPLETED)))
+                    .thenReturn(mock(PaymentEvent.class));
+
+            paymentService.completeProcessing(paymentId, GatewayResult.approved("GW-1"));
+
+            assertThat(testPayment.getStatus()).isEqualTo(Payment.PaymentStatus.COMPLETED);
+            assertThat(testPayment.getGatewayReference()).isEqualTo("GW-1");
+            assertThat(testPayment.getProcessedAt()).isNotNull();
+        }
+
+        @Test
+        @DisplayName("should fail payment declined by the gateway")
+        void shouldFailDeclinedPayment() {
+            testPayment.setStatus(Payment.PaymentStatus.PROCESSING);
+            when(paymentRepository.findById(paymentId)).thenReturn(Optional.of(testPayment));
+            when(paymentRepository.finishProcessing(eq(paymentId), eq(Payment.PaymentStatus.FAILED),
+                    any(), any(), any(), any(), any())).thenReturn(1);
+            when(paymentMapper.toEvent(any(), eq(PaymentEvent.EventType.PAYMENT_FAILED)))
+                    .thenReturn(mock(PaymentEvent.class));
+
+            paymentService.completeProcessing(paymentId,
+                    GatewayResult.declined("GW-2", "insufficient_funds", "Insufficient funds on card"));
+
+            assertThat(testPayment.getStatus()).isEqualTo(Payment.PaymentStatus.FAILED);
+            assertThat(testPayment.getGatewayResponse()).isEqualTo("insufficient_funds");
+            assertThat(testPayment.getFailureReason()).isEqualTo("Insufficient funds on card");
+        }
+
+        @Test
+        @DisplayName("should ignore gateway answer for payment no longer processing")
+        void shouldIgnoreStaleAnswer() {
+            testPayment.setStatus(Payment.PaymentStatus.FAILED);
+            when(paymentRepository.findById(paymentId)).thenReturn(Optional.of(testPayment));
+            when(paymentRepository.finishProcessing(eq(paymentId), eq(Payment.PaymentStatus.COMPLETED),
+                    any(), any(), any(), any(), any())).thenReturn(0);
+
+            paymentService.completeProcessing(paymentId, GatewayResult.approved("GW-3"));
+
+            assertThat(testPayment.getStatus()).isEqualTo(Payment.PaymentStatus.FAILED);
+            verify(paymentRepository, never()).save(any());
+            verify(paymentEventProducer, never()).sendPaymentEvent(any());
+        }
     }
 
     @Nested
@@ -191,7 +274,8 @@ class PaymentServiceTest {
         @DisplayName("should cancel pending payment")
         void shouldCancelPendingPayment() {
             when(paymentRepository.findById(paymentId)).thenReturn(Optional.of(testPayment));
-            when(paymentRepository.save(any(Payment.class))).thenReturn(testPayment);
+            when(paymentRepository.transition(eq(paymentId), eq(Payment.PaymentStatus.PENDING),
+                    eq(Payment.PaymentStatus.CANCELLED), any())).thenReturn(1);
             when(paymentMapper.toResponse(testPayment)).thenReturn(testResponse);
             when(paymentMapper.toEvent(any(), any())).thenReturn(mock(PaymentEvent.class));
 
@@ -231,7 +315,8 @@ class PaymentServiceTest {
         void shouldRefundCompletedPayment() {
             testPayment.setStatus(Payment.PaymentStatus.COMPLETED);
             when(paymentRepository.findById(paymentId)).thenReturn(Optional.of(testPayment));
-            when(paymentRepository.save(any(Payment.class))).thenReturn(testPayment);
+            when(paymentRepository.transition(eq(paymentId), eq(Payment.PaymentStatus.COMPLETED),
+                    eq(Payment.PaymentStatus.REFUNDED), any())).thenReturn(1);
             when(paymentMapper.toResponse(testPayment)).thenReturn(testResponse);
             when(paymentMapper.toEvent(any(), any())).thenReturn(mock(PaymentEvent.class));
 
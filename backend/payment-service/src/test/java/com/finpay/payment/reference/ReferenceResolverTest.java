@@ -0,0 +1,114 @@
+package com.finpay.payment.reference;
+
+import com.finpay.payment.billpayment.BillPaymentRepository;
+import com.finpay.payment.detail.dto.TransactionDetailResponse.TransactionType;
+import com.finpay.payment.request.MoneyRequestRepository;
+import com.finpay.payment.shared.exception.ResourceNotFoundException;
+import com.finpay.payment.transfer.MoneyTransferRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReferenceResolver Unit Tests")
+class ReferenceResolverTest {
+
+    @Mock private TransactionReferenceRepository referenceRepository;
+    @Mock private MoneyTransferRepository transferRepository;
+    @Mock private BillPaymentRepository billPaymentRepository;
+    @Mock private MoneyRequestRepository requestRepository;
+
+    @InjectMocks
+    private ReferenceResolver resolver;
+
+    private final UUID transactionId = UUID.randomUUID();
+
+    @Test
+    @DisplayName("should resolve an indexed reference once and serve repeats from memory")
+    void shouldResolveIndexedReference() {
+        when(referenceRepository.findById("TRF-0B4ZK3M9Q0001")).thenReturn(Optional.of(
+                new TransactionReference("TRF-0B4ZK3M9Q0001", TransactionType.TRANSFER, transactionId, 0L)));
+
+        ResolvedReference first = resolver.resolve("TRF-0B4ZK3M9Q0001");
+        ResolvedReference second = resolver.resolve("TRF-0B4ZK3M9Q0001");
+
+        assertThat(first).isEqualTo(new ResolvedReference(TransactionType.TRANSFER, transactionId));
+        assertThat(second).isEqualTo(first);
+        verify(referenceRepository, times(1)).findById(any());
+        verifyNoInteractions(transferRepository, billPaymentRepository, requestRepository);
+    }
+
+    @Test
+    @DisplayName("should find an unindexed reference in its own table and index it")
+    void shouldBackfillUnindexedReference() {
+        when(referenceRepository.findById("BILL12345678ABCDEF01")).thenReturn(Optional.empty());
+        when(transferRepository.findIdByTransactionReference("BILL12345678ABCDEF01")).thenReturn(Optional.empty());
+        when(billPaymentRepository.findIdByTransactionReference("BILL12345678ABCDEF01"))
+                .thenReturn(Optional.of(transactionId));
+
+        ResolvedReference resolved = resolver.resolve("BILL12345678ABCDEF01");
+
+        assertThat(resolved).isEqualTo(new ResolvedReference(TransactionType.BILL_PAYMENT, transactionId));
+        verify(referenceRepository).saveAndFlush(argThat(r -> r.getReference().equals("BILL12345678ABCDEF01")
+                && r.getTransactionType() == TransactionType.BILL_PAYMENT
+                && r.getTransactionId().equals(transactionId)));
+        verifyNoInteractions(requestRepository);
+    }
+
+    @Test
+    @DisplayName("should still resolve when a concurrent lookup indexed the reference first")
+    void shouldTolerateConcurrentBackfill() {
+        when(referenceRepository.findById("REQ-1")).thenReturn(Optional.empty());
+        when(transferRepository.findIdByTransactionReference("REQ-1")).thenReturn(Optional.empty());
+        when(billPaymentRepository.findIdByTransactionReference("REQ-1")).thenReturn(Optional.empty());
+        when(requestRepository.findIdByRequestReference("REQ-1")).thenReturn(Optional.of(transactionId));
+        when(referenceRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        assertThat(resolver.resolve("REQ-1"))
+                .isEqualTo(new ResolvedReference(TransactionType.MONEY_REQUEST, transactionId));
+    }
+
+    @Test
+    @DisplayName("should throw for an unknown reference and not remember the miss")
+    void shouldThrowForUnknownReference() {
+        when(referenceRepository.findById("NOPE")).thenReturn(Optional.empty());
+        when(transferRepository.findIdByTransactionReference("NOPE")).thenReturn(Optional.empty());
+        when(billPaymentRepository.findIdByTransactionReference("NOPE")).thenReturn(Optional.empty());
+        when(requestRepository.findIdByRequestReference("NOPE")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> resolver.resolve("NOPE")).isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> resolver.resolve("NOPE")).isInstanceOf(ResourceNotFoundException.class);
+        verify(referenceRepository, times(2)).findById("NOPE");
+        verify(referenceRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("should resolve for a party and answer not found to anyone else")
+    void shouldOnlyResolveForParties() {
+        UUID sender = UUID.randomUUID();
+        UUID stranger = UUID.randomUUID();
+        when(referenceRepository.findById("TRF-0B4ZK3M9Q0002")).thenReturn(Optional.of(
+                new TransactionReference("TRF-0B4ZK3M9Q0002", TransactionType.TRANSFER, transactionId, 0L)));
+        when(transferRepository.isParty(transactionId, sender)).thenReturn(true);
+        when(transferRepository.isParty(transactionId, stranger)).thenReturn(false);
+
+        assertThat(resolver.resolveFor("TRF-0B4ZK3M9Q0002", sender))
+                .isEqualTo(new ResolvedReference(TransactionType.TRANSFER, transactionId));
+        assertThatThrownBy(() -> resolver.resolveFor("TRF-0B4ZK3M9Q0002", stranger))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("No transaction with reference: TRF-0B4ZK3M9Q0002");
+    }
+}
@@ -1,8 +1,11 @@
 package com.finpay.payment.request;
 
+import com.finpay.id.ReferenceGenerator;
+import com.finpay.payment.reference.ReferenceResolver;
 import com.finpay.payment.request.dto.MoneyRequestCreateDto;
 import com.finpay.payment.request.dto.MoneyRequestResponse;
 import com.finpay.payment.request.event.MoneyRequestEvent;
+import com.finpay.payment.rollup.TransactionRollupService;
 import com.finpay.payment.shared.exception.ResourceNotFoundException;
 import com.finpay.payment.shared.exception.TransferException;
 import com.finpay.payment.transfer.MoneyTransfer;
@@ -14,16 +17,22 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,6 +42,10 @@ class MoneyRequestServiceTest {
     @Mock private MoneyRequestRepository requestRepository;
     @Mock private MoneyTransferService moneyTransferService;
     @Mock private MoneyRequestEventProducer requestEventProducer;
+    @Mock private TransactionRollupService rollupService;
+    @Mock private PendingRequestCounter pendingCounter;
+    @Spy private ReferenceGenerator referenceGenerator = new ReferenceGenerator(0);
+    @Mock private ReferenceResolver referenceResolver;
 
     @InjectMocks private MoneyRequestService requestService;
 
@@ -57,12 +70,6 @@ class MoneyRequestServiceTest {
                 .description("Dinner split")
                 .status(MoneyRequest.RequestStatus.PENDING_APPROVAL)
                 .sagaStatus(MoneyRequest.SagaStatus.NOT_STARTED)
-                .fundsReserved(false)
-                .fundsDeducted(false)
-                .fundsCredited(false)
-                .notificationSent(false)
-                .compensationRequired(false)
-                .compensationCompleted(false)
                 .expiresAt(LocalDateTime.now().plusDays(7))
                 .createdAt(LocalDateTime.now())
                 .updatedAt(LocalDateTime.now())
@@ -88,6 +95,7 @@ class MoneyRequestServiceTest {
             assertThat(response.requesterUserId()).isEqualTo(requesterId);
             assertThat(response.payerUserId()).isEqualTo(payerId);
             verify(requestEventProducer).publishRequestEvent(any(MoneyRequestEvent.class));
+            verify(pendingCounter).adjust(payerId, 1);
         }
 
         @Test
@@ -123,7 +131,8 @@ class MoneyRequestServiceTest {
         @DisplayName("should approve request and initiate transfer")
         void shouldApproveRequest() {
             when(requestRepository.findById(requestId)).thenReturn(Optional.of(testRequest));
-            when(requestRepository.save(any(MoneyRequest.class))).thenReturn(testRequest);
+            when(requestRepository.leavePending(eq(requestId), eq(MoneyRequest.RequestStatus.PROCESSING),
+                    eq(MoneyRequest.SagaStatus.STARTED), any(), isNull(), any())).thenReturn(1);
             MoneyTransfer mockTransfer = MoneyTransfer.builder()
                     .id(UUID.randomUUID())
                     .transactionReference("TRF-NEW")
@@ -135,7 +144,6 @@ class MoneyRequestServiceTest {
                     .sagaStatus(MoneyTransfer.SagaStatus.STARTED)
                     .transferType(MoneyTransfer.TransferType.REQUEST_PAYMENT)
                     .fundsReserved(false).fundsDeducted(false).fundsCredit(false)
-                    .notificationSent(false).compensationRequired(false).compensationCompleted(false)
                     .createdAt(LocalDateTime.now()).updatedAt(LocalDateTime.now())
                     .build();
             when(moneyTransferService.createTransferForRequest(eq(payerId), eq(requesterId),
@@ -170,6 +178,20 @@ class MoneyRequestServiceTest {
                     .isInstanceOf(TransferException.class)
                     .hasMessageContaining("no longer pending");
         }
+
+        @Test
+        @DisplayName("should not start a transfer when the request left pending concurrently")
+        void shouldNotStartTransferWhenGuardLost() {
+            when(requestRepository.findById(requestId)).thenReturn(Optional.of(testRequest));
+            when(requestRepository.leavePending(eq(requestId), eq(MoneyRequest.RequestStatus.PROCESSING),
+                    eq(MoneyRequest.SagaStatus.STARTED), any(), isNull(), any())).thenReturn(0);
+
+            assertThatThrownBy(() -> requestService.approveRequest(payerId, requestId))
+                    .isInstanceOf(TransferException.class)
+                    .hasMessageContaining("no longer pending");
+            verify(moneyTransferService, never()).createTransferForRequest(any(), any(), any(), any(), any(), any());
+            verify(pendingCounter, never()).adjust(any(), anyLong());
+        }
     }
 
     @Nested
@@ -180,13 +202,15 @@ class MoneyRequestServiceTest {
         @DisplayName("should decline request")
         void shouldDeclineRequest() {
             when(requestRepository.findById(requestId)).thenReturn(Optional.of(testRequest));
-            when(requestRepository.save(any(MoneyRequest.class))).thenReturn(testRequest);
+            when(requestRepository.leavePending(eq(requestId), eq(MoneyRequest.RequestStatus.DECLINED),
+                    isNull(), isNull(), any(), any())).thenReturn(1);
 
             MoneyRequestResponse response = requestService.declineRequest(payerId, requestId);
 
             assertThat(testRequest.getStatus()).isEqualTo(MoneyRequest.RequestStatus.DECLINED);
             assertThat(testRequest.getDeclinedAt()).isNotNull();
             verify(requestEventProducer).publishRequestEvent(any(MoneyRequestEvent.class));
+            verify(pendingCounter).adjust(payerId, -1);
         }
     }
 
@@ -198,7 +222,8 @@ class MoneyRequestServiceTest {
         @DisplayName("should cancel request by requester")
         void shouldCancelRequest() {
             when(requestRepository.findById(requestId)).thenReturn(Optional.of(testRequest));
-            when(requestRepository.save(any(MoneyRequest.class))).thenReturn(testRequest);
+            when(requestRepository.leavePending(eq(requestId), eq(MoneyRequest.RequestStatus.CANCELLED),
+                    isNull(), isNull(), isNull(), any())).thenReturn(1);
 
             MoneyRequestResponse response = requestService.cancelRequest(requesterId, requestId);
 
@@ -234,8 +259,9 @@ class MoneyRequestServiceTest {
         @Test
         @DisplayName("should fail request")
         void shouldFailRequest() {
+            testRequest.setSagaStatus(MoneyRequest.SagaStatus.STARTED);
             when(requestRepository.findById(requestId)).thenReturn(Optional.of(testRequest));
-            when(requestRepository.save(any(MoneyRequest.class))).thenReturn(testRequest);
+            acceptOutcome();
 
             requestService.failRequest(requestId, "Insufficient funds");
 
@@ -249,8 +275,9 @@ class MoneyRequestServiceTest {
         void shouldCompleteRequest() {
             UUID payerWallet = UUID.randomUUID();
             UUID requesterWallet = UUID.randomUUID();
+            testRequest.setSagaStatus(MoneyRequest.SagaStatus.STARTED);
             when(requestRepository.findById(requestId)).thenReturn(Optional.of(testRequest));
-            when(requestRepository.save(any(MoneyRequest.class))).thenReturn(testRequest);
+            acceptOutcome();
 
             requestService.completeRequest(requestId, payerWallet, requesterWallet);
 
@@ -259,5 +286,62 @@ class MoneyRequestServiceTest {
             assertThat(testRequest.isFundsDeducted()).isTrue();
             assertThat(testRequest.isFundsCredited()).isTrue();
         }
+
+        @Test
+        @DisplayName("should ignore a repeated outcome once the request is finished")
+        void shouldIgnoreRepeatedOutcome() {
+            testRequest.setSagaStatus(MoneyRequest.SagaStatus.COMPLETED);
+            testRequest.setStatus(MoneyRequest.RequestStatus.COMPLETED);
+            when(requestRepository.findById(requestId)).thenReturn(Optional.of(testRequest));
+
+            requestService.failRequest(requestId, "Late failure");
+
+            assertThat(testRequest.getStatus()).isEqualTo(MoneyRequest.RequestStatus.COMPLETED);
+            verifyNoInteractions(requestEventProducer);
+        }
+
+        private void acceptOutcome() {
+            when(requestRepository.finishSaga(any(), any(), any(), anyInt(), any(), any(), any(), any(), any(), any()))
+                    .thenReturn(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Expiration")
+    class ExpirationTests {
+
+        @Test
+        @DisplayName("should expire a locked chunk with one update and one batched outbox write")
+        void shouldExpireChunk() {
+            LocalDateTime now = LocalDateTime.now();
+            MoneyRequest other = MoneyRequest.builder()
+                    .id(UUID.randomUUID()).requestReference("REQ-2").requesterUserId(requesterId)
+                    .payerUserId(payerId).amount(BigDecimal.TEN).currency("USD")
+                    .status(MoneyRequest.RequestStatus.PENDING_APPROVAL)
+                    .build();
+            when(requestRepository.findExpiredForUpdate(eq(now), argThat((Pageable p) -> p.getPageSize() == 2)))
+                    .thenReturn(List.of(testRequest, other));
+
+            int claimed = requestService.expireDue(now, 2);
+
+            assertThat(claimed).isEqualTo(2);
+            verify(requestRepository).expireAll(List.of(requestId, other.getId()), now);
+            verify(pendingCounter).adjustAll(Map.of(payerId, -2L));
+            verify(requestEventProducer).publishRequestEvents(eq(MoneyRequestEvent.EventType.REQUEST_EXPIRED),
+                    argThat(events -> events.size() == 2
+                            && events.getFirst().requestId().equals(requestId)
+                            && events.getFirst().eventType() == MoneyRequestEvent.EventType.REQUEST_EXPIRED));
+            verify(requestRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("should do nothing when no request is due")
+        void shouldSkipWhenNothingDue() {
+            when(requestRepository.findExpiredForUpdate(any(), any())).thenReturn(List.of());
+
+            assertThat(requestService.expireDue(LocalDateTime.now(), 100)).isZero();
+            verify(requestRepository, never()).expireAll(any(), any());
+            verifyNoInteractions(requestEventProducer);
+        }
     }
 }
@@ -0,0 +1,122 @@
+package com.finpay.payment.request;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PendingRequestCounter Unit Tests")
+class PendingRequestCounterTest {
+
+    @Mock private StringRedisTemplate redisTemplate;
+    @Mock private HashOperations<String, Object, Object> hashOps;
+    @Mock private MoneyRequestRepository requestRepository;
+
+    @InjectMocks
+    private PendingRequestCounter counter;
+
+    private UUID payerId;
+    private String key;
+
+    @BeforeEach
+    void setUp() {
+        payerId = UUID.randomUUID();
+        key = "payment:pending-request-counts:" + payerId;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubRead(List<Long> result) {
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of(key)), eq("86400000"))).thenReturn(result);
+    }
+
+    @Test
+    @DisplayName("should read a seeded counter without touching the database")
+    void shouldReadSeededCounter() {
+        stubRead(List.of(1L, 4L));
+
+        assertThat(counter.get(payerId)).isEqualTo(4);
+        verifyNoInteractions(requestRepository);
+    }
+
+    @Test
+    @DisplayName("should seed a missing counter from the database at the version read before counting")
+    void shouldSeedMissingCounter() {
+        stubRead(List.of(0L, 3L));
+        when(requestRepository.countPendingForPayer(payerId)).thenReturn(2L);
+
+        assertThat(counter.get(payerId)).isEqualTo(2);
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of(key)), eq("3"), eq("2"));
+    }
+
+    @Test
+    @DisplayName("should fall back to the database when Redis is down")
+    void shouldFallBackWhenRedisDown() {
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of(key)), anyString()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+        when(requestRepository.countPendingForPayer(payerId)).thenReturn(3L);
+
+        assertThat(counter.get(payerId)).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("should never report a negative count")
+    void shouldClampNegativeCount() {
+        stubRead(List.of(1L, -1L));
+
+        assertThat(counter.get(payerId)).isZero();
+    }
+
+    @Test
+    @DisplayName("should adjust only seeded counters and evict one it could not adjust")
+    void shouldAdjustOrEvict() {
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of(key)), anyString()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        counter.adjust(payerId, -1);
+
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of(key)), eq("-1"));
+        verify(redisTemplate).delete(key);
+    }
+
+    @Test
+    @DisplayName("should reconcile against the version read before counting, without touching the TTL")
+    @SuppressWarnings("unchecked")
+    void shouldReconcileWithVersionCheck() {
+        Cursor<String> keys = mock(Cursor.class);
+        when(keys.hasNext()).thenReturn(true, false);
+        when(keys.next()).thenReturn(key);
+        when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(keys);
+        when(redisTemplate.opsForHash()).thenReturn(hashOps);
+        when(hashOps.get(key, "v")).thenReturn("7");
+        MoneyRequestRepository.PendingCount count = mock(MoneyRequestRepository.PendingCount.class);
+        when(count.getPayerUserId()).thenReturn(payerId);
+        when(count.getPending()).thenReturn(5L);
+        when(requestRepository.countPendingForPayers(Set.of(payerId))).thenReturn(List.of(count));
+
+        counter.reconcile();
+
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of(key)), eq("7"), eq("5"));
+        verify(redisTemplate, never()).expire(anyString(), any(Duration.class));
+    }
+}
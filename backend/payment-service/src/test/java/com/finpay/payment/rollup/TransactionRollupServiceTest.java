@@ -0,0 +1,96 @@
+package com.finpay.payment.rollup;
+
+import com.finpay.payment.detail.dto.TransactionDetailResponse.TransactionType;
+import com.finpay.payment.shared.exception.PaymentException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TransactionRollupService Unit Tests")
+class TransactionRollupServiceTest {
+
+    @Mock private TransactionRollupRepository rollupRepository;
+
+    @InjectMocks
+    private TransactionRollupService rollupService;
+
+    private final LocalDateTime at = LocalDateTime.of(2026, 3, 1, 14, 37, 52);
+
+    @Test
+    @DisplayName("should add the outcome to its minute, hour and day bucket")
+    void shouldIncrementEveryGranularity() {
+        BigDecimal amount = new BigDecimal("25.00");
+
+        rollupService.record(TransactionType.TRANSFER, "COMPLETED", "USD", amount, at);
+
+        verify(rollupRepository).increment("MINUTE", LocalDateTime.of(2026, 3, 1, 14, 37),
+                "TRANSFER", "COMPLETED", "USD", amount);
+        verify(rollupRepository).increment("HOUR", LocalDateTime.of(2026, 3, 1, 14, 0),
+                "TRANSFER", "COMPLETED", "USD", amount);
+        verify(rollupRepository).increment("DAY", LocalDateTime.of(2026, 3, 1, 0, 0),
+                "TRANSFER", "COMPLETED", "USD", amount);
+    }
+
+    @Nested
+    @DisplayName("Series")
+    class Series {
+
+        @Test
+        @DisplayName("should read from the start of the bucket containing from")
+        void shouldAlignRangeStart() {
+            TransactionRollup row = TransactionRollup.builder()
+                    .granularity(RollupGranularity.HOUR).bucketStart(LocalDateTime.of(2026, 3, 1, 14, 0))
+                    .transactionType(TransactionType.BILL_PAYMENT).status("COMPLETED").currency("USD")
+                    .transactionCount(3).volume(new BigDecimal("90.00"))
+                    .build();
+            when(rollupRepository.findSeries(eq(RollupGranularity.HOUR), eq(LocalDateTime.of(2026, 3, 1, 14, 0)),
+                    any(), eq(TransactionType.BILL_PAYMENT))).thenReturn(List.of(row));
+
+            List<RollupPoint> series = rollupService.getSeries(RollupGranularity.HOUR, at, at.plusDays(1),
+                    TransactionType.BILL_PAYMENT);
+
+            assertThat(series).containsExactly(new RollupPoint(LocalDateTime.of(2026, 3, 1, 14, 0),
+                    TransactionType.BILL_PAYMENT, "COMPLETED", "USD", 3, new BigDecimal("90.00")));
+        }
+
+        @Test
+        @DisplayName("should reject a range that spans too many buckets")
+        void shouldRejectOversizedRange() {
+            assertThatThrownBy(() -> rollupService.getSeries(RollupGranularity.MINUTE, at, at.plusDays(30), null))
+                    .isInstanceOf(PaymentException.class);
+            verifyNoInteractions(rollupRepository);
+        }
+
+        @Test
+        @DisplayName("should reject an empty range")
+        void shouldRejectEmptyRange() {
+            assertThatThrownBy(() -> rollupService.getSeries(RollupGranularity.DAY, at, at, null))
+                    .isInstanceOf(PaymentException.class);
+        }
+    }
+
+    @Test
+    @DisplayName("should purge minute and hour buckets past their retention and keep days")
+    void shouldPurgeExpiredBuckets() {
+        rollupService.purgeExpiredBuckets();
+
+        verify(rollupRepository).deleteOlderThan(eq(RollupGranularity.MINUTE), any());
+        verify(rollupRepository).deleteOlderThan(eq(RollupGranularity.HOUR), any());
+        verify(rollupRepository, never()).deleteOlderThan(eq(RollupGranularity.DAY), any());
+    }
+}
@@ -0,0 +1,138 @@
+package com.finpay.payment.shared.id;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("NodeIdLease Unit Tests")
+class NodeIdLeaseTest {
+
+    @Mock private StringRedisTemplate redisTemplate;
+    @Mock private ValueOperations<String, String> valueOps;
+
+    private NodeIdProperties properties;
+    private NodeIdLease lease;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        properties = new NodeIdProperties();
+        lease = new NodeIdLease(redisTemplate, properties);
+    }
+
+    @Nested
+    @DisplayName("acquire")
+    class Acquire {
+
+        @Test
+        @DisplayName("should use the configured node ID without Redis")
+        void shouldUseConfiguredId() {
+            properties.setId(42);
+
+            assertThat(lease.acquire()).isEqualTo(42);
+            assertThat(lease.nodeId()).isEqualTo(42);
+            verifyNoInteractions(redisTemplate);
+        }
+
+        @Test
+        @DisplayName("should lease the first free node ID")
+        void shouldLeaseFreeId() {
+            when(valueOps.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false, true);
+
+            int nodeId = lease.acquire();
+
+            assertThat(lease.nodeId()).isEqualTo(nodeId);
+            verify(valueOps, times(2)).setIfAbsent(anyString(), anyString(), eq(properties.getLeaseTtl()));
+        }
+
+        @Test
+        @DisplayName("should fail startup when Redis is unavailable and no node ID is configured")
+        void shouldFailWithoutRedis() {
+            when(valueOps.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+                    .thenThrow(new RedisConnectionFailureException("down"));
+
+            assertThatThrownBy(() -> lease.acquire())
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("PAYMENT_NODE_ID");
+            assertThatThrownBy(() -> lease.nodeId()).isInstanceOf(IllegalStateException.class);
+        }
+
+        @Test
+        @DisplayName("should fail startup when every node ID is leased")
+        void shouldFailWhenAllLeased() {
+            when(valueOps.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+
+            assertThatThrownBy(() -> lease.acquire()).isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("renew")
+    class Renew {
+
+        @Test
+        @DisplayName("should keep the node ID while the lease renews")
+        void shouldKeepIdOnRenewal() {
+            when(valueOps.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+            int nodeId = lease.acquire();
+            when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any())).thenReturn(1L);
+
+            lease.renew();
+
+            assertThat(lease.nodeId()).isEqualTo(nodeId);
+        }
+
+        @Test
+        @DisplayName("should refuse references once the lease is taken over, until a new node ID is leased")
+        void shouldReleaseOnTakeover() {
+            when(valueOps.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+            int nodeId = lease.acquire();
+            when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any())).thenReturn(0L);
+            when(valueOps.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+
+            lease.renew();
+
+            assertThatThrownBy(() -> lease.nodeId()).isInstanceOf(IllegalStateException.class);
+
+            String takenKey = "payment:node-id:" + nodeId;
+            when(valueOps.setIfAbsent(argThat(key -> !key.equals(takenKey)), anyString(), any(Duration.class)))
+                    .thenReturn(true);
+            lease.renew();
+
+            assertThat(lease.nodeId()).isNotEqualTo(nodeId);
+        }
+
+        @Test
+        @DisplayName("should refuse references once the lease goes unrenewed past its TTL")
+        void shouldExpireWithoutRenewal() throws InterruptedException {
+            properties.setLeaseTtl(Duration.ofMillis(1));
+            when(valueOps.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+            lease.acquire();
+            when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any()))
+                    .thenThrow(new RedisConnectionFailureException("down"));
+            Thread.sleep(5);
+
+            lease.renew();
+
+            assertThatThrownBy(() -> lease.nodeId()).isInstanceOf(IllegalStateException.class);
+        }
+    }
+}
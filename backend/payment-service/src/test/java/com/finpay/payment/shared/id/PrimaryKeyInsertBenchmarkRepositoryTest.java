@@ -0,0 +1,111 @@
+package com.finpay.payment.shared.id;
+
+import com.finpay.id.UuidV7;
+import com.finpay.payment.testconfig.TestMySQLContainerConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Inserts the same number of rows into two InnoDB tables keyed by a
+ * {@code BINARY(16)} UUID, one with random version 4 keys as
+ * {@code GenerationType.UUID} produces and one with {@link UuidV7} keys, and
+ * compares insert time and the size of the resulting clustered index.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TestMySQLContainerConfig.class)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Primary key insert benchmark")
+@Slf4j
+class PrimaryKeyInsertBenchmarkRepositoryTest {
+
+    private static final int ROWS = 50_000;
+    private static final int BATCH = 1_000;
+    private static final String PAYLOAD = "x".repeat(200);
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        jdbc = new JdbcTemplate(dataSource);
+        for (String table : List.of("bench_pk_random", "bench_pk_v7")) {
+            jdbc.execute("DROP TABLE IF EXISTS " + table);
+            jdbc.execute("CREATE TABLE " + table
+                    + " (id BINARY(16) NOT NULL PRIMARY KEY, payload CHAR(200) NOT NULL) ENGINE=InnoDB");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.execute("DROP TABLE IF EXISTS bench_pk_random");
+        jdbc.execute("DROP TABLE IF EXISTS bench_pk_v7");
+    }
+
+    @Test
+    @DisplayName("time-ordered keys should build a smaller clustered index than random keys")
+    void shouldPackTimeOrderedKeysTighter() {
+        long randomNanos = insert("bench_pk_random", UUID::randomUUID);
+        long v7Nanos = insert("bench_pk_v7", UuidV7::generate);
+
+        long randomBytes = dataLength("bench_pk_random");
+        long v7Bytes = dataLength("bench_pk_v7");
+        log.info("{} rows with random v4 keys: {} ms, {} KiB clustered index",
+                ROWS, randomNanos / 1_000_000, randomBytes / 1024);
+        log.info("{} rows with UUIDv7 keys: {} ms, {} KiB clustered index",
+                ROWS, v7Nanos / 1_000_000, v7Bytes / 1024);
+
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM bench_pk_v7", Long.class)).isEqualTo(ROWS);
+        assertThat(v7Bytes).isLessThan(randomBytes);
+    }
+
+    private long insert(String table, Supplier<UUID> keys) {
+        String sql = "INSERT INTO " + table + " (id, payload) VALUES (?, ?)";
+        long started = System.nanoTime();
+        for (int done = 0; done < ROWS; done += BATCH) {
+            List<Object[]> rows = new ArrayList<>(BATCH);
+            for (int i = 0; i < BATCH; i++) {
+                rows.add(new Object[]{bytes(keys.get()), PAYLOAD});
+            }
+            jdbc.batchUpdate(sql, rows);
+        }
+        return System.nanoTime() - started;
+    }
+
+    private long dataLength(String table) {
+        jdbc.execute("SET SESSION information_schema_stats_expiry = 0");
+        jdbc.execute("ANALYZE TABLE " + table);
+        return jdbc.queryForObject("SELECT DATA_LENGTH FROM information_schema.TABLES "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?", Long.class, table);
+    }
+
+    private static byte[] bytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+}
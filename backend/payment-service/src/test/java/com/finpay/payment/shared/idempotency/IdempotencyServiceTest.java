@@ -0,0 +1,261 @@
+package com.finpay.payment.shared.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.finpay.payment.shared.exception.IdempotencyConflictException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("IdempotencyService Unit Tests")
+class IdempotencyServiceTest {
+
+    @Mock private IdempotencyRecordRepository recordRepository;
+    @Mock private StringRedisTemplate redisTemplate;
+    @Mock private ValueOperations<String, String> valueOperations;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final IdempotencyProperties properties = new IdempotencyProperties();
+    private IdempotencyService idempotencyService;
+
+    private final UUID userId = UUID.randomUUID();
+    private final Map<String, String> request = Map.of("amount", "10.00");
+
+    @BeforeEach
+    void setUp() {
+        properties.setWaitTimeout(Duration.ofSeconds(2));
+        properties.setPollIntervalMs(10);
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        lenient().when(recordRepository.saveAndFlush(any())).thenAnswer(inv -> inv.getArgument(0));
+        lenient().when(recordRepository.completeClaim(anyString(), anyString(), anyInt(), any(), any()))
+                .thenReturn(1);
+        idempotencyService = new IdempotencyService(recordRepository, redisTemplate, objectMapper, properties);
+    }
+
+    private ResponseEntity<Result> created(String value) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(new Result(value));
+    }
+
+    private String stored(Map<String, String> body, String value) throws Exception {
+        IdempotencyService probe = new IdempotencyService(recordRepository, redisTemplate, objectMapper, properties);
+        // Run once through the service to capture exactly what it caches
+        probe.execute("transfer", userId, "probe", body, Result.class, () -> created(value));
+        ArgumentCaptor<String> json = ArgumentCaptor.forClass(String.class);
+        verify(valueOperations).set(eq("payment:idempotency:transfer:" + userId + ":probe"), json.capture(), any());
+        clearInvocations(recordRepository, valueOperations);
+        return json.getValue();
+    }
+
+    record Result(String value) {}
+
+    @Nested
+    @DisplayName("First Request")
+    class FirstRequestTests {
+
+        @Test
+        @DisplayName("should run the action without a key and store nothing")
+        void shouldBypassWithoutKey() {
+            ResponseEntity<Result> response = idempotencyService.execute(
+                    "transfer", userId, null, request, Result.class, () -> created("a"));
+
+            assertThat(response.getBody()).isEqualTo(new Result("a"));
+            verifyNoInteractions(recordRepository, redisTemplate);
+        }
+
+        @Test
+        @DisplayName("should claim the key, run the action and store its response")
+        void shouldStoreFirstResponse() {
+
+            ResponseEntity<Result> response = idempotencyService.execute(
+                    "transfer", userId, "k1", request, Result.class, () -> created("a"));
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+            assertThat(response.getHeaders().containsHeader(IdempotencyService.REPLAYED_HEADER)).isFalse();
+            ArgumentCaptor<IdempotencyRecord> claim = ArgumentCaptor.forClass(IdempotencyRecord.class);
+            verify(recordRepository).saveAndFlush(claim.capture());
+            assertThat(claim.getValue().getStatus()).isEqualTo(IdempotencyRecord.Status.IN_PROGRESS);
+            verify(recordRepository).completeClaim(eq("transfer:" + userId + ":k1"),
+                    eq(claim.getValue().getClaimToken()), eq(201), anyString(), any());
+            verify(valueOperations).set(eq("payment:idempotency:transfer:" + userId + ":k1"), anyString(),
+                    eq(properties.getTtl()));
+        }
+
+        @Test
+        @DisplayName("should release the claim when the action fails")
+        void shouldReleaseClaimOnFailure() {
+            assertThatThrownBy(() -> idempotencyService.execute("transfer", userId, "k1", request, Result.class,
+                    () -> { throw new IllegalStateException("boom"); }))
+                    .hasMessage("boom");
+
+            verify(recordRepository).releaseClaim(eq("transfer:" + userId + ":k1"), anyString());
+            verify(valueOperations, never()).set(anyString(), anyString(), any(Duration.class));
+        }
+
+        @Test
+        @DisplayName("should not store its response once the claim was taken over")
+        void shouldNotStoreOverTakenOverClaim() {
+            when(recordRepository.completeClaim(anyString(), anyString(), anyInt(), any(), any())).thenReturn(0);
+
+            ResponseEntity<Result> response = idempotencyService.execute(
+                    "transfer", userId, "k1", request, Result.class, () -> created("late"));
+
+            assertThat(response.getBody()).isEqualTo(new Result("late"));
+            verify(valueOperations, never()).set(anyString(), anyString(), any(Duration.class));
+        }
+
+        @Test
+        @DisplayName("should take over a stale claim with a new fencing token")
+        void shouldTakeOverStaleClaim() {
+            when(recordRepository.saveAndFlush(any()))
+                    .thenThrow(new DataIntegrityViolationException("dup"))
+                    .thenAnswer(inv -> inv.getArgument(0));
+            when(recordRepository.deleteStaleClaim(eq("transfer:" + userId + ":k1"), any())).thenReturn(1);
+
+            idempotencyService.execute("transfer", userId, "k1", request, Result.class, () -> created("a"));
+
+            ArgumentCaptor<IdempotencyRecord> claims = ArgumentCaptor.forClass(IdempotencyRecord.class);
+            verify(recordRepository, times(2)).saveAndFlush(claims.capture());
+            String token = claims.getAllValues().get(1).getClaimToken();
+            assertThat(token).isNotEqualTo(claims.getAllValues().get(0).getClaimToken());
+            verify(recordRepository).completeClaim(anyString(), eq(token), eq(201), anyString(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Replays")
+    class ReplayTests {
+
+        @Test
+        @DisplayName("should replay the cached response without running the action")
+        void shouldReplayFromRedis() throws Exception {
+            String json = stored(request, "original");
+            when(valueOperations.get("payment:idempotency:transfer:" + userId + ":k1")).thenReturn(json);
+
+            ResponseEntity<Result> response = idempotencyService.execute(
+                    "transfer", userId, "k1", request, Result.class, () -> created("second"));
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+            assertThat(response.getBody()).isEqualTo(new Result("original"));
+            assertThat(response.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+            verify(recordRepository, never()).saveAndFlush(any());
+        }
+
+        @Test
+        @DisplayName("should reject a key reused for a different request body")
+        void shouldRejectReusedKey() throws Exception {
+            String json = stored(Map.of("amount", "99.00"), "original");
+            when(valueOperations.get(anyString())).thenReturn(json);
+
+            assertThatThrownBy(() -> idempotencyService.execute(
+                    "transfer", userId, "k1", request, Result.class, () -> created("second")))
+                    .isInstanceOf(IdempotencyConflictException.class)
+                    .matches(e -> ((IdempotencyConflictException) e).isKeyReused());
+        }
+
+        @Test
+        @DisplayName("should replay from the database when another instance completed the request")
+        void shouldReplayFromDatabase() throws Exception {
+            String body = objectMapper.writeValueAsString(new Result("remote"));
+            String hash = objectMapper.readTree(stored(request, "x")).get("requestHash").asText();
+            when(recordRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("dup"));
+            when(recordRepository.findById("transfer:" + userId + ":k1")).thenReturn(Optional.of(
+                    IdempotencyRecord.builder().id("transfer:" + userId + ":k1").requestHash(hash)
+                            .status(IdempotencyRecord.Status.COMPLETED).responseStatus(201).responseBody(body)
+                            .build()));
+
+            AtomicInteger runs = new AtomicInteger();
+            ResponseEntity<Result> response = idempotencyService.execute("transfer", userId, "k1", request,
+                    Result.class, () -> { runs.incrementAndGet(); return created("local"); });
+
+            assertThat(response.getBody()).isEqualTo(new Result("remote"));
+            assertThat(runs).hasValue(0);
+        }
+
+        @Test
+        @DisplayName("should answer 409 while another instance is still processing the key")
+        void shouldConflictWhileInProgress() {
+            properties.setWaitTimeout(Duration.ofMillis(50));
+            when(recordRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("dup"));
+            when(recordRepository.findById(anyString())).thenReturn(Optional.of(IdempotencyRecord.builder()
+                    .requestHash("h").status(IdempotencyRecord.Status.IN_PROGRESS).build()));
+
+            assertThatThrownBy(() -> idempotencyService.execute(
+                    "transfer", userId, "k1", request, Result.class, () -> created("a")))
+                    .isInstanceOf(IdempotencyConflictException.class)
+                    .matches(e -> !((IdempotencyConflictException) e).isKeyReused());
+        }
+    }
+
+    @Nested
+    @DisplayName("Concurrent Duplicates")
+    class ConcurrencyTests {
+
+        @Test
+        @DisplayName("should run the action once and hand its response to a concurrent duplicate")
+        void shouldCoalesceConcurrentDuplicates() throws Exception {
+            CountDownLatch inAction = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            AtomicInteger runs = new AtomicInteger();
+
+            CompletableFuture<ResponseEntity<Result>> first = CompletableFuture.supplyAsync(() ->
+                    idempotencyService.execute("transfer", userId, "k1", request, Result.class, () -> {
+                        runs.incrementAndGet();
+                        inAction.countDown();
+                        await(release);
+                        return created("a");
+                    }));
+            assertThat(inAction.await(2, TimeUnit.SECONDS)).isTrue();
+
+            CompletableFuture<ResponseEntity<Result>> duplicate = CompletableFuture.supplyAsync(() ->
+                    idempotencyService.execute("transfer", userId, "k1", request, Result.class, () -> {
+                        runs.incrementAndGet();
+                        return created("b");
+                    }));
+            Thread.sleep(100);
+            release.countDown();
+
+            assertThat(first.get(2, TimeUnit.SECONDS).getBody()).isEqualTo(new Result("a"));
+            ResponseEntity<Result> replayed = duplicate.get(2, TimeUnit.SECONDS);
+            assertThat(replayed.getBody()).isEqualTo(new Result("a"));
+            assertThat(replayed.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+            assertThat(runs).hasValue(1);
+            verify(recordRepository, times(1)).saveAndFlush(any());
+        }
+
+        private void await(CountDownLatch latch) {
+            try {
+                latch.await(2, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
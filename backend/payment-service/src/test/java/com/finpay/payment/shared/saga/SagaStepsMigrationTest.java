@@ -0,0 +1,65 @@
+package com.finpay.payment.shared.saga;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SagaStepsMigration Unit Tests")
+class SagaStepsMigrationTest {
+
+    @Mock private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Only money_transfers still has its legacy columns
+        lenient().when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), anyString(), anyString()))
+                .thenAnswer(invocation -> "money_transfers".equals(invocation.getArgument(2)) ? 1 : 0);
+    }
+
+    @Test
+    @DisplayName("should backfill saga_steps and keep the legacy columns with a default")
+    void shouldKeepLegacyColumns() {
+        new SagaStepsMigration(jdbcTemplate, false).migrate();
+
+        verify(jdbcTemplate).update(startsWith("UPDATE money_transfers SET saga_steps = saga_steps |"));
+        ArgumentCaptor<String> alter = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).execute(alter.capture());
+        assertThat(alter.getValue())
+                .startsWith("ALTER TABLE money_transfers")
+                .contains("ALTER COLUMN funds_reserved SET DEFAULT 0")
+                .doesNotContain("DROP");
+    }
+
+    @Test
+    @DisplayName("should drop the legacy columns only when enabled")
+    void shouldDropWhenEnabled() {
+        new SagaStepsMigration(jdbcTemplate, true).migrate();
+
+        ArgumentCaptor<String> alter = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).execute(alter.capture());
+        assertThat(alter.getValue()).contains("DROP COLUMN funds_reserved", "DROP COLUMN compensation_completed");
+    }
+
+    @Test
+    @DisplayName("should fail startup instead of swallowing a failed migration")
+    void shouldSurfaceFailures() {
+        when(jdbcTemplate.update(anyString())).thenThrow(new DataAccessResourceFailureException("lock wait timeout"));
+
+        assertThatThrownBy(() -> new SagaStepsMigration(jdbcTemplate, false).migrate())
+                .isInstanceOf(DataAccessResourceFailureException.class);
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+}
@@ -0,0 +1,102 @@
+package com.finpay.payment.shared.saga;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SagaWatchdog Unit Tests")
+class SagaWatchdogTest {
+
+    @Mock private RecoverableSaga transfers;
+
+    private SagaWatchdogProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private SagaWatchdog watchdog;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transfers.sagaType()).thenReturn("transfer");
+        properties = new SagaWatchdogProperties();
+        properties.setBatchSize(2);
+        meterRegistry = new SimpleMeterRegistry();
+        watchdog = new SagaWatchdog(List.of(transfers), properties, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("should keep recovering while batches come back full")
+    void shouldDrainFullBatches() {
+        SagaRecovery retried = new SagaRecovery(UUID.randomUUID(), SagaRecovery.Action.RETRIED, Duration.ofMinutes(2));
+        SagaRecovery compensated = new SagaRecovery(UUID.randomUUID(),
+                SagaRecovery.Action.COMPENSATION_STARTED, Duration.ofMinutes(5));
+        when(transfers.recoverDue(any(), eq(2)))
+                .thenReturn(List.of(retried, retried))
+                .thenReturn(List.of(compensated));
+        when(transfers.countStuck(any())).thenReturn(3L);
+
+        watchdog.scan();
+
+        verify(transfers, times(2)).recoverDue(any(), eq(2));
+        assertThat(meterRegistry.get("saga.recovery").tags("type", "transfer", "action", "RETRIED")
+                .counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("saga.recovery").tags("action", "COMPENSATION_STARTED")
+                .counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("saga.stuck.age").tag("type", "transfer").timer().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("saga.stuck").tag("type", "transfer").gauge().value()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("should not record age for cleared deadlines")
+    void shouldNotRecordAgeForCleared() {
+        when(transfers.recoverDue(any(LocalDateTime.class), anyInt())).thenReturn(List.of(
+                new SagaRecovery(UUID.randomUUID(), SagaRecovery.Action.CLEARED, Duration.ofHours(1))));
+
+        watchdog.scan();
+
+        assertThat(meterRegistry.find("saga.stuck.age").timer()).isNull();
+        assertThat(meterRegistry.get("saga.recovery").tag("action", "CLEARED").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should do nothing when disabled")
+    void shouldSkipWhenDisabled() {
+        properties.setEnabled(false);
+
+        watchdog.scan();
+
+        verify(transfers, never()).recoverDue(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("should cap the retry backoff")
+    void shouldCapRetryDelay() {
+        properties.setStepTimeout(Duration.ofSeconds(60));
+        properties.setMaxBackoff(Duration.ofMinutes(5));
+
+        assertThat(properties.retryDelay(1)).isEqualTo(Duration.ofMinutes(2));
+        assertThat(properties.retryDelay(2)).isEqualTo(Duration.ofMinutes(4));
+        assertThat(properties.retryDelay(3)).isEqualTo(Duration.ofMinutes(5));
+    }
+
+    @Test
+    @DisplayName("should hold reserved funds for two full step budgets")
+    void shouldDeriveHoldDurationFromRetryBudget() {
+        // Defaults: 60s + 120s + 240s + 480s of deadlines, plus 4 scans of 15s
+        assertThat(properties.stepBudget()).isEqualTo(Duration.ofSeconds(960));
+        assertThat(properties.holdDuration()).isEqualTo(Duration.ofSeconds(1920));
+    }
+}
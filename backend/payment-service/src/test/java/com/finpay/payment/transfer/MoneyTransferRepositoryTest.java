@@ -15,6 +15,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -55,9 +56,6 @@ class MoneyTransferRepositoryTest {
                 .fundsReserved(false)
                 .fundsDeducted(false)
                 .fundsCredit(false)
-                .notificationSent(false)
-                .compensationRequired(false)
-                .compensationCompleted(false)
                 .build();
     }
 
@@ -169,19 +167,14 @@ class MoneyTransferRepositoryTest {
             UUID r = UUID.randomUUID();
 
             MoneyTransfer needsCompensation = createTransfer(s, r, "TRF-COMP",
-                    MoneyTransfer.TransferStatus.FAILED, MoneyTransfer.SagaStatus.FAILED);
-            needsCompensation.setCompensationRequired(true);
-            needsCompensation.setCompensationCompleted(false);
+                    MoneyTransfer.TransferStatus.COMPENSATING, MoneyTransfer.SagaStatus.COMPENSATING);
             transferRepository.save(needsCompensation);
 
             MoneyTransfer alreadyComp = createTransfer(s, r, "TRF-DONE",
                     MoneyTransfer.TransferStatus.COMPENSATED, MoneyTransfer.SagaStatus.COMPENSATED);
-            alreadyComp.setCompensationRequired(true);
-            alreadyComp.setCompensationCompleted(true);
             transferRepository.save(alreadyComp);
 
-            List<MoneyTransfer> pending = transferRepository.findPendingCompensations(
-                    MoneyTransfer.SagaStatus.FAILED);
+            List<MoneyTransfer> pending = transferRepository.findPendingCompensations();
 
             assertThat(pending).hasSize(1);
             assertThat(pending.get(0).getTransactionReference()).isEqualTo("TRF-COMP");
@@ -200,7 +193,6 @@ class MoneyTransferRepositoryTest {
             transfer.setFundsReserved(true);
             transfer.setFundsDeducted(true);
             transfer.setFundsCredit(true);
-            transfer.setNotificationSent(true);
 
             MoneyTransfer saved = transferRepository.save(transfer);
             Optional<MoneyTransfer> found = transferRepository.findById(saved.getId());
@@ -211,5 +203,29 @@ class MoneyTransferRepositoryTest {
             assertThat(found.get().isFundsCredit()).isTrue();
             assertThat(found.get().isNotificationSent()).isTrue();
         }
+
+        @Test
+        @DisplayName("should apply a transition only from the expected state")
+        void shouldGuardTransitionOnPreviousState() {
+            MoneyTransfer transfer = transferRepository.save(createTransfer(UUID.randomUUID(), UUID.randomUUID(),
+                    "TRF-GUARD", MoneyTransfer.TransferStatus.PROCESSING, MoneyTransfer.SagaStatus.STARTED));
+            LocalDateTime now = LocalDateTime.now();
+
+            int first = transferRepository.applyTransition(transfer.getId(),
+                    MoneyTransfer.SagaStatus.STARTED, 0, MoneyTransfer.SagaStatus.FUNDS_RESERVED, 1,
+                    MoneyTransfer.TransferStatus.PROCESSING, UUID.randomUUID(), null, null, null, null,
+                    now.plusMinutes(1), now);
+            int replay = transferRepository.applyTransition(transfer.getId(),
+                    MoneyTransfer.SagaStatus.STARTED, 0, MoneyTransfer.SagaStatus.FUNDS_RESERVED, 1,
+                    MoneyTransfer.TransferStatus.PROCESSING, null, null, null, null, null,
+                    now.plusMinutes(1), now);
+
+            MoneyTransfer found = transferRepository.findById(transfer.getId()).orElseThrow();
+            assertThat(first).isEqualTo(1);
+            assertThat(replay).isZero();
+            assertThat(found.getSagaStatus()).isEqualTo(MoneyTransfer.SagaStatus.FUNDS_RESERVED);
+            assertThat(found.isFundsReserved()).isTrue();
+            assertThat(found.getSenderWalletId()).isNotNull();
+        }
     }
 }
@@ -1,8 +1,14 @@
 package com.finpay.payment.transfer;
 
+import com.finpay.id.ReferenceGenerator;
+import com.finpay.payment.detail.dto.TransactionDetailResponse.TransactionType;
+import com.finpay.payment.reference.ReferenceResolver;
+import com.finpay.payment.rollup.TransactionRollupService;
 import com.finpay.payment.shared.exception.ResourceNotFoundException;
 import com.finpay.payment.shared.exception.TransferException;
 import com.finpay.payment.shared.kafka.WalletCommandProducer;
+import com.finpay.payment.shared.saga.SagaRecovery;
+import com.finpay.payment.shared.saga.SagaWatchdogProperties;
 import com.finpay.payment.transfer.dto.MoneyTransferRequest;
 import com.finpay.payment.transfer.dto.MoneyTransferResponse;
 import com.finpay.payment.transfer.event.TransferSagaEvent;
@@ -13,10 +19,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -33,6 +42,10 @@ class MoneyTransferServiceTest {
     @Mock private MoneyTransferRepository transferRepository;
     @Mock private WalletCommandProducer walletCommandProducer;
     @Mock private TransferSagaEventProducer sagaEventProducer;
+    @Mock private TransactionRollupService rollupService;
+    @Spy private SagaWatchdogProperties sagaProperties = new SagaWatchdogProperties();
+    @Spy private ReferenceGenerator referenceGenerator = new ReferenceGenerator(0);
+    @Mock private ReferenceResolver referenceResolver;
 
     @InjectMocks private MoneyTransferService transferService;
 
@@ -61,14 +74,16 @@ class MoneyTransferServiceTest {
                 .fundsReserved(false)
                 .fundsDeducted(false)
                 .fundsCredit(false)
-                .notificationSent(false)
-                .compensationRequired(false)
-                .compensationCompleted(false)
                 .createdAt(LocalDateTime.now())
                 .updatedAt(LocalDateTime.now())
                 .build();
     }
 
+    private void acceptTransitions() {
+        when(transferRepository.applyTransition(any(), any(), anyInt(), any(), anyInt(), any(),
+                any(), any(), any(), any(), any(), any(), any())).thenReturn(1);
+    }
+
     @Nested
     @DisplayName("Initiate Transfer")
     class InitiateTransferTests {
@@ -137,24 +152,56 @@ class MoneyTransferServiceTest {
         void shouldHandleFundsReserved() {
             UUID walletId = UUID.randomUUID();
             when(transferRepository.findById(transferId)).thenReturn(Optional.of(testTransfer));
-            when(transferRepository.save(any(MoneyTransfer.class))).thenReturn(testTransfer);
+            acceptTransitions();
 
             transferService.handleFundsReserved(transferId, walletId);
 
             assertThat(testTransfer.isFundsReserved()).isTrue();
             assertThat(testTransfer.getSagaStatus()).isEqualTo(MoneyTransfer.SagaStatus.FUNDS_RESERVED);
             assertThat(testTransfer.getSenderWalletId()).isEqualTo(walletId);
+            assertThat(testTransfer.getNextDeadlineAt()).isAfter(LocalDateTime.now());
             verify(walletCommandProducer).deductFunds(eq(transferId), eq(senderId),
                     any(BigDecimal.class), eq("USD"), anyString());
         }
 
+        @Test
+        @DisplayName("should ignore a duplicate funds-reserved response")
+        void shouldIgnoreDuplicateFundsReserved() {
+            testTransfer.setFundsReserved(true);
+            testTransfer.setSagaStatus(MoneyTransfer.SagaStatus.FUNDS_RESERVED);
+            when(transferRepository.findById(transferId)).thenReturn(Optional.of(testTransfer));
+
+            transferService.handleFundsReserved(transferId, UUID.randomUUID());
+
+            verifyNoInteractions(walletCommandProducer);
+            verify(transferRepository, never()).applyTransition(any(), any(), anyInt(), any(), anyInt(), any(),
+                    any(), any(), any(), any(), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("should release a reservation that arrives after the saga was compensated")
+        void shouldReleaseLateReservation() {
+            testTransfer.setStatus(MoneyTransfer.TransferStatus.COMPENSATED);
+            testTransfer.setSagaStatus(MoneyTransfer.SagaStatus.COMPENSATED);
+            when(transferRepository.findById(transferId)).thenReturn(Optional.of(testTransfer));
+            acceptTransitions();
+
+            transferService.handleFundsReserved(transferId, UUID.randomUUID());
+
+            assertThat(testTransfer.getSagaStatus()).isEqualTo(MoneyTransfer.SagaStatus.COMPENSATING);
+            assertThat(testTransfer.isCompensationCompleted()).isFalse();
+            verify(walletCommandProducer).releaseFunds(eq(transferId), eq(senderId),
+                    any(BigDecimal.class), eq("USD"), anyString());
+            verify(walletCommandProducer, never()).deductFunds(any(), any(), any(), any(), any());
+        }
+
         @Test
         @DisplayName("should handle funds deducted - Step 2")
         void shouldHandleFundsDeducted() {
             testTransfer.setFundsReserved(true);
             testTransfer.setSagaStatus(MoneyTransfer.SagaStatus.FUNDS_RESERVED);
             when(transferRepository.findById(transferId)).thenReturn(Optional.of(testTransfer));
-            when(transferRepository.save(any(MoneyTransfer.class))).thenReturn(testTransfer);
+            acceptTransitions();
 
             transferService.handleFundsDeducted(transferId);
 
@@ -171,7 +218,7 @@ class MoneyTransferServiceTest {
             testTransfer.setFundsReserved(true);
             testTransfer.setFundsDeducted(true);
             when(transferRepository.findById(transferId)).thenReturn(Optional.of(testTransfer));
-            when(transferRepository.save(any(MoneyTransfer.class))).thenReturn(testTransfer);
+            acceptTransitions();
 
             TransferSagaStepResult result = transferService.handleFundsCredited(transferId, recipientWalletId);
 
@@ -180,7 +227,60 @@ class MoneyTransferServiceTest {
             assertThat(testTransfer.getStatus()).isEqualTo(MoneyTransfer.TransferStatus.COMPLETED);
             assertThat(testTransfer.getSagaStatus()).isEqualTo(MoneyTransfer.SagaStatus.COMPLETED);
             assertThat(testTransfer.getCompletedAt()).isNotNull();
+            assertThat(testTransfer.getNextDeadlineAt()).isNull();
             verify(sagaEventProducer).sendNotificationEvent(any(TransferSagaEvent.class));
+            verify(rollupService).record(eq(TransactionType.TRANSFER), eq("COMPLETED"), eq("USD"),
+                    any(BigDecimal.class), any(LocalDateTime.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("Guarded Transitions")
+    class GuardedTransitionTests {
+
+        @Test
+        @DisplayName("should write each response as one update guarded on the previous state")
+        void shouldGuardOnPreviousState() {
+            UUID walletId = UUID.randomUUID();
+            when(transferRepository.findById(transferId)).thenReturn(Optional.of(testTransfer));
+            acceptTransitions();
+
+            transferService.handleFundsReserved(transferId, walletId);
+
+            verify(transferRepository).applyTransition(eq(transferId),
+                    eq(MoneyTransfer.SagaStatus.STARTED), eq(0),
+                    eq(MoneyTransfer.SagaStatus.FUNDS_RESERVED), eq(testTransfer.getSagaSteps()),
+                    eq(MoneyTransfer.TransferStatus.PROCESSING), eq(walletId), isNull(),
+                    isNull(), isNull(), isNull(), any(LocalDateTime.class), any(LocalDateTime.class));
+            verify(transferRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("should reject a response when another handler changed the saga first")
+        void shouldRejectConcurrentChange() {
+            when(transferRepository.findById(transferId)).thenReturn(Optional.of(testTransfer));
+            when(transferRepository.applyTransition(any(), any(), anyInt(), any(), anyInt(), any(),
+                    any(), any(), any(), any(), any(), any(), any())).thenReturn(0);
+
+            assertThatThrownBy(() -> transferService.handleFundsReserved(transferId, UUID.randomUUID()))
+                    .isInstanceOf(OptimisticLockingFailureException.class);
+            verifyNoInteractions(walletCommandProducer);
+        }
+
+        @Test
+        @DisplayName("should finish compensation once the deduction is reversed")
+        void shouldSettleReservationWithDeductionReversal() {
+            testTransfer.setFundsReserved(true);
+            testTransfer.setFundsDeducted(true);
+            testTransfer.setSagaStatus(MoneyTransfer.SagaStatus.COMPENSATING);
+            when(transferRepository.findById(transferId)).thenReturn(Optional.of(testTransfer));
+            acceptTransitions();
+
+            transferService.handleDeductionReversed(transferId);
+
+            assertThat(testTransfer.getSagaStatus()).isEqualTo(MoneyTransfer.SagaStatus.COMPENSATED);
+            assertThat(testTransfer.getNextDeadlineAt()).isNull();
+            verifyNoInteractions(walletCommandProducer);
         }
     }
 
@@ -192,7 +292,7 @@ class MoneyTransferServiceTest {
         @DisplayName("should handle saga failure")
         void shouldHandleSagaFailure() {
             when(transferRepository.findById(transferId)).thenReturn(Optional.of(testTransfer));
-            when(transferRepository.save(any(MoneyTransfer.class))).thenReturn(testTransfer);
+            acceptTransitions();
 
             TransferSagaStepResult result = transferService.handleSagaFailure(transferId, "Insufficient funds");
 
@@ -208,7 +308,7 @@ class MoneyTransferServiceTest {
         void shouldCompensateWithRelease() {
             testTransfer.setFundsReserved(true);
             when(transferRepository.findById(transferId)).thenReturn(Optional.of(testTransfer));
-            when(transferRepository.save(any(MoneyTransfer.class))).thenReturn(testTransfer);
+            acceptTransitions();
 
             transferService.handleSagaFailure(transferId, "Credit failed");
 
@@ -222,7 +322,7 @@ class MoneyTransferServiceTest {
             testTransfer.setFundsReserved(true);
             testTransfer.setFundsDeducted(true);
             when(transferRepository.findById(transferId)).thenReturn(Optional.of(testTransfer));
-            when(transferRepository.save(any(MoneyTransfer.class))).thenReturn(testTransfer);
+            acceptTransitions();
 
             transferService.handleSagaFailure(transferId, "Credit failed");
 
@@ -237,7 +337,7 @@ class MoneyTransferServiceTest {
             testTransfer.setFundsDeducted(true);
             testTransfer.setFundsCredit(true);
             when(transferRepository.findById(transferId)).thenReturn(Optional.of(testTransfer));
-            when(transferRepository.save(any(MoneyTransfer.class))).thenReturn(testTransfer);
+            acceptTransitions();
 
             transferService.handleSagaFailure(transferId, "Notification failed");
 
@@ -245,13 +345,27 @@ class MoneyTransferServiceTest {
                     any(BigDecimal.class), eq("USD"), anyString());
         }
 
+        @Test
+        @DisplayName("should ignore a failure reported while already compensating")
+        void shouldIgnoreFailureWhileCompensating() {
+            testTransfer.setFundsReserved(true);
+            testTransfer.setStatus(MoneyTransfer.TransferStatus.COMPENSATING);
+            testTransfer.setSagaStatus(MoneyTransfer.SagaStatus.COMPENSATING);
+            when(transferRepository.findById(transferId)).thenReturn(Optional.of(testTransfer));
+
+            TransferSagaStepResult result = transferService.handleSagaFailure(transferId, "Release failed");
+
+            assertThat(result.hasLinkedRequest()).isFalse();
+            verifyNoInteractions(walletCommandProducer);
+        }
+
         @Test
         @DisplayName("should handle funds released during compensation")
         void shouldHandleFundsReleased() {
             testTransfer.setFundsReserved(true);
-            testTransfer.setCompensationRequired(true);
+            testTransfer.setSagaStatus(MoneyTransfer.SagaStatus.COMPENSATING);
             when(transferRepository.findById(transferId)).thenReturn(Optional.of(testTransfer));
-            when(transferRepository.save(any(MoneyTransfer.class))).thenReturn(testTransfer);
+            acceptTransitions();
 
             transferService.handleFundsReleased(transferId);
 
@@ -261,6 +375,84 @@ class MoneyTransferServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Stuck-saga Recovery")
+    class RecoveryTests {
+
+        private final LocalDateTime now = LocalDateTime.now();
+
+        @Test
+        @DisplayName("should lock overdue transfers in one page")
+        void shouldLockOverdueTransfers() {
+            when(transferRepository.findOverdueForUpdate(eq(now), any())).thenReturn(List.of(testTransfer));
+
+            assertThat(transferService.lockOverdueTransfers(now, 50)).containsExactly(testTransfer);
+        }
+
+        @Test
+        @DisplayName("should re-send the pending step with backoff")
+        void shouldResendPendingStep() {
+            testTransfer.setFundsReserved(true);
+            testTransfer.setSagaStatus(MoneyTransfer.SagaStatus.FUNDS_RESERVED);
+            testTransfer.setRecoveryAttempts(1);
+
+            SagaRecovery.Action action = transferService.recoverStuckTransfer(testTransfer, now);
+
+            assertThat(action).isEqualTo(SagaRecovery.Action.RETRIED);
+            assertThat(testTransfer.getRecoveryAttempts()).isEqualTo(2);
+            assertThat(testTransfer.getNextDeadlineAt()).isEqualTo(now.plus(sagaProperties.retryDelay(2)));
+            verify(walletCommandProducer).deductFunds(eq(transferId), eq(senderId),
+                    any(BigDecimal.class), eq("USD"), anyString());
+        }
+
+        @Test
+        @DisplayName("should fail and compensate once retries are exhausted")
+        void shouldCompensateAfterMaxRetries() {
+            testTransfer.setFundsReserved(true);
+            testTransfer.setSagaStatus(MoneyTransfer.SagaStatus.FUNDS_RESERVED);
+            testTransfer.setRecoveryAttempts(sagaProperties.getMaxRetries());
+            acceptTransitions();
+
+            SagaRecovery.Action action = transferService.recoverStuckTransfer(testTransfer, now);
+
+            assertThat(action).isEqualTo(SagaRecovery.Action.COMPENSATION_STARTED);
+            assertThat(testTransfer.getSagaStatus()).isEqualTo(MoneyTransfer.SagaStatus.COMPENSATING);
+            assertThat(testTransfer.getFailureReason()).contains("Timed out");
+            assertThat(testTransfer.getRecoveryAttempts()).isZero();
+            verify(walletCommandProducer).releaseFunds(eq(transferId), eq(senderId),
+                    any(BigDecimal.class), eq("USD"), anyString());
+        }
+
+        @Test
+        @DisplayName("should re-send the first outstanding compensation step")
+        void shouldResendCompensation() {
+            testTransfer.setFundsReserved(true);
+            testTransfer.setFundsDeducted(true);
+            testTransfer.setStatus(MoneyTransfer.TransferStatus.COMPENSATING);
+            testTransfer.setSagaStatus(MoneyTransfer.SagaStatus.COMPENSATING);
+
+            SagaRecovery.Action action = transferService.recoverStuckTransfer(testTransfer, now);
+
+            assertThat(action).isEqualTo(SagaRecovery.Action.COMPENSATION_RETRIED);
+            verify(walletCommandProducer).reverseDeduction(eq(transferId), eq(senderId),
+                    any(BigDecimal.class), eq("USD"), anyString());
+        }
+
+        @Test
+        @DisplayName("should clear a stale deadline on a finished transfer")
+        void shouldClearStaleDeadline() {
+            testTransfer.setStatus(MoneyTransfer.TransferStatus.COMPLETED);
+            testTransfer.setSagaStatus(MoneyTransfer.SagaStatus.COMPLETED);
+            testTransfer.setNextDeadlineAt(now.minusMinutes(1));
+
+            SagaRecovery.Action action = transferService.recoverStuckTransfer(testTransfer, now);
+
+            assertThat(action).isEqualTo(SagaRecovery.Action.CLEARED);
+            assertThat(testTransfer.getNextDeadlineAt()).isNull();
+            verifyNoInteractions(walletCommandProducer);
+        }
+    }
+
     @Nested
     @DisplayName("Get Transfer")
     class GetTransferTests {
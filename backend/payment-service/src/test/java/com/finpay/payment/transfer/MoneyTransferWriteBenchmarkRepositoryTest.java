@@ -0,0 +1,157 @@
+package com.finpay.payment.transfer;
+
+import com.finpay.payment.testconfig.TestMySQLContainerConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the two ways a saga callback can persist a transition: loading the
+ * row and flushing the dirty entity, or one guarded UPDATE. Both run the
+ * reserve, deduct and credit transitions of a transfer; traffic is read from
+ * the MySQL session counters of the test's connection.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TestMySQLContainerConfig.class)
+@ActiveProfiles("test")
+@DisplayName("MoneyTransfer saga write benchmark")
+@Slf4j
+class MoneyTransferWriteBenchmarkRepositoryTest {
+
+    private static final int TRANSFERS = 200;
+
+    private static final MoneyTransfer.SagaStatus[] PATH = {
+            MoneyTransfer.SagaStatus.STARTED,
+            MoneyTransfer.SagaStatus.FUNDS_RESERVED,
+            MoneyTransfer.SagaStatus.FUNDS_DEDUCTED,
+            MoneyTransfer.SagaStatus.FUNDS_CREDITED
+    };
+
+    @Autowired
+    private MoneyTransferRepository transferRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        transferRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("targeted transitions should need fewer statements and bytes than load-and-save")
+    void shouldWriteLessWithTargetedTransitions() {
+        List<UUID> loaded = createTransfers("LOAD");
+        List<UUID> targeted = createTransfers("TGT");
+
+        Traffic entityPath = measure(() -> loaded.forEach(this::advanceByEntity));
+        Traffic targetedPath = measure(() -> targeted.forEach(this::advanceByUpdate));
+
+        log.info("load-and-save: {}", entityPath.perTransfer());
+        log.info("targeted: {}", targetedPath.perTransfer());
+
+        assertThat(transferRepository.findById(targeted.getFirst()).orElseThrow().getSagaStatus())
+                .isEqualTo(MoneyTransfer.SagaStatus.FUNDS_CREDITED);
+        assertThat(targetedPath.statements()).isLessThan(entityPath.statements());
+        assertThat(targetedPath.bytes()).isLessThan(entityPath.bytes());
+    }
+
+    // What the callbacks did before: read the whole row, flush the dirty entity
+    private void advanceByEntity(UUID id) {
+        for (int i = 1; i < PATH.length; i++) {
+            MoneyTransfer transfer = entityManager.find(MoneyTransfer.class, id);
+            transfer.setSagaStatus(PATH[i]);
+            transfer.setSagaSteps(transfer.getSagaSteps() | 1 << (i - 1));
+            transfer.setUpdatedAt(LocalDateTime.now());
+            entityManager.flush();
+            entityManager.clear();
+        }
+    }
+
+    private void advanceByUpdate(UUID id) {
+        int steps = 0;
+        for (int i = 1; i < PATH.length; i++) {
+            int next = steps | 1 << (i - 1);
+            int updated = transferRepository.applyTransition(id, PATH[i - 1], steps, PATH[i], next,
+                    MoneyTransfer.TransferStatus.PROCESSING, null, null, null, null, null, null,
+                    LocalDateTime.now());
+            assertThat(updated).isEqualTo(1);
+            steps = next;
+        }
+    }
+
+    private List<UUID> createTransfers(String prefix) {
+        List<UUID> ids = new ArrayList<>(TRANSFERS);
+        for (int i = 0; i < TRANSFERS; i++) {
+            MoneyTransfer transfer = transferRepository.save(MoneyTransfer.builder()
+                    .transactionReference(prefix + "-" + i)
+                    .senderUserId(UUID.randomUUID())
+                    .recipientUserId(UUID.randomUUID())
+                    .amount(new BigDecimal("100.0000"))
+                    .currency("USD")
+                    .description("Benchmark transfer")
+                    .transferType(MoneyTransfer.TransferType.SEND)
+                    .status(MoneyTransfer.TransferStatus.PROCESSING)
+                    .sagaStatus(MoneyTransfer.SagaStatus.STARTED)
+                    .fundsReserved(false)
+                    .fundsDeducted(false)
+                    .fundsCredit(false)
+                    .build());
+            ids.add(transfer.getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return ids;
+    }
+
+    private Traffic measure(Runnable work) {
+        Map<String, Long> before = sessionStatus();
+        long started = System.nanoTime();
+        work.run();
+        long elapsed = System.nanoTime() - started;
+        Map<String, Long> after = sessionStatus();
+        return new Traffic(
+                after.get("Questions") - before.get("Questions"),
+                after.get("Bytes_received") - before.get("Bytes_received")
+                        + after.get("Bytes_sent") - before.get("Bytes_sent"),
+                elapsed);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Long> sessionStatus() {
+        List<Object[]> rows = entityManager.getEntityManager().createNativeQuery(
+                "SHOW SESSION STATUS WHERE Variable_name IN ('Questions', 'Bytes_received', 'Bytes_sent')")
+                .getResultList();
+        Map<String, Long> status = new HashMap<>();
+        for (Object[] row : rows) {
+            status.put(row[0].toString(), Long.parseLong(row[1].toString()));
+        }
+        return status;
+    }
+
+    private record Traffic(long statements, long bytes, long nanos) {
+
+        String perTransfer() {
+            return String.format("%.1f statements, %d bytes, %.1f us per transfer",
+                    (double) statements / TRANSFERS, bytes / TRANSFERS, nanos / 1_000.0 / TRANSFERS);
+        }
+    }
+}
@@ -0,0 +1,378 @@
+package com.finpay.payment.transfer.batch;
+
+import com.finpay.id.ReferenceGenerator;
+import com.finpay.payment.shared.event.WalletCommandEvent;
+import com.finpay.payment.shared.exception.TransferException;
+import com.finpay.payment.shared.exception.VelocityLimitExceededException;
+import com.finpay.payment.shared.kafka.WalletCommandProducer;
+import com.finpay.payment.transfer.batch.dto.TransferBatchResponse;
+import com.finpay.payment.velocity.VelocityGuard;
+import com.finpay.saga.SagaSteps;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TransferBatchService Unit Tests")
+class TransferBatchServiceTest {
+
+    @Mock private TransferBatchRepository batchRepository;
+    @Mock private TransferBatchItemRepository itemRepository;
+    @Mock private WalletCommandProducer walletCommandProducer;
+    @Mock private EntityManager entityManager;
+    @Mock private VelocityGuard velocityGuard;
+    @Spy private TransferBatchProperties properties = new TransferBatchProperties();
+    @Spy private ReferenceGenerator referenceGenerator = new ReferenceGenerator(0);
+
+    @InjectMocks private TransferBatchService batchService;
+
+    private UUID senderId;
+    private UUID batchId;
+    private TransferBatch batch;
+
+    @BeforeEach
+    void setUp() {
+        senderId = UUID.randomUUID();
+        batchId = UUID.randomUUID();
+        batch = TransferBatch.builder()
+                .id(batchId)
+                .transactionReference("TRB-1-ABCDEF12")
+                .senderUserId(senderId)
+                .currency("USD")
+                .itemCount(2)
+                .totalAmount(new BigDecimal("150.00"))
+                .build();
+    }
+
+    private static InputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private TransferBatchItem item(TransferBatchItem.ItemStatus status) {
+        return TransferBatchItem.builder()
+                .id(UUID.randomUUID())
+                .batchId(batchId)
+                .lineNumber(2)
+                .recipientUserId(UUID.randomUUID())
+                .amount(new BigDecimal("100.00"))
+                .status(status)
+                .build();
+    }
+
+    @Nested
+    @DisplayName("Create Batch")
+    class CreateBatchTests {
+
+        @BeforeEach
+        void stubSave() {
+            lenient().when(batchRepository.save(any(TransferBatch.class))).thenAnswer(inv -> {
+                TransferBatch saved = inv.getArgument(0);
+                if (saved.getId() == null) {
+                    saved.setId(batchId);
+                }
+                return saved;
+            });
+        }
+
+        @Test
+        @DisplayName("should stream lines into chunked inserts and reserve the total")
+        void shouldInsertInChunksAndReserveTotal() {
+            properties.setInsertChunkSize(2);
+            UUID first = UUID.randomUUID();
+            String file = "recipientUserId,amount,description\n"
+                    + first + ",100.50,March salary\n"
+                    + UUID.randomUUID() + ",20\n"
+                    + "\n"
+                    + UUID.randomUUID() + ",9.5,Bonus, with comma\n";
+            List<List<TransferBatchItem>> inserted = new ArrayList<>();
+            when(itemRepository.saveAll(anyList())).thenAnswer(inv -> {
+                inserted.add(List.copyOf(inv.getArgument(0)));
+                return inv.getArgument(0);
+            });
+
+            TransferBatchResponse response = batchService.createBatch(senderId, "usd", "Payroll", csv(file));
+
+            assertThat(inserted).hasSize(2);
+            assertThat(inserted.get(0)).hasSize(2);
+            assertThat(inserted.get(0).get(0).getRecipientUserId()).isEqualTo(first);
+            assertThat(inserted.get(0).get(0).getLineNumber()).isEqualTo(2);
+            assertThat(inserted.get(1).get(0).getDescription()).isEqualTo("Bonus, with comma");
+            assertThat(response.itemCount()).isEqualTo(3);
+            assertThat(response.totalAmount()).isEqualByComparingTo("130.00");
+            assertThat(response.currency()).isEqualTo("USD");
+            assertThat(response.status()).isEqualTo(TransferBatch.BatchStatus.FUNDING);
+            verify(velocityGuard).admitBatch(eq(senderId),
+                    argThat(total -> total.compareTo(new BigDecimal("130.00")) == 0), eq("USD"));
+            verify(walletCommandProducer).reserveFunds(eq(batchId), eq(senderId),
+                    argThat(total -> total.compareTo(new BigDecimal("130.00")) == 0), eq("USD"), anyString());
+        }
+
+        @Test
+        @DisplayName("should reject a batch over the sender's velocity rules before funding it")
+        void shouldRejectOverVelocityLimit() {
+            String file = UUID.randomUUID() + ",10\n";
+            doThrow(new VelocityLimitExceededException("sender-burst", Duration.ofSeconds(5)))
+                    .when(velocityGuard).admitBatch(eq(senderId), any(), eq("USD"));
+
+            assertThatThrownBy(() -> batchService.createBatch(senderId, "USD", null, csv(file)))
+                    .isInstanceOf(VelocityLimitExceededException.class);
+            verify(walletCommandProducer, never()).reserveFunds(any(), any(), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("should reject a line paying the sender, naming the line")
+        void shouldRejectSelfTransfer() {
+            String file = UUID.randomUUID() + ",10\n" + senderId + ",10\n";
+
+            assertThatThrownBy(() -> batchService.createBatch(senderId, "USD", null, csv(file)))
+                    .isInstanceOf(TransferException.class)
+                    .hasMessageContaining("Line 2");
+            verify(walletCommandProducer, never()).reserveFunds(any(), any(), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("should reject amounts below one cent")
+        void shouldRejectInvalidAmount() {
+            String file = UUID.randomUUID() + ",0.001\n";
+
+            assertThatThrownBy(() -> batchService.createBatch(senderId, "USD", null, csv(file)))
+                    .isInstanceOf(TransferException.class)
+                    .hasMessageContaining("Line 1");
+        }
+
+        @Test
+        @DisplayName("should reject files over the item limit")
+        void shouldRejectTooManyItems() {
+            properties.setMaxItems(1);
+            String file = UUID.randomUUID() + ",10\n" + UUID.randomUUID() + ",10\n";
+
+            assertThatThrownBy(() -> batchService.createBatch(senderId, "USD", null, csv(file)))
+                    .isInstanceOf(TransferException.class)
+                    .hasMessageContaining("at most 1");
+        }
+
+        @Test
+        @DisplayName("should reject an empty file")
+        void shouldRejectEmptyFile() {
+            assertThatThrownBy(() -> batchService.createBatch(senderId, "USD", null, csv("recipient,amount\n")))
+                    .isInstanceOf(TransferException.class)
+                    .hasMessageContaining("no transfers");
+        }
+    }
+
+    @Nested
+    @DisplayName("Funding Saga")
+    class FundingTests {
+
+        @BeforeEach
+        void stubBatch() {
+            when(batchRepository.findById(batchId)).thenReturn(Optional.of(batch));
+        }
+
+        @Test
+        @DisplayName("should deduct the total once it is reserved")
+        void shouldDeductAfterReserve() {
+            when(batchRepository.applyTransition(any(), any(), anyInt(), any(), anyInt(), any(), any(), any()))
+                    .thenReturn(1);
+
+            batchService.handleFundsReserved(batchId);
+
+            verify(walletCommandProducer).deductFunds(eq(batchId), eq(senderId),
+                    eq(new BigDecimal("150.00")), eq("USD"), anyString());
+        }
+
+        @Test
+        @DisplayName("should start distributing once the total is deducted")
+        void shouldDistributeWhenFunded() {
+            batch.setSagaStatus(TransferBatch.SagaStatus.FUNDS_RESERVED);
+            batch.setSagaSteps(SagaSteps.withDone(0, TransferBatch.SagaStep.RESERVE_FUNDS, true));
+            when(batchRepository.applyTransition(any(), any(), anyInt(), any(), anyInt(), any(), any(), any()))
+                    .thenReturn(1);
+
+            batchService.handleFundsDeducted(batchId);
+
+            verify(batchRepository).applyTransition(eq(batchId), eq(TransferBatch.SagaStatus.FUNDS_RESERVED),
+                    anyInt(), eq(TransferBatch.SagaStatus.FUNDED), anyInt(),
+                    eq(TransferBatch.BatchStatus.DISTRIBUTING), isNull(), any());
+            verifyNoInteractions(walletCommandProducer);
+        }
+
+        @Test
+        @DisplayName("should release the reservation and fail all items when the deduction fails")
+        void shouldReleaseOnFundingFailure() {
+            batch.setSagaStatus(TransferBatch.SagaStatus.FUNDS_RESERVED);
+            batch.setSagaSteps(SagaSteps.withDone(0, TransferBatch.SagaStep.RESERVE_FUNDS, true));
+            when(batchRepository.applyTransition(any(), any(), anyInt(), any(), anyInt(), any(), any(), any()))
+                    .thenReturn(1);
+
+            batchService.handleFundingFailure(batchId, "Daily limit exceeded");
+
+            verify(batchRepository).applyTransition(eq(batchId), any(), anyInt(),
+                    eq(TransferBatch.SagaStatus.COMPENSATING), anyInt(), eq(TransferBatch.BatchStatus.FAILED),
+                    eq("Daily limit exceeded"), any());
+            verify(itemRepository).failPending(eq(batchId), anyString(), any());
+            verify(walletCommandProducer).releaseFunds(eq(batchId), eq(senderId),
+                    eq(new BigDecimal("150.00")), eq("USD"), anyString());
+        }
+    }
+
+    @Nested
+    @DisplayName("Fan-out")
+    class FanOutTests {
+
+        @Test
+        @DisplayName("should send one credit per item of the chunk with a single outbox write")
+        @SuppressWarnings("unchecked")
+        void shouldDispatchChunk() {
+            batch.setStatus(TransferBatch.BatchStatus.DISTRIBUTING);
+            TransferBatchItem first = item(TransferBatchItem.ItemStatus.PENDING);
+            TransferBatchItem second = item(TransferBatchItem.ItemStatus.PENDING);
+            when(batchRepository.findById(batchId)).thenReturn(Optional.of(batch));
+            when(itemRepository.findPendingForUpdate(eq(batchId), any())).thenReturn(List.of(first, second));
+
+            int sent = batchService.dispatchChunk(batchId);
+
+            assertThat(sent).isEqualTo(2);
+            verify(itemRepository).updateStatus(eq(List.of(first.getId(), second.getId())),
+                    eq(TransferBatchItem.ItemStatus.CREDITING), any());
+            ArgumentCaptor<List<WalletCommandEvent>> commands = ArgumentCaptor.forClass(List.class);
+            verify(walletCommandProducer).sendCommands(eq(WalletCommandEvent.CommandType.CREDIT_FUNDS),
+                    commands.capture());
+            assertThat(commands.getValue()).extracting(WalletCommandEvent::correlationId)
+                    .containsExactly(first.getId(), second.getId());
+            assertThat(commands.getValue()).extracting(WalletCommandEvent::userId)
+                    .containsExactly(first.getRecipientUserId(), second.getRecipientUserId());
+        }
+
+        @Test
+        @DisplayName("should not dispatch items of a batch that is not funded")
+        void shouldNotDispatchUnfundedBatch() {
+            when(batchRepository.findById(batchId)).thenReturn(Optional.of(batch));
+
+            assertThat(batchService.dispatchChunk(batchId)).isZero();
+            verifyNoInteractions(itemRepository, walletCommandProducer);
+        }
+    }
+
+    @Nested
+    @DisplayName("Item Outcomes")
+    class ItemOutcomeTests {
+
+        @Test
+        @DisplayName("should count a credited item and try to finish the batch")
+        void shouldCountCreditedItem() {
+            TransferBatchItem item = item(TransferBatchItem.ItemStatus.CREDITING);
+            when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+            when(itemRepository.transition(eq(item.getId()), eq(TransferBatchItem.ItemStatus.CREDITING),
+                    eq(TransferBatchItem.ItemStatus.CREDITED), isNull(), any())).thenReturn(1);
+
+            batchService.handleItemCredited(item.getId());
+
+            verify(batchRepository).recordCredited(eq(batchId), eq(item.getAmount()), any());
+            verify(batchRepository).finishIfSettled(eq(batchId), any());
+        }
+
+        @Test
+        @DisplayName("should not count a duplicate credit")
+        void shouldIgnoreDuplicateCredit() {
+            TransferBatchItem item = item(TransferBatchItem.ItemStatus.CREDITED);
+            when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+            when(itemRepository.transition(any(), any(), any(), any(), any())).thenReturn(0);
+
+            batchService.handleItemCredited(item.getId());
+
+            verify(batchRepository, never()).recordCredited(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("should refund only the failed item's share to the sender under a new refund ID")
+        void shouldRefundFailedItem() {
+            TransferBatchItem item = item(TransferBatchItem.ItemStatus.CREDITING);
+            when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+            when(batchRepository.findById(batchId)).thenReturn(Optional.of(batch));
+            when(itemRepository.startRefund(eq(item.getId()), any(), eq("Wallet is not active"), any()))
+                    .thenReturn(1);
+
+            batchService.handleItemFailed(item.getId(), "Wallet is not active");
+
+            ArgumentCaptor<UUID> refundId = ArgumentCaptor.forClass(UUID.class);
+            verify(itemRepository).startRefund(eq(item.getId()), refundId.capture(), any(), any());
+            verify(walletCommandProducer).reverseDeduction(eq(refundId.getValue()), eq(senderId),
+                    eq(new BigDecimal("100.00")), eq("USD"), anyString());
+            assertThat(refundId.getValue()).isNotEqualTo(item.getId());
+        }
+
+        @Test
+        @DisplayName("should ignore a redelivered credit failure while the refund is in flight")
+        void shouldIgnoreRedeliveredCreditFailure() {
+            TransferBatchItem item = item(TransferBatchItem.ItemStatus.REFUNDING);
+            when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+            when(itemRepository.startRefund(eq(item.getId()), any(), any(), any())).thenReturn(0);
+
+            batchService.handleItemFailed(item.getId(), "Wallet is not active");
+
+            verify(itemRepository, never()).transition(any(), any(), any(), any(), any());
+            verify(batchRepository, never()).recordRefundFailed(any(), any(), any());
+            verify(walletCommandProducer, never()).reverseDeduction(any(), any(), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("should close an item whose refund failed so the batch can settle")
+        void shouldCloseItemWhenRefundFails() {
+            UUID refundId = UUID.randomUUID();
+            TransferBatchItem item = item(TransferBatchItem.ItemStatus.REFUNDING);
+            when(itemRepository.findByRefundId(refundId)).thenReturn(Optional.of(item));
+            when(itemRepository.transition(eq(item.getId()), eq(TransferBatchItem.ItemStatus.REFUNDING),
+                    eq(TransferBatchItem.ItemStatus.REFUND_FAILED), eq("Wallet is frozen"), any())).thenReturn(1);
+
+            batchService.handleRefundFailed(refundId, "Wallet is frozen");
+
+            verify(batchRepository).recordRefundFailed(eq(batchId), eq(item.getAmount()), any());
+            verify(batchRepository).finishIfSettled(eq(batchId), any());
+            verify(walletCommandProducer, never()).reverseDeduction(any(), any(), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("should count a refunded item as failed and try to finish the batch")
+        void shouldCountRefundedItem() {
+            UUID refundId = UUID.randomUUID();
+            TransferBatchItem item = item(TransferBatchItem.ItemStatus.REFUNDING);
+            when(itemRepository.findByRefundId(refundId)).thenReturn(Optional.of(item));
+            when(itemRepository.transition(eq(item.getId()), eq(TransferBatchItem.ItemStatus.REFUNDING),
+                    eq(TransferBatchItem.ItemStatus.FAILED), isNull(), any())).thenReturn(1);
+
+            batchService.handleItemRefunded(refundId);
+
+            verify(batchRepository).recordFailed(eq(batchId), eq(item.getAmount()), any());
+            verify(batchRepository).finishIfSettled(eq(batchId), any());
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.finpay.payment.velocity;
+
+import com.finpay.payment.shared.exception.PaymentException;
+import com.finpay.payment.shared.exception.VelocityLimitExceededException;
+import com.finpay.payment.velocity.VelocityProperties.Metric;
+import com.finpay.payment.velocity.VelocityProperties.Rule;
+import com.finpay.payment.velocity.VelocityProperties.Scope;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("VelocityGuard Unit Tests")
+class VelocityGuardTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    @Mock private StringRedisTemplate redisTemplate;
+
+    private VelocityProperties properties;
+
+    private UUID sender;
+    private UUID recipient;
+
+    @BeforeEach
+    void setUp() {
+        properties = new VelocityProperties();
+        sender = UUID.randomUUID();
+        recipient = UUID.randomUUID();
+    }
+
+    private static Rule rule(String name, Scope scope, Metric metric, Duration window, String limit) {
+        Rule rule = new Rule();
+        rule.setName(name);
+        rule.setScope(scope);
+        rule.setMetric(metric);
+        rule.setWindow(window);
+        rule.setLimit(new BigDecimal(limit));
+        return rule;
+    }
+
+    private VelocityGuard guard(Rule... rules) {
+        properties.setRules(List.of(rules));
+        return new VelocityGuard(properties, redisTemplate);
+    }
+
+    private void admit(VelocityGuard guard, UUID to, String amount, long at) {
+        guard.admit(sender, to, new BigDecimal(amount), "USD", at);
+    }
+
+    @Test
+    @DisplayName("should reject the transfer that exceeds a count limit")
+    void shouldRejectOverCountLimit() {
+        VelocityGuard guard = guard(rule("sender-burst", Scope.SENDER, Metric.COUNT, Duration.ofMinutes(1), "3"));
+
+        for (int i = 0; i < 3; i++) {
+            admit(guard, UUID.randomUUID(), "10.00", NOW + i);
+        }
+
+        assertThatThrownBy(() -> admit(guard, recipient, "10.00", NOW + 3))
+                .isInstanceOf(VelocityLimitExceededException.class)
+                .hasFieldOrPropertyWithValue("rule", "sender-burst")
+                .hasFieldOrPropertyWithValue("retryAfter", Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("should admit again once earlier transfers leave the window")
+    void shouldAdmitAfterWindowSlides() {
+        VelocityGuard guard = guard(rule("sender-burst", Scope.SENDER, Metric.COUNT, Duration.ofMinutes(1), "2"));
+        admit(guard, recipient, "10.00", NOW);
+        admit(guard, recipient, "10.00", NOW + 1);
+
+        assertThatThrownBy(() -> admit(guard, recipient, "10.00", NOW + 30_000))
+                .isInstanceOf(VelocityLimitExceededException.class);
+        assertThatCode(() -> admit(guard, recipient, "10.00", NOW + 65_000)).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("should count a batch as one transfer of its total against sender rules only")
+    void shouldAdmitBatchAgainstSenderRules() {
+        VelocityGuard guard = guard(
+                rule("sender-burst", Scope.SENDER, Metric.COUNT, Duration.ofMinutes(1), "2"),
+                rule("sender-amount", Scope.SENDER, Metric.AMOUNT, Duration.ofHours(1), "1000"),
+                rule("sender-fan-out", Scope.SENDER, Metric.DISTINCT_RECIPIENTS, Duration.ofHours(1), "1"),
+                rule("recipient-fan-in", Scope.RECIPIENT, Metric.COUNT, Duration.ofMinutes(1), "1"));
+
+        guard.admitBatch(sender, new BigDecimal("600.00"), "USD", NOW);
+
+        assertThatThrownBy(() -> guard.admitBatch(sender, new BigDecimal("400.01"), "USD", NOW + 1))
+                .isInstanceOf(VelocityLimitExceededException.class)
+                .hasFieldOrPropertyWithValue("rule", "sender-amount");
+        assertThatCode(() -> admit(guard, recipient, "10.00", NOW + 2)).doesNotThrowAnyException();
+        assertThatThrownBy(() -> guard.admitBatch(sender, new BigDecimal("1.00"), "USD", NOW + 3))
+                .hasFieldOrPropertyWithValue("rule", "sender-burst");
+    }
+
+    @Test
+    @DisplayName("should total amounts across currencies in the base currency")
+    void shouldTotalAmountsInBaseCurrency() {
+        properties.setRates(Map.of("EUR", new BigDecimal("0.80"), "JPY", new BigDecimal("150")));
+        VelocityGuard guard = guard(rule("sender-amount", Scope.SENDER, Metric.AMOUNT, Duration.ofHours(1), "100"));
+        admit(guard, recipient, "60.00", NOW);
+        guard.admit(sender, recipient, new BigDecimal("24.00"), "EUR", NOW + 1);
+
+        assertThatThrownBy(() -> guard.admit(sender, recipient, new BigDecimal("1501"), "JPY", NOW + 2))
+                .isInstanceOf(VelocityLimitExceededException.class);
+        assertThatCode(() -> guard.admit(sender, recipient, new BigDecimal("1200"), "JPY", NOW + 3))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("should reject amounts in a currency without a rate")
+    void shouldRejectUnknownCurrency() {
+        VelocityGuard guard = guard(rule("sender-amount", Scope.SENDER, Metric.AMOUNT, Duration.ofHours(1), "100"));
+
+        assertThatThrownBy(() -> guard.admit(sender, recipient, new BigDecimal("1.00"), "XYZ", NOW))
+                .isInstanceOf(PaymentException.class);
+    }
+
+    @Test
+    @DisplayName("should count distinct recipients without counting repeats")
+    void shouldCountDistinctRecipients() {
+        VelocityGuard guard = guard(rule("fan-out", Scope.SENDER, Metric.DISTINCT_RECIPIENTS,
+                Duration.ofHours(1), "2"));
+        UUID other = UUID.randomUUID();
+        admit(guard, recipient, "1.00", NOW);
+        admit(guard, other, "1.00", NOW + 1);
+        admit(guard, recipient, "1.00", NOW + 2);
+
+        assertThatThrownBy(() -> admit(guard, UUID.randomUUID(), "1.00", NOW + 3))
+                .isInstanceOf(VelocityLimitExceededException.class);
+        assertThatCode(() -> admit(guard, other, "1.00", NOW + 4)).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("should scope pair rules to one sender and recipient")
+    void shouldScopePairRules() {
+        VelocityGuard guard = guard(rule("pair", Scope.PAIR, Metric.COUNT, Duration.ofMinutes(10), "1"));
+        admit(guard, recipient, "1.00", NOW);
+
+        assertThatThrownBy(() -> admit(guard, recipient, "1.00", NOW + 1))
+                .isInstanceOf(VelocityLimitExceededException.class);
+        assertThatCode(() -> admit(guard, UUID.randomUUID(), "1.00", NOW + 2)).doesNotThrowAnyException();
+        assertThatCode(() -> guard.admit(UUID.randomUUID(), recipient, BigDecimal.ONE, "USD", NOW + 3))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("should not count a rejected transfer against any rule")
+    void shouldUndoRejectedTransfer() {
+        VelocityGuard guard = guard(
+                rule("sender-burst", Scope.SENDER, Metric.COUNT, Duration.ofMinutes(1), "2"),
+                rule("recipient-fan-in", Scope.RECIPIENT, Metric.COUNT, Duration.ofMinutes(1), "1"));
+        admit(guard, recipient, "1.00", NOW);
+
+        assertThatThrownBy(() -> admit(guard, recipient, "1.00", NOW + 1))
+                .isInstanceOf(VelocityLimitExceededException.class)
+                .hasFieldOrPropertyWithValue("rule", "recipient-fan-in");
+        assertThatCode(() -> admit(guard, UUID.randomUUID(), "1.00", NOW + 2)).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("should admit everything when disabled")
+    void shouldAdmitWhenDisabled() {
+        properties.setEnabled(false);
+        VelocityGuard guard = guard(rule("sender-burst", Scope.SENDER, Metric.COUNT, Duration.ofMinutes(1), "1"));
+
+        for (int i = 0; i < 5; i++) {
+            admit(guard, recipient, "1.00", NOW + i);
+        }
+    }
+
+    @Test
+    @DisplayName("should refuse distinct-recipient rules outside the sender scope")
+    void shouldRefuseInvalidRule() {
+        assertThatThrownBy(() -> guard(rule("bad", Scope.PAIR, Metric.DISTINCT_RECIPIENTS,
+                Duration.ofMinutes(1), "1")))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,59 @@
+package com.finpay.wallet.fx;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a conversion on the wallet money path: the raw table lookup in
+ * minor units, and the full {@link FxRateService#convert} including the
+ * BigDecimal boundary.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FxConversionBenchmark {
+
+    private FxRateTable table;
+    private FxRateService service;
+    private long amountMinor;
+    private BigDecimal amount;
+
+    @Setup
+    public void setUp() {
+        FxProperties properties = new FxProperties();
+        properties.setRates(Map.of(
+                "EUR", new BigDecimal("0.92"), "GBP", new BigDecimal("0.79"),
+                "JPY", new BigDecimal("151.5"), "CHF", new BigDecimal("0.88")));
+        table = FxRateTable.of("USD", properties.getRates(), Instant.now());
+        service = new FxRateService(new LocalFxRateFeed(properties), properties);
+        amountMinor = 123_456L;
+        amount = new BigDecimal("1234.56");
+    }
+
+    @Benchmark
+    public long convertMinorUnits() {
+        return table.convertMinor(amountMinor, "EUR", "JPY", RoundingMode.HALF_EVEN);
+    }
+
+    @Benchmark
+    public FxConversion convertAmount() {
+        return service.convert(amount, "EUR", "USD");
+    }
+}
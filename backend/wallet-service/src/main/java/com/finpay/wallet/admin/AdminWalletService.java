@@ -109,7 +109,7 @@ public class AdminWalletService {
     private String mapSortField(String sortBy) {
         if (sortBy == null) return "createdAt";
         return switch (sortBy) {
-            case "balance" -> "balance";
+            case "balance" -> "balanceMinor";
             case "status" -> "status";
             case "date", "createdAt" -> "createdAt";
             default -> "createdAt";
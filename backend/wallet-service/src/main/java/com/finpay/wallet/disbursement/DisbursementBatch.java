@@ -0,0 +1,50 @@
+package com.finpay.wallet.disbursement;
+
+import com.finpay.id.hibernate.TimeOrderedId;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Audit record of one bulk disbursement: who ran it and what it credited.
+ * The credits themselves are ledger entries whose reference IDs default to
+ * {@code <batchReference>-<index>}.
+ */
+@Entity
+@Table(name = "wallet_disbursement_batches",
+        indexes = {
+                @Index(name = "idx_disbursement_batch_reference", columnList = "batchReference"),
+                @Index(name = "idx_disbursement_batch_admin", columnList = "disbursedBy, createdAt")
+        })
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class DisbursementBatch {
+
+    @Id @TimeOrderedId
+    private UUID id;
+
+    @Column(nullable = false, length = 64)
+    private String batchReference;
+
+    /** Admin user who submitted the batch. */
+    @Column(nullable = false)
+    private UUID disbursedBy;
+
+    @Column(nullable = false, length = 3)
+    private String currency;
+
+    @Column(nullable = false)
+    private int totalItems;
+
+    @Column(nullable = false)
+    private int credited;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal totalCredited;
+
+    @CreationTimestamp @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,10 @@
+package com.finpay.wallet.disbursement;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface DisbursementBatchRepository extends JpaRepository<DisbursementBatch, UUID> {
+}
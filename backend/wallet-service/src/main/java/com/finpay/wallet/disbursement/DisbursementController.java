@@ -0,0 +1,63 @@
+package com.finpay.wallet.disbursement;
+
+import com.finpay.wallet.disbursement.dto.BulkDisbursementRequest;
+import com.finpay.wallet.disbursement.dto.BulkDisbursementResponse;
+import com.finpay.wallet.disbursement.dto.DisbursementItem;
+import com.finpay.wallet.shared.exception.WalletException;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Admin endpoints for bulk wallet credits.
+ * Security enforced at API Gateway level (AdminAuthFilter); the acting admin
+ * is recorded on every batch.
+ */
+@RestController
+@RequestMapping("/api/v1/admin/wallets/disbursements")
+@RequiredArgsConstructor
+public class DisbursementController {
+
+    private final DisbursementService disbursementService;
+    private final DisbursementProperties properties;
+
+    @PostMapping
+    public ResponseEntity<BulkDisbursementResponse> disburse(@Valid @RequestBody BulkDisbursementRequest request,
+                                                             @RequestHeader("X-User-Id") UUID adminId) {
+        return ResponseEntity.ok(disbursementService.disburse(request, adminId));
+    }
+
+    @PostMapping(value = "/csv", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<BulkDisbursementResponse> disburseCsv(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam String currency,
+            @RequestParam(required = false) String batchReference,
+            @RequestHeader("X-User-Id") UUID adminId) {
+        if (currency.length() != 3) {
+            throw new WalletException("Currency must be a 3-letter ISO code");
+        }
+        List<DisbursementItem> items;
+        try {
+            items = DisbursementCsvParser.parse(file.getInputStream(), properties.getMaxItems());
+        } catch (IOException e) {
+            throw new WalletException("Failed to read disbursement file", e);
+        }
+        if (items.isEmpty()) {
+            throw new WalletException("Disbursement file contains no items");
+        }
+        return ResponseEntity.ok(disbursementService.disburse(
+                new BulkDisbursementRequest(batchReference, currency, items), adminId));
+    }
+}
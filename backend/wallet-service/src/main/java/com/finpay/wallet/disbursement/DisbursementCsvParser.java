@@ -0,0 +1,72 @@
+package com.finpay.wallet.disbursement;
+
+import com.finpay.wallet.disbursement.dto.DisbursementItem;
+import com.finpay.wallet.shared.exception.WalletException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Parses disbursement batch files in the form
+ * {@code userId,amount[,referenceId[,description]]}, one credit per line.
+ * A leading header row and blank lines are ignored; the description is the
+ * remainder of the line so it may contain commas.
+ */
+final class DisbursementCsvParser {
+
+    private DisbursementCsvParser() {
+    }
+
+    static List<DisbursementItem> parse(InputStream input, int maxItems) {
+        List<DisbursementItem> items = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (lineNumber == 1 && isHeader(line))) {
+                    continue;
+                }
+                if (items.size() >= maxItems) {
+                    throw new WalletException("Batch exceeds the maximum of " + maxItems + " items");
+                }
+                items.add(parseLine(line, lineNumber));
+            }
+        } catch (IOException e) {
+            throw new WalletException("Failed to read disbursement file", e);
+        }
+        return items;
+    }
+
+    private static DisbursementItem parseLine(String line, int lineNumber) {
+        String[] columns = line.split(",", 4);
+        if (columns.length < 2) {
+            throw new WalletException("Line " + lineNumber + ": expected at least userId and amount");
+        }
+        try {
+            UUID userId = UUID.fromString(columns[0].strip());
+            BigDecimal amount = new BigDecimal(columns[1].strip());
+            String referenceId = columns.length > 2 ? blankToNull(columns[2]) : null;
+            String description = columns.length > 3 ? blankToNull(columns[3]) : null;
+            return new DisbursementItem(userId, amount, referenceId, description);
+        } catch (IllegalArgumentException e) {
+            throw new WalletException("Line " + lineNumber + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static boolean isHeader(String line) {
+        return line.strip().toLowerCase().startsWith("userid");
+    }
+
+    private static String blankToNull(String value) {
+        String stripped = value.strip();
+        return stripped.isEmpty() ? null : stripped;
+    }
+}
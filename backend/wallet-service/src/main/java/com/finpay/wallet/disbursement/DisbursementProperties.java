@@ -0,0 +1,30 @@
+package com.finpay.wallet.disbursement;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Tuning knobs for bulk wallet disbursements.
+ *
+ * finpay:
+ *   wallet:
+ *     disbursement:
+ *       chunk-size: 500
+ *       max-items: 100000
+ *       lookup-batch-size: 1000
+ */
+@ConfigurationProperties(prefix = "finpay.wallet.disbursement")
+@Getter
+@Setter
+public class DisbursementProperties {
+
+    /** Number of credits applied per database transaction. */
+    private int chunkSize = 500;
+
+    /** Upper bound on the number of items accepted in a single batch. */
+    private int maxItems = 100_000;
+
+    /** Number of user ids resolved to wallet ids per lookup query. */
+    private int lookupBatchSize = 1000;
+}
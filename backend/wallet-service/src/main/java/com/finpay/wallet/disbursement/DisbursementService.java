@@ -0,0 +1,286 @@
+package com.finpay.wallet.disbursement;
+
+import com.finpay.wallet.disbursement.dto.BulkDisbursementRequest;
+import com.finpay.wallet.disbursement.dto.BulkDisbursementResponse;
+import com.finpay.wallet.disbursement.dto.DisbursementItem;
+import com.finpay.wallet.disbursement.dto.DisbursementItemResult;
+import com.finpay.wallet.shared.exception.WalletException;
+import com.finpay.wallet.transaction.WalletTransaction;
+import com.finpay.wallet.transaction.WalletTransactionService;
+import com.finpay.wallet.wallet.Wallet;
+import com.finpay.wallet.wallet.WalletCacheService;
+import com.finpay.wallet.wallet.WalletRepository;
+import io.micrometer.observation.annotation.Observed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Applies large batches of wallet credits (payroll, merchant payouts) without
+ * going through the per-credit saga.
+ *
+ * The batch is validated once up front, resolved to wallet ids, sorted by
+ * wallet id and then applied in chunks. Each chunk runs in its own
+ * transaction: wallets are locked with a single ordered {@code SELECT ... FOR UPDATE},
+ * credited in memory and flushed together with one batched ledger insert.
+ * Sorting by wallet id keeps lock acquisition order stable across concurrent
+ * batches and regular saga credits, so chunks cannot deadlock each other.
+ *
+ * A failing chunk is rolled back and reported per item; earlier chunks stay
+ * committed. Re-submitting the same batch is safe because item references
+ * already credited to the same wallet are reported as duplicates. Items
+ * without a reference default to {@code <batchReference>-<index>}; without a
+ * batch reference one is derived from a hash of the items, so re-uploading
+ * the same file maps to the same references. Paying an identical file again
+ * on purpose needs a new batch reference.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DisbursementService {
+
+    private static final int MAX_AMOUNT_SCALE = 4;
+
+    private final WalletRepository walletRepository;
+    private final WalletTransactionService transactionService;
+    private final WalletCacheService walletCacheService;
+    private final TransactionTemplate transactionTemplate;
+    private final DisbursementProperties properties;
+    private final DisbursementBatchRepository batchRepository;
+
+    @Observed(name = "wallet.bulk-disbursement", contextualName = "bulk-disbursement")
+    public BulkDisbursementResponse disburse(BulkDisbursementRequest request, UUID disbursedBy) {
+        long startedAt = System.currentTimeMillis();
+        List<DisbursementItem> items = request.items();
+        if (items.size() > properties.getMaxItems()) {
+            throw new WalletException("Batch exceeds the maximum of " + properties.getMaxItems() + " items");
+        }
+
+        String batchReference = request.batchReference() != null && !request.batchReference().isBlank()
+                ? request.batchReference()
+                : deriveBatchReference(request.currency(), items);
+        String currency = request.currency().toUpperCase();
+        DisbursementItemResult[] results = new DisbursementItemResult[items.size()];
+
+        List<PendingCredit> credits = validate(items, batchReference, results);
+        resolveWalletIds(credits, results);
+
+        List<PendingCredit> resolved = credits.stream()
+                .filter(credit -> credit.walletId != null)
+                .sorted(Comparator.comparing((PendingCredit credit) -> credit.walletId)
+                        .thenComparingInt(credit -> credit.index))
+                .toList();
+
+        int chunkSize = Math.max(1, properties.getChunkSize());
+        for (int from = 0; from < resolved.size(); from += chunkSize) {
+            List<PendingCredit> chunk = resolved.subList(from, Math.min(from + chunkSize, resolved.size()));
+            processChunk(chunk, currency, batchReference, results);
+        }
+
+        BulkDisbursementResponse response = BulkDisbursementResponse.of(
+                batchReference, currency, disbursedBy, Arrays.asList(results), System.currentTimeMillis() - startedAt);
+        batchRepository.save(DisbursementBatch.builder()
+                .batchReference(batchReference)
+                .disbursedBy(disbursedBy)
+                .currency(currency)
+                .totalItems(response.totalItems())
+                .credited(response.credited())
+                .totalCredited(response.totalCredited())
+                .build());
+        log.info("Bulk disbursement {} by admin {} finished in {} ms: {} credited ({} {}), {} duplicates, {} rejected, {} failed",
+                batchReference, disbursedBy, response.durationMs(), response.credited(), response.totalCredited(),
+                currency, response.duplicates(), response.rejected(), response.failed());
+        return response;
+    }
+
+    // Validation
+
+    private List<PendingCredit> validate(List<DisbursementItem> items, String batchReference,
+                                         DisbursementItemResult[] results) {
+        List<PendingCredit> credits = new ArrayList<>(items.size());
+        Set<String> seenReferences = new HashSet<>(items.size() * 2);
+
+        for (int i = 0; i < items.size(); i++) {
+            DisbursementItem item = items.get(i);
+            String referenceId = item.referenceId() != null && !item.referenceId().isBlank()
+                    ? item.referenceId()
+                    : batchReference + "-" + i;
+
+            String error = validateItem(item);
+            if (error == null && !seenReferences.add(referenceId)) {
+                error = "Duplicate reference within batch";
+            }
+            if (error != null) {
+                results[i] = DisbursementItemResult.rejected(i, item.userId(), referenceId, item.amount(), error);
+                continue;
+            }
+            credits.add(new PendingCredit(i, item.userId(), item.amount(), referenceId,
+                    item.description() != null ? item.description() : "Bulk disbursement " + batchReference));
+        }
+        return credits;
+    }
+
+    private String validateItem(DisbursementItem item) {
+        if (item.userId() == null) {
+            return "User ID is required";
+        }
+        if (item.amount() == null || item.amount().signum() <= 0) {
+            return "Amount must be greater than 0";
+        }
+        if (item.amount().stripTrailingZeros().scale() > MAX_AMOUNT_SCALE) {
+            return "Amount must have at most " + MAX_AMOUNT_SCALE + " decimal places";
+        }
+        return null;
+    }
+
+    private void resolveWalletIds(List<PendingCredit> credits, DisbursementItemResult[] results) {
+        List<UUID> userIds = new ArrayList<>(new LinkedHashSet<>(credits.stream().map(c -> c.userId).toList()));
+        Map<UUID, UUID> walletIdsByUser = new HashMap<>(userIds.size() * 2);
+        int lookupBatchSize = Math.max(1, properties.getLookupBatchSize());
+
+        for (int from = 0; from < userIds.size(); from += lookupBatchSize) {
+            List<UUID> slice = userIds.subList(from, Math.min(from + lookupBatchSize, userIds.size()));
+            walletRepository.findIdsByUserIdIn(slice)
+                    .forEach(view -> walletIdsByUser.put(view.getUserId(), view.getId()));
+        }
+
+        for (PendingCredit credit : credits) {
+            credit.walletId = walletIdsByUser.get(credit.userId);
+            if (credit.walletId == null) {
+                results[credit.index] = DisbursementItemResult.rejected(credit.index, credit.userId,
+                        credit.referenceId, credit.amount, "Wallet not found");
+            }
+        }
+    }
+
+    // Chunk processing
+
+    private void processChunk(List<PendingCredit> chunk, String currency, String batchReference,
+                              DisbursementItemResult[] results) {
+        try {
+            List<DisbursementItemResult> chunkResults =
+                    transactionTemplate.execute(status -> applyChunk(chunk, currency));
+            if (chunkResults != null) {
+                chunkResults.forEach(result -> results[result.index()] = result);
+            }
+            walletCacheService.evictWallets(chunk.stream().map(credit -> credit.userId).distinct().toList());
+        } catch (Exception e) {
+            log.error("Bulk disbursement {}: chunk of {} credits rolled back: {}",
+                    batchReference, chunk.size(), e.getMessage());
+            for (PendingCredit credit : chunk) {
+                results[credit.index] = DisbursementItemResult.failed(credit.index, credit.userId,
+                        credit.walletId, credit.referenceId, credit.amount, "Chunk rolled back: " + e.getMessage());
+            }
+        }
+    }
+
+    private List<DisbursementItemResult> applyChunk(List<PendingCredit> chunk, String currency) {
+        List<UUID> walletIds = chunk.stream().map(credit -> credit.walletId).distinct().toList();
+        Map<UUID, Wallet> wallets = new HashMap<>(walletIds.size() * 2);
+        walletRepository.findAllByIdInForUpdate(walletIds).forEach(wallet -> wallets.put(wallet.getId(), wallet));
+
+        Map<UUID, Set<String>> alreadyCredited = transactionService.findExistingReferences(
+                WalletTransaction.TransactionType.CREDIT, walletIds,
+                chunk.stream().map(credit -> credit.referenceId).toList());
+
+        List<DisbursementItemResult> chunkResults = new ArrayList<>(chunk.size());
+        List<WalletTransaction> ledger = new ArrayList<>(chunk.size());
+
+        for (PendingCredit credit : chunk) {
+            Wallet wallet = wallets.get(credit.walletId);
+            if (wallet == null) {
+                chunkResults.add(DisbursementItemResult.failed(credit.index, credit.userId, credit.walletId,
+                        credit.referenceId, credit.amount, "Wallet not found"));
+                continue;
+            }
+            if (alreadyCredited.getOrDefault(wallet.getId(), Set.of()).contains(credit.referenceId)) {
+                chunkResults.add(DisbursementItemResult.duplicate(credit.index, credit.userId, wallet.getId(),
+                        credit.referenceId, credit.amount));
+                continue;
+            }
+            if (wallet.getStatus() != Wallet.WalletStatus.ACTIVE) {
+                chunkResults.add(DisbursementItemResult.failed(credit.index, credit.userId, wallet.getId(),
+                        credit.referenceId, credit.amount, "Wallet is not active"));
+                continue;
+            }
+            if (!wallet.getCurrency().equalsIgnoreCase(currency)) {
+                chunkResults.add(DisbursementItemResult.failed(credit.index, credit.userId, wallet.getId(),
+                        credit.referenceId, credit.amount, "Wallet currency " + wallet.getCurrency()
+                                + " does not match batch currency " + currency));
+                continue;
+            }
+
+            BigDecimal balanceBefore = wallet.getBalance();
+            wallet.creditFunds(credit.amount);
+            ledger.add(WalletTransaction.builder()
+                    .walletId(wallet.getId()).userId(wallet.getUserId())
+                    .type(WalletTransaction.TransactionType.CREDIT)
+                    .amount(credit.amount).balanceBefore(balanceBefore).balanceAfter(wallet.getBalance())
+                    .currency(wallet.getCurrency()).referenceId(credit.referenceId).description(credit.description)
+                    .status(WalletTransaction.TransactionStatus.COMPLETED).build());
+            chunkResults.add(DisbursementItemResult.credited(credit.index, credit.userId, wallet.getId(),
+                    credit.referenceId, credit.amount, wallet.getBalance()));
+        }
+
+        if (!ledger.isEmpty()) {
+            walletRepository.saveAll(wallets.values());
+            transactionService.recordTransactions(ledger);
+        }
+        return chunkResults;
+    }
+
+    /** Same items and currency, same reference: a re-upload cannot credit anyone twice. */
+    private static String deriveBatchReference(String currency, List<DisbursementItem> items) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(currency.toUpperCase().getBytes(StandardCharsets.UTF_8));
+            for (DisbursementItem item : items) {
+                String line = "\n" + item.userId()
+                        + "\t" + (item.amount() != null ? item.amount().stripTrailingZeros().toPlainString() : "")
+                        + "\t" + item.referenceId() + "\t" + item.description();
+                digest.update(line.getBytes(StandardCharsets.UTF_8));
+            }
+            return "DISB-" + HexFormat.of().withUpperCase().formatHex(digest.digest(), 0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Validated item awaiting application; {@code walletId} is filled in once
+     * the owning wallet has been resolved.
+     */
+    private static final class PendingCredit {
+        private final int index;
+        private final UUID userId;
+        private final BigDecimal amount;
+        private final String referenceId;
+        private final String description;
+        private UUID walletId;
+
+        private PendingCredit(int index, UUID userId, BigDecimal amount, String referenceId, String description) {
+            this.index = index;
+            this.userId = userId;
+            this.amount = amount;
+            this.referenceId = referenceId;
+            this.description = description;
+        }
+    }
+}
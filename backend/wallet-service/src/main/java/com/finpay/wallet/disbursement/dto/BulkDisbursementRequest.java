@@ -0,0 +1,19 @@
+package com.finpay.wallet.disbursement.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BulkDisbursementRequest(
+        @Size(max = 64, message = "Batch reference must be at most 64 characters")
+        String batchReference,
+
+        @NotBlank(message = "Currency is required")
+        @Size(min = 3, max = 3, message = "Currency must be a 3-letter ISO code")
+        String currency,
+
+        @NotEmpty(message = "At least one item is required")
+        List<DisbursementItem> items
+) {}
@@ -0,0 +1,38 @@
+package com.finpay.wallet.disbursement.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+public record BulkDisbursementResponse(
+        String batchReference,
+        String currency,
+        UUID disbursedBy,
+        int totalItems,
+        int credited,
+        int duplicates,
+        int rejected,
+        int failed,
+        BigDecimal totalCredited,
+        long durationMs,
+        List<DisbursementItemResult> results
+) {
+    public static BulkDisbursementResponse of(String batchReference, String currency, UUID disbursedBy,
+                                              List<DisbursementItemResult> results, long durationMs) {
+        int credited = 0, duplicates = 0, rejected = 0, failed = 0;
+        BigDecimal totalCredited = BigDecimal.ZERO;
+        for (DisbursementItemResult result : results) {
+            switch (result.status()) {
+                case CREDITED -> {
+                    credited++;
+                    totalCredited = totalCredited.add(result.amount());
+                }
+                case DUPLICATE -> duplicates++;
+                case REJECTED -> rejected++;
+                case FAILED -> failed++;
+            }
+        }
+        return new BulkDisbursementResponse(batchReference, currency, disbursedBy, results.size(),
+                credited, duplicates, rejected, failed, totalCredited, durationMs, results);
+    }
+}
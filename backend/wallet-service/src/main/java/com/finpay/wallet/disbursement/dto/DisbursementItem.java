@@ -0,0 +1,16 @@
+package com.finpay.wallet.disbursement.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * A single credit line of a bulk disbursement.
+ * Items are validated by the service so that one bad line is reported
+ * per item instead of rejecting the whole batch.
+ */
+public record DisbursementItem(
+        UUID userId,
+        BigDecimal amount,
+        String referenceId,
+        String description
+) {}
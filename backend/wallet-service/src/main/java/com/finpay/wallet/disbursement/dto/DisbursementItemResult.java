@@ -0,0 +1,46 @@
+package com.finpay.wallet.disbursement.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public record DisbursementItemResult(
+        int index,
+        UUID userId,
+        UUID walletId,
+        String referenceId,
+        BigDecimal amount,
+        ItemStatus status,
+        BigDecimal balanceAfter,
+        String failureReason
+) {
+    public enum ItemStatus {
+        CREDITED,   // Applied to the wallet and recorded in the ledger
+        DUPLICATE,  // Reference already credited by an earlier submission
+        REJECTED,   // Failed validation, nothing was attempted
+        FAILED      // Attempted but could not be applied
+    }
+
+    public static DisbursementItemResult credited(int index, UUID userId, UUID walletId, String referenceId,
+                                                  BigDecimal amount, BigDecimal balanceAfter) {
+        return new DisbursementItemResult(index, userId, walletId, referenceId, amount,
+                ItemStatus.CREDITED, balanceAfter, null);
+    }
+
+    public static DisbursementItemResult duplicate(int index, UUID userId, UUID walletId, String referenceId,
+                                                   BigDecimal amount) {
+        return new DisbursementItemResult(index, userId, walletId, referenceId, amount,
+                ItemStatus.DUPLICATE, null, "Reference already credited");
+    }
+
+    public static DisbursementItemResult rejected(int index, UUID userId, String referenceId,
+                                                  BigDecimal amount, String reason) {
+        return new DisbursementItemResult(index, userId, null, referenceId, amount,
+                ItemStatus.REJECTED, null, reason);
+    }
+
+    public static DisbursementItemResult failed(int index, UUID userId, UUID walletId, String referenceId,
+                                                BigDecimal amount, String reason) {
+        return new DisbursementItemResult(index, userId, walletId, referenceId, amount,
+                ItemStatus.FAILED, null, reason);
+    }
+}
@@ -0,0 +1,10 @@
+package com.finpay.wallet.fx;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record FxConversion(
+        BigDecimal sourceAmount, String sourceCurrency,
+        BigDecimal amount, String currency,
+        BigDecimal rate, Instant rateAsOf
+) {}
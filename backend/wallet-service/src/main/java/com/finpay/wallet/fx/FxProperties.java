@@ -0,0 +1,32 @@
+package com.finpay.wallet.fx;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "finpay.wallet.fx")
+public class FxProperties {
+
+    /** Currency all feed rates are quoted against. */
+    private String baseCurrency = "USD";
+
+    /** Rounding applied when a converted amount falls between two minor units. */
+    private RoundingMode rounding = RoundingMode.HALF_EVEN;
+
+    /** How often the rate table is rebuilt from the feed. */
+    private long refreshIntervalMs = 60_000;
+
+    /** Conversions are refused once the rate table is older than this. */
+    private Duration maxRateAge = Duration.ofMinutes(15);
+
+    /** Rates served by the local feed, as units of currency per one base unit. */
+    private Map<String, BigDecimal> rates = new LinkedHashMap<>();
+}
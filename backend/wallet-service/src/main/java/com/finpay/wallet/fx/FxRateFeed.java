@@ -0,0 +1,19 @@
+package com.finpay.wallet.fx;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Source of FX rates. Implementations may call out to a provider; they are
+ * only ever invoked from the background refresh, never on the money path.
+ */
+public interface FxRateFeed {
+
+    Snapshot fetch();
+
+    /**
+     * Rates as units of each currency per one unit of {@code baseCurrency}.
+     */
+    record Snapshot(String baseCurrency, Map<String, BigDecimal> rates, Instant asOf) {}
+}
@@ -0,0 +1,87 @@
+package com.finpay.wallet.fx;
+
+import com.finpay.wallet.shared.exception.FxRateUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Converts amounts between currencies using an in-memory {@link FxRateTable}.
+ *
+ * The table is rebuilt from the {@link FxRateFeed} in the background and
+ * swapped in atomically; conversions read the current snapshot and never
+ * touch the database or network. Amounts are converted in minor units of
+ * each currency with the configured rounding mode.
+ */
+@Service
+@Slf4j
+public class FxRateService {
+
+    private final FxRateFeed feed;
+    private final FxProperties properties;
+    private final Clock clock;
+    private final AtomicReference<FxRateTable> table = new AtomicReference<>();
+
+    @Autowired
+    public FxRateService(FxRateFeed feed, FxProperties properties) {
+        this(feed, properties, Clock.systemUTC());
+    }
+
+    FxRateService(FxRateFeed feed, FxProperties properties, Clock clock) {
+        this.feed = feed;
+        this.properties = properties;
+        this.clock = clock;
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${finpay.wallet.fx.refresh-interval-ms:60000}")
+    public void refresh() {
+        try {
+            FxRateFeed.Snapshot snapshot = feed.fetch();
+            FxRateTable next = FxRateTable.of(snapshot.baseCurrency(), snapshot.rates(), snapshot.asOf());
+            table.set(next);
+            log.debug("Loaded FX rate table with {} currencies as of {}", next.currencies().size(), next.asOf());
+        } catch (Exception e) {
+            log.error("Failed to refresh FX rates, keeping previous table: {}", e.getMessage());
+        }
+    }
+
+    public FxRateTable currentTable() {
+        FxRateTable current = table.get();
+        if (current == null) {
+            throw new FxRateUnavailableException("FX rates are not loaded");
+        }
+        if (current.asOf().plus(properties.getMaxRateAge()).isBefore(Instant.now(clock))) {
+            throw new FxRateUnavailableException("FX rates are stale (as of " + current.asOf() + ")");
+        }
+        return current;
+    }
+
+    /**
+     * Converts {@code amount} of {@code from} into {@code to}. The source amount
+     * is first rounded to the minor unit of {@code from}.
+     */
+    public FxConversion convert(BigDecimal amount, String from, String to) {
+        String source = from.toUpperCase();
+        String target = to.toUpperCase();
+        FxRateTable rates = currentTable();
+        if (!rates.supports(source) || !rates.supports(target)) {
+            throw new FxRateUnavailableException("No FX rate for " + source + "/" + target);
+        }
+        RoundingMode rounding = properties.getRounding();
+        int sourceDigits = rates.fractionDigits(source);
+        int targetDigits = rates.fractionDigits(target);
+
+        long sourceMinor = amount.setScale(sourceDigits, rounding).unscaledValue().longValueExact();
+        long targetMinor = rates.convertMinor(sourceMinor, source, target, rounding);
+        return new FxConversion(amount, source, BigDecimal.valueOf(targetMinor, targetDigits), target,
+                rates.rate(source, target), rates.asOf());
+    }
+}
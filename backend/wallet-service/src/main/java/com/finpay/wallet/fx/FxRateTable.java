@@ -0,0 +1,160 @@
+package com.finpay.wallet.fx;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of FX rates with every cross rate precomputed.
+ *
+ * Cross rates are stored as fixed-point longs with {@value #RATE_SCALE}
+ * decimals, already adjusted for the minor-unit exponents of both
+ * currencies, so a conversion is one lookup, one multiplication and one
+ * rounded division on longs. Products that overflow 64 bits fall back to
+ * exact {@link BigDecimal} arithmetic.
+ */
+public final class FxRateTable {
+
+    public static final int RATE_SCALE = 9;
+    private static final long RATE_ONE = 1_000_000_000L;
+
+    private final String baseCurrency;
+    private final Instant asOf;
+    private final Map<String, Integer> indexes;
+    private final int[] fractionDigits;
+    private final BigDecimal[] baseRates;
+    private final long[] crossRates;
+    private final int size;
+
+    private FxRateTable(String baseCurrency, Instant asOf, Map<String, Integer> indexes,
+                        int[] fractionDigits, BigDecimal[] baseRates, long[] crossRates) {
+        this.baseCurrency = baseCurrency;
+        this.asOf = asOf;
+        this.indexes = indexes;
+        this.fractionDigits = fractionDigits;
+        this.baseRates = baseRates;
+        this.crossRates = crossRates;
+        this.size = fractionDigits.length;
+    }
+
+    /**
+     * Builds a table from rates quoted as units of each currency per one unit
+     * of {@code baseCurrency}. The base currency itself is implied at 1.
+     */
+    public static FxRateTable of(String baseCurrency, Map<String, BigDecimal> rates, Instant asOf) {
+        Map<String, BigDecimal> quotes = new HashMap<>(rates);
+        quotes.put(baseCurrency, BigDecimal.ONE);
+
+        int n = quotes.size();
+        Map<String, Integer> indexes = new HashMap<>(n * 2);
+        int[] fractionDigits = new int[n];
+        BigDecimal[] baseRates = new BigDecimal[n];
+        int i = 0;
+        for (Map.Entry<String, BigDecimal> quote : quotes.entrySet()) {
+            if (quote.getValue() == null || quote.getValue().signum() <= 0) {
+                throw new IllegalArgumentException("Invalid FX rate for " + quote.getKey() + ": " + quote.getValue());
+            }
+            String code = quote.getKey().toUpperCase();
+            indexes.put(code, i);
+            fractionDigits[i] = Math.max(0, Currency.getInstance(code).getDefaultFractionDigits());
+            baseRates[i] = quote.getValue();
+            i++;
+        }
+
+        long[] crossRates = new long[n * n];
+        for (int from = 0; from < n; from++) {
+            for (int to = 0; to < n; to++) {
+                crossRates[from * n + to] = baseRates[to]
+                        .divide(baseRates[from], MathContext.DECIMAL128)
+                        .movePointRight(RATE_SCALE + fractionDigits[to] - fractionDigits[from])
+                        .setScale(0, RoundingMode.HALF_EVEN)
+                        .longValueExact();
+            }
+        }
+        return new FxRateTable(baseCurrency.toUpperCase(), asOf, Map.copyOf(indexes),
+                fractionDigits, baseRates, crossRates);
+    }
+
+    public String baseCurrency() {
+        return baseCurrency;
+    }
+
+    public Instant asOf() {
+        return asOf;
+    }
+
+    public Set<String> currencies() {
+        return indexes.keySet();
+    }
+
+    public boolean supports(String currency) {
+        return indexes.containsKey(currency);
+    }
+
+    public int fractionDigits(String currency) {
+        return fractionDigits[index(currency)];
+    }
+
+    /**
+     * Converts an amount in minor units of {@code from} into minor units of {@code to}.
+     */
+    public long convertMinor(long amountMinor, String from, String to, RoundingMode rounding) {
+        int source = index(from);
+        int target = index(to);
+        if (source == target) {
+            return amountMinor;
+        }
+        long rate = crossRates[source * size + target];
+        long high = Math.multiplyHigh(amountMinor, rate);
+        long low = amountMinor * rate;
+        if ((high == 0 && low >= 0) || (high == -1 && low < 0)) {
+            return divide(low, rounding);
+        }
+        return BigDecimal.valueOf(amountMinor)
+                .multiply(BigDecimal.valueOf(rate))
+                .divide(BigDecimal.valueOf(RATE_ONE), 0, rounding)
+                .longValueExact();
+    }
+
+    /**
+     * Major-unit rate, for display and audit.
+     */
+    public BigDecimal rate(String from, String to) {
+        return baseRates[index(to)].divide(baseRates[index(from)], MathContext.DECIMAL64);
+    }
+
+    private int index(String currency) {
+        Integer index = indexes.get(currency);
+        if (index == null) {
+            throw new IllegalArgumentException("No FX rate for " + currency);
+        }
+        return index;
+    }
+
+    static long divide(long numerator, RoundingMode rounding) {
+        long quotient = numerator / RATE_ONE;
+        long remainder = numerator % RATE_ONE;
+        if (remainder == 0) {
+            return quotient;
+        }
+        int sign = numerator < 0 ? -1 : 1;
+        boolean increment = switch (rounding) {
+            case UNNECESSARY -> throw new ArithmeticException("Rounding necessary");
+            case DOWN -> false;
+            case UP -> true;
+            case FLOOR -> sign < 0;
+            case CEILING -> sign > 0;
+            case HALF_UP, HALF_DOWN, HALF_EVEN -> {
+                int half = Long.compare(Math.abs(remainder) * 2, RATE_ONE);
+                yield half > 0 || (half == 0 && (rounding == RoundingMode.HALF_UP
+                        || (rounding == RoundingMode.HALF_EVEN && (quotient & 1) != 0)));
+            }
+        };
+        return increment ? quotient + sign : quotient;
+    }
+}
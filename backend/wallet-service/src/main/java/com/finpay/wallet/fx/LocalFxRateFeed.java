@@ -0,0 +1,23 @@
+package com.finpay.wallet.fx;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Stand-in feed serving the static rates from {@code finpay.wallet.fx.rates},
+ * until a market data provider is wired in.
+ */
+@Component
+@RequiredArgsConstructor
+public class LocalFxRateFeed implements FxRateFeed {
+
+    private final FxProperties properties;
+
+    @Override
+    public Snapshot fetch() {
+        return new Snapshot(properties.getBaseCurrency(), Map.copyOf(properties.getRates()), Instant.now());
+    }
+}
@@ -0,0 +1,92 @@
+package com.finpay.wallet.saga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finpay.id.UuidV7;
+import com.finpay.wallet.saga.event.WalletResponseEvent;
+import com.finpay.wallet.shared.config.KafkaConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.transaction.KafkaTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Sends wallet responses with a transactional producer, so they become
+ * visible together with the command offset the listener container commits.
+ *
+ * The producer factory, template and transaction manager are kept out of the
+ * context on purpose: a second {@code KafkaTemplate} would make the outbox
+ * publisher's injection ambiguous, and a {@code TransactionManager} bean would
+ * stop Spring Boot from creating the JPA one.
+ */
+@Slf4j
+public class TransactionalResponsePublisher implements DisposableBean {
+
+    private final DefaultKafkaProducerFactory<String, String> producerFactory;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final KafkaTransactionManager<String, String> transactionManager;
+    private final ObjectMapper kafkaObjectMapper;
+
+    public TransactionalResponsePublisher(String bootstrapServers, String transactionIdPrefix,
+                                          ObjectMapper kafkaObjectMapper) {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        this.producerFactory = new DefaultKafkaProducerFactory<>(configProps);
+        this.producerFactory.setTransactionIdPrefix(transactionIdPrefix);
+        this.kafkaTemplate = new KafkaTemplate<>(producerFactory);
+        this.transactionManager = new KafkaTransactionManager<>(producerFactory);
+        this.kafkaObjectMapper = kafkaObjectMapper;
+    }
+
+    /**
+     * Sends the response inside the listener container's transaction. The
+     * record matches what the outbox publisher would send; its idempotency key
+     * is derived from the command's, so a command redelivered after an aborted
+     * transaction yields a response with the same key.
+     */
+    public void publish(WalletResponseEvent event, String commandIdempotencyKey) throws Exception {
+        String key = event.correlationId().toString();
+        ProducerRecord<String, String> record = new ProducerRecord<>(
+                KafkaConfig.WALLET_EVENTS_TOPIC, null, key, kafkaObjectMapper.writeValueAsString(event));
+        record.headers().add("X-Idempotency-Key",
+                responseKey(commandIdempotencyKey).getBytes(StandardCharsets.UTF_8));
+        record.headers().add("X-Event-Type",
+                event.responseType().name().getBytes(StandardCharsets.UTF_8));
+        kafkaTemplate.send(record);
+        log.info("Wallet response sent in transaction: {} success: {} for transfer: {}",
+                event.responseType(), event.success(), event.correlationId());
+    }
+
+    public KafkaTemplate<String, String> kafkaTemplate() {
+        return kafkaTemplate;
+    }
+
+    public KafkaTransactionManager<String, String> transactionManager() {
+        return transactionManager;
+    }
+
+    static String responseKey(String commandIdempotencyKey) {
+        if (commandIdempotencyKey == null) {
+            return UuidV7.generate().toString();
+        }
+        return UUID.nameUUIDFromBytes(("wallet-response:" + commandIdempotencyKey)
+                .getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    @Override
+    public void destroy() {
+        producerFactory.destroy();
+    }
+}
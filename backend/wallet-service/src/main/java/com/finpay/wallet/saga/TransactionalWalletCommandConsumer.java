@@ -0,0 +1,52 @@
+package com.finpay.wallet.saga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finpay.wallet.saga.event.WalletCommandEvent;
+import com.finpay.wallet.saga.event.WalletResponseEvent;
+import com.finpay.wallet.shared.config.KafkaConfig;
+import com.finpay.wallet.shared.config.WalletCommandTxConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+/**
+ * Kafka consumer for wallet SAGA commands in Kafka-transaction mode.
+ *
+ * The listener container starts a Kafka transaction per record; the response
+ * and the command's offset commit in it, so there is no outbox row and no
+ * {@code processed_events} row per command. Only the Kafka side is
+ * transactional: wallet changes commit in their own database transactions
+ * before the Kafka transaction does, and are not rolled back if it aborts.
+ * Each command still takes effect once because a redelivered command is
+ * matched to its ledger entry by {@link WalletCommandHandler}, which replays
+ * the response instead of applying the command again.
+ *
+ * Failed records are retried in place (1s, 2s, 4s) and then published to
+ * wallet-commands-dlt. Consumers of wallet-events must read with
+ * {@code isolation.level=read_committed} to skip aborted responses.
+ */
+@Component
+@ConditionalOnProperty(prefix = "finpay.wallet.commands", name = "kafka-transactions", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionalWalletCommandConsumer {
+
+    private final WalletCommandHandler commandHandler;
+    private final TransactionalResponsePublisher responsePublisher;
+    private final ObjectMapper kafkaObjectMapper;
+
+    @KafkaListener(topics = KafkaConfig.WALLET_COMMANDS_TOPIC, groupId = "wallet-service-group",
+            containerFactory = WalletCommandTxConfig.CONTAINER_FACTORY)
+    public void consumeWalletCommand(String message,
+                                     @Header(value = "X-Idempotency-Key", required = false) String idempotencyKey) throws Exception {
+        log.info("Received wallet command: {}", message);
+        WalletCommandEvent command = kafkaObjectMapper.readValue(message, WalletCommandEvent.class);
+        log.info("Processing command: {} for user: {} correlationId: {}",
+                command.command(), command.userId(), command.correlationId());
+        WalletResponseEvent response = commandHandler.handle(command);
+        responsePublisher.publish(response, idempotencyKey);
+    }
+}
@@ -0,0 +1,158 @@
+package com.finpay.wallet.saga;
+
+import com.finpay.wallet.saga.event.WalletCommandEvent;
+import com.finpay.wallet.saga.event.WalletResponseEvent;
+import com.finpay.wallet.shared.exception.InsufficientFundsException;
+import com.finpay.wallet.shared.exception.ResourceNotFoundException;
+import com.finpay.wallet.shared.exception.TransactionLimitExceededException;
+import com.finpay.wallet.shared.exception.WalletException;
+import com.finpay.wallet.transaction.WalletTransaction;
+import com.finpay.wallet.transaction.WalletTransactionService;
+import com.finpay.wallet.wallet.WalletService;
+import com.finpay.wallet.wallet.dto.WalletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies a wallet SAGA command and builds the response for the orchestrator.
+ *
+ * Errors while applying the command (InsufficientFunds, ResourceNotFound,
+ * limits and anything unexpected) become failure responses rather than exceptions.
+ *
+ * The payment-service saga watchdog re-emits commands whose response never
+ * arrived, and a consumer may see a command again after a crash. Commands are
+ * therefore checked against the ledger: if the step was already applied for the
+ * correlation ID, the current wallet state is reported instead of applying it again.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WalletCommandHandler {
+
+    private final WalletService walletService;
+    private final WalletTransactionService transactionService;
+
+    public WalletResponseEvent handle(WalletCommandEvent command) {
+        try {
+            WalletResponseEvent replayed = replayIfApplied(command);
+            if (replayed != null) {
+                return replayed;
+            }
+            return switch (command.command()) {
+                case RESERVE_FUNDS -> handleReserveFunds(command);
+                case RELEASE_FUNDS -> handleReleaseFunds(command);
+                case DEDUCT_FUNDS -> handleDeductFunds(command);
+                case CREDIT_FUNDS -> handleCreditFunds(command);
+                case REVERSE_CREDIT -> handleReverseCredit(command);
+                case REVERSE_DEDUCTION -> handleReverseDeduction(command);
+            };
+        } catch (InsufficientFundsException e) {
+            log.warn("Insufficient funds for command {}: {}", command.command(), e.getMessage());
+            return WalletResponseEvent.failure(command.correlationId(), command.userId(),
+                    WalletResponseEvent.ResponseType.OPERATION_FAILED, command.amount(),
+                    command.currency(), "Insufficient funds: " + e.getMessage());
+        } catch (TransactionLimitExceededException e) {
+            log.warn("Transaction limit exceeded for command {}: {}", command.command(), e.getMessage());
+            return WalletResponseEvent.failure(command.correlationId(), command.userId(),
+                    WalletResponseEvent.ResponseType.OPERATION_FAILED, command.amount(),
+                    command.currency(), e.getMessage());
+        } catch (ResourceNotFoundException e) {
+            log.warn("Resource not found for command {}: {}", command.command(), e.getMessage());
+            return WalletResponseEvent.failure(command.correlationId(), command.userId(),
+                    WalletResponseEvent.ResponseType.OPERATION_FAILED, command.amount(),
+                    command.currency(), "Wallet not found: " + e.getMessage());
+        } catch (WalletException e) {
+            log.warn("Wallet error for command {}: {}", command.command(), e.getMessage());
+            return WalletResponseEvent.failure(command.correlationId(), command.userId(),
+                    WalletResponseEvent.ResponseType.OPERATION_FAILED, command.amount(),
+                    command.currency(), "Wallet error: " + e.getMessage());
+        } catch (Exception e) {
+            log.error("Unexpected error for command {}: {}", command.command(), e.getMessage(), e);
+            return WalletResponseEvent.failure(command.correlationId(), command.userId(),
+                    WalletResponseEvent.ResponseType.OPERATION_FAILED, command.amount(),
+                    command.currency(), "Unexpected error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns a success response built from the current wallet state when the
+     * command's ledger entry already exists, or {@code null} if it still has to run.
+     */
+    private WalletResponseEvent replayIfApplied(WalletCommandEvent command) {
+        WalletTransaction.TransactionType ledgerType = switch (command.command()) {
+            case RESERVE_FUNDS -> WalletTransaction.TransactionType.RESERVE;
+            case RELEASE_FUNDS -> WalletTransaction.TransactionType.RELEASE_RESERVE;
+            case DEDUCT_FUNDS, REVERSE_CREDIT -> WalletTransaction.TransactionType.DEBIT;
+            case CREDIT_FUNDS, REVERSE_DEDUCTION -> WalletTransaction.TransactionType.CREDIT;
+        };
+        if (command.correlationId() == null || !transactionService.hasEntry(
+                command.userId(), command.correlationId().toString(), ledgerType)) {
+            return null;
+        }
+
+        WalletResponseEvent.ResponseType responseType = switch (command.command()) {
+            case RESERVE_FUNDS -> WalletResponseEvent.ResponseType.FUNDS_RESERVED;
+            case RELEASE_FUNDS -> WalletResponseEvent.ResponseType.FUNDS_RELEASED;
+            case DEDUCT_FUNDS -> WalletResponseEvent.ResponseType.FUNDS_DEDUCTED;
+            case CREDIT_FUNDS -> WalletResponseEvent.ResponseType.FUNDS_CREDITED;
+            case REVERSE_CREDIT -> WalletResponseEvent.ResponseType.CREDIT_REVERSED;
+            case REVERSE_DEDUCTION -> WalletResponseEvent.ResponseType.DEDUCTION_REVERSED;
+        };
+        log.info("Command {} already applied for correlationId {}, replaying response",
+                command.command(), command.correlationId());
+        WalletResponse wallet = walletService.getWalletByUserId(command.userId());
+        return WalletResponseEvent.success(command.correlationId(), wallet.id(), command.userId(),
+                responseType, command.amount(), wallet.balance(), wallet.availableBalance(), command.currency());
+    }
+
+    private WalletResponseEvent handleReserveFunds(WalletCommandEvent command) {
+        WalletResponse wallet = walletService.getOrCreateWallet(command.userId());
+        var result = walletService.reserveFunds(command.userId(), command.amount(),
+                command.currency(), command.correlationId().toString(), command.holdFor());
+        return WalletResponseEvent.success(command.correlationId(), result.walletId(), command.userId(),
+                WalletResponseEvent.ResponseType.FUNDS_RESERVED, command.amount(),
+                result.newBalance(), result.newAvailableBalance(), command.currency());
+    }
+
+    private WalletResponseEvent handleReleaseFunds(WalletCommandEvent command) {
+        var result = walletService.releaseReservedFunds(command.userId(), command.amount(),
+                command.currency(), command.correlationId().toString());
+        return WalletResponseEvent.success(command.correlationId(), result.walletId(), command.userId(),
+                WalletResponseEvent.ResponseType.FUNDS_RELEASED, command.amount(),
+                result.newBalance(), result.newAvailableBalance(), command.currency());
+    }
+
+    private WalletResponseEvent handleDeductFunds(WalletCommandEvent command) {
+        var result = walletService.deductFunds(command.userId(), command.amount(),
+                command.currency(), command.correlationId().toString());
+        return WalletResponseEvent.success(command.correlationId(), result.walletId(), command.userId(),
+                WalletResponseEvent.ResponseType.FUNDS_DEDUCTED, command.amount(),
+                result.newBalance(), result.newAvailableBalance(), command.currency());
+    }
+
+    private WalletResponseEvent handleCreditFunds(WalletCommandEvent command) {
+        walletService.getOrCreateWallet(command.userId());
+        var result = walletService.creditFunds(command.userId(), command.amount(),
+                command.currency(), command.correlationId().toString());
+        return WalletResponseEvent.success(command.correlationId(), result.walletId(), command.userId(),
+                WalletResponseEvent.ResponseType.FUNDS_CREDITED, command.amount(),
+                result.newBalance(), result.newAvailableBalance(), command.currency());
+    }
+
+    private WalletResponseEvent handleReverseCredit(WalletCommandEvent command) {
+        var result = walletService.reverseCredit(command.userId(), command.amount(),
+                command.currency(), command.correlationId().toString());
+        return WalletResponseEvent.success(command.correlationId(), result.walletId(), command.userId(),
+                WalletResponseEvent.ResponseType.CREDIT_REVERSED, command.amount(),
+                result.newBalance(), result.newAvailableBalance(), command.currency());
+    }
+
+    private WalletResponseEvent handleReverseDeduction(WalletCommandEvent command) {
+        var result = walletService.reverseDeduction(command.userId(), command.amount(),
+                command.currency(), command.correlationId().toString());
+        return WalletResponseEvent.success(command.correlationId(), result.walletId(), command.userId(),
+                WalletResponseEvent.ResponseType.DEDUCTION_REVERSED, command.amount(),
+                result.newBalance(), result.newAvailableBalance(), command.currency());
+    }
+}
@@ -0,0 +1,31 @@
+package com.finpay.wallet.saga;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.UUID;
+
+/**
+ * Settings for how wallet SAGA commands are consumed and answered.
+ *
+ * finpay:
+ *   wallet:
+ *     commands:
+ *       kafka-transactions: true
+ */
+@ConfigurationProperties(prefix = "finpay.wallet.commands")
+@Getter
+@Setter
+public class WalletCommandProperties {
+
+    /**
+     * Consumes commands and produces responses in one Kafka transaction
+     * instead of going through the outbox and {@code processed_events}.
+     * Wallet database writes still commit separately.
+     */
+    private boolean kafkaTransactions = false;
+
+    /** Transactional ID prefix; must differ between running instances. */
+    private String transactionIdPrefix = "wallet-commands-" + UUID.randomUUID() + "-";
+}
@@ -1,12 +1,14 @@
 package com.finpay.wallet.saga.event;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 public record WalletCommandEvent(
         UUID eventId, UUID correlationId, UUID userId, CommandType command,
-        BigDecimal amount, String currency, String description, LocalDateTime timestamp
+        BigDecimal amount, String currency, String description, LocalDateTime timestamp,
+        Duration holdFor // RESERVE_FUNDS only: how long the funds stay held; null = finpay.wallet.holds.ttl
 ) {
     public enum CommandType {
         RESERVE_FUNDS, RELEASE_FUNDS, DEDUCT_FUNDS,
@@ -16,6 +18,6 @@ public record WalletCommandEvent(
     public static WalletCommandEvent create(UUID correlationId, UUID userId, CommandType command,
                                              BigDecimal amount, String currency, String description) {
         return new WalletCommandEvent(UUID.randomUUID(), correlationId, userId, command,
-                amount, currency, description, LocalDateTime.now());
+                amount, currency, description, LocalDateTime.now(), null);
     }
 }
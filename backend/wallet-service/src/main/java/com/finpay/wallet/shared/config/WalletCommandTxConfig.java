@@ -0,0 +1,73 @@
+package com.finpay.wallet.shared.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finpay.wallet.saga.TransactionalResponsePublisher;
+import com.finpay.wallet.saga.TransactionalWalletCommandConsumer;
+import com.finpay.wallet.saga.WalletCommandProperties;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultAfterRollbackProcessor;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Kafka transaction wiring for wallet command handling. Only the response and
+ * the command offset are transactional; see {@link TransactionalWalletCommandConsumer}.
+ * Only active with {@code finpay.wallet.commands.kafka-transactions=true}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "finpay.wallet.commands", name = "kafka-transactions", havingValue = "true")
+public class WalletCommandTxConfig {
+
+    public static final String CONTAINER_FACTORY = "walletCommandTxContainerFactory";
+    public static final String WALLET_COMMANDS_DLT = KafkaConfig.WALLET_COMMANDS_TOPIC + "-dlt";
+
+    @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
+    private String bootstrapServers;
+
+    @Bean
+    public TransactionalResponsePublisher transactionalResponsePublisher(WalletCommandProperties properties,
+                                                                         ObjectMapper kafkaObjectMapper) {
+        return new TransactionalResponsePublisher(bootstrapServers, properties.getTransactionIdPrefix(),
+                kafkaObjectMapper);
+    }
+
+    @Bean(CONTAINER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<String, String> walletCommandTxContainerFactory(
+            ConsumerFactory<String, String> consumerFactory, TransactionalResponsePublisher publisher) {
+        Map<String, Object> configProps = new HashMap<>(consumerFactory.getConfigurationProperties());
+        configProps.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+
+        ExponentialBackOffWithMaxRetries backOff = new ExponentialBackOffWithMaxRetries(3);
+        backOff.setInitialInterval(1000);
+        backOff.setMultiplier(2);
+        backOff.setMaxInterval(10000);
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(publisher.kafkaTemplate(),
+                (record, ex) -> new TopicPartition(WALLET_COMMANDS_DLT, -1));
+
+        ConcurrentKafkaListenerContainerFactory<String, String> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(configProps));
+        factory.getContainerProperties().setKafkaAwareTransactionManager(publisher.transactionManager());
+        factory.setAfterRollbackProcessor(new DefaultAfterRollbackProcessor<>(
+                recoverer, backOff, publisher.kafkaTemplate(), true));
+        return factory;
+    }
+
+    @Bean
+    public NewTopic walletCommandsDltTopic() {
+        return TopicBuilder.name(WALLET_COMMANDS_DLT).partitions(3).replicas(1).build();
+    }
+}
@@ -0,0 +1,5 @@
+package com.finpay.wallet.shared.exception;
+
+public class FxRateUnavailableException extends WalletException {
+    public FxRateUnavailableException(String message) { super(message); }
+}
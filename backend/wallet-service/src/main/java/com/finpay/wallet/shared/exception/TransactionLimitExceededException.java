@@ -4,7 +4,8 @@ import java.math.BigDecimal;
 
 /**
  * Thrown when a wallet operation would breach the user's configured
- * daily or monthly transaction limit.
+ * daily or monthly transaction limit, either per calendar period or over a
+ * rolling window.
  */
 public class TransactionLimitExceededException extends RuntimeException {
 
@@ -13,7 +14,22 @@ public class TransactionLimitExceededException extends RuntimeException {
     private final BigDecimal spent;
     private final BigDecimal attempted;
 
-    public enum LimitType { DAILY, MONTHLY }
+    public enum LimitType {
+        DAILY("Daily"),
+        MONTHLY("Monthly"),
+        /** Daily limit applied to the rolling window of hourly buckets. */
+        ROLLING_DAILY("Rolling daily"),
+        /** Monthly limit applied to the rolling window of daily buckets. */
+        ROLLING_MONTHLY("Rolling monthly");
+
+        private final String label;
+
+        LimitType(String label) {
+            this.label = label;
+        }
+
+        public String label() { return label; }
+    }
 
     public TransactionLimitExceededException(LimitType limitType,
                                              BigDecimal limit,
@@ -32,7 +48,7 @@ public class TransactionLimitExceededException extends RuntimeException {
         return String.format(
                 "%s transaction limit exceeded. Limit: $%s, Already spent: $%s, " +
                 "Remaining: $%s, Attempted: $%s",
-                type.name().charAt(0) + type.name().substring(1).toLowerCase(),
+                type.label(),
                 limit.toPlainString(), spent.toPlainString(),
                 remaining.toPlainString(), attempted.toPlainString());
     }
@@ -1,5 +1,6 @@
 package com.finpay.wallet.transaction;
 
+import com.finpay.id.hibernate.TimeOrderedId;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -9,11 +10,14 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "wallet_transactions")
+@Table(name = "wallet_transactions", indexes = {
+        @Index(name = "idx_wallet_tx_reference", columnList = "referenceId"),
+        @Index(name = "idx_wallet_tx_user_created", columnList = "userId, createdAt")
+})
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class WalletTransaction {
 
-    @Id @GeneratedValue(strategy = GenerationType.UUID)
+    @Id @TimeOrderedId
     private UUID id;
 
     @Column(nullable = false)
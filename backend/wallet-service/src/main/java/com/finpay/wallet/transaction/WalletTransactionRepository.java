@@ -3,8 +3,13 @@ package com.finpay.wallet.transaction;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -14,4 +19,34 @@ public interface WalletTransactionRepository extends JpaRepository<WalletTransac
     Page<WalletTransaction> findByUserIdOrderByCreatedAtDesc(UUID userId, Pageable pageable);
     List<WalletTransaction> findByReferenceId(String referenceId);
     List<WalletTransaction> findTop10ByUserIdOrderByCreatedAtDesc(UUID userId);
+
+    @Query("SELECT t.walletId AS walletId, t.referenceId AS referenceId FROM WalletTransaction t "
+            + "WHERE t.type = :type AND t.walletId IN :walletIds AND t.referenceId IN :referenceIds")
+    List<WalletReferenceView> findWalletReferences(@Param("type") WalletTransaction.TransactionType type,
+                                                   @Param("walletIds") Collection<UUID> walletIds,
+                                                   @Param("referenceIds") Collection<String> referenceIds);
+
+    boolean existsByUserIdAndReferenceIdAndType(UUID userId, String referenceId, WalletTransaction.TransactionType type);
+
+    /**
+     * Reserve and release ledger entries used to rebuild rolling spend windows.
+     */
+    @Query("SELECT t.userId AS userId, t.type AS type, t.amount AS amount, t.createdAt AS createdAt "
+            + "FROM WalletTransaction t WHERE t.userId IN :userIds AND t.createdAt >= :since AND t.type IN :types "
+            + "ORDER BY t.createdAt")
+    List<SpendEntry> findSpendEntries(@Param("userIds") Collection<UUID> userIds,
+                                      @Param("since") LocalDateTime since,
+                                      @Param("types") Collection<WalletTransaction.TransactionType> types);
+
+    interface SpendEntry {
+        UUID getUserId();
+        WalletTransaction.TransactionType getType();
+        BigDecimal getAmount();
+        LocalDateTime getCreatedAt();
+    }
+
+    interface WalletReferenceView {
+        UUID getWalletId();
+        String getReferenceId();
+    }
 }
@@ -1,18 +1,36 @@
 package com.finpay.wallet.transaction;
 
+import com.finpay.wallet.transaction.archive.ArchivedTransactionReader;
 import com.finpay.wallet.transaction.dto.WalletTransactionResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 
+/**
+ * Ledger access for wallet transactions.
+ *
+ * Months older than the retention horizon are moved out of
+ * {@code wallet_transactions} into the cold archive. History queries read live
+ * rows first and then continue into archived months, so callers see one
+ * continuous, newest-first history.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -21,6 +39,9 @@ public class WalletTransactionService {
 
     private final WalletTransactionRepository transactionRepository;
     private final WalletTransactionMapper transactionMapper;
+    private final ArchivedTransactionReader archiveReader;
+
+    private static final int RECENT_LIMIT = 10;
 
     @Transactional
     public void recordTransaction(UUID walletId, UUID userId, WalletTransaction.TransactionType type,
@@ -34,23 +55,107 @@ public class WalletTransactionService {
         transactionRepository.save(transaction);
     }
 
+    /**
+     * Persists many ledger rows at once. Relies on {@code hibernate.jdbc.batch_size}
+     * so the inserts are sent to the database as JDBC batches.
+     */
+    @Transactional
+    public void recordTransactions(List<WalletTransaction> transactions) {
+        transactionRepository.saveAll(transactions);
+    }
+
+    /**
+     * Reference IDs of this type already in the given wallets' ledgers, by
+     * wallet ID. The same reference in another wallet does not count.
+     */
+    public Map<UUID, Set<String>> findExistingReferences(WalletTransaction.TransactionType type,
+                                                         Collection<UUID> walletIds,
+                                                         Collection<String> referenceIds) {
+        if (walletIds.isEmpty() || referenceIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<UUID, Set<String>> existing = new HashMap<>();
+        transactionRepository.findWalletReferences(type, walletIds, referenceIds).forEach(view ->
+                existing.computeIfAbsent(view.getWalletId(), id -> new HashSet<>()).add(view.getReferenceId()));
+        return existing;
+    }
+
+    /**
+     * Whether the user's wallet already has a ledger entry of this type for the
+     * reference. Saga commands that are re-emitted after a timeout use this to
+     * avoid applying the same step twice.
+     */
+    public boolean hasEntry(UUID userId, String referenceId, WalletTransaction.TransactionType type) {
+        return transactionRepository.existsByUserIdAndReferenceIdAndType(userId, referenceId, type);
+    }
+
     public Page<WalletTransactionResponse> getTransactionsByUserId(UUID userId, Pageable pageable) {
-        return transactionRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable)
-                .map(transactionMapper::toResponse);
+        Page<WalletTransactionResponse> live = transactionRepository
+                .findByUserIdOrderByCreatedAtDesc(userId, pageable).map(transactionMapper::toResponse);
+        return withArchive(live, pageable,
+                () -> archiveReader.countByUserId(userId),
+                (offset, limit) -> archiveReader.findByUserId(userId, offset, limit));
     }
 
     public Page<WalletTransactionResponse> getTransactionsByWalletId(UUID walletId, Pageable pageable) {
-        return transactionRepository.findByWalletIdOrderByCreatedAtDesc(walletId, pageable)
-                .map(transactionMapper::toResponse);
+        Page<WalletTransactionResponse> live = transactionRepository
+                .findByWalletIdOrderByCreatedAtDesc(walletId, pageable).map(transactionMapper::toResponse);
+        return withArchive(live, pageable,
+                () -> archiveReader.countByWalletId(walletId),
+                (offset, limit) -> archiveReader.findByWalletId(walletId, offset, limit));
     }
 
     public List<WalletTransactionResponse> getRecentTransactions(UUID userId) {
-        return transactionRepository.findTop10ByUserIdOrderByCreatedAtDesc(userId)
-                .stream().map(transactionMapper::toResponse).collect(Collectors.toList());
+        List<WalletTransactionResponse> recent = transactionRepository.findTop10ByUserIdOrderByCreatedAtDesc(userId)
+                .stream().map(transactionMapper::toResponse).collect(Collectors.toCollection(ArrayList::new));
+        if (recent.size() < RECENT_LIMIT && archiveReader.hasArchives()) {
+            recent.addAll(archiveReader.findByUserId(userId, 0, RECENT_LIMIT - recent.size()));
+        }
+        return recent;
     }
 
     public List<WalletTransactionResponse> getTransactionsByReferenceId(String referenceId) {
-        return transactionRepository.findByReferenceId(referenceId)
-                .stream().map(transactionMapper::toResponse).collect(Collectors.toList());
+        List<WalletTransactionResponse> transactions = transactionRepository.findByReferenceId(referenceId)
+                .stream().map(transactionMapper::toResponse).collect(Collectors.toCollection(ArrayList::new));
+        if (transactions.isEmpty() && archiveReader.hasArchives()) {
+            transactions.addAll(archiveReader.findByReferenceId(referenceId));
+        }
+        return transactions;
+    }
+
+    public List<WalletTransactionRepository.SpendEntry> findSpendEntries(
+            Collection<UUID> userIds, LocalDateTime since, Collection<WalletTransaction.TransactionType> types) {
+        return transactionRepository.findSpendEntries(userIds, since, types);
+    }
+
+    /**
+     * Extends a page of live rows with archived rows once the live rows run out.
+     * Archived months are strictly older than live rows, so the archive offset is
+     * simply the page offset minus the number of live rows.
+     */
+    private Page<WalletTransactionResponse> withArchive(Page<WalletTransactionResponse> live, Pageable pageable,
+                                                        LongSupplier archivedCount,
+                                                        ArchiveSlice archiveSlice) {
+        if (pageable.isUnpaged() || !archiveReader.hasArchives()) {
+            return live;
+        }
+        long archived = archivedCount.getAsLong();
+        if (archived == 0) {
+            return live;
+        }
+
+        List<WalletTransactionResponse> content = new ArrayList<>(live.getContent());
+        long liveTotal = live.getTotalElements();
+        int missing = pageable.getPageSize() - content.size();
+        if (missing > 0) {
+            long archiveOffset = Math.max(0, pageable.getOffset() - liveTotal);
+            content.addAll(archiveSlice.read(archiveOffset, missing));
+        }
+        return new PageImpl<>(content, pageable, liveTotal + archived);
+    }
+
+    @FunctionalInterface
+    private interface ArchiveSlice {
+        List<WalletTransactionResponse> read(long offset, int limit);
     }
 }
@@ -0,0 +1,155 @@
+package com.finpay.wallet.transaction.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finpay.wallet.transaction.dto.WalletTransactionResponse;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes one archived month to a local file as gzip-compressed NDJSON.
+ *
+ * Rows must arrive grouped by wallet (newest first within a wallet). Each
+ * wallet group becomes its own gzip member, and its byte range is recorded
+ * in the {@link ArchiveIndex} returned by {@link #finish()}.
+ */
+class ArchiveFileWriter implements AutoCloseable {
+
+    private static final byte NEWLINE = '\n';
+
+    private final String month;
+    private final ObjectMapper objectMapper;
+    private final Path file;
+    private final CountingOutputStream out;
+
+    private final Map<UUID, ArchiveIndex.Block> wallets = new HashMap<>();
+    private final Map<UUID, UUID> walletsByUser = new HashMap<>();
+    private final Map<String, List<UUID>> walletsByReference = new HashMap<>();
+    private long rowCount;
+
+    private UUID currentWallet;
+    private UUID currentUser;
+    private long currentOffset;
+    private int currentCount;
+    private OutputStream currentMember;
+
+    ArchiveFileWriter(String month, ObjectMapper objectMapper) throws IOException {
+        this.month = month;
+        this.objectMapper = objectMapper;
+        this.file = Files.createTempFile("wallet-tx-" + month + "-", ".ndjson.gz");
+        this.out = new CountingOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16));
+    }
+
+    void append(WalletTransactionResponse row) throws IOException {
+        if (!row.walletId().equals(currentWallet)) {
+            if (wallets.containsKey(row.walletId())) {
+                throw new IllegalStateException("Rows for wallet " + row.walletId() + " are not contiguous");
+            }
+            closeMember();
+            currentWallet = row.walletId();
+            currentUser = row.userId();
+            currentOffset = out.count;
+            currentCount = 0;
+            currentMember = new GZIPOutputStream(new NonClosingOutputStream(out), 1 << 13);
+        }
+        currentMember.write(objectMapper.writeValueAsBytes(row));
+        currentMember.write(NEWLINE);
+        currentCount++;
+        rowCount++;
+        if (row.referenceId() != null) {
+            List<UUID> referenced = walletsByReference.computeIfAbsent(row.referenceId(), k -> new ArrayList<>(2));
+            if (!referenced.contains(row.walletId())) {
+                referenced.add(row.walletId());
+            }
+        }
+    }
+
+    /**
+     * Completes the data file and returns its index. The file stays on local
+     * disk until {@link #close()}.
+     */
+    ArchiveIndex finish() throws IOException {
+        closeMember();
+        out.flush();
+        return new ArchiveIndex(month, rowCount, wallets, walletsByUser, walletsByReference);
+    }
+
+    Path file() {
+        return file;
+    }
+
+    long rowCount() {
+        return rowCount;
+    }
+
+    long sizeBytes() {
+        return out.count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            out.close();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private void closeMember() throws IOException {
+        if (currentMember == null) {
+            return;
+        }
+        currentMember.close();
+        wallets.put(currentWallet, new ArchiveIndex.Block(
+                currentUser, currentOffset, out.count - currentOffset, currentCount));
+        walletsByUser.put(currentUser, currentWallet);
+        currentMember = null;
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+
+    /** Lets each gzip member be closed (releasing its deflater) without closing the file. */
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+        private NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.finpay.wallet.transaction.archive;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Sidecar index of an archived month.
+ *
+ * The data file is a sequence of independent gzip members, one per wallet,
+ * each holding that wallet's transactions as NDJSON ordered newest first.
+ * The index records where each member starts so a single wallet can be read
+ * with one ranged read.
+ */
+public record ArchiveIndex(
+        String month,
+        long rowCount,
+        Map<UUID, Block> wallets,
+        Map<UUID, UUID> walletsByUser,
+        Map<String, List<UUID>> walletsByReference
+) {
+    public record Block(UUID userId, long offset, long length, int count) {}
+
+    public Block blockForUser(UUID userId) {
+        UUID walletId = walletsByUser.get(userId);
+        return walletId != null ? wallets.get(walletId) : null;
+    }
+}
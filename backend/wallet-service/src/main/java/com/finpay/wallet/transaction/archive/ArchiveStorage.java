@@ -0,0 +1,22 @@
+package com.finpay.wallet.transaction.archive;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * Minimal object-store abstraction for archived transaction files.
+ * Keys are slash-separated paths; ranged reads let the reader fetch a
+ * single wallet's block without downloading the whole month.
+ */
+public interface ArchiveStorage {
+
+    /** Stores the given local file under {@code key}, replacing any existing object. */
+    void put(String key, Path file) throws IOException;
+
+    InputStream open(String key) throws IOException;
+
+    InputStream openRange(String key, long offset, long length) throws IOException;
+
+    boolean exists(String key);
+}
@@ -0,0 +1,180 @@
+package com.finpay.wallet.transaction.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finpay.wallet.transaction.dto.WalletTransactionResponse;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads transaction history from archived months.
+ *
+ * Month indexes are small and cached in memory; data is fetched with one
+ * ranged read per wallet block. Archived months are always older than
+ * anything still in {@code wallet_transactions}, so callers can append
+ * archive results after live rows without re-sorting.
+ *
+ * Only months whose partition has been dropped are read: until the drop
+ * succeeds the rows are still live and would otherwise be returned twice.
+ */
+@Component
+@Slf4j
+public class ArchivedTransactionReader {
+
+    private static final String CATALOGUE_KEY = "catalogue";
+
+    private final WalletTransactionArchiveRepository archiveRepository;
+    private final ArchiveStorage storage;
+    private final ObjectMapper objectMapper;
+
+    private final LoadingCache<String, List<WalletTransactionArchive>> catalogue;
+    private final LoadingCache<String, ArchiveIndex> indexes;
+
+    public ArchivedTransactionReader(WalletTransactionArchiveRepository archiveRepository,
+                                     ArchiveStorage storage,
+                                     ObjectMapper objectMapper,
+                                     TransactionArchiveProperties properties) {
+        this.archiveRepository = archiveRepository;
+        this.storage = storage;
+        this.objectMapper = objectMapper;
+        this.catalogue = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(1))
+                .build(key -> archiveRepository.findByPartitionDroppedTrueOrderByMonthDesc());
+        this.indexes = Caffeine.newBuilder()
+                .maximumSize(properties.getIndexCacheSize())
+                .build(this::loadIndex);
+    }
+
+    public boolean hasArchives() {
+        return !archives().isEmpty();
+    }
+
+    public long countByUserId(UUID userId) {
+        return count(index -> index.blockForUser(userId));
+    }
+
+    public long countByWalletId(UUID walletId) {
+        return count(index -> index.wallets().get(walletId));
+    }
+
+    /**
+     * Returns up to {@code limit} archived transactions for the user, newest
+     * first, skipping the first {@code offset} archived rows.
+     */
+    public List<WalletTransactionResponse> findByUserId(UUID userId, long offset, int limit) {
+        return find(index -> index.blockForUser(userId), offset, limit);
+    }
+
+    public List<WalletTransactionResponse> findByWalletId(UUID walletId, long offset, int limit) {
+        return find(index -> index.wallets().get(walletId), offset, limit);
+    }
+
+    public List<WalletTransactionResponse> findByReferenceId(String referenceId) {
+        List<WalletTransactionResponse> results = new ArrayList<>();
+        for (WalletTransactionArchive archive : archives()) {
+            ArchiveIndex index = indexes.get(archive.getMonth());
+            List<UUID> walletIds = index.walletsByReference().get(referenceId);
+            if (walletIds == null) {
+                continue;
+            }
+            for (UUID walletId : walletIds) {
+                readBlock(archive, index.wallets().get(walletId), 0, Integer.MAX_VALUE).stream()
+                        .filter(tx -> referenceId.equals(tx.referenceId()))
+                        .forEach(results::add);
+            }
+        }
+        results.sort(Comparator.comparing(WalletTransactionResponse::createdAt).reversed());
+        return results;
+    }
+
+    /**
+     * Drops cached catalogue and index entries, e.g. after a new month was archived.
+     */
+    public void invalidate() {
+        catalogue.invalidateAll();
+        indexes.invalidateAll();
+    }
+
+    private long count(Function<ArchiveIndex, ArchiveIndex.Block> blockLookup) {
+        long total = 0;
+        for (WalletTransactionArchive archive : archives()) {
+            ArchiveIndex.Block block = blockLookup.apply(indexes.get(archive.getMonth()));
+            if (block != null) {
+                total += block.count();
+            }
+        }
+        return total;
+    }
+
+    private List<WalletTransactionResponse> find(Function<ArchiveIndex, ArchiveIndex.Block> blockLookup,
+                                                 long offset, int limit) {
+        List<WalletTransactionResponse> results = new ArrayList<>(Math.min(limit, 100));
+        long toSkip = offset;
+        for (WalletTransactionArchive archive : archives()) {
+            if (results.size() >= limit) {
+                break;
+            }
+            ArchiveIndex.Block block = blockLookup.apply(indexes.get(archive.getMonth()));
+            if (block == null) {
+                continue;
+            }
+            if (toSkip >= block.count()) {
+                toSkip -= block.count();
+                continue;
+            }
+            results.addAll(readBlock(archive, block, (int) toSkip, limit - results.size()));
+            toSkip = 0;
+        }
+        return results;
+    }
+
+    private List<WalletTransactionResponse> readBlock(WalletTransactionArchive archive, ArchiveIndex.Block block,
+                                                      int skip, int limit) {
+        List<WalletTransactionResponse> rows = new ArrayList<>(Math.min(block.count(), limit));
+        try (InputStream raw = storage.openRange(archive.getDataKey(), block.offset(), block.length());
+             BufferedReader reader = new BufferedReader(
+                     new InputStreamReader(new GZIPInputStream(raw), StandardCharsets.UTF_8))) {
+            String line;
+            int position = 0;
+            while (rows.size() < limit && (line = reader.readLine()) != null) {
+                if (position++ < skip || line.isEmpty()) {
+                    continue;
+                }
+                rows.add(objectMapper.readValue(line, WalletTransactionResponse.class));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read archived transactions for " + archive.getMonth(), e);
+        }
+        return rows;
+    }
+
+    private List<WalletTransactionArchive> archives() {
+        return catalogue.get(CATALOGUE_KEY);
+    }
+
+    private ArchiveIndex loadIndex(String month) throws IOException {
+        WalletTransactionArchive archive = archiveRepository.findById(month)
+                .orElseThrow(() -> new IllegalStateException("Unknown archived month " + month));
+        try (InputStream in = new GZIPInputStream(storage.open(archive.getIndexKey()))) {
+            ArchiveIndex index = objectMapper.readValue(in, ArchiveIndex.class);
+            log.debug("Loaded archive index for {} ({} rows, {} wallets)",
+                    month, index.rowCount(), index.wallets().size());
+            return index;
+        }
+    }
+}
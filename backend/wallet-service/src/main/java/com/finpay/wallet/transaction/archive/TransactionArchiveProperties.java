@@ -0,0 +1,41 @@
+package com.finpay.wallet.transaction.archive;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Partitioning and cold-archive settings for {@code wallet_transactions}.
+ *
+ * finpay:
+ *   wallet:
+ *     transactions:
+ *       archive:
+ *         enabled: true
+ *         retention-months: 12
+ *         months-ahead: 3
+ *         directory: ./data/wallet-archive
+ */
+@ConfigurationProperties(prefix = "finpay.wallet.transactions.archive")
+@Getter
+@Setter
+public class TransactionArchiveProperties {
+
+    /** Enables monthly partition maintenance and archiving. */
+    private boolean enabled = false;
+
+    /** Months kept in the live table; older partitions are archived and dropped. */
+    private int retentionMonths = 12;
+
+    /** Number of future monthly partitions kept ready ahead of time. */
+    private int monthsAhead = 3;
+
+    /** Directory used as the archive store. */
+    private String directory = "./data/wallet-archive";
+
+    /** Cron expression for the maintenance run. */
+    private String cron = "0 30 2 * * *";
+
+    /** Number of month indexes kept in memory for archive reads. */
+    private int indexCacheSize = 24;
+}
@@ -0,0 +1,35 @@
+package com.finpay.wallet.transaction.archive;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Operator endpoint for the one-time partitioning of {@code wallet_transactions}.
+ * Security enforced at API Gateway level (AdminAuthFilter).
+ */
+@RestController
+@RequestMapping("/api/v1/admin/wallets/transactions")
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionPartitionController {
+
+    private final WalletTransactionPartitionManager partitionManager;
+
+    /**
+     * Converts the table to monthly partitions. Blocks until the rebuild is
+     * done; 409 if it is already partitioned or maintenance is running.
+     */
+    @PostMapping("/partition")
+    public ResponseEntity<Void> partition(@RequestHeader("X-User-Id") String adminIdStr) {
+        log.info("Admin {} partitioning wallet transactions", adminIdStr);
+        return partitionManager.partitionTable()
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+}
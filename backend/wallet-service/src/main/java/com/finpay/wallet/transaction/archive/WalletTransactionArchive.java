@@ -0,0 +1,51 @@
+package com.finpay.wallet.transaction.archive;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Catalogue entry for one month of wallet transactions moved to the archive.
+ * A row is written only after the archive file and its index are stored and
+ * the row count matches the partition, so it is safe to drop the partition.
+ */
+@Entity
+@Table(name = "wallet_transaction_archives")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class WalletTransactionArchive {
+
+    /** Archived month in {@code yyyy-MM} form. */
+    @Id
+    @Column(length = 7)
+    private String month;
+
+    @Column(nullable = false, length = 16)
+    private String partitionName;
+
+    @Column(nullable = false)
+    private String dataKey;
+
+    @Column(nullable = false)
+    private String indexKey;
+
+    @Column(nullable = false)
+    private long rowCount;
+
+    @Column(nullable = false)
+    private long sizeBytes;
+
+    @Column(nullable = false)
+    private boolean partitionDropped;
+
+    @CreationTimestamp @Column(nullable = false, updatable = false)
+    private LocalDateTime archivedAt;
+}
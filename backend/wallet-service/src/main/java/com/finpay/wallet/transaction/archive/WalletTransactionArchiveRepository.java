@@ -0,0 +1,11 @@
+package com.finpay.wallet.transaction.archive;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface WalletTransactionArchiveRepository extends JpaRepository<WalletTransactionArchive, String> {
+    List<WalletTransactionArchive> findByPartitionDroppedTrueOrderByMonthDesc();
+}
@@ -0,0 +1,339 @@
+package com.finpay.wallet.transaction.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finpay.wallet.transaction.WalletTransaction;
+import com.finpay.wallet.transaction.dto.WalletTransactionResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Maintains monthly RANGE partitions on {@code wallet_transactions} and moves
+ * partitions older than the retention horizon to the cold archive.
+ *
+ * Converting the table is an explicit operator step ({@link #partitionTable()},
+ * exposed as {@code POST /api/v1/admin/wallets/transactions/partition}): it
+ * widens the primary key to {@code (id, created_at)} as MySQL requires and
+ * creates one partition per month since the oldest row, rebuilding the whole
+ * table. Startup and the scheduled run only add future months ahead of time
+ * by splitting the catch-all {@code pmax} partition, and do nothing while the
+ * table is not partitioned.
+ *
+ * Expired months are streamed to gzip NDJSON with a sidecar index, verified
+ * against the partition row count, catalogued in {@code wallet_transaction_archives},
+ * and only then dropped. A MySQL named lock keeps concurrent instances from
+ * running maintenance at the same time.
+ */
+@Component
+@Slf4j
+public class WalletTransactionPartitionManager {
+
+    static final String TABLE = "wallet_transactions";
+    static final String MAX_PARTITION = "pmax";
+    private static final String LOCK_NAME = "finpay_wallet_tx_partitions";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final WalletTransactionArchiveRepository archiveRepository;
+    private final ArchiveStorage storage;
+    private final ArchivedTransactionReader archiveReader;
+    private final ObjectMapper objectMapper;
+    private final TransactionArchiveProperties properties;
+
+    public WalletTransactionPartitionManager(JdbcTemplate jdbcTemplate,
+                                             WalletTransactionArchiveRepository archiveRepository,
+                                             ArchiveStorage storage,
+                                             ArchivedTransactionReader archiveReader,
+                                             ObjectMapper objectMapper,
+                                             TransactionArchiveProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.archiveRepository = archiveRepository;
+        this.storage = storage;
+        this.archiveReader = archiveReader;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        // MySQL Connector/J only streams result sets with this fetch size
+        this.streamingJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    /** Adds upcoming monthly partitions; archiving waits for the scheduled run. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (properties.isEnabled()) {
+            runLocked("Wallet transaction partition check", () -> addUpcomingPartitions(YearMonth.now()));
+        }
+    }
+
+    @Scheduled(cron = "${finpay.wallet.transactions.archive.cron:0 30 2 * * *}")
+    public void runMaintenance() {
+        if (properties.isEnabled()) {
+            runLocked("Wallet transaction partition maintenance", () -> maintain(YearMonth.now()));
+        }
+    }
+
+    /**
+     * Converts {@code wallet_transactions} to monthly partitions. Rebuilds and
+     * locks the table for as long as that takes, so run it once, off-peak.
+     *
+     * @return false if the table is already partitioned or another instance holds the maintenance lock
+     */
+    public boolean partitionTable() {
+        boolean[] converted = {false};
+        Boolean locked = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            if (!acquireLock(connection)) {
+                return false;
+            }
+            try {
+                if (listPartitionMonths().isEmpty()) {
+                    YearMonth currentMonth = YearMonth.now();
+                    partitionTable(currentMonth, currentMonth.plusMonths(properties.getMonthsAhead()));
+                    converted[0] = true;
+                }
+            } finally {
+                releaseLock(connection);
+            }
+            return true;
+        });
+        return Boolean.TRUE.equals(locked) && converted[0];
+    }
+
+    private void runLocked(String task, Runnable work) {
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                if (!acquireLock(connection)) {
+                    log.debug("{} already running on another instance", task);
+                    return null;
+                }
+                try {
+                    work.run();
+                } finally {
+                    releaseLock(connection);
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.error("{} failed", task, e);
+        }
+    }
+
+    void maintain(YearMonth currentMonth) {
+        if (!addUpcomingPartitions(currentMonth)) {
+            return;
+        }
+        YearMonth horizon = currentMonth.minusMonths(properties.getRetentionMonths());
+        for (YearMonth month : listPartitionMonths()) {
+            if (month.isBefore(horizon)) {
+                archiveAndDrop(month);
+            }
+        }
+    }
+
+    /** Returns false, leaving the table alone, while it is not partitioned yet. */
+    private boolean addUpcomingPartitions(YearMonth currentMonth) {
+        List<YearMonth> partitions = listPartitionMonths();
+        if (partitions.isEmpty()) {
+            log.warn("{} is not partitioned; run POST /api/v1/admin/wallets/transactions/partition once", TABLE);
+            return false;
+        }
+        YearMonth lastNeeded = currentMonth.plusMonths(properties.getMonthsAhead());
+        if (partitions.getLast().isBefore(lastNeeded)) {
+            addPartitions(partitions.getLast().plusMonths(1), lastNeeded);
+        }
+        return true;
+    }
+
+    // Partition DDL
+
+    private void partitionTable(YearMonth currentMonth, YearMonth lastNeeded) {
+        LocalDateTime oldest = jdbcTemplate.queryForObject(
+                "SELECT MIN(created_at) FROM " + TABLE, LocalDateTime.class);
+        YearMonth first = oldest != null ? YearMonth.from(oldest) : currentMonth;
+
+        log.info("Partitioning {} by month from {} to {}", TABLE, first, lastNeeded);
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PRIMARY KEY, ADD PRIMARY KEY (id, created_at)");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " PARTITION BY RANGE COLUMNS(created_at) ("
+                + partitionDefinitions(first, lastNeeded) + ")");
+    }
+
+    private void addPartitions(YearMonth from, YearMonth to) {
+        log.info("Adding {} partitions {} to {}", TABLE, from, to);
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + MAX_PARTITION
+                + " INTO (" + partitionDefinitions(from, to) + ")");
+    }
+
+    static String partitionDefinitions(YearMonth from, YearMonth to) {
+        StringBuilder sql = new StringBuilder();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            sql.append("PARTITION ").append(partitionName(month))
+                    .append(" VALUES LESS THAN ('").append(month.plusMonths(1).atDay(1)).append("'), ");
+        }
+        return sql.append("PARTITION ").append(MAX_PARTITION).append(" VALUES LESS THAN (MAXVALUE)").toString();
+    }
+
+    static String partitionName(YearMonth month) {
+        return PARTITION_NAME.format(month);
+    }
+
+    private List<YearMonth> listPartitionMonths() {
+        List<String> names = jdbcTemplate.queryForList(
+                "SELECT PARTITION_NAME FROM information_schema.PARTITIONS "
+                        + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL "
+                        + "ORDER BY PARTITION_ORDINAL_POSITION",
+                String.class, TABLE);
+        List<YearMonth> months = new ArrayList<>(names.size());
+        for (String name : names) {
+            if (!MAX_PARTITION.equals(name)) {
+                months.add(YearMonth.parse(name, PARTITION_NAME));
+            }
+        }
+        return months;
+    }
+
+    // Archiving
+
+    private void archiveAndDrop(YearMonth month) {
+        String partition = partitionName(month);
+        Long liveRows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + TABLE + " PARTITION (" + partition + ")", Long.class);
+        long expected = liveRows != null ? liveRows : 0L;
+
+        WalletTransactionArchive archive = archiveRepository.findById(month.toString()).orElse(null);
+        if (archive == null) {
+            archive = writeArchive(month, partition, expected);
+        } else if (archive.getRowCount() != expected) {
+            log.error("Archive for {} has {} rows but partition {} has {}, not dropping",
+                    month, archive.getRowCount(), partition, expected);
+            return;
+        }
+
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PARTITION " + partition);
+        archive.setPartitionDropped(true);
+        archiveRepository.save(archive);
+        archiveReader.invalidate();
+        log.info("Archived and dropped partition {} ({} rows, {} bytes)",
+                partition, archive.getRowCount(), archive.getSizeBytes());
+    }
+
+    private WalletTransactionArchive writeArchive(YearMonth month, String partition, long expectedRows) {
+        String prefix = TABLE + "/" + month.getYear() + "/" + month;
+        String dataKey = prefix + ".ndjson.gz";
+        String indexKey = prefix + ".index.json.gz";
+
+        try (ArchiveFileWriter writer = new ArchiveFileWriter(month.toString(), objectMapper)) {
+            streamingJdbcTemplate.query(
+                    "SELECT id, wallet_id, user_id, type, amount, balance_before, balance_after, currency, "
+                            + "reference_id, description, status, created_at FROM " + TABLE
+                            + " PARTITION (" + partition + ") ORDER BY wallet_id, created_at DESC, id",
+                    rs -> {
+                        try {
+                            writer.append(mapRow(rs));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+            ArchiveIndex index = writer.finish();
+            if (index.rowCount() != expectedRows) {
+                throw new IllegalStateException("Archived " + index.rowCount() + " rows for " + month
+                        + " but partition " + partition + " has " + expectedRows);
+            }
+
+            storage.put(dataKey, writer.file());
+            storeIndex(indexKey, index);
+
+            return archiveRepository.save(WalletTransactionArchive.builder()
+                    .month(month.toString())
+                    .partitionName(partition)
+                    .dataKey(dataKey)
+                    .indexKey(indexKey)
+                    .rowCount(index.rowCount())
+                    .sizeBytes(writer.sizeBytes())
+                    .partitionDropped(false)
+                    .build());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to archive " + month, e);
+        }
+    }
+
+    private void storeIndex(String indexKey, ArchiveIndex index) throws IOException {
+        Path file = Files.createTempFile("wallet-tx-index-", ".json.gz");
+        try {
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+                objectMapper.writeValue(out, index);
+            }
+            storage.put(indexKey, file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static WalletTransactionResponse mapRow(ResultSet rs) throws SQLException {
+        return new WalletTransactionResponse(
+                uuid(rs, "id"),
+                uuid(rs, "wallet_id"),
+                uuid(rs, "user_id"),
+                WalletTransaction.TransactionType.valueOf(rs.getString("type")),
+                rs.getBigDecimal("amount"),
+                rs.getBigDecimal("balance_before"),
+                rs.getBigDecimal("balance_after"),
+                rs.getString("currency"),
+                rs.getString("reference_id"),
+                rs.getString("description"),
+                WalletTransaction.TransactionStatus.valueOf(rs.getString("status")),
+                rs.getObject("created_at", LocalDateTime.class));
+    }
+
+    private static UUID uuid(ResultSet rs, String column) throws SQLException {
+        byte[] bytes = rs.getBytes(column);
+        if (bytes == null) {
+            return null;
+        }
+        if (bytes.length == 16) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            return new UUID(buffer.getLong(), buffer.getLong());
+        }
+        return UUID.fromString(new String(bytes, StandardCharsets.US_ASCII));
+    }
+
+    // Cluster-wide lock
+
+    private boolean acquireLock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+            statement.setString(1, LOCK_NAME);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private void releaseLock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            statement.setString(1, LOCK_NAME);
+            statement.executeQuery().close();
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.finpay.wallet.wallet;
 
+import com.finpay.money.MinorUnits;
+import com.finpay.money.jpa.MinorUnitsConverter;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Embeddable;
 import lombok.*;
 
@@ -11,20 +14,23 @@ import java.time.LocalDate;
  * Value object that tracks daily and monthly spend totals with
  * automatic calendar-based resets.  Embedded inside {@link Wallet}
  * so the columns live in the same {@code wallets} table.
+ *
+ * Counters are held as long minor units; the BigDecimal accessors convert
+ * at the edges.
  */
 @Embeddable
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class SpendTracker {
 
-    @Column(nullable = false, precision = 19, scale = 4,
+    @Column(name = "daily_spent", nullable = false, precision = 19, scale = 4,
             columnDefinition = "DECIMAL(19,4) NOT NULL DEFAULT 0")
-    @Builder.Default
-    private BigDecimal dailySpent = BigDecimal.ZERO;
+    @Convert(converter = MinorUnitsConverter.class)
+    private long dailySpentMinor;
 
-    @Column(nullable = false, precision = 19, scale = 4,
+    @Column(name = "monthly_spent", nullable = false, precision = 19, scale = 4,
             columnDefinition = "DECIMAL(19,4) NOT NULL DEFAULT 0")
-    @Builder.Default
-    private BigDecimal monthlySpent = BigDecimal.ZERO;
+    @Convert(converter = MinorUnitsConverter.class)
+    private long monthlySpentMinor;
 
     @Column(nullable = false, columnDefinition = "DATE NOT NULL DEFAULT (CURRENT_DATE)")
     @Builder.Default
@@ -44,37 +50,69 @@ public class SpendTracker {
         LocalDate today = LocalDate.now();
 
         if (!today.equals(lastDailyReset)) {
-            this.dailySpent = BigDecimal.ZERO;
+            this.dailySpentMinor = 0;
             this.lastDailyReset = today;
         }
         if (today.getMonth() != lastMonthlyReset.getMonth()
                 || today.getYear() != lastMonthlyReset.getYear()) {
-            this.monthlySpent = BigDecimal.ZERO;
+            this.monthlySpentMinor = 0;
             this.lastMonthlyReset = today;
         }
     }
 
+    public BigDecimal getDailySpent() {
+        return MinorUnits.toDecimal(dailySpentMinor);
+    }
+
+    public void setDailySpent(BigDecimal dailySpent) {
+        this.dailySpentMinor = MinorUnits.of(dailySpent);
+    }
+
+    public BigDecimal getMonthlySpent() {
+        return MinorUnits.toDecimal(monthlySpentMinor);
+    }
+
+    public void setMonthlySpent(BigDecimal monthlySpent) {
+        this.monthlySpentMinor = MinorUnits.of(monthlySpent);
+    }
+
     // Remaining allowance queries
 
     public BigDecimal remainingDaily(BigDecimal dailyLimit) {
-        resetIfNeeded();
-        return dailyLimit.subtract(dailySpent).max(BigDecimal.ZERO);
+        return MinorUnits.toDecimal(remainingDailyMinor(MinorUnits.of(dailyLimit)));
     }
 
     public BigDecimal remainingMonthly(BigDecimal monthlyLimit) {
+        return MinorUnits.toDecimal(remainingMonthlyMinor(MinorUnits.of(monthlyLimit)));
+    }
+
+    public long remainingDailyMinor(long dailyLimitMinor) {
+        resetIfNeeded();
+        return Math.max(0, dailyLimitMinor - dailySpentMinor);
+    }
+
+    public long remainingMonthlyMinor(long monthlyLimitMinor) {
         resetIfNeeded();
-        return monthlyLimit.subtract(monthlySpent).max(BigDecimal.ZERO);
+        return Math.max(0, monthlyLimitMinor - monthlySpentMinor);
     }
 
     // Recording / rolling-back spend
 
     public void recordSpend(BigDecimal amount) {
-        this.dailySpent = this.dailySpent.add(amount);
-        this.monthlySpent = this.monthlySpent.add(amount);
+        recordSpend(MinorUnits.of(amount));
+    }
+
+    public void recordSpend(long amountMinor) {
+        this.dailySpentMinor = Math.addExact(dailySpentMinor, amountMinor);
+        this.monthlySpentMinor = Math.addExact(monthlySpentMinor, amountMinor);
     }
 
     public void rollbackSpend(BigDecimal amount) {
-        this.dailySpent = this.dailySpent.subtract(amount).max(BigDecimal.ZERO);
-        this.monthlySpent = this.monthlySpent.subtract(amount).max(BigDecimal.ZERO);
+        rollbackSpend(MinorUnits.of(amount));
+    }
+
+    public void rollbackSpend(long amountMinor) {
+        this.dailySpentMinor = Math.max(0, dailySpentMinor - amountMinor);
+        this.monthlySpentMinor = Math.max(0, monthlySpentMinor - amountMinor);
     }
 }
@@ -1,5 +1,8 @@
 package com.finpay.wallet.wallet;
 
+import com.finpay.id.hibernate.TimeOrderedId;
+import com.finpay.money.MinorUnits;
+import com.finpay.money.jpa.MinorUnitsConverter;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -13,17 +16,21 @@ import java.util.UUID;
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Wallet {
 
-    @Id @GeneratedValue(strategy = GenerationType.UUID)
+    @Id @TimeOrderedId
     private UUID id;
 
     @Column(nullable = false, unique = true)
     private UUID userId;
 
-    @Column(nullable = false, precision = 19, scale = 4)
-    private BigDecimal balance;
+    // Held as long minor units (see MinorUnits); the columns stay DECIMAL(19,4)
 
-    @Column(nullable = false, precision = 19, scale = 4)
-    private BigDecimal reservedBalance;
+    @Column(name = "balance", nullable = false, precision = 19, scale = 4)
+    @Convert(converter = MinorUnitsConverter.class)
+    private long balanceMinor;
+
+    @Column(name = "reserved_balance", nullable = false, precision = 19, scale = 4)
+    @Convert(converter = MinorUnitsConverter.class)
+    private long reservedBalanceMinor;
 
     @Column(nullable = false, length = 3)
     private String currency;
@@ -83,8 +90,28 @@ public class Wallet {
 
     // Balance helpers
 
+    public BigDecimal getBalance() {
+        return MinorUnits.toDecimal(balanceMinor);
+    }
+
+    public void setBalance(BigDecimal balance) {
+        this.balanceMinor = MinorUnits.of(balance);
+    }
+
+    public BigDecimal getReservedBalance() {
+        return MinorUnits.toDecimal(reservedBalanceMinor);
+    }
+
+    public void setReservedBalance(BigDecimal reservedBalance) {
+        this.reservedBalanceMinor = MinorUnits.of(reservedBalance);
+    }
+
+    public long getAvailableBalanceMinor() {
+        return balanceMinor - reservedBalanceMinor;
+    }
+
     public BigDecimal getAvailableBalance() {
-        return balance.subtract(reservedBalance);
+        return MinorUnits.toDecimal(getAvailableBalanceMinor());
     }
 
     // Spend-limit delegates
@@ -100,28 +127,56 @@ public class Wallet {
     // Funds operations
 
     public boolean reserveFunds(BigDecimal amount) {
-        if (getAvailableBalance().compareTo(amount) >= 0) {
-            this.reservedBalance = this.reservedBalance.add(amount);
-            spendTracker.recordSpend(amount);
+        return reserveFunds(MinorUnits.of(amount));
+    }
+
+    public boolean reserveFunds(long amountMinor) {
+        if (getAvailableBalanceMinor() >= amountMinor) {
+            this.reservedBalanceMinor = Math.addExact(reservedBalanceMinor, amountMinor);
+            spendTracker.recordSpend(amountMinor);
             return true;
         }
         return false;
     }
 
     public void releaseReservedFunds(BigDecimal amount) {
-        this.reservedBalance = this.reservedBalance.subtract(amount);
-        if (this.reservedBalance.compareTo(BigDecimal.ZERO) < 0) {
-            this.reservedBalance = BigDecimal.ZERO;
-        }
-        spendTracker.rollbackSpend(amount);
+        releaseReservedFunds(MinorUnits.of(amount));
+    }
+
+    public void releaseReservedFunds(long amountMinor) {
+        this.reservedBalanceMinor = Math.max(0, reservedBalanceMinor - amountMinor);
+        spendTracker.rollbackSpend(amountMinor);
     }
 
     public void deductReservedFunds(BigDecimal amount) {
-        this.reservedBalance = this.reservedBalance.subtract(amount);
-        this.balance = this.balance.subtract(amount);
+        deductReservedFunds(MinorUnits.of(amount));
+    }
+
+    public void deductReservedFunds(long amountMinor) {
+        this.reservedBalanceMinor -= amountMinor;
+        this.balanceMinor = Math.subtractExact(balanceMinor, amountMinor);
     }
 
     public void creditFunds(BigDecimal amount) {
-        this.balance = this.balance.add(amount);
+        creditFunds(MinorUnits.of(amount));
+    }
+
+    public void creditFunds(long amountMinor) {
+        this.balanceMinor = Math.addExact(balanceMinor, amountMinor);
+    }
+
+    /**
+     * Keeps {@code balance(BigDecimal)} on the builder alongside the generated
+     * minor-unit setters.
+     */
+    public static class WalletBuilder {
+
+        public WalletBuilder balance(BigDecimal balance) {
+            return balanceMinor(MinorUnits.of(balance));
+        }
+
+        public WalletBuilder reservedBalance(BigDecimal reservedBalance) {
+            return reservedBalanceMinor(MinorUnits.of(reservedBalance));
+        }
     }
 }
@@ -8,6 +8,7 @@ import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.util.Collection;
 import java.util.UUID;
 
 /**
@@ -55,4 +56,15 @@ public class WalletCacheService {
             log.debug("Failed to evict wallet cache for {}: {}", userId, e.getMessage());
         }
     }
+
+    public void evictWallets(Collection<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.delete(userIds.stream().map(userId -> WALLET_PREFIX + userId).toList());
+        } catch (Exception e) {
+            log.debug("Failed to evict {} wallet cache entries: {}", userIds.size(), e.getMessage());
+        }
+    }
 }
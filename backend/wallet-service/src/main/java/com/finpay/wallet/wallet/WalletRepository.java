@@ -9,6 +9,9 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import jakarta.persistence.LockModeType;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -26,9 +29,41 @@ public interface WalletRepository extends JpaRepository<Wallet, UUID> {
 
     boolean existsByUserId(UUID userId);
 
+    /**
+     * Reads a wallet's limits without loading (or locking) the entity.
+     */
+    Optional<WalletLimitView> findLimitsByUserId(UUID userId);
+
+    // Bulk operations
+
+    /**
+     * Resolves wallet ids for a set of users without loading full entities.
+     */
+    List<WalletIdView> findIdsByUserIdIn(Collection<UUID> userIds);
+
+    /**
+     * Locks a set of wallets in a single statement. Rows are locked in
+     * primary-key order so concurrent batches acquire locks consistently.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM Wallet w WHERE w.id IN :ids ORDER BY w.id")
+    List<Wallet> findAllByIdInForUpdate(@Param("ids") Collection<UUID> ids);
+
     // Admin query methods
 
     Page<Wallet> findByStatus(Wallet.WalletStatus status, Pageable pageable);
 
     long countByStatus(Wallet.WalletStatus status);
+
+    interface WalletLimitView {
+        String getCurrency();
+        BigDecimal getDailyTransactionLimit();
+        BigDecimal getMonthlyTransactionLimit();
+        Boolean getMultiCurrencyEnabled();
+    }
+
+    interface WalletIdView {
+        UUID getId();
+        UUID getUserId();
+    }
 }
@@ -1,5 +1,8 @@
 package com.finpay.wallet.wallet;
 
+import com.finpay.money.MinorUnits;
+import com.finpay.wallet.fx.FxConversion;
+import com.finpay.wallet.fx.FxRateService;
 import com.finpay.wallet.shared.exception.InsufficientFundsException;
 import com.finpay.wallet.shared.exception.ResourceNotFoundException;
 import com.finpay.wallet.shared.exception.TransactionLimitExceededException;
@@ -9,6 +12,9 @@ import com.finpay.wallet.transaction.WalletTransaction;
 import com.finpay.wallet.transaction.WalletTransactionService;
 import com.finpay.wallet.wallet.dto.WalletOperationResponse;
 import com.finpay.wallet.wallet.dto.WalletResponse;
+import com.finpay.wallet.wallet.hold.FundsHoldService;
+import com.finpay.wallet.wallet.hold.HoldSettlement;
+import com.finpay.wallet.wallet.limit.RollingSpendLimiter;
 import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -16,6 +22,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.UUID;
 
 @Service
@@ -28,6 +35,9 @@ public class WalletService {
     private final WalletTransactionService transactionService;
     private final WalletMapper walletMapper;
     private final WalletCacheService walletCacheService;
+    private final RollingSpendLimiter rollingSpendLimiter;
+    private final FundsHoldService fundsHoldService;
+    private final FxRateService fxRateService;
 
     private static final String DEFAULT_CURRENCY = "USD";
 
@@ -71,115 +81,186 @@ public class WalletService {
 
     @Observed(name = "wallet.reserve-funds", contextualName = "reserve-funds")
     public WalletOperationResponse reserveFunds(UUID userId, BigDecimal amount, String referenceId) {
+        return reserveFunds(userId, amount, null, referenceId);
+    }
+
+    /**
+     * Reserves {@code amount} given in {@code currency}; {@code null} means the
+     * wallet's own currency. Other currencies are converted with the in-memory
+     * FX table, so conversion adds no database or network round trip.
+     */
+    @Observed(name = "wallet.reserve-funds", contextualName = "reserve-funds")
+    public WalletOperationResponse reserveFunds(UUID userId, BigDecimal amount, String currency, String referenceId) {
+        return reserveFunds(userId, amount, currency, referenceId, null);
+    }
+
+    /**
+     * Reserves funds held for {@code holdFor}, the time the saga may still
+     * need to capture them; {@code null} uses the configured hold TTL.
+     */
+    @Observed(name = "wallet.reserve-funds", contextualName = "reserve-funds")
+    public WalletOperationResponse reserveFunds(UUID userId, BigDecimal amount, String currency, String referenceId,
+                                                Duration holdFor) {
+        // Rolling 24h / 30d limits are checked lock-free, before the wallet row is locked
+        boolean rollingLimits = rollingSpendLimiter.isEnabled();
+        if (rollingLimits) {
+            rollingSpendLimiter.consume(userId, amount, currency);
+        }
+
         Wallet wallet = getWalletForUpdate(userId);
         BigDecimal balanceBefore = wallet.getBalance();
 
         if (wallet.getStatus() != Wallet.WalletStatus.ACTIVE)
             throw new WalletException("Wallet is not active");
-        if (wallet.getAvailableBalance().compareTo(amount) < 0)
+        BigDecimal walletAmount = toWalletCurrency(wallet, amount, currency);
+        long amountMinor = toMinor(walletAmount);
+        if (wallet.getAvailableBalanceMinor() < amountMinor)
             throw new InsufficientFundsException("Insufficient funds. Available: " +
-                    wallet.getAvailableBalance() + ", Required: " + amount);
+                    wallet.getAvailableBalance() + ", Required: " + walletAmount);
 
-        // Enforce daily / monthly transaction limits
         SpendTracker tracker = wallet.getSpendTracker();
         tracker.resetIfNeeded();
 
-        BigDecimal remainingDaily = tracker.remainingDaily(wallet.getDailyTransactionLimit());
-        if (remainingDaily.compareTo(amount) < 0) {
-            throw new TransactionLimitExceededException(
-                    LimitType.DAILY,
-                    wallet.getDailyTransactionLimit(),
-                    tracker.getDailySpent(),
-                    amount);
-        }
+        // Enforce calendar daily / monthly transaction limits
+        if (!rollingLimits) {
+            if (tracker.remainingDailyMinor(MinorUnits.of(wallet.getDailyTransactionLimit())) < amountMinor) {
+                throw new TransactionLimitExceededException(
+                        LimitType.DAILY,
+                        wallet.getDailyTransactionLimit(),
+                        tracker.getDailySpent(),
+                        walletAmount);
+            }
 
-        BigDecimal remainingMonthly = tracker.remainingMonthly(wallet.getMonthlyTransactionLimit());
-        if (remainingMonthly.compareTo(amount) < 0) {
-            throw new TransactionLimitExceededException(
-                    LimitType.MONTHLY,
-                    wallet.getMonthlyTransactionLimit(),
-                    tracker.getMonthlySpent(),
-                    amount);
+            if (tracker.remainingMonthlyMinor(MinorUnits.of(wallet.getMonthlyTransactionLimit())) < amountMinor) {
+                throw new TransactionLimitExceededException(
+                        LimitType.MONTHLY,
+                        wallet.getMonthlyTransactionLimit(),
+                        tracker.getMonthlySpent(),
+                        walletAmount);
+            }
         }
 
         // Reserve (also increments spend counters)
-        boolean reserved = wallet.reserveFunds(amount);
+        boolean reserved = wallet.reserveFunds(amountMinor);
         if (reserved) {
             walletRepository.save(wallet);
+            fundsHoldService.placeHold(wallet, walletAmount, referenceId, holdFor);
             log.info("Reserved {} for user {} – daily {}/{}, monthly {}/{}",
-                    amount, userId,
+                    walletAmount, userId,
                     tracker.getDailySpent(), wallet.getDailyTransactionLimit(),
                     tracker.getMonthlySpent(), wallet.getMonthlyTransactionLimit());
             recordTransaction(wallet, WalletTransaction.TransactionType.RESERVE,
-                    amount, balanceBefore, wallet.getBalance(), referenceId, "Funds reserved for transfer");
+                    walletAmount, balanceBefore, wallet.getBalance(), referenceId, "Funds reserved for transfer");
             return WalletOperationResponse.success(wallet.getId(), userId, "RESERVE",
-                    amount, wallet.getBalance(), wallet.getAvailableBalance());
+                    walletAmount, wallet.getBalance(), wallet.getAvailableBalance());
         }
-        return WalletOperationResponse.failure(userId, "RESERVE", amount, "Failed to reserve funds");
+        rollingSpendLimiter.refund(userId, walletAmount);
+        return WalletOperationResponse.failure(userId, "RESERVE", walletAmount, "Failed to reserve funds");
     }
 
     public WalletOperationResponse releaseReservedFunds(UUID userId, BigDecimal amount, String referenceId) {
+        return releaseReservedFunds(userId, amount, null, referenceId);
+    }
+
+    public WalletOperationResponse releaseReservedFunds(UUID userId, BigDecimal amount, String currency,
+                                                        String referenceId) {
         Wallet wallet = getWalletForUpdate(userId);
+        HoldSettlement hold = fundsHoldService.releaseHold(userId, referenceId);
+        BigDecimal walletAmount = heldAmount(wallet, hold, amount, currency);
+        if (!hold.settleable()) {
+            // Already released when the hold expired
+            return WalletOperationResponse.success(wallet.getId(), userId, "RELEASE_RESERVE",
+                    walletAmount, wallet.getBalance(), wallet.getAvailableBalance());
+        }
         BigDecimal balanceBefore = wallet.getBalance();
-        wallet.releaseReservedFunds(amount);
+        wallet.releaseReservedFunds(toMinor(walletAmount));
         walletRepository.save(wallet);
+        rollingSpendLimiter.refund(userId, walletAmount);
         recordTransaction(wallet, WalletTransaction.TransactionType.RELEASE_RESERVE,
-                amount, balanceBefore, wallet.getBalance(), referenceId, "Reserved funds released");
+                walletAmount, balanceBefore, wallet.getBalance(), referenceId, "Reserved funds released");
         return WalletOperationResponse.success(wallet.getId(), userId, "RELEASE_RESERVE",
-                amount, wallet.getBalance(), wallet.getAvailableBalance());
+                walletAmount, wallet.getBalance(), wallet.getAvailableBalance());
     }
 
     @Observed(name = "wallet.deduct-funds", contextualName = "deduct-funds")
     public WalletOperationResponse deductFunds(UUID userId, BigDecimal amount, String referenceId) {
+        return deductFunds(userId, amount, null, referenceId);
+    }
+
+    @Observed(name = "wallet.deduct-funds", contextualName = "deduct-funds")
+    public WalletOperationResponse deductFunds(UUID userId, BigDecimal amount, String currency, String referenceId) {
         Wallet wallet = getWalletForUpdate(userId);
         BigDecimal balanceBefore = wallet.getBalance();
-        if (wallet.getReservedBalance().compareTo(amount) < 0)
+        HoldSettlement hold = fundsHoldService.captureHold(userId, referenceId);
+        if (!hold.settleable())
+            throw new WalletException("Reservation has expired or was released");
+        BigDecimal walletAmount = heldAmount(wallet, hold, amount, currency);
+        long amountMinor = toMinor(walletAmount);
+        if (wallet.getReservedBalanceMinor() < amountMinor)
             throw new WalletException("Reserved funds insufficient for deduction");
-        wallet.deductReservedFunds(amount);
+        wallet.deductReservedFunds(amountMinor);
         walletRepository.save(wallet);
         recordTransaction(wallet, WalletTransaction.TransactionType.DEBIT,
-                amount, balanceBefore, wallet.getBalance(), referenceId, "Funds deducted for transfer");
+                walletAmount, balanceBefore, wallet.getBalance(), referenceId, "Funds deducted for transfer");
         return WalletOperationResponse.success(wallet.getId(), userId, "DEBIT",
-                amount, wallet.getBalance(), wallet.getAvailableBalance());
+                walletAmount, wallet.getBalance(), wallet.getAvailableBalance());
     }
 
     @Observed(name = "wallet.credit-funds", contextualName = "credit-funds")
     public WalletOperationResponse creditFunds(UUID userId, BigDecimal amount, String referenceId) {
+        return creditFunds(userId, amount, null, referenceId);
+    }
+
+    @Observed(name = "wallet.credit-funds", contextualName = "credit-funds")
+    public WalletOperationResponse creditFunds(UUID userId, BigDecimal amount, String currency, String referenceId) {
         Wallet wallet = getWalletForUpdate(userId);
         BigDecimal balanceBefore = wallet.getBalance();
         if (wallet.getStatus() != Wallet.WalletStatus.ACTIVE)
             throw new WalletException("Recipient wallet is not active");
-        wallet.creditFunds(amount);
+        BigDecimal walletAmount = toWalletCurrency(wallet, amount, currency);
+        wallet.creditFunds(toMinor(walletAmount));
         walletRepository.save(wallet);
         recordTransaction(wallet, WalletTransaction.TransactionType.CREDIT,
-                amount, balanceBefore, wallet.getBalance(), referenceId, "Funds credited from transfer");
+                walletAmount, balanceBefore, wallet.getBalance(), referenceId, "Funds credited from transfer");
         return WalletOperationResponse.success(wallet.getId(), userId, "CREDIT",
-                amount, wallet.getBalance(), wallet.getAvailableBalance());
+                walletAmount, wallet.getBalance(), wallet.getAvailableBalance());
     }
 
     public WalletOperationResponse reverseCredit(UUID userId, BigDecimal amount, String referenceId) {
+        return reverseCredit(userId, amount, null, referenceId);
+    }
+
+    public WalletOperationResponse reverseCredit(UUID userId, BigDecimal amount, String currency, String referenceId) {
         Wallet wallet = getWalletForUpdate(userId);
         BigDecimal balanceBefore = wallet.getBalance();
-        if (wallet.getBalance().compareTo(amount) < 0)
-            return WalletOperationResponse.failure(userId, "REVERSE_CREDIT", amount,
+        BigDecimal walletAmount = toWalletCurrency(wallet, amount, currency);
+        long amountMinor = toMinor(walletAmount);
+        if (wallet.getBalanceMinor() < amountMinor)
+            return WalletOperationResponse.failure(userId, "REVERSE_CREDIT", walletAmount,
                     "Insufficient balance for reversal");
-        wallet.setBalance(wallet.getBalance().subtract(amount));
+        wallet.setBalanceMinor(wallet.getBalanceMinor() - amountMinor);
         walletRepository.save(wallet);
         recordTransaction(wallet, WalletTransaction.TransactionType.DEBIT,
-                amount, balanceBefore, wallet.getBalance(), referenceId, "Credit reversed - compensation");
+                walletAmount, balanceBefore, wallet.getBalance(), referenceId, "Credit reversed - compensation");
         return WalletOperationResponse.success(wallet.getId(), userId, "REVERSE_CREDIT",
-                amount, wallet.getBalance(), wallet.getAvailableBalance());
+                walletAmount, wallet.getBalance(), wallet.getAvailableBalance());
     }
 
     public WalletOperationResponse reverseDeduction(UUID userId, BigDecimal amount, String referenceId) {
+        return reverseDeduction(userId, amount, null, referenceId);
+    }
+
+    public WalletOperationResponse reverseDeduction(UUID userId, BigDecimal amount, String currency,
+                                                    String referenceId) {
         Wallet wallet = getWalletForUpdate(userId);
         BigDecimal balanceBefore = wallet.getBalance();
-        wallet.creditFunds(amount);
+        BigDecimal walletAmount = toWalletCurrency(wallet, amount, currency);
+        wallet.creditFunds(toMinor(walletAmount));
         walletRepository.save(wallet);
         recordTransaction(wallet, WalletTransaction.TransactionType.CREDIT,
-                amount, balanceBefore, wallet.getBalance(), referenceId, "Deduction reversed - compensation");
+                walletAmount, balanceBefore, wallet.getBalance(), referenceId, "Deduction reversed - compensation");
         return WalletOperationResponse.success(wallet.getId(), userId, "REVERSE_DEDUCTION",
-                amount, wallet.getBalance(), wallet.getAvailableBalance());
+                walletAmount, wallet.getBalance(), wallet.getAvailableBalance());
     }
 
     @Observed(name = "wallet.deposit", contextualName = "deposit-funds")
@@ -188,7 +269,7 @@ public class WalletService {
         BigDecimal balanceBefore = wallet.getBalance();
         if (wallet.getStatus() != Wallet.WalletStatus.ACTIVE)
             throw new WalletException("Wallet is not active");
-        wallet.creditFunds(amount);
+        wallet.creditFunds(toMinor(amount));
         walletRepository.save(wallet);
         recordTransaction(wallet, WalletTransaction.TransactionType.DEPOSIT,
                 amount, balanceBefore, wallet.getBalance(), referenceId,
@@ -203,10 +284,11 @@ public class WalletService {
         BigDecimal balanceBefore = wallet.getBalance();
         if (wallet.getStatus() != Wallet.WalletStatus.ACTIVE)
             throw new WalletException("Wallet is not active");
-        if (wallet.getAvailableBalance().compareTo(amount) < 0)
+        long amountMinor = toMinor(amount);
+        if (wallet.getAvailableBalanceMinor() < amountMinor)
             throw new InsufficientFundsException("Insufficient funds. Available: " +
                     wallet.getAvailableBalance() + ", Required: " + amount);
-        wallet.setBalance(wallet.getBalance().subtract(amount));
+        wallet.setBalanceMinor(wallet.getBalanceMinor() - amountMinor);
         walletRepository.save(wallet);
         recordTransaction(wallet, WalletTransaction.TransactionType.WITHDRAWAL,
                 amount, balanceBefore, wallet.getBalance(), referenceId,
@@ -271,6 +353,7 @@ public class WalletService {
         wallet.setApiAccessEnabled(config.apiAccessEnabled());
 
         walletRepository.save(wallet);
+        rollingSpendLimiter.invalidateLimits(userId);
         log.info("Upgraded wallet for user {} from {} to {} - daily limit: {}, monthly limit: {}",
                 userId, previousPlan, newPlan, config.dailyLimit(), config.monthlyLimit());
     }
@@ -356,6 +439,46 @@ public class WalletService {
         }
     }
 
+    // Currency conversion
+
+    /**
+     * Converts {@code amount} in {@code currency} into the wallet's currency.
+     * Amounts without a currency or already in the wallet's currency pass
+     * through, and so does everything for wallets that have not opted into
+     * multi-currency: those apply amounts as given, as they did before
+     * commands were converted.
+     */
+    private BigDecimal toWalletCurrency(Wallet wallet, BigDecimal amount, String currency) {
+        if (currency == null || currency.equalsIgnoreCase(wallet.getCurrency())
+                || !Boolean.TRUE.equals(wallet.getMultiCurrencyEnabled())) {
+            return amount;
+        }
+        FxConversion conversion = fxRateService.convert(amount, currency, wallet.getCurrency());
+        log.debug("Converted {} {} to {} {} at {}", amount, conversion.sourceCurrency(),
+                conversion.amount(), conversion.currency(), conversion.rate());
+        return conversion.amount();
+    }
+
+    /**
+     * Settles a foreign-currency reservation at the amount actually held, so
+     * rate moves since the reservation cannot leave funds stuck in reserve.
+     */
+    private BigDecimal heldAmount(Wallet wallet, HoldSettlement hold, BigDecimal amount, String currency) {
+        if (currency == null || currency.equalsIgnoreCase(wallet.getCurrency())) {
+            return amount;
+        }
+        return hold.heldAmount() != null ? hold.heldAmount() : toWalletCurrency(wallet, amount, currency);
+    }
+
+    private static long toMinor(BigDecimal amount) {
+        try {
+            return MinorUnits.of(amount);
+        } catch (ArithmeticException e) {
+            throw new WalletException("Amount " + amount.toPlainString() + " has more than "
+                    + MinorUnits.SCALE + " decimal places");
+        }
+    }
+
     private void recordTransaction(Wallet wallet, WalletTransaction.TransactionType type,
                                    BigDecimal amount, BigDecimal balanceBefore, BigDecimal balanceAfter,
                                    String referenceId, String description) {
@@ -0,0 +1,59 @@
+package com.finpay.wallet.wallet.hold;
+
+import com.finpay.id.hibernate.TimeOrderedId;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A reservation of wallet funds for an in-flight saga. The amount is counted
+ * in {@code Wallet.reservedBalance} while the hold is ACTIVE; a hold that is
+ * neither captured nor released before {@code expiresAt} is expired and its
+ * funds returned to the available balance.
+ */
+@Entity
+@Table(name = "wallet_fund_holds",
+        uniqueConstraints = @UniqueConstraint(name = "uk_fund_hold_user_reference",
+                columnNames = {"userId", "referenceId"}),
+        indexes = @Index(name = "idx_fund_hold_status_expires", columnList = "status, expiresAt"))
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class FundsHold {
+
+    @Id @TimeOrderedId
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID walletId;
+
+    @Column(nullable = false)
+    private UUID userId;
+
+    @Column(nullable = false)
+    private String referenceId;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal amount;
+
+    @Column(nullable = false, columnDefinition = "VARCHAR(20)") @Enumerated(EnumType.STRING)
+    private HoldStatus status;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    @Version
+    private Long version;
+
+    @CreationTimestamp @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    public enum HoldStatus { ACTIVE, CAPTURED, RELEASED, EXPIRED }
+}
@@ -0,0 +1,32 @@
+package com.finpay.wallet.wallet.hold;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "finpay.wallet.holds")
+public class FundsHoldProperties {
+
+    /**
+     * How long reserved funds stay held before they are released automatically,
+     * for reservations whose command does not say; saga reservations carry
+     * their own duration, derived from the saga's retry budget.
+     */
+    private Duration ttl = Duration.ofMinutes(30);
+
+    /** Timer wheel tick; expiry fires at most one tick late. */
+    private long tickMs = 1000;
+
+    /** Number of timer wheel buckets (rounded up to a power of two). */
+    private int wheelSize = 512;
+
+    /** Maximum number of expired holds released per transaction. */
+    private int batchSize = 200;
+
+    /** Interval of the database sweep for overdue holds missed by this instance's wheel. */
+    private long sweepIntervalMs = 300_000;
+}
@@ -0,0 +1,43 @@
+package com.finpay.wallet.wallet.hold;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface FundsHoldRepository extends JpaRepository<FundsHold, UUID> {
+
+    Optional<FundsHold> findByUserIdAndReferenceId(UUID userId, String referenceId);
+
+    List<FundsHold> findAllByIdInAndStatus(Collection<UUID> ids, FundsHold.HoldStatus status);
+
+    @Query("SELECT DISTINCT h.walletId FROM FundsHold h WHERE h.id IN :ids")
+    List<UUID> findWalletIdsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Keyset page of active holds, used to rebuild the in-memory timer wheel.
+     */
+    @Query("SELECT h.id AS id, h.expiresAt AS expiresAt FROM FundsHold h "
+            + "WHERE h.status = com.finpay.wallet.wallet.hold.FundsHold.HoldStatus.ACTIVE AND h.id > :after ORDER BY h.id")
+    List<HoldDeadline> findActiveAfter(@Param("after") UUID after, Pageable pageable);
+
+    /**
+     * Active holds already past their deadline, served by the (status, expiresAt) index.
+     */
+    @Query("SELECT h.id FROM FundsHold h "
+            + "WHERE h.status = com.finpay.wallet.wallet.hold.FundsHold.HoldStatus.ACTIVE AND h.expiresAt < :before")
+    List<UUID> findOverdueIds(@Param("before") Instant before, Pageable pageable);
+
+    interface HoldDeadline {
+        UUID getId();
+        Instant getExpiresAt();
+    }
+}
@@ -0,0 +1,289 @@
+package com.finpay.wallet.wallet.hold;
+
+import com.finpay.wallet.shared.exception.WalletException;
+import com.finpay.wallet.transaction.WalletTransaction;
+import com.finpay.wallet.transaction.WalletTransactionService;
+import com.finpay.wallet.wallet.Wallet;
+import com.finpay.wallet.wallet.WalletCacheService;
+import com.finpay.wallet.wallet.WalletRepository;
+import com.finpay.wallet.wallet.limit.RollingSpendLimiter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+/**
+ * Tracks reserved funds as holds with a TTL so that a saga which dies between
+ * RESERVE_FUNDS and DEDUCT/RELEASE cannot lock a wallet's balance forever.
+ *
+ * Active holds are scheduled in an in-memory {@link HashedTimerWheel}, rebuilt
+ * from the database at startup. Each tick only the holds due in that tick are
+ * touched; they are released in batches, one transaction per batch. Holds
+ * placed by another instance that dies are picked up by a low-frequency
+ * index-only sweep for overdue holds.
+ *
+ * Capture, release and expiry all lock the wallet row before checking the
+ * hold's status, so a hold is settled exactly once.
+ */
+@Service
+@Slf4j
+public class FundsHoldService {
+
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    private final FundsHoldRepository holdRepository;
+    private final WalletRepository walletRepository;
+    private final WalletTransactionService transactionService;
+    private final WalletCacheService walletCacheService;
+    private final RollingSpendLimiter rollingSpendLimiter;
+    private final TransactionTemplate transactionTemplate;
+    private final FundsHoldProperties properties;
+    private final LongSupplier clock;
+    private final HashedTimerWheel<UUID> wheel;
+
+    @Autowired
+    public FundsHoldService(FundsHoldRepository holdRepository,
+                            WalletRepository walletRepository,
+                            WalletTransactionService transactionService,
+                            WalletCacheService walletCacheService,
+                            RollingSpendLimiter rollingSpendLimiter,
+                            TransactionTemplate transactionTemplate,
+                            FundsHoldProperties properties) {
+        this(holdRepository, walletRepository, transactionService, walletCacheService, rollingSpendLimiter,
+                transactionTemplate, properties, System::currentTimeMillis);
+    }
+
+    FundsHoldService(FundsHoldRepository holdRepository,
+                     WalletRepository walletRepository,
+                     WalletTransactionService transactionService,
+                     WalletCacheService walletCacheService,
+                     RollingSpendLimiter rollingSpendLimiter,
+                     TransactionTemplate transactionTemplate,
+                     FundsHoldProperties properties,
+                     LongSupplier clock) {
+        this.holdRepository = holdRepository;
+        this.walletRepository = walletRepository;
+        this.transactionService = transactionService;
+        this.walletCacheService = walletCacheService;
+        this.rollingSpendLimiter = rollingSpendLimiter;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.clock = clock;
+        this.wheel = new HashedTimerWheel<>(properties.getTickMs(), properties.getWheelSize(), clock.getAsLong());
+    }
+
+    // Hold lifecycle, called with the wallet row locked
+
+    /**
+     * Records a hold for funds just reserved on {@code wallet}, held for
+     * {@code holdFor} or the configured TTL if {@code null}. The hold is
+     * scheduled for expiry once the surrounding transaction commits.
+     *
+     * A second reservation under the same reference adds to an active hold
+     * and never shortens it. A hold that was already captured, released or
+     * expired is final, so reserving under its reference again is refused.
+     */
+    public void placeHold(Wallet wallet, BigDecimal amount, String referenceId, Duration holdFor) {
+        if (referenceId == null) {
+            // Nothing could ever capture or release it by reference
+            return;
+        }
+        Instant expiresAt = Instant.ofEpochMilli(clock.getAsLong())
+                .plus(holdFor != null ? holdFor : properties.getTtl());
+        FundsHold hold = holdRepository.findByUserIdAndReferenceId(wallet.getUserId(), referenceId)
+                .map(existing -> {
+                    if (existing.getStatus() != FundsHold.HoldStatus.ACTIVE) {
+                        throw new WalletException("Funds hold for reference " + referenceId + " is already "
+                                + existing.getStatus());
+                    }
+                    existing.setAmount(existing.getAmount().add(amount));
+                    if (expiresAt.isAfter(existing.getExpiresAt())) {
+                        existing.setExpiresAt(expiresAt);
+                    }
+                    return existing;
+                })
+                .orElseGet(() -> FundsHold.builder()
+                        .walletId(wallet.getId())
+                        .userId(wallet.getUserId())
+                        .referenceId(referenceId)
+                        .amount(amount)
+                        .status(FundsHold.HoldStatus.ACTIVE)
+                        .expiresAt(expiresAt)
+                        .build());
+        FundsHold saved = holdRepository.save(hold);
+        long deadline = saved.getExpiresAt().toEpochMilli();
+        afterCommit(() -> wheel.schedule(saved.getId(), deadline));
+    }
+
+    /**
+     * Marks the hold captured by a deduction. The settlement is not settleable
+     * if the hold was already expired or released, i.e. the funds are no longer reserved.
+     */
+    public HoldSettlement captureHold(UUID userId, String referenceId) {
+        return settle(userId, referenceId, FundsHold.HoldStatus.CAPTURED);
+    }
+
+    /**
+     * Marks the hold released. If it was already settled the caller must not
+     * release the funds again.
+     */
+    public HoldSettlement releaseHold(UUID userId, String referenceId) {
+        return settle(userId, referenceId, FundsHold.HoldStatus.RELEASED);
+    }
+
+    private HoldSettlement settle(UUID userId, String referenceId, FundsHold.HoldStatus outcome) {
+        FundsHold hold = referenceId != null
+                ? holdRepository.findByUserIdAndReferenceId(userId, referenceId).orElse(null)
+                : null;
+        if (hold == null) {
+            // Untracked reservation, e.g. placed before holds existed
+            return HoldSettlement.untracked();
+        }
+        if (hold.getStatus() != FundsHold.HoldStatus.ACTIVE) {
+            log.warn("Hold {} for reference {} is already {}, cannot mark {}",
+                    hold.getId(), referenceId, hold.getStatus(), outcome);
+            return HoldSettlement.alreadySettled(hold.getAmount());
+        }
+        hold.setStatus(outcome);
+        holdRepository.save(hold);
+        UUID holdId = hold.getId();
+        afterCommit(() -> wheel.cancel(holdId));
+        return HoldSettlement.settled(hold.getAmount());
+    }
+
+    // Expiry
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        UUID after = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+        int scheduled = 0;
+        List<FundsHoldRepository.HoldDeadline> page;
+        do {
+            page = holdRepository.findActiveAfter(after, PageRequest.ofSize(REBUILD_PAGE_SIZE));
+            for (FundsHoldRepository.HoldDeadline hold : page) {
+                wheel.schedule(hold.getId(), hold.getExpiresAt().toEpochMilli());
+                after = hold.getId();
+            }
+            scheduled += page.size();
+        } while (page.size() == REBUILD_PAGE_SIZE);
+        log.info("Scheduled {} active fund holds for expiry", scheduled);
+    }
+
+    @Scheduled(fixedDelayString = "${finpay.wallet.holds.tick-ms:1000}")
+    public void expireDue() {
+        List<UUID> due = wheel.advance(clock.getAsLong());
+        if (!due.isEmpty()) {
+            expire(due);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${finpay.wallet.holds.sweep-interval-ms:300000}",
+            initialDelayString = "${finpay.wallet.holds.sweep-interval-ms:300000}")
+    public void sweepOverdue() {
+        // Allow a tick of slack so holds owned by a live wheel are left to it
+        Instant before = Instant.ofEpochMilli(clock.getAsLong() - properties.getTickMs() * 2);
+        List<UUID> overdue;
+        do {
+            overdue = holdRepository.findOverdueIds(before, PageRequest.ofSize(properties.getBatchSize()));
+            if (!overdue.isEmpty()) {
+                log.info("Sweeping {} overdue fund holds", overdue.size());
+                expire(overdue);
+            }
+        } while (overdue.size() == properties.getBatchSize());
+    }
+
+    int scheduledHolds() {
+        return wheel.size();
+    }
+
+    private void expire(List<UUID> holdIds) {
+        int batchSize = Math.max(1, properties.getBatchSize());
+        for (int from = 0; from < holdIds.size(); from += batchSize) {
+            List<UUID> batch = holdIds.subList(from, Math.min(from + batchSize, holdIds.size()));
+            try {
+                List<UUID> userIds = transactionTemplate.execute(status -> expireBatch(batch));
+                if (userIds != null && !userIds.isEmpty()) {
+                    walletCacheService.evictWallets(userIds);
+                    log.info("Expired {} fund holds", userIds.size());
+                }
+            } catch (Exception e) {
+                log.error("Failed to expire {} fund holds: {}", batch.size(), e.getMessage());
+                // Retry on a later tick
+                long retryAt = clock.getAsLong() + properties.getTickMs() * 10;
+                batch.forEach(id -> wheel.schedule(id, retryAt));
+            }
+        }
+    }
+
+    private List<UUID> expireBatch(List<UUID> holdIds) {
+        // Lock wallets first, in id order, then re-read holds so a concurrent
+        // capture or release that won the lock is observed
+        Map<UUID, Wallet> wallets = new HashMap<>();
+        walletRepository.findAllByIdInForUpdate(holdRepository.findWalletIdsByIdIn(holdIds))
+                .forEach(wallet -> wallets.put(wallet.getId(), wallet));
+        List<FundsHold> holds = holdRepository.findAllByIdInAndStatus(holdIds, FundsHold.HoldStatus.ACTIVE);
+
+        long now = clock.getAsLong();
+        List<UUID> userIds = new ArrayList<>(holds.size());
+        List<WalletTransaction> ledger = new ArrayList<>(holds.size());
+        for (FundsHold hold : holds) {
+            if (hold.getExpiresAt().toEpochMilli() > now) {
+                // Extended by a repeated reservation
+                afterCommit(() -> wheel.schedule(hold.getId(), hold.getExpiresAt().toEpochMilli()));
+                continue;
+            }
+            hold.setStatus(FundsHold.HoldStatus.EXPIRED);
+            Wallet wallet = wallets.get(hold.getWalletId());
+            if (wallet == null) {
+                continue;
+            }
+            BigDecimal balanceBefore = wallet.getBalance();
+            wallet.releaseReservedFunds(hold.getAmount());
+            ledger.add(WalletTransaction.builder()
+                    .walletId(wallet.getId()).userId(wallet.getUserId())
+                    .type(WalletTransaction.TransactionType.RELEASE_RESERVE)
+                    .amount(hold.getAmount()).balanceBefore(balanceBefore).balanceAfter(wallet.getBalance())
+                    .currency(wallet.getCurrency()).referenceId(hold.getReferenceId())
+                    .description("Reservation expired")
+                    .status(WalletTransaction.TransactionStatus.COMPLETED).build());
+            rollingSpendLimiter.refund(wallet.getUserId(), hold.getAmount());
+            userIds.add(wallet.getUserId());
+        }
+
+        holdRepository.saveAll(holds);
+        if (!ledger.isEmpty()) {
+            walletRepository.saveAll(wallets.values());
+            transactionService.recordTransactions(ledger);
+        }
+        return userIds;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
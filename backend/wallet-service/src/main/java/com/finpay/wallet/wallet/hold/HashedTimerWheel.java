@@ -0,0 +1,119 @@
+package com.finpay.wallet.wallet.hold;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hashed timer wheel with O(1) schedule and cancel.
+ *
+ * Deadlines are rounded up to whole ticks and hashed into
+ * {@code tick & mask}; each bucket is an intrusive doubly-linked list, and a
+ * key map lets cancellation unlink an entry without searching. Deadlines
+ * further out than one revolution share a bucket with nearer ones and are
+ * skipped until their absolute tick is reached. Callers drive the wheel with
+ * {@link #advance(long)}.
+ */
+public class HashedTimerWheel<K> {
+
+    private final long tickMs;
+    private final Entry<K>[] buckets;
+    private final int mask;
+    private final Map<K, Entry<K>> entries = new HashMap<>();
+    private long nextTick;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimerWheel(long tickMs, int wheelSize, long nowMillis) {
+        if (tickMs <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("tickMs and wheelSize must be positive");
+        }
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.tickMs = tickMs;
+        this.buckets = new Entry[size];
+        this.mask = size - 1;
+        this.nextTick = nowMillis / tickMs;
+    }
+
+    private static final class Entry<K> {
+        private final K key;
+        private final long tick;
+        private Entry<K> prev;
+        private Entry<K> next;
+
+        private Entry(K key, long tick) {
+            this.key = key;
+            this.tick = tick;
+        }
+    }
+
+    /**
+     * Schedules {@code key} to expire at {@code deadlineMillis}, replacing any earlier schedule.
+     */
+    public synchronized void schedule(K key, long deadlineMillis) {
+        remove(entries.get(key));
+        long tick = Math.max(Math.ceilDiv(deadlineMillis, tickMs), nextTick);
+        Entry<K> entry = new Entry<>(key, tick);
+        int index = (int) (tick & mask);
+        entry.next = buckets[index];
+        if (entry.next != null) {
+            entry.next.prev = entry;
+        }
+        buckets[index] = entry;
+        entries.put(key, entry);
+    }
+
+    public synchronized boolean cancel(K key) {
+        Entry<K> entry = entries.get(key);
+        remove(entry);
+        return entry != null;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Moves the wheel forward to {@code nowMillis} and returns the keys whose
+     * deadline has passed. Only buckets for elapsed ticks are visited, at most
+     * one full revolution per call.
+     */
+    public synchronized List<K> advance(long nowMillis) {
+        long target = nowMillis / tickMs;
+        if (target < nextTick) {
+            return List.of();
+        }
+        List<K> expired = new ArrayList<>();
+        long last = Math.min(target, nextTick + buckets.length - 1);
+        for (long tick = nextTick; tick <= last; tick++) {
+            Entry<K> entry = buckets[(int) (tick & mask)];
+            while (entry != null) {
+                Entry<K> next = entry.next;
+                if (entry.tick <= target) {
+                    remove(entry);
+                    expired.add(entry.key);
+                }
+                entry = next;
+            }
+        }
+        nextTick = target + 1;
+        return expired;
+    }
+
+    private void remove(Entry<K> entry) {
+        if (entry == null) {
+            return;
+        }
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            buckets[(int) (entry.tick & mask)] = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+        entries.remove(entry.key);
+    }
+}
@@ -0,0 +1,26 @@
+package com.finpay.wallet.wallet.hold;
+
+import java.math.BigDecimal;
+
+/**
+ * Outcome of capturing or releasing a hold.
+ *
+ * @param settleable  {@code false} if the hold was already expired or released,
+ *                    i.e. its funds are no longer reserved
+ * @param heldAmount  amount held in the wallet's currency, or {@code null} for
+ *                    reservations that were not tracked as holds
+ */
+public record HoldSettlement(boolean settleable, BigDecimal heldAmount) {
+
+    public static HoldSettlement untracked() {
+        return new HoldSettlement(true, null);
+    }
+
+    public static HoldSettlement alreadySettled(BigDecimal heldAmount) {
+        return new HoldSettlement(false, heldAmount);
+    }
+
+    public static HoldSettlement settled(BigDecimal heldAmount) {
+        return new HoldSettlement(true, heldAmount);
+    }
+}
@@ -0,0 +1,91 @@
+package com.finpay.wallet.wallet.limit;
+
+import com.finpay.wallet.shared.exception.TransactionLimitExceededException.LimitType;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-instance window store. Check-and-consume is optimistic: the amount is
+ * added first and backed out if either window then exceeds its limit, so
+ * concurrent reservations can never jointly overshoot a limit.
+ *
+ * Each instance only sees its own reservations, so with more than one
+ * wallet-service instance the effective limit is multiplied; use
+ * {@link RedisSpendWindowStore} there.
+ */
+public class InMemorySpendWindowStore implements SpendWindowStore {
+
+    private final int hourBuckets;
+    private final int dayBuckets;
+    private final Map<UUID, Windows> windows = new ConcurrentHashMap<>();
+
+    public InMemorySpendWindowStore(int hourBuckets, int dayBuckets) {
+        this.hourBuckets = hourBuckets;
+        this.dayBuckets = dayBuckets;
+    }
+
+    private record Windows(RollingSpendWindow hourly, RollingSpendWindow daily) {}
+
+    @Override
+    public LimitCheck tryConsume(UUID userId, long amount, long hourBucket, long dayBucket,
+                                 long dailyLimit, long monthlyLimit) {
+        Windows w = windows.get(userId);
+        if (w == null) {
+            return LimitCheck.notLoaded();
+        }
+        w.hourly.add(hourBucket, amount);
+        w.daily.add(dayBucket, amount);
+
+        long shortTotal = w.hourly.sum(hourBucket);
+        long longTotal = w.daily.sum(dayBucket);
+        if (shortTotal > dailyLimit || longTotal > monthlyLimit) {
+            w.hourly.add(hourBucket, -amount);
+            w.daily.add(dayBucket, -amount);
+            return shortTotal > dailyLimit
+                    ? LimitCheck.rejected(LimitType.ROLLING_DAILY, shortTotal - amount)
+                    : LimitCheck.rejected(LimitType.ROLLING_MONTHLY, longTotal - amount);
+        }
+        return LimitCheck.allowed();
+    }
+
+    @Override
+    public void refund(UUID userId, long amount, long hourBucket, long dayBucket) {
+        Windows w = windows.get(userId);
+        if (w != null) {
+            w.hourly.refund(hourBucket, amount);
+            w.daily.refund(dayBucket, amount);
+        }
+    }
+
+    @Override
+    public void merge(UUID userId, Map<Long, Long> hourly, Map<Long, Long> daily, long openHour, long openDay) {
+        Windows w = windows.computeIfAbsent(userId, id ->
+                new Windows(new RollingSpendWindow(hourBuckets), new RollingSpendWindow(dayBuckets)));
+        merge(w.hourly, hourly, openHour, hourBuckets);
+        merge(w.daily, daily, openDay, dayBuckets);
+    }
+
+    private static void merge(RollingSpendWindow window, Map<Long, Long> ledger, long open, int size) {
+        for (long bucket = open - size + 1; bucket < open; bucket++) {
+            window.set(bucket, ledger.getOrDefault(bucket, 0L));
+        }
+        ledger.forEach((bucket, amount) -> {
+            if (bucket >= open) {
+                window.mergeMax(bucket, amount);
+            }
+        });
+    }
+
+    @Override
+    public Set<UUID> activeUsers() {
+        return Set.copyOf(windows.keySet());
+    }
+
+    @Override
+    public void evictIdle(long hourBucket, long dayBucket) {
+        windows.entrySet().removeIf(e -> e.getValue().daily.sum(dayBucket) <= 0);
+    }
+}
@@ -0,0 +1,24 @@
+package com.finpay.wallet.wallet.limit;
+
+import com.finpay.wallet.shared.exception.TransactionLimitExceededException.LimitType;
+
+/**
+ * Outcome of a rolling-window limit check. {@code spent} is the window total
+ * (minor units) before the attempted amount when a limit was hit.
+ */
+public record LimitCheck(Outcome outcome, LimitType violated, long spent) {
+
+    public enum Outcome { ALLOWED, REJECTED, NOT_LOADED }
+
+    public static LimitCheck allowed() {
+        return new LimitCheck(Outcome.ALLOWED, null, 0);
+    }
+
+    public static LimitCheck rejected(LimitType violated, long spent) {
+        return new LimitCheck(Outcome.REJECTED, violated, spent);
+    }
+
+    public static LimitCheck notLoaded() {
+        return new LimitCheck(Outcome.NOT_LOADED, null, 0);
+    }
+}
@@ -0,0 +1,187 @@
+package com.finpay.wallet.wallet.limit;
+
+import com.finpay.wallet.shared.exception.TransactionLimitExceededException.LimitType;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Redis-backed window store shared by all wallet-service instances.
+ *
+ * Each wallet has two hashes (hour bucket -> amount, day bucket -> amount) and
+ * a marker key that is present once the windows were hydrated from the ledger.
+ * Check-and-consume runs as a single Lua script, so it is atomic across
+ * instances without any database lock.
+ */
+public class RedisSpendWindowStore implements SpendWindowStore {
+
+    private static final String PREFIX = "wallet:spend:";
+
+    private static final String WINDOW_SUM = """
+            local function window_sum(key, current, size)
+              local sum = 0
+              for b = current - size + 1, current do
+                local v = redis.call('HGET', key, tostring(b))
+                if v then sum = sum + tonumber(v) end
+              end
+              return sum
+            end
+            """;
+
+    private static final DefaultRedisScript<List> CONSUME = new DefaultRedisScript<>(WINDOW_SUM + """
+            if redis.call('EXISTS', KEYS[3]) == 0 then return {-1, 0} end
+            local amount = tonumber(ARGV[1])
+            local hour, hours, dailyLimit = tonumber(ARGV[2]), tonumber(ARGV[3]), tonumber(ARGV[4])
+            local day, days, monthlyLimit = tonumber(ARGV[5]), tonumber(ARGV[6]), tonumber(ARGV[7])
+            local shortTotal = window_sum(KEYS[1], hour, hours)
+            if shortTotal + amount > dailyLimit then return {1, shortTotal} end
+            local longTotal = window_sum(KEYS[2], day, days)
+            if longTotal + amount > monthlyLimit then return {2, longTotal} end
+            redis.call('HINCRBY', KEYS[1], tostring(hour), amount)
+            redis.call('HINCRBY', KEYS[2], tostring(day), amount)
+            redis.call('HDEL', KEYS[1], tostring(hour - hours))
+            redis.call('HDEL', KEYS[2], tostring(day - days))
+            redis.call('PEXPIRE', KEYS[1], ARGV[8])
+            redis.call('PEXPIRE', KEYS[2], ARGV[8])
+            redis.call('PEXPIRE', KEYS[3], ARGV[8])
+            return {0, 0}
+            """, List.class);
+
+    private static final DefaultRedisScript<Long> REFUND = new DefaultRedisScript<>("""
+            local function refund(key, current, size, amount)
+              local remaining = amount
+              for b = current, current - size + 1, -1 do
+                if remaining <= 0 then break end
+                local v = redis.call('HGET', key, tostring(b))
+                if v and tonumber(v) > 0 then
+                  local taken = math.min(tonumber(v), remaining)
+                  redis.call('HINCRBY', key, tostring(b), -taken)
+                  remaining = remaining - taken
+                end
+              end
+            end
+            local amount = tonumber(ARGV[1])
+            refund(KEYS[1], tonumber(ARGV[2]), tonumber(ARGV[3]), amount)
+            refund(KEYS[2], tonumber(ARGV[4]), tonumber(ARGV[5]), amount)
+            return 0
+            """, Long.class);
+
+    private static final DefaultRedisScript<Long> MERGE = new DefaultRedisScript<>("""
+            local function merge(key, open, size, base)
+              local count = tonumber(ARGV[base])
+              local ledger = {}
+              for i = 1, count do
+                ledger[tonumber(ARGV[base + i * 2 - 1])] = tonumber(ARGV[base + i * 2])
+              end
+              for b = open - size + 1, open - 1 do
+                local v = ledger[b]
+                if v and v > 0 then
+                  redis.call('HSET', key, tostring(b), v)
+                else
+                  redis.call('HDEL', key, tostring(b))
+                end
+              end
+              for b, v in pairs(ledger) do
+                if b >= open then
+                  local cur = tonumber(redis.call('HGET', key, tostring(b)) or '0')
+                  if v > cur then redis.call('HSET', key, tostring(b), v) end
+                end
+              end
+              return base + count * 2 + 1
+            end
+            local next = merge(KEYS[1], tonumber(ARGV[2]), tonumber(ARGV[3]), 6)
+            merge(KEYS[2], tonumber(ARGV[4]), tonumber(ARGV[5]), next)
+            redis.call('SET', KEYS[3], '1', 'PX', ARGV[1])
+            redis.call('PEXPIRE', KEYS[1], ARGV[1])
+            redis.call('PEXPIRE', KEYS[2], ARGV[1])
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final int hourBuckets;
+    private final int dayBuckets;
+    private final String ttlMs;
+    private final Set<UUID> activeUsers = ConcurrentHashMap.newKeySet();
+
+    public RedisSpendWindowStore(StringRedisTemplate redisTemplate, int hourBuckets, int dayBuckets) {
+        this.redisTemplate = redisTemplate;
+        this.hourBuckets = hourBuckets;
+        this.dayBuckets = dayBuckets;
+        this.ttlMs = String.valueOf(Duration.ofDays(dayBuckets + 1L).toMillis());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public LimitCheck tryConsume(UUID userId, long amount, long hourBucket, long dayBucket,
+                                 long dailyLimit, long monthlyLimit) {
+        List<Long> result = redisTemplate.execute(CONSUME, keys(userId),
+                String.valueOf(amount),
+                String.valueOf(hourBucket), String.valueOf(hourBuckets), String.valueOf(dailyLimit),
+                String.valueOf(dayBucket), String.valueOf(dayBuckets), String.valueOf(monthlyLimit),
+                ttlMs);
+        long code = result.get(0);
+        if (code == -1) {
+            return LimitCheck.notLoaded();
+        }
+        activeUsers.add(userId);
+        if (code == 1) {
+            return LimitCheck.rejected(LimitType.ROLLING_DAILY, result.get(1));
+        }
+        if (code == 2) {
+            return LimitCheck.rejected(LimitType.ROLLING_MONTHLY, result.get(1));
+        }
+        return LimitCheck.allowed();
+    }
+
+    @Override
+    public void refund(UUID userId, long amount, long hourBucket, long dayBucket) {
+        redisTemplate.execute(REFUND, keys(userId), String.valueOf(amount),
+                String.valueOf(hourBucket), String.valueOf(hourBuckets),
+                String.valueOf(dayBucket), String.valueOf(dayBuckets));
+    }
+
+    @Override
+    public void merge(UUID userId, Map<Long, Long> hourly, Map<Long, Long> daily, long openHour, long openDay) {
+        List<String> args = new ArrayList<>(7 + (hourly.size() + daily.size()) * 2);
+        args.add(ttlMs);
+        args.add(String.valueOf(openHour));
+        args.add(String.valueOf(hourBuckets));
+        args.add(String.valueOf(openDay));
+        args.add(String.valueOf(dayBuckets));
+        args.add(String.valueOf(hourly.size()));
+        hourly.forEach((bucket, amount) -> {
+            args.add(String.valueOf(bucket));
+            args.add(String.valueOf(amount));
+        });
+        args.add(String.valueOf(daily.size()));
+        daily.forEach((bucket, amount) -> {
+            args.add(String.valueOf(bucket));
+            args.add(String.valueOf(amount));
+        });
+        redisTemplate.execute(MERGE, keys(userId), args.toArray());
+        activeUsers.add(userId);
+    }
+
+    @Override
+    public Set<UUID> activeUsers() {
+        return Set.copyOf(activeUsers);
+    }
+
+    @Override
+    public void evictIdle(long hourBucket, long dayBucket) {
+        // Redis keys expire on their own; only forget which wallets this instance reconciles
+        activeUsers.clear();
+    }
+
+    private List<String> keys(UUID userId) {
+        String base = PREFIX + userId;
+        return List.of(base + ":hours", base + ":days", base + ":loaded");
+    }
+}
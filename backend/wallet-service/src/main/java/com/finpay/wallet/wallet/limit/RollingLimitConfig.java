@@ -0,0 +1,26 @@
+package com.finpay.wallet.wallet.limit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+@Configuration(proxyBeanMethods = false)
+@Slf4j
+public class RollingLimitConfig {
+
+    @Bean
+    SpendWindowStore spendWindowStore(RollingLimitProperties properties,
+                                      ObjectProvider<StringRedisTemplate> redisTemplate) {
+        if (properties.getStore() == RollingLimitProperties.Store.REDIS) {
+            return new RedisSpendWindowStore(redisTemplate.getObject(),
+                    properties.getHourBuckets(), properties.getDayBuckets());
+        }
+        if (properties.isEnabled()) {
+            log.warn("Rolling spend limits use the in-memory store: limits are per instance, "
+                    + "so every wallet-service replica allows the full limit");
+        }
+        return new InMemorySpendWindowStore(properties.getHourBuckets(), properties.getDayBuckets());
+    }
+}
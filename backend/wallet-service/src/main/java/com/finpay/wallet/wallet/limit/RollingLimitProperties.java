@@ -0,0 +1,48 @@
+package com.finpay.wallet.wallet.limit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the rolling-window spend-limit engine.
+ *
+ * When enabled, the wallet's daily and monthly limits are enforced over a
+ * rolling 24 hours and 30 days instead of calendar periods.
+ *
+ * finpay:
+ *   wallet:
+ *     limits:
+ *       rolling:
+ *         enabled: true
+ *         store: redis
+ */
+@ConfigurationProperties(prefix = "finpay.wallet.limits.rolling")
+@Getter
+@Setter
+public class RollingLimitProperties {
+
+    /** Enables rolling-window limits in {@code WalletService.reserveFunds}. */
+    private boolean enabled = false;
+
+    /**
+     * Where window counters live: {@code redis} (shared) or {@code memory}.
+     * The memory store is per instance, so each replica allows the full limit;
+     * use it only for a single instance or tests.
+     */
+    private Store store = Store.REDIS;
+
+    /** Number of hourly buckets in the short window. */
+    private int hourBuckets = 24;
+
+    /** Number of daily buckets in the long window. */
+    private int dayBuckets = 30;
+
+    /** Delay between reconciliations of in-use windows against the ledger (ms). */
+    private long reconcileIntervalMs = 300_000;
+
+    /** How long wallet limits are cached before being re-read (ms). */
+    private long limitCacheTtlMs = 300_000;
+
+    public enum Store { MEMORY, REDIS }
+}
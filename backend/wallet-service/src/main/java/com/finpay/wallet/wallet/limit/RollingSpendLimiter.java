@@ -0,0 +1,280 @@
+package com.finpay.wallet.wallet.limit;
+
+import com.finpay.wallet.fx.FxRateService;
+import com.finpay.wallet.shared.exception.TransactionLimitExceededException;
+import com.finpay.wallet.shared.exception.TransactionLimitExceededException.LimitType;
+import com.finpay.wallet.transaction.WalletTransaction;
+import com.finpay.wallet.transaction.WalletTransactionRepository.SpendEntry;
+import com.finpay.wallet.transaction.WalletTransactionService;
+import com.finpay.wallet.wallet.WalletRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+/**
+ * Rolling 24h / 30d spend limits backed by bucketed counters.
+ *
+ * Replaces the calendar resets of {@code SpendTracker} when enabled: the
+ * wallet's daily limit applies to the last 24 hourly buckets and its monthly
+ * limit to the last 30 daily buckets, so spend cannot be doubled up across
+ * midnight or month end. The check runs against {@link SpendWindowStore}
+ * without touching the wallet row, so over-limit requests are rejected
+ * before the wallet lock is taken. Foreign-currency amounts are converted
+ * with the in-memory FX table for multi-currency wallets, as WalletService does.
+ *
+ * Windows are hydrated from RESERVE / RELEASE_RESERVE ledger rows on first
+ * use and periodically reconciled against the ledger. Spend consumed by a
+ * transaction that later rolls back is given back automatically.
+ *
+ * Bucket ids are hours and days since the epoch in UTC. Ledger timestamps are
+ * {@link LocalDateTime}s written in {@code ledgerZone}, the JVM zone Hibernate
+ * uses, and are converted to instants in that zone before bucketing.
+ */
+@Service
+@Slf4j
+public class RollingSpendLimiter {
+
+    static final long HOUR_MS = Duration.ofHours(1).toMillis();
+    static final long DAY_MS = Duration.ofDays(1).toMillis();
+
+    /** Counters are kept in ten-thousandths, the ledger's scale. */
+    private static final int MINOR_SCALE = 4;
+    private static final int RECONCILE_BATCH_SIZE = 500;
+    /** Buckets this recent may still hold reservations whose transaction has not committed. */
+    private static final long OPEN_BUCKET_GRACE_MS = Duration.ofMinutes(5).toMillis();
+    private static final List<WalletTransaction.TransactionType> SPEND_TYPES = List.of(
+            WalletTransaction.TransactionType.RESERVE, WalletTransaction.TransactionType.RELEASE_RESERVE);
+
+    private final RollingLimitProperties properties;
+    private final WalletRepository walletRepository;
+    private final WalletTransactionService transactionService;
+    private final SpendWindowStore store;
+    private final FxRateService fxRateService;
+    private final LongSupplier clock;
+    private final ZoneId ledgerZone;
+    private final Cache<UUID, Limits> limits;
+
+    @Autowired
+    public RollingSpendLimiter(RollingLimitProperties properties,
+                               WalletRepository walletRepository,
+                               WalletTransactionService transactionService,
+                               SpendWindowStore store,
+                               FxRateService fxRateService) {
+        this(properties, walletRepository, transactionService, store, fxRateService,
+                System::currentTimeMillis, ZoneId.systemDefault());
+    }
+
+    RollingSpendLimiter(RollingLimitProperties properties,
+                        WalletRepository walletRepository,
+                        WalletTransactionService transactionService,
+                        SpendWindowStore store,
+                        FxRateService fxRateService,
+                        LongSupplier clock,
+                        ZoneId ledgerZone) {
+        this.properties = properties;
+        this.walletRepository = walletRepository;
+        this.transactionService = transactionService;
+        this.store = store;
+        this.fxRateService = fxRateService;
+        this.clock = clock;
+        this.ledgerZone = ledgerZone;
+        this.limits = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(properties.getLimitCacheTtlMs()))
+                .maximumSize(100_000)
+                .build();
+    }
+
+    private record Limits(String currency, boolean multiCurrency, BigDecimal daily, BigDecimal monthly,
+                          long dailyMinor, long monthlyMinor) {}
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Consumes {@code amount} from the user's rolling windows or throws
+     * {@link TransactionLimitExceededException}. If the surrounding
+     * transaction rolls back, the amount is returned to the windows.
+     */
+    public void consume(UUID userId, BigDecimal amount) {
+        consume(userId, amount, null);
+    }
+
+    /**
+     * Like {@link #consume(UUID, BigDecimal)} for an amount given in
+     * {@code currency}; {@code null} means the wallet's own currency.
+     */
+    public void consume(UUID userId, BigDecimal amount, String currency) {
+        Limits walletLimits = limitsFor(userId);
+        if (walletLimits == null) {
+            // Unknown wallet - the locked path reports it
+            return;
+        }
+        BigDecimal walletAmount = currency == null || currency.equalsIgnoreCase(walletLimits.currency())
+                || !walletLimits.multiCurrency()
+                ? amount
+                : fxRateService.convert(amount, currency, walletLimits.currency()).amount();
+        long minor = toMinor(walletAmount);
+        long now = clock.getAsLong();
+        long hour = now / HOUR_MS;
+        long day = now / DAY_MS;
+
+        LimitCheck check = store.tryConsume(userId, minor, hour, day,
+                walletLimits.dailyMinor(), walletLimits.monthlyMinor());
+        if (check.outcome() == LimitCheck.Outcome.NOT_LOADED) {
+            hydrate(List.of(userId));
+            check = store.tryConsume(userId, minor, hour, day,
+                    walletLimits.dailyMinor(), walletLimits.monthlyMinor());
+        }
+
+        if (check.outcome() == LimitCheck.Outcome.REJECTED) {
+            BigDecimal limit = check.violated() == LimitType.ROLLING_DAILY ? walletLimits.daily() : walletLimits.monthly();
+            throw new TransactionLimitExceededException(check.violated(), limit, fromMinor(check.spent()), walletAmount);
+        }
+        if (check.outcome() == LimitCheck.Outcome.NOT_LOADED) {
+            log.warn("Rolling spend window for user {} could not be loaded, skipping check", userId);
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        store.refund(userId, minor, hour, day);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns released spend to the windows once the surrounding transaction commits.
+     */
+    public void refund(UUID userId, BigDecimal amount) {
+        if (!isEnabled()) {
+            return;
+        }
+        long minor = toMinor(amount);
+        Runnable refund = () -> {
+            long now = clock.getAsLong();
+            store.refund(userId, minor, now / HOUR_MS, now / DAY_MS);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refund.run();
+                }
+            });
+        } else {
+            refund.run();
+        }
+    }
+
+    public void invalidateLimits(UUID userId) {
+        limits.invalidate(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${finpay.wallet.limits.rolling.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        if (!isEnabled()) {
+            return;
+        }
+        List<UUID> users = new ArrayList<>(store.activeUsers());
+        for (int from = 0; from < users.size(); from += RECONCILE_BATCH_SIZE) {
+            try {
+                hydrate(users.subList(from, Math.min(from + RECONCILE_BATCH_SIZE, users.size())));
+            } catch (Exception e) {
+                log.warn("Failed to reconcile rolling spend windows: {}", e.getMessage());
+            }
+        }
+        long now = clock.getAsLong();
+        store.evictIdle(now / HOUR_MS, now / DAY_MS);
+        log.debug("Reconciled rolling spend windows for {} wallets", users.size());
+    }
+
+    // Ledger hydration
+
+    private void hydrate(List<UUID> userIds) {
+        long now = clock.getAsLong();
+        long currentHour = now / HOUR_MS;
+        long currentDay = now / DAY_MS;
+        long firstDay = currentDay - properties.getDayBuckets() + 1;
+        LocalDateTime since = LocalDateTime.ofInstant(Instant.ofEpochMilli(firstDay * DAY_MS), ledgerZone);
+
+        Map<UUID, NavigableMap<Long, Long>> hourly = new HashMap<>();
+        Map<UUID, NavigableMap<Long, Long>> daily = new HashMap<>();
+        for (UUID userId : userIds) {
+            hourly.put(userId, new TreeMap<>());
+            daily.put(userId, new TreeMap<>());
+        }
+
+        for (SpendEntry entry : transactionService.findSpendEntries(userIds, since, SPEND_TYPES)) {
+            long at = entry.getCreatedAt().atZone(ledgerZone).toInstant().toEpochMilli();
+            long minor = toMinor(entry.getAmount());
+            if (entry.getType() == WalletTransaction.TransactionType.RESERVE) {
+                hourly.get(entry.getUserId()).merge(at / HOUR_MS, minor, Long::sum);
+                daily.get(entry.getUserId()).merge(at / DAY_MS, minor, Long::sum);
+            } else {
+                takeNewestFirst(hourly.get(entry.getUserId()), at / HOUR_MS, minor);
+                takeNewestFirst(daily.get(entry.getUserId()), at / DAY_MS, minor);
+            }
+        }
+
+        long firstHour = currentHour - properties.getHourBuckets() + 1;
+        long openHour = (now - OPEN_BUCKET_GRACE_MS) / HOUR_MS;
+        long openDay = (now - OPEN_BUCKET_GRACE_MS) / DAY_MS;
+        for (UUID userId : userIds) {
+            store.merge(userId, hourly.get(userId).tailMap(firstHour, true), daily.get(userId), openHour, openDay);
+        }
+    }
+
+    private static void takeNewestFirst(NavigableMap<Long, Long> buckets, long upTo, long amount) {
+        long remaining = amount;
+        for (Map.Entry<Long, Long> bucket : buckets.headMap(upTo, true).descendingMap().entrySet()) {
+            if (remaining <= 0) {
+                break;
+            }
+            long taken = Math.min(bucket.getValue(), remaining);
+            bucket.setValue(bucket.getValue() - taken);
+            remaining -= taken;
+        }
+    }
+
+    private Limits limitsFor(UUID userId) {
+        return limits.get(userId, id -> walletRepository.findLimitsByUserId(id)
+                .map(view -> new Limits(view.getCurrency(), Boolean.TRUE.equals(view.getMultiCurrencyEnabled()),
+                        view.getDailyTransactionLimit(), view.getMonthlyTransactionLimit(),
+                        toMinor(view.getDailyTransactionLimit()), toMinor(view.getMonthlyTransactionLimit())))
+                .orElse(null));
+    }
+
+    static long toMinor(BigDecimal amount) {
+        return amount.setScale(MINOR_SCALE, RoundingMode.UP).unscaledValue().longValueExact();
+    }
+
+    static BigDecimal fromMinor(long minor) {
+        return BigDecimal.valueOf(minor, MINOR_SCALE);
+    }
+}
@@ -0,0 +1,117 @@
+package com.finpay.wallet.wallet.limit;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size ring buffer of per-bucket spend counters.
+ *
+ * Each slot holds an immutable (bucket, amount) pair and is updated with CAS,
+ * so readers and writers never block. A slot left behind by an older bucket is
+ * simply overwritten when its index comes around again.
+ */
+final class RollingSpendWindow {
+
+    private record Slot(long bucket, long amount) {}
+
+    private final AtomicReferenceArray<Slot> slots;
+    private final int size;
+
+    RollingSpendWindow(int size) {
+        this.size = size;
+        this.slots = new AtomicReferenceArray<>(size);
+    }
+
+    /** Adds {@code delta} (may be negative) to the given bucket. */
+    void add(long bucket, long delta) {
+        int index = index(bucket);
+        while (true) {
+            Slot current = slots.get(index);
+            Slot next;
+            if (current == null || current.bucket < bucket) {
+                next = new Slot(bucket, delta);
+            } else if (current.bucket == bucket) {
+                next = new Slot(bucket, current.amount + delta);
+            } else {
+                // Slot already reused by a newer bucket; this bucket has left the window
+                return;
+            }
+            if (slots.compareAndSet(index, current, next)) {
+                return;
+            }
+        }
+    }
+
+    /** Total of all buckets inside the window ending at {@code currentBucket}. */
+    long sum(long currentBucket) {
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            Slot slot = slots.get(i);
+            if (slot != null && slot.bucket <= currentBucket && slot.bucket > currentBucket - size) {
+                total += slot.amount;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Removes up to {@code amount} starting at the newest bucket and walking
+     * back, so refunds never leave a negative bucket behind.
+     */
+    void refund(long currentBucket, long amount) {
+        long remaining = amount;
+        for (long bucket = currentBucket; bucket > currentBucket - size && remaining > 0; bucket--) {
+            int index = index(bucket);
+            while (true) {
+                Slot current = slots.get(index);
+                if (current == null || current.bucket != bucket || current.amount <= 0) {
+                    break;
+                }
+                long taken = Math.min(current.amount, remaining);
+                if (slots.compareAndSet(index, current, new Slot(bucket, current.amount - taken))) {
+                    remaining -= taken;
+                    break;
+                }
+            }
+        }
+    }
+
+    /** Sets the bucket to {@code amount}, unless its slot already holds a newer bucket. */
+    void set(long bucket, long amount) {
+        int index = index(bucket);
+        while (true) {
+            Slot current = slots.get(index);
+            if (current != null && current.bucket > bucket) {
+                return;
+            }
+            if (slots.compareAndSet(index, current, new Slot(bucket, amount))) {
+                return;
+            }
+        }
+    }
+
+    /** Raises the bucket to at least {@code amount}. */
+    void mergeMax(long bucket, long amount) {
+        int index = index(bucket);
+        while (true) {
+            Slot current = slots.get(index);
+            Slot next;
+            if (current == null || current.bucket < bucket) {
+                next = new Slot(bucket, amount);
+            } else if (current.bucket == bucket) {
+                if (current.amount >= amount) {
+                    return;
+                }
+                next = new Slot(bucket, amount);
+            } else {
+                return;
+            }
+            if (slots.compareAndSet(index, current, next)) {
+                return;
+            }
+        }
+    }
+
+    private int index(long bucket) {
+        return (int) Math.floorMod(bucket, (long) size);
+    }
+}
@@ -0,0 +1,40 @@
+package com.finpay.wallet.wallet.limit;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Backing store for per-wallet rolling spend windows.
+ * Amounts are minor units; bucket ids are hours or days since the epoch (UTC).
+ * The short window of hourly buckets is checked against the wallet's daily
+ * limit, the long window of daily buckets against its monthly limit.
+ */
+public interface SpendWindowStore {
+
+    /**
+     * Atomically checks both windows and, if the amount fits, adds it.
+     * Returns {@link LimitCheck#notLoaded()} when the wallet's windows have
+     * not been hydrated from the ledger yet.
+     */
+    LimitCheck tryConsume(UUID userId, long amount, long hourBucket, long dayBucket,
+                          long dailyLimit, long monthlyLimit);
+
+    /** Removes previously consumed spend, newest buckets first. */
+    void refund(UUID userId, long amount, long hourBucket, long dayBucket);
+
+    /**
+     * Merges ledger-derived totals into the windows and marks the wallet as
+     * loaded. Buckets before {@code openHour} / {@code openDay} no longer
+     * receive reservations, so they are set to the ledger totals, or cleared
+     * when the ledger has none. Open buckets may still hold reservations whose
+     * transaction has not committed, so they are only raised.
+     */
+    void merge(UUID userId, Map<Long, Long> hourly, Map<Long, Long> daily, long openHour, long openDay);
+
+    /** Wallets whose windows are held by this store and should be reconciled. */
+    Set<UUID> activeUsers();
+
+    /** Drops windows that no longer hold any spend. */
+    void evictIdle(long hourBucket, long dayBucket);
+}
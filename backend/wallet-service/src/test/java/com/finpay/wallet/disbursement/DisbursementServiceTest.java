@@ -0,0 +1,293 @@
+package com.finpay.wallet.disbursement;
+
+import com.finpay.wallet.disbursement.dto.BulkDisbursementRequest;
+import com.finpay.wallet.disbursement.dto.BulkDisbursementResponse;
+import com.finpay.wallet.disbursement.dto.DisbursementItem;
+import com.finpay.wallet.disbursement.dto.DisbursementItemResult.ItemStatus;
+import com.finpay.wallet.shared.exception.WalletException;
+import com.finpay.wallet.transaction.WalletTransaction;
+import com.finpay.wallet.transaction.WalletTransactionService;
+import com.finpay.wallet.wallet.Wallet;
+import com.finpay.wallet.wallet.WalletCacheService;
+import com.finpay.wallet.wallet.WalletRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DisbursementService Unit Tests")
+class DisbursementServiceTest {
+
+    @Mock private WalletRepository walletRepository;
+    @Mock private WalletTransactionService transactionService;
+    @Mock private WalletCacheService walletCacheService;
+    @Mock private TransactionTemplate transactionTemplate;
+    @Spy private DisbursementProperties properties = new DisbursementProperties();
+    @Mock private DisbursementBatchRepository batchRepository;
+
+    @InjectMocks private DisbursementService disbursementService;
+
+    private static final UUID ADMIN_ID = UUID.randomUUID();
+
+    private Wallet walletA;
+    private Wallet walletB;
+
+    @BeforeEach
+    void setUp() {
+        walletA = wallet(new UUID(0, 1));
+        walletB = wallet(new UUID(0, 2));
+    }
+
+    private Wallet wallet(UUID id) {
+        return Wallet.builder()
+                .id(id)
+                .userId(UUID.randomUUID())
+                .balance(new BigDecimal("100.00"))
+                .reservedBalance(BigDecimal.ZERO)
+                .currency("USD")
+                .status(Wallet.WalletStatus.ACTIVE)
+                .build();
+    }
+
+    private BulkDisbursementResponse disburse(BulkDisbursementRequest request) {
+        return disbursementService.disburse(request, ADMIN_ID);
+    }
+
+    private WalletRepository.WalletIdView view(Wallet wallet) {
+        return new WalletRepository.WalletIdView() {
+            @Override public UUID getId() { return wallet.getId(); }
+            @Override public UUID getUserId() { return wallet.getUserId(); }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubTransactions() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+    }
+
+    private void stubWallets(Wallet... wallets) {
+        when(walletRepository.findIdsByUserIdIn(anyCollection()))
+                .thenReturn(List.of(wallets).stream().map(this::view).toList());
+        when(walletRepository.findAllByIdInForUpdate(anyCollection())).thenAnswer(invocation -> {
+            Collection<UUID> ids = invocation.getArgument(0);
+            return List.of(wallets).stream().filter(w -> ids.contains(w.getId())).toList();
+        });
+    }
+
+    @Nested
+    @DisplayName("Successful Batches")
+    class SuccessfulBatchTests {
+
+        @Test
+        @DisplayName("should credit every wallet and batch the ledger inserts")
+        @SuppressWarnings("unchecked")
+        void shouldCreditAllWallets() {
+            stubTransactions();
+            stubWallets(walletA, walletB);
+            when(transactionService.findExistingReferences(any(), anyCollection(), anyCollection())).thenReturn(Map.of());
+
+            BulkDisbursementResponse response = disburse(new BulkDisbursementRequest(
+                    "PAYROLL-1", "USD", List.of(
+                    new DisbursementItem(walletB.getUserId(), new BigDecimal("10.00"), "r1", null),
+                    new DisbursementItem(walletA.getUserId(), new BigDecimal("25.50"), "r2", null),
+                    new DisbursementItem(walletA.getUserId(), new BigDecimal("4.50"), "r3", null))));
+
+            assertThat(response.credited()).isEqualTo(3);
+            assertThat(response.totalCredited()).isEqualByComparingTo("40.00");
+            assertThat(response.results()).extracting("index").containsExactly(0, 1, 2);
+            assertThat(walletA.getBalance()).isEqualByComparingTo("130.00");
+            assertThat(walletB.getBalance()).isEqualByComparingTo("110.00");
+
+            ArgumentCaptor<List<WalletTransaction>> ledger = ArgumentCaptor.forClass(List.class);
+            verify(transactionService, times(1)).recordTransactions(ledger.capture());
+            assertThat(ledger.getValue()).hasSize(3);
+            // Sorted by wallet id: both walletA credits come before walletB
+            assertThat(ledger.getValue()).extracting(WalletTransaction::getReferenceId)
+                    .containsExactly("r2", "r3", "r1");
+            verify(walletCacheService).evictWallets(anyCollection());
+            verify(batchRepository).save(argThat(batch -> batch.getDisbursedBy().equals(ADMIN_ID)
+                    && batch.getBatchReference().equals("PAYROLL-1")
+                    && batch.getCredited() == 3));
+            assertThat(response.disbursedBy()).isEqualTo(ADMIN_ID);
+        }
+
+        @Test
+        @DisplayName("should split work into chunks of the configured size")
+        void shouldProcessInChunks() {
+            properties.setChunkSize(1);
+            stubTransactions();
+            stubWallets(walletA, walletB);
+            when(transactionService.findExistingReferences(any(), anyCollection(), anyCollection())).thenReturn(Map.of());
+
+            disburse(new BulkDisbursementRequest(null, "USD", List.of(
+                    new DisbursementItem(walletA.getUserId(), BigDecimal.ONE, null, null),
+                    new DisbursementItem(walletB.getUserId(), BigDecimal.ONE, null, null))));
+
+            verify(transactionTemplate, times(2)).execute(any());
+            verify(transactionService, times(2)).recordTransactions(anyList());
+        }
+
+        @Test
+        @DisplayName("should report already credited references as duplicates")
+        void shouldSkipDuplicates() {
+            stubTransactions();
+            stubWallets(walletA);
+            when(transactionService.findExistingReferences(eq(WalletTransaction.TransactionType.CREDIT),
+                    eq(List.of(walletA.getId())), anyCollection())).thenReturn(Map.of(walletA.getId(), Set.of("r1")));
+
+            BulkDisbursementResponse response = disburse(new BulkDisbursementRequest(
+                    "B", "USD", List.of(new DisbursementItem(walletA.getUserId(), BigDecimal.TEN, "r1", null))));
+
+            assertThat(response.duplicates()).isEqualTo(1);
+            assertThat(walletA.getBalance()).isEqualByComparingTo("100.00");
+            verify(transactionService, never()).recordTransactions(anyList());
+        }
+
+        @Test
+        @DisplayName("should credit a reference already used in another wallet")
+        void shouldScopeDuplicatesToWallet() {
+            stubTransactions();
+            stubWallets(walletA);
+            when(transactionService.findExistingReferences(any(), anyCollection(), anyCollection()))
+                    .thenReturn(Map.of(walletB.getId(), Set.of("r1")));
+
+            BulkDisbursementResponse response = disburse(new BulkDisbursementRequest(
+                    "B", "USD", List.of(new DisbursementItem(walletA.getUserId(), BigDecimal.TEN, "r1", null))));
+
+            assertThat(response.credited()).isEqualTo(1);
+            assertThat(response.duplicates()).isZero();
+        }
+
+        @Test
+        @DisplayName("should derive the same batch reference for the same upload")
+        void shouldDeriveStableBatchReference() {
+            stubTransactions();
+            stubWallets(walletA, walletB);
+            when(transactionService.findExistingReferences(any(), anyCollection(), anyCollection())).thenReturn(Map.of());
+            List<DisbursementItem> items = List.of(
+                    new DisbursementItem(walletA.getUserId(), new BigDecimal("10.00"), null, null),
+                    new DisbursementItem(walletB.getUserId(), BigDecimal.ONE, null, null));
+
+            BulkDisbursementResponse first = disburse(new BulkDisbursementRequest(null, "USD", items));
+            BulkDisbursementResponse again = disburse(new BulkDisbursementRequest(" ", "usd", List.of(
+                    new DisbursementItem(walletA.getUserId(), new BigDecimal("10"), null, null),
+                    new DisbursementItem(walletB.getUserId(), BigDecimal.ONE, null, null))));
+            BulkDisbursementResponse other = disburse(new BulkDisbursementRequest(null, "USD", items.reversed()));
+
+            assertThat(first.batchReference()).startsWith("DISB-").isEqualTo(again.batchReference());
+            assertThat(other.batchReference()).isNotEqualTo(first.batchReference());
+            assertThat(first.results()).extracting("referenceId")
+                    .containsExactly(first.batchReference() + "-0", first.batchReference() + "-1");
+        }
+    }
+
+    @Nested
+    @DisplayName("Validation and Failures")
+    class FailureTests {
+
+        @Test
+        @DisplayName("should reject invalid items without touching the database")
+        void shouldRejectInvalidItems() {
+            UUID userId = UUID.randomUUID();
+            List<DisbursementItem> items = new ArrayList<>();
+            items.add(new DisbursementItem(null, BigDecimal.ONE, "a", null));
+            items.add(new DisbursementItem(userId, new BigDecimal("-1"), "b", null));
+            items.add(new DisbursementItem(userId, new BigDecimal("0.00001"), "c", null));
+
+            BulkDisbursementResponse response = disburse(
+                    new BulkDisbursementRequest("B", "USD", items));
+
+            assertThat(response.rejected()).isEqualTo(3);
+            verify(walletRepository, never()).findAllByIdInForUpdate(any());
+        }
+
+        @Test
+        @DisplayName("should reject duplicate references and unknown wallets")
+        void shouldRejectDuplicatesAndUnknownWallets() {
+            stubTransactions();
+            stubWallets(walletA);
+            when(transactionService.findExistingReferences(any(), anyCollection(), anyCollection())).thenReturn(Map.of());
+
+            BulkDisbursementResponse response = disburse(new BulkDisbursementRequest(
+                    "B", "USD", List.of(
+                    new DisbursementItem(walletA.getUserId(), BigDecimal.ONE, "same", null),
+                    new DisbursementItem(walletA.getUserId(), BigDecimal.ONE, "same", null),
+                    new DisbursementItem(UUID.randomUUID(), BigDecimal.ONE, "other", null))));
+
+            assertThat(response.credited()).isEqualTo(1);
+            assertThat(response.results().get(1).status()).isEqualTo(ItemStatus.REJECTED);
+            assertThat(response.results().get(2).failureReason()).isEqualTo("Wallet not found");
+        }
+
+        @Test
+        @DisplayName("should fail items for inactive wallets or mismatched currency")
+        void shouldFailInactiveAndForeignCurrencyWallets() {
+            walletA.setStatus(Wallet.WalletStatus.FROZEN);
+            walletB.setCurrency("EUR");
+            stubTransactions();
+            stubWallets(walletA, walletB);
+            when(transactionService.findExistingReferences(any(), anyCollection(), anyCollection())).thenReturn(Map.of());
+
+            BulkDisbursementResponse response = disburse(new BulkDisbursementRequest(
+                    "B", "USD", List.of(
+                    new DisbursementItem(walletA.getUserId(), BigDecimal.ONE, null, null),
+                    new DisbursementItem(walletB.getUserId(), BigDecimal.ONE, null, null))));
+
+            assertThat(response.failed()).isEqualTo(2);
+            assertThat(response.results().get(0).failureReason()).isEqualTo("Wallet is not active");
+        }
+
+        @Test
+        @DisplayName("should mark a whole chunk failed when its transaction rolls back")
+        void shouldFailChunkOnRollback() {
+            when(walletRepository.findIdsByUserIdIn(anyCollection())).thenReturn(List.of(view(walletA)));
+            when(transactionTemplate.execute(any())).thenThrow(new RuntimeException("deadlock"));
+
+            BulkDisbursementResponse response = disburse(new BulkDisbursementRequest(
+                    "B", "USD", List.of(new DisbursementItem(walletA.getUserId(), BigDecimal.ONE, null, null))));
+
+            assertThat(response.failed()).isEqualTo(1);
+            assertThat(response.results().getFirst().failureReason()).contains("deadlock");
+            verify(walletCacheService, never()).evictWallets(any());
+        }
+
+        @Test
+        @DisplayName("should refuse batches above the configured maximum")
+        void shouldRefuseOversizedBatch() {
+            properties.setMaxItems(1);
+            List<DisbursementItem> items = List.of(
+                    new DisbursementItem(UUID.randomUUID(), BigDecimal.ONE, null, null),
+                    new DisbursementItem(UUID.randomUUID(), BigDecimal.ONE, null, null));
+
+            assertThatThrownBy(() -> disburse(new BulkDisbursementRequest("B", "USD", items)))
+                    .isInstanceOf(WalletException.class)
+                    .hasMessageContaining("maximum");
+        }
+    }
+}
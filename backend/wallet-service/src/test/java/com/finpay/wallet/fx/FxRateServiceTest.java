@@ -0,0 +1,65 @@
+package com.finpay.wallet.fx;
+
+import com.finpay.wallet.shared.exception.FxRateUnavailableException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("FxRateService Unit Tests")
+class FxRateServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T12:00:00Z");
+
+    private final FxProperties properties = new FxProperties();
+    private final AtomicReference<FxRateFeed.Snapshot> snapshot = new AtomicReference<>(
+            new FxRateFeed.Snapshot("USD", Map.of("EUR", new BigDecimal("0.92")), NOW));
+    private final FxRateService service =
+            new FxRateService(snapshot::get, properties, Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    @DisplayName("should convert BigDecimal amounts via minor units")
+    void shouldConvert() {
+        FxConversion conversion = service.convert(new BigDecimal("100"), "usd", "eur");
+
+        assertThat(conversion.amount()).isEqualByComparingTo("92.00");
+        assertThat(conversion.amount().scale()).isEqualTo(2);
+        assertThat(conversion.currency()).isEqualTo("EUR");
+        assertThat(conversion.rate()).isEqualByComparingTo("0.92");
+    }
+
+    @Test
+    @DisplayName("should swap in a new table on refresh and keep the old one on failure")
+    void shouldSwapTables() {
+        snapshot.set(new FxRateFeed.Snapshot("USD", Map.of("EUR", new BigDecimal("0.90")), NOW));
+        service.refresh();
+        assertThat(service.convert(new BigDecimal("100"), "USD", "EUR").amount()).isEqualByComparingTo("90.00");
+
+        snapshot.set(new FxRateFeed.Snapshot("USD", Map.of("EUR", new BigDecimal("-1")), NOW));
+        service.refresh();
+        assertThat(service.convert(new BigDecimal("100"), "USD", "EUR").amount()).isEqualByComparingTo("90.00");
+    }
+
+    @Test
+    @DisplayName("should refuse stale rates and unsupported currencies")
+    void shouldRefuseStaleOrUnknown() {
+        assertThatThrownBy(() -> service.convert(BigDecimal.ONE, "USD", "GBP"))
+                .isInstanceOf(FxRateUnavailableException.class);
+
+        snapshot.set(new FxRateFeed.Snapshot("USD", Map.of("EUR", new BigDecimal("0.92")),
+                NOW.minus(properties.getMaxRateAge()).minus(Duration.ofSeconds(1))));
+        service.refresh();
+        assertThatThrownBy(() -> service.convert(BigDecimal.ONE, "USD", "EUR"))
+                .isInstanceOf(FxRateUnavailableException.class)
+                .hasMessageContaining("stale");
+    }
+}
@@ -0,0 +1,86 @@
+package com.finpay.wallet.fx;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("FxRateTable Unit Tests")
+class FxRateTableTest {
+
+    private final FxRateTable table = FxRateTable.of("USD", Map.of(
+            "EUR", new BigDecimal("0.92"),
+            "JPY", new BigDecimal("151.5"),
+            "KWD", new BigDecimal("0.307")), Instant.EPOCH);
+
+    @Nested
+    @DisplayName("Conversion")
+    class ConversionTests {
+
+        @Test
+        @DisplayName("should convert from and to the base currency")
+        void shouldConvertBaseRates() {
+            // 100.00 USD -> 92.00 EUR
+            assertThat(table.convertMinor(10_000, "USD", "EUR", RoundingMode.HALF_EVEN)).isEqualTo(9_200);
+            // 92.00 EUR -> 100.00 USD
+            assertThat(table.convertMinor(9_200, "EUR", "USD", RoundingMode.HALF_EVEN)).isEqualTo(10_000);
+        }
+
+        @Test
+        @DisplayName("should use precomputed cross rates across minor-unit exponents")
+        void shouldConvertCrossRates() {
+            // 10.00 EUR -> 1646.7391... JPY (0 decimals)
+            assertThat(table.convertMinor(1_000, "EUR", "JPY", RoundingMode.HALF_EVEN)).isEqualTo(1_647);
+            // 1000 JPY -> 2.026 KWD (3 decimals)
+            assertThat(table.convertMinor(1_000, "JPY", "KWD", RoundingMode.HALF_EVEN)).isEqualTo(2_026);
+            assertThat(table.fractionDigits("KWD")).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("should apply the requested rounding mode")
+        void shouldRound() {
+            // 0.01 USD -> 0.0092 EUR
+            assertThat(table.convertMinor(1, "USD", "EUR", RoundingMode.HALF_EVEN)).isEqualTo(1);
+            assertThat(table.convertMinor(1, "USD", "EUR", RoundingMode.DOWN)).isZero();
+            assertThat(table.convertMinor(-1, "USD", "EUR", RoundingMode.FLOOR)).isEqualTo(-1);
+            assertThat(table.convertMinor(-1, "USD", "EUR", RoundingMode.CEILING)).isZero();
+        }
+
+        @Test
+        @DisplayName("should round exact halves like BigDecimal")
+        void shouldRoundHalves() {
+            for (RoundingMode mode : new RoundingMode[]{RoundingMode.HALF_UP, RoundingMode.HALF_DOWN, RoundingMode.HALF_EVEN}) {
+                for (long numerator : new long[]{1_500_000_000L, 2_500_000_000L, -2_500_000_000L}) {
+                    long expected = BigDecimal.valueOf(numerator, FxRateTable.RATE_SCALE).setScale(0, mode).longValueExact();
+                    assertThat(FxRateTable.divide(numerator, mode)).as("%s %s", mode, numerator).isEqualTo(expected);
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("should fall back to exact arithmetic when the product overflows")
+        void shouldHandleOverflow() {
+            long amount = 9_000_000_000_000L;
+            long expected = new BigDecimal(amount).multiply(new BigDecimal("151.5"))
+                    .movePointLeft(2).setScale(0, RoundingMode.HALF_EVEN).longValueExact();
+
+            assertThat(table.convertMinor(amount, "USD", "JPY", RoundingMode.HALF_EVEN)).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    @DisplayName("should reject unknown currencies and invalid rates")
+    void shouldValidate() {
+        assertThatThrownBy(() -> table.convertMinor(1, "USD", "XYZ", RoundingMode.HALF_EVEN))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FxRateTable.of("USD", Map.of("EUR", BigDecimal.ZERO), Instant.EPOCH))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,89 @@
+package com.finpay.wallet.saga;
+
+import com.finpay.wallet.saga.event.WalletCommandEvent;
+import com.finpay.wallet.saga.event.WalletResponseEvent;
+import com.finpay.wallet.shared.exception.InsufficientFundsException;
+import com.finpay.wallet.transaction.WalletTransaction;
+import com.finpay.wallet.transaction.WalletTransactionService;
+import com.finpay.wallet.wallet.Wallet;
+import com.finpay.wallet.wallet.WalletService;
+import com.finpay.wallet.wallet.dto.WalletOperationResponse;
+import com.finpay.wallet.wallet.dto.WalletResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WalletCommandHandler Unit Tests")
+class WalletCommandHandlerTest {
+
+    @Mock private WalletService walletService;
+    @Mock private WalletTransactionService transactionService;
+
+    @InjectMocks private WalletCommandHandler handler;
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID walletId = UUID.randomUUID();
+    private final UUID correlationId = UUID.randomUUID();
+    private final WalletCommandEvent deduct = WalletCommandEvent.create(correlationId, userId,
+            WalletCommandEvent.CommandType.DEDUCT_FUNDS, new BigDecimal("25.00"), "USD", "Transfer");
+
+    @Test
+    @DisplayName("should apply a command that has no ledger entry yet")
+    void shouldApplyNewCommand() {
+        when(transactionService.hasEntry(userId, correlationId.toString(), WalletTransaction.TransactionType.DEBIT))
+                .thenReturn(false);
+        when(walletService.deductFunds(userId, new BigDecimal("25.00"), "USD", correlationId.toString()))
+                .thenReturn(new WalletOperationResponse(walletId, userId, "DEDUCT", new BigDecimal("25.00"),
+                        new BigDecimal("75.00"), new BigDecimal("75.00"), true, null, LocalDateTime.now()));
+
+        WalletResponseEvent response = handler.handle(deduct);
+
+        assertThat(response.success()).isTrue();
+        assertThat(response.responseType()).isEqualTo(WalletResponseEvent.ResponseType.FUNDS_DEDUCTED);
+        assertThat(response.newBalance()).isEqualByComparingTo("75.00");
+    }
+
+    @Test
+    @DisplayName("should replay the response from wallet state when the command was already applied")
+    void shouldReplayAppliedCommand() {
+        when(transactionService.hasEntry(userId, correlationId.toString(), WalletTransaction.TransactionType.DEBIT))
+                .thenReturn(true);
+        when(walletService.getWalletByUserId(userId)).thenReturn(new WalletResponse(walletId, userId,
+                new BigDecimal("75.00"), BigDecimal.ZERO, new BigDecimal("75.00"), "USD",
+                Wallet.WalletStatus.ACTIVE, Wallet.AccountPlan.STARTER, null, null, null, null, null, null,
+                1, false, false, null, null));
+
+        WalletResponseEvent response = handler.handle(deduct);
+
+        assertThat(response.success()).isTrue();
+        assertThat(response.responseType()).isEqualTo(WalletResponseEvent.ResponseType.FUNDS_DEDUCTED);
+        assertThat(response.walletId()).isEqualTo(walletId);
+        verify(walletService, never()).deductFunds(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("should turn a business exception into a failure response")
+    void shouldReportBusinessFailure() {
+        when(transactionService.hasEntry(any(), any(), any())).thenReturn(false);
+        when(walletService.deductFunds(any(), any(), any(), any()))
+                .thenThrow(new InsufficientFundsException("balance 10.00"));
+
+        WalletResponseEvent response = handler.handle(deduct);
+
+        assertThat(response.success()).isFalse();
+        assertThat(response.responseType()).isEqualTo(WalletResponseEvent.ResponseType.OPERATION_FAILED);
+        assertThat(response.failureReason()).startsWith("Insufficient funds");
+    }
+}
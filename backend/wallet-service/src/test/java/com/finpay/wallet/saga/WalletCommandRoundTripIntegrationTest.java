@@ -0,0 +1,245 @@
+package com.finpay.wallet.saga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finpay.wallet.saga.event.WalletCommandEvent;
+import com.finpay.wallet.saga.event.WalletResponseEvent;
+import com.finpay.wallet.shared.config.KafkaConfig;
+import com.finpay.wallet.testconfig.TestcontainersConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistrar;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.kafka.ConfluentKafkaContainer;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sends the same stream of credit commands through wallet-service in outbox
+ * mode and in Kafka-transaction mode ({@code finpay.wallet.commands.kafka-transactions}),
+ * and logs command-to-response latency as seen by a {@code read_committed}
+ * consumer, burst throughput, and the rows MySQL wrote per command.
+ */
+@SpringBootTest
+@Import({TestcontainersConfig.class, WalletCommandRoundTripIntegrationTest.KafkaBootstrap.class})
+@ActiveProfiles("test")
+@DisplayName("Wallet command round trip")
+@Slf4j
+class WalletCommandRoundTripIntegrationTest {
+
+    private static final int USERS = 20;
+    private static final int COMMANDS = 500;
+    private static final int LATENCY_SAMPLES = 200;
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Autowired
+    @Qualifier("kafkaObjectMapper")
+    private ObjectMapper kafkaObjectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private ConfluentKafkaContainer kafkaContainer;
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class KafkaBootstrap {
+
+        /** KafkaConfig reads the property directly, so point it at the container. */
+        @Bean
+        DynamicPropertyRegistrar kafkaBootstrapServers(ConfluentKafkaContainer kafkaContainer) {
+            return registry -> registry.add("spring.kafka.bootstrap-servers", kafkaContainer::getBootstrapServers);
+        }
+    }
+
+    @Nested
+    @DirtiesContext
+    @TestPropertySource(properties = "finpay.wallet.commands.kafka-transactions=false")
+    @DisplayName("outbox mode")
+    class OutboxMode {
+
+        @Test
+        @DisplayName("should answer every command and write an outbox and processed_events row for each")
+        void shouldRoundTripThroughOutbox() throws Exception {
+            RoundTrip result = run("outbox");
+
+            assertThat(result.outboxRows()).isEqualTo(COMMANDS);
+            assertThat(result.processedRows()).isEqualTo(COMMANDS);
+        }
+    }
+
+    @Nested
+    @DirtiesContext
+    @TestPropertySource(properties = "finpay.wallet.commands.kafka-transactions=true")
+    @DisplayName("Kafka-transaction mode")
+    class KafkaTransactionMode {
+
+        @Test
+        @DisplayName("should answer every command without outbox or processed_events rows")
+        void shouldRoundTripInKafkaTransaction() throws Exception {
+            RoundTrip result = run("kafka-transaction");
+
+            assertThat(result.outboxRows()).isZero();
+            assertThat(result.processedRows()).isZero();
+        }
+    }
+
+    private record RoundTrip(long outboxRows, long processedRows) {}
+
+    private RoundTrip run(String mode) throws Exception {
+        List<UUID> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            users.add(UUID.randomUUID());
+        }
+
+        try (KafkaConsumer<String, String> responses = responseConsumer()) {
+            // Warm up: creates the wallets, so measured commands only credit
+            awaitResponses(responses, send(users, USERS));
+            awaitOutboxDrained();
+
+            // Latency with one command in flight, so it is not queueing delay
+            List<Long> sorted = new ArrayList<>();
+            for (int i = 0; i < LATENCY_SAMPLES; i++) {
+                sorted.addAll(awaitResponses(responses, send(List.of(users.get(i % USERS)), 1)).values());
+            }
+            Collections.sort(sorted);
+            awaitOutboxDrained();
+
+            // Throughput and rows written for a burst
+            Map<String, Long> before = writeCounters();
+            long outboxBefore = count("outbox_events");
+            long processedBefore = count("processed_events");
+
+            long started = System.nanoTime();
+            awaitResponses(responses, send(users, COMMANDS));
+            long elapsedNanos = System.nanoTime() - started;
+            awaitOutboxDrained();
+
+            Map<String, Long> after = writeCounters();
+            RoundTrip result = new RoundTrip(count("outbox_events") - outboxBefore,
+                    count("processed_events") - processedBefore);
+
+            log.info("{}: latency over {} sequential commands p50 {} ms, p99 {} ms, max {} ms",
+                    mode, LATENCY_SAMPLES, millis(sorted, 0.50), millis(sorted, 0.99), millis(sorted, 1.0));
+            log.info("{}: burst of {} commands answered in {} ms ({} commands/s)",
+                    mode, COMMANDS, elapsedNanos / 1_000_000, COMMANDS * 1_000_000_000L / elapsedNanos);
+            log.info("{}: per command {} rows written, {} updated, {} deleted, {} commits",
+                    mode, perCommand(before, after, "Handler_write"), perCommand(before, after, "Handler_update"),
+                    perCommand(before, after, "Handler_delete"), perCommand(before, after, "Com_commit"));
+            return result;
+        }
+    }
+
+    private Map<UUID, Long> send(List<UUID> users, int commands) throws Exception {
+        Map<UUID, Long> sentAt = new HashMap<>();
+        for (int i = 0; i < commands; i++) {
+            WalletCommandEvent command = WalletCommandEvent.create(UUID.randomUUID(), users.get(i % users.size()),
+                    WalletCommandEvent.CommandType.CREDIT_FUNDS, new BigDecimal("1.00"), "USD", "Benchmark");
+            ProducerRecord<String, String> record = new ProducerRecord<>(KafkaConfig.WALLET_COMMANDS_TOPIC, null,
+                    command.correlationId().toString(), kafkaObjectMapper.writeValueAsString(command));
+            record.headers().add("X-Idempotency-Key", UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8));
+            sentAt.put(command.correlationId(), System.nanoTime());
+            kafkaTemplate.send(record);
+        }
+        kafkaTemplate.flush();
+        return sentAt;
+    }
+
+    private Map<UUID, Long> awaitResponses(KafkaConsumer<String, String> consumer, Map<UUID, Long> sentAt)
+            throws Exception {
+        Map<UUID, Long> latencies = new HashMap<>();
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (latencies.size() < sentAt.size() && System.nanoTime() < deadline) {
+            for (ConsumerRecord<String, String> record : consumer.poll(Duration.ofMillis(50))) {
+                long receivedAt = System.nanoTime();
+                WalletResponseEvent response = kafkaObjectMapper.readValue(record.value(), WalletResponseEvent.class);
+                Long started = sentAt.get(response.correlationId());
+                if (started != null) {
+                    assertThat(response.success()).as(response.failureReason()).isTrue();
+                    latencies.putIfAbsent(response.correlationId(), receivedAt - started);
+                }
+            }
+        }
+        assertThat(latencies).hasSize(sentAt.size());
+        return latencies;
+    }
+
+    private KafkaConsumer<String, String> responseConsumer() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, kafkaContainer.getBootstrapServers());
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        KafkaConsumer<String, String> consumer = new KafkaConsumer<>(props);
+        List<TopicPartition> partitions = consumer.partitionsFor(KafkaConfig.WALLET_EVENTS_TOPIC).stream()
+                .map(p -> new TopicPartition(p.topic(), p.partition()))
+                .toList();
+        consumer.assign(partitions);
+        consumer.seekToEnd(partitions);
+        partitions.forEach(consumer::position);
+        return consumer;
+    }
+
+    private void awaitOutboxDrained() throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (jdbc.queryForObject("SELECT COUNT(*) FROM outbox_events WHERE status = 'PENDING'", Long.class) > 0
+                && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+    }
+
+    private long count(String table) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+
+    private Map<String, Long> writeCounters() {
+        Map<String, Long> counters = new HashMap<>();
+        // Handler_* rather than Innodb_rows_*, which MariaDB does not report
+        jdbc.query("SHOW GLOBAL STATUS WHERE Variable_name IN "
+                        + "('Handler_write', 'Handler_update', 'Handler_delete', 'Com_commit')",
+                rs -> {
+                    counters.put(rs.getString(1), rs.getLong(2));
+                });
+        return counters;
+    }
+
+    private static String perCommand(Map<String, Long> before, Map<String, Long> after, String counter) {
+        return "%.2f".formatted((after.get(counter) - before.get(counter)) / (double) COMMANDS);
+    }
+
+    private static String millis(List<Long> sortedNanos, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedNanos.size()) - 1;
+        return "%.1f".formatted(sortedNanos.get(Math.max(index, 0)) / 1_000_000.0);
+    }
+}
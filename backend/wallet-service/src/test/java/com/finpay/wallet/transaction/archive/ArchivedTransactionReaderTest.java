@@ -0,0 +1,167 @@
+package com.finpay.wallet.transaction.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.finpay.wallet.transaction.WalletTransaction;
+import com.finpay.wallet.transaction.dto.WalletTransactionResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ArchivedTransactionReader Unit Tests")
+class ArchivedTransactionReaderTest {
+
+    @Mock private WalletTransactionArchiveRepository archiveRepository;
+
+    @TempDir Path archiveDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private LocalArchiveStorage storage;
+    private ArchivedTransactionReader reader;
+
+    private final UUID userA = UUID.randomUUID();
+    private final UUID walletA = UUID.randomUUID();
+    private final UUID userB = UUID.randomUUID();
+    private final UUID walletB = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        TransactionArchiveProperties properties = new TransactionArchiveProperties();
+        properties.setDirectory(archiveDir.toString());
+        storage = new LocalArchiveStorage(properties);
+        reader = new ArchivedTransactionReader(archiveRepository, storage, objectMapper, properties);
+
+        // Two archived months, newest first; wallet A has 3 rows in March and 2 in February
+        WalletTransactionArchive march = archive(YearMonth.of(2025, 3), List.of(
+                tx(walletA, userA, "2025-03-20T10:00", "TRF-3"),
+                tx(walletA, userA, "2025-03-10T10:00", "TRF-2"),
+                tx(walletA, userA, "2025-03-01T10:00", "TRF-1"),
+                tx(walletB, userB, "2025-03-05T10:00", "TRF-2")));
+        WalletTransactionArchive february = archive(YearMonth.of(2025, 2), List.of(
+                tx(walletA, userA, "2025-02-15T10:00", "TRF-0"),
+                tx(walletA, userA, "2025-02-01T10:00", null)));
+
+        lenient().when(archiveRepository.findByPartitionDroppedTrueOrderByMonthDesc())
+                .thenReturn(List.of(march, february));
+        lenient().when(archiveRepository.findById("2025-03")).thenReturn(Optional.of(march));
+        lenient().when(archiveRepository.findById("2025-02")).thenReturn(Optional.of(february));
+    }
+
+    private WalletTransactionResponse tx(UUID walletId, UUID userId, String createdAt, String reference) {
+        return new WalletTransactionResponse(UUID.randomUUID(), walletId, userId,
+                WalletTransaction.TransactionType.CREDIT, new BigDecimal("10.0000"), BigDecimal.ZERO,
+                new BigDecimal("10.0000"), "USD", reference, "archived",
+                WalletTransaction.TransactionStatus.COMPLETED, LocalDateTime.parse(createdAt));
+    }
+
+    private WalletTransactionArchive archive(YearMonth month, List<WalletTransactionResponse> rows) throws Exception {
+        String dataKey = "wallet_transactions/" + month + ".ndjson.gz";
+        String indexKey = "wallet_transactions/" + month + ".index.json.gz";
+        try (ArchiveFileWriter writer = new ArchiveFileWriter(month.toString(), objectMapper)) {
+            for (WalletTransactionResponse row : rows) {
+                writer.append(row);
+            }
+            ArchiveIndex index = writer.finish();
+            storage.put(dataKey, writer.file());
+
+            Path indexFile = Files.createTempFile(archiveDir, "index", ".gz");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(indexFile))) {
+                objectMapper.writeValue(out, index);
+            }
+            storage.put(indexKey, indexFile);
+
+            return WalletTransactionArchive.builder()
+                    .month(month.toString()).partitionName("p" + month.toString().replace("-", ""))
+                    .dataKey(dataKey).indexKey(indexKey)
+                    .rowCount(index.rowCount()).sizeBytes(writer.sizeBytes()).partitionDropped(true)
+                    .build();
+        }
+    }
+
+    @Nested
+    @DisplayName("Paging")
+    class PagingTests {
+
+        @Test
+        @DisplayName("should count rows across archived months")
+        void shouldCountAcrossMonths() {
+            assertThat(reader.countByUserId(userA)).isEqualTo(5);
+            assertThat(reader.countByWalletId(walletB)).isEqualTo(1);
+            assertThat(reader.countByUserId(UUID.randomUUID())).isZero();
+        }
+
+        @Test
+        @DisplayName("should read newest first and continue into older months")
+        void shouldReadAcrossMonthBoundary() {
+            List<WalletTransactionResponse> page = reader.findByUserId(userA, 2, 2);
+
+            assertThat(page).extracting(WalletTransactionResponse::referenceId)
+                    .containsExactly("TRF-1", "TRF-0");
+        }
+
+        @Test
+        @DisplayName("should skip whole months when the offset is past them")
+        void shouldSkipMonths() {
+            List<WalletTransactionResponse> page = reader.findByWalletId(walletA, 4, 10);
+
+            assertThat(page).hasSize(1);
+            assertThat(page.getFirst().createdAt()).isEqualTo(LocalDateTime.parse("2025-02-01T10:00"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Reference Lookup")
+    class ReferenceLookupTests {
+
+        @Test
+        @DisplayName("should find every wallet's entry for a shared reference")
+        void shouldFindAllWalletsForReference() {
+            List<WalletTransactionResponse> results = reader.findByReferenceId("TRF-2");
+
+            assertThat(results).extracting(WalletTransactionResponse::walletId)
+                    .containsExactlyInAnyOrder(walletA, walletB);
+        }
+
+        @Test
+        @DisplayName("should load each month index only once")
+        void shouldCacheIndexes() {
+            reader.findByReferenceId("TRF-2");
+            reader.findByReferenceId("TRF-3");
+
+            verify(archiveRepository, times(1)).findById("2025-03");
+        }
+    }
+
+    @Test
+    @DisplayName("should lay out partitions one per month with a catch-all")
+    void shouldBuildPartitionDefinitions() {
+        assertThat(WalletTransactionPartitionManager.partitionDefinitions(YearMonth.of(2025, 12), YearMonth.of(2026, 1)))
+                .isEqualTo("PARTITION p202512 VALUES LESS THAN ('2026-01-01'), "
+                        + "PARTITION p202601 VALUES LESS THAN ('2026-02-01'), "
+                        + "PARTITION pmax VALUES LESS THAN (MAXVALUE)");
+    }
+}
@@ -0,0 +1,64 @@
+package com.finpay.wallet.transaction.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WalletTransactionPartitionManager Unit Tests")
+class WalletTransactionPartitionManagerTest {
+
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private DataSource dataSource;
+    @Mock private WalletTransactionArchiveRepository archiveRepository;
+    @Mock private ArchiveStorage storage;
+    @Mock private ArchivedTransactionReader archiveReader;
+
+    private WalletTransactionPartitionManager manager;
+
+    @BeforeEach
+    void setUp() {
+        when(jdbcTemplate.getDataSource()).thenReturn(dataSource);
+        TransactionArchiveProperties properties = new TransactionArchiveProperties();
+        properties.setMonthsAhead(2);
+        manager = new WalletTransactionPartitionManager(jdbcTemplate, archiveRepository, storage, archiveReader,
+                new ObjectMapper(), properties);
+    }
+
+    @Test
+    @DisplayName("should leave an unpartitioned table alone during maintenance")
+    void shouldNotConvertDuringMaintenance() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), anyString())).thenReturn(List.of());
+
+        manager.maintain(YearMonth.of(2026, 3));
+
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    @DisplayName("should split the catch-all partition for upcoming months")
+    void shouldAddUpcomingPartitions() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), anyString()))
+                .thenReturn(List.of("p202603", "pmax"));
+
+        manager.maintain(YearMonth.of(2026, 3));
+
+        verify(jdbcTemplate).execute(startsWith("ALTER TABLE wallet_transactions REORGANIZE PARTITION pmax INTO ("
+                + "PARTITION p202604"));
+        verify(jdbcTemplate, never()).execute(startsWith("ALTER TABLE wallet_transactions DROP PRIMARY KEY"));
+    }
+}
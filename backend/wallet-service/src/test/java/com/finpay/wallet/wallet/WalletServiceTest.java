@@ -1,5 +1,7 @@
 package com.finpay.wallet.wallet;
 
+import com.finpay.wallet.fx.FxConversion;
+import com.finpay.wallet.fx.FxRateService;
 import com.finpay.wallet.shared.exception.InsufficientFundsException;
 import com.finpay.wallet.shared.exception.ResourceNotFoundException;
 import com.finpay.wallet.shared.exception.TransactionLimitExceededException;
@@ -8,6 +10,9 @@ import com.finpay.wallet.transaction.WalletTransaction;
 import com.finpay.wallet.transaction.WalletTransactionService;
 import com.finpay.wallet.wallet.dto.WalletOperationResponse;
 import com.finpay.wallet.wallet.dto.WalletResponse;
+import com.finpay.wallet.wallet.hold.FundsHoldService;
+import com.finpay.wallet.wallet.hold.HoldSettlement;
+import com.finpay.wallet.wallet.limit.RollingSpendLimiter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -35,6 +40,9 @@ class WalletServiceTest {
     @Mock private WalletTransactionService transactionService;
     @Mock private WalletMapper walletMapper;
     @Mock private WalletCacheService walletCacheService;
+    @Mock private RollingSpendLimiter rollingSpendLimiter;
+    @Mock private FundsHoldService fundsHoldService;
+    @Mock private FxRateService fxRateService;
 
     @InjectMocks private WalletService walletService;
 
@@ -59,6 +67,9 @@ class WalletServiceTest {
                 .multiCurrencyEnabled(false)
                 .apiAccessEnabled(false)
                 .build();
+
+        lenient().when(fundsHoldService.captureHold(any(), any())).thenReturn(HoldSettlement.untracked());
+        lenient().when(fundsHoldService.releaseHold(any(), any())).thenReturn(HoldSettlement.untracked());
     }
 
     @Nested
@@ -164,6 +175,39 @@ class WalletServiceTest {
                     .isInstanceOf(TransactionLimitExceededException.class);
         }
 
+        @Test
+        @DisplayName("should use rolling limits instead of calendar counters when enabled")
+        void shouldUseRollingLimitsWhenEnabled() {
+            // Calendar counters alone would reject this reservation
+            activeWallet.getSpendTracker().setDailySpent(new BigDecimal("450.00"));
+            BigDecimal amount = new BigDecimal("100.00");
+
+            when(rollingSpendLimiter.isEnabled()).thenReturn(true);
+            when(walletRepository.findByUserIdForUpdate(userId)).thenReturn(Optional.of(activeWallet));
+            when(walletRepository.save(any())).thenReturn(activeWallet);
+
+            WalletOperationResponse response = walletService.reserveFunds(userId, amount, "ref-1");
+
+            assertThat(response.success()).isTrue();
+            var inOrder = inOrder(rollingSpendLimiter, walletRepository);
+            inOrder.verify(rollingSpendLimiter).consume(userId, amount, null);
+            inOrder.verify(walletRepository).findByUserIdForUpdate(userId);
+        }
+
+        @Test
+        @DisplayName("should reject before locking the wallet when the rolling limit is exceeded")
+        void shouldRejectBeforeLockWhenRollingLimitExceeded() {
+            BigDecimal amount = new BigDecimal("100.00");
+            when(rollingSpendLimiter.isEnabled()).thenReturn(true);
+            doThrow(new TransactionLimitExceededException(TransactionLimitExceededException.LimitType.DAILY,
+                    new BigDecimal("500.00"), new BigDecimal("450.00"), amount))
+                    .when(rollingSpendLimiter).consume(userId, amount, null);
+
+            assertThatThrownBy(() -> walletService.reserveFunds(userId, amount, "ref-1"))
+                    .isInstanceOf(TransactionLimitExceededException.class);
+            verify(walletRepository, never()).findByUserIdForUpdate(any());
+        }
+
         @Test
         @DisplayName("should throw ResourceNotFoundException when wallet not found")
         void shouldThrowWhenWalletNotFound() {
@@ -174,6 +218,73 @@ class WalletServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Currency Conversion")
+    class CurrencyConversionTests {
+
+        private FxConversion eurToUsd(String eur, String usd) {
+            return new FxConversion(new BigDecimal(eur), "EUR", new BigDecimal(usd), "USD",
+                    new BigDecimal("1.087"), null);
+        }
+
+        @Test
+        @DisplayName("should reserve the converted amount for foreign-currency commands")
+        void shouldReserveConvertedAmount() {
+            activeWallet.setMultiCurrencyEnabled(true);
+            when(walletRepository.findByUserIdForUpdate(userId)).thenReturn(Optional.of(activeWallet));
+            when(walletRepository.save(any(Wallet.class))).thenReturn(activeWallet);
+            when(fxRateService.convert(new BigDecimal("100.00"), "EUR", "USD")).thenReturn(eurToUsd("100.00", "108.70"));
+
+            WalletOperationResponse response = walletService.reserveFunds(userId, new BigDecimal("100.00"), "EUR", "ref-1");
+
+            assertThat(response.amount()).isEqualByComparingTo("108.70");
+            assertThat(activeWallet.getReservedBalance()).isEqualByComparingTo("108.70");
+            verify(fundsHoldService).placeHold(activeWallet, new BigDecimal("108.70"), "ref-1", null);
+        }
+
+        @Test
+        @DisplayName("should not convert commands in the wallet's own currency")
+        void shouldPassThroughWalletCurrency() {
+            when(walletRepository.findByUserIdForUpdate(userId)).thenReturn(Optional.of(activeWallet));
+            when(walletRepository.save(any(Wallet.class))).thenReturn(activeWallet);
+
+            walletService.creditFunds(userId, new BigDecimal("50.00"), "usd", "ref-1");
+
+            assertThat(activeWallet.getBalance()).isEqualByComparingTo("1050.00");
+            verifyNoInteractions(fxRateService);
+        }
+
+        @Test
+        @DisplayName("should apply foreign-currency amounts as given when multi-currency is disabled")
+        void shouldNotConvertWithoutMultiCurrency() {
+            when(walletRepository.findByUserIdForUpdate(userId)).thenReturn(Optional.of(activeWallet));
+            when(walletRepository.save(any(Wallet.class))).thenReturn(activeWallet);
+
+            WalletOperationResponse response = walletService.creditFunds(userId, new BigDecimal("50.00"), "EUR", "ref-1");
+
+            assertThat(response.success()).isTrue();
+            assertThat(activeWallet.getBalance()).isEqualByComparingTo("1050.00");
+            verifyNoInteractions(fxRateService);
+        }
+
+        @Test
+        @DisplayName("should deduct the held amount regardless of rate moves")
+        void shouldDeductHeldAmount() {
+            activeWallet.setMultiCurrencyEnabled(true);
+            activeWallet.setReservedBalance(new BigDecimal("108.70"));
+            when(walletRepository.findByUserIdForUpdate(userId)).thenReturn(Optional.of(activeWallet));
+            when(walletRepository.save(any(Wallet.class))).thenReturn(activeWallet);
+            when(fundsHoldService.captureHold(userId, "ref-1"))
+                    .thenReturn(HoldSettlement.settled(new BigDecimal("108.70")));
+
+            walletService.deductFunds(userId, new BigDecimal("100.00"), "EUR", "ref-1");
+
+            assertThat(activeWallet.getReservedBalance()).isEqualByComparingTo("0.00");
+            assertThat(activeWallet.getBalance()).isEqualByComparingTo("891.30");
+            verifyNoInteractions(fxRateService);
+        }
+    }
+
     @Nested
     @DisplayName("Deduct Funds")
     class DeductFundsTests {
@@ -203,6 +314,19 @@ class WalletServiceTest {
                     .isInstanceOf(WalletException.class)
                     .hasMessage("Reserved funds insufficient for deduction");
         }
+
+        @Test
+        @DisplayName("should throw when the hold has already expired")
+        void shouldThrowWhenHoldExpired() {
+            activeWallet.setReservedBalance(new BigDecimal("100.00"));
+            when(walletRepository.findByUserIdForUpdate(userId)).thenReturn(Optional.of(activeWallet));
+            when(fundsHoldService.captureHold(userId, "ref-1")).thenReturn(HoldSettlement.alreadySettled(new BigDecimal("100.00")));
+
+            assertThatThrownBy(() -> walletService.deductFunds(userId, new BigDecimal("100.00"), "ref-1"))
+                    .isInstanceOf(WalletException.class)
+                    .hasMessageContaining("expired");
+            assertThat(activeWallet.getReservedBalance()).isEqualByComparingTo("100.00");
+        }
     }
 
     @Nested
@@ -404,6 +528,21 @@ class WalletServiceTest {
             assertThat(response.success()).isTrue();
             assertThat(response.operation()).isEqualTo("RELEASE_RESERVE");
         }
+
+        @Test
+        @DisplayName("should not release twice when the hold already expired")
+        void shouldNotReleaseExpiredHoldTwice() {
+            // Another reservation is still holding these funds
+            activeWallet.setReservedBalance(new BigDecimal("100.00"));
+            when(walletRepository.findByUserIdForUpdate(userId)).thenReturn(Optional.of(activeWallet));
+            when(fundsHoldService.releaseHold(userId, "ref-1")).thenReturn(HoldSettlement.alreadySettled(new BigDecimal("100.00")));
+
+            WalletOperationResponse response = walletService.releaseReservedFunds(userId, new BigDecimal("100.00"), "ref-1");
+
+            assertThat(response.success()).isTrue();
+            assertThat(activeWallet.getReservedBalance()).isEqualByComparingTo("100.00");
+            verify(walletRepository, never()).save(any());
+        }
     }
 
     @Nested
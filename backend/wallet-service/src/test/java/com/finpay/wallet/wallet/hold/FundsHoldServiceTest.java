@@ -0,0 +1,227 @@
+package com.finpay.wallet.wallet.hold;
+
+import com.finpay.wallet.shared.exception.WalletException;
+import com.finpay.wallet.transaction.WalletTransaction;
+import com.finpay.wallet.transaction.WalletTransactionService;
+import com.finpay.wallet.wallet.Wallet;
+import com.finpay.wallet.wallet.WalletCacheService;
+import com.finpay.wallet.wallet.WalletRepository;
+import com.finpay.wallet.wallet.limit.RollingSpendLimiter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("FundsHoldService Unit Tests")
+class FundsHoldServiceTest {
+
+    private static final long START = 1_000_000L;
+
+    @Mock private FundsHoldRepository holdRepository;
+    @Mock private WalletRepository walletRepository;
+    @Mock private WalletTransactionService transactionService;
+    @Mock private WalletCacheService walletCacheService;
+    @Mock private RollingSpendLimiter rollingSpendLimiter;
+    @Mock private TransactionTemplate transactionTemplate;
+
+    private final AtomicLong now = new AtomicLong(START);
+    private FundsHoldService holdService;
+    private Wallet wallet;
+
+    @BeforeEach
+    void setUp() {
+        FundsHoldProperties properties = new FundsHoldProperties();
+        properties.setTtl(Duration.ofMinutes(1));
+        holdService = new FundsHoldService(holdRepository, walletRepository, transactionService,
+                walletCacheService, rollingSpendLimiter, transactionTemplate, properties, now::get);
+        wallet = Wallet.builder()
+                .id(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .balance(new BigDecimal("100.00"))
+                .reservedBalance(new BigDecimal("40.00"))
+                .currency("USD")
+                .status(Wallet.WalletStatus.ACTIVE)
+                .build();
+    }
+
+    private FundsHold activeHold(String referenceId, BigDecimal amount) {
+        return FundsHold.builder()
+                .id(UUID.randomUUID())
+                .walletId(wallet.getId())
+                .userId(wallet.getUserId())
+                .referenceId(referenceId)
+                .amount(amount)
+                .status(FundsHold.HoldStatus.ACTIVE)
+                .expiresAt(Instant.ofEpochMilli(START).plus(Duration.ofMinutes(1)))
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubTransactions() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+    }
+
+    @Nested
+    @DisplayName("Expiry")
+    class ExpiryTests {
+
+        @Test
+        @DisplayName("should release funds of holds that reach their TTL")
+        @SuppressWarnings("unchecked")
+        void shouldExpireDueHolds() {
+            FundsHold hold = activeHold("saga-1", new BigDecimal("40.00"));
+            when(holdRepository.findByUserIdAndReferenceId(wallet.getUserId(), "saga-1")).thenReturn(Optional.empty());
+            when(holdRepository.save(any(FundsHold.class))).thenAnswer(invocation -> {
+                FundsHold saved = invocation.getArgument(0);
+                saved.setId(hold.getId());
+                return saved;
+            });
+            holdService.placeHold(wallet, new BigDecimal("40.00"), "saga-1", null);
+            assertThat(holdService.scheduledHolds()).isEqualTo(1);
+
+            holdService.expireDue();
+            verify(transactionTemplate, never()).execute(any());
+
+            stubTransactions();
+            when(holdRepository.findWalletIdsByIdIn(List.of(hold.getId()))).thenReturn(List.of(wallet.getId()));
+            when(walletRepository.findAllByIdInForUpdate(anyCollection())).thenReturn(List.of(wallet));
+            when(holdRepository.findAllByIdInAndStatus(List.of(hold.getId()), FundsHold.HoldStatus.ACTIVE))
+                    .thenReturn(List.of(hold));
+            now.addAndGet(Duration.ofMinutes(1).toMillis());
+
+            holdService.expireDue();
+
+            assertThat(hold.getStatus()).isEqualTo(FundsHold.HoldStatus.EXPIRED);
+            assertThat(wallet.getReservedBalance()).isEqualByComparingTo("0.00");
+            ArgumentCaptor<List<WalletTransaction>> ledger = ArgumentCaptor.forClass(List.class);
+            verify(transactionService).recordTransactions(ledger.capture());
+            assertThat(ledger.getValue()).singleElement()
+                    .extracting(WalletTransaction::getType).isEqualTo(WalletTransaction.TransactionType.RELEASE_RESERVE);
+            verify(rollingSpendLimiter).refund(wallet.getUserId(), new BigDecimal("40.00"));
+            verify(walletCacheService).evictWallets(List.of(wallet.getUserId()));
+            assertThat(holdService.scheduledHolds()).isZero();
+        }
+
+        @Test
+        @DisplayName("should leave holds settled concurrently untouched")
+        void shouldSkipSettledHolds() {
+            UUID holdId = UUID.randomUUID();
+            stubTransactions();
+            when(holdRepository.findWalletIdsByIdIn(List.of(holdId))).thenReturn(List.of(wallet.getId()));
+            when(walletRepository.findAllByIdInForUpdate(anyCollection())).thenReturn(List.of(wallet));
+            when(holdRepository.findAllByIdInAndStatus(List.of(holdId), FundsHold.HoldStatus.ACTIVE))
+                    .thenReturn(List.of());
+            when(holdRepository.findOverdueIds(any(), any())).thenReturn(List.of(holdId));
+
+            holdService.sweepOverdue();
+
+            assertThat(wallet.getReservedBalance()).isEqualByComparingTo("40.00");
+            verify(transactionService, never()).recordTransactions(any());
+            verify(walletCacheService, never()).evictWallets(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Placement")
+    class PlacementTests {
+
+        @Test
+        @DisplayName("should hold funds for the duration the saga asks for")
+        void shouldUseRequestedDuration() {
+            when(holdRepository.findByUserIdAndReferenceId(wallet.getUserId(), "saga-1")).thenReturn(Optional.empty());
+            when(holdRepository.save(any(FundsHold.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+            holdService.placeHold(wallet, BigDecimal.TEN, "saga-1", Duration.ofMinutes(45));
+
+            ArgumentCaptor<FundsHold> saved = ArgumentCaptor.forClass(FundsHold.class);
+            verify(holdRepository).save(saved.capture());
+            assertThat(saved.getValue().getExpiresAt())
+                    .isEqualTo(Instant.ofEpochMilli(START).plus(Duration.ofMinutes(45)));
+        }
+
+        @Test
+        @DisplayName("should add to an active hold without shortening it")
+        void shouldExtendActiveHold() {
+            FundsHold hold = activeHold("saga-1", BigDecimal.TEN);
+            Instant expiresAt = hold.getExpiresAt();
+            when(holdRepository.findByUserIdAndReferenceId(wallet.getUserId(), "saga-1")).thenReturn(Optional.of(hold));
+            when(holdRepository.save(hold)).thenReturn(hold);
+
+            holdService.placeHold(wallet, BigDecimal.ONE, "saga-1", Duration.ofSeconds(1));
+
+            assertThat(hold.getAmount()).isEqualByComparingTo("11");
+            assertThat(hold.getExpiresAt()).isEqualTo(expiresAt);
+        }
+
+        @Test
+        @DisplayName("should refuse to reserve again under a settled hold's reference")
+        void shouldRefuseSettledHold() {
+            FundsHold hold = activeHold("saga-1", BigDecimal.TEN);
+            hold.setStatus(FundsHold.HoldStatus.CAPTURED);
+            when(holdRepository.findByUserIdAndReferenceId(wallet.getUserId(), "saga-1")).thenReturn(Optional.of(hold));
+
+            assertThatThrownBy(() -> holdService.placeHold(wallet, BigDecimal.ONE, "saga-1", null))
+                    .isInstanceOf(WalletException.class)
+                    .hasMessageContaining("CAPTURED");
+            assertThat(hold.getStatus()).isEqualTo(FundsHold.HoldStatus.CAPTURED);
+            verify(holdRepository, never()).save(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Settlement")
+    class SettlementTests {
+
+        @Test
+        @DisplayName("should capture an active hold and stop tracking it")
+        void shouldCaptureActiveHold() {
+            FundsHold hold = activeHold("saga-1", BigDecimal.TEN);
+            when(holdRepository.findByUserIdAndReferenceId(wallet.getUserId(), "saga-1")).thenReturn(Optional.of(hold));
+
+            assertThat(holdService.captureHold(wallet.getUserId(), "saga-1").settleable()).isTrue();
+            assertThat(hold.getStatus()).isEqualTo(FundsHold.HoldStatus.CAPTURED);
+        }
+
+        @Test
+        @DisplayName("should refuse to settle an expired hold")
+        void shouldRefuseExpiredHold() {
+            FundsHold hold = activeHold("saga-1", BigDecimal.TEN);
+            hold.setStatus(FundsHold.HoldStatus.EXPIRED);
+            when(holdRepository.findByUserIdAndReferenceId(wallet.getUserId(), "saga-1")).thenReturn(Optional.of(hold));
+
+            assertThat(holdService.releaseHold(wallet.getUserId(), "saga-1").settleable()).isFalse();
+            verify(holdRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("should treat untracked reservations as settleable")
+        void shouldAllowUntrackedReservations() {
+            when(holdRepository.findByUserIdAndReferenceId(wallet.getUserId(), "legacy")).thenReturn(Optional.empty());
+
+            assertThat(holdService.releaseHold(wallet.getUserId(), "legacy")).isEqualTo(HoldSettlement.untracked());
+            assertThat(holdService.captureHold(wallet.getUserId(), null).settleable()).isTrue();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.finpay.wallet.wallet.hold;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("HashedTimerWheel Unit Tests")
+class HashedTimerWheelTest {
+
+    @Test
+    @DisplayName("should fire keys once their deadline tick has passed")
+    void shouldFireDueKeys() {
+        HashedTimerWheel<String> wheel = new HashedTimerWheel<>(100, 8, 0);
+        wheel.schedule("a", 250);
+        wheel.schedule("b", 500);
+
+        assertThat(wheel.advance(200)).isEmpty();
+        assertThat(wheel.advance(300)).containsExactly("a");
+        assertThat(wheel.advance(500)).containsExactly("b");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("should not fire cancelled or rescheduled keys early")
+    void shouldCancelAndReschedule() {
+        HashedTimerWheel<String> wheel = new HashedTimerWheel<>(100, 8, 0);
+        wheel.schedule("a", 200);
+        wheel.schedule("b", 200);
+        wheel.schedule("c", 200);
+
+        assertThat(wheel.cancel("b")).isTrue();
+        assertThat(wheel.cancel("missing")).isFalse();
+        wheel.schedule("c", 600);
+
+        assertThat(wheel.advance(300)).containsExactly("a");
+        assertThat(wheel.advance(600)).containsExactly("c");
+    }
+
+    @Test
+    @DisplayName("should keep deadlines beyond one revolution until their round comes")
+    void shouldHandleMultipleRevolutions() {
+        HashedTimerWheel<String> wheel = new HashedTimerWheel<>(100, 8, 0);
+        // Same bucket as tick 2, but eight ticks later
+        wheel.schedule("near", 200);
+        wheel.schedule("far", 1000);
+
+        assertThat(wheel.advance(200)).containsExactly("near");
+        assertThat(wheel.advance(900)).isEmpty();
+        assertThat(wheel.advance(1000)).containsExactly("far");
+    }
+
+    @Test
+    @DisplayName("should fire everything overdue after a long pause")
+    void shouldCatchUpAfterPause() {
+        HashedTimerWheel<Integer> wheel = new HashedTimerWheel<>(100, 8, 0);
+        for (int i = 1; i <= 20; i++) {
+            wheel.schedule(i, i * 100L);
+        }
+        wheel.schedule(99, 10_000);
+
+        assertThat(wheel.advance(5_000)).hasSize(20);
+        assertThat(wheel.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should fire deadlines in the past on the next advance")
+    void shouldFirePastDeadlines() {
+        HashedTimerWheel<String> wheel = new HashedTimerWheel<>(100, 8, 1_000);
+        wheel.advance(1_000);
+        wheel.schedule("late", 100);
+
+        assertThat(wheel.advance(1_100)).containsExactly("late");
+    }
+}
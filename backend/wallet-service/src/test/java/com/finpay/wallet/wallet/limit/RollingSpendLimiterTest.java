@@ -0,0 +1,213 @@
+package com.finpay.wallet.wallet.limit;
+
+import com.finpay.wallet.fx.FxConversion;
+import com.finpay.wallet.fx.FxRateService;
+import com.finpay.wallet.shared.exception.TransactionLimitExceededException;
+import com.finpay.wallet.transaction.WalletTransaction;
+import com.finpay.wallet.transaction.WalletTransactionRepository;
+import com.finpay.wallet.transaction.WalletTransactionService;
+import com.finpay.wallet.wallet.WalletRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RollingSpendLimiter Unit Tests")
+class RollingSpendLimiterTest {
+
+    private static final long START = 1_000L * RollingSpendLimiter.DAY_MS + 12 * RollingSpendLimiter.HOUR_MS;
+
+    @Mock private WalletRepository walletRepository;
+    @Mock private WalletTransactionService transactionService;
+    @Mock private FxRateService fxRateService;
+
+    private final AtomicLong now = new AtomicLong(START);
+    private RollingSpendLimiter limiter;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        RollingLimitProperties properties = new RollingLimitProperties();
+        properties.setEnabled(true);
+        limiter = new RollingSpendLimiter(properties, walletRepository, transactionService,
+                new InMemorySpendWindowStore(properties.getHourBuckets(), properties.getDayBuckets()),
+                fxRateService, now::get, ZoneOffset.UTC);
+        userId = UUID.randomUUID();
+
+        lenient().when(walletRepository.findLimitsByUserId(userId)).thenReturn(Optional.of(limits("500", "5000")));
+        lenient().when(transactionService.findSpendEntries(anyCollection(), any(), anyCollection()))
+                .thenReturn(List.of());
+    }
+
+    private WalletRepository.WalletLimitView limits(String daily, String monthly) {
+        return new WalletRepository.WalletLimitView() {
+            @Override public String getCurrency() { return "USD"; }
+            @Override public BigDecimal getDailyTransactionLimit() { return new BigDecimal(daily); }
+            @Override public BigDecimal getMonthlyTransactionLimit() { return new BigDecimal(monthly); }
+            @Override public Boolean getMultiCurrencyEnabled() { return true; }
+        };
+    }
+
+    private WalletTransactionRepository.SpendEntry entry(WalletTransaction.TransactionType type,
+                                                         String amount, long at) {
+        return new WalletTransactionRepository.SpendEntry() {
+            @Override public UUID getUserId() { return userId; }
+            @Override public WalletTransaction.TransactionType getType() { return type; }
+            @Override public BigDecimal getAmount() { return new BigDecimal(amount); }
+            @Override public LocalDateTime getCreatedAt() {
+                return LocalDateTime.ofInstant(Instant.ofEpochMilli(at), ZoneOffset.UTC);
+            }
+        };
+    }
+
+    @Nested
+    @DisplayName("Rolling 24h Window")
+    class DailyWindowTests {
+
+        @Test
+        @DisplayName("should reject spend over the limit within the last 24 hours")
+        void shouldRejectWithinWindow() {
+            limiter.consume(userId, new BigDecimal("450.00"));
+
+            assertThatThrownBy(() -> limiter.consume(userId, new BigDecimal("100.00")))
+                    .isInstanceOf(TransactionLimitExceededException.class)
+                    .hasMessageContaining("Rolling daily transaction limit exceeded. Limit: $500")
+                    .extracting(e -> ((TransactionLimitExceededException) e).getLimitType())
+                    .isEqualTo(TransactionLimitExceededException.LimitType.ROLLING_DAILY);
+        }
+
+        @Test
+        @DisplayName("should not reset at midnight")
+        void shouldNotResetAtMidnight() {
+            limiter.consume(userId, new BigDecimal("450.00"));
+            // Crossing into the next calendar day is still inside the 24h window
+            now.addAndGet(13 * RollingSpendLimiter.HOUR_MS);
+
+            assertThatThrownBy(() -> limiter.consume(userId, new BigDecimal("100.00")))
+                    .isInstanceOf(TransactionLimitExceededException.class);
+        }
+
+        @Test
+        @DisplayName("should free spend once it slides out of the window")
+        void shouldExpireOldSpend() {
+            limiter.consume(userId, new BigDecimal("450.00"));
+            now.addAndGet(25 * RollingSpendLimiter.HOUR_MS);
+
+            assertThatCode(() -> limiter.consume(userId, new BigDecimal("100.00"))).doesNotThrowAnyException();
+        }
+
+        @Test
+        @DisplayName("should count foreign-currency spend in the wallet's currency")
+        void shouldConvertForeignCurrency() {
+            when(fxRateService.convert(new BigDecimal("100.00"), "EUR", "USD")).thenReturn(new FxConversion(
+                    new BigDecimal("100.00"), "EUR", new BigDecimal("108.70"), "USD", new BigDecimal("1.087"), null));
+            limiter.consume(userId, new BigDecimal("400.00"));
+
+            assertThatThrownBy(() -> limiter.consume(userId, new BigDecimal("100.00"), "EUR"))
+                    .isInstanceOf(TransactionLimitExceededException.class);
+            assertThatCode(() -> limiter.consume(userId, new BigDecimal("100.00"), "usd")).doesNotThrowAnyException();
+        }
+
+        @Test
+        @DisplayName("should give released spend back")
+        void shouldRefundReleasedSpend() {
+            limiter.consume(userId, new BigDecimal("450.00"));
+            limiter.refund(userId, new BigDecimal("450.00"));
+
+            assertThatCode(() -> limiter.consume(userId, new BigDecimal("500.00"))).doesNotThrowAnyException();
+        }
+    }
+
+    @Nested
+    @DisplayName("Ledger Hydration")
+    class HydrationTests {
+
+        @Test
+        @DisplayName("should seed windows from reserves net of releases")
+        void shouldHydrateFromLedger() {
+            when(transactionService.findSpendEntries(anyCollection(), any(), anyCollection())).thenReturn(List.of(
+                    entry(WalletTransaction.TransactionType.RESERVE, "300.00", START - 2 * RollingSpendLimiter.HOUR_MS),
+                    entry(WalletTransaction.TransactionType.RESERVE, "200.00", START - RollingSpendLimiter.HOUR_MS),
+                    entry(WalletTransaction.TransactionType.RELEASE_RESERVE, "200.00", START - 1000)));
+
+            // 300 spent in the window: 200 more fits, 201 does not
+            assertThatThrownBy(() -> limiter.consume(userId, new BigDecimal("201.00")))
+                    .isInstanceOf(TransactionLimitExceededException.class);
+            assertThatCode(() -> limiter.consume(userId, new BigDecimal("200.00"))).doesNotThrowAnyException();
+            verify(transactionService, times(1)).findSpendEntries(anyCollection(), any(), anyCollection());
+        }
+
+        @Test
+        @DisplayName("should enforce the monthly limit over 30 days of ledger history")
+        void shouldEnforceMonthlyWindow() {
+            when(walletRepository.findLimitsByUserId(userId)).thenReturn(Optional.of(limits("1000", "1500")));
+            when(transactionService.findSpendEntries(anyCollection(), any(), anyCollection())).thenReturn(List.of(
+                    entry(WalletTransaction.TransactionType.RESERVE, "900.00", START - 20 * RollingSpendLimiter.DAY_MS),
+                    entry(WalletTransaction.TransactionType.RESERVE, "500.00", START - 3 * RollingSpendLimiter.DAY_MS)));
+
+            assertThatThrownBy(() -> limiter.consume(userId, new BigDecimal("200.00")))
+                    .isInstanceOf(TransactionLimitExceededException.class)
+                    .extracting(e -> ((TransactionLimitExceededException) e).getLimitType())
+                    .isEqualTo(TransactionLimitExceededException.LimitType.ROLLING_MONTHLY);
+        }
+
+        @Test
+        @DisplayName("should lower closed buckets to the ledger on reconcile")
+        void shouldLowerClosedBucketsOnReconcile() {
+            // Spend that never reached the ledger, e.g. a hold that expired without a release
+            limiter.consume(userId, new BigDecimal("450.00"));
+            now.addAndGet(RollingSpendLimiter.HOUR_MS + 10 * 60_000L);
+
+            limiter.reconcile();
+
+            assertThatCode(() -> limiter.consume(userId, new BigDecimal("500.00"))).doesNotThrowAnyException();
+        }
+
+        @Test
+        @DisplayName("should keep open buckets that are ahead of the ledger on reconcile")
+        void shouldKeepOpenBucketsOnReconcile() {
+            limiter.consume(userId, new BigDecimal("450.00"));
+
+            limiter.reconcile();
+
+            assertThatThrownBy(() -> limiter.consume(userId, new BigDecimal("100.00")))
+                    .isInstanceOf(TransactionLimitExceededException.class);
+        }
+
+        @Test
+        @DisplayName("should skip the check for unknown wallets")
+        void shouldSkipUnknownWallet() {
+            UUID unknown = UUID.randomUUID();
+            when(walletRepository.findLimitsByUserId(unknown)).thenReturn(Optional.empty());
+
+            assertThatCode(() -> limiter.consume(unknown, BigDecimal.TEN)).doesNotThrowAnyException();
+        }
+    }
+
+    @Test
+    @DisplayName("should convert amounts to ledger-scale minor units")
+    void shouldConvertToMinorUnits() {
+        assertThat(RollingSpendLimiter.toMinor(new BigDecimal("12.5"))).isEqualTo(125_000L);
+        assertThat(RollingSpendLimiter.fromMinor(125_000L)).isEqualByComparingTo("12.5");
+    }
+}